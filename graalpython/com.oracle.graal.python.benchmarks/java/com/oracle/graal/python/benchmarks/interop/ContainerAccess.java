@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.interop;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads and updates a list and a dict from one thread. With {@code arg2} set to {@code "multi"},
+ * another thread is started and joined first, so the containers use the code paths that are safe
+ * for concurrent access. Comparing both modes shows what these paths cost when there is no
+ * contention.
+ */
+public class ContainerAccess extends BenchRunner {
+
+    @Param({"1000000"}) public int arg1;
+
+    @Param({"single"}) public String arg2;
+
+    private Value access;
+
+    @Setup
+    public void setup() {
+        System.out.println("### setup ...");
+        context.close();
+        context = Context.newBuilder().allowIO(true).allowCreateThread(true).build();
+        if ("multi".equals(arg2)) {
+            context.eval("python", "import threading\n" +
+                            "t = threading.Thread(target=lambda: None)\n" +
+                            "t.start()\n" +
+                            "t.join()\n");
+        }
+        this.access = this.context.eval("python", "def access(n):\n" +
+                        "    l = list(range(100))\n" +
+                        "    d = {i: i for i in range(100)}\n" +
+                        "    s = 0\n" +
+                        "    for i in range(n):\n" +
+                        "        j = i % 100\n" +
+                        "        s += l[j] + d[j]\n" +
+                        "        l[j] = d[j] = s % 100\n" +
+                        "        l.append(j)\n" +
+                        "        l.pop()\n" +
+                        "    return s\n" +
+                        "access");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void containerAccess(Blackhole bh) {
+        bh.consume(access.execute(arg1).asLong());
+    }
+}
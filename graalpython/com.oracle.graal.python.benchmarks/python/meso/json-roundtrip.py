@@ -0,0 +1,87 @@
+# Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import json
+import random
+
+
+class Data:
+    pass
+
+
+data = Data()
+
+# about 500 bytes per record, so the default gives a document of roughly 10MB
+default_records = 20000
+
+WORDS = ["alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta", "iota", "kappa",
+         "lambda", "mü", "nü", "xi", "omicron", "pi", "rho", "sigma", "tau", "üpsilon"]
+
+
+def make_record(rnd, i):
+    return {
+        "id": i,
+        "uuid": "%08x-%04x-%04x-%04x-%012x" % (rnd.getrandbits(32), rnd.getrandbits(16), rnd.getrandbits(16), rnd.getrandbits(16), rnd.getrandbits(48)),
+        "active": rnd.random() < 0.5,
+        "name": " ".join(rnd.choice(WORDS) for _ in range(3)).title(),
+        "email": "user%d@example.com" % i,
+        "balance": round(rnd.uniform(-1000, 100000), 2),
+        "age": rnd.randint(18, 90),
+        "location": {"lat": rnd.uniform(-90, 90), "lon": rnd.uniform(-180, 180), "city": rnd.choice(WORDS)},
+        "tags": [rnd.choice(WORDS) for _ in range(rnd.randint(1, 5))],
+        "scores": [rnd.randint(0, 100) for _ in range(8)],
+        "history": [rnd.random() for _ in range(4)],
+        "about": "Line \"%d\"\n\t%s" % (i, " ".join(rnd.choice(WORDS) for _ in range(10))),
+        "parent": None if i % 7 else i // 7,
+    }
+
+
+def __setup__(records=default_records):
+    rnd = random.Random(42)
+    doc = {"version": 1, "records": [make_record(rnd, i) for i in range(records)]}
+    data.text = json.dumps(doc)
+    print("Created JSON document with %d characters" % len(data.text))
+
+
+def __benchmark__(records=default_records):
+    doc = json.loads(data.text)
+    compact = json.dumps(doc)
+    assert len(compact) == len(data.text)
+    pretty = json.dumps(doc, indent=2, sort_keys=True, ensure_ascii=False)
+    assert json.loads(pretty) == doc
@@ -0,0 +1,74 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import hashlib
+
+CHUNK_SIZE = 64 * 1024
+
+
+def hash_chunks(name, chunk, num_chunks):
+    h = hashlib.new(name)
+    for i in range(num_chunks):
+        h.update(chunk)
+    return h.hexdigest()
+
+
+def hash_views(name, buffer, num_chunks):
+    # hashes slices of one large buffer without creating intermediate bytes objects
+    h = hashlib.new(name)
+    view = memoryview(buffer)
+    n = len(buffer) // CHUNK_SIZE
+    for i in range(num_chunks):
+        start = (i % n) * CHUNK_SIZE
+        h.update(view[start:start + CHUNK_SIZE])
+    return h.hexdigest()
+
+
+def measure(num_chunks):
+    chunk = bytes(range(256)) * (CHUNK_SIZE // 256)
+    buffer = bytearray(chunk * 16)
+    # each algorithm hashes num_chunks * 64KB in total, i.e. 1GB by default
+    for name in ("sha256", "blake2b"):
+        digest = hash_chunks(name, chunk, num_chunks // 2)
+        view_digest = hash_views(name, buffer, num_chunks // 2)
+        print(name, digest, view_digest)
+
+
+def __benchmark__(num_chunks=16384):
+    measure(num_chunks)
@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,23 +37,34 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import random
 
-def _sort(self, key=None, reverse=False):
-    if reverse:
-        if key:
-            lt = lambda a,b: key(a) > key(b)
-        else:
-            lt = lambda a,b: a > b
-    else:
-        if key:
-            lt = lambda a,b: key(a) < key(b)
-        else:
-            lt = lambda a,b: a < b
-    origLen = len(self)
-    TimSort(self, lt=lt).sort()
-    if(origLen != len(self)):
-        raise ValueError("list modified during sort")
-    return None
-
-
-list._sort = _sort
+
+class Record:
+    def __init__(self, rid, score, name):
+        self.rid = rid
+        self.score = score
+        self.name = name
+
+
+def make_records(num):
+    rnd = random.Random(17)
+    return [Record(i, rnd.random(), "name%d" % rnd.randint(0, num)) for i in range(num)]
+
+
+def sort_records(records):
+    records.sort(key=lambda r: r.score)
+    records.sort(key=lambda r: r.name, reverse=True)
+    records.sort(key=lambda r: r.rid)
+    return records[0].rid
+
+
+def measure(num):
+    records = make_records(num)
+    for i in range(5):
+        first = sort_records(records)
+    print("First record ", first)
+
+
+def __benchmark__(num=1000000):
+    measure(num)
@@ -98,6 +98,16 @@ PyAPI_FUNC(PyObject *) PyCFunction_NewEx(PyMethodDef *, PyObject *,
 #define METH_STACKLESS 0x0000
 #endif
 
+/* GraalPython specific: the C function may be called without acquiring the
+   interop lock when multiple Python threads are running, so it may run
+   concurrently with any other C function.  Its calls back into the C API
+   (e.g. PyLong_FromLong, PyObject_Call) take the lock again for their
+   duration.  What the function does in C itself is not protected: it must
+   not change state that other threads may use, including static data and
+   the reference counts of objects shared with other threads (Py_INCREF and
+   Py_DECREF are not atomic), unless it synchronizes on its own. */
+#define METH_TRUFFLE_THREADSAFE 0x10000
+
 #ifndef Py_LIMITED_API
 typedef struct {
     PyObject_HEAD
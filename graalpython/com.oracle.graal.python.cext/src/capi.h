@@ -299,7 +299,7 @@ void initialize_hashes();
 #define JWRAPPER_ITERNEXT                    (polyglot_invoke(PY_TRUFFLE_CEXT, "METH_ITERNEXT"))
 
 #define TDEBUG __builtin_debugtrap()
-#define get_method_flags_wrapper(flags)                                                  \
+#define get_method_flags_converter(flags)                                                \
     (((flags) < 0) ?                                                                     \
      JWRAPPER_DIRECT :                                                                   \
      ((((flags) & (METH_FASTCALL | METH_KEYWORDS)) == (METH_FASTCALL | METH_KEYWORDS)) ? \
@@ -316,6 +316,11 @@ void initialize_hashes();
           JWRAPPER_O :                                                                   \
           JWRAPPER_UNSUPPORTED)))))))
 
+#define get_method_flags_wrapper(flags)                                                  \
+    ((((flags) >= 0) && ((flags) & METH_TRUFFLE_THREADSAFE)) ?                           \
+     polyglot_invoke(PY_TRUFFLE_CEXT, "METH_THREADSAFE", get_method_flags_converter(flags)) : \
+     get_method_flags_converter(flags))
+
 #define PY_TRUFFLE_TYPE_GENERIC(__TYPE_NAME__, __SUPER_TYPE__, __FLAGS__, __SIZE__, __ITEMSIZE__, __ALLOC__, __DEALLOC__, __FREE__, __VCALL_OFFSET__) {\
     PyVarObject_HEAD_INIT((__SUPER_TYPE__), 0)\
     __TYPE_NAME__,                              /* tp_name */\
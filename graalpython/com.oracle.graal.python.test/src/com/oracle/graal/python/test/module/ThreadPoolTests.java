@@ -45,6 +45,8 @@ import static org.junit.Assert.assertEquals;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -74,4 +76,33 @@ public class ThreadPoolTests {
         String result = byteArray.toString().replaceAll("\r\n", "\n");
         assertEquals("[True, True, True, True, True, True, True, True, True, True]\n", result);
     }
+
+    @Test
+    public void threadPoolOnVirtualThreads() {
+        String source = "from multiprocessing.pool import ThreadPool\n" +
+                        "\n" +
+                        "def fun(item):\n" +
+                        "    return item != None\n" +
+                        "\n" +
+                        "pool = ThreadPool(2)\n" +
+                        "res = list(pool.imap(fun, range(0, 10)))\n" +
+                        "pool.close()\n" +
+                        "# virtual threads must be done before the context is closed\n" +
+                        "pool.join()\n" +
+                        "\n" +
+                        "stats = __graalpython__.thread_stats()\n" +
+                        "if stats['virtual_supported']:\n" +
+                        "    assert stats['virtual']['created'] > 0, stats\n" +
+                        "else:\n" +
+                        "    assert stats['virtual']['created'] == 0, stats\n" +
+                        "print(res)\n";
+        Map<String, String> options = new HashMap<>();
+        options.put("python.WithThread", "true");
+        options.put("python.VirtualThreads", "true");
+        final ByteArrayOutputStream byteArray = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(byteArray);
+        PythonTests.runScript(options, new String[0], source, printStream, System.err, () -> PythonTests.closeContext());
+        String result = byteArray.toString().replaceAll("\r\n", "\n");
+        assertEquals("[True, True, True, True, True, True, True, True, True, True]\n", result);
+    }
 }
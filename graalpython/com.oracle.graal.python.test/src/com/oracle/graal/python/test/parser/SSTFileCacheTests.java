@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.test.PythonTests;
+
+public class SSTFileCacheTests {
+    private Path tmpdir;
+    private Path module;
+
+    @Before
+    public void setup() throws IOException {
+        tmpdir = Files.createTempDirectory("graalpython");
+        module = tmpdir.resolve("sstcachemod.py");
+    }
+
+    @After
+    public void teardown() throws IOException {
+        try (Stream<Path> files = Files.walk(tmpdir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private String importModule(String checkHashPycsMode) {
+        Map<String, String> options = new HashMap<>();
+        options.put("python.SSTCache", "true");
+        options.put("python.CheckHashPycsMode", checkHashPycsMode);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String source = "import sys\n" +
+                        "sys.path.insert(0, '" + tmpdir.toString() + "')\n" +
+                        "import sstcachemod\n" +
+                        "print(sstcachemod.value())\n";
+        PythonTests.runScript(options, new String[0], source, new PrintStream(out), System.err);
+        return out.toString().trim();
+    }
+
+    private Path getCacheFile() {
+        return tmpdir.resolve("__pycache__").resolve("sstcachemod.graalpython-" + PythonLanguage.MAJOR + PythonLanguage.MINOR + ".sst");
+    }
+
+    private void replaceModule(String content) throws IOException {
+        FileTime mtime = Files.getLastModifiedTime(module);
+        Files.write(module, content.getBytes());
+        Files.setLastModifiedTime(module, mtime);
+    }
+
+    @Test
+    public void storeAndLoad() throws IOException {
+        Files.write(module, "def value():\n    return 'aaa'\n".getBytes());
+        assertEquals("aaa", importModule("default"));
+        assertTrue(Files.isRegularFile(getCacheFile()));
+        assertEquals("aaa", importModule("default"));
+    }
+
+    @Test
+    public void invalidatedByHash() throws IOException {
+        Files.write(module, "def value():\n    return 'aaa'\n".getBytes());
+        assertEquals("aaa", importModule("default"));
+        // same size and modification time, only the hash differs
+        replaceModule("def value():\n    return 'bbb'\n");
+        assertEquals("bbb", importModule("default"));
+    }
+
+    @Test
+    public void timestampOnly() throws IOException {
+        Files.write(module, "def value():\n    return 'aaa'\n".getBytes());
+        assertEquals("aaa", importModule("never"));
+        // the cache entry is trusted because size and modification time are unchanged
+        replaceModule("def value():\n    return 'bbb'\n");
+        assertEquals("aaa", importModule("never"));
+        Files.setLastModifiedTime(module, FileTime.fromMillis(Files.getLastModifiedTime(module).toMillis() + 2000));
+        assertEquals("bbb", importModule("never"));
+    }
+}
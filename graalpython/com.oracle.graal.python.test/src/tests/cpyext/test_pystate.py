@@ -38,7 +38,7 @@
 # SOFTWARE.
 
 import sys
-from . import CPyExtTestCase, CPyExtFunction, CPyExtFunctionOutVars, unhandled_error_compare, GRAALPYTHON
+from . import CPyExtType, CPyExtTestCase, CPyExtFunction, CPyExtFunctionOutVars, unhandled_error_compare, GRAALPYTHON
 __dir__ = __file__.rpartition("/")[0]
 
 
@@ -61,3 +61,91 @@ class TestPystate(CPyExtTestCase):
         arguments=["PyObject* ignored"],
         callfunction="wrap_PyThreadState_GetDict",
     )
+
+
+class TestInteropLock(object):
+    if GRAALPYTHON:
+        def test_threadsafe_method_skips_interop_lock(self):
+            import threading
+            TestThreadSafe = CPyExtType("TestThreadSafe",
+                                        '''
+                                        static PyObject* get_none(PyObject* self) {
+                                            Py_RETURN_NONE;
+                                        }
+                                        ''',
+                                        tp_methods='{"locked", (PyCFunction)get_none, METH_NOARGS, ""}, '
+                                                   '{"unlocked", (PyCFunction)get_none, METH_NOARGS | METH_TRUFFLE_THREADSAFE, ""}'
+                                        )
+            tester = TestThreadSafe()
+
+            # the interop lock is only taken once a second thread has been started
+            t = threading.Thread(target=lambda: None)
+            t.start()
+            t.join()
+
+            n = 100
+
+            def acquisitions(method):
+                before = __graalpython__.interop_lock_stats()["acquisitions"]
+                for i in range(n):
+                    assert method() is None
+                return __graalpython__.interop_lock_stats()["acquisitions"] - before
+
+            assert acquisitions(tester.locked) >= n
+            assert acquisitions(tester.unlocked) < n
+
+        def test_threadsafe_method_upcalls_take_interop_lock(self):
+            import threading
+            TestThreadSafeUpcalls = CPyExtType("TestThreadSafeUpcalls",
+                                               '''
+                                               static PyObject* sum_calls(PyObject* self, PyObject* args) {
+                                                   PyObject* callable;
+                                                   long n;
+                                                   long i;
+                                                   long sum = 0;
+                                                   if (!PyArg_ParseTuple(args, "Ol", &callable, &n)) {
+                                                       return NULL;
+                                                   }
+                                                   for (i = 0; i < n; i++) {
+                                                       PyObject* arg = PyLong_FromLong(1000000 + i);
+                                                       PyObject* result = PyObject_CallFunctionObjArgs(callable, arg, NULL);
+                                                       Py_DECREF(arg);
+                                                       if (result == NULL) {
+                                                           return NULL;
+                                                       }
+                                                       sum += PyLong_AsLong(result);
+                                                       Py_DECREF(result);
+                                                   }
+                                                   return PyLong_FromLong(sum);
+                                               }
+                                               ''',
+                                               tp_methods='{"locked", (PyCFunction)sum_calls, METH_VARARGS, ""}, '
+                                                          '{"unlocked", (PyCFunction)sum_calls, METH_VARARGS | METH_TRUFFLE_THREADSAFE, ""}'
+                                               )
+            tester = TestThreadSafeUpcalls()
+            n = 200
+            expected = sum(2 * (1000000 + i) for i in range(n))
+            results = []
+            errors = []
+
+            def run(method):
+                try:
+                    for i in range(10):
+                        results.append(method(lambda x: x * 2, n))
+                except BaseException as e:
+                    errors.append(e)
+
+            # the thread-safe method runs concurrently with itself and with the locked one while
+            # both call back into Python
+            threads = [threading.Thread(target=run, args=(m,)) for m in [tester.unlocked] * 3 + [tester.locked]]
+            for t in threads:
+                t.start()
+            for t in threads:
+                t.join()
+            assert not errors, errors
+            assert results == [expected] * 40
+
+            # each upcall from the thread-safe method takes the lock
+            before = __graalpython__.interop_lock_stats()["acquisitions"]
+            assert tester.unlocked(lambda x: x * 2, n) == expected
+            assert __graalpython__.interop_lock_stats()["acquisitions"] - before >= n
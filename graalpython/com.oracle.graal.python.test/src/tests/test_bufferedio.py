@@ -0,0 +1,224 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import array
+import io
+import os
+import tempfile
+import unittest
+
+
+class CountingRaw(io.RawIOBase):
+    """A raw stream that records every write it receives."""
+
+    def __init__(self):
+        self.data = bytearray()
+        self.writes = []
+
+    def writable(self):
+        return True
+
+    def write(self, b):
+        self.writes.append(bytes(b))
+        self.data += b
+        return len(b)
+
+
+class BufferedWriterTest(unittest.TestCase):
+
+    def setUp(self):
+        fd, self.path = tempfile.mkstemp()
+        os.close(fd)
+
+    def tearDown(self):
+        os.unlink(self.path)
+
+    def test_write_coalescing(self):
+        raw = CountingRaw()
+        w = io.BufferedWriter(raw, 16)
+        for i in range(10):
+            self.assertEqual(w.write(b"ab"), 2)
+        self.assertEqual(raw.writes, [b"ab" * 8])
+        w.flush()
+        self.assertEqual(raw.writes, [b"ab" * 8, b"ab" * 2])
+        self.assertEqual(bytes(raw.data), b"ab" * 10)
+
+    def test_large_write(self):
+        raw = CountingRaw()
+        w = io.BufferedWriter(raw, 8)
+        w.write(b"x")
+        w.write(b"y" * 20)
+        w.flush()
+        self.assertEqual(bytes(raw.data), b"x" + b"y" * 20)
+        self.assertEqual(raw.writes[0], b"x")
+
+    def test_buffer_protocol(self):
+        with io.BufferedWriter(io.FileIO(self.path, "w")) as w:
+            self.assertEqual(w.write(bytearray(b"abc")), 3)
+            self.assertEqual(w.write(memoryview(b"xdefx")[1:4]), 3)
+            self.assertEqual(w.write(array.array("b", b"gh")), 2)
+            self.assertRaises(TypeError, w.write, "text")
+        with open(self.path, "rb") as f:
+            self.assertEqual(f.read(), b"abcdefgh")
+
+    def test_flush_on_close(self):
+        raw = io.FileIO(self.path, "w")
+        w = io.BufferedWriter(raw)
+        w.write(b"data")
+        self.assertEqual(os.path.getsize(self.path), 0)
+        w.close()
+        self.assertTrue(w.closed)
+        self.assertTrue(raw.closed)
+        with open(self.path, "rb") as f:
+            self.assertEqual(f.read(), b"data")
+        self.assertRaises(ValueError, w.write, b"x")
+
+    def test_tell_seek(self):
+        with io.BufferedWriter(io.FileIO(self.path, "w"), 4) as w:
+            w.write(b"abcdef")
+            self.assertEqual(w.tell(), 6)
+            w.write(b"gh")
+            self.assertEqual(w.seek(1), 1)
+            w.write(b"B")
+            self.assertEqual(w.tell(), 2)
+        with open(self.path, "rb") as f:
+            self.assertEqual(f.read(), b"aBcdefgh")
+
+    def test_not_writable(self):
+        with io.FileIO(self.path, "r") as raw:
+            self.assertRaises(io.UnsupportedOperation, io.BufferedWriter, raw)
+
+    def test_invalid_buffer_size(self):
+        with io.FileIO(self.path, "w") as raw:
+            self.assertRaises(ValueError, io.BufferedWriter, raw, 0)
+
+    def test_uninitialized(self):
+        w = io.BufferedWriter.__new__(io.BufferedWriter)
+        self.assertRaises(ValueError, w.write, b"x")
+
+
+class BufferedRandomTest(unittest.TestCase):
+
+    def setUp(self):
+        fd, self.path = tempfile.mkstemp()
+        os.write(fd, b"0123456789")
+        os.close(fd)
+
+    def tearDown(self):
+        os.unlink(self.path)
+
+    def test_read_write(self):
+        with io.BufferedRandom(io.FileIO(self.path, "r+"), 4) as f:
+            self.assertEqual(f.read(3), b"012")
+            f.write(b"abc")
+            self.assertEqual(f.tell(), 6)
+            self.assertEqual(f.read(2), b"67")
+            f.seek(0)
+            self.assertEqual(f.read(), b"012abc6789")
+            f.write(b"XY")
+            f.seek(-3, 2)
+            self.assertEqual(f.read1(10), b"9XY")
+        with open(self.path, "rb") as f:
+            self.assertEqual(f.read(), b"012abc6789XY")
+
+    def test_peek_after_write(self):
+        with io.BufferedRandom(io.FileIO(self.path, "r+")) as f:
+            f.write(b"ab")
+            self.assertEqual(f.peek(1)[:1], b"2")
+            self.assertEqual(f.read(), b"23456789")
+
+    def test_truncate(self):
+        with io.BufferedRandom(io.FileIO(self.path, "r+")) as f:
+            f.write(b"xy")
+            self.assertEqual(f.truncate(), 2)
+            self.assertEqual(f.tell(), 2)
+            self.assertEqual(f.truncate(5), 5)
+        self.assertEqual(os.path.getsize(self.path), 5)
+
+    def test_open(self):
+        with open(self.path, "r+b") as f:
+            self.assertIsInstance(f, io.BufferedRandom)
+            f.seek(5)
+            f.write(b"!")
+        with open(self.path, "wb") as f:
+            self.assertIsInstance(f, io.BufferedWriter)
+            f.write(b"new")
+        with open(self.path, "rb") as f:
+            self.assertEqual(f.read(), b"new")
+
+    def test_requires_seekable(self):
+        r, w = os.pipe()
+        try:
+            with io.FileIO(r, "r", closefd=False) as raw:
+                self.assertRaises(io.UnsupportedOperation, io.BufferedRandom, raw)
+        finally:
+            os.close(r)
+            os.close(w)
+
+
+class BufferedRWPairTest(unittest.TestCase):
+
+    def test_pair(self):
+        reader = io.BytesIO(b"abcdef")
+        writer = CountingRaw()
+        pair = io.BufferedRWPair(reader, writer, 4)
+        self.assertTrue(pair.readable())
+        self.assertTrue(pair.writable())
+        self.assertEqual(pair.read(2), b"ab")
+        self.assertEqual(pair.peek(1)[:1], b"c")
+        self.assertEqual(pair.read1(1), b"c")
+        b = bytearray(2)
+        self.assertEqual(pair.readinto(b), 2)
+        self.assertEqual(b, b"de")
+        self.assertEqual(pair.write(b"xyz"), 3)
+        self.assertEqual(writer.writes, [])
+        pair.flush()
+        self.assertEqual(writer.writes, [b"xyz"])
+        self.assertFalse(pair.isatty())
+        self.assertFalse(pair.closed)
+        pair.close()
+        self.assertTrue(pair.closed)
+        self.assertTrue(reader.closed)
+        self.assertTrue(writer.closed)
+
+    def test_not_readable(self):
+        self.assertRaises(io.UnsupportedOperation, io.BufferedRWPair, CountingRaw(), CountingRaw())
+
+
+if __name__ == '__main__':
+    unittest.main()
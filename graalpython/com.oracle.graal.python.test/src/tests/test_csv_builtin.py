@@ -0,0 +1,192 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _csv
+import unittest
+
+
+class ReaderTests(unittest.TestCase):
+
+    def read(self, lines, **kwargs):
+        return list(_csv.reader(lines, **kwargs))
+
+    def test_simple(self):
+        self.assertEqual(self.read(["a,b,c\r\n", "1,2,3\r\n"]), [["a", "b", "c"], ["1", "2", "3"]])
+        self.assertEqual(self.read(["\r\n"]), [[]])
+        self.assertEqual(self.read([",,\n"]), [["", "", ""]])
+
+    def test_quoted(self):
+        self.assertEqual(self.read(['"a,b","c""d",e\n']), [["a,b", 'c"d', "e"]])
+        self.assertEqual(self.read(['a,"b\n', 'c",d\n']), [["a", "b\nc", "d"]])
+        self.assertEqual(self.read(['"a" b,c']), [["a b", "c"]])
+
+    def test_options(self):
+        self.assertEqual(self.read(["a; b;\tc"], delimiter=";", skipinitialspace=True), [["a", "b", "\tc"]])
+        self.assertEqual(self.read(["a\\,b,c"], escapechar="\\"), [["a,b", "c"]])
+        self.assertEqual(self.read(["'a,b',c"], quotechar="'"), [["a,b", "c"]])
+        self.assertEqual(self.read(['"a,b",c'], quoting=_csv.QUOTE_NONE), [['"a', 'b"', "c"]])
+        self.assertEqual(self.read(['1,"x",2.5'], quoting=_csv.QUOTE_NONNUMERIC), [[1.0, "x", 2.5]])
+        self.assertRaises(ValueError, self.read, ["abc"], quoting=_csv.QUOTE_NONNUMERIC)
+
+    def test_non_ascii(self):
+        self.assertEqual(self.read(["ä\U0001f600ß|\U0001f600"], delimiter="|"), [["ä\U0001f600ß", "\U0001f600"]])
+        self.assertEqual(self.read(["a\U0001f600b"], delimiter="\U0001f600"), [["a", "b"]])
+
+    def test_errors(self):
+        self.assertRaises(_csv.Error, self.read, [b"a,b"])
+        self.assertRaises(_csv.Error, self.read, ['"a"b'], strict=True)
+        self.assertRaises(_csv.Error, self.read, ['"abc'], strict=True)
+        self.assertEqual(self.read(['"abc']), [["abc"]])
+        self.assertRaises(_csv.Error, self.read, ["a\rb"])
+
+    def test_line_num(self):
+        r = _csv.reader(['a,"b\n', 'c"\n', "d\n"])
+        self.assertEqual(r.line_num, 0)
+        next(r)
+        self.assertEqual(r.line_num, 2)
+        next(r)
+        self.assertEqual(r.line_num, 3)
+        self.assertRaises(StopIteration, next, r)
+
+    def test_field_size_limit(self):
+        old = _csv.field_size_limit()
+        try:
+            self.assertEqual(_csv.field_size_limit(5), old)
+            self.assertEqual(_csv.field_size_limit(), 5)
+            self.assertEqual(self.read(["abcde"]), [["abcde"]])
+            self.assertRaises(_csv.Error, self.read, ["abcdef"])
+            self.assertRaises(_csv.Error, self.read, ['"abc', 'def"'])
+            self.assertRaises(TypeError, _csv.field_size_limit, 1.0)
+        finally:
+            _csv.field_size_limit(old)
+
+
+class WriterTests(unittest.TestCase):
+
+    class Out:
+        def __init__(self):
+            self.parts = []
+
+        def write(self, s):
+            self.parts.append(s)
+            return len(s)
+
+        def value(self):
+            return "".join(self.parts)
+
+    def write(self, rows, **kwargs):
+        out = self.Out()
+        w = _csv.writer(out, **kwargs)
+        w.writerows(rows)
+        return out.value()
+
+    def test_simple(self):
+        self.assertEqual(self.write([["a", 1, 2.5, None]]), "a,1,2.5,\r\n")
+        self.assertEqual(self.write([["a,b", 'c"d', "e\nf"]]), '"a,b","c""d","e\nf"\r\n')
+        self.assertEqual(self.write([[""]]), '""\r\n')
+        self.assertEqual(self.write([[]]), "\r\n")
+
+    def test_writerow_result(self):
+        out = self.Out()
+        self.assertEqual(_csv.writer(out).writerow(["ab", "c"]), 6)
+
+    def test_quoting(self):
+        self.assertEqual(self.write([["a", 1]], quoting=_csv.QUOTE_ALL), '"a","1"\r\n')
+        self.assertEqual(self.write([["a", 1, 2.5, True]], quoting=_csv.QUOTE_NONNUMERIC), '"a",1,2.5,True\r\n')
+        self.assertEqual(self.write([["a,b"]], quoting=_csv.QUOTE_NONE, escapechar="\\"), "a\\,b\r\n")
+        self.assertRaises(_csv.Error, self.write, [["a,b"]], quoting=_csv.QUOTE_NONE)
+        self.assertRaises(_csv.Error, self.write, [[""]], quoting=_csv.QUOTE_NONE)
+        self.assertEqual(self.write([['a"b']], doublequote=False, escapechar="\\"), 'a\\"b\r\n')
+        self.assertRaises(_csv.Error, self.write, [['a"b']], doublequote=False)
+
+    def test_lineterminator(self):
+        self.assertEqual(self.write([["a", "b"], ["c"]], lineterminator="\n", delimiter="\t"), "a\tb\nc\n")
+
+    def test_errors(self):
+        self.assertRaises(TypeError, _csv.writer, object())
+        self.assertRaises(_csv.Error, _csv.writer(self.Out()).writerow, 1)
+
+
+class DialectTests(unittest.TestCase):
+
+    def test_defaults(self):
+        d = _csv.Dialect()
+        self.assertEqual(d.delimiter, ",")
+        self.assertEqual(d.quotechar, '"')
+        self.assertIsNone(d.escapechar)
+        self.assertEqual(d.lineterminator, "\r\n")
+        self.assertEqual(d.quoting, _csv.QUOTE_MINIMAL)
+        self.assertTrue(d.doublequote)
+        self.assertFalse(d.skipinitialspace)
+        self.assertFalse(d.strict)
+
+    def test_from_object(self):
+        class custom:
+            delimiter = ";"
+            quotechar = None
+        d = _csv.Dialect(custom, strict=True)
+        self.assertEqual(d.delimiter, ";")
+        self.assertIsNone(d.quotechar)
+        self.assertEqual(d.quoting, _csv.QUOTE_NONE)
+        self.assertTrue(d.strict)
+        self.assertIs(_csv.Dialect(d), d)
+
+    def test_validation(self):
+        self.assertRaises(TypeError, _csv.Dialect, delimiter="ab")
+        self.assertRaises(TypeError, _csv.Dialect, delimiter="")
+        self.assertRaises(TypeError, _csv.Dialect, delimiter=1)
+        self.assertRaises(TypeError, _csv.Dialect, quoting=4)
+        self.assertRaises(TypeError, _csv.Dialect, quoting=1.0)
+        self.assertRaises(TypeError, _csv.Dialect, quotechar=None, quoting=_csv.QUOTE_ALL)
+        self.assertRaises(TypeError, _csv.Dialect, lineterminator=None)
+        self.assertRaises(TypeError, _csv.Dialect, lineterminator=1)
+        self.assertRaises(TypeError, _csv.Dialect, nonsense=1)
+
+    def test_registry(self):
+        _csv.register_dialect("test_pipes", delimiter="|")
+        try:
+            self.assertIn("test_pipes", _csv.list_dialects())
+            self.assertEqual(_csv.get_dialect("test_pipes").delimiter, "|")
+            self.assertEqual(list(_csv.reader(["a|b"], "test_pipes")), [["a", "b"]])
+            self.assertEqual(list(_csv.reader(["a:b|c"], "test_pipes", delimiter=":")), [["a", "b|c"]])
+        finally:
+            _csv.unregister_dialect("test_pipes")
+        self.assertRaises(_csv.Error, _csv.get_dialect, "test_pipes")
+        self.assertRaises(_csv.Error, _csv.unregister_dialect, "test_pipes")
+        self.assertRaises(TypeError, _csv.register_dialect, 1)
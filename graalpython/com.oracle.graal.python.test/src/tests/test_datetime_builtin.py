@@ -0,0 +1,265 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import pickle
+import unittest
+from datetime import date, datetime, time, timedelta, timezone, tzinfo
+
+import _datetime
+
+
+class FixedOffset(tzinfo):
+
+    def __init__(self, minutes, name):
+        self._offset = timedelta(minutes=minutes)
+        self._name = name
+
+    def utcoffset(self, dt):
+        return self._offset
+
+    def tzname(self, dt):
+        return self._name
+
+    def dst(self, dt):
+        return timedelta(0)
+
+
+class DateTimeModuleTests(unittest.TestCase):
+
+    def test_builtin_classes(self):
+        for cls in (date, datetime, time, timedelta, timezone, tzinfo):
+            self.assertIs(getattr(_datetime, cls.__name__), cls)
+            self.assertEqual("datetime", cls.__module__)
+        self.assertTrue(issubclass(datetime, date))
+        self.assertTrue(issubclass(timezone, tzinfo))
+        self.assertEqual((1, 9999), (_datetime.MINYEAR, _datetime.MAXYEAR))
+
+    def test_timedelta_normalization(self):
+        td = timedelta(days=1, hours=-1, minutes=30, seconds=1.5, milliseconds=2, microseconds=-3)
+        self.assertEqual((0, 84601, 501997), (td.days, td.seconds, td.microseconds))
+        self.assertEqual(-1, timedelta(microseconds=-1).days)
+        self.assertEqual(timedelta(0), timedelta(seconds=0.5e-6))
+        self.assertEqual(timedelta(microseconds=2), timedelta(seconds=1.5e-6))
+        self.assertEqual(timedelta(days=3, hours=12), timedelta(weeks=0.5))
+        self.assertRaises(OverflowError, timedelta, days=1000000000)
+        self.assertRaises(TypeError, timedelta, days="1")
+        self.assertEqual(86400.000001, timedelta(days=1, microseconds=1).total_seconds())
+
+    def test_timedelta_arithmetic(self):
+        a = timedelta(hours=3, microseconds=7)
+        b = timedelta(minutes=-20)
+        self.assertEqual(timedelta(hours=2, minutes=40, microseconds=7), a + b)
+        self.assertEqual(timedelta(hours=3, minutes=20, microseconds=7), a - b)
+        self.assertEqual(timedelta(hours=6, microseconds=14), a * 2)
+        self.assertEqual(timedelta(hours=1, microseconds=2), a / 3)
+        self.assertEqual(timedelta(hours=1, minutes=30, microseconds=4), a * 0.5)
+        self.assertEqual(-10, a // b)
+        self.assertEqual(timedelta(minutes=-20, microseconds=7), a % b)
+        self.assertEqual(timedelta(microseconds=7), a % timedelta(hours=1))
+        self.assertEqual((-10, timedelta(minutes=-20, microseconds=7)), divmod(a, b))
+        self.assertEqual(a, abs(-a))
+        self.assertRaises(ZeroDivisionError, lambda: a // timedelta(0))
+        self.assertRaises(ZeroDivisionError, lambda: a / 0)
+
+    def test_timedelta_str_repr(self):
+        self.assertEqual("-1 day, 23:59:59.999999", str(timedelta(microseconds=-1)))
+        self.assertEqual("2 days, 0:00:01", str(timedelta(days=2, seconds=1)))
+        self.assertEqual("datetime.timedelta(days=-1, seconds=86399, microseconds=999999)", repr(timedelta(microseconds=-1)))
+        self.assertEqual("datetime.timedelta(0)", repr(timedelta()))
+
+    def test_date(self):
+        d = date(2020, 2, 29)
+        self.assertEqual(737484, d.toordinal())
+        self.assertEqual(d, date.fromordinal(737484))
+        self.assertEqual((5, 6), (d.weekday(), d.isoweekday()))
+        self.assertEqual(date(2021, 3, 1), d + timedelta(days=366))
+        self.assertEqual(timedelta(days=-366), d - date(2021, 3, 1))
+        self.assertEqual((2020, 9, 6), tuple(d.isocalendar()))
+        self.assertEqual("2020-02-29", d.isoformat())
+        self.assertEqual("Sat Feb 29 00:00:00 2020", d.ctime())
+        self.assertEqual(date(2021, 2, 28), d.replace(year=2021, day=28))
+        self.assertRaises(ValueError, d.replace, year=2021)
+        self.assertRaises(ValueError, date, 2021, 2, 29)
+        self.assertRaises(OverflowError, lambda: date.max + timedelta(days=1))
+
+    def test_time(self):
+        t = time(23, 59, 1, 500, tzinfo=timezone.utc)
+        self.assertEqual("23:59:01.000500+00:00", t.isoformat())
+        self.assertEqual("23:59:01.000+00:00", t.isoformat("milliseconds"))
+        self.assertEqual("23:59+00:00", t.isoformat(timespec="minutes"))
+        self.assertRaises(ValueError, t.isoformat, "decades")
+        self.assertEqual(timedelta(0), t.utcoffset())
+        self.assertEqual("UTC", t.tzname())
+        self.assertEqual(time(12, tzinfo=timezone.utc), time(13, tzinfo=timezone(timedelta(hours=1))))
+        self.assertNotEqual(t, time(23, 59, 1, 500))
+        self.assertRaises(TypeError, lambda: t < time(23, 59, 1, 500))
+        self.assertEqual(1, t.replace(fold=1).fold)
+        self.assertRaises(ValueError, time, 24)
+
+    def test_datetime_fields(self):
+        dt = datetime(2021, 7, 14, 10, 30, 15, 123456)
+        self.assertEqual((2021, 7, 14, 10, 30, 15, 123456, None, 0),
+                         (dt.year, dt.month, dt.day, dt.hour, dt.minute, dt.second, dt.microsecond, dt.tzinfo, dt.fold))
+        self.assertEqual(date(2021, 7, 14), dt.date())
+        self.assertEqual(time(10, 30, 15, 123456), dt.time())
+        self.assertEqual(dt, datetime.combine(dt.date(), dt.time()))
+        self.assertEqual("datetime.datetime(2021, 7, 14, 10, 30, 15, 123456)", repr(dt))
+        self.assertEqual("datetime.datetime(2021, 7, 14, 10, 0)", repr(dt.replace(minute=0, second=0, microsecond=0)))
+        self.assertEqual("Wed Jul 14 10:30:15 2021", dt.ctime())
+
+    def test_isoformat_roundtrip(self):
+        tz = timezone(timedelta(hours=-5, minutes=-30))
+        values = [datetime(1, 1, 1), datetime(2021, 7, 14, 10, 30, 15, 123456), datetime(9999, 12, 31, 23, 59, 59, 999999, tz),
+                  datetime(2000, 2, 29, 12, tzinfo=timezone.utc)]
+        for dt in values:
+            self.assertEqual(dt, datetime.fromisoformat(dt.isoformat()))
+            self.assertEqual(dt, datetime.fromisoformat(dt.isoformat(" ")))
+            self.assertEqual(dt.date(), date.fromisoformat(dt.date().isoformat()))
+            self.assertEqual(dt.timetz(), time.fromisoformat(dt.timetz().isoformat()))
+        self.assertEqual(datetime(2021, 7, 14, 10, 30, 15, 123000, tz), datetime.fromisoformat("2021-07-14T10:30:15.123-05:30"))
+        self.assertEqual("2021-07-14 10:30:15-05:30", str(datetime(2021, 7, 14, 10, 30, 15, tzinfo=tz)))
+        self.assertEqual("2021-07-14T10:30:15.000", datetime(2021, 7, 14, 10, 30, 15).isoformat(timespec="milliseconds"))
+        for s in ("2021-07-14T", "2021-7-14", "2021-07-14T10:3", "2021-07-14T25:00", "2021-13-01", "2021-07-14T10:30+05:3"):
+            self.assertRaises(ValueError, datetime.fromisoformat, s)
+        self.assertRaises(TypeError, datetime.fromisoformat, b"2021-07-14")
+
+    def test_timestamp(self):
+        self.assertEqual(0.0, datetime(1970, 1, 1, tzinfo=timezone.utc).timestamp())
+        self.assertEqual(1626258615.5, datetime(2021, 7, 14, 10, 30, 15, 500000, timezone.utc).timestamp())
+        self.assertEqual(datetime(2021, 7, 14, 10, 30, 15, 500000), datetime.utcfromtimestamp(1626258615.5))
+        self.assertEqual(datetime(2021, 7, 14, 12, 30, 15, 500000, timezone(timedelta(hours=2))),
+                         datetime.fromtimestamp(1626258615.5, timezone(timedelta(hours=2))))
+        self.assertEqual(datetime(1969, 12, 31, 23, 59, 59, 999999), datetime.utcfromtimestamp(-1e-6))
+        self.assertEqual(datetime(1970, 1, 1, 0, 0, 0, 2), datetime.utcfromtimestamp(1.5e-6))
+        naive = datetime(2021, 7, 14, 10, 30, 15)
+        self.assertEqual(naive, datetime.fromtimestamp(naive.timestamp()))
+        self.assertRaises(TypeError, datetime.fromtimestamp, 0, 1)
+
+    def test_datetime_arithmetic(self):
+        dt = datetime(2021, 12, 31, 23, 59, 59, 999999)
+        self.assertEqual(datetime(2022, 1, 1), dt + timedelta(microseconds=1))
+        self.assertEqual(datetime(2022, 1, 1), timedelta(microseconds=1) + dt)
+        self.assertEqual(datetime(2021, 12, 31), dt - timedelta(hours=23, minutes=59, seconds=59, microseconds=999999))
+        self.assertEqual(timedelta(days=365, microseconds=-1), dt - datetime(2021, 1, 1))
+        utc = datetime(2021, 1, 1, tzinfo=timezone.utc)
+        other = datetime(2021, 1, 1, 5, tzinfo=timezone(timedelta(hours=5)))
+        self.assertEqual(timedelta(0), utc - other)
+        self.assertRaises(TypeError, lambda: utc - datetime(2021, 1, 1))
+        self.assertRaises(OverflowError, lambda: datetime.max + timedelta(microseconds=1))
+
+    def test_comparison_and_hash(self):
+        utc = datetime(2021, 1, 1, tzinfo=timezone.utc)
+        other = datetime(2021, 1, 1, 5, tzinfo=timezone(timedelta(hours=5)))
+        self.assertEqual(utc, other)
+        self.assertEqual(hash(utc), hash(other))
+        self.assertEqual(hash(datetime(2021, 1, 1)), hash(datetime(2021, 1, 1, fold=1)))
+        self.assertEqual(hash(timedelta(days=1)), hash(timedelta(hours=24)))
+        self.assertEqual(1, len({utc, other}))
+        self.assertTrue(datetime(2021, 1, 1) < datetime(2021, 1, 1, 0, 0, 0, 1))
+        self.assertFalse(utc == datetime(2021, 1, 1))
+        self.assertRaises(TypeError, lambda: utc < datetime(2021, 1, 1))
+        self.assertFalse(date(2021, 1, 1) == datetime(2021, 1, 1))
+        self.assertRaises(TypeError, lambda: date(2021, 1, 1) < datetime(2021, 1, 1))
+        buckets = {}
+        for minute in range(120):
+            key = datetime(2021, 1, 1, minute // 60, minute % 60).replace(minute=0)
+            buckets[key] = buckets.get(key, 0) + 1
+        self.assertEqual({datetime(2021, 1, 1, 0): 60, datetime(2021, 1, 1, 1): 60}, buckets)
+
+    def test_timezone(self):
+        tz = timezone(timedelta(hours=5, minutes=30), "IST")
+        self.assertEqual("IST", tz.tzname(None))
+        self.assertEqual("UTC+05:30", timezone(timedelta(hours=5, minutes=30)).tzname(None))
+        self.assertEqual("UTC-01:00", str(timezone(timedelta(hours=-1))))
+        self.assertIs(timezone.utc, timezone(timedelta(0)))
+        self.assertEqual("datetime.timezone.utc", repr(timezone.utc))
+        self.assertEqual("datetime.timezone(datetime.timedelta(seconds=19800), 'IST')", repr(tz))
+        self.assertEqual(timezone(timedelta(hours=5, minutes=30)), tz)
+        self.assertRaises(ValueError, timezone, timedelta(hours=24))
+        self.assertRaises(TypeError, tz.utcoffset, 1)
+        dt = datetime(2021, 1, 1, 12, tzinfo=timezone.utc)
+        self.assertEqual(datetime(2021, 1, 1, 17, 30, tzinfo=tz), dt.astimezone(tz))
+        self.assertEqual(datetime(2021, 1, 1, 17, 30), dt.astimezone(tz).replace(tzinfo=None))
+
+    def test_custom_tzinfo(self):
+        tz = FixedOffset(-90, "X")
+        dt = datetime(2021, 1, 1, 12, tzinfo=tz)
+        self.assertEqual(timedelta(minutes=-90), dt.utcoffset())
+        self.assertEqual("X", dt.tzname())
+        self.assertEqual("2021-01-01T12:00:00-01:30", dt.isoformat())
+        self.assertEqual(datetime(2021, 1, 1, 13, 30, tzinfo=timezone.utc), dt.astimezone(timezone.utc))
+        self.assertEqual(dt, datetime(2021, 1, 1, 13, 30, tzinfo=timezone.utc).astimezone(tz))
+        self.assertEqual("12:00 -0130 X", dt.strftime("%H:%M %z %Z"))
+        self.assertRaises(NotImplementedError, tzinfo().utcoffset, None)
+
+    def test_pickle(self):
+        values = [timedelta(days=-5, seconds=7, microseconds=11), date(2021, 7, 14), time(1, 2, 3, 4, timezone.utc, fold=1),
+                  datetime(2021, 7, 14, 1, 2, 3, 4, timezone(timedelta(hours=3), "X"), fold=1), timezone.utc,
+                  timezone(timedelta(minutes=-30))]
+        for value in values:
+            for protocol in range(pickle.HIGHEST_PROTOCOL + 1):
+                copy = pickle.loads(pickle.dumps(value, protocol))
+                self.assertEqual(value, copy)
+                self.assertIs(type(value), type(copy))
+                if protocol > 3 and isinstance(value, (time, datetime)):
+                    self.assertEqual(value.fold, copy.fold)
+
+    def test_subclass(self):
+        class MyDateTime(datetime):
+            pass
+
+        dt = MyDateTime(2021, 7, 14, 10)
+        self.assertIs(MyDateTime, type(dt.replace(hour=11)))
+        self.assertIs(MyDateTime, type(MyDateTime.fromisoformat("2021-07-14T10:00:00")))
+        self.assertIs(MyDateTime, type(MyDateTime.fromtimestamp(0)))
+        self.assertIs(MyDateTime, type(dt + timedelta(1)))
+        self.assertEqual(datetime(2021, 7, 14, 10), dt)
+
+    def test_strftime(self):
+        dt = datetime(2021, 7, 4, 9, 5, 3, 42, timezone(timedelta(hours=-4), "EDT"))
+        self.assertEqual("2021-07-04 09:05:03.000042 -0400 EDT %", dt.strftime("%Y-%m-%d %H:%M:%S.%f %z %Z %%"))
+        self.assertEqual("2021-07-04", format(dt.date(), "%Y-%m-%d"))
+        self.assertEqual(str(dt), format(dt, ""))
+        self.assertEqual(datetime(2021, 7, 4, 9, 5, 3), datetime.strptime("2021-07-04 09:05:03", "%Y-%m-%d %H:%M:%S"))
+        self.assertEqual((2021, 7, 4, 9, 5, 3, 6, 185, -1), tuple(dt.replace(tzinfo=None).timetuple()))
+        self.assertEqual((2021, 7, 4, 13, 5, 3, 6, 185, 0), tuple(dt.utctimetuple()))
+
+
+if __name__ == '__main__':
+    unittest.main()
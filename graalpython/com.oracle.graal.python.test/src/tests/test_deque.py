@@ -629,3 +629,102 @@ class TestBasic(unittest.TestCase):
         klass = type(reversed(deque()))
         for s in ('abcd', range(2000)):
             self.assertEqual(list(klass(deque(s))), list(reversed(s)))
+
+    def test_mixed_element_types(self):
+        d = deque([1, 2, 3])
+        d.append(2 ** 40)
+        d.appendleft(0.5)
+        d.append('x')
+        d.appendleft(None)
+        self.assertEqual(list(d), [None, 0.5, 1, 2, 3, 2 ** 40, 'x'])
+        d = deque([1.5, -0.0, float('inf')])
+        d[1] = 7
+        self.assertEqual(list(d), [1.5, 7, float('inf')])
+        self.assertEqual(d.index(float('inf')), 2)
+
+    def test_wraparound(self):
+        d = deque(maxlen=5)
+        model = []
+        for i in range(23):
+            d.append(i)
+            model = (model + [i])[-5:]
+            if i % 3 == 0:
+                d.appendleft(-i)
+                model = ([-i] + model)[:5]
+            self.assertEqual(list(d), model)
+        d = deque()
+        model = []
+        for i in range(100):
+            d.append(i)
+            d.append(-i)
+            model += [i, -i]
+            self.assertEqual(d.popleft(), model.pop(0))
+            d.rotate(i)
+            model = model[-(i % len(model)):] + model[:-(i % len(model))] if i % len(model) else model
+            self.assertEqual(list(d), model)
+
+    def test_insert(self):
+        d = deque('abc')
+        d.insert(1, 'x')
+        d.insert(-1, 'y')
+        d.insert(100, 'z')
+        d.insert(-100, 'w')
+        self.assertEqual(''.join(d), 'waxbyc' + 'z')
+        d = deque('ab', maxlen=2)
+        self.assertRaises(IndexError, d.insert, 0, 'c')
+
+    def test_mutation_during_iteration(self):
+        d = deque(range(10))
+        it = iter(d)
+        next(it)
+        d.append(10)
+        self.assertRaises(RuntimeError, next, it)
+        it = reversed(deque(range(3)))
+        self.assertEqual(it.__length_hint__(), 3)
+        self.assertEqual(list(it), [2, 1, 0])
+
+    def test_iterator_constructors(self):
+        d = deque(range(5))
+        self.assertEqual(list(type(iter(d))(d, 2)), [2, 3, 4])
+        self.assertEqual(list(type(reversed(d))(d, 2)), [2, 1, 0])
+        self.assertRaises(TypeError, type(iter(d)), [1, 2])
+
+    def test_repr_and_reduce(self):
+        class Sub(deque):
+            pass
+        d = Sub([1, 'a'], maxlen=3)
+        self.assertEqual(repr(d), "Sub([1, 'a'], maxlen=3)")
+        e = deque()
+        e.append(e)
+        self.assertEqual(repr(e), 'deque([[...]])')
+        cls, args, state, it = d.__reduce__()
+        self.assertIs(cls, Sub)
+        self.assertEqual(args, ((), 3))
+        self.assertEqual(list(it), [1, 'a'])
+        self.assertEqual(type(d.copy()), Sub)
+        self.assertEqual(type(d + deque([2])), Sub)
+
+    def test_threads(self):
+        import threading
+        d = deque()
+        n = 2000
+        def producer():
+            for i in range(n):
+                d.append(i)
+        results = []
+        def consumer():
+            count = 0
+            while count < n:
+                try:
+                    d.popleft()
+                    count += 1
+                except IndexError:
+                    pass
+            results.append(count)
+        threads = [threading.Thread(target=producer) for _ in range(2)] + [threading.Thread(target=consumer) for _ in range(2)]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        self.assertEqual(results, [n, n])
+        self.assertEqual(len(d), 0)
@@ -0,0 +1,218 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import array
+import io
+import os
+import tempfile
+import unittest
+
+
+class FileIOTest(unittest.TestCase):
+
+    def setUp(self):
+        fd, self.path = tempfile.mkstemp()
+        os.close(fd)
+
+    def tearDown(self):
+        os.unlink(self.path)
+
+    def test_write_read(self):
+        with io.FileIO(self.path, "w") as f:
+            self.assertEqual(f.write(b"hello world"), 11)
+            self.assertEqual(f.write(bytearray(b"!")), 1)
+            self.assertEqual(f.write(memoryview(b"?")), 1)
+        with io.FileIO(self.path) as f:
+            self.assertEqual(f.read(5), b"hello")
+            self.assertEqual(f.read(), b" world!?")
+            self.assertEqual(f.read(), b"")
+
+    def test_readall(self):
+        data = bytes(range(256)) * 1000
+        with open(self.path, "wb") as f:
+            f.write(data)
+        with io.FileIO(self.path) as f:
+            self.assertEqual(f.readall(), data)
+        with io.FileIO(self.path) as f:
+            self.assertEqual(f.read(-1), data)
+
+    def test_readinto(self):
+        with open(self.path, "wb") as f:
+            f.write(b"abcdefgh")
+        with io.FileIO(self.path) as f:
+            b = bytearray(3)
+            self.assertEqual(f.readinto(b), 3)
+            self.assertEqual(b, b"abc")
+            a = array.array("b", [0, 0])
+            self.assertEqual(f.readinto(a), 2)
+            self.assertEqual(a.tobytes(), b"de")
+            m = memoryview(bytearray(5))
+            self.assertEqual(f.readinto(m), 3)
+            self.assertEqual(bytes(m), b"fgh\0\0")
+            self.assertEqual(f.readinto(bytearray(4)), 0)
+
+    def test_seek_tell_truncate(self):
+        with io.FileIO(self.path, "w+") as f:
+            f.write(b"0123456789")
+            self.assertEqual(f.tell(), 10)
+            self.assertEqual(f.seek(2), 2)
+            self.assertEqual(f.read(3), b"234")
+            self.assertEqual(f.seek(-2, os.SEEK_END), 8)
+            self.assertEqual(f.read(), b"89")
+            self.assertEqual(f.seek(4), 4)
+            self.assertEqual(f.truncate(), 4)
+            self.assertEqual(f.truncate(2), 2)
+            self.assertEqual(f.tell(), 4)
+            f.seek(0)
+            self.assertEqual(f.read(), b"01")
+            self.assertTrue(f.seekable())
+
+    def test_append(self):
+        with io.FileIO(self.path, "w") as f:
+            f.write(b"abc")
+        with io.FileIO(self.path, "a") as f:
+            self.assertEqual(f.tell(), 3)
+            f.write(b"def")
+        with io.FileIO(self.path) as f:
+            self.assertEqual(f.read(), b"abcdef")
+
+    def test_mode(self):
+        expected = {"r": "rb", "rb": "rb", "r+": "rb+", "w": "wb", "w+": "rb+", "a": "ab", "a+": "ab+"}
+        for mode, result in expected.items():
+            with io.FileIO(self.path, mode) as f:
+                self.assertEqual(f.mode, result)
+                self.assertEqual(f.readable(), "r" in mode or "+" in mode)
+                self.assertEqual(f.writable(), mode[0] != "r" or "+" in mode)
+        os.unlink(self.path)
+        with io.FileIO(self.path, "x") as f:
+            self.assertEqual(f.mode, "xb")
+        self.assertRaises(FileExistsError, io.FileIO, self.path, "x")
+
+    def test_bad_mode(self):
+        for mode in ("", "rw", "r++", "b", "wa"):
+            self.assertRaises(ValueError, io.FileIO, self.path, mode)
+        self.assertRaises(ValueError, io.FileIO, self.path, "rt")
+
+    def test_unsupported(self):
+        with io.FileIO(self.path, "r") as f:
+            self.assertRaises(io.UnsupportedOperation, f.write, b"x")
+            self.assertRaises(io.UnsupportedOperation, f.truncate)
+        with io.FileIO(self.path, "w") as f:
+            self.assertRaises(io.UnsupportedOperation, f.read)
+            self.assertRaises(io.UnsupportedOperation, f.readinto, bytearray(1))
+
+    def test_closed(self):
+        f = io.FileIO(self.path, "w")
+        fd = f.fileno()
+        self.assertFalse(f.closed)
+        f.close()
+        self.assertTrue(f.closed)
+        f.close()
+        self.assertRaises(OSError, os.fstat, fd)
+        for name, args in (("read", ()), ("write", (b"x",)), ("seek", (0,)), ("tell", ()), ("fileno", ()),
+                           ("readable", ()), ("writable", ()), ("seekable", ()), ("isatty", ())):
+            self.assertRaises(ValueError, getattr(f, name), *args)
+
+    def test_fd(self):
+        fd = os.open(self.path, os.O_RDWR)
+        try:
+            with io.FileIO(fd, "r+", closefd=False) as f:
+                self.assertEqual(f.fileno(), fd)
+                self.assertFalse(f.closefd)
+                self.assertEqual(f.name, fd)
+                f.write(b"data")
+            os.lseek(fd, 0, os.SEEK_SET)
+            self.assertEqual(os.read(fd, 10), b"data")
+        finally:
+            os.close(fd)
+        self.assertRaises(ValueError, io.FileIO, self.path, closefd=False)
+        self.assertRaises(ValueError, io.FileIO, -1)
+        self.assertRaises(TypeError, io.FileIO, 1.0)
+
+    def test_directory(self):
+        with self.assertRaises(IsADirectoryError) as cm:
+            io.FileIO(os.path.dirname(self.path))
+        self.assertEqual(cm.exception.filename, os.path.dirname(self.path))
+
+    def test_missing_file(self):
+        os.unlink(self.path)
+        with self.assertRaises(FileNotFoundError) as cm:
+            io.FileIO(self.path)
+        self.assertEqual(cm.exception.filename, self.path)
+        open(self.path, "w").close()
+
+    def test_opener(self):
+        calls = []
+
+        def opener(name, flags):
+            calls.append(name)
+            return os.open(name, flags)
+
+        with io.FileIO(self.path, "w", opener=opener) as f:
+            f.write(b"x")
+        self.assertEqual(calls, [self.path])
+        self.assertRaises(ValueError, io.FileIO, self.path, opener=lambda name, flags: -2)
+        self.assertRaises(TypeError, io.FileIO, self.path, opener=lambda name, flags: "fd")
+
+    def test_repr(self):
+        with io.FileIO(self.path) as f:
+            self.assertEqual(repr(f), "<_io.FileIO name=%r mode='rb' closefd=True>" % self.path)
+            del f.name
+            self.assertEqual(repr(f), "<_io.FileIO fd=%d mode='rb' closefd=True>" % f.fileno())
+        self.assertEqual(repr(f), "<_io.FileIO [closed]>")
+
+    def test_buffered_reader(self):
+        data = b"line\n" * 5000
+        with open(self.path, "wb") as f:
+            f.write(data)
+        with io.BufferedReader(io.FileIO(self.path), 64) as f:
+            self.assertEqual(f.readline(), b"line\n")
+            self.assertEqual(f.read(3), b"lin")
+            self.assertEqual(f.tell(), 8)
+            self.assertEqual(f.read(), data[8:])
+            self.assertFalse(f.closed)
+        self.assertTrue(f.closed)
+        self.assertTrue(f.raw.closed)
+
+    def test_open(self):
+        with open(self.path, "wb", buffering=0) as f:
+            self.assertIsInstance(f, io.FileIO)
+            f.write(b"abc")
+        with open(self.path, "rb") as f:
+            self.assertIsInstance(f.raw, io.FileIO)
+            self.assertEqual(f.read(), b"abc")
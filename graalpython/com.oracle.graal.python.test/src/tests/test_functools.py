@@ -0,0 +1,209 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import copy
+import functools
+import pickle
+import unittest
+
+
+def add(*args, **kwargs):
+    return args, kwargs
+
+
+class PartialTests(unittest.TestCase):
+    def test_call(self):
+        p = functools.partial(add, 1, 2, a=3)
+        self.assertEqual(p(), ((1, 2), {'a': 3}))
+        self.assertEqual(p(4, b=5), ((1, 2, 4), {'a': 3, 'b': 5}))
+        self.assertEqual(p(a=6), ((1, 2), {'a': 6}))
+        self.assertEqual(p.func, add)
+        self.assertEqual(p.args, (1, 2))
+        self.assertEqual(p.keywords, {'a': 3})
+        self.assertRaises(TypeError, functools.partial, 1)
+
+    def test_nested(self):
+        p = functools.partial(functools.partial(add, 1, a=1), 2, b=2)
+        self.assertIs(p.func, add)
+        self.assertEqual(p.args, (1, 2))
+        self.assertEqual(p(3), ((1, 2, 3), {'a': 1, 'b': 2}))
+
+    def test_subclass(self):
+        class MyPartial(functools.partial):
+            def __call__(self, *args, **kwargs):
+                return 'sub', super().__call__(*args, **kwargs)
+
+        p = MyPartial(add, 1)
+        self.assertEqual(p(2), ('sub', ((1, 2), {})))
+        self.assertEqual(repr(p), 'MyPartial(%r, 1)' % add)
+
+    def test_attributes(self):
+        p = functools.partial(add)
+        p.attr = 1
+        self.assertEqual(p.__dict__, {'attr': 1})
+        with self.assertRaises(AttributeError):
+            p.func = None
+
+    def test_repr(self):
+        p = functools.partial(add, 1, a='x')
+        self.assertEqual(repr(p), 'functools.partial(%r, 1, a=%r)' % (add, 'x'))
+
+    def test_pickle(self):
+        p = functools.partial(add, 1, a=2)
+        p.attr = 3
+        q = pickle.loads(pickle.dumps(p))
+        self.assertEqual(q(2), ((1, 2), {'a': 2}))
+        self.assertEqual(q.attr, 3)
+        self.assertRaises(TypeError, p.__setstate__, [])
+        self.assertRaises(TypeError, p.__setstate__, (add, (), None))
+        self.assertRaises(TypeError, p.__setstate__, (1, (), None, None))
+
+
+class ReduceTests(unittest.TestCase):
+    def test_reduce(self):
+        self.assertEqual(functools.reduce(lambda a, b: a + b, [1, 2, 3]), 6)
+        self.assertEqual(functools.reduce(lambda a, b: a + b, [1, 2, 3], 10), 16)
+        self.assertEqual(functools.reduce(lambda a, b: a + b, [], 10), 10)
+        self.assertEqual(functools.reduce(lambda a, b: a + b, iter('abc')), 'abc')
+        self.assertRaises(TypeError, functools.reduce, lambda a, b: a + b, [])
+
+
+class CmpToKeyTests(unittest.TestCase):
+    def test_sort(self):
+        key = functools.cmp_to_key(lambda a, b: b - a)
+        self.assertEqual(sorted([3, 1, 2], key=key), [3, 2, 1])
+        self.assertEqual(key(3).obj, 3)
+        self.assertTrue(key(1) > key(2))
+        self.assertTrue(key(1) == key(1))
+        self.assertTrue(key(1) != key(2))
+        self.assertRaises(TypeError, hash, key(1))
+        with self.assertRaises(TypeError):
+            key(1) < 1
+
+
+class LruCacheTests(unittest.TestCase):
+    def test_hits_and_misses(self):
+        calls = []
+
+        @functools.lru_cache(maxsize=2)
+        def f(x, y=0):
+            calls.append((x, y))
+            return x + y
+
+        self.assertEqual(f(1), 1)
+        self.assertEqual(f(1), 1)
+        self.assertEqual(f(1, y=1), 2)
+        self.assertEqual(calls, [(1, 0), (1, 1)])
+        self.assertEqual(f.cache_info(), functools._CacheInfo(1, 2, 2, 2))
+        # evicts the least recently used entry
+        f(1)
+        f(2)
+        self.assertEqual(calls, [(1, 0), (1, 1), (2, 0)])
+        f(1, y=1)
+        self.assertEqual(calls[-1], (1, 1))
+        f.cache_clear()
+        self.assertEqual(f.cache_info(), functools._CacheInfo(0, 0, 2, 0))
+
+    def test_typed(self):
+        @functools.lru_cache(typed=True)
+        def f(x):
+            return type(x)
+
+        self.assertIs(f(1), int)
+        self.assertIs(f(1.0), float)
+        self.assertEqual(f.cache_info().currsize, 2)
+
+    def test_unbounded_and_disabled(self):
+        @functools.lru_cache(maxsize=None)
+        def f(x):
+            return x
+
+        for i in range(1000):
+            f(i)
+        self.assertEqual(f.cache_info(), functools._CacheInfo(0, 1000, None, 1000))
+
+        @functools.lru_cache(maxsize=0)
+        def g(x):
+            return x
+
+        g(1)
+        g(1)
+        self.assertEqual(g.cache_info(), functools._CacheInfo(0, 2, 0, 0))
+        self.assertRaises(TypeError, functools.lru_cache, maxsize='1')
+
+    def test_reentrant_eq(self):
+        class Key:
+            def __init__(self, value):
+                self.value = value
+
+            def __hash__(self):
+                return 1
+
+            def __eq__(self, other):
+                # uses the cache while the cache compares keys
+                f(self.value)
+                return isinstance(other, Key) and self.value == other.value
+
+        @functools.lru_cache(maxsize=4)
+        def f(x):
+            return x
+
+        self.assertEqual(f(Key(1)).value, 1)
+        self.assertEqual(f(Key(2)).value, 2)
+        self.assertEqual(f(Key(1)).value, 1)
+        self.assertGreaterEqual(f.cache_info().hits, 1)
+
+    def test_wrapper(self):
+        @functools.lru_cache()
+        def f(x):
+            "doc"
+            return x
+
+        self.assertEqual(f.__name__, 'f')
+        self.assertEqual(f.__doc__, 'doc')
+        self.assertIs(copy.copy(f), f)
+        self.assertIs(copy.deepcopy(f), f)
+
+        class A:
+            @functools.lru_cache()
+            def m(self, x):
+                return self, x
+
+        a = A()
+        self.assertEqual(a.m(1), (a, 1))
@@ -0,0 +1,152 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import array
+import hashlib
+import mmap
+import threading
+import unittest
+
+ABC_DIGESTS = {
+    'md5': '900150983cd24fb0d6963f7d28e17f72',
+    'sha1': 'a9993e364706816aba3e25717850c26c9cd0d89d',
+    'sha224': '23097d223405d8228642a477bda255b32aadbce4bda0b3f7e36c9da7',
+    'sha256': 'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad',
+    'sha384': 'cb00753f45a35e8bb5a03d699ac65007272c32ab0eded1631a8b605a43ff5bed8086072ba1e7cc2358baeca134c825a7',
+    'sha512': 'ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f',
+    'sha3_224': 'e642824c3f8cf24ad09234ee7d3c766fc9a3a5168d0c94ad73b46fdf',
+    'sha3_256': '3a985da74fe225b2045c172d6bd390bd855f086e3e9d525b46bfe24511431532',
+    'sha3_384': 'ec01498288516fc926459f58e2c6ad8df9b473cb0fc08c2596da7cf0e49be4b298d88cea927ac7f539f1edf228376d25',
+    'sha3_512': 'b751850b1a57168a5693cd924b6b096e08f621827444f70d884f5d0240d2712e10e116e9192af3c91a7ec57647e3934057340b4cf408d5a56592f8274eec53f0',
+    'blake2b': 'ba80a53f981c4d0d6a2797b69f12f6e94c212f14685ac4b74b12bb6fdbffa2d17d87c5392aab792dc252d5de4533cc9518d38aa8dbf1925ab92386edd4009923',
+    'blake2s': '508c5e8c327c14e2e1a72ba34eeb452f37458b209ed63a294d999b4c86675982',
+}
+
+
+class HashlibTests(unittest.TestCase):
+
+    def test_known_digests(self):
+        for name, expected in ABC_DIGESTS.items():
+            h = getattr(hashlib, name)(b'abc')
+            self.assertEqual(h.hexdigest(), expected, name)
+            self.assertEqual(h.digest(), bytes.fromhex(expected), name)
+            self.assertEqual(h.digest_size, len(expected) // 2, name)
+            self.assertEqual(h.name, name)
+
+    def test_incremental_update(self):
+        data = bytes(range(256)) * 40
+        for name in ABC_DIGESTS:
+            h = getattr(hashlib, name)()
+            for i in range(0, len(data), 333):
+                h.update(data[i:i + 333])
+            self.assertEqual(h.hexdigest(), getattr(hashlib, name)(data).hexdigest(), name)
+
+    def test_buffer_types(self):
+        data = bytes(range(256)) * 10
+        expected = hashlib.sha256(data[100:2000]).hexdigest()
+        self.assertEqual(hashlib.sha256(bytearray(data[100:2000])).hexdigest(), expected)
+        self.assertEqual(hashlib.sha256(memoryview(data)[100:2000]).hexdigest(), expected)
+        self.assertEqual(hashlib.sha256(memoryview(bytearray(data))[100:2000]).hexdigest(), expected)
+        self.assertEqual(hashlib.sha256(array.array('B', data[100:2000])).hexdigest(), expected)
+        m = mmap.mmap(-1, len(data))
+        try:
+            m.write(data)
+            self.assertEqual(hashlib.sha256(m).hexdigest(), hashlib.sha256(data).hexdigest())
+            self.assertEqual(hashlib.sha256(memoryview(m)[100:2000]).hexdigest(), expected)
+        finally:
+            m.close()
+        self.assertRaises(TypeError, hashlib.sha256, 'abc')
+        self.assertRaises(TypeError, hashlib.sha256, 42)
+
+    def test_copy(self):
+        for name in ABC_DIGESTS:
+            h = getattr(hashlib, name)(b'ab')
+            c = h.copy()
+            self.assertIs(type(c), type(h))
+            c.update(b'c')
+            self.assertEqual(c.hexdigest(), ABC_DIGESTS[name], name)
+            self.assertEqual(h.hexdigest(), getattr(hashlib, name)(b'ab').hexdigest(), name)
+
+    def test_digest_does_not_finalize(self):
+        h = hashlib.md5(b'a')
+        h.digest()
+        h.update(b'bc')
+        self.assertEqual(h.hexdigest(), ABC_DIGESTS['md5'])
+
+    def test_shake(self):
+        self.assertEqual(hashlib.shake_128(b'abc').hexdigest(16), '5881092dd818bf5cf8a3ddb793fbcba7')
+        self.assertEqual(hashlib.shake_256(b'abc').hexdigest(32), '483366601360a8771c6863080cc4114d8db44530f8f1e1ee4f94ea37e78b5739')
+        h = hashlib.shake_128(b'abc')
+        self.assertEqual(h.digest(1000)[:16], h.digest(16))
+        self.assertEqual(h.digest_size, 0)
+        self.assertRaises(TypeError, h.digest)
+
+    def test_blake2_parameters(self):
+        h = hashlib.blake2b(b'abc', digest_size=32, key=b'key', salt=b'salt', person=b'me')
+        self.assertEqual(h.hexdigest(), '3d0e345a91dda5cc946b49c118d304b237ce5f5203d9523255834a8def438f3d')
+        h = hashlib.blake2s(b'abc', digest_size=16, key=b'key', salt=b'salt', person=b'me', fanout=2, depth=2,
+                            leaf_size=4096, node_offset=1, node_depth=1, inner_size=16, last_node=True)
+        self.assertEqual(h.hexdigest(), '7bbc088be5ae7b280a35f86a02cdc199')
+        self.assertEqual(hashlib.blake2b.SALT_SIZE, 16)
+        self.assertEqual(hashlib.blake2s.MAX_DIGEST_SIZE, 32)
+        self.assertRaises(ValueError, hashlib.blake2b, digest_size=65)
+        self.assertRaises(ValueError, hashlib.blake2s, key=b'k' * 33)
+        self.assertRaises(ValueError, hashlib.blake2b, salt=b's' * 17)
+        self.assertRaises(ValueError, hashlib.blake2b, depth=0)
+
+    def test_parallel_update(self):
+        data = bytes(range(256)) * 256
+        expected = hashlib.sha512(data * 8).hexdigest()
+        results = []
+
+        def work():
+            h = hashlib.sha512()
+            for _ in range(8):
+                h.update(data)
+            results.append(h.hexdigest())
+
+        threads = [threading.Thread(target=work) for _ in range(4)]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        self.assertEqual(results, [expected] * 4)
+
+
+if __name__ == '__main__':
+    unittest.main()
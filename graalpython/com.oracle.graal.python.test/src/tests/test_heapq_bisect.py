@@ -0,0 +1,170 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import random
+import unittest
+
+import _bisect
+import _heapq
+
+
+def is_heap(heap, lt=lambda a, b: a < b):
+    return all(not lt(heap[i], heap[(i - 1) // 2]) for i in range(1, len(heap)))
+
+
+class HeapqTests(unittest.TestCase):
+
+    def check_push_pop(self, data):
+        heap = []
+        for item in data:
+            _heapq.heappush(heap, item)
+            self.assertTrue(is_heap(heap))
+        result = [_heapq.heappop(heap) for _ in range(len(heap))]
+        self.assertEqual(sorted(data), result)
+
+    def test_push_pop_int(self):
+        self.check_push_pop([random.randrange(100) for _ in range(200)])
+
+    def test_push_pop_long(self):
+        self.check_push_pop([random.randrange(2 ** 40) for _ in range(200)])
+
+    def test_push_pop_double(self):
+        self.check_push_pop([random.random() for _ in range(200)])
+
+    def test_push_pop_object(self):
+        self.check_push_pop([str(random.randrange(100)) for _ in range(200)])
+
+    def test_mixed_storage(self):
+        heap = [5, 3, 1]
+        _heapq.heapify(heap)
+        _heapq.heappush(heap, 2.5)
+        _heapq.heappush(heap, 2 ** 70)
+        self.assertEqual([1, 2.5, 3, 5, 2 ** 70], [_heapq.heappop(heap) for _ in range(5)])
+
+    def test_heapify(self):
+        for size in range(30):
+            heap = [random.random() for _ in range(size)]
+            _heapq.heapify(heap)
+            self.assertTrue(is_heap(heap))
+
+    def test_replace_and_pushpop(self):
+        heap = [1, 4, 2]
+        self.assertEqual(1, _heapq.heapreplace(heap, 10))
+        self.assertEqual([2, 4, 10], heap)
+        self.assertEqual(0, _heapq.heappushpop(heap, 0))
+        self.assertEqual(2, _heapq.heappushpop(heap, 3))
+        self.assertEqual([3, 4, 10], heap)
+
+    def test_max_variants(self):
+        heap = [random.randrange(1000) for _ in range(50)]
+        _heapq._heapify_max(heap)
+        self.assertTrue(is_heap(heap, lambda a, b: a > b))
+        top = _heapq._heapreplace_max(heap, -1)
+        self.assertEqual(top, max(heap + [top]))
+        result = [_heapq._heappop_max(heap) for _ in range(len(heap))]
+        self.assertEqual(sorted(result, reverse=True), result)
+
+    def test_errors(self):
+        self.assertRaises(TypeError, _heapq.heappush, (), 1)
+        self.assertRaises(TypeError, _heapq.heapify, None)
+        self.assertRaises(IndexError, _heapq.heappop, [])
+        self.assertRaises(IndexError, _heapq.heapreplace, [], 1)
+
+    def test_mutation_during_comparison(self):
+        heap = []
+
+        class Evil:
+            def __lt__(self, other):
+                heap.clear()
+                return NotImplemented
+
+        heap.extend(Evil() for _ in range(10))
+        self.assertRaises((RuntimeError, TypeError), _heapq.heappush, heap, Evil())
+
+
+class BisectTests(unittest.TestCase):
+
+    def test_primitive_lists(self):
+        for data in ([1, 2, 2, 3, 5], [1, 2, 2, 3, 2 ** 40], [1.0, 2.0, 2.0, 3.0, 5.0]):
+            for x in (0, 2, 4, 6, 2.0, 2.5):
+                self.assertEqual(sum(1 for e in data if e <= x), _bisect.bisect_right(data, x))
+                self.assertEqual(sum(1 for e in data if e < x), _bisect.bisect_left(data, x))
+
+    def test_lo_hi(self):
+        data = [1, 2, 3, 4, 5]
+        self.assertEqual(2, _bisect.bisect_left(data, 5, 1, 2))
+        self.assertEqual(3, _bisect.bisect_right(data, 0, 3))
+        self.assertEqual(5, _bisect.bisect_right(data, 9, hi=None))
+        self.assertRaises(ValueError, _bisect.bisect_left, data, 1, -1)
+        self.assertRaises(IndexError, _bisect.bisect_left, data, 10, 0, 10)
+
+    def test_insort(self):
+        data = []
+        for x in [random.randrange(50) for _ in range(100)]:
+            _bisect.insort_right(data, x)
+        self.assertEqual(sorted(data), data)
+        data = [1, 3]
+        _bisect.insort_left(data, 2.0)
+        _bisect.insort_right(data, 4)
+        self.assertEqual([1, 2.0, 3, 4], data)
+        self.assertIsInstance(data[1], float)
+
+    def test_non_list(self):
+        self.assertEqual(2, _bisect.bisect_left(range(5), 2))
+        self.assertEqual(3, _bisect.bisect_right((1, 2, 3), 3))
+
+        class MyList(list):
+            def insert(self, index, item):
+                super().insert(index, -item)
+
+        data = MyList([10, 30])
+        _bisect.insort_right(data, 20)
+        self.assertEqual([10, -20, 30], data)
+
+    def test_key(self):
+        try:
+            _bisect.bisect_left([], 1, key=abs)
+        except TypeError:
+            # key= arrived in CPython 3.10
+            return
+        data = [(1, "a"), (2, "b"), (4, "d")]
+        self.assertEqual(2, _bisect.bisect_left(data, 3, key=lambda e: e[0]))
+        self.assertEqual(2, _bisect.bisect_right(data, 2, key=lambda e: e[0]))
+        _bisect.insort_right(data, (3, "c"), key=lambda e: e[0])
+        self.assertEqual([(1, "a"), (2, "b"), (3, "c"), (4, "d")], data)
@@ -67,6 +67,46 @@ def test_id_is_constant_even_when_object_changes():
     l.append(12)
     assert id(l) == lid
 
+def test_object_id_is_unique_across_threads():
+    import threading
+    objects = [object() for _ in range(1000)]
+    ids = [[] for _ in range(4)]
+
+    def collect(result):
+        for o in objects:
+            result.append(id(o))
+
+    threads = [threading.Thread(target=collect, args=(result,)) for result in ids]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    assert ids[0] == ids[1] == ids[2] == ids[3]
+    assert len(set(ids[0])) == len(objects)
+
+def test_id_is_stable_across_threads():
+    import sys
+    import threading
+    # the ids of the objects are first requested concurrently, those of the strings come from a
+    # side table; every thread must see the same id that the main thread sees afterwards
+    objects = [object() for _ in range(1000)] + [sys.intern("id_test_%d" % i) for i in range(1000)]
+    ids = [[] for _ in range(4)]
+    barrier = threading.Barrier(len(ids))
+
+    def collect(result):
+        barrier.wait()
+        for o in objects:
+            result.append(id(o))
+
+    threads = [threading.Thread(target=collect, args=(result,)) for result in ids]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    expected = [id(o) for o in objects]
+    for result in ids:
+        assert result == expected
+
 def test_identity():
     assert True is True
     assert memoryview(b"").readonly is True # compare a PInt bool (from C) to a boolean
@@ -338,6 +338,90 @@ if sys.implementation.name == "graalpython":
         assert polyglot.__element_info__(mutableObj, 0, "modifiable")
         assert polyglot.__element_info__(mutableObj, 4, "insertable")
 
+    def test_java_array_transfer():
+        import java
+        l = [1, 2, 3]
+        l.append(4)
+        arr = java.as_java_array(l)
+        assert len(arr) == 4
+        assert arr[3] == 4
+        arr[0] = 42
+        assert l[0] == 42, "the list should share its storage with the Java array"
+        l[1] = 43
+        assert arr[1] == 43
+
+        copy = java.as_java_array((1.5, 2.5))
+        assert len(copy) == 2
+        assert copy[1] == 2.5
+
+        ba = bytearray(b"ab")
+        java.as_java_array(ba)[0] = ord("c")
+        assert ba == b"cb"
+
+        adopted = java.from_java_array(arr)
+        assert adopted == [42, 43, 3, 4]
+        adopted[2] = 7
+        assert arr[2] == 7, "the list should adopt the Java array without copying"
+        assert isinstance(java.from_java_array(java.as_java_array(ba)), bytearray)
+
+        for invalid in (["a"], [], "abc"):
+            try:
+                java.as_java_array(invalid)
+            except TypeError:
+                pass
+            else:
+                assert False, "as_java_array(%r) should raise TypeError" % (invalid,)
+        try:
+            java.from_java_array([1, 2])
+        except TypeError:
+            pass
+        else:
+            assert False, "from_java_array of a Python list should raise TypeError"
+
+    def test_java_array_detaches():
+        import java
+
+        def check(mutate, expected):
+            l = [5, 3, 4, 1]
+            arr = java.as_java_array(l)
+            mutate(l)
+            assert l == expected, "%r != %r" % (l, expected)
+            assert list(arr) == [5, 3, 4, 1], "the Java array should keep its items after the list changed"
+            arr[0] = 42
+            assert l == expected, "the list should no longer share its storage with the Java array"
+
+        check(lambda l: l.pop(), [5, 3, 4])
+        check(lambda l: l.pop(0), [3, 4, 1])
+        check(lambda l: l.remove(3), [5, 4, 1])
+        check(lambda l: l.__delitem__(1), [5, 4, 1])
+        check(lambda l: l.__delitem__(slice(0, 2)), [4, 1])
+        check(lambda l: l.__setitem__(slice(0, 2), [7]), [7, 4, 1])
+        check(lambda l: l.clear(), [])
+        check(lambda l: l.sort(), [1, 3, 4, 5])
+        check(lambda l: l.sort(reverse=True), [5, 4, 3, 1])
+        check(lambda l: l.sort(key=lambda x: -x), [5, 4, 3, 1])
+        check(lambda l: l.reverse(), [1, 4, 3, 5])
+        check(lambda l: l.append(2), [5, 3, 4, 1, 2])
+        check(lambda l: l.__setitem__(0, "x"), ["x", 3, 4, 1])
+
+        ba = bytearray(b"abc")
+        arr = java.as_java_array(ba)
+        del ba[0]
+        assert ba == b"bc"
+        arr[1] = ord("x")
+        assert ba == b"bc", "the bytearray should no longer share its storage with the Java array"
+        assert bytes(b & 0xff for b in arr) == b"axc"
+
+    def test_interop_lock_stats():
+        stats = __graalpython__.interop_lock_stats()
+        assert set(stats.keys()) == {"acquisitions", "contended", "wait_ns", "sites"}
+        assert 0 <= stats["contended"] <= stats["acquisitions"]
+        assert stats["wait_ns"] >= 0
+        for site, (contended, wait_ns) in stats["sites"].items():
+            assert isinstance(site, str)
+            assert 0 < contended <= stats["contended"]
+            assert 0 <= wait_ns <= stats["wait_ns"]
+
     def test_java_imports():
         import java
         try:
@@ -3,6 +3,7 @@
 #
 # Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
 
+import sys
 import unittest
 from itertools import *
 
@@ -101,3 +102,111 @@ class CombinationsTests(unittest.TestCase):
 
         data = [None, None, None, 20]
         assert list(map(lambda x: x[0], list(groupby(data)))) == [None, 20]
+
+
+class IteratorTests(unittest.TestCase):
+
+    def test_count_and_repeat(self):
+        self.assertEqual(list(islice(count(), 3)), [0, 1, 2])
+        self.assertEqual(list(islice(count(2.5, 0.5), 3)), [2.5, 3.0, 3.5])
+        self.assertEqual(repr(count(3)), 'count(3)')
+        self.assertEqual(repr(count(3, 2)), 'count(3, 2)')
+        self.assertRaises(TypeError, count, 'a')
+        self.assertEqual(list(repeat('a', 3)), ['a', 'a', 'a'])
+        self.assertEqual(list(repeat('a', -1)), [])
+        self.assertEqual(repr(repeat('a', 2)), "repeat('a', 2)")
+        self.assertEqual(repeat(1, 4).__length_hint__(), 4)
+        self.assertRaises(TypeError, repeat(1).__length_hint__)
+
+    def test_chain(self):
+        self.assertEqual(list(chain('ab', [], (1, 2))), ['a', 'b', 1, 2])
+        self.assertEqual(list(chain.from_iterable(['ab', 'cd'])), ['a', 'b', 'c', 'd'])
+        self.assertRaises(TypeError, list, chain('a', 1))
+
+    def test_islice(self):
+        self.assertEqual(list(islice('abcdefg', 2)), ['a', 'b'])
+        self.assertEqual(list(islice('abcdefg', 2, 4)), ['c', 'd'])
+        self.assertEqual(list(islice('abcdefg', 2, None)), list('cdefg'))
+        self.assertEqual(list(islice('abcdefg', 0, None, 2)), list('aceg'))
+        self.assertEqual(list(islice(range(10), 1, 8, 3)), [1, 4, 7])
+        self.assertRaises(ValueError, islice, 'abc', -1)
+        self.assertRaises(ValueError, islice, 'abc', 'a')
+        self.assertRaises(ValueError, islice, 'abc', 0, 1, 0)
+        it = iter(range(10))
+        self.assertEqual(list(islice(it, 3)), [0, 1, 2])
+        self.assertEqual(next(it), 3)
+
+    @unittest.skipIf(sys.implementation.name != "graalpython", "length hints of chain and islice are GraalPython specific")
+    def test_length_hint(self):
+        self.assertEqual(chain('abc', [1, 2]).__length_hint__(), 5)
+        it = chain('abc', [1, 2])
+        next(it)
+        self.assertEqual(it.__length_hint__(), 4)
+        self.assertEqual(islice(range(10), 1, 8, 3).__length_hint__(), 3)
+        self.assertEqual(islice(range(3), 1, 8, 3).__length_hint__(), 1)
+        self.assertEqual(accumulate([1, 2], initial=0).__length_hint__(), 3)
+        self.assertEqual(zip_longest('a', 'bcd').__length_hint__(), 3)
+
+    def test_filters(self):
+        self.assertEqual(list(dropwhile(lambda x: x < 3, [1, 2, 3, 1])), [3, 1])
+        self.assertEqual(list(takewhile(lambda x: x < 3, [1, 2, 3, 1])), [1, 2])
+        self.assertEqual(list(filterfalse(None, [0, 1, '', 'a'])), [0, ''])
+        self.assertEqual(list(filterfalse(lambda x: x % 2, range(6))), [0, 2, 4])
+        self.assertEqual(list(compress('abcdef', [1, 0, 1, 0, 1, 1])), list('acef'))
+        self.assertEqual(list(starmap(pow, [(2, 3), (3, 2)])), [8, 9])
+
+    def test_accumulate(self):
+        self.assertEqual(list(accumulate([1, 2, 3, 4])), [1, 3, 6, 10])
+        self.assertEqual(list(accumulate([1, 2, 3], max)), [1, 2, 3])
+        self.assertEqual(list(accumulate([1, 2, 3], initial=10)), [10, 11, 13, 16])
+        self.assertEqual(list(accumulate([], initial=10)), [10])
+        self.assertEqual(list(accumulate([])), [])
+
+    def test_cycle(self):
+        self.assertEqual(list(islice(cycle('abc'), 7)), list('abcabca'))
+        self.assertEqual(list(cycle('')), [])
+
+    def test_combinatorics(self):
+        self.assertEqual(list(product('ab', range(2))), [('a', 0), ('a', 1), ('b', 0), ('b', 1)])
+        self.assertEqual(list(product(range(2), repeat=2)), [(0, 0), (0, 1), (1, 0), (1, 1)])
+        self.assertEqual(list(product()), [()])
+        self.assertEqual(list(product('ab', '')), [])
+        self.assertRaises(ValueError, product, 'ab', repeat=-1)
+        self.assertEqual(list(permutations(range(3), 2)), [(0, 1), (0, 2), (1, 0), (1, 2), (2, 0), (2, 1)])
+        self.assertEqual(len(list(permutations(range(4)))), 24)
+        self.assertEqual(list(permutations('ab', 3)), [])
+        self.assertRaises(TypeError, permutations, 'ab', 1.0)
+        self.assertEqual(list(combinations('abcd', 2)), [('a', 'b'), ('a', 'c'), ('a', 'd'), ('b', 'c'), ('b', 'd'), ('c', 'd')])
+        self.assertEqual(list(combinations('ab', 0)), [()])
+        self.assertEqual(list(combinations('ab', 3)), [])
+        self.assertEqual(list(combinations_with_replacement('', 0)), [()])
+        self.assertEqual(list(combinations_with_replacement('', 1)), [])
+
+    def test_combinatorics_pickle(self):
+        import pickle
+        it = permutations('abc', 2)
+        next(it)
+        self.assertEqual(list(pickle.loads(pickle.dumps(it))), list(it))
+        it = product('ab', 'cd')
+        next(it)
+        self.assertEqual(list(pickle.loads(pickle.dumps(it))), list(it))
+        it = zip_longest('ab', 'c', fillvalue='-')
+        self.assertEqual(list(pickle.loads(pickle.dumps(it))), [('a', 'c'), ('b', '-')])
+
+    def test_zip_longest(self):
+        self.assertEqual(list(zip_longest('ab', 'c')), [('a', 'c'), ('b', None)])
+        self.assertEqual(list(zip_longest('a', 'bcd', fillvalue=0)), [('a', 'b'), (0, 'c'), (0, 'd')])
+        self.assertEqual(list(zip_longest()), [])
+
+    def test_tee(self):
+        a, b = tee(range(100))
+        self.assertEqual(list(a), list(range(100)))
+        self.assertEqual(list(b), list(range(100)))
+        a, b, c = tee('abc', 3)
+        self.assertEqual(next(a), 'a')
+        d, e = tee(a)
+        self.assertEqual(list(d), ['b', 'c'])
+        self.assertEqual(list(e), ['b', 'c'])
+        self.assertEqual(list(c), ['a', 'b', 'c'])
+        self.assertEqual(tee('abc', 0), ())
+        self.assertRaises(ValueError, tee, 'abc', -1)
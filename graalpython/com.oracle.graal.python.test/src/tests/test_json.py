@@ -83,3 +83,90 @@ class JsonTest(unittest.TestCase):
             1521583201347000000,
             10,
         }
+
+    def test_loads_values(self):
+        import json
+        assert json.loads('[1, -2, 3.5, 1e3, -0.25E-2, true, false, null, "x"]') == [1, -2, 3.5, 1000.0, -0.0025, True, False, None, "x"]
+        assert json.loads('[1, 2, 3]') == [1, 2, 3]
+        assert json.loads('[1.5, 2.5]') == [1.5, 2.5]
+        assert json.loads('[1, 2.5, 3]') == [1, 2.5, 3]
+        assert json.loads('[1, 2, 123456789012345678901234567890]') == [1, 2, 123456789012345678901234567890]
+        assert json.loads(' {"a" : {"b": [[], {}]}, "c": -9223372036854775809} ') == {"a": {"b": [[], {}]}, "c": -9223372036854775809}
+        assert json.loads('"\\u00e9\\ud83d\\ude00\\n\\t\\"\\\\\\/"') == "é\U0001F600\n\t\"\\/"
+        assert json.loads('[NaN, Infinity, -Infinity]')[1:] == [float('inf'), float('-inf')]
+
+    def test_loads_hooks(self):
+        import json
+        from collections import OrderedDict
+        from decimal import Decimal
+        assert json.loads('{"b": 1, "a": 2}', object_pairs_hook=list) == [("b", 1), ("a", 2)]
+        assert json.loads('{"b": 1, "a": 2}', object_pairs_hook=OrderedDict) == OrderedDict([("b", 1), ("a", 2)])
+        assert json.loads('{"a": 1}', object_hook=lambda d: sorted(d.items())) == [("a", 1)]
+        assert json.loads('[1.10, 2]', parse_float=Decimal) == [Decimal("1.10"), 2]
+        assert json.loads('[1, 2.0]', parse_int=str) == ["1", 2.0]
+        assert json.loads('[NaN]', parse_constant=lambda c: c) == ["NaN"]
+
+    def test_loads_errors(self):
+        import json
+
+        def check(doc, msg, pos):
+            try:
+                json.loads(doc)
+            except json.JSONDecodeError as e:
+                assert e.msg == msg, e.msg
+                assert e.pos == pos, (e.pos, pos)
+            else:
+                assert False, doc
+
+        check('', 'Expecting value', 0)
+        check('[1,]', 'Expecting value', 3)
+        check('[1 2]', "Expecting ',' delimiter", 3)
+        check('{"a" 1}', "Expecting ':' delimiter", 5)
+        check('{"a": 1,}', 'Expecting property name enclosed in double quotes', 8)
+        check('{1: 2}', 'Expecting property name enclosed in double quotes', 1)
+        check('["abc', 'Unterminated string starting at', 1)
+        check('["a\nb"]', "Invalid control character at", 3)
+        check('["\\x"]', "Invalid \\escape", 2)
+        check('["\\u12"]', 'Invalid \\uXXXX escape', 3)
+        check('[1] x', 'Extra data', 4)
+        assert json.loads('["a\nb"]', strict=False) == ["a\nb"]
+
+    def test_scanstring(self):
+        from json.decoder import scanstring
+        assert scanstring('"abc" rest', 1) == ("abc", 5)
+        assert scanstring('"a\\nb"', 1) == ("a\nb", 6)
+
+    def test_dumps(self):
+        import json
+        assert json.dumps([1, 2.5, "x", None, True, False, {"a": [1e100, -0.0]}, ()]) == '[1, 2.5, "x", null, true, false, {"a": [1e+100, -0.0]}, []]'
+        assert json.dumps({2: 2, 1.5: 3, True: 4, None: 5}) == '{"2": 2, "1.5": 3, "true": 4, "null": 5}'
+        assert json.dumps("é\U0001F600\n\"\x01") == '"\\u00e9\\ud83d\\ude00\\n\\"\\u0001"'
+        assert json.dumps("é\U0001F600\n", ensure_ascii=False) == '"é\U0001F600\\n"'
+        assert json.dumps({"b": 1, "a": [2, {"d": 3, "c": 4}]}, sort_keys=True) == '{"a": [2, {"c": 4, "d": 3}], "b": 1}'
+        assert json.dumps({"a": 1, (1, 2): 2}, skipkeys=True) == '{"a": 1}'
+        assert json.dumps([1, {"a": [], "b": {}}], separators=(',', ':')) == '[1,{"a":[],"b":{}}]'
+        assert json.dumps(float('nan')) == 'NaN'
+        assert json.dumps([float('inf'), float('-inf')]) == '[Infinity, -Infinity]'
+        assert json.dumps({1, 2}, default=sorted) == '[1, 2]'
+
+    def test_dumps_indent(self):
+        import json
+        obj = {"a": [1, 2], "b": {"c": None}, "d": [], "e": {}}
+        assert json.dumps(obj, indent=2) == '{\n  "a": [\n    1,\n    2\n  ],\n  "b": {\n    "c": null\n  },\n  "d": [],\n  "e": {}\n}'
+        assert json.dumps([1, [2]], indent='\t') == '[\n\t1,\n\t[\n\t\t2\n\t]\n]'
+        assert json.dumps([1], indent=0) == '[\n1\n]'
+
+    def test_dumps_errors(self):
+        import json
+        lst = []
+        lst.append(lst)
+        self.assertRaises(ValueError, json.dumps, lst)
+        self.assertRaises(ValueError, json.dumps, float('nan'), allow_nan=False)
+        self.assertRaises(TypeError, json.dumps, {(1, 2): 1})
+        self.assertRaises(TypeError, json.dumps, object())
+
+    def test_roundtrip(self):
+        import json
+        doc = {"users": [{"id": i, "name": "user%d" % i, "score": i * 0.5, "tags": ["a", "bé"], "active": i % 2 == 0} for i in range(100)]}
+        assert json.loads(json.dumps(doc)) == doc
+        assert json.loads(json.dumps(doc, indent=4, sort_keys=True)) == doc
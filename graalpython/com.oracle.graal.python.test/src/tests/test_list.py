@@ -5,6 +5,7 @@
 
 import seq_tests
 import sys
+import unittest
 # import pickle
 
 LONG_NUMBER = 6227020800;
@@ -833,3 +834,86 @@ class ListCompareTest(CompareTest):
         self.assertEqual(l1 <= [1, 1], 'OK:False')
         self.assertEqual(l1 <= [1, 10], 'OK:True')
         self.assertEqual(l1 <= [1, 10, 0], 'OK:True')
+
+
+class ListSortTest(unittest.TestCase):
+
+    def test_key_and_reverse(self):
+        class Rec:
+            def __init__(self, k, i):
+                self.k = k
+                self.i = i
+
+        recs = [Rec(k, i) for i, k in enumerate([3, 1, 2, 1, 3, 2, 1])]
+        recs.sort(key=lambda r: r.k)
+        self.assertEqual([(r.k, r.i) for r in recs], [(1, 1), (1, 3), (1, 6), (2, 2), (2, 5), (3, 0), (3, 4)])
+        recs.sort(key=lambda r: r.k, reverse=True)
+        self.assertEqual([(r.k, r.i) for r in recs], [(3, 0), (3, 4), (2, 2), (2, 5), (1, 1), (1, 3), (1, 6)])
+
+        calls = []
+        def key(x):
+            calls.append(x)
+            return -x
+        lst = [5, 2, 7, 1]
+        lst.sort(key=key)
+        self.assertEqual(lst, [7, 5, 2, 1])
+        self.assertEqual(calls, [5, 2, 7, 1])
+
+    def test_primitive_storages(self):
+        import random
+        rnd = random.Random(42)
+        ints = [rnd.randint(-1000, 1000) for _ in range(500)]
+        self.assertEqual(sorted(ints), sorted(ints, key=lambda x: (x,)))
+        self.assertEqual(sorted(ints, reverse=True), sorted(ints, key=lambda x: (-x,)))
+        big = [rnd.randint(-2 ** 40, 2 ** 40) for _ in range(500)]
+        self.assertEqual(sorted(big), sorted(big, key=lambda x: (x,)))
+        floats = [rnd.random() for _ in range(500)]
+        self.assertEqual(sorted(floats), sorted(floats, key=lambda x: (x,)))
+        strs = [str(x) for x in ints]
+        self.assertEqual(sorted(strs), sorted(strs, key=lambda x: (x,)))
+
+        nan = float('nan')
+        lst = [3.0, nan, 1.0]
+        lst.sort()
+        self.assertIs(lst[1], nan)
+        lst = [0.0, -0.0, 0.0, -0.0]
+        lst.sort()
+        self.assertEqual([str(x) for x in lst], ['0.0', '-0.0', '0.0', '-0.0'])
+
+    def test_mixed_and_unorderable(self):
+        lst = [3, 1.5, True, 2]
+        lst.sort()
+        self.assertEqual(lst, [True, 1.5, 2, 3])
+        lst = [3, 'a', 1]
+        self.assertRaises(TypeError, lst.sort)
+        self.assertEqual(sorted(lst, key=str), [1, 3, 'a'])
+
+    def test_arguments(self):
+        self.assertRaises(TypeError, [2, 1].sort, None)
+        self.assertRaises(TypeError, [2, 1].sort, foo=1)
+        lst = [2, 3, 1]
+        lst.sort(key=None, reverse=0)
+        self.assertEqual(lst, [1, 2, 3])
+
+    def test_modified_during_sort(self):
+        lst = list(range(10))
+        def key(x):
+            lst.append(x)
+            return x
+        self.assertRaises(ValueError, lst.sort, key=key)
+
+        class Cmp:
+            def __init__(self, v):
+                self.v = v
+            def __lt__(self, other):
+                lst.append(self)
+                return self.v < other.v
+        lst = [Cmp(i) for i in range(5, 0, -1)]
+        self.assertRaises(ValueError, lst.sort)
+
+    def test_exception_in_key(self):
+        lst = [3, 2, 1, 0]
+        def key(x):
+            return 1 / x
+        self.assertRaises(ZeroDivisionError, lst.sort, key=key)
+        self.assertEqual(lst, [3, 2, 1, 0])
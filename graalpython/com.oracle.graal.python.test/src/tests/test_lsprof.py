@@ -0,0 +1,109 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import sys
+import unittest
+
+from _lsprof import Profiler
+
+
+def fib(n):
+    return n if n < 2 else fib(n - 1) + fib(n - 2)
+
+
+def caller():
+    for i in range(10):
+        fib(5)
+
+
+def find_entry(stats, name):
+    for entry in stats:
+        if isinstance(entry.code, str):
+            if entry.code.endswith("(%s)" % name):
+                return entry
+        elif entry.code.co_name == name:
+            return entry
+    return None
+
+
+class LsprofTest(unittest.TestCase):
+
+    def profile(self):
+        prof = Profiler()
+        prof.enable()
+        caller()
+        prof.disable()
+        return prof
+
+    def test_call_counts(self):
+        stats = self.profile().getstats()
+        entry = find_entry(stats, "caller")
+        self.assertIsNotNone(entry)
+        self.assertEqual(entry.callcount, 1)
+        entry = find_entry(stats, "fib")
+        self.assertIsNotNone(entry)
+        # fib(5) makes 15 calls, one of them non-recursive
+        self.assertEqual(entry.callcount, 150)
+        self.assertEqual(entry.reccallcount, 140)
+        self.assertGreaterEqual(entry.totaltime, entry.inlinetime)
+
+    def test_subcalls(self):
+        stats = self.profile().getstats()
+        entry = find_entry(stats, "caller")
+        subentry = find_entry(entry.calls, "fib")
+        self.assertIsNotNone(subentry)
+        self.assertEqual(subentry.callcount, 10)
+        self.assertEqual(subentry.reccallcount, 0)
+
+    def test_clear(self):
+        prof = self.profile()
+        prof.clear()
+        self.assertIsNone(find_entry(prof.getstats(), "caller"))
+
+    @unittest.skipIf(sys.implementation.name != "graalpython", "collapsed stacks are GraalPython specific")
+    def test_collapsed_stacks(self):
+        prof = Profiler()
+        prof.enable()
+        for i in range(5):
+            fib(20)
+        prof.disable()
+        for line in prof.getcollapsedstacks().splitlines():
+            stack, count = line.rsplit(" ", 1)
+            self.assertGreater(int(count), 0)
+            self.assertTrue(stack)
@@ -0,0 +1,252 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import io
+import pickle
+import unittest
+
+
+class BytesIOTest(unittest.TestCase):
+
+    def test_read_write_seek(self):
+        b = io.BytesIO(b"hello world")
+        self.assertEqual(b.read(5), b"hello")
+        self.assertEqual(b.tell(), 5)
+        self.assertEqual(b.seek(0, 2), 11)
+        self.assertEqual(b.write(b"!"), 1)
+        self.assertEqual(b.getvalue(), b"hello world!")
+        self.assertEqual(b.seek(-3, 1), 9)
+        self.assertEqual(b.read(), b"ld!")
+        self.assertRaises(ValueError, b.seek, -1)
+        self.assertRaises(ValueError, b.seek, 0, 3)
+
+    def test_write_after_end(self):
+        b = io.BytesIO()
+        b.seek(3)
+        b.write(b"x")
+        self.assertEqual(b.getvalue(), b"\0\0\0x")
+
+    def test_getvalue_is_a_snapshot(self):
+        b = io.BytesIO(b"abc")
+        v = b.getvalue()
+        b.write(b"X")
+        self.assertEqual(v, b"abc")
+        self.assertEqual(b.getvalue(), b"Xbc")
+        b.seek(0)
+        whole = b.read()
+        b.truncate(1)
+        self.assertEqual(whole, b"Xbc")
+        self.assertEqual(b.getvalue(), b"X")
+
+    def test_initial_bytes_not_modified(self):
+        data = b"abc"
+        b = io.BytesIO(data)
+        b.write(b"zz")
+        self.assertEqual(data, b"abc")
+        ba = bytearray(b"abc")
+        b = io.BytesIO(ba)
+        ba[0] = ord("q")
+        self.assertEqual(b.getvalue(), b"abc")
+
+    def test_getbuffer(self):
+        b = io.BytesIO(b"abcdef")
+        v = b.getvalue()
+        buf = b.getbuffer()
+        buf[0] = ord("A")
+        self.assertEqual(v, b"abcdef")
+        self.assertEqual(b.getvalue(), b"Abcdef")
+        self.assertEqual(len(buf), 6)
+
+    def test_readline_readlines(self):
+        b = io.BytesIO(b"a\nbc\n\ndef")
+        self.assertEqual(b.readline(), b"a\n")
+        self.assertEqual(b.readline(1), b"b")
+        self.assertEqual(b.readlines(), [b"c\n", b"\n", b"def"])
+        b.seek(0)
+        self.assertEqual(list(b), [b"a\n", b"bc\n", b"\n", b"def"])
+
+    def test_readinto(self):
+        b = io.BytesIO(b"abcdef")
+        buf = bytearray(4)
+        self.assertEqual(b.readinto(buf), 4)
+        self.assertEqual(buf, b"abcd")
+        self.assertEqual(b.readinto(buf), 2)
+        self.assertEqual(buf, b"efcd")
+
+    def test_truncate(self):
+        b = io.BytesIO(b"abcdef")
+        b.seek(2)
+        self.assertEqual(b.truncate(), 2)
+        self.assertEqual(b.getvalue(), b"ab")
+        self.assertEqual(b.truncate(10), 10)
+        self.assertEqual(b.getvalue(), b"ab")
+        self.assertRaises(ValueError, b.truncate, -1)
+
+    def test_closed(self):
+        b = io.BytesIO(b"abc")
+        self.assertFalse(b.closed)
+        b.close()
+        self.assertTrue(b.closed)
+        for m in (b.read, b.getvalue, b.tell, b.readable, b.flush):
+            self.assertRaises(ValueError, m)
+        self.assertRaises(ValueError, b.write, b"x")
+
+    def test_write_types(self):
+        b = io.BytesIO()
+        self.assertEqual(b.write(bytearray(b"ab")), 2)
+        self.assertEqual(b.write(memoryview(b"cd")), 2)
+        self.assertEqual(b.getvalue(), b"abcd")
+        self.assertRaises(TypeError, b.write, "str")
+
+    def test_pickle(self):
+        b = io.BytesIO(b"abcdef")
+        b.seek(3)
+        b.foo = 42
+        c = pickle.loads(pickle.dumps(b))
+        self.assertEqual(c.getvalue(), b"abcdef")
+        self.assertEqual(c.tell(), 3)
+        self.assertEqual(c.foo, 42)
+
+    def test_subclass(self):
+        class MyBytesIO(io.BytesIO):
+            pass
+        b = MyBytesIO(b"x")
+        self.assertIsInstance(b, io.BufferedIOBase)
+        self.assertEqual(b.read(), b"x")
+
+
+class StringIOTest(unittest.TestCase):
+
+    def test_read_write_seek(self):
+        s = io.StringIO("hello")
+        self.assertEqual(s.tell(), 0)
+        self.assertEqual(s.read(2), "he")
+        self.assertEqual(s.write("LL"), 2)
+        self.assertEqual(s.getvalue(), "heLLo")
+        self.assertEqual(s.seek(0, 2), 5)
+        self.assertRaises(OSError, s.seek, 1, 1)
+        self.assertRaises(ValueError, s.seek, -1)
+        s.seek(7)
+        s.write("x")
+        self.assertEqual(s.getvalue(), "heLLo\0\0x")
+
+    def test_getvalue_is_a_snapshot(self):
+        s = io.StringIO()
+        s.write("abc")
+        v = s.getvalue()
+        self.assertIs(v, s.getvalue())
+        s.write("d")
+        self.assertEqual(v, "abc")
+        self.assertEqual(s.getvalue(), "abcd")
+
+    def test_readline(self):
+        s = io.StringIO("a\nbc\n\ndef")
+        self.assertEqual(s.readline(), "a\n")
+        self.assertEqual(s.readline(1), "b")
+        self.assertEqual(s.readlines(), ["c\n", "\n", "def"])
+        s.seek(0)
+        self.assertEqual(list(s), ["a\n", "bc\n", "\n", "def"])
+
+    def test_newline_none(self):
+        s = io.StringIO("a\r\nb\rc\n", newline=None)
+        self.assertEqual(s.getvalue(), "a\nb\nc\n")
+        self.assertEqual(s.newlines, ("\r", "\n", "\r\n"))
+        self.assertEqual(s.readlines(), ["a\n", "b\n", "c\n"])
+
+    def test_newline_empty(self):
+        s = io.StringIO("a\r\nb\rc\n", newline="")
+        self.assertEqual(s.getvalue(), "a\r\nb\rc\n")
+        self.assertEqual(s.readlines(), ["a\r\n", "b\r", "c\n"])
+
+    def test_newline_cr(self):
+        s = io.StringIO("a\nb\n", newline="\r")
+        self.assertEqual(s.getvalue(), "a\rb\r")
+        self.assertEqual(s.readlines(), ["a\r", "b\r"])
+        self.assertIsNone(s.newlines)
+
+    def test_newline_crlf(self):
+        s = io.StringIO("a\nb", newline="\r\n")
+        self.assertEqual(s.readline(), "a\r\n")
+        self.assertEqual(s.read(), "b")
+
+    def test_invalid_arguments(self):
+        self.assertRaises(TypeError, io.StringIO, b"x")
+        self.assertRaises(TypeError, io.StringIO, "x", 1)
+        self.assertRaises(ValueError, io.StringIO, "x", "x")
+        s = io.StringIO()
+        self.assertRaises(TypeError, s.write, b"x")
+
+    def test_truncate(self):
+        s = io.StringIO("abcdef")
+        s.seek(3)
+        self.assertEqual(s.truncate(), 3)
+        self.assertEqual(s.getvalue(), "abc")
+        self.assertRaises(ValueError, s.truncate, -1)
+
+    def test_closed(self):
+        s = io.StringIO("abc")
+        s.close()
+        self.assertTrue(s.closed)
+        for m in (s.read, s.getvalue, s.tell, s.readable, s.readline):
+            self.assertRaises(ValueError, m)
+        self.assertRaises(ValueError, s.write, "x")
+
+    def test_uninitialized(self):
+        class Uninit(io.StringIO):
+            def __init__(self):
+                pass
+        s = Uninit()
+        self.assertRaises(ValueError, s.read)
+        self.assertRaises(ValueError, s.write, "x")
+
+    def test_pickle(self):
+        s = io.StringIO("a\r\nb", newline=None)
+        s.seek(1)
+        s.foo = "bar"
+        t = pickle.loads(pickle.dumps(s))
+        self.assertEqual(t.getvalue(), s.getvalue())
+        self.assertEqual(t.tell(), 1)
+        self.assertEqual(t.foo, "bar")
+
+    def test_subclass(self):
+        class MyStringIO(io.StringIO):
+            def readline(self, size=-1):
+                return super().readline(size).upper()
+        s = MyStringIO("a\nb")
+        self.assertIsInstance(s, io.TextIOBase)
+        self.assertEqual(list(s), ["A\n", "B"])
@@ -178,6 +178,74 @@ class MmapTests(unittest.TestCase):
                               "wrong exception raised in context manager")
         self.assertTrue(m.closed, "context manager failed")
 
+    def test_readline(self):
+        with mmap.mmap(-1, 12) as m:
+            m.write(b'foo\nbar\nbaz')
+            m.seek(0)
+            self.assertEqual(m.readline(), b'foo\n')
+            self.assertEqual(m.readline(), b'bar\n')
+            self.assertEqual(m.readline(), b'baz\0')
+            self.assertEqual(m.readline(), b'')
+
+    def test_extended_slice(self):
+        with mmap.mmap(-1, 8) as m:
+            m[:] = bytes(range(8))
+            self.assertEqual(m[::2], bytes([0, 2, 4, 6]))
+            self.assertEqual(m[::-1], bytes(range(7, -1, -1)))
+            m[1::2] = b'abcd'
+            self.assertEqual(m[:], bytes([0, 97, 2, 98, 4, 99, 6, 100]))
+            self.assertRaises(IndexError, m.__setitem__, slice(0, 2), b'abc')
+
+    def test_slice_huge_indices(self):
+        with mmap.mmap(-1, 8) as m:
+            m[:] = bytes(range(8))
+            self.assertEqual(m[2:2**40], bytes(range(2, 8)))
+            self.assertEqual(m[-2**70:3], bytes(range(3)))
+            self.assertEqual(m[2**63::-3], bytes([7, 4, 1]))
+            self.assertEqual(m[::2**40], bytes([0]))
+            m[6:2**64] = b'xy'
+            self.assertEqual(m[6:], b'xy')
+            self.assertRaises(ValueError, m.__getitem__, slice(None, None, 0))
+
+    def test_memoryview(self):
+        with mmap.mmap(-1, 16) as m:
+            m.write(b'hello')
+            mv = memoryview(m)
+            self.assertEqual(len(mv), 16)
+            self.assertEqual(mv[:5].tobytes(), b'hello')
+            mv[0] = ord('j')
+            self.assertEqual(m[:5], b'jello')
+            mv.release()
+
+    def test_access_read(self):
+        with open(TESTFN, 'wb') as f:
+            f.write(b'abcdef')
+        with open(TESTFN, 'rb') as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+        self.assertEqual(m[:], b'abcdef')
+        self.assertEqual(m.find(b'cd'), 2)
+        self.assertRaises(TypeError, m.__setitem__, 0, 1)
+        self.assertRaises(TypeError, m.write, b'x')
+        m.close()
+        self.assertRaises(ValueError, m.read)
+
+    def test_close_file(self):
+        import hashlib
+        with open(TESTFN, 'wb') as f:
+            f.write(b'abcdef')
+        with open(TESTFN, 'r+b') as f:
+            m = mmap.mmap(f.fileno(), 0)
+        m[0] = ord('x')
+        m.close()
+        # closing unmaps the file, but the changes are written back first
+        m.close()
+        with open(TESTFN, 'rb') as f:
+            self.assertEqual(f.read(), b'xbcdef')
+        self.assertRaises(ValueError, m.__getitem__, 0)
+        self.assertRaises(ValueError, m.__setitem__, 0, 1)
+        self.assertRaises(ValueError, m.find, b'b')
+        self.assertRaises(ValueError, hashlib.md5, m)
+        self.assertRaises(ValueError, bytes, m)
 
 
 def test_main():
@@ -66,5 +66,136 @@ class TestPickle(unittest.TestCase):
         assert [16,17,18,19] == [next(teeit2) for i in range(1, 5)]
         assert [16,17,18,19] == [next(teeit) for i in range(1, 5)]
 
+
+class Point:
+    def __init__(self, x, y):
+        self.x = x
+        self.y = y
+
+    def __eq__(self, other):
+        return type(other) is Point and (self.x, self.y) == (other.x, other.y)
+
+
+class Reduced:
+    def __init__(self, value):
+        self.value = value
+
+    def __reduce__(self):
+        return (Reduced, (self.value,))
+
+    def __eq__(self, other):
+        return type(other) is Reduced and self.value == other.value
+
+
+class TestAcceleratedPickle(unittest.TestCase):
+
+    def test_accelerator_is_used(self):
+        import _pickle
+        self.assertIs(pickle.Pickler, _pickle.Pickler)
+        self.assertIs(pickle.Unpickler, _pickle.Unpickler)
+        self.assertTrue(issubclass(_pickle.PicklingError, _pickle.PickleError))
+        self.assertTrue(issubclass(_pickle.UnpicklingError, _pickle.PickleError))
+
+    def test_roundtrip(self):
+        values = [None, True, False, 0, 1, -1, 255, 256, 65535, 65536, 2**31 - 1, -2**31, 2**63, -2**100,
+                  0.0, 1.5, -2.25, float('inf'), "", "abc", "\u20ac\U0001f600", "x" * 300, b"", b"abc", b"y" * 300,
+                  bytearray(b"xyz"), (), (1,), (1, 2), (1, 2, 3), (1, 2, 3, 4), [], [1, 2.0, "3"], list(range(2500)),
+                  [1.5] * 10, [True, False], {}, {"a": 1, 2: "b"}, {i: str(i) for i in range(1500)}, set(), {1, 2, 3},
+                  frozenset(), frozenset({"a", "b"}), Point(1, "2"), Reduced([1, 2]), len, Point, type(None), ...]
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            for value in values:
+                data = pickle.dumps(value, proto)
+                self.assertEqual(pickle.loads(data), value, "protocol %d: %r" % (proto, value))
+                # the output must be understood by the pure Python implementation and vice versa
+                self.assertEqual(pickle._loads(data), value, "protocol %d: %r" % (proto, value))
+                self.assertEqual(pickle.loads(pickle._dumps(value, proto)), value, "protocol %d: %r" % (proto, value))
+
+    def test_nan(self):
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            value = pickle.loads(pickle.dumps(float('nan'), proto))
+            self.assertNotEqual(value, value)
+
+    def test_memo(self):
+        shared = [1, 2]
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            a, b = pickle.loads(pickle.dumps([shared, shared], proto))
+            self.assertIs(a, b)
+            lst = []
+            lst.append(lst)
+            res = pickle.loads(pickle.dumps(lst, proto))
+            self.assertIs(res[0], res)
+            d = {}
+            d["self"] = d
+            res = pickle.loads(pickle.dumps(d, proto))
+            self.assertIs(res["self"], res)
+
+    def test_recursive_tuple(self):
+        lst = []
+        t = (lst,)
+        lst.append(t)
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            res = pickle.loads(pickle.dumps(t, proto))
+            self.assertIs(res[0][0], res)
+
+    def test_file_api(self):
+        import io
+        f = io.BytesIO()
+        p = pickle.Pickler(f, 4)
+        p.dump([1, 2])
+        p.dump("second")
+        f.seek(0)
+        u = pickle.Unpickler(f)
+        self.assertEqual(u.load(), [1, 2])
+        self.assertEqual(u.load(), "second")
+        self.assertRaises(EOFError, u.load)
+
+    def test_persistent_id(self):
+        import io
+
+        class MyPickler(pickle.Pickler):
+            def persistent_id(self, obj):
+                if isinstance(obj, str) and obj.startswith("ref:"):
+                    return obj[4:]
+                return None
+
+        class MyUnpickler(pickle.Unpickler):
+            def persistent_load(self, pid):
+                return "loaded:" + pid
+
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            f = io.BytesIO()
+            MyPickler(f, proto).dump(["ref:a", "b"])
+            f.seek(0)
+            self.assertEqual(MyUnpickler(f).load(), ["loaded:a", "b"])
+
+    def test_out_of_band_buffers(self):
+        buffers = []
+        data = pickle.dumps(pickle.PickleBuffer(bytearray(b"abcdef")), 5, buffer_callback=buffers.append)
+        self.assertEqual(len(buffers), 1)
+        self.assertRaises(pickle.UnpicklingError, pickle.loads, data)
+        res = pickle.loads(data, buffers=buffers)
+        self.assertEqual(bytes(res), b"abcdef")
+        # in-band
+        res = pickle.loads(pickle.dumps(pickle.PickleBuffer(b"xyz"), 5))
+        self.assertEqual(res, b"xyz")
+        self.assertRaises(pickle.PicklingError, pickle.dumps, pickle.PickleBuffer(b"xyz"), 4)
+
+    def test_pickle_buffer(self):
+        pb = pickle.PickleBuffer(b"abc")
+        self.assertEqual(bytes(pb.raw()), b"abc")
+        self.assertEqual(bytes(memoryview(pb)), b"abc")
+        pb.release()
+        self.assertRaises(ValueError, pb.raw)
+
+    def test_errors(self):
+        self.assertRaises(ValueError, pickle.dumps, 1, pickle.HIGHEST_PROTOCOL + 1)
+        self.assertRaises(EOFError, pickle.loads, b"")
+        self.assertRaises(pickle.UnpicklingError, pickle.loads, b"\x80\x04\x95")
+        self.assertRaises(pickle.UnpicklingError, pickle.loads, b"\xff")
+        self.assertRaises(TypeError, pickle.Pickler, object())
+        self.assertRaises(TypeError, pickle.Unpickler, object())
+        self.assertRaises((pickle.PicklingError, AttributeError), pickle.dumps, lambda: 1)
+
+
 if __name__ == '__main__':
     unittest.main()
@@ -488,3 +488,58 @@ class ReTests(unittest.TestCase):
             r"(//?| ==?)|([[]]+)")
         for m in regex.finditer(''):
             self.fail()
+
+    def test_sub_template(self):
+        self.assertEqual(re.sub(r'(\w+)-(?P<second>\w+)', r'\2+\g<1>\\\g<second>', 'ab-cd ef-gh'), r'cd+ab\cd gh+ef\gh')
+        self.assertEqual(re.sub(r'x', r'\n\t\101', 'axb'), 'a\n\tAb')
+        self.assertEqual(re.sub(rb'(a)', rb'[\1]', b'banana'), b'b[a]n[a]n[a]')
+        self.assertEqual(re.subn(r'a', 'o', 'banana', count=2), ('bonona', 2))
+        self.assertRaises(re.error, re.sub, r'(a)', r'\2', 'a')
+        self.assertRaises(re.error, re.sub, r'a', r'\q', 'a')
+        self.assertRaises(IndexError, re.sub, r'(?P<x>a)', r'\g<y>', 'a')
+
+    def test_sub_callable(self):
+        self.assertEqual(re.sub(r'\d+', lambda m: str(int(m.group()) * 2), 'a1b22c333'), 'a2b44c666')
+        self.assertEqual(re.sub(r'x*', '-', 'abxd'), '-a-b--d-')
+        self.assertEqual(re.sub(rb'\d', lambda m: b'<' + m.group() + b'>', b'a1'), b'a<1>')
+
+    def test_finditer_scanner(self):
+        p = re.compile(r'\d')
+        self.assertEqual([m.span() for m in p.finditer('a1b2c3', 2)], [(3, 4), (5, 6)])
+        scanner = p.scanner('12')
+        self.assertIs(scanner.pattern, p)
+        self.assertEqual(scanner.match().group(), '1')
+        self.assertEqual(scanner.search().group(), '2')
+        self.assertIsNone(scanner.search())
+
+    def test_match_object(self):
+        m = re.match(r'(?P<a>\w)(?P<b>\d)?(x)?', 'a1')
+        self.assertEqual(m.group(0, 'a', 2), ('a1', 'a', '1'))
+        self.assertEqual(m['b'], '1')
+        self.assertEqual(m.groups(), ('a', '1', None))
+        self.assertEqual(m.groups('-'), ('a', '1', '-'))
+        self.assertEqual(m.groupdict(), {'a': 'a', 'b': '1'})
+        self.assertEqual(m.span(2), (1, 2))
+        self.assertEqual(m.span(3), (-1, -1))
+        self.assertEqual(m.regs, ((0, 2), (0, 1), (1, 2), (-1, -1)))
+        self.assertEqual(m.lastindex, 2)
+        self.assertEqual(m.lastgroup, 'b')
+        self.assertEqual(m.expand(r'\g<b>\1'), '1a')
+        self.assertRaises(IndexError, m.group, 4)
+        self.assertRaises(IndexError, m.group, 'c')
+        self.assertEqual(repr(m), "<re.Match object; span=(0, 2), match='a1'>")
+        self.assertIsNone(re.match(r'(a)|b', 'b').lastindex)
+
+    def test_pos_endpos(self):
+        p = re.compile(r'a+')
+        self.assertEqual(p.search('xaaay', 2, 3).span(), (2, 3))
+        self.assertIsNone(p.match('xaaa'))
+        self.assertEqual(p.match('xaaa', 1).end(), 4)
+        self.assertIsNone(p.fullmatch('aab', 0))
+        self.assertEqual(p.fullmatch('aab', 0, 2).group(), 'aa')
+        m = p.search('aa', -5, 100)
+        self.assertEqual((m.pos, m.endpos), (0, 2))
+
+    def test_pattern_repr(self):
+        self.assertEqual(repr(re.compile('a')), "re.compile('a')")
+        self.assertEqual(repr(re.compile(b'a', re.I)), "re.compile(b'a', re.IGNORECASE)")
@@ -0,0 +1,173 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import io
+import unittest
+
+
+def wrap(data, chunk_size=None, **kwargs):
+    buffer = io.BufferedReader(io.BytesIO(data))
+    text = io.TextIOWrapper(buffer, **kwargs)
+    if chunk_size is not None:
+        text._CHUNK_SIZE = chunk_size
+    return text
+
+
+class TextIOWrapperTest(unittest.TestCase):
+
+    def test_readline_universal(self):
+        data = b"a\nbb\r\nccc\rdddd"
+        for chunk_size in (1, 2, 3, 5, 8192):
+            t = wrap(data, chunk_size, encoding="ascii")
+            self.assertEqual(t.readline(), "a\n")
+            self.assertEqual(t.readline(), "bb\n")
+            self.assertEqual(t.readline(), "ccc\n")
+            self.assertEqual(t.readline(), "dddd")
+            self.assertEqual(t.readline(), "")
+            self.assertEqual(t.newlines, ("\r", "\n", "\r\n"))
+
+    def test_iteration(self):
+        lines = ["line %d\n" % i for i in range(1000)]
+        data = "".join(lines).encode("utf-8")
+        for chunk_size in (7, 128, 8192):
+            self.assertEqual(list(wrap(data, chunk_size, encoding="utf-8")), lines)
+
+    def test_crlf_across_chunks(self):
+        t = wrap(b"ab\r\ncd\r\n", 3, encoding="ascii", newline="")
+        self.assertEqual(t.readline(), "ab\r\n")
+        self.assertEqual(t.readline(), "cd\r\n")
+        t = wrap(b"ab\r\ncd", 3, encoding="ascii", newline="\r\n")
+        self.assertEqual(t.readline(), "ab\r\n")
+        self.assertEqual(t.readline(), "cd")
+        t = wrap(b"ab\r\ncd", 3, encoding="ascii")
+        self.assertEqual(t.read(), "ab\ncd")
+
+    def test_newline_modes(self):
+        data = b"a\rb\nc\r\nd"
+        self.assertEqual(list(wrap(data, encoding="ascii", newline="\n")), ["a\rb\n", "c\r\n", "d"])
+        self.assertEqual(list(wrap(data, encoding="ascii", newline="\r")), ["a\r", "b\nc\r", "\nd"])
+        self.assertEqual(list(wrap(data, encoding="ascii", newline="")), ["a\r", "b\n", "c\r\n", "d"])
+        self.assertRaises(ValueError, wrap, data, encoding="ascii", newline="xx")
+
+    def test_readline_limit(self):
+        t = wrap(b"abcdef\nxyz\n", 2, encoding="ascii")
+        self.assertEqual(t.readline(4), "abcd")
+        self.assertEqual(t.readline(4), "ef\n")
+        self.assertEqual(t.readline(0), "")
+        self.assertEqual(t.readline(), "xyz\n")
+
+    def test_multibyte_split(self):
+        text = "ä€\U0001F600x\n" * 50
+        for chunk_size in (1, 2, 3, 5):
+            t = wrap(text.encode("utf-8"), chunk_size, encoding="utf-8")
+            self.assertEqual(t.read(), text)
+            t = wrap(text.encode("utf-8"), chunk_size, encoding="utf-8")
+            self.assertEqual(t.read(3), text[:3])
+            self.assertEqual(t.readline(), text[3:text.index("\n") + 1])
+
+    def test_decode_errors(self):
+        self.assertRaises(UnicodeDecodeError, wrap(b"a\xffb", encoding="utf-8").read)
+        self.assertEqual(wrap(b"a\xffb", encoding="utf-8", errors="replace").read(), "a�b")
+        self.assertEqual(wrap(b"a\xffb", encoding="utf-8", errors="ignore").read(), "ab")
+
+    def test_tell_seek(self):
+        data = "héllo\nwörld\nend\n".encode("utf-8")
+        t = wrap(data, 4, encoding="utf-8")
+        self.assertEqual(t.tell(), 0)
+        self.assertEqual(t.readline(), "héllo\n")
+        pos = t.tell()
+        self.assertEqual(pos, len("héllo\n".encode("utf-8")))
+        self.assertEqual(t.readline(), "wörld\n")
+        t.seek(pos)
+        self.assertEqual(t.readline(), "wörld\n")
+        t.seek(0)
+        self.assertEqual(t.read(), data.decode("utf-8"))
+        self.assertEqual(t.seek(0, io.SEEK_END), len(data))
+        self.assertEqual(t.read(), "")
+        self.assertRaises(io.UnsupportedOperation, t.seek, 1, io.SEEK_CUR)
+        self.assertRaises(ValueError, t.seek, -1)
+
+    def test_write(self):
+        raw = io.BytesIO()
+        t = io.TextIOWrapper(raw, encoding="utf-8", newline="\r\n")
+        self.assertEqual(t.write("a\nbé\n"), 5)
+        t.flush()
+        self.assertEqual(raw.getvalue(), "a\r\nbé\r\n".encode("utf-8"))
+        self.assertRaises(TypeError, t.write, b"bytes")
+        self.assertRaises(UnicodeEncodeError, io.TextIOWrapper(io.BytesIO(), encoding="ascii").write, "é")
+
+    def test_line_buffering(self):
+        raw = io.BytesIO()
+        buffer = io.BufferedWriter(raw)
+        t = io.TextIOWrapper(buffer, encoding="ascii", line_buffering=True)
+        t.write("abc")
+        self.assertEqual(raw.getvalue(), b"")
+        t.write("def\nghi")
+        self.assertEqual(raw.getvalue(), b"abcdef\nghi")
+        self.assertTrue(t.line_buffering)
+
+    def test_attributes(self):
+        t = wrap(b"", encoding="latin-1")
+        self.assertEqual(t.encoding, "latin-1")
+        self.assertEqual(t.errors, "strict")
+        self.assertIsNone(t.newlines)
+        self.assertIsInstance(t, io.TextIOBase)
+        self.assertTrue(t.readable())
+        self.assertFalse(t.writable())
+        t.mode = "r"
+        self.assertEqual(t.mode, "r")
+        self.assertIn("encoding='latin-1'", repr(t))
+        t.close()
+        self.assertTrue(t.closed)
+        self.assertRaises(ValueError, t.readline)
+
+    def test_detach(self):
+        buffer = io.BufferedReader(io.BytesIO(b"abc"))
+        t = io.TextIOWrapper(buffer, encoding="ascii")
+        self.assertIs(t.detach(), buffer)
+        self.assertRaises(ValueError, t.read)
+
+    def test_reconfigure(self):
+        t = io.TextIOWrapper(io.BytesIO(), encoding="ascii")
+        t.reconfigure(encoding="utf-8", line_buffering=True)
+        self.assertEqual(t.encoding, "utf-8")
+        self.assertTrue(t.line_buffering)
+
+
+if __name__ == '__main__':
+    unittest.main()
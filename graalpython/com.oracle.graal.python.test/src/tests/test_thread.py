@@ -259,19 +259,14 @@ if syscfg.get_config_var('WITH_THREAD'):
             self.started = []
             self.finished = []
             self._can_exit = not wait_before_exit
-            self._append_lock = thread.allocate_lock()
 
             def task():
                 tid = threading.get_ident()
-                # TODO: remove the append lock once append like ops are thread safe
-                with self._append_lock:
-                    self.started.append(tid)
+                self.started.append(tid)
                 try:
                     f()
                 finally:
-                    # TODO: remove the append lock once append like ops are thread safe
-                    with self._append_lock:
-                        self.finished.append(tid)
+                    self.finished.append(tid)
                     while not self._can_exit:
                         _wait()
             try:
@@ -293,6 +288,181 @@ if syscfg.get_config_var('WITH_THREAD'):
             self._can_exit = True
 
 
+    class SharedContainerTest(unittest.TestCase):
+
+        ITEMS = 2000
+
+        def test_list_append_pop(self):
+            shared = []
+
+            def f():
+                for i in range(self.ITEMS):
+                    shared.append(i)
+                for i in range(self.ITEMS // 2):
+                    shared.pop()
+            b = Bunch(f, NUMTASKS)
+            b.wait_for_finished()
+            self.assertEqual(len(shared), NUMTASKS * self.ITEMS // 2)
+
+        def test_list_insert_remove(self):
+            shared = []
+
+            def f():
+                marker = object()
+                for i in range(self.ITEMS):
+                    shared.insert(0, i)
+                    shared.insert(len(shared) // 2, marker)
+                    shared.remove(marker)
+            b = Bunch(f, NUMTASKS)
+            b.wait_for_finished()
+            self.assertEqual(len(shared), NUMTASKS * self.ITEMS)
+
+        def test_dict_and_set_update(self):
+            shared_dict = {}
+            shared_set = set()
+
+            def f():
+                tid = threading.get_ident()
+                for i in range(self.ITEMS):
+                    shared_dict[(tid, i)] = i
+                    shared_set.add((tid, i))
+                for i in range(0, self.ITEMS, 2):
+                    del shared_dict[(tid, i)]
+                    shared_set.discard((tid, i))
+            b = Bunch(f, NUMTASKS)
+            b.wait_for_finished()
+            self.assertEqual(len(shared_dict), NUMTASKS * self.ITEMS // 2)
+            self.assertEqual(len(shared_set), NUMTASKS * self.ITEMS // 2)
+            self.assertEqual(set(shared_dict.keys()), shared_set)
+
+        def test_dict_and_set_pop(self):
+            shared_dict = {i: -i for i in range(self.ITEMS)}
+            shared_set = set(range(self.ITEMS))
+            popped_items = [[], []]
+            popped_keys = [[], []]
+            ids = [0, 1]
+
+            def f():
+                n = ids.pop()
+                # each item is popped by exactly one of the threads, and popping only fails once
+                # both containers are empty
+                while True:
+                    try:
+                        popped_items[n].append(shared_dict.popitem())
+                    except KeyError:
+                        break
+                while True:
+                    try:
+                        popped_keys[n].append(shared_set.pop())
+                    except KeyError:
+                        break
+            b = Bunch(f, 2)
+            b.wait_for_finished()
+            self.assertEqual(len(shared_dict), 0)
+            self.assertEqual(len(shared_set), 0)
+            items = popped_items[0] + popped_items[1]
+            self.assertEqual(sorted(items), [(i, -i) for i in range(self.ITEMS)])
+            keys = popped_keys[0] + popped_keys[1]
+            self.assertEqual(sorted(keys), list(range(self.ITEMS)))
+
+        def test_list_readers_and_writers(self):
+            shared = list(range(self.ITEMS))
+            ids = list(range(NUMTASKS))
+            errors = []
+
+            def f():
+                # values added by a thread are unique and larger than the initial items, so sorting
+                # keeps the initial items in front
+                base = (ids.pop() + 1) * self.ITEMS
+                try:
+                    for i in range(self.ITEMS):
+                        if i % 2:
+                            shared.append(base + i)
+                            shared.extend([base + i, base + i])
+                            shared.remove(base + i)
+                            shared.remove(base + i)
+                            shared.remove(base + i)
+                        else:
+                            self.assertIn(i, shared)
+                            self.assertEqual(shared.index(i), i)
+                            self.assertEqual(shared.count(i), 1)
+                            shared.sort()
+                            self.assertEqual(list(shared)[:self.ITEMS], shared[:self.ITEMS])
+                except BaseException as e:
+                    errors.append(e)
+            b = Bunch(f, NUMTASKS)
+            b.wait_for_finished()
+            self.assertEqual(errors, [])
+            self.assertEqual(shared, list(range(self.ITEMS)))
+
+        def test_python_keys_touching_other_containers(self):
+            # each key compares itself by looking into another thread's dict and list, so a thread
+            # that holds a lock while running __eq__ would deadlock with a thread doing the same on
+            # the other container
+            dicts = [{}, {}]
+            lists = [[] for i in range(NUMTASKS)]
+
+            class Key:
+                def __init__(self, value, other):
+                    self.value = value
+                    self.other = other
+
+                def __hash__(self):
+                    return self.value % 7
+
+                def __eq__(self, other):
+                    # -1 never has the same hash as a key, so this does not recurse into __eq__
+                    dicts[self.other % 2].get(-1)
+                    lists[self.other][-1:]
+                    return isinstance(other, Key) and self.value == other.value
+
+            ids = list(range(NUMTASKS))
+            errors = []
+
+            def f():
+                n = ids.pop()
+                d, l, other = dicts[n % 2], lists[n], (n + 1) % NUMTASKS
+                keys = [Key(n * self.ITEMS + i, other) for i in range(self.ITEMS // 10)]
+                try:
+                    for k in keys:
+                        d[k] = k.value
+                        l.append(k)
+                    for k in keys:
+                        self.assertEqual(d[k], k.value)
+                        self.assertIn(k, l)
+                    for k in keys[::2]:
+                        self.assertEqual(d.pop(k), k.value)
+                        l.remove(k)
+                    d.update({k: -k.value for k in keys[1::2]})
+                except BaseException as e:
+                    errors.append(e)
+            b = Bunch(f, NUMTASKS)
+            b.wait_for_finished()
+            self.assertEqual(errors, [])
+            remaining = [k for l in lists for k in l]
+            self.assertEqual(len(remaining), NUMTASKS * (self.ITEMS // 20))
+            self.assertEqual(sum(len(d) for d in dicts), len(remaining))
+            for k in remaining:
+                self.assertEqual(dicts[(k.other + 1) % 2][k], -k.value)
+
+
+    @unittest.skipUnless(sys.implementation.name == "graalpython", "GraalPython-specific thread stats")
+    class ThreadStatsTest(unittest.TestCase):
+
+        def test_thread_stats(self):
+            before = __graalpython__.thread_stats()
+            b = Bunch(lambda: time.sleep(0.01), NUMTASKS)
+            b.wait_for_finished()
+            after = __graalpython__.thread_stats()
+            created = sum(after[kind]["created"] - before[kind]["created"] for kind in ("platform", "virtual"))
+            self.assertGreaterEqual(created, NUMTASKS)
+            self.assertGreaterEqual(max(after["platform"]["peak_running"], after["virtual"]["peak_running"]), 1)
+            for kind in ("platform", "virtual"):
+                self.assertLessEqual(after[kind]["peak_running"], after[kind]["created"])
+            if not after["virtual_supported"]:
+                self.assertEqual(after["virtual"]["created"], 0)
+
+
     class BaseTestCase(unittest.TestCase):
         failureException = AssertionError
 
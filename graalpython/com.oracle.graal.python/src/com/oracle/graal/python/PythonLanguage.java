@@ -40,6 +40,8 @@ import org.graalvm.options.OptionValues;
 
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.PythonBuiltins.BuiltinDescription;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
@@ -149,6 +151,7 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
 
     private final NodeFactory nodeFactory;
     private final ConcurrentHashMap<String, RootCallTarget> builtinCallTargetCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<? extends PythonBuiltins>, BuiltinDescription[]> builtinDescriptionCache = new ConcurrentHashMap<>();
     /**
      * A thread-safe map that maps arithmetic operators (i.e.
      * {@link com.oracle.graal.python.nodes.expression.UnaryArithmetic},
@@ -487,6 +490,15 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         return getCurrentLanguage(PythonLanguage.class);
     }
 
+    /**
+     * Returns {@code true} as long as no second thread has ever been started. Mutable builtin
+     * containers (lists, dicts and sets) only synchronize their storage updates once this is
+     * {@code false}, so that single-threaded code keeps compiling without any locking.
+     */
+    public static boolean isSingleThreaded() {
+        return getCurrent().singleThreadedAssumption.isValid();
+    }
+
     public static PythonContext getContext() {
         return getCurrentContext(PythonLanguage.class);
     }
@@ -684,6 +696,28 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         return builtinCallTargetCache.computeIfAbsent(key, (k) -> PythonUtils.getOrCreateCallTarget(supplier.get()));
     }
 
+    /**
+     * Returns the builtin annotations of {@code builtinsClass} with their call targets, read once
+     * per engine. Nothing else about builtins is shared between contexts.
+     */
+    @TruffleBoundary
+    public BuiltinDescription[] getOrComputeBuiltinDescriptions(Class<? extends PythonBuiltins> builtinsClass, Supplier<BuiltinDescription[]> supplier) {
+        if (!getEngineOption(PythonOptions.CacheBuiltinAnnotations)) {
+            return supplier.get();
+        }
+        BuiltinDescription[] descriptions = builtinDescriptionCache.get(builtinsClass);
+        if (descriptions == null) {
+            // computed outside of the map to not block other lookups; racing contexts compute
+            // equivalent descriptions since the call targets themselves are cached
+            descriptions = supplier.get();
+            BuiltinDescription[] existing = builtinDescriptionCache.putIfAbsent(builtinsClass, descriptions);
+            if (existing != null) {
+                descriptions = existing;
+            }
+        }
+        return descriptions;
+    }
+
     public Shape getEmptyShape() {
         return emptyShape;
     }
@@ -141,9 +141,62 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PStructUnpackIterator("unpack_iterator", "_struct"),
     BZ2Compressor("BZ2Compressor", "_bz2"),
     BZ2Decompressor("BZ2Decompressor", "_bz2"),
+    PPickler("Pickler", "_pickle"),
+    PUnpickler("Unpickler", "_pickle"),
+    PPickleBuffer("PickleBuffer", "_pickle"),
+    PJsonScanner("Scanner", false, "_json", true),
+    PJsonEncoder("Encoder", false, "_json", true),
+    PSREPattern("Pattern", false, "re", false),
+    PSREMatch("Match", false, "re", false),
+    PSREScanner("SRE_Scanner", false, "_sre", false),
+    PDeque("deque", "_collections"),
+    PDequeIter("_deque_iterator", false, "_collections", false),
+    PDequeRevIter("_deque_reverse_iterator", false, "_collections", false),
+    PSimpleQueue("SimpleQueue", "_queue"),
+    PHash("HASH", false),
+    PBlake2b("blake2b", "_blake2"),
+    PBlake2s("blake2s", "_blake2"),
     ZlibCompress("Compress", "zlib"),
     ZlibDecompress("Decompress", "zlib"),
     PBufferedReader("BufferedReader", "_io"),
+    PBufferedWriter("BufferedWriter", "_io"),
+    PBufferedRandom("BufferedRandom", "_io"),
+    PBufferedRWPair("BufferedRWPair", "_io"),
+    PTextIOWrapper("TextIOWrapper", "_io"),
+    PFileIO("FileIO", "_io"),
+    PBytesIO("BytesIO", "_io"),
+    PStringIO("StringIO", "_io"),
+    PTimeDelta("timedelta", "datetime"),
+    PDate("date", "datetime"),
+    PDateTime("datetime", "datetime"),
+    PTime("time", "datetime"),
+    PTzInfo("tzinfo", "datetime"),
+    PTimeZone("timezone", "datetime", false),
+    CSVDialect("Dialect", "_csv"),
+    CSVReader("Reader", "_csv", false),
+    CSVWriter("Writer", "_csv", false),
+    PAccumulate("accumulate", "itertools"),
+    PChain("chain", "itertools"),
+    PCombinations("combinations", "itertools"),
+    PCombinationsWithReplacement("combinations_with_replacement", "itertools"),
+    PCompress("compress", "itertools"),
+    PCount("count", "itertools"),
+    PCycle("cycle", "itertools"),
+    PDropwhile("dropwhile", "itertools"),
+    PFilterfalse("filterfalse", "itertools"),
+    PGroupBy("groupby", "itertools"),
+    PGrouper("_grouper", "itertools", false),
+    PIslice("islice", "itertools"),
+    PPermutations("permutations", "itertools"),
+    PProduct("product", "itertools"),
+    PRepeat("repeat", "itertools"),
+    PStarmap("starmap", "itertools"),
+    PTakewhile("takewhile", "itertools"),
+    PTee("_tee", "itertools", false),
+    PZipLongest("zip_longest", "itertools"),
+    PPartial("partial", "_functools"),
+    PKeyWrapper("KeyWrapper", false, "functools", false),
+    PLruCacheWrapper("_lru_cache_wrapper", "_functools", false),
     PStatResult("stat_result", "os", false),
     PTerminalSize("terminal_size", "os", false),
     PUnameResult("uname_result", "posix", false),
@@ -206,9 +259,13 @@ public enum PythonBuiltinClassType implements TruffleObject {
     ZLibError("error", "zlib"),
     LZMAError("LZMAError", "_lzma"),
     StructError("StructError", "_struct"),
+    PickleError("PickleError", "_pickle"),
+    PicklingError("PicklingError", "_pickle"),
+    UnpicklingError("UnpicklingError", "_pickle"),
     SocketGAIError("gaierror", "_socket"),
     SocketHError("herror", "_socket"),
     SocketTimeout("timeout", "_socket"),
+    CSVError("Error", "_csv"),
 
     // todo: all OS errors
 
@@ -336,6 +393,12 @@ public enum PythonBuiltinClassType implements TruffleObject {
 
         Boolean.base = PInt;
 
+        PBlake2b.base = PHash;
+        PBlake2s.base = PHash;
+
+        PDateTime.base = PDate;
+        PTimeZone.base = PTzInfo;
+
         SystemExit.base = PBaseException;
         KeyboardInterrupt.base = PBaseException;
         GeneratorExit.base = PBaseException;
@@ -380,6 +443,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
         SocketGAIError.base = OSError;
         SocketHError.base = OSError;
         SocketTimeout.base = OSError;
+        CSVError.base = Exception;
 
         ReferenceError.base = Exception;
         RuntimeError.base = Exception;
@@ -396,6 +460,9 @@ public enum PythonBuiltinClassType implements TruffleObject {
         UnicodeTranslateError.base = UnicodeError;
         RecursionError.base = RuntimeError;
         StructError.base = Exception;
+        PickleError.base = Exception;
+        PicklingError.base = PickleError;
+        UnpicklingError.base = PickleError;
 
         // warnings
         Warning.base = Exception;
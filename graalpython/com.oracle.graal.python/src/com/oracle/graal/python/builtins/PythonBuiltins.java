@@ -28,12 +28,14 @@ package com.oracle.graal.python.builtins;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DOC__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEW__;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
@@ -61,32 +63,21 @@ public abstract class PythonBuiltins {
         if (builtinFunctions.size() > 0) {
             return;
         }
-        initializeEachFactoryWith((factory, builtin) -> {
-            CoreFunctions annotation = getClass().getAnnotation(CoreFunctions.class);
-            final boolean declaresExplicitSelf;
-            PythonBuiltinClassType constructsClass = builtin.constructsClass();
-            if (annotation.defineModule().length() > 0 && constructsClass == PythonBuiltinClassType.nil) {
-                assert !builtin.isGetter();
-                assert !builtin.isSetter();
-                assert annotation.extendClasses().length == 0;
-                // for module functions, explicit self is false by default
-                declaresExplicitSelf = builtin.declaresExplicitSelf();
-            } else {
-                declaresExplicitSelf = true;
-            }
-            RootCallTarget callTarget = core.getLanguage().getOrComputeBuiltinCallTarget(factory.getNodeClass().getName() + builtin.name(),
-                            () -> new BuiltinFunctionRootNode(core.getLanguage(), builtin, factory, declaresExplicitSelf));
+        for (BuiltinDescription description : core.getLanguage().getOrComputeBuiltinDescriptions(getClass(), () -> describeBuiltins(core.getLanguage()))) {
+            Builtin builtin = description.builtin;
+            RootCallTarget callTarget = description.callTarget;
             Object builtinDoc = builtin.doc().isEmpty() ? PNone.NONE : builtin.doc();
+            PythonBuiltinClassType constructsClass = builtin.constructsClass();
             if (constructsClass != PythonBuiltinClassType.nil) {
                 assert !builtin.isGetter() && !builtin.isSetter() && !builtin.isClassmethod() && !builtin.isStaticmethod();
                 // we explicitly do not make these "staticmethods" here, since CPython also doesn't
                 // for builtin types
-                PBuiltinFunction newFunc = core.factory().createBuiltinFunction(__NEW__, constructsClass, numDefaults(builtin), callTarget);
+                PBuiltinFunction newFunc = core.factory().createBuiltinFunction(__NEW__, constructsClass, description.numDefaults, callTarget);
                 PythonBuiltinClass builtinClass = core.lookupType(constructsClass);
                 builtinClass.setAttributeUnsafe(__NEW__, newFunc);
                 builtinClass.setAttribute(__DOC__, builtinDoc);
             } else {
-                PBuiltinFunction function = core.factory().createBuiltinFunction(builtin.name(), null, numDefaults(builtin), callTarget);
+                PBuiltinFunction function = core.factory().createBuiltinFunction(builtin.name(), null, description.numDefaults, callTarget);
                 function.setAttribute(__DOC__, builtinDoc);
                 BoundBuiltinCallable<?> callable = function;
                 if (builtin.isGetter() || builtin.isSetter()) {
@@ -102,7 +93,47 @@ public abstract class PythonBuiltins {
                 }
                 setBuiltinFunction(builtin.name(), callable);
             }
+        }
+    }
+
+    /**
+     * The annotation of a builtin with its call target, cached per engine (see
+     * {@link com.oracle.graal.python.runtime.PythonOptions#CacheBuiltinAnnotations}). This only saves
+     * a new context the reflective annotation reads and the call target lookups; it still creates
+     * its own function objects, descriptors and builtin classes.
+     */
+    public static final class BuiltinDescription {
+        private final Builtin builtin;
+        private final RootCallTarget callTarget;
+        private final int numDefaults;
+
+        BuiltinDescription(Builtin builtin, RootCallTarget callTarget) {
+            this.builtin = builtin;
+            this.callTarget = callTarget;
+            this.numDefaults = numDefaults(builtin);
+        }
+    }
+
+    private BuiltinDescription[] describeBuiltins(PythonLanguage language) {
+        List<BuiltinDescription> descriptions = new ArrayList<>();
+        CoreFunctions annotation = getClass().getAnnotation(CoreFunctions.class);
+        initializeEachFactoryWith((factory, builtin) -> {
+            final boolean declaresExplicitSelf;
+            PythonBuiltinClassType constructsClass = builtin.constructsClass();
+            if (annotation.defineModule().length() > 0 && constructsClass == PythonBuiltinClassType.nil) {
+                assert !builtin.isGetter();
+                assert !builtin.isSetter();
+                assert annotation.extendClasses().length == 0;
+                // for module functions, explicit self is false by default
+                declaresExplicitSelf = builtin.declaresExplicitSelf();
+            } else {
+                declaresExplicitSelf = true;
+            }
+            RootCallTarget callTarget = language.getOrComputeBuiltinCallTarget(factory.getNodeClass().getName() + builtin.name(),
+                            () -> new BuiltinFunctionRootNode(language, builtin, factory, declaresExplicitSelf));
+            descriptions.add(new BuiltinDescription(builtin, callTarget));
         });
+        return descriptions.toArray(new BuiltinDescription[descriptions.size()]);
     }
 
     /**
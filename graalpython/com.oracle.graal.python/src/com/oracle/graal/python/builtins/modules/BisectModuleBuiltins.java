@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.HeapqModuleBuiltins.LessThanNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.subscript.GetItemNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Bisection algorithms, see bisect.py. Searching builtin lists of ints, longs or doubles for a
+ * value of the same kind compares the primitive storage directly. The optional {@code key}
+ * function is applied to the list items (but not to {@code x}) as in Python 3.10.
+ */
+@CoreFunctions(defineModule = "_bisect")
+public class BisectModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BisectModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Returns the index where to insert {@code x} in {@code a[lo:hi]}, which is assumed to be
+     * sorted. If {@code right} is set, the index is after any items equal to {@code x}, otherwise
+     * before them.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class BisectNode extends PNodeWithContext {
+
+        abstract int execute(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key, boolean right);
+
+        static boolean isBuiltinList(Object a, IsBuiltinClassProfile profile) {
+            return a instanceof PList && profile.profileObject(a, PythonBuiltinClassType.PList);
+        }
+
+        @Specialization(guards = {"isPNone(key)", "isBuiltinList(a, listProfile)", "isIntStorage(a)", "isInt(x)"})
+        static int doInt(PList a, Object x, int lo, int hi, @SuppressWarnings("unused") Object key, boolean right,
+                        @SuppressWarnings("unused") @Cached IsBuiltinClassProfile listProfile,
+                        @Cached PRaiseNode raiseNode) {
+            IntSequenceStorage storage = (IntSequenceStorage) a.getSequenceStorage();
+            int[] items = storage.getInternalIntArray();
+            int len = storage.length();
+            int value = (int) x;
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                checkIndex(mid, len, raiseNode);
+                if (right ? value < items[mid] : items[mid] < value) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization(guards = {"isPNone(key)", "isBuiltinList(a, listProfile)", "isLongStorage(a)", "isInteger(x)"})
+        static int doLong(PList a, Object x, int lo, int hi, @SuppressWarnings("unused") Object key, boolean right,
+                        @SuppressWarnings("unused") @Cached IsBuiltinClassProfile listProfile,
+                        @Cached PRaiseNode raiseNode) {
+            LongSequenceStorage storage = (LongSequenceStorage) a.getSequenceStorage();
+            long[] items = storage.getInternalLongArray();
+            int len = storage.length();
+            long value = x instanceof Integer ? (int) x : (long) x;
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                checkIndex(mid, len, raiseNode);
+                if (right ? value < items[mid] : items[mid] < value) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization(guards = {"isPNone(key)", "isBuiltinList(a, listProfile)", "isDoubleStorage(a)", "isDouble(x)"})
+        static int doDouble(PList a, Object x, int lo, int hi, @SuppressWarnings("unused") Object key, boolean right,
+                        @SuppressWarnings("unused") @Cached IsBuiltinClassProfile listProfile,
+                        @Cached PRaiseNode raiseNode) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) a.getSequenceStorage();
+            double[] items = storage.getInternalDoubleArray();
+            int len = storage.length();
+            double value = (double) x;
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                checkIndex(mid, len, raiseNode);
+                if (right ? value < items[mid] : items[mid] < value) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization
+        static int doGeneric(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key, boolean right,
+                        @Cached GetItemNode getItemNode,
+                        @Cached CallNode callKeyNode,
+                        @Cached LessThanNode lessThanNode) {
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                Object item = getItemNode.execute(frame, a, mid);
+                if (!PGuards.isPNone(key)) {
+                    item = callKeyNode.execute(frame, key, item);
+                }
+                if (right ? lessThanNode.execute(frame, x, item) : lessThanNode.execute(frame, item, x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        static boolean isInt(Object x) {
+            return x instanceof Integer;
+        }
+
+        private static void checkIndex(int index, int len, PRaiseNode raiseNode) {
+            if (index >= len) {
+                throw raiseNode.raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+            }
+        }
+    }
+
+    abstract static class BisectBuiltinNode extends PythonClinicBuiltinNode {
+
+        boolean isRight() {
+            return true;
+        }
+
+        protected int bisect(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key, PythonObjectLibrary lib, BisectNode bisectNode) {
+            if (lo < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "lo");
+            }
+            int high = hi == -1 ? lib.lengthWithFrame(a, frame) : hi;
+            return bisectNode.execute(frame, a, x, lo, high, key, isRight());
+        }
+    }
+
+    // bisect_right(a, x, lo=0, hi=None, *, key=None)
+    @Builtin(name = "bisect_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectRightNode extends BisectBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int doIt(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached BisectNode bisectNode) {
+            return bisect(frame, a, x, lo, hi, key, lib, bisectNode);
+        }
+    }
+
+    // bisect_left(a, x, lo=0, hi=None, *, key=None)
+    @Builtin(name = "bisect_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectLeftNode extends BisectRightNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        boolean isRight() {
+            return false;
+        }
+    }
+
+    // insort_right(a, x, lo=0, hi=None, *, key=None)
+    @Builtin(name = "insort_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    @ImportStatic(BisectNode.class)
+    abstract static class InsortRightNode extends BisectBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "isBuiltinList(a, listProfile)")
+        PNone doList(VirtualFrame frame, PList a, Object x, int lo, int hi, Object key,
+                        @SuppressWarnings("unused") @Cached IsBuiltinClassProfile listProfile,
+                        @Cached CallNode callKeyNode,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.InsertItemNode insertItemNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached BisectNode bisectNode) {
+            int index = bisect(frame, a, applyKey(frame, x, key, callKeyNode), lo, hi, key, lib, bisectNode);
+            SequenceStorage storage = a.getSequenceStorage();
+            // like list.insert, an index past the end (possible with an explicit 'hi') appends
+            a.setSequenceStorage(insertItemNode.execute(storage, Math.min(index, lenNode.execute(storage)), x));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isBuiltinList(a, listProfile)")
+        PNone doGeneric(VirtualFrame frame, Object a, Object x, int lo, int hi, Object key,
+                        @SuppressWarnings("unused") @Cached IsBuiltinClassProfile listProfile,
+                        @Cached CallNode callKeyNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached BisectNode bisectNode) {
+            int index = bisect(frame, a, applyKey(frame, x, key, callKeyNode), lo, hi, key, lib, bisectNode);
+            lib.lookupAndCallRegularMethod(a, frame, "insert", index, x);
+            return PNone.NONE;
+        }
+
+        private static Object applyKey(VirtualFrame frame, Object x, Object key, CallNode callKeyNode) {
+            return PGuards.isPNone(key) ? x : callKeyNode.execute(frame, key, x);
+        }
+    }
+
+    // insort_left(a, x, lo=0, hi=None, *, key=None)
+    @Builtin(name = "insort_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"}, keywordOnlyNames = {"key"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortLeftNode extends InsortRightNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        boolean isRight() {
+            return false;
+        }
+    }
+}
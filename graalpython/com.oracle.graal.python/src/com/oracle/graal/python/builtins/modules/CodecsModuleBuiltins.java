@@ -436,9 +436,9 @@ public class CodecsModuleBuiltins extends PythonBuiltins {
         }
     }
 
-    abstract static class EncodeBaseNode extends PythonBuiltinNode {
+    public abstract static class EncodeBaseNode extends PythonBuiltinNode {
 
-        protected static CodingErrorAction convertCodingErrorAction(String errors) {
+        public static CodingErrorAction convertCodingErrorAction(String errors) {
             CodingErrorAction errorAction;
             switch (errors) {
                 // TODO: see [GR-10256] to implement the correct handling mechanics
@@ -894,7 +894,7 @@ public class CodecsModuleBuiltins extends PythonBuiltins {
         }
     }
 
-    static class TruffleEncoder {
+    public static class TruffleEncoder {
         private final String encodingName;
         private final CharsetEncoder encoder;
         private CharBuffer inputBuffer;
@@ -1009,7 +1009,7 @@ public class CodecsModuleBuiltins extends PythonBuiltins {
         }
     }
 
-    static class TruffleDecoder {
+    public static class TruffleDecoder {
         private final String encodingName;
         private final CharsetDecoder decoder;
         private final ByteBuffer inputBuffer;
@@ -1024,6 +1024,18 @@ public class CodecsModuleBuiltins extends PythonBuiltins {
             this.outputBuffer = CharBuffer.allocate((int) (input.length * decoder.averageCharsPerByte()));
         }
 
+        /**
+         * Decodes {@code input[0:length]} using an existing decoder, which keeps its state across
+         * calls. Used by incremental decoders that feed a stream in chunks.
+         */
+        @TruffleBoundary
+        public TruffleDecoder(String encodingName, CharsetDecoder decoder, byte[] input, int length) {
+            this.encodingName = encodingName;
+            this.inputBuffer = ByteBuffer.wrap(input, 0, length);
+            this.decoder = decoder;
+            this.outputBuffer = CharBuffer.allocate((int) (length * decoder.averageCharsPerByte()));
+        }
+
         @TruffleBoundary
         public boolean decodingStep(boolean finalData) {
             while (true) {
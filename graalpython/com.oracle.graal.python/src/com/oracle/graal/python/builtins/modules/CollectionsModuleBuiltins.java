@@ -40,18 +40,92 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import java.util.ArrayList;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
 import java.util.List;
 
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.deque.PDeque;
+import com.oracle.graal.python.builtins.objects.deque.PDequeIter;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
 
 @CoreFunctions(defineModule = "_collections")
 public class CollectionsModuleBuiltins extends PythonBuiltins {
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return CollectionsModuleBuiltinsFactory.getFactories();
+    }
+
+    // deque(iterable=(), maxlen=None)
+    @Builtin(name = "deque", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PDeque)
+    @GenerateNodeFactory
+    abstract static class DequeNode extends PythonBuiltinNode {
+        @Specialization
+        PDeque doGeneric(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            // the contents are filled in by the subsequent __init__ call
+            return factory().createDeque(cls);
+        }
+    }
+
+    // _deque_iterator(deque, index=0)
+    @Builtin(name = "_deque_iterator", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "deque", "index"}, constructsClass = PythonBuiltinClassType.PDequeIter)
+    @ArgumentClinic(name = "index", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class DequeIterNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return CollectionsModuleBuiltinsClinicProviders.DequeIterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PDequeIter doDeque(@SuppressWarnings("unused") Object cls, PDeque deque, int index) {
+            PDequeIter iterator = factory().createDequeIter(deque);
+            iterator.advance(index);
+            return iterator;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object cls, Object deque, Object index) {
+            throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "_deque_iterator()", 1, "collections.deque", deque);
+        }
+    }
+
+    // _deque_reverse_iterator(deque, index=0)
+    @Builtin(name = "_deque_reverse_iterator", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "deque", "index"}, constructsClass = PythonBuiltinClassType.PDequeRevIter)
+    @ArgumentClinic(name = "index", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class DequeRevIterNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return CollectionsModuleBuiltinsClinicProviders.DequeRevIterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PDequeIter doDeque(@SuppressWarnings("unused") Object cls, PDeque deque, int index) {
+            PDequeIter iterator = factory().createDequeRevIter(deque);
+            iterator.advance(index);
+            return iterator;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doOther(Object cls, Object deque, Object index) {
+            throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "_deque_reverse_iterator()", 1, "collections.deque", deque);
+        }
     }
 }
@@ -85,6 +85,7 @@ import com.oracle.graal.python.nodes.interop.PForeignToPTypeNode;
 import com.oracle.graal.python.nodes.truffle.PythonTypes;
 import com.oracle.graal.python.runtime.ExecutionContext.CalleeContext;
 import com.oracle.graal.python.runtime.ExecutionContext.ForeignCallContext;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
 import com.oracle.graal.python.runtime.ExecutionContextFactory.ForeignCallContextNodeGen;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -126,11 +127,13 @@ public abstract class ExternalFunctionNodes {
         @Child private ReadIndexedArgumentNode readCallableNode = ReadIndexedArgumentNode.create(0);
 
         private final String name;
+        private final PExternalFunctionWrapper provider;
 
-        private MethDirectRoot(PythonLanguage lang, String name) {
+        private MethDirectRoot(PythonLanguage lang, String name, PExternalFunctionWrapper provider) {
             super(lang);
             this.name = name;
-            this.invokeNode = ExternalFunctionInvokeNode.create();
+            this.provider = provider;
+            this.invokeNode = createInvokeNode();
         }
 
         @Override
@@ -173,14 +176,23 @@ public abstract class ExternalFunctionNodes {
         private ExternalFunctionInvokeNode ensureInvokeNode() {
             if (invokeNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
-                invokeNode = insert(ExternalFunctionInvokeNode.create());
+                invokeNode = insert(createInvokeNode());
             }
             return invokeNode;
         }
 
+        private ExternalFunctionInvokeNode createInvokeNode() {
+            return provider != null ? ExternalFunctionInvokeNode.create(provider) : ExternalFunctionInvokeNode.create();
+        }
+
         @TruffleBoundary
         public static MethDirectRoot create(PythonLanguage lang, String name) {
-            return new MethDirectRoot(lang, name);
+            return new MethDirectRoot(lang, name, null);
+        }
+
+        @TruffleBoundary
+        public static MethDirectRoot create(PythonLanguage lang, String name, PExternalFunctionWrapper provider) {
+            return new MethDirectRoot(lang, name, provider);
         }
     }
 
@@ -200,6 +212,12 @@ public abstract class ExternalFunctionNodes {
         @CompilationFinal private Assumption nativeCodeDoesntNeedMyFrame = Truffle.getRuntime().createAssumption();
         @CompilationFinal private ContextReference<PythonContext> contextRef;
 
+        /**
+         * Set for C functions declared with {@code METH_TRUFFLE_THREADSAFE}; those are called
+         * without acquiring the interop lock.
+         */
+        private final boolean threadSafe;
+
         @Override
         public final Assumption needNotPassFrameAssumption() {
             return nativeCodeDoesntNeedMyFrame;
@@ -222,6 +240,7 @@ public abstract class ExternalFunctionNodes {
         ExternalFunctionInvokeNode() {
             this.toSulongNode = CExtNodes.AllToSulongNode.create();
             this.checkResultNode = DefaultCheckFunctionResultNodeGen.create();
+            this.threadSafe = false;
         }
 
         @TruffleBoundary
@@ -230,6 +249,7 @@ public abstract class ExternalFunctionNodes {
             this.toSulongNode = convertArgsNode != null ? convertArgsNode : CExtNodes.AllToSulongNode.create();
             CheckFunctionResultNode checkFunctionResultNode = provider.getCheckFunctionResultNode();
             this.checkResultNode = checkFunctionResultNode != null ? checkFunctionResultNode : DefaultCheckFunctionResultNodeGen.create();
+            this.threadSafe = provider.isThreadSafe();
         }
 
         public Object execute(VirtualFrame frame, String name, Object callable, Object[] frameArgs, int argsOffset) {
@@ -245,7 +265,13 @@ public abstract class ExternalFunctionNodes {
 
             // If any code requested the caught exception (i.e. used 'sys.exc_info()'), we store
             // it to the context since we cannot propagate it through the native frames.
-            Object state = ensureForeignCallContext().enter(frame, ctx, this);
+            Object state = threadSafe ? IndirectCallContext.enter(frame, ctx, this) : ensureForeignCallContext().enter(frame, ctx, this);
+            // upcalls of a thread-safe function into the C API take the interop lock again
+            boolean wasInThreadSafeCall = false;
+            if (threadSafe) {
+                wasInThreadSafeCall = ctx.isInThreadSafeNativeCall();
+                ctx.setInThreadSafeNativeCall(true);
+            }
 
             try {
                 return fromNative(asPythonObjectNode.execute(checkResultNode.execute(name, lib.execute(callable, cArguments))));
@@ -259,7 +285,12 @@ public abstract class ExternalFunctionNodes {
                 // special case after calling a C function: transfer caught exception back to frame
                 // to simulate the global state semantics
                 PArguments.setException(frame, ctx.getCaughtException());
-                ensureForeignCallContext().exit(frame, ctx, state);
+                if (threadSafe) {
+                    ctx.setInThreadSafeNativeCall(wasInThreadSafeCall);
+                    IndirectCallContext.exit(frame, ctx, state);
+                } else {
+                    ensureForeignCallContext().exit(frame, ctx, state);
+                }
             }
         }
 
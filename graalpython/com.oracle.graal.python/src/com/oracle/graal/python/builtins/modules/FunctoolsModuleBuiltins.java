@@ -40,18 +40,134 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import java.util.ArrayList;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
 import java.util.List;
 
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.argument.keywords.ExpandKeywordStarargsNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
 
 @CoreFunctions(defineModule = "_functools")
 public class FunctoolsModuleBuiltins extends PythonBuiltins {
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return FunctoolsModuleBuiltinsFactory.getFactories();
+    }
+
+    // reduce(function, sequence[, initial])
+    @Builtin(name = "reduce", minNumOfPositionalArgs = 2, parameterNames = {"function", "sequence", "initial"})
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonTernaryBuiltinNode {
+        @Specialization(limit = "3")
+        Object reduce(VirtualFrame frame, Object function, Object sequence, Object initial,
+                        @CachedLibrary("sequence") PythonObjectLibrary lib,
+                        @Cached GetNextNode getNextNode,
+                        @Cached CallNode callNode,
+                        @Cached IsBuiltinClassProfile stopIterationProfile) {
+            Object iterator = lib.getIteratorWithFrame(sequence, frame);
+            Object value = initial;
+            if (value == PNone.NO_VALUE) {
+                try {
+                    value = getNextNode.execute(frame, iterator);
+                } catch (PException e) {
+                    e.expectStopIteration(stopIterationProfile);
+                    throw raise(TypeError, ErrorMessages.REDUCE_OF_EMPTY_SEQUENCE);
+                }
+            }
+            while (true) {
+                Object element;
+                try {
+                    element = getNextNode.execute(frame, iterator);
+                } catch (PException e) {
+                    e.expectStopIteration(stopIterationProfile);
+                    return value;
+                }
+                value = callNode.execute(frame, function, value, element);
+            }
+        }
+    }
+
+    // cmp_to_key(mycmp)
+    @Builtin(name = "cmp_to_key", minNumOfPositionalArgs = 1, parameterNames = {"mycmp"})
+    @GenerateNodeFactory
+    public abstract static class CmpToKeyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object cmpToKey(Object mycmp) {
+            return factory().createKeyWrapper(mycmp, null);
+        }
+    }
+
+    // partial(func, *args, **keywords)
+    @Builtin(name = "partial", minNumOfPositionalArgs = 2, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PPartial)
+    @GenerateNodeFactory
+    public abstract static class PartialNode extends PythonBuiltinNode {
+        @Specialization(limit = "3")
+        Object partial(Object cls, Object function, Object[] args, PKeyword[] keywords,
+                        @CachedLibrary("function") PythonObjectLibrary lib,
+                        @Cached IsBuiltinClassProfile isPartialClassProfile,
+                        @Cached IsBuiltinClassProfile isPartialProfile,
+                        @Cached ExpandKeywordStarargsNode expandKeywordsNode) {
+            if (!lib.isCallable(function)) {
+                throw raise(TypeError, ErrorMessages.THE_FIRST_ARGUMENT_MUST_BE_CALLABLE);
+            }
+            // the varargs array may be reused by the caller
+            Object[] storedArgs = PythonUtils.arrayCopyOf(args, args.length);
+            if (function instanceof PPartial && isPartialClassProfile.profileClass(cls, PythonBuiltinClassType.PPartial) &&
+                            isPartialProfile.profileObject(function, PythonBuiltinClassType.PPartial) && lib.getDict(function) == null) {
+                // flatten nested partial objects, so that calls go to the wrapped function directly
+                PPartial inner = (PPartial) function;
+                PKeyword[] merged = PPartial.mergeKeywords(expandKeywordsNode.execute(inner.getKeywords()), keywords);
+                return factory().createPartial(cls, inner.getFunction(), inner.prependArgs(storedArgs), factory().createDict(merged));
+            }
+            return factory().createPartial(cls, function, storedArgs, factory().createDict(keywords));
+        }
+    }
+
+    // _lru_cache_wrapper(user_function, maxsize, typed, cache_info_type)
+    @Builtin(name = "_lru_cache_wrapper", minNumOfPositionalArgs = 5, parameterNames = {"$cls", "user_function", "maxsize", "typed", "cache_info_type"}, constructsClass = PythonBuiltinClassType.PLruCacheWrapper)
+    @GenerateNodeFactory
+    public abstract static class LruCacheWrapperNode extends PythonBuiltinNode {
+        @Specialization(limit = "3")
+        Object lruCacheWrapper(VirtualFrame frame, Object cls, Object function, Object maxSize, Object typed, Object cacheInfoType,
+                        @CachedLibrary("maxSize") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary otherLib) {
+            if (!otherLib.isCallable(function)) {
+                throw raise(TypeError, ErrorMessages.THE_FIRST_ARGUMENT_MUST_BE_CALLABLE);
+            }
+            int maxEntries;
+            if (maxSize == PNone.NONE) {
+                // unbounded
+                maxEntries = -1;
+            } else if (lib.canBeIndex(maxSize)) {
+                maxEntries = Math.max(lib.asSizeWithFrame(maxSize, OverflowError, frame), 0);
+            } else {
+                throw raise(TypeError, ErrorMessages.MAXSIZE_SHOULD_BE_INTEGER_OR_NONE);
+            }
+            return factory().createLruCacheWrapper(cls, function, maxSize, maxEntries, otherLib.isTrue(typed, frame), cacheInfoType);
+        }
     }
 }
@@ -46,7 +46,9 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.ImportEr
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 import org.graalvm.nativeimage.ImageInfo;
@@ -67,6 +69,7 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.Signature;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.list.PList;
@@ -88,10 +91,12 @@ import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.InteropLock;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.PythonThreads;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.PythonUtils;
@@ -558,6 +563,44 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "interop_lock_stats", minNumOfPositionalArgs = 0, doc = "Returns how often threads waited for the interop lock and for how long, in total and per call site.")
+    @GenerateNodeFactory
+    public abstract static class InteropLockStatsNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PDict doIt() {
+            InteropLock lock = getContext().getInteropLock();
+            if (lock == null) {
+                return factory().createDict(new PKeyword[]{new PKeyword("acquisitions", 0L), new PKeyword("contended", 0L), new PKeyword("wait_ns", 0L),
+                                new PKeyword("sites", factory().createDict())});
+            }
+            List<PKeyword> sites = new ArrayList<>();
+            for (Map.Entry<String, InteropLock.SiteStats> entry : lock.getSites().entrySet()) {
+                InteropLock.SiteStats stats = entry.getValue();
+                sites.add(new PKeyword(entry.getKey(), factory().createTuple(new Object[]{stats.getContentions(), stats.getWaitNanos()})));
+            }
+            return factory().createDict(new PKeyword[]{new PKeyword("acquisitions", lock.getAcquisitions()), new PKeyword("contended", lock.getContentions()),
+                            new PKeyword("wait_ns", lock.getWaitNanos()), new PKeyword("sites", factory().createDict(sites.toArray(new PKeyword[sites.size()])))});
+        }
+    }
+
+    @Builtin(name = "thread_stats", minNumOfPositionalArgs = 0, doc = "Returns how many platform and how many virtual threads were started from Python, and how many of each are running.")
+    @GenerateNodeFactory
+    public abstract static class ThreadStatsNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PDict doIt() {
+            PythonThreads threads = getContext().getThreads();
+            return factory().createDict(new PKeyword[]{new PKeyword("platform", countersToDict(threads.getPlatform())), new PKeyword("virtual", countersToDict(threads.getVirtual())),
+                            new PKeyword("virtual_supported", PythonThreads.isVirtualThreadSupported())});
+        }
+
+        private PDict countersToDict(PythonThreads.Counters counters) {
+            return factory().createDict(new PKeyword[]{new PKeyword("created", counters.getCreated()), new PKeyword("running", counters.getRunning()),
+                            new PKeyword("peak_running", counters.getPeakRunning())});
+        }
+    }
+
     // Internal builtin used for testing: changes strategy of newly allocated set or map
     @Builtin(name = "set_storage_strategy", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.IndexNodes.NormalizeIndexNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes;
+import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
+import com.oracle.graal.python.nodes.expression.CoerceToBooleanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Heap queue algorithm, see heapq.py. Lists of ints, longs or doubles are sifted directly on the
+ * primitive storage array; other lists go through Python's rich comparison and, like CPython,
+ * check after each comparison that the list was not resized by it.
+ */
+@CoreFunctions(defineModule = "_heapq")
+public class HeapqModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HeapqModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * {@code a < b} for arbitrary objects.
+     */
+    abstract static class LessThanNode extends PNodeWithContext {
+
+        abstract boolean execute(VirtualFrame frame, Object a, Object b);
+
+        @Specialization
+        static boolean lessThan(VirtualFrame frame, Object a, Object b,
+                        @Cached("createComparison()") BinaryComparisonNode compareNode,
+                        @Cached("createIfTrueNode()") CoerceToBooleanNode coerceToBooleanNode) {
+            return coerceToBooleanNode.executeBoolean(frame, compareNode.executeWith(frame, a, b));
+        }
+
+        static BinaryComparisonNode createComparison() {
+            return BinaryComparisonNode.create(__LT__, __GT__, "<");
+        }
+    }
+
+    static boolean isPrimitiveStorage(SequenceStorage storage) {
+        return storage instanceof IntSequenceStorage || storage instanceof LongSequenceStorage || storage instanceof DoubleSequenceStorage;
+    }
+
+    /*
+     * The primitive versions of _siftdown and _siftup. They move a hole instead of swapping, which
+     * leaves the items in the same places.
+     */
+
+    static void siftDown(int[] heap, int startPos, int pos, boolean max) {
+        int newItem = heap[pos];
+        while (pos > startPos) {
+            int parentPos = (pos - 1) >> 1;
+            int parent = heap[parentPos];
+            if (!(max ? parent < newItem : newItem < parent)) {
+                break;
+            }
+            heap[pos] = parent;
+            pos = parentPos;
+        }
+        heap[pos] = newItem;
+    }
+
+    static void siftUp(int[] heap, int endPos, int pos, boolean max) {
+        int startPos = pos;
+        int newItem = heap[pos];
+        int limit = endPos >> 1;
+        while (pos < limit) {
+            int childPos = 2 * pos + 1;
+            if (childPos + 1 < endPos && !(max ? heap[childPos + 1] < heap[childPos] : heap[childPos] < heap[childPos + 1])) {
+                childPos++;
+            }
+            heap[pos] = heap[childPos];
+            pos = childPos;
+        }
+        heap[pos] = newItem;
+        siftDown(heap, startPos, pos, max);
+    }
+
+    static void siftDown(long[] heap, int startPos, int pos, boolean max) {
+        long newItem = heap[pos];
+        while (pos > startPos) {
+            int parentPos = (pos - 1) >> 1;
+            long parent = heap[parentPos];
+            if (!(max ? parent < newItem : newItem < parent)) {
+                break;
+            }
+            heap[pos] = parent;
+            pos = parentPos;
+        }
+        heap[pos] = newItem;
+    }
+
+    static void siftUp(long[] heap, int endPos, int pos, boolean max) {
+        int startPos = pos;
+        long newItem = heap[pos];
+        int limit = endPos >> 1;
+        while (pos < limit) {
+            int childPos = 2 * pos + 1;
+            if (childPos + 1 < endPos && !(max ? heap[childPos + 1] < heap[childPos] : heap[childPos] < heap[childPos + 1])) {
+                childPos++;
+            }
+            heap[pos] = heap[childPos];
+            pos = childPos;
+        }
+        heap[pos] = newItem;
+        siftDown(heap, startPos, pos, max);
+    }
+
+    static void siftDown(double[] heap, int startPos, int pos, boolean max) {
+        double newItem = heap[pos];
+        while (pos > startPos) {
+            int parentPos = (pos - 1) >> 1;
+            double parent = heap[parentPos];
+            if (!(max ? parent < newItem : newItem < parent)) {
+                break;
+            }
+            heap[pos] = parent;
+            pos = parentPos;
+        }
+        heap[pos] = newItem;
+    }
+
+    static void siftUp(double[] heap, int endPos, int pos, boolean max) {
+        int startPos = pos;
+        double newItem = heap[pos];
+        int limit = endPos >> 1;
+        while (pos < limit) {
+            int childPos = 2 * pos + 1;
+            if (childPos + 1 < endPos && !(max ? heap[childPos + 1] < heap[childPos] : heap[childPos] < heap[childPos + 1])) {
+                childPos++;
+            }
+            heap[pos] = heap[childPos];
+            pos = childPos;
+        }
+        heap[pos] = newItem;
+        siftDown(heap, startPos, pos, max);
+    }
+
+    /**
+     * Follow the path to the root, moving parents down until finding a place the item at
+     * {@code pos} fits. {@code storage} must be the current storage of {@code heap}.
+     */
+    abstract static class SiftDownNode extends PNodeWithContext {
+
+        abstract void execute(VirtualFrame frame, PList heap, SequenceStorage storage, int startPos, int pos, boolean max);
+
+        @Specialization
+        static void doInt(@SuppressWarnings("unused") PList heap, IntSequenceStorage storage, int startPos, int pos, boolean max) {
+            siftDown(storage.getInternalIntArray(), startPos, pos, max);
+        }
+
+        @Specialization
+        static void doLong(@SuppressWarnings("unused") PList heap, LongSequenceStorage storage, int startPos, int pos, boolean max) {
+            siftDown(storage.getInternalLongArray(), startPos, pos, max);
+        }
+
+        @Specialization
+        static void doDouble(@SuppressWarnings("unused") PList heap, DoubleSequenceStorage storage, int startPos, int pos, boolean max) {
+            siftDown(storage.getInternalDoubleArray(), startPos, pos, max);
+        }
+
+        @Specialization(guards = "!isPrimitiveStorage(storage)")
+        static void doGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int startPos, int pos, boolean max,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached LessThanNode lessThanNode,
+                        @Cached PRaiseNode raiseNode) {
+            int size = lenNode.execute(storage);
+            SequenceStorage s = storage;
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                Object newItem = getItemNode.execute(s, pos);
+                Object parent = getItemNode.execute(s, parentPos);
+                boolean lt = max ? lessThanNode.execute(frame, parent, newItem) : lessThanNode.execute(frame, newItem, parent);
+                s = checkSize(heap, size, lenNode, raiseNode);
+                if (!lt) {
+                    break;
+                }
+                // the comparison may have changed the list, so reload the items
+                parent = getItemNode.execute(s, parentPos);
+                newItem = getItemNode.execute(s, pos);
+                setItemNode.execute(s, parentPos, newItem);
+                setItemNode.execute(s, pos, parent);
+                pos = parentPos;
+            }
+        }
+    }
+
+    /**
+     * Bubble the smaller child up until hitting a leaf, then put the item that was at {@code pos}
+     * there and sift it down to its final place.
+     */
+    abstract static class SiftUpNode extends PNodeWithContext {
+
+        abstract void execute(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean max);
+
+        @Specialization
+        static void doInt(@SuppressWarnings("unused") PList heap, IntSequenceStorage storage, int pos, boolean max) {
+            siftUp(storage.getInternalIntArray(), storage.length(), pos, max);
+        }
+
+        @Specialization
+        static void doLong(@SuppressWarnings("unused") PList heap, LongSequenceStorage storage, int pos, boolean max) {
+            siftUp(storage.getInternalLongArray(), storage.length(), pos, max);
+        }
+
+        @Specialization
+        static void doDouble(@SuppressWarnings("unused") PList heap, DoubleSequenceStorage storage, int pos, boolean max) {
+            siftUp(storage.getInternalDoubleArray(), storage.length(), pos, max);
+        }
+
+        @Specialization(guards = "!isPrimitiveStorage(storage)")
+        static void doGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean max,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached LessThanNode lessThanNode,
+                        @Cached SiftDownNode siftDownNode,
+                        @Cached PRaiseNode raiseNode) {
+            int endPos = lenNode.execute(storage);
+            int startPos = pos;
+            int limit = endPos >> 1;
+            SequenceStorage s = storage;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                if (childPos + 1 < endPos) {
+                    Object child = getItemNode.execute(s, childPos);
+                    Object rightChild = getItemNode.execute(s, childPos + 1);
+                    boolean lt = max ? lessThanNode.execute(frame, rightChild, child) : lessThanNode.execute(frame, child, rightChild);
+                    if (!lt) {
+                        childPos++;
+                    }
+                    s = checkSize(heap, endPos, lenNode, raiseNode);
+                }
+                // move the smaller child up
+                Object child = getItemNode.execute(s, childPos);
+                Object item = getItemNode.execute(s, pos);
+                setItemNode.execute(s, childPos, item);
+                setItemNode.execute(s, pos, child);
+                pos = childPos;
+            }
+            siftDownNode.execute(frame, heap, s, startPos, pos, max);
+        }
+    }
+
+    /**
+     * Returns the storage of {@code heap} after a comparison, which could have run arbitrary code.
+     */
+    static SequenceStorage checkSize(PList heap, int size, SequenceStorageNodes.LenNode lenNode, PRaiseNode raiseNode) {
+        SequenceStorage storage = heap.getSequenceStorage();
+        if (lenNode.execute(storage) != size) {
+            throw raiseNode.raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+        }
+        return storage;
+    }
+
+    static SequenceStorageNodes.SetItemNode createSetItem() {
+        return SequenceStorageNodes.SetItemNode.create(NormalizeIndexNode.forListAssign(), () -> ListGeneralizationNode.create());
+    }
+
+    /**
+     * {@code heap[0] = item}, generalizing the storage of {@code heap} if needed.
+     */
+    static SequenceStorage setFirst(VirtualFrame frame, PList heap, Object item, SequenceStorageNodes.SetItemNode setItemNode) {
+        SequenceStorage storage = setItemNode.executeInt(frame, heap.getSequenceStorage(), 0, item);
+        if (storage != heap.getSequenceStorage()) {
+            heap.setSequenceStorage(storage);
+        }
+        return storage;
+    }
+
+    abstract static class HeapUnaryBuiltinNode extends PythonUnaryBuiltinNode {
+        boolean isMax() {
+            return false;
+        }
+
+        @Fallback
+        Object notAList(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    abstract static class HeapBinaryBuiltinNode extends PythonBinaryBuiltinNode {
+        boolean isMax() {
+            return false;
+        }
+
+        @Fallback
+        Object notAList(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    // heappush(heap, item)
+    @Builtin(name = "heappush", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapPushNode extends HeapBinaryBuiltinNode {
+        @Specialization
+        static PNone heappush(VirtualFrame frame, PList heap, Object item,
+                        @Cached ListNodes.AppendNode appendNode,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SiftDownNode siftDownNode) {
+            appendNode.execute(heap, item);
+            SequenceStorage storage = heap.getSequenceStorage();
+            siftDownNode.execute(frame, heap, storage, 0, lenNode.execute(storage) - 1, false);
+            return PNone.NONE;
+        }
+    }
+
+    // heappop(heap)
+    @Builtin(name = "heappop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapPopNode extends HeapUnaryBuiltinNode {
+        @Specialization
+        Object heappop(VirtualFrame frame, PList heap,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.SetLenNode setLenNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            int n = lenNode.execute(storage);
+            if (n == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object lastElt = getItemNode.execute(storage, n - 1);
+            setLenNode.execute(storage, n - 1);
+            if (n == 1) {
+                return lastElt;
+            }
+            Object returnItem = getItemNode.execute(storage, 0);
+            setItemNode.execute(storage, 0, lastElt);
+            siftUpNode.execute(frame, heap, storage, 0, isMax());
+            return returnItem;
+        }
+    }
+
+    // _heappop_max(heap)
+    @Builtin(name = "_heappop_max", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapPopMaxNode extends HeapPopNode {
+        @Override
+        boolean isMax() {
+            return true;
+        }
+    }
+
+    // heapreplace(heap, item)
+    @Builtin(name = "heapreplace", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapReplaceNode extends HeapBinaryBuiltinNode {
+        @Specialization
+        Object heapreplace(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (lenNode.execute(storage) == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object returnItem = getItemNode.execute(storage, 0);
+            storage = setFirst(frame, heap, item, setItemNode);
+            siftUpNode.execute(frame, heap, storage, 0, isMax());
+            return returnItem;
+        }
+    }
+
+    // _heapreplace_max(heap, item)
+    @Builtin(name = "_heapreplace_max", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapReplaceMaxNode extends HeapReplaceNode {
+        @Override
+        boolean isMax() {
+            return true;
+        }
+    }
+
+    // heappushpop(heap, item)
+    @Builtin(name = "heappushpop", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapPushPopNode extends HeapBinaryBuiltinNode {
+        @Specialization
+        Object heappushpop(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode,
+                        @Cached LessThanNode lessThanNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (lenNode.execute(storage) == 0) {
+                return item;
+            }
+            Object top = getItemNode.execute(storage, 0);
+            if (!lessThanNode.execute(frame, top, item)) {
+                return item;
+            }
+            storage = heap.getSequenceStorage();
+            if (lenNode.execute(storage) == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object returnItem = getItemNode.execute(storage, 0);
+            storage = setFirst(frame, heap, item, setItemNode);
+            siftUpNode.execute(frame, heap, storage, 0, false);
+            return returnItem;
+        }
+    }
+
+    // heapify(heap)
+    @Builtin(name = "heapify", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapifyNode extends HeapUnaryBuiltinNode {
+        @Specialization
+        PNone heapify(VirtualFrame frame, PList heap,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached SiftUpNode siftUpNode) {
+            /*
+             * Transform bottom-up. The largest index there's any point to looking at is the
+             * largest with a child index in-range, so must have 2*i + 1 < n, or i < (n-1)/2.
+             */
+            int n = lenNode.execute(heap.getSequenceStorage());
+            for (int i = (n >> 1) - 1; i >= 0; i--) {
+                siftUpNode.execute(frame, heap, heap.getSequenceStorage(), i, isMax());
+            }
+            return PNone.NONE;
+        }
+    }
+
+    // _heapify_max(heap)
+    @Builtin(name = "_heapify_max", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapifyMaxNode extends HeapifyNode {
+        @Override
+        boolean isMax() {
+            return true;
+        }
+    }
+}
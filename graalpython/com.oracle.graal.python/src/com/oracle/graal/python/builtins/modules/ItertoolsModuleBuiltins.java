@@ -25,19 +25,376 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import java.util.Collections;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
 import java.util.List;
 
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
+import com.oracle.graal.python.builtins.objects.complex.PComplex;
+import com.oracle.graal.python.builtins.objects.itertools.PTee;
+import com.oracle.graal.python.builtins.objects.itertools.TeeDataObject;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.builtins.TupleNodes;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CastToJavaLongLossyNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
 
 @CoreFunctions(defineModule = "itertools")
 public final class ItertoolsModuleBuiltins extends PythonBuiltins {
 
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return Collections.emptyList();
+        return ItertoolsModuleBuiltinsFactory.getFactories();
+    }
+
+    // repeat(object[, times])
+    @Builtin(name = "repeat", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "object", "times"}, constructsClass = PythonBuiltinClassType.PRepeat)
+    @GenerateNodeFactory
+    public abstract static class RepeatNode extends PythonTernaryBuiltinNode {
+        @Specialization(guards = "isNoValue(times)")
+        Object repeat(Object cls, Object object, @SuppressWarnings("unused") PNone times) {
+            return factory().createRepeat(cls, object, -1);
+        }
+
+        @Specialization(guards = "!isNoValue(times)")
+        Object repeat(VirtualFrame frame, Object cls, Object object, Object times,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int count = lib.asSizeWithFrame(times, OverflowError, frame);
+            return factory().createRepeat(cls, object, Math.max(count, 0));
+        }
+    }
+
+    // chain(*iterables)
+    @Builtin(name = "chain", minNumOfPositionalArgs = 1, takesVarArgs = true, constructsClass = PythonBuiltinClassType.PChain)
+    @GenerateNodeFactory
+    public abstract static class ChainNode extends PythonBuiltinNode {
+        @Specialization
+        Object chain(Object cls, Object[] iterables) {
+            // the iterables are only turned into iterators once the chain gets to them, the copy
+            // is needed because consumed entries are cleared
+            return factory().createChain(cls, PythonUtils.arrayCopyOf(iterables, iterables.length), null);
+        }
+    }
+
+    // starmap(function, iterable)
+    @Builtin(name = "starmap", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "function", "iterable"}, constructsClass = PythonBuiltinClassType.PStarmap)
+    @GenerateNodeFactory
+    public abstract static class StarmapNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object starmap(VirtualFrame frame, Object cls, Object function, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createStarmap(cls, function, lib.getIteratorWithFrame(iterable, frame));
+        }
+    }
+
+    // islice(iterable, stop)
+    // islice(iterable, start, stop[, step])
+    @Builtin(name = "islice", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "iterable", "start", "stop", "step"}, constructsClass = PythonBuiltinClassType.PIslice)
+    @GenerateNodeFactory
+    public abstract static class IsliceNode extends PythonBuiltinNode {
+        @Specialization
+        Object islice(VirtualFrame frame, Object cls, Object iterable, Object arg1, Object arg2, Object arg3,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached CastToJavaLongLossyNode castNode) {
+            long start = 0;
+            long stop = -1;
+            long step = 1;
+            if (PGuards.isNoValue(arg2)) {
+                if (arg1 != PNone.NONE) {
+                    stop = toIndex(frame, arg1, lib, castNode, ErrorMessages.STOP_FOR_ISLICE_MUST_BE_NONE_OR_INT);
+                }
+            } else {
+                if (arg1 != PNone.NONE) {
+                    start = toIndex(frame, arg1, lib, castNode, ErrorMessages.INDICES_FOR_ISLICE_MUST_BE_NONE_OR_INT);
+                }
+                if (arg2 != PNone.NONE) {
+                    stop = toIndex(frame, arg2, lib, castNode, ErrorMessages.STOP_FOR_ISLICE_MUST_BE_NONE_OR_INT);
+                }
+            }
+            if (start < 0 || stop < -1) {
+                throw raise(ValueError, ErrorMessages.INDICES_FOR_ISLICE_MUST_BE_NONE_OR_INT);
+            }
+            if (!PGuards.isPNone(arg3)) {
+                step = lib.canBeIndex(arg3) ? castNode.execute(lib.asIndexWithFrame(arg3, frame)) : -1;
+                if (step < 1) {
+                    throw raise(ValueError, ErrorMessages.STEP_FOR_ISLICE_MUST_BE_POSITIVE_INT_OR_NONE);
+                }
+            }
+            return factory().createIslice(cls, lib.getIteratorWithFrame(iterable, frame), start, stop, step);
+        }
+
+        private long toIndex(VirtualFrame frame, Object value, PythonObjectLibrary lib, CastToJavaLongLossyNode castNode, String message) {
+            if (!lib.canBeIndex(value)) {
+                throw raise(ValueError, message);
+            }
+            return castNode.execute(lib.asIndexWithFrame(value, frame));
+        }
+    }
+
+    // count(start=0, step=1)
+    @Builtin(name = "count", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "start", "step"}, constructsClass = PythonBuiltinClassType.PCount)
+    @GenerateNodeFactory
+    public abstract static class CountNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object count(Object cls, Object start, Object step,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object count = PGuards.isNoValue(start) ? 0 : start;
+            Object countStep = PGuards.isNoValue(step) ? 1 : step;
+            if (!isNumber(count, lib) || !isNumber(countStep, lib)) {
+                throw raise(TypeError, ErrorMessages.A_NUMBER_IS_REQUIRED);
+            }
+            return factory().createCount(cls, count, countStep);
+        }
+
+        private static boolean isNumber(Object value, PythonObjectLibrary lib) {
+            return value instanceof PComplex || lib.canBePInt(value) || lib.canBeJavaDouble(value);
+        }
+    }
+
+    // cycle(iterable)
+    @Builtin(name = "cycle", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "iterable"}, constructsClass = PythonBuiltinClassType.PCycle)
+    @GenerateNodeFactory
+    public abstract static class CycleNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object cycle(VirtualFrame frame, Object cls, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createCycle(cls, lib.getIteratorWithFrame(iterable, frame));
+        }
+    }
+
+    // dropwhile(predicate, iterable)
+    @Builtin(name = "dropwhile", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "predicate", "iterable"}, constructsClass = PythonBuiltinClassType.PDropwhile)
+    @GenerateNodeFactory
+    public abstract static class DropwhileNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object dropwhile(VirtualFrame frame, Object cls, Object predicate, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createDropwhile(cls, predicate, lib.getIteratorWithFrame(iterable, frame));
+        }
+    }
+
+    // takewhile(predicate, iterable)
+    @Builtin(name = "takewhile", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "predicate", "iterable"}, constructsClass = PythonBuiltinClassType.PTakewhile)
+    @GenerateNodeFactory
+    public abstract static class TakewhileNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object takewhile(VirtualFrame frame, Object cls, Object predicate, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createTakewhile(cls, predicate, lib.getIteratorWithFrame(iterable, frame));
+        }
+    }
+
+    // filterfalse(function or None, iterable)
+    @Builtin(name = "filterfalse", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "function", "iterable"}, constructsClass = PythonBuiltinClassType.PFilterfalse)
+    @GenerateNodeFactory
+    public abstract static class FilterfalseNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object filterfalse(VirtualFrame frame, Object cls, Object function, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createFilterfalse(cls, function, lib.getIteratorWithFrame(iterable, frame));
+        }
+    }
+
+    // compress(data, selectors)
+    @Builtin(name = "compress", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "data", "selectors"}, constructsClass = PythonBuiltinClassType.PCompress)
+    @GenerateNodeFactory
+    public abstract static class CompressNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object compress(VirtualFrame frame, Object cls, Object data, Object selectors,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createCompress(cls, lib.getIteratorWithFrame(data, frame), lib.getIteratorWithFrame(selectors, frame));
+        }
+    }
+
+    // accumulate(iterable, func=None, *, initial=None)
+    @Builtin(name = "accumulate", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "iterable", "func"}, keywordOnlyNames = {"initial"}, constructsClass = PythonBuiltinClassType.PAccumulate)
+    @GenerateNodeFactory
+    public abstract static class AccumulateNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object accumulate(VirtualFrame frame, Object cls, Object iterable, Object func, Object initial,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object iterator = lib.getIteratorWithFrame(iterable, frame);
+            return factory().createAccumulate(cls, iterator, PGuards.isPNone(func) ? PNone.NONE : func, PGuards.isPNone(initial) ? PNone.NONE : initial);
+        }
+    }
+
+    // groupby(iterable, key=None)
+    @Builtin(name = "groupby", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "iterable", "key"}, constructsClass = PythonBuiltinClassType.PGroupBy)
+    @GenerateNodeFactory
+    public abstract static class GroupByNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object groupby(VirtualFrame frame, Object cls, Object iterable, Object key,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createGroupBy(cls, lib.getIteratorWithFrame(iterable, frame), PGuards.isPNone(key) ? PNone.NONE : key);
+        }
+    }
+
+    // product(*iterables, repeat=1)
+    @Builtin(name = "product", minNumOfPositionalArgs = 1, takesVarArgs = true, keywordOnlyNames = {"repeat"}, constructsClass = PythonBuiltinClassType.PProduct)
+    @GenerateNodeFactory
+    public abstract static class ProductNode extends PythonBuiltinNode {
+        @Specialization
+        Object product(VirtualFrame frame, Object cls, Object[] iterables, Object repeat,
+                        @Cached TupleNodes.ConstructTupleNode constructTupleNode,
+                        @Cached SequenceNodes.GetObjectArrayNode getArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int repeatCount = 1;
+            if (!PGuards.isNoValue(repeat)) {
+                repeatCount = lib.asSizeWithFrame(repeat, OverflowError, frame);
+                if (repeatCount < 0) {
+                    throw raise(ValueError, ErrorMessages.REPEAT_ARGUMENT_CANNOT_BE_NEGATIVE);
+                }
+            }
+            int npools = iterables.length;
+            Object[][] pools = new Object[npools * repeatCount][];
+            for (int i = 0; i < npools; i++) {
+                pools[i] = getArrayNode.execute(constructTupleNode.execute(frame, iterables[i]));
+            }
+            for (int i = npools; i < pools.length; i++) {
+                pools[i] = pools[i - npools];
+            }
+            return factory().createProduct(cls, pools);
+        }
+    }
+
+    // permutations(iterable, r=None)
+    @Builtin(name = "permutations", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "iterable", "r"}, constructsClass = PythonBuiltinClassType.PPermutations)
+    @GenerateNodeFactory
+    public abstract static class PermutationsNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object permutations(VirtualFrame frame, Object cls, Object iterable, Object r,
+                        @Cached TupleNodes.ConstructTupleNode constructTupleNode,
+                        @Cached SequenceNodes.GetObjectArrayNode getArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object[] pool = getArrayNode.execute(constructTupleNode.execute(frame, iterable));
+            int length = pool.length;
+            if (!PGuards.isPNone(r)) {
+                if (!PGuards.canBeInteger(r)) {
+                    throw raise(TypeError, ErrorMessages.EXPECTED_INT_AS_R);
+                }
+                length = lib.asSizeWithFrame(r, OverflowError, frame);
+                if (length < 0) {
+                    throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "r");
+                }
+            }
+            return factory().createPermutations(cls, pool, length);
+        }
+    }
+
+    abstract static class CombinationsBaseNode extends PythonTernaryBuiltinNode {
+        int getLength(VirtualFrame frame, Object r, PythonObjectLibrary lib) {
+            int length = lib.asSizeWithFrame(r, OverflowError, frame);
+            if (length < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "r");
+            }
+            return length;
+        }
+    }
+
+    // combinations(iterable, r)
+    @Builtin(name = "combinations", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "iterable", "r"}, constructsClass = PythonBuiltinClassType.PCombinations)
+    @GenerateNodeFactory
+    public abstract static class CombinationsNode extends CombinationsBaseNode {
+        @Specialization
+        Object combinations(VirtualFrame frame, Object cls, Object iterable, Object r,
+                        @Cached TupleNodes.ConstructTupleNode constructTupleNode,
+                        @Cached SequenceNodes.GetObjectArrayNode getArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object[] pool = getArrayNode.execute(constructTupleNode.execute(frame, iterable));
+            return factory().createCombinations(cls, pool, getLength(frame, r, lib), false);
+        }
+    }
+
+    // combinations_with_replacement(iterable, r)
+    @Builtin(name = "combinations_with_replacement", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "iterable", "r"}, constructsClass = PythonBuiltinClassType.PCombinationsWithReplacement)
+    @GenerateNodeFactory
+    public abstract static class CombinationsWithReplacementNode extends CombinationsBaseNode {
+        @Specialization
+        Object combinations(VirtualFrame frame, Object cls, Object iterable, Object r,
+                        @Cached TupleNodes.ConstructTupleNode constructTupleNode,
+                        @Cached SequenceNodes.GetObjectArrayNode getArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object[] pool = getArrayNode.execute(constructTupleNode.execute(frame, iterable));
+            return factory().createCombinations(cls, pool, getLength(frame, r, lib), true);
+        }
+    }
+
+    // zip_longest(*iterables, fillvalue=None)
+    @Builtin(name = "zip_longest", minNumOfPositionalArgs = 1, takesVarArgs = true, keywordOnlyNames = {"fillvalue"}, constructsClass = PythonBuiltinClassType.PZipLongest)
+    @GenerateNodeFactory
+    public abstract static class ZipLongestNode extends PythonBuiltinNode {
+        @Specialization
+        Object zipLongest(VirtualFrame frame, Object cls, Object[] iterables, Object fillValue,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object[] iterators = new Object[iterables.length];
+            for (int i = 0; i < iterables.length; i++) {
+                iterators[i] = lib.getIteratorWithFrame(iterables[i], frame);
+            }
+            return factory().createZipLongest(cls, iterators, PGuards.isPNone(fillValue) ? PNone.NONE : fillValue);
+        }
+    }
+
+    // _tee(iterable)
+    @Builtin(name = "_tee", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "iterable"}, constructsClass = PythonBuiltinClassType.PTee)
+    @GenerateNodeFactory
+    public abstract static class TeeNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object tee(VirtualFrame frame, @SuppressWarnings("unused") Object cls, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object iterator = lib.getIteratorWithFrame(iterable, frame);
+            if (iterator instanceof PTee) {
+                PTee tee = (PTee) iterator;
+                return factory().createTee(tee.getDataObject(), tee.getIndex());
+            }
+            return factory().createTee(new TeeDataObject(iterator), 0);
+        }
+    }
+
+    // tee(iterable, n=2)
+    @Builtin(name = "tee", minNumOfPositionalArgs = 1, parameterNames = {"iterable", "n"})
+    @GenerateNodeFactory
+    public abstract static class TeeFunctionNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object tee(VirtualFrame frame, Object iterable, Object n,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached CallNode callNode) {
+            int count = PGuards.isNoValue(n) ? 2 : lib.asSizeWithFrame(n, OverflowError, frame);
+            if (count < 0) {
+                throw raise(ValueError, ErrorMessages.N_MUST_BE_GE_0);
+            }
+            if (count == 0) {
+                return factory().createEmptyTuple();
+            }
+            Object iterator = lib.getIteratorWithFrame(iterable, frame);
+            Object[] result = new Object[count];
+            // iterators that can copy themselves (including tee iterators) are used directly
+            Object copyable = lib.lookupAttribute(iterator, frame, "__copy__") != PNone.NO_VALUE ? iterator : factory().createTee(new TeeDataObject(iterator), 0);
+            result[0] = copyable;
+            for (int i = 1; i < count; i++) {
+                copyable = callNode.execute(frame, lib.lookupAttribute(copyable, frame, "__copy__"));
+                result[i] = copyable;
+            }
+            return factory().createTuple(result);
+        }
     }
 }
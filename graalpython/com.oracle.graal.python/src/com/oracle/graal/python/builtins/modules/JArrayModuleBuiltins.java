@@ -62,6 +62,11 @@ import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltin
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.BasicSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.TruffleLanguage;
@@ -192,6 +197,12 @@ public class JArrayModuleBuiltins extends PythonBuiltins {
                         @Cached SequenceStorageNodes.GetItemScalarNode getItemScalarNode,
                         @Cached ZerosNode zerosNode) {
             SequenceStorage storage = getSequenceStorageNode.execute(sequence);
+            if (type instanceof String) {
+                Object copy = copyMatchingStorage(storage, (String) type);
+                if (copy != null) {
+                    return getContext().getEnv().asGuestValue(copy);
+                }
+            }
             int length = lenNode.execute(storage);
             Object array = zerosNode.execute(length, type);
             for (int i = 0; i < length; i++) {
@@ -218,5 +229,19 @@ public class JArrayModuleBuiltins extends PythonBuiltins {
             PList list = constructListNode.execute(sequence);
             return fromSequence(list, type, lib, getSequenceStorageNode, lenNode, getItemScalarNode, zerosNode);
         }
+
+        /**
+         * Storages that already hold the primitive type requested by the type code are copied in
+         * one go instead of element by element.
+         */
+        private static Object copyMatchingStorage(SequenceStorage storage, String typeCode) {
+            if (storage instanceof BoolSequenceStorage && ArrayFromTypeCode.Z.equals(typeCode) ||
+                            storage instanceof IntSequenceStorage && ArrayFromTypeCode.I.equals(typeCode) ||
+                            storage instanceof LongSequenceStorage && ArrayFromTypeCode.L.equals(typeCode) ||
+                            storage instanceof DoubleSequenceStorage && ArrayFromTypeCode.D.equals(typeCode)) {
+                return ((BasicSequenceStorage) storage).getCopyOfInternalArrayObject();
+            }
+            return null;
+        }
     }
 }
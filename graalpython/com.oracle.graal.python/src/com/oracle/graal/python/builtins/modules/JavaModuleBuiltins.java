@@ -51,10 +51,14 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
@@ -65,6 +69,14 @@ import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.interop.InteropByteArray;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.BasicSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.TruffleLanguage.Env;
@@ -291,6 +303,98 @@ public class JavaModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "as_java_array", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AsJavaArrayNode extends PythonUnaryBuiltinNode {
+        @Specialization(assumptions = "singleThreadedAssumption()")
+        Object doList(PList list) {
+            return shareStorage(list, list.getSequenceStorage());
+        }
+
+        @Specialization(replaces = "doList")
+        Object doListConcurrent(PList list) {
+            synchronized (list) {
+                // sharing shrinks the internal array to the length of the list, but the array of a
+                // storage that other threads read must never shrink, so the list continues on an
+                // exact copy instead
+                SequenceStorage storage = list.getSequenceStorage();
+                if (isPrimitiveStorage(storage) && ((BasicSequenceStorage) storage).capacity() != storage.length()) {
+                    storage = storage.copy();
+                    list.setSequenceStorage(storage);
+                }
+                return shareStorage(list, storage);
+            }
+        }
+
+        @Specialization
+        Object doByteArray(PByteArray byteArray) {
+            return shareStorage(byteArray, byteArray.getSequenceStorage());
+        }
+
+        @Specialization
+        Object doTuple(PTuple tuple) {
+            return copyStorage(tuple, tuple.getSequenceStorage());
+        }
+
+        @Specialization
+        Object doBytes(PBytes bytes) {
+            return copyStorage(bytes, bytes.getSequenceStorage());
+        }
+
+        @Fallback
+        Object doError(Object object) {
+            throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.OBJ_NOT_BACKED_BY_PRIMITIVE_ARRAY, object);
+        }
+
+        /**
+         * Mutable sequences hand out their backing array, so item assignments on either side are
+         * visible to the other until the sequence is resized or reordered (see
+         * {@link BasicSequenceStorage#shareInternalArrayObject()}).
+         */
+        private Object shareStorage(PSequence sequence, SequenceStorage storage) {
+            if (isPrimitiveStorage(storage)) {
+                return getContext().getEnv().asGuestValue(((BasicSequenceStorage) storage).shareInternalArrayObject());
+            }
+            return doError(sequence);
+        }
+
+        private Object copyStorage(PSequence sequence, SequenceStorage storage) {
+            if (isPrimitiveStorage(storage)) {
+                return getContext().getEnv().asGuestValue(((BasicSequenceStorage) storage).getCopyOfInternalArrayObject());
+            }
+            return doError(sequence);
+        }
+
+        private static boolean isPrimitiveStorage(SequenceStorage storage) {
+            return storage instanceof IntSequenceStorage || storage instanceof LongSequenceStorage || storage instanceof DoubleSequenceStorage ||
+                            storage instanceof BoolSequenceStorage || storage instanceof ByteSequenceStorage;
+        }
+    }
+
+    @Builtin(name = "from_java_array", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FromJavaArrayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object doArray(Object object) {
+            Env env = getContext().getEnv();
+            if (env.isHostObject(object)) {
+                Object array = env.asHostObject(object);
+                if (array instanceof int[]) {
+                    return factory().createList(new IntSequenceStorage((int[]) array));
+                } else if (array instanceof long[]) {
+                    return factory().createList(new LongSequenceStorage((long[]) array));
+                } else if (array instanceof double[]) {
+                    return factory().createList(new DoubleSequenceStorage((double[]) array));
+                } else if (array instanceof boolean[]) {
+                    return factory().createList(new BoolSequenceStorage((boolean[]) array));
+                } else if (array instanceof byte[]) {
+                    return factory().createByteArray(new ByteSequenceStorage((byte[]) array));
+                }
+            }
+            throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.NOT_A_JAVA_PRIMITIVE_ARRAY, object);
+        }
+    }
+
     /**
      * A simple wrapper object that bit-casts an integer in range {@code 0-255} to a Java
      * {@code byte}. This can be used to expose a bytes-like object to Java as {@code byte[]}.
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
+import com.oracle.truffle.api.instrumentation.Instrumenter;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.TruffleInstrument;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Counts calls of root nodes for {@code _lsprof.Profiler}. The {@code CPUSampler} used by the
+ * profiler only gives us statistical times, so this instrument adds exact call counts, recursive
+ * call counts and, if requested, per-caller call counts. It attaches to {@link StandardTags.RootTag}
+ * only while a profiler is enabled; otherwise it costs nothing.
+ *
+ * Each thread keeps its own shadow stack of active roots, so recursion and callers are attributed
+ * correctly even when several threads run the same function.
+ */
+@TruffleInstrument.Registration(id = LsprofCallCounter.ID, name = "Python Profiler Call Counter", internal = true, services = LsprofCallCounter.class)
+public final class LsprofCallCounter extends TruffleInstrument {
+    public static final String ID = "python-lsprof-callcounter";
+
+    private Instrumenter instrumenter;
+    private EventBinding<?> binding;
+    private boolean trackCallers;
+    private final ConcurrentHashMap<String, RootStats> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<ShadowStack> shadowStacks = ThreadLocal.withInitial(ShadowStack::new);
+
+    @Override
+    protected void onCreate(Env env) {
+        instrumenter = env.getInstrumenter();
+        env.registerService(this);
+    }
+
+    @Override
+    protected void onDispose(Env env) {
+        setCollecting(false, false, false);
+    }
+
+    /**
+     * Starts or stops counting. Counts are accumulated across several enabled periods until
+     * {@link #clearData()} is called.
+     */
+    public synchronized void setCollecting(boolean collect, boolean callers, boolean internal) {
+        if (binding != null) {
+            binding.dispose();
+            binding = null;
+        }
+        if (collect) {
+            trackCallers = callers;
+            SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(StandardTags.RootTag.class).includeInternal(internal).build();
+            binding = instrumenter.attachExecutionEventFactory(filter, new CounterFactory());
+        }
+    }
+
+    public void clearData() {
+        stats.clear();
+    }
+
+    public Collection<RootStats> getStats() {
+        return stats.values();
+    }
+
+    /**
+     * The name we use for a root in the profiler results, in the same format as the entries
+     * created from the sampler data, so that both can be matched.
+     */
+    static String getEntryName(SourceSection section, String rootName) {
+        String name;
+        if (section == null) {
+            name = rootName;
+        } else {
+            name = section.getSource().getName() + ":" + section.getStartLine() + "(" + rootName + ")";
+        }
+        return name != null ? name : "<unknown root>";
+    }
+
+    private final class CounterFactory implements ExecutionEventNodeFactory {
+        @Override
+        public ExecutionEventNode create(EventContext context) {
+            RootNode root = context.getInstrumentedNode().getRootNode();
+            String name = getEntryName(root.getSourceSection(), root.getName());
+            // split copies of a root share their statistics
+            return new CounterNode(stats.computeIfAbsent(name, RootStats::new), trackCallers);
+        }
+    }
+
+    private final class CounterNode extends ExecutionEventNode {
+        private final RootStats rootStats;
+        private final boolean callers;
+
+        CounterNode(RootStats rootStats, boolean callers) {
+            this.rootStats = rootStats;
+            this.callers = callers;
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            enter(rootStats, callers);
+        }
+
+        @Override
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            exit();
+        }
+
+        @Override
+        protected void onReturnExceptional(VirtualFrame frame, Throwable exception) {
+            exit();
+        }
+    }
+
+    @TruffleBoundary
+    private void enter(RootStats callee, boolean callers) {
+        ShadowStack stack = shadowStacks.get();
+        boolean recursive = stack.contains(callee);
+        callee.count(recursive);
+        if (callers && stack.depth > 0) {
+            stack.top().getCallee(callee).count(recursive);
+        }
+        stack.push(callee);
+    }
+
+    @TruffleBoundary
+    private void exit() {
+        shadowStacks.get().pop();
+    }
+
+    private static final class ShadowStack {
+        private RootStats[] entries = new RootStats[32];
+        private int depth;
+
+        RootStats top() {
+            return entries[depth - 1];
+        }
+
+        void push(RootStats entry) {
+            if (depth == entries.length) {
+                entries = Arrays.copyOf(entries, depth * 2);
+            }
+            entries[depth++] = entry;
+        }
+
+        void pop() {
+            // the profiler may have been enabled in the middle of a call
+            if (depth > 0) {
+                entries[--depth] = null;
+            }
+        }
+
+        boolean contains(RootStats entry) {
+            for (int i = depth - 1; i >= 0; i--) {
+                if (entries[i] == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static class CallStats {
+        private final String name;
+        private long calls;
+        private long recursiveCalls;
+
+        CallStats(String name) {
+            this.name = name;
+        }
+
+        synchronized void count(boolean recursive) {
+            calls++;
+            if (recursive) {
+                recursiveCalls++;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public synchronized long getCalls() {
+            return calls;
+        }
+
+        public synchronized long getRecursiveCalls() {
+            return recursiveCalls;
+        }
+    }
+
+    public static final class RootStats extends CallStats {
+        private final ConcurrentHashMap<RootStats, CallStats> callees = new ConcurrentHashMap<>();
+
+        RootStats(String name) {
+            super(name);
+        }
+
+        CallStats getCallee(RootStats callee) {
+            return callees.computeIfAbsent(callee, c -> new CallStats(c.getName()));
+        }
+
+        public List<CallStats> getCallees() {
+            return new ArrayList<>(callees.values());
+        }
+    }
+}
@@ -42,9 +42,11 @@ package com.oracle.graal.python.builtins.modules;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
@@ -68,7 +70,6 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
 import com.oracle.truffle.api.object.Shape;
-import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.tools.profiler.CPUSampler;
 import com.oracle.truffle.tools.profiler.CPUSampler.Payload;
 import com.oracle.truffle.tools.profiler.ProfilerNode;
@@ -136,7 +137,13 @@ public class LsprofModuleBuiltins extends PythonBuiltins {
             if (instrumentInfo != null) {
                 CPUSampler sampler = env.lookup(instrumentInfo, CPUSampler.class);
                 if (sampler != null) {
-                    return factory().trace(new Profiler(cls, factory().getShape(cls), sampler));
+                    // without the call counter, we fall back to deriving call counts from samples
+                    LsprofCallCounter callCounter = null;
+                    InstrumentInfo counterInfo = instruments.get(LsprofCallCounter.ID);
+                    if (counterInfo != null) {
+                        callCounter = env.lookup(counterInfo, LsprofCallCounter.class);
+                    }
+                    return factory().trace(new Profiler(cls, factory().getShape(cls), sampler, callCounter));
                 }
             }
             throw raise(PythonBuiltinClassType.NotImplementedError, "coverage tracker not available");
@@ -151,10 +158,12 @@ class Profiler extends PythonBuiltinObject {
     Object externalTimer;
     double time;
     final CPUSampler sampler;
+    final LsprofCallCounter callCounter;
 
-    public Profiler(Object cls, Shape instanceShape, CPUSampler sampler) {
+    public Profiler(Object cls, Shape instanceShape, CPUSampler sampler, LsprofCallCounter callCounter) {
         super(cls, instanceShape);
         this.sampler = sampler;
+        this.callCounter = callCounter;
         this.sampler.setFilter(SourceSectionFilter.newBuilder().includeInternal(true).build());
         this.sampler.setMode(CPUSampler.Mode.ROOTS);
         this.sampler.setPeriod(1);
@@ -202,6 +211,9 @@ class ProfilerBuiltins extends PythonBuiltins {
             // TODO: deal with any arguments
             self.time = System.currentTimeMillis();
             self.sampler.setCollecting(true);
+            if (self.callCounter != null) {
+                self.callCounter.setCollecting(true, self.subcalls, self.builtins);
+            }
             return PNone.NONE;
         }
 
@@ -228,6 +240,9 @@ class ProfilerBuiltins extends PythonBuiltins {
         @TruffleBoundary
         PNone doit(Profiler self) {
             self.sampler.setCollecting(false);
+            if (self.callCounter != null) {
+                self.callCounter.setCollecting(false, false, false);
+            }
             self.time = (System.currentTimeMillis() - self.time) / 1000D;
             return PNone.NONE;
         }
@@ -240,6 +255,9 @@ class ProfilerBuiltins extends PythonBuiltins {
         @TruffleBoundary
         PNone doit(Profiler self) {
             self.sampler.clearData();
+            if (self.callCounter != null) {
+                self.callCounter.clearData();
+            }
             return PNone.NONE;
         }
     }
@@ -268,55 +286,145 @@ class ProfilerBuiltins extends PythonBuiltins {
                     "    inlinetime    inline time (not in further subcalls)\n")
     @GenerateNodeFactory
     abstract static class GetStats extends PythonBuiltinNode {
+
+        /** Statistics of one profiler entry or subentry, merged from the sampler and counter. */
+        private static final class Entry {
+            final String name;
+            long hitCount;
+            long callCount;
+            long recursiveCallCount;
+            double totalTime;
+            double inlineTime;
+            Map<String, Entry> callees;
+
+            Entry(String name) {
+                this.name = name;
+            }
+
+            Entry getCallee(String calleeName) {
+                if (callees == null) {
+                    callees = new LinkedHashMap<>();
+                }
+                return callees.computeIfAbsent(calleeName, Entry::new);
+            }
+        }
+
         @Specialization
         @TruffleBoundary
         PList doit(Profiler self) {
             double avgSampleSeconds = self.sampler.getPeriod() / 1000D;
-            List<PTuple> entries = new ArrayList<>();
+            Map<String, Entry> entries = new LinkedHashMap<>();
             for (ProfilerNode<Payload> node : self.sampler.getRootNodes()) {
-                countNode(entries, node, avgSampleSeconds);
+                collectTimes(entries, node, null, new HashSet<>(), avgSampleSeconds);
+            }
+            if (self.callCounter != null) {
+                for (LsprofCallCounter.RootStats stats : self.callCounter.getStats()) {
+                    Entry entry = entries.computeIfAbsent(stats.getName(), Entry::new);
+                    entry.callCount = stats.getCalls();
+                    entry.recursiveCallCount = stats.getRecursiveCalls();
+                    for (LsprofCallCounter.CallStats calleeStats : stats.getCallees()) {
+                        Entry callee = entry.getCallee(calleeStats.getName());
+                        callee.callCount = calleeStats.getCalls();
+                        callee.recursiveCallCount = calleeStats.getRecursiveCalls();
+                    }
+                }
+            }
+            boolean countedCalls = self.callCounter != null;
+            List<PTuple> result = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                Object[] calls;
+                if (entry.callees == null) {
+                    calls = new Object[0];
+                } else {
+                    calls = new Object[entry.callees.size()];
+                    int callIdx = 0;
+                    for (Entry callee : entry.callees.values()) {
+                        calls[callIdx++] = factory().createStructSeq(LsprofModuleBuiltins.PROFILER_SUBENTRY_DESC, getProfilerEntry(callee, countedCalls));
+                    }
+                }
+                Object[] profilerEntry = Arrays.copyOf(getProfilerEntry(entry, countedCalls), 6);
+                profilerEntry[5] = factory().createList(calls);
+                result.add(factory().createStructSeq(LsprofModuleBuiltins.PROFILER_ENTRY_DESC, profilerEntry));
+            }
+            return factory().createList(result.toArray());
+        }
+
+        /**
+         * Adds the sampled times of {@code node} and its children to the entries. Samples are
+         * only added to the total time of the outermost activation of a root on each stack, so
+         * that recursive calls are not counted several times.
+         */
+        private static void collectTimes(Map<String, Entry> entries, ProfilerNode<Payload> node, String callerName, Set<String> activeNames, double avgSampleTime) {
+            String name = LsprofCallCounter.getEntryName(node.getSourceSection(), node.getRootName());
+            int selfHitCount = node.getPayload().getSelfHitCount();
+            int hitCount = node.getPayload().getHitCount() + selfHitCount;
+            boolean outermost = !activeNames.contains(name);
+            Entry entry = entries.computeIfAbsent(name, Entry::new);
+            entry.hitCount += hitCount;
+            entry.inlineTime += selfHitCount * avgSampleTime;
+            if (outermost) {
+                entry.totalTime += hitCount * avgSampleTime;
+            }
+            if (callerName != null) {
+                Entry callee = entries.get(callerName).getCallee(name);
+                callee.hitCount += hitCount;
+                callee.inlineTime += selfHitCount * avgSampleTime;
+                if (outermost) {
+                    callee.totalTime += hitCount * avgSampleTime;
+                }
+            }
+            if (outermost) {
+                activeNames.add(name);
+            }
+            for (ProfilerNode<Payload> child : node.getChildren()) {
+                collectTimes(entries, child, name, activeNames, avgSampleTime);
             }
-            self.sampler.close();
-            return factory().createList(entries.toArray());
+            if (outermost) {
+                activeNames.remove(name);
+            }
+        }
+
+        private static Object[] getProfilerEntry(Entry entry, boolean countedCalls) {
+            return new Object[]{
+                            entry.name,
+                            countedCalls ? entry.callCount : entry.hitCount,
+                            countedCalls ? entry.recursiveCallCount : 0,
+                            entry.totalTime,
+                            entry.inlineTime
+            };
         }
+    }
 
-        private void countNode(List<PTuple> entries, ProfilerNode<Payload> node, double avgSampleTime) {
-            Collection<ProfilerNode<Payload>> children = node.getChildren();
-            Object[] profilerEntry = getProfilerEntry(node, avgSampleTime);
-            Object[] calls = new Object[children.size()];
-            int callIdx = 0;
-            for (ProfilerNode<Payload> childNode : children) {
-                countNode(entries, childNode, avgSampleTime);
-                calls[callIdx++] = factory().createStructSeq(LsprofModuleBuiltins.PROFILER_SUBENTRY_DESC, getProfilerEntry(childNode, avgSampleTime));
+    @Builtin(name = "getcollapsedstacks", minNumOfPositionalArgs = 1, doc = "" +
+                    "getcollapsedstacks() -> str\n" +
+                    "\n" +
+                    "Return the sampled stacks in the collapsed format used by flame graph\n" +
+                    "tools. Each line contains the frames of one stack from the outermost to\n" +
+                    "the innermost, separated by semicolons, followed by a space and the\n" +
+                    "number of samples taken in that stack.\n")
+    @GenerateNodeFactory
+    abstract static class GetCollapsedStacks extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static String doit(Profiler self) {
+            StringBuilder sb = new StringBuilder();
+            for (ProfilerNode<Payload> node : self.sampler.getRootNodes()) {
+                appendStacks(sb, node, null);
             }
-            assert callIdx == calls.length;
-            profilerEntry = Arrays.copyOf(profilerEntry, 6);
-            profilerEntry[profilerEntry.length - 1] = factory().createList(calls);
-            entries.add(factory().createStructSeq(LsprofModuleBuiltins.PROFILER_ENTRY_DESC, profilerEntry));
+            return sb.toString();
         }
 
-        private static Object[] getProfilerEntry(ProfilerNode<Payload> node, double avgSampleTime) {
-            SourceSection sec = node.getSourceSection();
-            String rootName;
-            if (sec == null) {
-                rootName = node.getRootName();
-            } else {
-                rootName = sec.getSource().getName() + ":" + sec.getStartLine() + "(" + node.getRootName() + ")";
+        private static void appendStacks(StringBuilder sb, ProfilerNode<Payload> node, String callerStack) {
+            // the separators of the format must not appear in frame names
+            String frame = LsprofCallCounter.getEntryName(node.getSourceSection(), node.getRootName()).replace(';', ':').replace(' ', '_');
+            String stack = callerStack == null ? frame : callerStack + ";" + frame;
+            int selfHitCount = node.getPayload().getSelfHitCount();
+            if (selfHitCount > 0) {
+                sb.append(stack).append(' ').append(selfHitCount).append('\n');
             }
-            if (rootName == null) {
-                rootName = "<unknown root>";
+            for (ProfilerNode<Payload> child : node.getChildren()) {
+                appendStacks(sb, child, stack);
             }
-            int otherHitCount = node.getPayload().getHitCount();
-            int selfHitCount = node.getPayload().getSelfHitCount();
-            long hitCount = (long) otherHitCount + selfHitCount;
-            Object[] profilerEntry = new Object[]{
-                            rootName,
-                            hitCount,
-                            0,
-                            otherHitCount * avgSampleTime,
-                            selfHitCount * avgSampleTime
-            };
-            return profilerEntry;
         }
     }
 }
@@ -44,6 +44,7 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.HashSet;
@@ -101,11 +102,7 @@ public class MMapModuleBuiltins extends PythonBuiltins {
         PMMap doAnonymous(Object clazz, @SuppressWarnings("unused") long fd, long length, @SuppressWarnings("unused") Object tagname, @SuppressWarnings("unused") PNone access,
                         @SuppressWarnings("unused") PNone offset) {
             checkLength(length);
-            if (length > Integer.MAX_VALUE) {
-                invalidLengthProfile.enter();
-                throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "int");
-            }
-            return factory().createMMap(clazz, new AnonymousMap((int) length), length, 0);
+            return factory().createMMap(clazz, PMMap.allocateSegments(length), length);
         }
 
         @Specialization(guards = {"fd >= 0", "isNoValue(access)", "isNoValue(offset)"})
@@ -120,7 +117,7 @@ public class MMapModuleBuiltins extends PythonBuiltins {
 
         // mmap(fileno, length, tagname=None, access=ACCESS_DEFAULT[, offset])
         @Specialization(guards = "fd >= 0")
-        PMMap doFile(Object clazz, long fd, long length, @SuppressWarnings("unused") Object tagname, @SuppressWarnings("unused") int access, long offset) {
+        PMMap doFile(Object clazz, long fd, long length, @SuppressWarnings("unused") Object tagname, int access, long offset) {
             checkLength(length);
             int ifd;
             try {
@@ -132,32 +129,79 @@ public class MMapModuleBuiltins extends PythonBuiltins {
             String path = getContext().getResources().getFilePath(ifd);
             TruffleFile truffleFile = getContext().getEnv().getPublicTruffleFile(path);
 
-            // TODO(fa) correctly honor access flags
-            Set<StandardOpenOption> options = set(StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Set<StandardOpenOption> options;
+            MapMode mode;
+            switch (access) {
+                case ACCESS_READ:
+                    options = set(StandardOpenOption.READ);
+                    mode = MapMode.READ_ONLY;
+                    break;
+                case ACCESS_COPY:
+                    options = set(StandardOpenOption.READ);
+                    mode = MapMode.PRIVATE;
+                    break;
+                case ACCESS_DEFAULT:
+                case ACCESS_WRITE:
+                    options = set(StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    mode = MapMode.READ_WRITE;
+                    break;
+                default:
+                    invalidLengthProfile.enter();
+                    throw raise(ValueError, ErrorMessages.MMAP_INVALID_ACCESS_PARAMETER);
+            }
 
             // we create a new channel otherwise we cannot guarantee that the cursor is exclusive
             SeekableByteChannel fileChannel;
             try {
                 fileChannel = truffleFile.newByteChannel(options);
-                position(fileChannel, offset);
+            } catch (IOException e) {
+                throw raise(ValueError, ErrorMessages.CANNOT_MMAP_FILE);
+            }
 
-                long actualLen;
-                if (length == 0) {
-                    try {
-                        actualLen = PMMap.size(fileChannel) - offset;
-                    } catch (IOException e) {
-                        throw raiseOSError(null, OSErrorEnum.EIO, e);
-                    }
-                } else {
-                    actualLen = length;
+            long fileSize;
+            try {
+                fileSize = PMMap.size(fileChannel);
+            } catch (IOException e) {
+                close(fileChannel);
+                throw raiseOSError(null, OSErrorEnum.EIO, e);
+            }
+
+            long actualLen;
+            if (length == 0) {
+                if (offset >= fileSize) {
+                    invalidLengthProfile.enter();
+                    close(fileChannel);
+                    throw raise(ValueError, ErrorMessages.MMAP_OFFSET_GREATER_THAN_FILE_SIZE);
+                }
+                actualLen = fileSize - offset;
+            } else {
+                if (offset > fileSize || fileSize - offset < length) {
+                    invalidLengthProfile.enter();
+                    close(fileChannel);
+                    throw raise(ValueError, ErrorMessages.MMAP_LENGTH_GREATER_THAN_FILE_SIZE);
                 }
+                actualLen = length;
+            }
 
-                return factory().createMMap(clazz, fileChannel, actualLen, offset);
+            try {
+                ByteBuffer[] segments = PMMap.mapSegments(fileChannel, mode, actualLen, offset);
+                boolean writeBack = mode == MapMode.READ_WRITE && !PMMap.isMappable(fileChannel);
+                return factory().createMMap(clazz, fileChannel, segments, actualLen, offset, mode == MapMode.READ_ONLY, writeBack);
             } catch (IOException e) {
+                close(fileChannel);
                 throw raise(ValueError, ErrorMessages.CANNOT_MMAP_FILE);
             }
         }
 
+        @TruffleBoundary
+        private static void close(SeekableByteChannel ch) {
+            try {
+                ch.close();
+            } catch (IOException e) {
+                // ignore; we are already failing
+            }
+        }
+
         @TruffleBoundary
         private static Set<StandardOpenOption> set(StandardOpenOption... options) {
             Set<StandardOpenOption> s = new HashSet<>();
@@ -187,72 +231,5 @@ public class MMapModuleBuiltins extends PythonBuiltins {
                 throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.MEM_MAPPED_LENGTH_MUST_BE_POSITIVE);
             }
         }
-
-        @TruffleBoundary
-        private static void position(SeekableByteChannel ch, long offset) throws IOException {
-            ch.position(offset);
-        }
-    }
-
-    private static class AnonymousMap implements SeekableByteChannel {
-        private final byte[] data;
-
-        private boolean open = true;
-        private int cur;
-
-        public AnonymousMap(int cap) {
-            this.data = new byte[cap];
-        }
-
-        @Override
-        public boolean isOpen() {
-            return open;
-        }
-
-        @Override
-        public void close() throws IOException {
-            open = false;
-        }
-
-        @Override
-        public int read(ByteBuffer dst) throws IOException {
-            int nread = Math.min(dst.remaining(), data.length - cur);
-            dst.put(data, cur, nread);
-            return nread;
-        }
-
-        @Override
-        public int write(ByteBuffer src) throws IOException {
-            int nwrite = Math.min(src.remaining(), data.length - cur);
-            src.get(data, cur, nwrite);
-            return nwrite;
-        }
-
-        @Override
-        public long position() throws IOException {
-            return cur;
-        }
-
-        @Override
-        public SeekableByteChannel position(long newPosition) throws IOException {
-            if (newPosition < 0) {
-                throw new IllegalArgumentException();
-            }
-            cur = (int) newPosition;
-            return this;
-        }
-
-        @Override
-        public long size() throws IOException {
-            return data.length;
-        }
-
-        @Override
-        public SeekableByteChannel truncate(long size) throws IOException {
-            for (int i = 0; i < size; i++) {
-                data[i] = 0;
-            }
-            return this;
-        }
     }
 }
@@ -143,13 +143,13 @@ public class PosixModuleBuiltins extends PythonBuiltins {
     private static final int DSYNC = 4096;
     private static final int NDELAY = 2048;
     private static final int NONBLOCK = 2048;
-    private static final int APPEND = 1024;
-    private static final int TRUNC = 512;
-    private static final int EXCL = 128;
-    private static final int CREAT = 64;
-    private static final int RDWR = 2;
-    private static final int WRONLY = 1;
-    private static final int RDONLY = 0;
+    public static final int APPEND = 1024;
+    public static final int TRUNC = 512;
+    public static final int EXCL = 128;
+    public static final int CREAT = 64;
+    public static final int RDWR = 2;
+    public static final int WRONLY = 1;
+    public static final int RDONLY = 0;
 
     // TODO map Python's SEEK_SET, SEEK_CUR, SEEK_END values to the underlying OS values if they are
     // different
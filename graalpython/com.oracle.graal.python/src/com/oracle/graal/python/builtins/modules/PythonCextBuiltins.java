@@ -1705,7 +1705,23 @@ public class PythonCextBuiltins extends PythonBuiltins {
             this.checkFunctionResultNodeSupplier = checkFunctionResultNodeSupplier;
         }
 
-        protected abstract RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion);
+        protected final RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            return getOrCreateCallTarget(language, name, doArgAndResultConversion, this);
+        }
+
+        /**
+         * Creates the call target for a C function. Root nodes that invoke the function get
+         * {@code provider} to create their argument and result conversion nodes.
+         */
+        protected abstract RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider);
+
+        /**
+         * Whether the function was declared with {@code METH_TRUFFLE_THREADSAFE} and may thus be
+         * called without acquiring the interop lock.
+         */
+        public boolean isThreadSafe() {
+            return false;
+        }
 
         @TruffleBoundary
         protected ConvertArgsToSulongNode createConvertArgsToSulongNode() {
@@ -1718,6 +1734,40 @@ public class PythonCextBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Wraps the converter of a C function declared with {@code METH_TRUFFLE_THREADSAFE} such that
+     * the function is called without acquiring the interop lock. Without argument and result
+     * conversion, the call target calls a managed function instead and never takes the lock.
+     */
+    static final class ThreadSafeFunctionWrapper extends PExternalFunctionWrapper {
+        private final PExternalFunctionWrapper delegate;
+
+        ThreadSafeFunctionWrapper(PExternalFunctionWrapper delegate) {
+            super(delegate::createConvertArgsToSulongNode, delegate::getCheckFunctionResultNode);
+            this.delegate = delegate;
+        }
+
+        @Override
+        @TruffleBoundary
+        protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
+            return delegate.getOrCreateCallTarget(language, name, doArgAndResultConversion, provider);
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+    }
+
+    @Builtin(name = "METH_THREADSAFE", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class MethThreadSafeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PExternalFunctionWrapper call(PExternalFunctionWrapper wrapper) {
+            return new ThreadSafeFunctionWrapper(wrapper);
+        }
+    }
+
     @Builtin(name = "METH_DIRECT")
     @GenerateNodeFactory
     public abstract static class MethDirectNode extends PythonBuiltinNode {
@@ -1725,13 +1775,13 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     // this should directly (== without argument conversion) call a managed
                     // function; so directly use the function. null indicates this
                     return null;
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(MethDirectRoot.create(language, name));
+                    return PythonUtils.getOrCreateCallTarget(MethDirectRoot.create(language, name, provider));
                 }
             }
         };
@@ -1749,11 +1799,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethKeywordsRoot(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethKeywordsRoot(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethKeywordsRoot(language, name, provider));
                 }
             }
         };
@@ -1771,11 +1821,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethVarargsRoot(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethVarargsRoot(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethVarargsRoot(language, name, provider));
                 }
             }
         };
@@ -1793,11 +1843,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethNoargsRoot(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethNoargsRoot(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethNoargsRoot(language, name, provider));
                 }
             }
         };
@@ -1815,11 +1865,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethORoot(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethORoot(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethORoot(language, name, provider));
                 }
             }
         };
@@ -1837,11 +1887,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethFastcallRoot(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethFastcallRoot(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethFastcallRoot(language, name, provider));
                 }
             }
         };
@@ -1859,11 +1909,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethFastcallWithKeywordsRoot(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethFastcallWithKeywordsRoot(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethFastcallWithKeywordsRoot(language, name, provider));
                 }
             }
         };
@@ -1881,11 +1931,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new AllocFuncRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new AllocFuncRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new AllocFuncRootNode(language, name, provider));
                 }
             }
         };
@@ -1903,11 +1953,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new GetAttrFuncRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new GetAttrFuncRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new GetAttrFuncRootNode(language, name, provider));
                 }
             }
         };
@@ -1925,11 +1975,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new SetAttrFuncRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new SetAttrFuncRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new SetAttrFuncRootNode(language, name, provider));
                 }
             }
         };
@@ -1947,11 +1997,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new RichCmpFuncRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new RichCmpFuncRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new RichCmpFuncRootNode(language, name, provider));
                 }
             }
         };
@@ -1969,11 +2019,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new SSizeObjArgProcRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new SSizeObjArgProcRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new SSizeObjArgProcRootNode(language, name, provider));
                 }
             }
         };
@@ -1991,11 +2041,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethReverseRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethReverseRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethReverseRootNode(language, name, provider));
                 }
             }
         };
@@ -2013,11 +2063,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethPowRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethPowRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethPowRootNode(language, name, provider));
                 }
             }
         };
@@ -2035,11 +2085,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new MethRPowRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new MethRPowRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new MethRPowRootNode(language, name, provider));
                 }
             }
         };
@@ -2065,11 +2115,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
             return new PExternalFunctionWrapper(TernaryFirstSecondToSulongNode::create) {
                 @Override
                 @TruffleBoundary
-                protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+                protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                     if (!doArgAndResultConversion) {
                         return PythonUtils.getOrCreateCallTarget(new MethRichcmpOpRootNode(language, name, op));
                     } else {
-                        return PythonUtils.getOrCreateCallTarget(new MethRichcmpOpRootNode(language, name, this, op));
+                        return PythonUtils.getOrCreateCallTarget(new MethRichcmpOpRootNode(language, name, provider, op));
                     }
                 }
             };
@@ -2157,11 +2207,11 @@ public class PythonCextBuiltins extends PythonBuiltins {
 
             @Override
             @TruffleBoundary
-            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion) {
+            protected RootCallTarget getOrCreateCallTarget(PythonLanguage language, String name, boolean doArgAndResultConversion, PExternalFunctionWrapper provider) {
                 if (!doArgAndResultConversion) {
                     return PythonUtils.getOrCreateCallTarget(new IterNextFuncRootNode(language, name));
                 } else {
-                    return PythonUtils.getOrCreateCallTarget(new IterNextFuncRootNode(language, name, this));
+                    return PythonUtils.getOrCreateCallTarget(new IterNextFuncRootNode(language, name, provider));
                 }
             }
         };
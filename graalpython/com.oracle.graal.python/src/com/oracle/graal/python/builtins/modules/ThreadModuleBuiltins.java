@@ -65,7 +65,6 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
-import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -165,11 +164,10 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
                         @Cached ExecutePositionalStarargsNode getArgsNode,
                         @Cached ExpandKeywordStarargsNode getKwArgsNode) {
             PythonContext context = getContext();
-            TruffleLanguage.Env env = context.getEnv();
 
             // TODO: python thread stack size != java thread stack size
             // ignore setting the stack size for the moment
-            Thread thread = env.createThread(() -> {
+            Thread thread = context.getThreads().createThread(context, () -> {
                 Object[] arguments = getArgsNode.executeWith(frame, args);
                 PKeyword[] keywords = getKwArgsNode.execute(kwargs);
 
@@ -178,7 +176,7 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
                 // which is incorrect. However, the thread-local 'topframeref' is initialized with
                 // EMPTY which will be picked up.
                 callNode.execute(null, callable, arguments, keywords);
-            }, env.getContext(), context.getThreadGroup());
+            });
 
             PThread pThread = factory().createPythonThread(cls, thread);
             pThread.start();
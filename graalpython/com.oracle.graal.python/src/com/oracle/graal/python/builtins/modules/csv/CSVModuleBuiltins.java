@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.NOT_SET;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_ALL;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_MINIMAL;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_NONE;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_NONNUMERIC;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.ConstructListNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.object.HiddenKey;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(defineModule = "_csv")
+public class CSVModuleBuiltins extends PythonBuiltins {
+    private static final HiddenKey STATE = new HiddenKey("__csv_state__");
+
+    /**
+     * The per-context module state: the dialect registry (also exposed as {@code _dialects}) and
+     * the limit set by {@code field_size_limit}.
+     */
+    static final class CSVModuleState {
+        final PDict dialects;
+        long fieldLimit = 128 * 1024;
+
+        CSVModuleState(PDict dialects) {
+            this.dialects = dialects;
+        }
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return CSVModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(PythonCore core) {
+        builtinConstants.put(SpecialAttributeNames.__DOC__, "CSV parsing and writing.\n\n" +
+                        "This module provides classes that assist in the reading and writing\n" +
+                        "of Comma Separated Value (CSV) files, and implements the interface\n" +
+                        "described by PEP 305.  Although many CSV files are simple to parse,\n" +
+                        "the format is not formally defined by a stable specification and\n" +
+                        "is subtle enough that parsing lines of a CSV file with something\n" +
+                        "like line.split(\",\") is bound to fail.  The module supports three\n" +
+                        "basic APIs: reading, writing, and registration of dialects.\n");
+        builtinConstants.put("__version__", "1.0");
+        builtinConstants.put("QUOTE_MINIMAL", QUOTE_MINIMAL);
+        builtinConstants.put("QUOTE_ALL", QUOTE_ALL);
+        builtinConstants.put("QUOTE_NONNUMERIC", QUOTE_NONNUMERIC);
+        builtinConstants.put("QUOTE_NONE", QUOTE_NONE);
+        super.initialize(core);
+    }
+
+    @Override
+    public void postInitialize(PythonCore core) {
+        super.postInitialize(core);
+        PythonModule module = core.lookupBuiltinModule("_csv");
+        PDict dialects = core.factory().createDict();
+        module.setAttribute("_dialects", dialects);
+        module.setAttribute(STATE, new CSVModuleState(dialects));
+    }
+
+    static CSVModuleState getState(PythonModule module, ReadAttributeFromObjectNode readNode) {
+        return (CSVModuleState) readNode.execute(module, STATE);
+    }
+
+    static boolean isExactInt(Object value, IsBuiltinClassProfile isIntProfile) {
+        return value instanceof Integer || value instanceof Long || value instanceof PInt && isIntProfile.profileObject(value, PythonBuiltinClassType.PInt);
+    }
+
+    static long exactIntToLong(PythonBuiltinBaseNode node, Object value) {
+        if (value instanceof Integer) {
+            return (int) value;
+        } else if (value instanceof Long) {
+            return (long) value;
+        }
+        try {
+            return ((PInt) value).longValueExact();
+        } catch (OverflowException e) {
+            throw node.raise(OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "C long");
+        }
+    }
+
+    static Object lookupDialect(VirtualFrame frame, PythonBuiltinBaseNode node, CSVModuleState state, Object name, HashingStorageLibrary hlib, ConditionProfile hasFrame) {
+        Object dialect = hlib.getItemWithFrame(state.dialects.getDictStorage(), name, hasFrame, frame);
+        if (dialect == null) {
+            throw node.raise(CSVError, ErrorMessages.UNKNOWN_DIALECT);
+        }
+        return dialect;
+    }
+
+    /**
+     * Like CPython's {@code _call_dialect}, but a dialect instance that needs no changes is used
+     * directly instead of going through the {@code Dialect} constructor.
+     */
+    static CSVDialect callDialect(VirtualFrame frame, PythonBuiltinBaseNode node, CallNode callNode, Object dialect, PKeyword[] kwargs) {
+        if (dialect instanceof CSVDialect && kwargs.length == 0) {
+            return (CSVDialect) dialect;
+        }
+        Object[] args = dialect == PNone.NO_VALUE ? PythonUtils.EMPTY_OBJECT_ARRAY : new Object[]{dialect};
+        return (CSVDialect) callNode.execute(frame, node.getCore().lookupType(PythonBuiltinClassType.CSVDialect), args, kwargs);
+    }
+
+    @Builtin(name = "Dialect", constructsClass = PythonBuiltinClassType.CSVDialect, minNumOfPositionalArgs = 1, parameterNames = {"$cls", "dialect", "delimiter", "doublequote", "escapechar",
+                    "lineterminator", "quotechar", "quoting", "skipinitialspace", "strict"})
+    @GenerateNodeFactory
+    abstract static class DialectNode extends PythonBuiltinNode {
+        @Specialization
+        Object dialect(VirtualFrame frame, Object cls, Object dialectArg, Object delimiterArg, Object doubleQuoteArg, Object escapeCharArg, Object lineTerminatorArg, Object quoteCharArg,
+                        Object quotingArg, Object skipInitialSpaceArg, Object strictArg,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") HashingStorageLibrary hlib,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached IsBuiltinClassProfile isIntProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame) {
+            Object dialect = dialectArg;
+            if (dialect != PNone.NO_VALUE) {
+                if (PGuards.isString(dialect)) {
+                    CSVModuleState state = getState(getCore().lookupBuiltinModule("_csv"), readStateNode);
+                    dialect = lookupDialect(frame, this, state, dialect, hlib, hasFrame);
+                }
+                if (dialect instanceof CSVDialect && delimiterArg == PNone.NO_VALUE && doubleQuoteArg == PNone.NO_VALUE && escapeCharArg == PNone.NO_VALUE &&
+                                lineTerminatorArg == PNone.NO_VALUE && quoteCharArg == PNone.NO_VALUE && quotingArg == PNone.NO_VALUE && skipInitialSpaceArg == PNone.NO_VALUE &&
+                                strictArg == PNone.NO_VALUE) {
+                    return dialect;
+                }
+            }
+            Object delimiterObj = getAttr(frame, lib, dialect, "delimiter", delimiterArg);
+            Object doubleQuoteObj = getAttr(frame, lib, dialect, "doublequote", doubleQuoteArg);
+            Object escapeCharObj = getAttr(frame, lib, dialect, "escapechar", escapeCharArg);
+            Object lineTerminatorObj = getAttr(frame, lib, dialect, "lineterminator", lineTerminatorArg);
+            Object quoteCharObj = getAttr(frame, lib, dialect, "quotechar", quoteCharArg);
+            Object quotingObj = getAttr(frame, lib, dialect, "quoting", quotingArg);
+            Object skipInitialSpaceObj = getAttr(frame, lib, dialect, "skipinitialspace", skipInitialSpaceArg);
+            Object strictObj = getAttr(frame, lib, dialect, "strict", strictArg);
+
+            int delimiter = getChar("delimiter", delimiterObj, ',', castToJavaStringNode);
+            boolean doubleQuote = getBool(frame, lib, doubleQuoteObj, true);
+            int escapeChar = getChar("escapechar", escapeCharObj, NOT_SET, castToJavaStringNode);
+            String lineTerminator = getString("lineterminator", lineTerminatorObj, "\r\n", castToJavaStringNode);
+            int quoteChar = getChar("quotechar", quoteCharObj, '"', castToJavaStringNode);
+            int quoting = getInt("quoting", quotingObj, QUOTE_MINIMAL, isIntProfile);
+            boolean skipInitialSpace = getBool(frame, lib, skipInitialSpaceObj, false);
+            boolean strict = getBool(frame, lib, strictObj, false);
+
+            if (quoting < QUOTE_MINIMAL || quoting > QUOTE_NONE) {
+                throw raise(TypeError, ErrorMessages.BAD_QUOTING_VALUE);
+            }
+            if (delimiter == NOT_SET) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_1_CHARACTER_STRING, "delimiter");
+            }
+            if (quoteCharObj == PNone.NONE && quotingObj == PNone.NO_VALUE) {
+                quoting = QUOTE_NONE;
+            }
+            if (quoting != QUOTE_NONE && quoteChar == NOT_SET) {
+                throw raise(TypeError, ErrorMessages.QUOTECHAR_MUST_BE_SET_IF_QUOTING_ENABLED);
+            }
+            if (lineTerminator == null) {
+                throw raise(TypeError, ErrorMessages.LINETERMINATOR_MUST_BE_SET);
+            }
+            return factory().createCSVDialect(cls, delimiter, doubleQuote, escapeChar, lineTerminator, quoteChar, quoting, skipInitialSpace, strict);
+        }
+
+        /**
+         * Options that are not passed explicitly are taken from the dialect object, if it has them.
+         */
+        private static Object getAttr(VirtualFrame frame, PythonObjectLibrary lib, Object dialect, String name, Object arg) {
+            if (arg == PNone.NO_VALUE && dialect != PNone.NO_VALUE) {
+                return lib.lookupAttribute(dialect, frame, name);
+            }
+            return arg;
+        }
+
+        private static boolean getBool(VirtualFrame frame, PythonObjectLibrary lib, Object value, boolean defaultValue) {
+            return value == PNone.NO_VALUE ? defaultValue : lib.isTrue(value, frame);
+        }
+
+        private int getChar(String name, Object value, int defaultValue, CastToJavaStringNode castToJavaStringNode) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            if (value == PNone.NONE) {
+                return NOT_SET;
+            }
+            String str;
+            try {
+                str = castToJavaStringNode.execute(value);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_STRING_NOT_P, name, value);
+            }
+            if (str.isEmpty()) {
+                return NOT_SET;
+            }
+            int c = str.codePointAt(0);
+            if (Character.charCount(c) != str.length()) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_1_CHARACTER_STRING, name);
+            }
+            return c;
+        }
+
+        private String getString(String name, Object value, String defaultValue, CastToJavaStringNode castToJavaStringNode) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            if (value == PNone.NONE) {
+                return null;
+            }
+            try {
+                return castToJavaStringNode.execute(value);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_STRING, name);
+            }
+        }
+
+        private int getInt(String name, Object value, int defaultValue, IsBuiltinClassProfile isIntProfile) {
+            if (value == PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            if (!isExactInt(value, isIntProfile)) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_AN_INTEGER, name);
+            }
+            long l = exactIntToLong(this, value);
+            if (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) {
+                throw raise(ValueError, ErrorMessages.INTEGER_OUT_OF_RANGE_FOR_S, name);
+            }
+            return (int) l;
+        }
+    }
+
+    @Builtin(name = "reader", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "csvfile", "dialect"}, takesVarKeywordArgs = true, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class ReaderNode extends PythonBuiltinNode {
+        @Specialization
+        CSVReader reader(VirtualFrame frame, PythonModule module, Object csvfile, Object dialect, PKeyword[] kwargs,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached CallNode callNode) {
+            Object inputIter = lib.getIteratorWithFrame(csvfile, frame);
+            CSVDialect csvDialect = callDialect(frame, this, callNode, dialect, kwargs);
+            return factory().createCSVReader(PythonBuiltinClassType.CSVReader, inputIter, csvDialect, getState(module, readStateNode));
+        }
+    }
+
+    @Builtin(name = "writer", minNumOfPositionalArgs = 1, parameterNames = {"fileobj", "dialect"}, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    abstract static class WriterNode extends PythonBuiltinNode {
+        @Specialization
+        CSVWriter writer(VirtualFrame frame, Object fileobj, Object dialect, PKeyword[] kwargs,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached CallNode callNode) {
+            Object write = lib.lookupAttribute(fileobj, frame, "write");
+            if (write == PNone.NO_VALUE || !lib.isCallable(write)) {
+                throw raise(TypeError, ErrorMessages.ARGUMENT_1_MUST_HAVE_A_WRITE_METHOD);
+            }
+            CSVDialect csvDialect = callDialect(frame, this, callNode, dialect, kwargs);
+            return factory().createCSVWriter(PythonBuiltinClassType.CSVWriter, write, csvDialect);
+        }
+    }
+
+    @Builtin(name = "register_dialect", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "name", "dialect"}, takesVarKeywordArgs = true, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class RegisterDialectNode extends PythonBuiltinNode {
+        @Specialization
+        PNone register(VirtualFrame frame, PythonModule module, Object name, Object dialect, PKeyword[] kwargs,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached CallNode callNode,
+                        @Cached HashingCollectionNodes.SetItemNode setItemNode) {
+            if (!PGuards.isString(name)) {
+                throw raise(TypeError, ErrorMessages.DIALECT_NAME_MUST_BE_A_STRING);
+            }
+            CSVDialect csvDialect = callDialect(frame, this, callNode, dialect, kwargs);
+            setItemNode.execute(frame, getState(module, readStateNode).dialects, name, csvDialect);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister_dialect", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "name"}, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class UnregisterDialectNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone unregister(VirtualFrame frame, PythonModule module, Object name,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @CachedLibrary(limit = "1") HashingStorageLibrary hlib,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame) {
+            PDict dialects = getState(module, readStateNode).dialects;
+            if (!hlib.hasKeyWithFrame(dialects.getDictStorage(), name, hasFrame, frame)) {
+                throw raise(CSVError, ErrorMessages.UNKNOWN_DIALECT);
+            }
+            dialects.setDictStorage(hlib.delItemWithFrame(dialects.getDictStorage(), name, hasFrame, frame));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_dialect", minNumOfPositionalArgs = 2, parameterNames = {"$mod", "name"}, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class GetDialectNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object get(VirtualFrame frame, PythonModule module, Object name,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @CachedLibrary(limit = "1") HashingStorageLibrary hlib,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame) {
+            return lookupDialect(frame, this, getState(module, readStateNode), name, hlib, hasFrame);
+        }
+    }
+
+    @Builtin(name = "list_dialects", minNumOfPositionalArgs = 1, parameterNames = {"$mod"}, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class ListDialectsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PList list(PythonModule module,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached ConstructListNode constructListNode) {
+            return constructListNode.execute(getState(module, readStateNode).dialects);
+        }
+    }
+
+    @Builtin(name = "field_size_limit", minNumOfPositionalArgs = 1, parameterNames = {"$mod", "new_limit"}, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class FieldSizeLimitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        long fieldSizeLimit(PythonModule module, Object newLimit,
+                        @Cached ReadAttributeFromObjectNode readStateNode,
+                        @Cached IsBuiltinClassProfile isIntProfile) {
+            CSVModuleState state = getState(module, readStateNode);
+            long oldLimit = state.fieldLimit;
+            if (newLimit != PNone.NO_VALUE) {
+                if (!isExactInt(newLimit, isIntProfile)) {
+                    throw raise(TypeError, ErrorMessages.LIMIT_MUST_BE_AN_INTEGER);
+                }
+                state.fieldLimit = exactIntToLong(this, newLimit);
+            }
+            return oldLimit;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_NONE;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_NONNUMERIC;
+
+import java.util.ArrayList;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.CSVModuleState;
+import com.oracle.graal.python.builtins.objects.floats.FloatUtils;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code _csv.reader} object. The state machine follows CPython's {@code _csv.c}, but runs of
+ * ordinary characters are consumed at once. A field that consists of a single such run is a
+ * substring of the input line and never goes through the {@link StringBuilder}.
+ */
+public final class CSVReader extends PythonBuiltinObject {
+
+    enum State {
+        START_RECORD,
+        START_FIELD,
+        ESCAPED_CHAR,
+        IN_FIELD,
+        IN_QUOTED_FIELD,
+        ESCAPE_IN_QUOTED_FIELD,
+        QUOTE_IN_QUOTED_FIELD,
+        EAT_CRNL,
+        AFTER_ESCAPED_CRNL
+    }
+
+    private static final int EOL = -2;
+
+    final Object inputIter;
+    final CSVDialect dialect;
+    final CSVModuleState moduleState;
+
+    State state = State.START_RECORD;
+    int lineNum;
+
+    private ArrayList<Object> fields;
+    private final StringBuilder field = new StringBuilder();
+    private int fieldLen;
+    private boolean numericField;
+
+    // the pending run of ordinary characters that has not been copied to 'field' yet
+    private String runSource;
+    private int runStart;
+    private int runEnd;
+
+    public CSVReader(Object cls, Shape instanceShape, Object inputIter, CSVDialect dialect, CSVModuleState moduleState) {
+        super(cls, instanceShape);
+        this.inputIter = inputIter;
+        this.dialect = dialect;
+        this.moduleState = moduleState;
+    }
+
+    @TruffleBoundary
+    void parseReset() {
+        fields = new ArrayList<>();
+        field.setLength(0);
+        fieldLen = 0;
+        runSource = null;
+        state = State.START_RECORD;
+        numericField = false;
+    }
+
+    boolean hasPartialField() {
+        return fieldLen != 0 || state == State.IN_QUOTED_FIELD;
+    }
+
+    @TruffleBoundary
+    Object[] takeFields() {
+        Object[] result = fields.toArray();
+        fields = null;
+        return result;
+    }
+
+    @TruffleBoundary
+    void parseLine(PythonBuiltinBaseNode node, String line) {
+        int length = line.length();
+        int pos = 0;
+        while (pos < length) {
+            int c = line.codePointAt(pos);
+            int next = pos + Character.charCount(c);
+            if (c == 0) {
+                throw node.raise(CSVError, ErrorMessages.LINE_CONTAINS_NUL);
+            }
+            if ((state == State.IN_FIELD || state == State.IN_QUOTED_FIELD) && isOrdinary(c)) {
+                int count = 1;
+                while (next < length) {
+                    int d = line.codePointAt(next);
+                    if (d == 0 || !isOrdinary(d)) {
+                        break;
+                    }
+                    next += Character.charCount(d);
+                    count++;
+                }
+                addRun(node, line, pos, next, count);
+            } else {
+                processChar(node, c);
+            }
+            pos = next;
+        }
+        processChar(node, EOL);
+    }
+
+    /**
+     * Whether {@code c} just gets appended to the field in the current state, which must be
+     * {@code IN_FIELD} or {@code IN_QUOTED_FIELD}.
+     */
+    private boolean isOrdinary(int c) {
+        if (c == dialect.escapeChar) {
+            return false;
+        }
+        if (state == State.IN_QUOTED_FIELD) {
+            return c != dialect.quoteChar || dialect.quoting == QUOTE_NONE;
+        }
+        return c != dialect.delimiter && c != '\n' && c != '\r';
+    }
+
+    private void processChar(PythonBuiltinBaseNode node, int ch) {
+        int c = ch;
+        switch (state) {
+            case START_RECORD:
+                if (c == EOL) {
+                    // empty line, return []
+                    break;
+                } else if (c == '\n' || c == '\r') {
+                    state = State.EAT_CRNL;
+                    break;
+                }
+                state = State.START_FIELD;
+                // fall through
+            case START_FIELD:
+                if (c == '\n' || c == '\r' || c == EOL) {
+                    saveField(node);
+                    state = c == EOL ? State.START_RECORD : State.EAT_CRNL;
+                } else if (c == dialect.quoteChar && dialect.quoting != QUOTE_NONE) {
+                    state = State.IN_QUOTED_FIELD;
+                } else if (c == dialect.escapeChar) {
+                    state = State.ESCAPED_CHAR;
+                } else if (c == ' ' && dialect.skipInitialSpace) {
+                    // ignore spaces at the start of a field
+                } else if (c == dialect.delimiter) {
+                    saveField(node);
+                } else {
+                    if (dialect.quoting == QUOTE_NONNUMERIC) {
+                        numericField = true;
+                    }
+                    addChar(node, c);
+                    state = State.IN_FIELD;
+                }
+                break;
+            case ESCAPED_CHAR:
+                if (c == '\n' || c == '\r') {
+                    addChar(node, c);
+                    state = State.AFTER_ESCAPED_CRNL;
+                    break;
+                }
+                if (c == EOL) {
+                    c = '\n';
+                }
+                addChar(node, c);
+                state = State.IN_FIELD;
+                break;
+            case AFTER_ESCAPED_CRNL:
+                if (c == EOL) {
+                    break;
+                }
+                // fall through
+            case IN_FIELD:
+                if (c == '\n' || c == '\r' || c == EOL) {
+                    saveField(node);
+                    state = c == EOL ? State.START_RECORD : State.EAT_CRNL;
+                } else if (c == dialect.escapeChar) {
+                    state = State.ESCAPED_CHAR;
+                } else if (c == dialect.delimiter) {
+                    saveField(node);
+                    state = State.START_FIELD;
+                } else {
+                    addChar(node, c);
+                }
+                break;
+            case IN_QUOTED_FIELD:
+                if (c == EOL) {
+                    // the line break is part of the field, it was already added
+                } else if (c == dialect.escapeChar) {
+                    state = State.ESCAPE_IN_QUOTED_FIELD;
+                } else if (c == dialect.quoteChar && dialect.quoting != QUOTE_NONE) {
+                    state = dialect.doubleQuote ? State.QUOTE_IN_QUOTED_FIELD : State.IN_FIELD;
+                } else {
+                    addChar(node, c);
+                }
+                break;
+            case ESCAPE_IN_QUOTED_FIELD:
+                if (c == EOL) {
+                    c = '\n';
+                }
+                addChar(node, c);
+                state = State.IN_QUOTED_FIELD;
+                break;
+            case QUOTE_IN_QUOTED_FIELD:
+                if (dialect.quoting != QUOTE_NONE && c == dialect.quoteChar) {
+                    // a doubled quote
+                    addChar(node, c);
+                    state = State.IN_QUOTED_FIELD;
+                } else if (c == dialect.delimiter) {
+                    saveField(node);
+                    state = State.START_FIELD;
+                } else if (c == '\n' || c == '\r' || c == EOL) {
+                    saveField(node);
+                    state = c == EOL ? State.START_RECORD : State.EAT_CRNL;
+                } else if (!dialect.strict) {
+                    addChar(node, c);
+                    state = State.IN_FIELD;
+                } else {
+                    throw node.raise(CSVError, ErrorMessages.S_EXPECTED_AFTER_S, codePointToString(dialect.delimiter), codePointToString(dialect.quoteChar));
+                }
+                break;
+            case EAT_CRNL:
+                if (c == '\n' || c == '\r') {
+                    // skip
+                } else if (c == EOL) {
+                    state = State.START_RECORD;
+                } else {
+                    throw node.raise(CSVError, ErrorMessages.NEW_LINE_CHARACTER_SEEN_IN_UNQUOTED_FIELD);
+                }
+                break;
+            default:
+                throw CompilerDirectives.shouldNotReachHere();
+        }
+    }
+
+    private void checkFieldLimit(PythonBuiltinBaseNode node, int count) {
+        long limit = moduleState.fieldLimit;
+        if (fieldLen + (long) count > limit) {
+            throw node.raise(CSVError, ErrorMessages.FIELD_LARGER_THAN_FIELD_LIMIT_D, limit);
+        }
+    }
+
+    private void addChar(PythonBuiltinBaseNode node, int c) {
+        checkFieldLimit(node, 1);
+        flushRun();
+        field.appendCodePoint(c);
+        fieldLen++;
+    }
+
+    private void addRun(PythonBuiltinBaseNode node, String source, int start, int end, int count) {
+        checkFieldLimit(node, count);
+        if (runSource == null && field.length() == 0) {
+            runSource = source;
+            runStart = start;
+            runEnd = end;
+        } else {
+            flushRun();
+            field.append(source, start, end);
+        }
+        fieldLen += count;
+    }
+
+    private void flushRun() {
+        if (runSource != null) {
+            field.append(runSource, runStart, runEnd);
+            runSource = null;
+        }
+    }
+
+    @TruffleBoundary
+    void saveField(PythonBuiltinBaseNode node) {
+        String value;
+        if (runSource != null && field.length() == 0) {
+            value = runSource.substring(runStart, runEnd);
+            runSource = null;
+        } else {
+            flushRun();
+            value = field.toString();
+            field.setLength(0);
+        }
+        fieldLen = 0;
+        if (numericField) {
+            numericField = false;
+            fields.add(toFloat(value));
+        } else {
+            fields.add(value);
+        }
+    }
+
+    private static Object toFloat(String value) {
+        String str = FloatUtils.removeUnicodeAndUnderscores(value);
+        if (str != null) {
+            int len = str.length();
+            FloatUtils.StringToDoubleResult res = FloatUtils.stringToDouble(str, FloatUtils.skipAsciiWhitespace(str, 0, len), len);
+            if (res != null && FloatUtils.skipAsciiWhitespace(str, res.position, len) == len) {
+                return res.value;
+            }
+        }
+        // let float() raise the ValueError
+        return CallNode.getUncached().execute(PythonLanguage.getCore().lookupType(PythonBuiltinClassType.PFloat), value);
+    }
+
+    @TruffleBoundary
+    static String codePointToString(int c) {
+        return new String(Character.toChars(c));
+    }
+}
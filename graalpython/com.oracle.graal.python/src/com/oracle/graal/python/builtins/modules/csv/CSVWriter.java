@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.NOT_SET;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_NONE;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code _csv.writer} object. A record is joined into {@link #rec} field by field, like
+ * CPython's {@code join_append}, except that fields without special characters are copied in one
+ * go.
+ */
+public final class CSVWriter extends PythonBuiltinObject {
+
+    final Object write;
+    final CSVDialect dialect;
+
+    private final StringBuilder rec = new StringBuilder();
+    private int numFields;
+
+    public CSVWriter(Object cls, Shape instanceShape, Object write, CSVDialect dialect) {
+        super(cls, instanceShape);
+        this.write = write;
+        this.dialect = dialect;
+    }
+
+    @TruffleBoundary
+    void joinReset() {
+        rec.setLength(0);
+        numFields = 0;
+    }
+
+    /**
+     * Appends a field, {@code null} stands for {@code None}, which is written as an empty field.
+     */
+    @TruffleBoundary
+    void joinAppend(PythonBuiltinBaseNode node, String field, boolean quote) {
+        boolean quoted = quote;
+        boolean special = false;
+        if (field != null) {
+            for (int i = 0; i < field.length();) {
+                int c = field.codePointAt(i);
+                if (isSpecial(c)) {
+                    special = true;
+                    boolean wantEscape = dialect.quoting == QUOTE_NONE || (c == dialect.quoteChar && !dialect.doubleQuote);
+                    if (!wantEscape) {
+                        quoted = true;
+                    } else if (dialect.escapeChar == NOT_SET) {
+                        throw node.raise(CSVError, ErrorMessages.NEED_TO_ESCAPE_BUT_NO_ESCAPECHAR_SET);
+                    }
+                }
+                i += Character.charCount(c);
+            }
+        }
+        if (numFields > 0) {
+            rec.appendCodePoint(dialect.delimiter);
+        }
+        if (quoted) {
+            rec.appendCodePoint(dialect.quoteChar);
+        }
+        if (special) {
+            for (int i = 0; i < field.length();) {
+                int c = field.codePointAt(i);
+                if (isSpecial(c)) {
+                    if (dialect.quoting == QUOTE_NONE) {
+                        rec.appendCodePoint(dialect.escapeChar);
+                    } else if (c == dialect.quoteChar) {
+                        rec.appendCodePoint(dialect.doubleQuote ? dialect.quoteChar : dialect.escapeChar);
+                    }
+                }
+                rec.appendCodePoint(c);
+                i += Character.charCount(c);
+            }
+        } else if (field != null) {
+            rec.append(field);
+        }
+        if (quoted) {
+            rec.appendCodePoint(dialect.quoteChar);
+        }
+        numFields++;
+    }
+
+    private boolean isSpecial(int c) {
+        return c == dialect.delimiter || c == dialect.escapeChar || c == dialect.quoteChar || dialect.lineTerminator.indexOf(c) >= 0;
+    }
+
+    /**
+     * Finishes the record and returns it including the line terminator.
+     */
+    @TruffleBoundary
+    String joinFinish(PythonBuiltinBaseNode node) {
+        if (numFields > 0 && rec.length() == 0) {
+            // a single empty field must be quoted, else it would read back as an empty row
+            if (dialect.quoting == QUOTE_NONE) {
+                throw node.raise(CSVError, ErrorMessages.SINGLE_EMPTY_FIELD_RECORD_MUST_BE_QUOTED);
+            }
+            numFields--;
+            joinAppend(node, null, true);
+        }
+        rec.append(dialect.lineTerminator);
+        return rec.toString();
+    }
+}
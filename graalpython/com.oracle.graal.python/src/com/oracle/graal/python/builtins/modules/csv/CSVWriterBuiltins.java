@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.csv;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.CSVError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_ALL;
+import static com.oracle.graal.python.builtins.modules.csv.CSVDialect.QUOTE_NONNUMERIC;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.complex.PComplex;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.CSVWriter)
+public class CSVWriterBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return CSVWriterBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "writerow", minNumOfPositionalArgs = 2, parameterNames = {"$self", "row"})
+    @GenerateNodeFactory
+    abstract static class WriteRowNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object writeRow(VirtualFrame frame, CSVWriter self, Object row,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached GetNextNode getNextNode,
+                        @Cached IsBuiltinClassProfile errorProfile,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            Object iter;
+            try {
+                iter = lib.getIteratorWithFrame(row, frame);
+            } catch (PException e) {
+                e.expect(TypeError, errorProfile);
+                throw raise(CSVError, ErrorMessages.ITERABLE_EXPECTED_NOT_P, row);
+            }
+            CSVDialect dialect = self.dialect;
+            self.joinReset();
+            while (true) {
+                Object field;
+                try {
+                    field = getNextNode.execute(frame, iter);
+                } catch (PException e) {
+                    e.expectStopIteration(errorProfile);
+                    break;
+                }
+                boolean quoted;
+                switch (dialect.quoting) {
+                    case QUOTE_NONNUMERIC:
+                        quoted = !(field instanceof PComplex || lib.canBeJavaDouble(field) || lib.canBePInt(field));
+                        break;
+                    case QUOTE_ALL:
+                        quoted = true;
+                        break;
+                    default:
+                        quoted = false;
+                }
+                String str;
+                if (field == PNone.NONE) {
+                    str = null;
+                } else {
+                    try {
+                        str = castToJavaStringNode.execute(field);
+                    } catch (CannotCastException e) {
+                        str = castToJavaStringNode.execute(lib.asPString(field));
+                    }
+                }
+                self.joinAppend(this, str, quoted);
+            }
+            return lib.callObject(self.write, frame, self.joinFinish(this));
+        }
+
+        static WriteRowNode create() {
+            return CSVWriterBuiltinsFactory.WriteRowNodeFactory.create();
+        }
+    }
+
+    @Builtin(name = "writerows", minNumOfPositionalArgs = 2, parameterNames = {"$self", "rows"})
+    @GenerateNodeFactory
+    abstract static class WriteRowsNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone writeRows(VirtualFrame frame, CSVWriter self, Object rows,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached GetNextNode getNextNode,
+                        @Cached IsBuiltinClassProfile stopIterationProfile,
+                        @Cached WriteRowNode writeRowNode) {
+            Object iter = lib.getIteratorWithFrame(rows, frame);
+            while (true) {
+                Object row;
+                try {
+                    row = getNextNode.execute(frame, iter);
+                } catch (PException e) {
+                    e.expectStopIteration(stopIterationProfile);
+                    return PNone.NONE;
+                }
+                writeRowNode.execute(frame, self, row);
+            }
+        }
+    }
+
+    @Builtin(name = "dialect", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DialectNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static CSVDialect get(CSVWriter self) {
+            return self.dialect;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IntFieldNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TimestampNode;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDate)
+public class DateBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "year", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class YearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getYear();
+        }
+    }
+
+    @Builtin(name = "month", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MonthNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getMonth();
+        }
+    }
+
+    @Builtin(name = "day", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getDay();
+        }
+    }
+
+    @Builtin(name = "toordinal", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ToOrdinalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int toOrdinal(PDate self) {
+            return self.toOrdinal();
+        }
+    }
+
+    @Builtin(name = "weekday", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int weekday(PDate self) {
+            return DateTimeUtil.weekday(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "isoweekday", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsoWeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int isoWeekday(PDate self) {
+            return DateTimeUtil.weekday(self.getYear(), self.getMonth(), self.getDay()) + 1;
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1)
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String isoFormat(PDate self) {
+            return DateTimeUtil.formatDate(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "fromordinal", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class FromOrdinalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromOrdinal(VirtualFrame frame, Object cls, Object ordinal,
+                        @Cached IntFieldNode intFieldNode,
+                        @Cached NewDateNode newDateNode) {
+            int ord = intFieldNode.execute(frame, ordinal);
+            if (ord < 1) {
+                throw raise(ValueError, ErrorMessages.ORDINAL_MUST_BE_GE_1);
+            } else if (ord > DateTimeUtil.MAX_ORDINAL) {
+                throw raise(ValueError, ErrorMessages.YEAR_D_IS_OUT_OF_RANGE, DateTimeUtil.MAXYEAR + 1);
+            }
+            int[] ymd = DateTimeUtil.ordToYmd(ord);
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object dateString,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached NewDateNode newDateNode) {
+            String s;
+            try {
+                s = castToJavaStringNode.execute(dateString);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.FROMISOFORMAT_ARGUMENT_MUST_BE_STR);
+            }
+            int[] ymd = s.length() == 10 ? DateTimeUtil.parseIsoDate(s) : null;
+            if (ymd == null) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, s);
+            }
+            DateTimeNodes.checkDateFields(getRaiseNode(), ymd[0], ymd[1], ymd[2]);
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = "fromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class FromTimestampNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromTimestamp(VirtualFrame frame, Object cls, Object timestamp,
+                        @Cached TimestampNode timestampNode,
+                        @Cached NewDateNode newDateNode) {
+            long epochSecond = Math.floorDiv(timestampNode.execute(frame, timestamp), DateTimeUtil.MICROSECONDS_PER_SECOND);
+            long localSecond = epochSecond + DateTimeUtil.getLocalOffset(epochSecond);
+            int[] fields = DateTimeUtil.microsecondsToFields(DateTimeUtil.EPOCH_MICROSECONDS + localSecond * DateTimeUtil.MICROSECONDS_PER_SECOND);
+            if (fields == null) {
+                throw raise(ValueError, ErrorMessages.YEAR_D_IS_OUT_OF_RANGE, localSecond < 0 ? 0 : DateTimeUtil.MAXYEAR + 1);
+            }
+            return newDateNode.execute(frame, cls, fields[0], fields[1], fields[2]);
+        }
+    }
+
+    abstract static class DateArithmeticNode extends PythonBinaryBuiltinNode {
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        Object addDays(VirtualFrame frame, PDate self, long days, PythonObjectLibrary lib, NewDateNode newDateNode) {
+            long ordinal = self.toOrdinal() + days;
+            if (ordinal < 1 || ordinal > DateTimeUtil.MAX_ORDINAL) {
+                throw raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+            }
+            int[] ymd = DateTimeUtil.ordToYmd((int) ordinal);
+            return newDateNode.execute(frame, lib.getLazyPythonClass(self), ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends DateArithmeticNode {
+        @Specialization(guards = "!isDateTime(self)")
+        Object add(VirtualFrame frame, PDate self, PTimeDelta other,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, self, other.getDays(), lib, newDateNode);
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends DateArithmeticNode {
+        @Specialization(guards = "!isDateTime(self)")
+        Object sub(VirtualFrame frame, PDate self, PTimeDelta other,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, self, -(long) other.getDays(), lib, newDateNode);
+        }
+
+        @Specialization(guards = {"!isDateTime(self)", "!isDateTime(other)"})
+        PTimeDelta sub(PDate self, PDate other) {
+            return factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, self.toOrdinal() - other.toOrdinal(), 0, 0);
+        }
+    }
+
+    abstract static class DateCompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean doDate(PDate self, PDate other) {
+            return compare(self.compareDateTo(other));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        boolean compare(@SuppressWarnings("unused") int result) {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends DateCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result == 0;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends DateCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result != 0;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends DateCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends DateCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends DateCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends DateCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result >= 0;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PDate self) {
+            return self.toOrdinal();
+        }
+    }
+
+    static boolean isDateTime(Object value) {
+        return value instanceof PDateTime;
+    }
+}
@@ -0,0 +1,633 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.EPOCH_MICROSECONDS;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MICROSECONDS_PER_SECOND;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.AddToDateTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.FromUtcNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.GetUtcNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.NewDateTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TimestampNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzInfoOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzNameNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDateTime)
+public class DateTimeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateTimeBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PDateTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = "date", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDate date(PDateTime self) {
+            return factory().createDate(PythonBuiltinClassType.PDate, self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "time", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTime time(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), PNone.NONE, self.getFold());
+        }
+    }
+
+    @Builtin(name = "timetz", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimeTzNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTime timetz(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), self.getTzInfo(), self.getFold());
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcOffset(VirtualFrame frame, PDateTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            return offsetNode.execute(frame, self.getTzInfo(), self, false);
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PDateTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            return offsetNode.execute(frame, self.getTzInfo(), self, true);
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TzNameBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzName(VirtualFrame frame, PDateTime self,
+                        @Cached TzNameNode tzNameNode) {
+            return tzNameNode.execute(frame, self.getTzInfo(), self);
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "sep", "timespec"})
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        String isoFormat(VirtualFrame frame, PDateTime self, Object sep, Object timespec,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            String separator = "T";
+            if (!PGuards.isNoValue(sep)) {
+                try {
+                    separator = castToJavaStringNode.execute(sep);
+                } catch (CannotCastException e) {
+                    separator = null;
+                }
+                if (separator == null || separator.codePointCount(0, separator.length()) != 1) {
+                    throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "isoformat()", 1, "a unicode character", sep);
+                }
+            }
+            String spec = "auto";
+            if (!PGuards.isNoValue(timespec)) {
+                try {
+                    spec = castToJavaStringNode.execute(timespec);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "isoformat()", 2, "str", timespec);
+                }
+            }
+            String result = format(self, separator, spec, offsetNode.execute(frame, self.getTzInfo(), self, false));
+            if (result == null) {
+                throw raise(ValueError, ErrorMessages.UNKNOWN_TIMESPEC_VALUE);
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        static String format(PDateTime self, String separator, String timespec, Object offset) {
+            StringBuilder sb = new StringBuilder();
+            DateTimeUtil.appendDate(sb, self.getYear(), self.getMonth(), self.getDay());
+            sb.append(separator);
+            if (!DateTimeUtil.appendTime(sb, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), timespec)) {
+                return null;
+            }
+            if (offset instanceof PTimeDelta) {
+                DateTimeUtil.appendOffset(sb, (PTimeDelta) offset, ":");
+            }
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String str(VirtualFrame frame, PDateTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            return IsoFormatNode.format(self, " ", "auto", offsetNode.execute(frame, self.getTzInfo(), self, false));
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        private static final int[] MIDNIGHT = new int[7];
+
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object dateString,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached GetUtcNode getUtcNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            String s;
+            try {
+                s = castToJavaStringNode.execute(dateString);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.FROMISOFORMAT_ARGUMENT_MUST_BE_STR);
+            }
+            int[] date = s.length() >= 10 ? DateTimeUtil.parseIsoDate(s) : null;
+            int[] time = s.length() > 10 ? DateTimeUtil.parseIsoTime(s, 11) : MIDNIGHT;
+            if (date == null || time == null) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, s);
+            }
+            Object tzinfo = DateTimeNodes.createParsedTzInfo(factory(), getRaiseNode(), getUtcNode, time);
+            DateTimeNodes.checkDateFields(getRaiseNode(), date[0], date[1], date[2]);
+            DateTimeNodes.checkTimeFields(getRaiseNode(), time[0], time[1], time[2], time[3], 0);
+            return newDateTimeNode.execute(frame, cls, date[0], date[1], date[2], time[0], time[1], time[2], time[3], tzinfo, 0);
+        }
+    }
+
+    /**
+     * Creates a datetime of the given class for a POSIX timestamp in microseconds. The datetime is
+     * naive and in local time if {@code tzinfo} is {@code None}, otherwise it is converted with
+     * {@code tzinfo.fromutc}.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class FromEpochMicrosecondsNode extends PNodeWithContext {
+        abstract Object execute(VirtualFrame frame, Object cls, long microseconds, Object tzinfo);
+
+        @Specialization(guards = "isNone(tzinfo)")
+        static Object doLocal(VirtualFrame frame, Object cls, long microseconds, @SuppressWarnings("unused") PNone tzinfo,
+                        @Cached NewDateTimeNode newDateTimeNode,
+                        @Cached PRaiseNode raiseNode) {
+            long epochSecond = Math.floorDiv(microseconds, MICROSECONDS_PER_SECOND);
+            long offset = DateTimeUtil.getLocalOffset(epochSecond) * (long) MICROSECONDS_PER_SECOND;
+            int fold = DateTimeUtil.isLocalFold(epochSecond) ? 1 : 0;
+            return DateTimeNodes.createDateTime(frame, cls, EPOCH_MICROSECONDS + microseconds + offset, PNone.NONE, fold, newDateTimeNode, raiseNode);
+        }
+
+        @Specialization(guards = "!isNone(tzinfo)")
+        static Object doTzInfo(VirtualFrame frame, Object cls, long microseconds, Object tzinfo,
+                        @Cached NewDateTimeNode newDateTimeNode,
+                        @Cached FromUtcNode fromUtcNode,
+                        @Cached PRaiseNode raiseNode) {
+            Object utc = DateTimeNodes.createDateTime(frame, cls, EPOCH_MICROSECONDS + microseconds, tzinfo, 0, newDateTimeNode, raiseNode);
+            return fromUtcNode.execute(frame, tzinfo, utc);
+        }
+    }
+
+    @Builtin(name = "fromtimestamp", minNumOfPositionalArgs = 2, parameterNames = {"cls", "t", "tz"}, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class FromTimestampNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object fromTimestamp(VirtualFrame frame, Object cls, Object timestamp, Object tz,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached TimestampNode timestampNode,
+                        @Cached FromEpochMicrosecondsNode fromEpochMicrosecondsNode) {
+            Object tzinfo = checkTzInfoNode.execute(tz);
+            return fromEpochMicrosecondsNode.execute(frame, cls, timestampNode.execute(frame, timestamp), tzinfo);
+        }
+    }
+
+    @Builtin(name = "utcfromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class UtcFromTimestampNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object utcFromTimestamp(VirtualFrame frame, Object cls, Object timestamp,
+                        @Cached TimestampNode timestampNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return DateTimeNodes.createDateTime(frame, cls, EPOCH_MICROSECONDS + timestampNode.execute(frame, timestamp), PNone.NONE, 0, newDateTimeNode, getRaiseNode());
+        }
+    }
+
+    @Builtin(name = "now", minNumOfPositionalArgs = 1, parameterNames = {"cls", "tz"}, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class NowNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object now(VirtualFrame frame, Object cls, Object tz,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached FromEpochMicrosecondsNode fromEpochMicrosecondsNode) {
+            Object tzinfo = checkTzInfoNode.execute(tz);
+            return fromEpochMicrosecondsNode.execute(frame, cls, DateTimeUtil.currentEpochMicroseconds(), tzinfo);
+        }
+    }
+
+    @Builtin(name = "utcnow", minNumOfPositionalArgs = 1, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class UtcNowNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object utcNow(VirtualFrame frame, Object cls,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return DateTimeNodes.createDateTime(frame, cls, EPOCH_MICROSECONDS + DateTimeUtil.currentEpochMicroseconds(), PNone.NONE, 0, newDateTimeNode, getRaiseNode());
+        }
+    }
+
+    @Builtin(name = "timestamp", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimestampBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static double timestamp(VirtualFrame frame, PDateTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            Object offset = offsetNode.execute(frame, self.getTzInfo(), self, false);
+            long localSeconds = self.getLocalSeconds() - DateTimeUtil.EPOCH_DAYS * (long) DateTimeUtil.SECONDS_PER_DAY;
+            if (offset instanceof PTimeDelta) {
+                PTimeDelta delta = (PTimeDelta) offset;
+                return DateTimeUtil.toSeconds(localSeconds - delta.getTotalSeconds(), self.getMicrosecond() - (long) delta.getMicroseconds());
+            }
+            // a naive datetime is in local time
+            return DateTimeUtil.toSeconds(DateTimeUtil.localToEpochSecond(localSeconds, self.getFold()), self.getMicrosecond());
+        }
+    }
+
+    @Builtin(name = "astimezone", minNumOfPositionalArgs = 1, parameterNames = {"$self", "tz"})
+    @GenerateNodeFactory
+    abstract static class AsTimeZoneNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object asTimeZone(VirtualFrame frame, PDateTime self, Object tz,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached TzInfoOffsetNode offsetNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached NewDateTimeNode newDateTimeNode,
+                        @Cached FromUtcNode fromUtcNode) {
+            Object tzinfo = checkTzInfoNode.execute(tz);
+            Object offset = offsetNode.execute(frame, self.getTzInfo(), self, false);
+            long utcMicroseconds;
+            if (offset instanceof PTimeDelta) {
+                if (tzinfo == self.getTzInfo()) {
+                    return self;
+                }
+                utcMicroseconds = self.getLocalMicroseconds() - DateTimeNodes.toMicrosecondsExact((PTimeDelta) offset);
+            } else {
+                // a naive datetime is in local time
+                long localSeconds = self.getLocalSeconds() - DateTimeUtil.EPOCH_DAYS * (long) DateTimeUtil.SECONDS_PER_DAY;
+                long epochSecond = DateTimeUtil.localToEpochSecond(localSeconds, self.getFold());
+                utcMicroseconds = EPOCH_MICROSECONDS + epochSecond * MICROSECONDS_PER_SECOND + self.getMicrosecond();
+            }
+            Object cls = lib.getLazyPythonClass(self);
+            if (PGuards.isNone(tzinfo)) {
+                long epochSecond = Math.floorDiv(utcMicroseconds - EPOCH_MICROSECONDS, MICROSECONDS_PER_SECOND);
+                PTimeZone local = createLocalTimeZone(factory(), epochSecond);
+                long localMicroseconds = utcMicroseconds + DateTimeNodes.toMicrosecondsExact(local.getOffset());
+                return DateTimeNodes.createDateTime(frame, cls, localMicroseconds, local, 0, newDateTimeNode, getRaiseNode());
+            }
+            Object utc = DateTimeNodes.createDateTime(frame, cls, utcMicroseconds, tzinfo, 0, newDateTimeNode, getRaiseNode());
+            return fromUtcNode.execute(frame, tzinfo, utc);
+        }
+
+        private static PTimeZone createLocalTimeZone(PythonObjectFactory factory, long epochSecond) {
+            int seconds = DateTimeUtil.getLocalOffset(epochSecond);
+            PTimeDelta offset = factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, seconds < 0 ? -1 : 0, Math.floorMod(seconds, DateTimeUtil.SECONDS_PER_DAY), 0);
+            return factory.createTimeZone(PythonBuiltinClassType.PTimeZone, offset, DateTimeUtil.getLocalZoneName(epochSecond));
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object add(VirtualFrame frame, PDateTime self, PTimeDelta other,
+                        @Cached AddToDateTimeNode addNode) {
+            return addNode.execute(frame, self, other, false);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object sub(VirtualFrame frame, PDateTime self, PTimeDelta other,
+                        @Cached AddToDateTimeNode addNode) {
+            return addNode.execute(frame, self, other, true);
+        }
+
+        @Specialization
+        PTimeDelta sub(VirtualFrame frame, PDateTime self, PDateTime other,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            long microseconds = self.getLocalMicroseconds() - other.getLocalMicroseconds();
+            if (self.getTzInfo() != other.getTzInfo()) {
+                Object offset1 = offsetNode.execute(frame, self.getTzInfo(), self, false);
+                Object offset2 = offsetNode.execute(frame, other.getTzInfo(), other, false);
+                if (offset1 instanceof PTimeDelta && offset2 instanceof PTimeDelta) {
+                    microseconds -= DateTimeNodes.toMicrosecondsExact((PTimeDelta) offset1) - DateTimeNodes.toMicrosecondsExact((PTimeDelta) offset2);
+                } else if (offset1 != offset2) {
+                    throw raise(TypeError, ErrorMessages.CANT_SUBTRACT_OFFSET_NAIVE_AND_AWARE_DATETIMES);
+                }
+            }
+            return DateTimeNodes.createTimeDelta(factory(), getRaiseNode(), 0, 0, microseconds);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    abstract static class DateTimeCompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doDateTime(VirtualFrame frame, PDateTime self, PDateTime other,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return compare(self.compareFieldsTo(other));
+            }
+            Object offset1 = offsetNode.execute(frame, self.getTzInfo(), self, false);
+            Object offset2 = offsetNode.execute(frame, other.getTzInfo(), other, false);
+            int result;
+            if (offset1 instanceof PTimeDelta && offset2 instanceof PTimeDelta) {
+                long utc1 = self.getLocalMicroseconds() - DateTimeNodes.toMicrosecondsExact((PTimeDelta) offset1);
+                long utc2 = other.getLocalMicroseconds() - DateTimeNodes.toMicrosecondsExact((PTimeDelta) offset2);
+                result = Long.compare(utc1, utc2);
+            } else if (offset1 == offset2) {
+                // both are naive
+                result = self.compareFieldsTo(other);
+            } else if (isEqualityCheck()) {
+                return compare(1);
+            } else {
+                throw raise(TypeError, ErrorMessages.CANT_COMPARE_OFFSET_NAIVE_AND_AWARE_S, "datetimes");
+            }
+            if (result == 0 && isEqualityCheck() && (isFoldDependent(frame, self, offset1, offsetNode) || isFoldDependent(frame, other, offset2, offsetNode))) {
+                // PEP 495: times in a repeated interval are never equal to times in other zones
+                result = 1;
+            }
+            return compare(result);
+        }
+
+        @Specialization(guards = "!isDateTime(other)")
+        Object doDate(PDateTime self, PDate other) {
+            if (isEqualityCheck()) {
+                return compare(1);
+            }
+            throw raise(TypeError, ErrorMessages.CANT_COMPARE_P_TO_P, self, other);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        boolean compare(@SuppressWarnings("unused") int result) {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        boolean isEqualityCheck() {
+            return false;
+        }
+
+        private boolean isFoldDependent(VirtualFrame frame, PDateTime dateTime, Object offset, TzInfoOffsetNode offsetNode) {
+            PDateTime flipped = factory().createDateTime(PythonBuiltinClassType.PDateTime, dateTime.getYear(), dateTime.getMonth(), dateTime.getDay(), dateTime.getHour(),
+                            dateTime.getMinute(), dateTime.getSecond(), dateTime.getMicrosecond(), dateTime.getTzInfo(), 1 - dateTime.getFold());
+            Object flippedOffset = offsetNode.execute(frame, dateTime.getTzInfo(), flipped, false);
+            if (flippedOffset instanceof PTimeDelta && offset instanceof PTimeDelta) {
+                return ((PTimeDelta) flippedOffset).compareTo((PTimeDelta) offset) != 0;
+            }
+            return flippedOffset != offset;
+        }
+
+        static boolean isDateTime(Object value) {
+            return value instanceof PDateTime;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends DateTimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result == 0;
+        }
+
+        @Override
+        boolean isEqualityCheck() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends DateTimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result != 0;
+        }
+
+        @Override
+        boolean isEqualityCheck() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends DateTimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends DateTimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends DateTimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends DateTimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result >= 0;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long hash(VirtualFrame frame, PDateTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            PDateTime dateTime = self;
+            if (self.getFold() != 0) {
+                // the hash must not depend on the fold, like in CPython use the offset for fold=0
+                dateTime = factory().createDateTime(PythonBuiltinClassType.PDateTime, self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(),
+                                self.getMicrosecond(), self.getTzInfo(), 0);
+            }
+            Object offset = offsetNode.execute(frame, self.getTzInfo(), dateTime, false);
+            long microseconds = self.getLocalMicroseconds();
+            if (offset instanceof PTimeDelta) {
+                microseconds -= DateTimeNodes.toMicrosecondsExact((PTimeDelta) offset);
+            }
+            return DateTimeUtil.hash(microseconds);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PDate;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PDateTime;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTime;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTimeDelta;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTimeZone;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTzInfo;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MAX_DELTA_DAYS;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MICROSECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MICROSECONDS_PER_SECOND;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.SECONDS_PER_DAY;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.IntFieldNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * The {@code _datetime} accelerator module. The classes keep their fields in primitive Java fields
+ * and implement the frequently used operations here and in the builtins of the individual classes.
+ * Rarely used parts like {@code strftime} are implemented in Python in
+ * {@code lib-graalpython/_datetime.py}.
+ */
+@CoreFunctions(defineModule = "_datetime")
+public class DateTimeModuleBuiltins extends PythonBuiltins {
+
+    static final String UTC = "utc";
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateTimeModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(PythonCore core) {
+        super.initialize(core);
+        builtinConstants.put("MINYEAR", MINYEAR);
+        builtinConstants.put("MAXYEAR", MAXYEAR);
+
+        // The classes are public in the 'datetime' module, which is implemented in Python and
+        // imports them from here.
+        PythonModule module = core.lookupBuiltinModule("_datetime");
+        for (PythonBuiltinClassType type : new PythonBuiltinClassType[]{PDate, PDateTime, PTime, PTimeDelta, PTzInfo, PTimeZone}) {
+            module.setAttribute(type.getName(), core.lookupType(type));
+        }
+
+        PythonObjectFactory factory = core.factory();
+        PythonBuiltinClass timedelta = core.lookupType(PTimeDelta);
+        timedelta.setAttribute("min", factory.createTimeDelta(PTimeDelta, -MAX_DELTA_DAYS, 0, 0));
+        timedelta.setAttribute("max", factory.createTimeDelta(PTimeDelta, MAX_DELTA_DAYS, SECONDS_PER_DAY - 1, (int) MICROSECONDS_PER_SECOND - 1));
+        timedelta.setAttribute("resolution", factory.createTimeDelta(PTimeDelta, 0, 0, 1));
+
+        PythonBuiltinClass date = core.lookupType(PDate);
+        date.setAttribute("min", factory.createDate(PDate, MINYEAR, 1, 1));
+        date.setAttribute("max", factory.createDate(PDate, MAXYEAR, 12, 31));
+        date.setAttribute("resolution", factory.createTimeDelta(PTimeDelta, 1, 0, 0));
+
+        PythonBuiltinClass time = core.lookupType(PTime);
+        time.setAttribute("min", factory.createTime(PTime, 0, 0, 0, 0, PNone.NONE, 0));
+        time.setAttribute("max", factory.createTime(PTime, 23, 59, 59, 999999, PNone.NONE, 0));
+        time.setAttribute("resolution", factory.createTimeDelta(PTimeDelta, 0, 0, 1));
+
+        PythonBuiltinClass datetime = core.lookupType(PDateTime);
+        datetime.setAttribute("min", factory.createDateTime(PDateTime, MINYEAR, 1, 1, 0, 0, 0, 0, PNone.NONE, 0));
+        datetime.setAttribute("max", factory.createDateTime(PDateTime, MAXYEAR, 12, 31, 23, 59, 59, 999999, PNone.NONE, 0));
+        datetime.setAttribute("resolution", factory.createTimeDelta(PTimeDelta, 0, 0, 1));
+
+        PythonBuiltinClass timezone = core.lookupType(PTimeZone);
+        timezone.setAttribute(UTC, factory.createTimeZone(PTimeZone, factory.createTimeDelta(PTimeDelta, 0, 0, 0), null));
+        timezone.setAttribute("min", factory.createTimeZone(PTimeZone, factory.createTimeDelta(PTimeDelta, -1, 60, 0), null));
+        timezone.setAttribute("max", factory.createTimeZone(PTimeZone, factory.createTimeDelta(PTimeDelta, 0, SECONDS_PER_DAY - 60, 0), null));
+    }
+
+    // timedelta(days=0, seconds=0, microseconds=0, milliseconds=0, minutes=0, hours=0, weeks=0)
+    @Builtin(name = "timedelta", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "days", "seconds", "microseconds", "milliseconds", "minutes", "hours", "weeks"}, constructsClass = PTimeDelta)
+    @GenerateNodeFactory
+    abstract static class TimeDeltaNode extends PythonBuiltinNode {
+        private static final String[] COMPONENT_NAMES = {"days", "seconds", "microseconds", "milliseconds", "minutes", "hours", "weeks"};
+        private static final long[] COMPONENT_FACTORS = {MICROSECONDS_PER_DAY, MICROSECONDS_PER_SECOND, 1, 1000, 60 * MICROSECONDS_PER_SECOND, 3600 * MICROSECONDS_PER_SECOND, 7 * MICROSECONDS_PER_DAY};
+
+        @Specialization(guards = {"isSimple(days)", "isSimple(seconds)", "isSimple(microseconds)", "isSimple(milliseconds)", "isSimple(minutes)", "isSimple(hours)",
+                        "isSimple(weeks)"}, rewriteOn = ArithmeticException.class)
+        PTimeDelta doLong(Object cls, Object days, Object seconds, Object microseconds, Object milliseconds, Object minutes, Object hours, Object weeks) {
+            long total = toMicroseconds(days, MICROSECONDS_PER_DAY);
+            total = Math.addExact(total, toMicroseconds(seconds, MICROSECONDS_PER_SECOND));
+            total = Math.addExact(total, toMicroseconds(microseconds, 1));
+            total = Math.addExact(total, toMicroseconds(milliseconds, 1000));
+            total = Math.addExact(total, toMicroseconds(minutes, 60 * MICROSECONDS_PER_SECOND));
+            total = Math.addExact(total, toMicroseconds(hours, 3600 * MICROSECONDS_PER_SECOND));
+            total = Math.addExact(total, toMicroseconds(weeks, 7 * MICROSECONDS_PER_DAY));
+            return DateTimeNodes.createTimeDelta(factory(), getRaiseNode(), cls, 0, 0, total);
+        }
+
+        @Specialization(replaces = "doLong")
+        PTimeDelta doGeneric(Object cls, Object days, Object seconds, Object microseconds, Object milliseconds, Object minutes, Object hours, Object weeks) {
+            Object[] components = {days, seconds, microseconds, milliseconds, minutes, hours, weeks};
+            for (int i = 0; i < components.length; i++) {
+                Object component = components[i];
+                if (component instanceof Double || component instanceof PFloat) {
+                    double value = component instanceof Double ? (double) component : ((PFloat) component).getValue();
+                    if (!Double.isFinite(value)) {
+                        throw raise(Double.isNaN(value) ? ValueError : OverflowError, ErrorMessages.CANNOT_CONVERT_FLOAT_F_TO_INT, value);
+                    }
+                } else if (!isSimple(component) && !(component instanceof PInt)) {
+                    throw raise(TypeError, ErrorMessages.UNSUPPORTED_TYPE_FOR_TIMEDELTA_S_COMPONENT_P, COMPONENT_NAMES[i], component);
+                }
+            }
+            return DateTimeNodes.createTimeDelta(factory(), getRaiseNode(), cls, sumMicroseconds(components));
+        }
+
+        static boolean isSimple(Object value) {
+            return value instanceof Integer || value instanceof Long || value instanceof Boolean || value == PNone.NO_VALUE;
+        }
+
+        private static long toMicroseconds(Object value, long factor) {
+            if (value == PNone.NO_VALUE) {
+                return 0;
+            }
+            long l = value instanceof Boolean ? ((boolean) value ? 1 : 0) : ((Number) value).longValue();
+            return Math.multiplyExact(l, factor);
+        }
+
+        /*
+         * Sums up the components exactly and rounds the result half to even, so that
+         * timedelta(seconds=0.5e-6) is zero and timedelta(seconds=1.5e-6) is two microseconds.
+         */
+        @TruffleBoundary
+        private static BigInteger sumMicroseconds(Object[] components) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < components.length; i++) {
+                Object component = components[i];
+                BigDecimal value;
+                if (component == PNone.NO_VALUE) {
+                    continue;
+                } else if (component instanceof Double) {
+                    value = new BigDecimal((double) component);
+                } else if (component instanceof PFloat) {
+                    value = new BigDecimal(((PFloat) component).getValue());
+                } else if (component instanceof PInt) {
+                    value = new BigDecimal(((PInt) component).getValue());
+                } else if (component instanceof Boolean) {
+                    value = (boolean) component ? BigDecimal.ONE : BigDecimal.ZERO;
+                } else {
+                    value = BigDecimal.valueOf(((Number) component).longValue());
+                }
+                total = total.add(value.multiply(BigDecimal.valueOf(COMPONENT_FACTORS[i])));
+            }
+            return total.setScale(0, RoundingMode.HALF_EVEN).toBigIntegerExact();
+        }
+    }
+
+    // date(year, month, day)
+    @Builtin(name = "date", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "year", "month", "day"}, constructsClass = PDate)
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonBuiltinNode {
+        @Specialization
+        PDate doIt(VirtualFrame frame, Object cls, Object year, Object month, Object day,
+                        @Cached IntFieldNode intFieldNode,
+                        @Cached BytesNodes.ToBytesNode toBytesNode,
+                        @Cached ConditionProfile stateProfile) {
+            if (stateProfile.profile(year instanceof PBytes && month == PNone.NO_VALUE)) {
+                // pickle support
+                byte[] state = toBytesNode.execute(year);
+                if (state.length == 4 && state[2] >= 1 && state[2] <= 12) {
+                    return factory().createDate(cls, readUnsigned(state, 0, 2), state[2], state[3] & 0xff);
+                }
+            }
+            if (month == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "date", "month", 2);
+            }
+            if (day == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "date", "day", 3);
+            }
+            int y = intFieldNode.execute(frame, year);
+            int m = intFieldNode.execute(frame, month);
+            int d = intFieldNode.execute(frame, day);
+            DateTimeNodes.checkDateFields(getRaiseNode(), y, m, d);
+            return factory().createDate(cls, y, m, d);
+        }
+    }
+
+    // time(hour=0, minute=0, second=0, microsecond=0, tzinfo=None, *, fold=0)
+    @Builtin(name = "time", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "hour", "minute", "second", "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"}, constructsClass = PTime)
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonBuiltinNode {
+        @Specialization
+        PTime doIt(VirtualFrame frame, Object cls, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached IntFieldNode intFieldNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached BytesNodes.ToBytesNode toBytesNode,
+                        @Cached ConditionProfile stateProfile) {
+            if (stateProfile.profile(hour instanceof PBytes && second == PNone.NO_VALUE)) {
+                // pickle support, the tzinfo is passed as the second argument
+                byte[] state = toBytesNode.execute(hour);
+                if (state.length == 6 && (state[0] & 0x7f) < 24) {
+                    Object tz = checkTzInfoNode.execute(minute);
+                    return factory().createTime(cls, state[0] & 0x7f, state[1], state[2], readUnsigned(state, 3, 3), tz, (state[0] & 0x80) >> 7);
+                }
+            }
+            int h = fieldOrZero(frame, intFieldNode, hour);
+            int m = fieldOrZero(frame, intFieldNode, minute);
+            int s = fieldOrZero(frame, intFieldNode, second);
+            int us = fieldOrZero(frame, intFieldNode, microsecond);
+            int f = fieldOrZero(frame, intFieldNode, fold);
+            DateTimeNodes.checkTimeFields(getRaiseNode(), h, m, s, us, f);
+            return factory().createTime(cls, h, m, s, us, checkTzInfoNode.execute(tzinfo), f);
+        }
+    }
+
+    // datetime(year, month, day, hour=0, minute=0, second=0, microsecond=0, tzinfo=None, *, fold=0)
+    @Builtin(name = "datetime", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "year", "month", "day", "hour", "minute", "second", "microsecond",
+                    "tzinfo"}, keywordOnlyNames = {"fold"}, constructsClass = PDateTime)
+    @GenerateNodeFactory
+    abstract static class DateTimeNode extends PythonBuiltinNode {
+        @Specialization
+        PDateTime doIt(VirtualFrame frame, Object cls, Object year, Object month, Object day, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached IntFieldNode intFieldNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached BytesNodes.ToBytesNode toBytesNode,
+                        @Cached ConditionProfile stateProfile) {
+            if (stateProfile.profile(year instanceof PBytes && day == PNone.NO_VALUE)) {
+                // pickle support, the tzinfo is passed as the second argument
+                byte[] state = toBytesNode.execute(year);
+                if (state.length == 10 && (state[2] & 0x7f) >= 1 && (state[2] & 0x7f) <= 12) {
+                    Object tz = checkTzInfoNode.execute(month);
+                    return factory().createDateTime(cls, readUnsigned(state, 0, 2), state[2] & 0x7f, state[3], state[4], state[5], state[6], readUnsigned(state, 7, 3), tz, (state[2] & 0x80) >> 7);
+                }
+            }
+            if (month == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "datetime", "month", 2);
+            }
+            if (day == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, "datetime", "day", 3);
+            }
+            int y = intFieldNode.execute(frame, year);
+            int mon = intFieldNode.execute(frame, month);
+            int d = intFieldNode.execute(frame, day);
+            int h = fieldOrZero(frame, intFieldNode, hour);
+            int min = fieldOrZero(frame, intFieldNode, minute);
+            int s = fieldOrZero(frame, intFieldNode, second);
+            int us = fieldOrZero(frame, intFieldNode, microsecond);
+            int f = fieldOrZero(frame, intFieldNode, fold);
+            DateTimeNodes.checkDateFields(getRaiseNode(), y, mon, d);
+            DateTimeNodes.checkTimeFields(getRaiseNode(), h, min, s, us, f);
+            return factory().createDateTime(cls, y, mon, d, h, min, s, us, checkTzInfoNode.execute(tzinfo), f);
+        }
+    }
+
+    // timezone(offset, name=<unrepresentable>)
+    @Builtin(name = "timezone", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "offset", "name"}, constructsClass = PTimeZone)
+    @GenerateNodeFactory
+    abstract static class TimeZoneNode extends PythonBuiltinNode {
+        @Specialization
+        PTimeZone doIt(Object cls, Object offset, Object name,
+                        @Cached DateTimeNodes.GetUtcNode getUtcNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            if (!(offset instanceof PTimeDelta)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "timezone()", 1, "datetime.timedelta", offset);
+            }
+            PTimeDelta delta = (PTimeDelta) offset;
+            String tzName = null;
+            if (name != PNone.NO_VALUE) {
+                try {
+                    tzName = castToJavaStringNode.execute(name);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "timezone()", 2, "str", name);
+                }
+            }
+            if (!DateTimeNodes.isValidOffset(delta)) {
+                throw raise(ValueError, ErrorMessages.OFFSET_MUST_BE_A_TIMEDELTA_STRICTLY_BETWEEN);
+            }
+            if (tzName == null && delta.isZero()) {
+                return getUtcNode.execute();
+            }
+            return factory().createTimeZone(cls, delta, tzName);
+        }
+    }
+
+    static int readUnsigned(byte[] bytes, int offset, int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            result = (result << 8) | (bytes[i] & 0xff);
+        }
+        return result;
+    }
+
+    static int fieldOrZero(VirtualFrame frame, IntFieldNode intFieldNode, Object value) {
+        return PGuards.isNoValue(value) ? 0 : intFieldNode.execute(frame, value);
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MAX_DELTA_DAYS;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.MICROSECONDS_PER_SECOND;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeUtil.SECONDS_PER_DAY;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+public abstract class DateTimeNodes {
+
+    private static final BigInteger BIG_MICROSECONDS_PER_SECOND = BigInteger.valueOf(MICROSECONDS_PER_SECOND);
+    private static final BigInteger BIG_SECONDS_PER_DAY = BigInteger.valueOf(SECONDS_PER_DAY);
+
+    /**
+     * Creates a timedelta from possibly denormalized fields, raising {@code OverflowError} if it is
+     * out of range. The arguments must be small enough not to overflow when normalized.
+     */
+    public static PTimeDelta createTimeDelta(PythonObjectFactory factory, PRaiseNode raiseNode, Object cls, long days, long seconds, long microseconds) {
+        long s = seconds + Math.floorDiv(microseconds, MICROSECONDS_PER_SECOND);
+        long d = days + Math.floorDiv(s, SECONDS_PER_DAY);
+        if (!DateTimeUtil.isValidDelta(d)) {
+            throw raiseNode.raise(OverflowError, ErrorMessages.DAYS_S_MUST_HAVE_MAGNITUDE_LE_D, d, MAX_DELTA_DAYS);
+        }
+        return factory.createTimeDelta(cls, (int) d, (int) Math.floorMod(s, SECONDS_PER_DAY), (int) Math.floorMod(microseconds, MICROSECONDS_PER_SECOND));
+    }
+
+    public static PTimeDelta createTimeDelta(PythonObjectFactory factory, PRaiseNode raiseNode, long days, long seconds, long microseconds) {
+        return createTimeDelta(factory, raiseNode, PythonBuiltinClassType.PTimeDelta, days, seconds, microseconds);
+    }
+
+    /**
+     * Creates a timedelta of the given number of microseconds.
+     */
+    public static PTimeDelta createTimeDelta(PythonObjectFactory factory, PRaiseNode raiseNode, Object cls, BigInteger microseconds) {
+        long[] fields = splitMicroseconds(microseconds);
+        if (fields == null) {
+            throw raiseNode.raise(OverflowError, ErrorMessages.DAYS_S_MUST_HAVE_MAGNITUDE_LE_D, daysOf(microseconds), MAX_DELTA_DAYS);
+        }
+        return createTimeDelta(factory, raiseNode, cls, fields[0], fields[1], fields[2]);
+    }
+
+    public static PTimeDelta createTimeDelta(PythonObjectFactory factory, PRaiseNode raiseNode, BigInteger microseconds) {
+        return createTimeDelta(factory, raiseNode, PythonBuiltinClassType.PTimeDelta, microseconds);
+    }
+
+    /*
+     * Returns {days, seconds, microseconds} or null if the days do not fit into a timedelta.
+     */
+    @TruffleBoundary
+    private static long[] splitMicroseconds(BigInteger microseconds) {
+        BigInteger[] secondsAndMicros = floorDivMod(microseconds, BIG_MICROSECONDS_PER_SECOND);
+        BigInteger[] daysAndSeconds = floorDivMod(secondsAndMicros[0], BIG_SECONDS_PER_DAY);
+        if (daysAndSeconds[0].bitLength() > 31 || !DateTimeUtil.isValidDelta(daysAndSeconds[0].longValue())) {
+            return null;
+        }
+        return new long[]{daysAndSeconds[0].longValue(), daysAndSeconds[1].longValue(), secondsAndMicros[1].longValue()};
+    }
+
+    @TruffleBoundary
+    private static String daysOf(BigInteger microseconds) {
+        return floorDivMod(microseconds, BIG_MICROSECONDS_PER_SECOND.multiply(BIG_SECONDS_PER_DAY))[0].toString();
+    }
+
+    @TruffleBoundary
+    static BigInteger[] floorDivMod(BigInteger a, BigInteger b) {
+        BigInteger[] result = a.divideAndRemainder(b);
+        if (result[1].signum() != 0 && result[1].signum() != b.signum()) {
+            result[0] = result[0].subtract(BigInteger.ONE);
+            result[1] = result[1].add(b);
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    static BigInteger toMicroseconds(PTimeDelta delta) {
+        return BigInteger.valueOf(delta.getTotalSeconds()).multiply(BIG_MICROSECONDS_PER_SECOND).add(BigInteger.valueOf(delta.getMicroseconds()));
+    }
+
+    /**
+     * The microseconds of a timedelta, throws {@link ArithmeticException} if they do not fit into
+     * a long.
+     */
+    static long toMicrosecondsExact(PTimeDelta delta) {
+        return Math.addExact(Math.multiplyExact(delta.getTotalSeconds(), MICROSECONDS_PER_SECOND), delta.getMicroseconds());
+    }
+
+    static void checkDateFields(PRaiseNode raiseNode, int year, int month, int day) {
+        if (year < DateTimeUtil.MINYEAR || year > DateTimeUtil.MAXYEAR) {
+            throw raiseNode.raise(ValueError, ErrorMessages.YEAR_D_IS_OUT_OF_RANGE, year);
+        }
+        if (month < 1 || month > 12) {
+            throw raiseNode.raise(ValueError, ErrorMessages.MONTH_MUST_BE_IN_1_12);
+        }
+        if (day < 1 || day > DateTimeUtil.daysInMonth(year, month)) {
+            throw raiseNode.raise(ValueError, ErrorMessages.DAY_IS_OUT_OF_RANGE_FOR_MONTH);
+        }
+    }
+
+    static void checkTimeFields(PRaiseNode raiseNode, int hour, int minute, int second, int microsecond, int fold) {
+        if (hour < 0 || hour > 23) {
+            throw raiseNode.raise(ValueError, ErrorMessages.HOUR_MUST_BE_IN_0_23);
+        }
+        if (minute < 0 || minute > 59) {
+            throw raiseNode.raise(ValueError, ErrorMessages.MINUTE_MUST_BE_IN_0_59);
+        }
+        if (second < 0 || second > 59) {
+            throw raiseNode.raise(ValueError, ErrorMessages.SECOND_MUST_BE_IN_0_59);
+        }
+        if (microsecond < 0 || microsecond > 999999) {
+            throw raiseNode.raise(ValueError, ErrorMessages.MICROSECOND_MUST_BE_IN_0_999999);
+        }
+        if (fold != 0 && fold != 1) {
+            throw raiseNode.raise(ValueError, ErrorMessages.FOLD_MUST_BE_EITHER_0_OR_1);
+        }
+    }
+
+    /**
+     * Creates the tzinfo for the time zone part of a parsed iso format time, see
+     * {@link DateTimeUtil#parseIsoTime}. Returns {@link PNone#NONE} if there is none.
+     */
+    static Object createParsedTzInfo(PythonObjectFactory factory, PRaiseNode raiseNode, GetUtcNode getUtcNode, int[] time) {
+        int sign = time[DateTimeUtil.TZ_SIGN];
+        if (sign == 0) {
+            return PNone.NONE;
+        }
+        if (time[DateTimeUtil.TZ_SECONDS] == 0 && time[DateTimeUtil.TZ_MICROSECONDS] == 0) {
+            return getUtcNode.execute();
+        }
+        PTimeDelta offset = createTimeDelta(factory, raiseNode, 0, sign * time[DateTimeUtil.TZ_SECONDS], sign * time[DateTimeUtil.TZ_MICROSECONDS]);
+        if (!isValidOffset(offset)) {
+            throw raiseNode.raise(ValueError, ErrorMessages.OFFSET_MUST_BE_A_TIMEDELTA_STRICTLY_BETWEEN);
+        }
+        return factory.createTimeZone(PythonBuiltinClassType.PTimeZone, offset, null);
+    }
+
+    static boolean isValidOffset(PTimeDelta offset) {
+        return offset.getDays() == 0 || (offset.getDays() == -1 && (offset.getSeconds() != 0 || offset.getMicroseconds() != 0));
+    }
+
+    /**
+     * Converts an argument for an int field like {@code year} or {@code hour}.
+     */
+    public abstract static class IntFieldNode extends PNodeWithContext {
+        public abstract int execute(VirtualFrame frame, Object value);
+
+        @Specialization
+        static int doInt(int value) {
+            return value;
+        }
+
+        @Specialization(replaces = "doInt")
+        static int doOther(VirtualFrame frame, Object value,
+                        @Cached IsSubtypeNode isSubtypeNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached PRaiseNode raiseNode) {
+            if (PGuards.isDouble(value) || isSubtypeNode.execute(lib.getLazyPythonClass(value), PythonBuiltinClassType.PFloat)) {
+                throw raiseNode.raise(TypeError, ErrorMessages.INTEGER_EXPECTED_GOT_FLOAT);
+            }
+            return lib.asSizeWithFrame(value, OverflowError, frame);
+        }
+    }
+
+    /**
+     * Checks a tzinfo argument, which must be {@code None} or a {@code tzinfo} instance.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class CheckTzInfoNode extends PNodeWithContext {
+        public abstract Object execute(Object tzinfo);
+
+        @Specialization
+        static Object doTimeZone(PTimeZone tzinfo) {
+            return tzinfo;
+        }
+
+        @Specialization(guards = "isNoValue(tzinfo)")
+        static Object doNoValue(@SuppressWarnings("unused") PNone tzinfo) {
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isNone(tzinfo)")
+        static Object doNone(PNone tzinfo) {
+            return tzinfo;
+        }
+
+        @Specialization(guards = {"!isPNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        static Object doOther(Object tzinfo,
+                        @Cached IsSubtypeNode isSubtypeNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached PRaiseNode raiseNode) {
+            if (!isSubtypeNode.execute(lib.getLazyPythonClass(tzinfo), PythonBuiltinClassType.PTzInfo)) {
+                throw raiseNode.raise(TypeError, ErrorMessages.TZINFO_ARGUMENT_MUST_BE_NONE_OR_TZINFO_NOT_P, tzinfo);
+            }
+            return tzinfo;
+        }
+
+        static boolean isTimeZone(Object tzinfo) {
+            return tzinfo instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.utcoffset(arg)} or {@code tzinfo.dst(arg)} and checks that the result is
+     * {@code None} or a timedelta strictly between -24 and 24 hours. Returns {@link PNone#NONE} for
+     * a {@code None} tzinfo.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class TzInfoOffsetNode extends PNodeWithContext {
+        public abstract Object execute(VirtualFrame frame, Object tzinfo, Object arg, boolean dst);
+
+        @Specialization(guards = "isNone(tzinfo)")
+        static Object doNone(@SuppressWarnings("unused") PNone tzinfo, @SuppressWarnings("unused") Object arg, @SuppressWarnings("unused") boolean dst) {
+            return PNone.NONE;
+        }
+
+        @Specialization
+        static Object doTimeZone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg, boolean dst) {
+            return dst ? PNone.NONE : tzinfo.getOffset();
+        }
+
+        @Specialization(guards = {"!isNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        static Object doGeneric(VirtualFrame frame, Object tzinfo, Object arg, boolean dst,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached PRaiseNode raiseNode) {
+            String name = dst ? "dst" : "utcoffset";
+            Object offset = lib.lookupAndCallRegularMethod(tzinfo, frame, name, arg);
+            if (offset instanceof PTimeDelta) {
+                if (!isValidOffset((PTimeDelta) offset)) {
+                    throw raiseNode.raise(ValueError, ErrorMessages.OFFSET_MUST_BE_A_TIMEDELTA_STRICTLY_BETWEEN);
+                }
+                return offset;
+            } else if (PGuards.isNone(offset)) {
+                return offset;
+            }
+            throw raiseNode.raise(TypeError, ErrorMessages.TZINFO_S_MUST_RETURN_NONE_OR_TIMEDELTA_NOT_P, name, offset);
+        }
+
+        static boolean isTimeZone(Object tzinfo) {
+            return tzinfo instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.tzname(arg)} and checks that the result is {@code None} or a string.
+     * Returns {@link PNone#NONE} for a {@code None} tzinfo.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class TzNameNode extends PNodeWithContext {
+        public abstract Object execute(VirtualFrame frame, Object tzinfo, Object arg);
+
+        @Specialization(guards = "isNone(tzinfo)")
+        static Object doNone(@SuppressWarnings("unused") PNone tzinfo, @SuppressWarnings("unused") Object arg) {
+            return PNone.NONE;
+        }
+
+        @Specialization
+        static Object doTimeZone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg) {
+            return TimeZoneBuiltins.getTzName(tzinfo);
+        }
+
+        @Specialization(guards = {"!isNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        static Object doGeneric(VirtualFrame frame, Object tzinfo, Object arg,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached PRaiseNode raiseNode) {
+            Object name = lib.lookupAndCallRegularMethod(tzinfo, frame, "tzname", arg);
+            if (!PGuards.isNone(name) && !PGuards.isString(name)) {
+                throw raiseNode.raise(TypeError, ErrorMessages.TZINFO_TZNAME_MUST_RETURN_NONE_OR_STRING_NOT_P, name);
+            }
+            return name;
+        }
+
+        static boolean isTimeZone(Object tzinfo) {
+            return tzinfo instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Creates a date of the given class. Like in CPython, subclasses are instantiated by calling
+     * them, so that they can override {@code __new__}.
+     */
+    public abstract static class NewDateNode extends PNodeWithContext {
+        public abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day);
+
+        @Specialization
+        static Object doIt(VirtualFrame frame, Object cls, int year, int month, int day,
+                        @Cached IsBuiltinClassProfile isDateProfile,
+                        @Cached IsBuiltinClassProfile isDateTimeProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isDateProfile.profileClass(cls, PythonBuiltinClassType.PDate)) {
+                return factory.createDate(cls, year, month, day);
+            } else if (isDateTimeProfile.profileClass(cls, PythonBuiltinClassType.PDateTime)) {
+                return factory.createDateTime(cls, year, month, day, 0, 0, 0, 0, PNone.NONE, 0);
+            }
+            return callNode.execute(frame, cls, year, month, day);
+        }
+    }
+
+    /**
+     * Creates a datetime of the given class, calling the class if it is a subclass.
+     */
+    public abstract static class NewDateTimeNode extends PNodeWithContext {
+        public abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold);
+
+        @Specialization
+        static Object doIt(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold,
+                        @Cached IsBuiltinClassProfile isDateTimeProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isDateTimeProfile.profileClass(cls, PythonBuiltinClassType.PDateTime)) {
+                return factory.createDateTime(cls, year, month, day, hour, minute, second, microsecond, tzinfo, fold);
+            }
+            Object[] args = {year, month, day, hour, minute, second, microsecond, tzinfo};
+            PKeyword[] keywords = fold == 0 ? PKeyword.EMPTY_KEYWORDS : new PKeyword[]{new PKeyword("fold", fold)};
+            return callNode.execute(frame, cls, args, keywords);
+        }
+    }
+
+    /**
+     * Converts a POSIX timestamp to microseconds since the epoch, rounding half to even like
+     * CPython.
+     */
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class TimestampNode extends PNodeWithContext {
+        /*
+         * Bounds the timestamps to about +-3 million years, which is enough for all valid dates and
+         * keeps the microseconds within a long.
+         */
+        private static final double MAX_TIMESTAMP = 1e14;
+
+        public abstract long execute(VirtualFrame frame, Object timestamp);
+
+        @Specialization
+        static long doLong(long timestamp,
+                        @Shared("raise") @Cached PRaiseNode raiseNode) {
+            if (Math.abs(timestamp) > MAX_TIMESTAMP) {
+                throw raiseNode.raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+            return timestamp * MICROSECONDS_PER_SECOND;
+        }
+
+        @Specialization
+        static long doDouble(double timestamp,
+                        @Shared("raise") @Cached PRaiseNode raiseNode) {
+            if (Double.isNaN(timestamp)) {
+                throw raiseNode.raise(ValueError, ErrorMessages.INVALID_VALUE_NAN);
+            }
+            if (!(Math.abs(timestamp) <= MAX_TIMESTAMP)) {
+                throw raiseNode.raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+            // like _PyTime_DoubleToDenominator, round the fraction only
+            double seconds = timestamp < 0 ? Math.ceil(timestamp) : Math.floor(timestamp);
+            double microseconds = Math.rint((timestamp - seconds) * 1e6);
+            return (long) seconds * MICROSECONDS_PER_SECOND + (long) microseconds;
+        }
+
+        @Specialization(guards = {"!isInteger(timestamp)", "!isDouble(timestamp)"})
+        static long doOther(VirtualFrame frame, Object timestamp,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Shared("raise") @Cached PRaiseNode raiseNode) {
+            if (lib.canBeJavaLong(timestamp)) {
+                return doLong(lib.asJavaLong(timestamp, frame), raiseNode);
+            } else if (lib.canBeJavaDouble(timestamp)) {
+                return doDouble(lib.asJavaDoubleWithFrame(timestamp, frame), raiseNode);
+            }
+            throw raiseNode.raise(TypeError, ErrorMessages.INTEGER_REQUIRED_GOT, timestamp);
+        }
+
+        static boolean isInteger(Object value) {
+            return value instanceof Integer || value instanceof Long || value instanceof Boolean;
+        }
+
+        static boolean isDouble(Object value) {
+            return value instanceof Double || value instanceof PFloat;
+        }
+    }
+
+    /**
+     * Creates a datetime of the given class from microseconds since 0001-01-01T00:00, raising
+     * {@code OverflowError} if they are out of range.
+     */
+    static Object createDateTime(VirtualFrame frame, Object cls, long microseconds, Object tzinfo, int fold, NewDateTimeNode newDateTimeNode, PRaiseNode raiseNode) {
+        int[] fields = DateTimeUtil.microsecondsToFields(microseconds);
+        if (fields == null) {
+            throw raiseNode.raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+        }
+        return newDateTimeNode.execute(frame, cls, fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], tzinfo, fold);
+    }
+
+    /**
+     * Adds or subtracts a timedelta to a datetime. The result has the class and tzinfo of the
+     * datetime.
+     */
+    public abstract static class AddToDateTimeNode extends PNodeWithContext {
+        public abstract Object execute(VirtualFrame frame, PDateTime dateTime, PTimeDelta delta, boolean subtract);
+
+        @Specialization
+        static Object doIt(VirtualFrame frame, PDateTime dateTime, PTimeDelta delta, boolean subtract,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached NewDateTimeNode newDateTimeNode,
+                        @Cached PRaiseNode raiseNode) {
+            if (Math.abs(delta.getDays()) > DateTimeUtil.MAX_ORDINAL) {
+                throw raiseNode.raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+            }
+            long deltaMicroseconds = toMicrosecondsExact(delta);
+            long microseconds = dateTime.getLocalMicroseconds() + (subtract ? -deltaMicroseconds : deltaMicroseconds);
+            return createDateTime(frame, lib.getLazyPythonClass(dateTime), microseconds, dateTime.getTzInfo(), 0, newDateTimeNode, raiseNode);
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.fromutc(dateTime)}.
+     */
+    public abstract static class FromUtcNode extends PNodeWithContext {
+        public abstract Object execute(VirtualFrame frame, Object tzinfo, Object dateTime);
+
+        @Specialization
+        static Object doTimeZone(VirtualFrame frame, PTimeZone tzinfo, PDateTime dateTime,
+                        @Cached AddToDateTimeNode addNode) {
+            return addNode.execute(frame, dateTime, tzinfo.getOffset(), false);
+        }
+
+        @Fallback
+        static Object doGeneric(VirtualFrame frame, Object tzinfo, Object dateTime,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(tzinfo, frame, "fromutc", dateTime);
+        }
+    }
+
+    /**
+     * Returns the {@code timezone.utc} singleton.
+     */
+    public abstract static class GetUtcNode extends PNodeWithContext {
+        public abstract PTimeZone execute();
+
+        @Specialization
+        static PTimeZone doIt(@Cached ReadAttributeFromObjectNode readNode,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            return (PTimeZone) readNode.execute(context.getCore().lookupType(PythonBuiltinClassType.PTimeZone), DateTimeModuleBuiltins.UTC);
+        }
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Locale;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Calendar arithmetic and the iso format helpers shared by the {@code _datetime} builtins. The
+ * algorithms are the ones of CPython's datetime.py, on the proleptic Gregorian calendar where
+ * 0001-01-01 is day 1.
+ */
+public final class DateTimeUtil {
+
+    public static final int MINYEAR = 1;
+    public static final int MAXYEAR = 9999;
+    public static final int MAX_ORDINAL = 3652059;
+    public static final int MAX_DELTA_DAYS = 999999999;
+    public static final int SECONDS_PER_DAY = 24 * 3600;
+    public static final int MICROSECONDS_PER_SECOND = 1000000;
+    public static final long MICROSECONDS_PER_DAY = (long) SECONDS_PER_DAY * MICROSECONDS_PER_SECOND;
+
+    /*
+     * Days between 0001-01-01 and 1970-01-01.
+     */
+    public static final int EPOCH_DAYS = 719162;
+    public static final long EPOCH_MICROSECONDS = EPOCH_DAYS * MICROSECONDS_PER_DAY;
+
+    private static final int[] DAYS_IN_MONTH = {-1, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] DAYS_BEFORE_MONTH = {-1, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    private static final int DI400Y = 146097;
+    private static final int DI100Y = 36524;
+    private static final int DI4Y = 1461;
+
+    /*
+     * Largest absolute microsecond value that converts to a double exactly.
+     */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final BigDecimal MICROSECONDS_PER_SECOND_DECIMAL = BigDecimal.valueOf(MICROSECONDS_PER_SECOND);
+
+    private static final DateTimeFormatter ZONE_NAME_FORMATTER = DateTimeFormatter.ofPattern("zzz", Locale.ROOT);
+
+    private DateTimeUtil() {
+    }
+
+    public static boolean isLeap(int year) {
+        return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int daysInMonth(int year, int month) {
+        if (month == 2 && isLeap(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month];
+    }
+
+    public static int daysBeforeMonth(int year, int month) {
+        return DAYS_BEFORE_MONTH[month] + (month > 2 && isLeap(year) ? 1 : 0);
+    }
+
+    public static int daysBeforeYear(int year) {
+        int y = year - 1;
+        return y * 365 + y / 4 - y / 100 + y / 400;
+    }
+
+    public static int ymdToOrd(int year, int month, int day) {
+        return daysBeforeYear(year) + daysBeforeMonth(year, month) + day;
+    }
+
+    /**
+     * Converts an ordinal to {@code {year, month, day}}.
+     */
+    public static int[] ordToYmd(int ordinal) {
+        int n = ordinal - 1;
+        int n400 = Math.floorDiv(n, DI400Y);
+        n = Math.floorMod(n, DI400Y);
+        int year = n400 * 400 + 1;
+
+        int n100 = n / DI100Y;
+        n = n % DI100Y;
+        int n4 = n / DI4Y;
+        n = n % DI4Y;
+        int n1 = n / 365;
+        n = n % 365;
+
+        year += n100 * 100 + n4 * 4 + n1;
+        if (n1 == 4 || n100 == 4) {
+            return new int[]{year - 1, 12, 31};
+        }
+
+        boolean leapYear = n1 == 3 && (n4 != 24 || n100 == 3);
+        int month = (n + 50) >> 5;
+        int preceding = DAYS_BEFORE_MONTH[month] + (month > 2 && leapYear ? 1 : 0);
+        if (preceding > n) {
+            month--;
+            preceding -= DAYS_IN_MONTH[month] + (month == 2 && leapYear ? 1 : 0);
+        }
+        return new int[]{year, month, n - preceding + 1};
+    }
+
+    /**
+     * Monday is 0 and Sunday is 6.
+     */
+    public static int weekday(int year, int month, int day) {
+        return (ymdToOrd(year, month, day) + 6) % 7;
+    }
+
+    /**
+     * Splits microseconds since 0001-01-01T00:00 into {@code {year, month, day, hour, minute,
+     * second, microsecond}}. Returns {@code null} if the date is out of range.
+     */
+    public static int[] microsecondsToFields(long microseconds) {
+        long seconds = Math.floorDiv(microseconds, MICROSECONDS_PER_SECOND);
+        long ordinal = Math.floorDiv(seconds, SECONDS_PER_DAY) + 1;
+        if (ordinal < 1 || ordinal > MAX_ORDINAL) {
+            return null;
+        }
+        int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+        int[] ymd = ordToYmd((int) ordinal);
+        return new int[]{ymd[0], ymd[1], ymd[2], secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, (int) Math.floorMod(microseconds, MICROSECONDS_PER_SECOND)};
+    }
+
+    public static boolean isValidDelta(long days) {
+        return -MAX_DELTA_DAYS <= days && days <= MAX_DELTA_DAYS;
+    }
+
+    /**
+     * Converts seconds and microseconds to seconds as a double, rounding only once like the true
+     * division of Python ints.
+     */
+    public static double toSeconds(long seconds, long microseconds) {
+        if (Math.abs(seconds) < MAX_EXACT_DOUBLE / MICROSECONDS_PER_SECOND) {
+            long total = seconds * MICROSECONDS_PER_SECOND + microseconds;
+            if (Math.abs(total) < MAX_EXACT_DOUBLE) {
+                return total / 1e6;
+            }
+        }
+        return toSecondsSlowPath(seconds, microseconds);
+    }
+
+    @TruffleBoundary
+    private static double toSecondsSlowPath(long seconds, long microseconds) {
+        BigInteger total = BigInteger.valueOf(seconds).multiply(BigInteger.valueOf(MICROSECONDS_PER_SECOND)).add(BigInteger.valueOf(microseconds));
+        return new BigDecimal(total).divide(MICROSECONDS_PER_SECOND_DECIMAL).doubleValue();
+    }
+
+    /**
+     * Turns a value into a hash, avoiding the reserved value -1.
+     */
+    public static long hash(long value) {
+        return value == -1 ? -2 : value;
+    }
+
+    // local time
+
+    /**
+     * The UTC offset in seconds of the local time zone at the given instant.
+     */
+    @TruffleBoundary
+    public static int getLocalOffset(long epochSecond) {
+        return getLocalZone().getRules().getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    }
+
+    /**
+     * Whether the local time at the given instant is the second occurrence of a repeated wall
+     * time, i.e. whether its {@code fold} is 1.
+     */
+    @TruffleBoundary
+    public static boolean isLocalFold(long epochSecond) {
+        ZoneRules rules = getLocalZone().getRules();
+        ZoneOffset offset = rules.getOffset(Instant.ofEpochSecond(epochSecond));
+        ZoneOffsetTransition transition = rules.getTransition(LocalDateTime.ofEpochSecond(epochSecond, 0, offset));
+        return transition != null && transition.isOverlap() && offset.equals(transition.getOffsetAfter());
+    }
+
+    /**
+     * Converts a local wall time, given as seconds since 1970-01-01T00:00, to seconds since the
+     * epoch. Like CPython, {@code fold} selects the offset before (0) or after (1) a transition
+     * for wall times that are repeated or skipped.
+     */
+    @TruffleBoundary
+    public static long localToEpochSecond(long localSeconds, int fold) {
+        ZoneRules rules = getLocalZone().getRules();
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+        ZoneOffsetTransition transition = rules.getTransition(local);
+        ZoneOffset offset;
+        if (transition == null) {
+            offset = rules.getOffset(local);
+        } else {
+            offset = fold == 0 ? transition.getOffsetBefore() : transition.getOffsetAfter();
+        }
+        return localSeconds - offset.getTotalSeconds();
+    }
+
+    /**
+     * The abbreviated name of the local time zone at the given instant, e.g. {@code CEST}.
+     */
+    @TruffleBoundary
+    public static String getLocalZoneName(long epochSecond) {
+        ZoneId zone = getLocalZone();
+        return ZONE_NAME_FORMATTER.format(Instant.ofEpochSecond(epochSecond).atZone(zone));
+    }
+
+    /**
+     * The current time in microseconds since the epoch.
+     */
+    @TruffleBoundary
+    public static long currentEpochMicroseconds() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * MICROSECONDS_PER_SECOND + now.getNano() / 1000;
+    }
+
+    private static ZoneId getLocalZone() {
+        return PythonLanguage.getContext().getEnv().getTimeZone();
+    }
+
+    // formatting
+
+    static void appendPadded(StringBuilder sb, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(digits);
+    }
+
+    @TruffleBoundary
+    public static String formatDate(int year, int month, int day) {
+        StringBuilder sb = new StringBuilder(10);
+        appendDate(sb, year, month, day);
+        return sb.toString();
+    }
+
+    static void appendDate(StringBuilder sb, int year, int month, int day) {
+        appendPadded(sb, year, 4);
+        sb.append('-');
+        appendPadded(sb, month, 2);
+        sb.append('-');
+        appendPadded(sb, day, 2);
+    }
+
+    /**
+     * Appends the time in the format selected by {@code timespec}. Returns {@code false} if the
+     * timespec is unknown.
+     */
+    static boolean appendTime(StringBuilder sb, int hour, int minute, int second, int microsecond, String timespec) {
+        switch (timespec) {
+            case "auto":
+                appendHhMmSs(sb, hour, minute, second);
+                if (microsecond != 0) {
+                    sb.append('.');
+                    appendPadded(sb, microsecond, 6);
+                }
+                return true;
+            case "hours":
+                appendPadded(sb, hour, 2);
+                return true;
+            case "minutes":
+                appendPadded(sb, hour, 2);
+                sb.append(':');
+                appendPadded(sb, minute, 2);
+                return true;
+            case "seconds":
+                appendHhMmSs(sb, hour, minute, second);
+                return true;
+            case "milliseconds":
+                appendHhMmSs(sb, hour, minute, second);
+                sb.append('.');
+                appendPadded(sb, microsecond / 1000, 3);
+                return true;
+            case "microseconds":
+                appendHhMmSs(sb, hour, minute, second);
+                sb.append('.');
+                appendPadded(sb, microsecond, 6);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void appendHhMmSs(StringBuilder sb, int hour, int minute, int second) {
+        appendPadded(sb, hour, 2);
+        sb.append(':');
+        appendPadded(sb, minute, 2);
+        sb.append(':');
+        appendPadded(sb, second, 2);
+    }
+
+    /**
+     * Appends a UTC offset as {@code +HH<sep>MM[<sep>SS[.ffffff]]}.
+     */
+    static void appendOffset(StringBuilder sb, PTimeDelta offset, String sep) {
+        long seconds = offset.getTotalSeconds();
+        int microseconds = offset.getMicroseconds();
+        if (offset.getDays() < 0) {
+            sb.append('-');
+            // negate the offset, keeping the microseconds non-negative
+            seconds = -seconds;
+            if (microseconds != 0) {
+                seconds--;
+                microseconds = MICROSECONDS_PER_SECOND - microseconds;
+            }
+        } else {
+            sb.append('+');
+        }
+        appendPadded(sb, (int) (seconds / 3600), 2);
+        sb.append(sep);
+        appendPadded(sb, (int) (seconds / 60 % 60), 2);
+        if (seconds % 60 != 0 || microseconds != 0) {
+            sb.append(sep);
+            appendPadded(sb, (int) (seconds % 60), 2);
+            if (microseconds != 0) {
+                sb.append('.');
+                appendPadded(sb, microseconds, 6);
+            }
+        }
+    }
+
+    // parsing
+
+    /**
+     * Parses {@code YYYY-MM-DD} at the start of the string. Returns {@code {year, month, day}} or
+     * {@code null} if the string does not start with a date in that format. The fields are not
+     * validated.
+     */
+    static int[] parseIsoDate(String s) {
+        if (s.length() < 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return null;
+        }
+        int year = parseDigits(s, 0, 4);
+        int month = parseDigits(s, 5, 2);
+        int day = parseDigits(s, 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        return new int[]{year, month, day};
+    }
+
+    /*
+     * Indices into the result of parseIsoTime.
+     */
+    static final int TZ_SIGN = 4;
+    static final int TZ_SECONDS = 5;
+    static final int TZ_MICROSECONDS = 6;
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]][+HH:MM[:SS[.ffffff]]]} from {@code start} to the end
+     * of the string. Returns {@code {hour, minute, second, microsecond, tzSign, tzSeconds,
+     * tzMicroseconds}}, where {@code tzSign} is 0 without a UTC offset, or {@code null} if the
+     * string is malformed. The fields are not validated.
+     */
+    static int[] parseIsoTime(String s, int start) {
+        int end = s.length();
+        int tzPos = start;
+        while (tzPos < end && s.charAt(tzPos) != '+' && s.charAt(tzPos) != '-') {
+            tzPos++;
+        }
+        int[] result = new int[7];
+        if (!parseHhMmSsFf(s, start, tzPos, result)) {
+            return null;
+        }
+        if (tzPos < end) {
+            int tzLength = end - tzPos - 1;
+            if (tzLength != 5 && tzLength != 8 && tzLength != 15) {
+                return null;
+            }
+            int[] tz = new int[4];
+            if (!parseHhMmSsFf(s, tzPos + 1, end, tz)) {
+                return null;
+            }
+            result[TZ_SIGN] = s.charAt(tzPos) == '-' ? -1 : 1;
+            result[TZ_SECONDS] = tz[0] * 3600 + tz[1] * 60 + tz[2];
+            result[TZ_MICROSECONDS] = tz[3];
+        }
+        return result;
+    }
+
+    private static boolean parseHhMmSsFf(String s, int start, int end, int[] result) {
+        int pos = start;
+        for (int i = 0; i < 3; i++) {
+            if (end - pos < 2) {
+                return false;
+            }
+            result[i] = parseDigits(s, pos, 2);
+            if (result[i] < 0) {
+                return false;
+            }
+            pos += 2;
+            if (pos == end || i == 2) {
+                break;
+            }
+            if (s.charAt(pos) != ':') {
+                return false;
+            }
+            pos++;
+        }
+        if (pos < end) {
+            int fractionLength = end - pos - 1;
+            if (s.charAt(pos) != '.' || (fractionLength != 3 && fractionLength != 6)) {
+                return false;
+            }
+            int fraction = parseDigits(s, pos + 1, fractionLength);
+            if (fraction < 0) {
+                return false;
+            }
+            result[3] = fractionLength == 3 ? fraction * 1000 : fraction;
+        }
+        return true;
+    }
+
+    /**
+     * Parses exactly {@code count} ASCII digits, returns -1 if there are other characters.
+     */
+    private static int parseDigits(String s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
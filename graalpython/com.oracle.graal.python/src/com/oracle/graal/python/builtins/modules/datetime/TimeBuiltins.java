@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.GetUtcNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzInfoOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.TzNameNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTime)
+public class TimeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcOffset(VirtualFrame frame, PTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            return offsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            return offsetNode.execute(frame, self.getTzInfo(), PNone.NONE, true);
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TzNameBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzName(VirtualFrame frame, PTime self,
+                        @Cached TzNameNode tzNameNode) {
+            return tzNameNode.execute(frame, self.getTzInfo(), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timespec"})
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String isoFormat(VirtualFrame frame, PTime self, Object timespec,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            String spec;
+            if (PGuards.isNoValue(timespec)) {
+                spec = "auto";
+            } else {
+                try {
+                    spec = castToJavaStringNode.execute(timespec);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "isoformat()", 1, "str", timespec);
+                }
+            }
+            Object offset = offsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+            String result = format(self, spec, offset);
+            if (result == null) {
+                throw raise(ValueError, ErrorMessages.UNKNOWN_TIMESPEC_VALUE);
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        private static String format(PTime self, String timespec, Object offset) {
+            StringBuilder sb = new StringBuilder();
+            if (!DateTimeUtil.appendTime(sb, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), timespec)) {
+                return null;
+            }
+            if (offset instanceof PTimeDelta) {
+                DateTimeUtil.appendOffset(sb, (PTimeDelta) offset, ":");
+            }
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String str(VirtualFrame frame, PTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            return IsoFormatNode.format(self, "auto", offsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false));
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object timeString,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached GetUtcNode getUtcNode,
+                        @Cached IsBuiltinClassProfile isTimeProfile,
+                        @Cached CallNode callNode) {
+            String s;
+            try {
+                s = castToJavaStringNode.execute(timeString);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.FROMISOFORMAT_ARGUMENT_MUST_BE_STR);
+            }
+            int[] time = DateTimeUtil.parseIsoTime(s, 0);
+            if (time == null) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, s);
+            }
+            Object tzinfo = DateTimeNodes.createParsedTzInfo(factory(), getRaiseNode(), getUtcNode, time);
+            if (isTimeProfile.profileClass(cls, PythonBuiltinClassType.PTime)) {
+                DateTimeNodes.checkTimeFields(getRaiseNode(), time[0], time[1], time[2], time[3], 0);
+                return factory().createTime(cls, time[0], time[1], time[2], time[3], tzinfo, 0);
+            }
+            return callNode.execute(frame, cls, new Object[]{time[0], time[1], time[2], time[3], tzinfo}, PKeyword.EMPTY_KEYWORDS);
+        }
+    }
+
+    abstract static class TimeCompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doTime(VirtualFrame frame, PTime self, PTime other,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return compare(compareFields(self, other));
+            }
+            Object offset1 = offsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+            Object offset2 = offsetNode.execute(frame, other.getTzInfo(), PNone.NONE, false);
+            if (offset1 instanceof PTimeDelta && offset2 instanceof PTimeDelta) {
+                return compare(Long.compare(toUtcMicroseconds(self, (PTimeDelta) offset1), toUtcMicroseconds(other, (PTimeDelta) offset2)));
+            } else if (offset1 == offset2) {
+                // both are naive
+                return compare(compareFields(self, other));
+            } else if (isEqualityCheck()) {
+                return compare(1);
+            }
+            throw raise(TypeError, ErrorMessages.CANT_COMPARE_OFFSET_NAIVE_AND_AWARE_S, "times");
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        boolean compare(@SuppressWarnings("unused") int result) {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        boolean isEqualityCheck() {
+            return false;
+        }
+
+        private static int compareFields(PTime self, PTime other) {
+            int result = Integer.compare(self.getSecondOfDay(), other.getSecondOfDay());
+            return result != 0 ? result : Integer.compare(self.getMicrosecond(), other.getMicrosecond());
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends TimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result == 0;
+        }
+
+        @Override
+        boolean isEqualityCheck() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends TimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result != 0;
+        }
+
+        @Override
+        boolean isEqualityCheck() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends TimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends TimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends TimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends TimeCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result >= 0;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(VirtualFrame frame, PTime self,
+                        @Cached TzInfoOffsetNode offsetNode) {
+            Object offset = offsetNode.execute(frame, self.getTzInfo(), PNone.NONE, false);
+            if (offset instanceof PTimeDelta) {
+                return DateTimeUtil.hash(toUtcMicroseconds(self, (PTimeDelta) offset));
+            }
+            return DateTimeUtil.hash(self.getSecondOfDay() * (long) DateTimeUtil.MICROSECONDS_PER_SECOND + self.getMicrosecond());
+        }
+    }
+
+    static long toUtcMicroseconds(PTime self, PTimeDelta offset) {
+        return (self.getSecondOfDay() - offset.getTotalSeconds()) * DateTimeUtil.MICROSECONDS_PER_SECOND + self.getMicrosecond() - offset.getMicroseconds();
+    }
+}
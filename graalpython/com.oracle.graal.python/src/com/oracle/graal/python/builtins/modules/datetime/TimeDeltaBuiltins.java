@@ -0,0 +1,522 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.createTimeDelta;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.toMicroseconds;
+import static com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.toMicrosecondsExact;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ABS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEG__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__POS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__TRUEDIV__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ZeroDivisionError;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTimeDelta)
+public class TimeDeltaBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeDeltaBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "days", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DaysNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getDays();
+        }
+    }
+
+    @Builtin(name = "seconds", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getSeconds();
+        }
+    }
+
+    @Builtin(name = "microseconds", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getMicroseconds();
+        }
+    }
+
+    @Builtin(name = "total_seconds", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TotalSecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static double get(PTimeDelta self) {
+            return DateTimeUtil.toSeconds(self.getTotalSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta add(PTimeDelta self, PTimeDelta other) {
+            return createTimeDelta(factory(), getRaiseNode(), (long) self.getDays() + other.getDays(), (long) self.getSeconds() + other.getSeconds(),
+                            (long) self.getMicroseconds() + other.getMicroseconds());
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta sub(PTimeDelta self, PTimeDelta other) {
+            return createTimeDelta(factory(), getRaiseNode(), (long) self.getDays() - other.getDays(), (long) self.getSeconds() - other.getSeconds(),
+                            (long) self.getMicroseconds() - other.getMicroseconds());
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __NEG__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NegNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta neg(PTimeDelta self) {
+            return createTimeDelta(factory(), getRaiseNode(), -(long) self.getDays(), -self.getSeconds(), -self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __POS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class PosNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta pos(PTimeDelta self) {
+            return createTimeDeltaExact(factory(), self);
+        }
+    }
+
+    @Builtin(name = __ABS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTimeDelta abs(PTimeDelta self) {
+            if (self.getDays() < 0) {
+                return createTimeDelta(factory(), getRaiseNode(), -(long) self.getDays(), -self.getSeconds(), -self.getMicroseconds());
+            }
+            return createTimeDeltaExact(factory(), self);
+        }
+    }
+
+    @Builtin(name = __MUL__, minNumOfPositionalArgs = 2)
+    @Builtin(name = __RMUL__, minNumOfPositionalArgs = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class MulNode extends PythonBinaryBuiltinNode {
+        @Specialization(rewriteOn = ArithmeticException.class)
+        PTimeDelta doLong(PTimeDelta self, long other) {
+            return createTimeDelta(factory(), getRaiseNode(), 0, 0, Math.multiplyExact(toMicrosecondsExact(self), other));
+        }
+
+        @Specialization(replaces = "doLong")
+        PTimeDelta doLongOvf(PTimeDelta self, long other) {
+            return createTimeDelta(factory(), getRaiseNode(), multiply(toMicroseconds(self), BigInteger.valueOf(other)));
+        }
+
+        @Specialization
+        PTimeDelta doPInt(PTimeDelta self, PInt other) {
+            return createTimeDelta(factory(), getRaiseNode(), multiply(toMicroseconds(self), other.getValue()));
+        }
+
+        @Specialization
+        PTimeDelta doDouble(PTimeDelta self, double other) {
+            checkFinite(getRaiseNode(), other);
+            return createTimeDelta(factory(), getRaiseNode(), multiply(toMicroseconds(self), other));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        @TruffleBoundary
+        private static BigInteger multiply(BigInteger microseconds, BigInteger factor) {
+            return microseconds.multiply(factor);
+        }
+
+        @TruffleBoundary
+        private static BigInteger multiply(BigInteger microseconds, double factor) {
+            return new BigDecimal(microseconds).multiply(new BigDecimal(factor)).setScale(0, RoundingMode.HALF_EVEN).toBigIntegerExact();
+        }
+    }
+
+    @Builtin(name = __FLOORDIV__, minNumOfPositionalArgs = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class FloorDivNode extends PythonBinaryBuiltinNode {
+        @Specialization(rewriteOn = ArithmeticException.class)
+        Object doTimeDelta(PTimeDelta self, PTimeDelta other) {
+            long divisor = toMicrosecondsExact(other);
+            checkNonZero(getRaiseNode(), divisor);
+            return Math.floorDiv(toMicrosecondsExact(self), divisor);
+        }
+
+        @Specialization(replaces = "doTimeDelta")
+        Object doTimeDeltaOvf(PTimeDelta self, PTimeDelta other) {
+            BigInteger divisor = toMicroseconds(other);
+            checkNonZero(getRaiseNode(), divisor.signum());
+            return factory().createInt(DateTimeNodes.floorDivMod(toMicroseconds(self), divisor)[0]);
+        }
+
+        @Specialization(rewriteOn = ArithmeticException.class)
+        PTimeDelta doLong(PTimeDelta self, long other) {
+            checkNonZero(getRaiseNode(), other);
+            return createTimeDelta(factory(), getRaiseNode(), 0, 0, Math.floorDiv(toMicrosecondsExact(self), other));
+        }
+
+        @Specialization(replaces = "doLong")
+        PTimeDelta doLongOvf(PTimeDelta self, long other) {
+            checkNonZero(getRaiseNode(), other);
+            return createTimeDelta(factory(), getRaiseNode(), DateTimeNodes.floorDivMod(toMicroseconds(self), BigInteger.valueOf(other))[0]);
+        }
+
+        @Specialization
+        PTimeDelta doPInt(PTimeDelta self, PInt other) {
+            checkNonZero(getRaiseNode(), other.isZero() ? 0 : 1);
+            return createTimeDelta(factory(), getRaiseNode(), DateTimeNodes.floorDivMod(toMicroseconds(self), other.getValue())[0]);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __TRUEDIV__, minNumOfPositionalArgs = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class TrueDivNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        double doTimeDelta(PTimeDelta self, PTimeDelta other) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            try {
+                long dividend = toMicrosecondsExact(self);
+                long divisor = toMicrosecondsExact(other);
+                if (isExactDouble(dividend) && isExactDouble(divisor)) {
+                    return (double) dividend / divisor;
+                }
+            } catch (ArithmeticException e) {
+                // fall through
+            }
+            return divide(toMicroseconds(self), toMicroseconds(other));
+        }
+
+        @Specialization
+        PTimeDelta doLong(PTimeDelta self, long other) {
+            checkNonZero(getRaiseNode(), other);
+            return createTimeDelta(factory(), getRaiseNode(), divideAndRound(toMicroseconds(self), new BigDecimal(other)));
+        }
+
+        @Specialization
+        PTimeDelta doPInt(PTimeDelta self, PInt other) {
+            checkNonZero(getRaiseNode(), other.isZero() ? 0 : 1);
+            return createTimeDelta(factory(), getRaiseNode(), divideAndRound(toMicroseconds(self), new BigDecimal(other.getValue())));
+        }
+
+        @Specialization
+        PTimeDelta doDouble(PTimeDelta self, double other) {
+            checkFinite(getRaiseNode(), other);
+            if (other == 0.0) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            return createTimeDelta(factory(), getRaiseNode(), divideAndRound(toMicroseconds(self), new BigDecimal(other)));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        private static boolean isExactDouble(long value) {
+            return Math.abs(value) <= (1L << 53);
+        }
+
+        @TruffleBoundary
+        private static double divide(BigInteger dividend, BigInteger divisor) {
+            return new BigDecimal(dividend).divide(new BigDecimal(divisor), MathContext.DECIMAL128).doubleValue();
+        }
+
+        @TruffleBoundary
+        private static BigInteger divideAndRound(BigInteger dividend, BigDecimal divisor) {
+            return new BigDecimal(dividend).divide(divisor, 0, RoundingMode.HALF_EVEN).toBigIntegerExact();
+        }
+    }
+
+    @Builtin(name = __MOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ModNode extends PythonBinaryBuiltinNode {
+        @Specialization(rewriteOn = ArithmeticException.class)
+        PTimeDelta doTimeDelta(PTimeDelta self, PTimeDelta other) {
+            long divisor = toMicrosecondsExact(other);
+            checkNonZero(getRaiseNode(), divisor);
+            return createTimeDelta(factory(), getRaiseNode(), 0, 0, Math.floorMod(toMicrosecondsExact(self), divisor));
+        }
+
+        @Specialization(replaces = "doTimeDelta")
+        PTimeDelta doTimeDeltaOvf(PTimeDelta self, PTimeDelta other) {
+            BigInteger divisor = toMicroseconds(other);
+            checkNonZero(getRaiseNode(), divisor.signum());
+            return createTimeDelta(factory(), getRaiseNode(), DateTimeNodes.floorDivMod(toMicroseconds(self), divisor)[1]);
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __DIVMOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object doTimeDelta(PTimeDelta self, PTimeDelta other) {
+            BigInteger divisor = toMicroseconds(other);
+            checkNonZero(getRaiseNode(), divisor.signum());
+            BigInteger[] result = DateTimeNodes.floorDivMod(toMicroseconds(self), divisor);
+            return factory().createTuple(new Object[]{factory().createInt(result[0]), createTimeDelta(factory(), getRaiseNode(), result[1])});
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    abstract static class TimeDeltaCompareNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean doTimeDelta(PTimeDelta self, PTimeDelta other) {
+            return compare(self.compareTo(other));
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        boolean compare(@SuppressWarnings("unused") int result) {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends TimeDeltaCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result == 0;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends TimeDeltaCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result != 0;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends TimeDeltaCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result < 0;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends TimeDeltaCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result <= 0;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends TimeDeltaCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result > 0;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends TimeDeltaCompareNode {
+        @Override
+        boolean compare(int result) {
+            return result >= 0;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PTimeDelta self) {
+            return DateTimeUtil.hash(self.getTotalSeconds() * 1000003L + self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = __BOOL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BoolNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean bool(PTimeDelta self) {
+            return !self.isZero();
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String str(PTimeDelta self) {
+            return format(self);
+        }
+
+        @TruffleBoundary
+        static String format(PTimeDelta self) {
+            StringBuilder sb = new StringBuilder();
+            int days = self.getDays();
+            if (days != 0) {
+                sb.append(days).append(Math.abs(days) == 1 ? " day, " : " days, ");
+            }
+            int seconds = self.getSeconds();
+            sb.append(seconds / 3600).append(':');
+            DateTimeUtil.appendPadded(sb, seconds / 60 % 60, 2);
+            sb.append(':');
+            DateTimeUtil.appendPadded(sb, seconds % 60, 2);
+            if (self.getMicroseconds() != 0) {
+                sb.append('.');
+                DateTimeUtil.appendPadded(sb, self.getMicroseconds(), 6);
+            }
+            return sb.toString();
+        }
+    }
+
+    static void checkNonZero(PRaiseNode raiseNode, long divisor) {
+        if (divisor == 0) {
+            throw raiseNode.raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+        }
+    }
+
+    static void checkFinite(PRaiseNode raiseNode, double value) {
+        if (Double.isNaN(value)) {
+            throw raiseNode.raise(ValueError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "NaN");
+        } else if (Double.isInfinite(value)) {
+            throw raiseNode.raise(OverflowError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "Infinity");
+        }
+    }
+
+    static PTimeDelta createTimeDeltaExact(PythonObjectFactory factory, PTimeDelta self) {
+        return factory.createTimeDelta(PythonBuiltinClassType.PTimeDelta, self.getDays(), self.getSeconds(), self.getMicroseconds());
+    }
+}
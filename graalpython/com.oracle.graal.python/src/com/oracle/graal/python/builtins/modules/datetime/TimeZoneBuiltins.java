@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeNodes.AddToDateTimeNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTimeZone)
+public class TimeZoneBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeZoneBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * The name of the time zone, {@code UTC} for the zero offset or {@code UTC+HH:MM} for other
+     * offsets unless a name was given explicitly.
+     */
+    @TruffleBoundary
+    static String getTzName(PTimeZone self) {
+        if (self.getName() != null) {
+            return self.getName();
+        }
+        if (self.getOffset().isZero()) {
+            return "UTC";
+        }
+        StringBuilder sb = new StringBuilder("UTC");
+        DateTimeUtil.appendOffset(sb, self.getOffset(), ":");
+        return sb.toString();
+    }
+
+    abstract static class TimeZoneDateTimeArgNode extends PythonBinaryBuiltinNode {
+        void checkArgument(Object dt, String method) {
+            if (!(dt instanceof PDateTime) && !PGuards.isNone(dt)) {
+                throw raise(TypeError, ErrorMessages.S_DT_ARGUMENT_MUST_BE_A_DATETIME_INSTANCE_OR_NONE_NOT_P, method, dt);
+            }
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends TimeZoneDateTimeArgNode {
+        @Specialization
+        Object utcOffset(PTimeZone self, Object dt) {
+            checkArgument(dt, "utcoffset");
+            return self.getOffset();
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DstNode extends TimeZoneDateTimeArgNode {
+        @Specialization
+        Object dst(@SuppressWarnings("unused") PTimeZone self, Object dt) {
+            checkArgument(dt, "dst");
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends TimeZoneDateTimeArgNode {
+        @Specialization
+        Object tzName(PTimeZone self, Object dt) {
+            checkArgument(dt, "tzname");
+            return getTzName(self);
+        }
+    }
+
+    @Builtin(name = __STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String str(PTimeZone self) {
+            return getTzName(self);
+        }
+    }
+
+    @Builtin(name = "fromutc", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class FromUtcNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromUtc(VirtualFrame frame, PTimeZone self, PDateTime dt,
+                        @Cached AddToDateTimeNode addNode) {
+            if (dt.getTzInfo() != self) {
+                throw raise(ValueError, ErrorMessages.FROMUTC_DT_TZINFO_IS_NOT_SELF);
+            }
+            return addNode.execute(frame, dt, self.getOffset(), false);
+        }
+
+        @Fallback
+        Object fromUtc(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(TypeError, ErrorMessages.FROMUTC_ARGUMENT_MUST_BE_A_DATETIME);
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean eq(PTimeZone self, PTimeZone other) {
+            return self.getOffset().compareTo(other.getOffset()) == 0;
+        }
+
+        @Fallback
+        static Object doOther(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PTimeZone self) {
+            return TimeDeltaBuiltins.HashNode.hash(self.getOffset());
+        }
+    }
+
+    @Builtin(name = "__getinitargs__", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetInitArgsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object getInitArgs(PTimeZone self) {
+            if (self.getName() == null) {
+                return factory().createTuple(new Object[]{self.getOffset()});
+            }
+            return factory().createTuple(new Object[]{self.getOffset(), self.getName()});
+        }
+    }
+}
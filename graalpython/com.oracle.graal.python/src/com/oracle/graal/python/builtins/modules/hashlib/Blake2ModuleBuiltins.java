@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.security.MessageDigest;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(defineModule = "_blake2")
+public class Blake2ModuleBuiltins extends PythonBuiltins {
+
+    private static final long MAX_LEAF_SIZE = 0xFFFFFFFFL;
+    private static final long MAX_BLAKE2S_NODE_OFFSET = 0xFFFFFFFFFFFFL;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return Blake2ModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(PythonCore core) {
+        builtinConstants.put("BLAKE2B_SALT_SIZE", Blake2bDigest.SALT_SIZE);
+        builtinConstants.put("BLAKE2B_PERSON_SIZE", Blake2bDigest.PERSON_SIZE);
+        builtinConstants.put("BLAKE2B_MAX_KEY_SIZE", Blake2bDigest.MAX_KEY_SIZE);
+        builtinConstants.put("BLAKE2B_MAX_DIGEST_SIZE", Blake2bDigest.MAX_DIGEST_SIZE);
+        builtinConstants.put("BLAKE2S_SALT_SIZE", Blake2sDigest.SALT_SIZE);
+        builtinConstants.put("BLAKE2S_PERSON_SIZE", Blake2sDigest.PERSON_SIZE);
+        builtinConstants.put("BLAKE2S_MAX_KEY_SIZE", Blake2sDigest.MAX_KEY_SIZE);
+        builtinConstants.put("BLAKE2S_MAX_DIGEST_SIZE", Blake2sDigest.MAX_DIGEST_SIZE);
+        // like in CPython, the limits are also available on the types themselves
+        setLimits(core.lookupType(PythonBuiltinClassType.PBlake2b), Blake2bDigest.SALT_SIZE, Blake2bDigest.PERSON_SIZE, Blake2bDigest.MAX_KEY_SIZE, Blake2bDigest.MAX_DIGEST_SIZE);
+        setLimits(core.lookupType(PythonBuiltinClassType.PBlake2s), Blake2sDigest.SALT_SIZE, Blake2sDigest.PERSON_SIZE, Blake2sDigest.MAX_KEY_SIZE, Blake2sDigest.MAX_DIGEST_SIZE);
+        super.initialize(core);
+    }
+
+    private static void setLimits(PythonBuiltinClass type, int saltSize, int personSize, int maxKeySize, int maxDigestSize) {
+        type.setAttribute("SALT_SIZE", saltSize);
+        type.setAttribute("PERSON_SIZE", personSize);
+        type.setAttribute("MAX_KEY_SIZE", maxKeySize);
+        type.setAttribute("MAX_DIGEST_SIZE", maxDigestSize);
+    }
+
+    abstract static class Blake2NewNode extends PythonClinicBuiltinNode {
+        @Child private HashlibNodes.UpdateNode updateNode;
+
+        protected final PHashObject createHash(Object cls, String name, int blockSize, MessageDigest digest, Object data) {
+            PHashObject hash = factory().createHash(cls, name, blockSize, digest);
+            if (!(data instanceof PNone)) {
+                if (updateNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    updateNode = insert(HashlibNodesFactory.UpdateNodeGen.create());
+                }
+                updateNode.execute(hash, data);
+            }
+            return hash;
+        }
+
+        protected final void checkParameters(int digestSize, int maxDigestSize, int fanout, int depth, int nodeDepth, int innerSize) {
+            if (digestSize < 1 || digestSize > maxDigestSize) {
+                throw raise(ValueError, ErrorMessages.DIGEST_SIZE_MUST_BE_BETWEEN_1_AND_D_BYTES, maxDigestSize);
+            }
+            if (fanout < 0 || fanout > 255) {
+                throw raise(ValueError, ErrorMessages.FANOUT_MUST_BE_BETWEEN_0_AND_255);
+            }
+            if (depth < 1 || depth > 255) {
+                throw raise(ValueError, ErrorMessages.DEPTH_MUST_BE_BETWEEN_1_AND_255);
+            }
+            if (nodeDepth < 0 || nodeDepth > 255) {
+                throw raise(ValueError, ErrorMessages.NODE_DEPTH_MUST_BE_BETWEEN_0_AND_255);
+            }
+            if (innerSize < 0 || innerSize > maxDigestSize) {
+                throw raise(ValueError, ErrorMessages.INNER_SIZE_MUST_BE_BETWEEN_0_AND_D, maxDigestSize);
+            }
+        }
+
+        protected final byte[] toBytes(Object value, int maxLength, String errorMessage, PythonObjectLibrary lib) {
+            if (value instanceof PNone) {
+                return PythonUtils.EMPTY_BYTE_ARRAY;
+            }
+            if (!lib.isBuffer(value)) {
+                throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, value);
+            }
+            byte[] bytes;
+            try {
+                bytes = lib.getBufferBytes(value);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+            if (bytes.length > maxLength) {
+                throw raise(ValueError, errorMessage, maxLength);
+            }
+            return bytes;
+        }
+
+        protected final long toUnsigned(VirtualFrame frame, Object value, long max, String errorMessage, PythonObjectLibrary lib) {
+            if (value instanceof PNone) {
+                return 0;
+            }
+            long result = lib.asJavaLong(value, frame);
+            if (result < 0 || result > max) {
+                throw raise(OverflowError, errorMessage);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = "blake2b", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "data"}, numOfPositionalOnlyArgs = 2, keywordOnlyNames = {"digest_size", "key", "salt", "person", "fanout", "depth", "leaf_size",
+                    "node_offset", "node_depth", "inner_size", "last_node"}, constructsClass = PythonBuiltinClassType.PBlake2b)
+    @ArgumentClinic(name = "digest_size", conversion = ClinicConversion.Int, defaultValue = "64")
+    @ArgumentClinic(name = "fanout", conversion = ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "depth", conversion = ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "node_depth", conversion = ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "inner_size", conversion = ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "last_node", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class Blake2bNode extends Blake2NewNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Blake2ModuleBuiltinsClinicProviders.Blake2bNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PHashObject blake2b(VirtualFrame frame, Object cls, Object data, int digestSize, Object key, Object salt, Object person, int fanout, int depth, Object leafSize, Object nodeOffset,
+                        int nodeDepth, int innerSize, boolean lastNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            checkParameters(digestSize, Blake2bDigest.MAX_DIGEST_SIZE, fanout, depth, nodeDepth, innerSize);
+            byte[] keyBytes = toBytes(key, Blake2bDigest.MAX_KEY_SIZE, ErrorMessages.MAXIMUM_KEY_LENGTH_IS_D_BYTES, lib);
+            byte[] saltBytes = toBytes(salt, Blake2bDigest.SALT_SIZE, ErrorMessages.MAXIMUM_SALT_LENGTH_IS_D_BYTES, lib);
+            byte[] personBytes = toBytes(person, Blake2bDigest.PERSON_SIZE, ErrorMessages.MAXIMUM_PERSON_LENGTH_IS_D_BYTES, lib);
+            long leaf = toUnsigned(frame, leafSize, MAX_LEAF_SIZE, ErrorMessages.LEAF_SIZE_IS_TOO_LARGE, lib);
+            long offset = toUnsigned(frame, nodeOffset, Long.MAX_VALUE, ErrorMessages.NODE_OFFSET_IS_TOO_LARGE, lib);
+            MessageDigest digest = createDigest(digestSize, keyBytes, saltBytes, personBytes, fanout, depth, leaf, offset, nodeDepth, innerSize, lastNode);
+            return createHash(cls, "blake2b", Blake2bDigest.BLOCK_SIZE, digest, data);
+        }
+
+        @TruffleBoundary
+        private static MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize,
+                        boolean lastNode) {
+            return new Blake2bDigest(digestSize, key, salt, person, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+        }
+    }
+
+    @Builtin(name = "blake2s", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "data"}, numOfPositionalOnlyArgs = 2, keywordOnlyNames = {"digest_size", "key", "salt", "person", "fanout", "depth", "leaf_size",
+                    "node_offset", "node_depth", "inner_size", "last_node"}, constructsClass = PythonBuiltinClassType.PBlake2s)
+    @ArgumentClinic(name = "digest_size", conversion = ClinicConversion.Int, defaultValue = "32")
+    @ArgumentClinic(name = "fanout", conversion = ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "depth", conversion = ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "node_depth", conversion = ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "inner_size", conversion = ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "last_node", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class Blake2sNode extends Blake2NewNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Blake2ModuleBuiltinsClinicProviders.Blake2sNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PHashObject blake2s(VirtualFrame frame, Object cls, Object data, int digestSize, Object key, Object salt, Object person, int fanout, int depth, Object leafSize, Object nodeOffset,
+                        int nodeDepth, int innerSize, boolean lastNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            checkParameters(digestSize, Blake2sDigest.MAX_DIGEST_SIZE, fanout, depth, nodeDepth, innerSize);
+            byte[] keyBytes = toBytes(key, Blake2sDigest.MAX_KEY_SIZE, ErrorMessages.MAXIMUM_KEY_LENGTH_IS_D_BYTES, lib);
+            byte[] saltBytes = toBytes(salt, Blake2sDigest.SALT_SIZE, ErrorMessages.MAXIMUM_SALT_LENGTH_IS_D_BYTES, lib);
+            byte[] personBytes = toBytes(person, Blake2sDigest.PERSON_SIZE, ErrorMessages.MAXIMUM_PERSON_LENGTH_IS_D_BYTES, lib);
+            long leaf = toUnsigned(frame, leafSize, MAX_LEAF_SIZE, ErrorMessages.LEAF_SIZE_IS_TOO_LARGE, lib);
+            long offset = toUnsigned(frame, nodeOffset, MAX_BLAKE2S_NODE_OFFSET, ErrorMessages.NODE_OFFSET_IS_TOO_LARGE, lib);
+            MessageDigest digest = createDigest(digestSize, keyBytes, saltBytes, personBytes, fanout, depth, leaf, offset, nodeDepth, innerSize, lastNode);
+            return createHash(cls, "blake2s", Blake2sDigest.BLOCK_SIZE, digest, data);
+        }
+
+        @TruffleBoundary
+        private static MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize,
+                        boolean lastNode) {
+            return new Blake2sDigest(digestSize, key, salt, person, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+        }
+    }
+}
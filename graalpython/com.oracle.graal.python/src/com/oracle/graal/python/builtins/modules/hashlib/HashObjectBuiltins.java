@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PHash)
+public class HashObjectBuiltins extends PythonBuiltins {
+
+    /* Same limit as CPython's SHAKE implementation. */
+    private static final int MAX_XOF_LENGTH = 1 << 29;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HashObjectBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "update", minNumOfPositionalArgs = 2, parameterNames = {"$self", "data"})
+    @GenerateNodeFactory
+    abstract static class UpdateNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone update(PHashObject self, Object data,
+                        @Cached HashlibNodes.UpdateNode updateNode) {
+            updateNode.execute(self, data);
+            return PNone.NONE;
+        }
+    }
+
+    abstract static class BaseDigestNode extends PythonBinaryBuiltinNode {
+
+        byte[] digest(String name, PHashObject self) {
+            if (self.isExtendableOutput()) {
+                throw raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, name, "length", 1);
+            }
+            return self.digest();
+        }
+
+        byte[] digest(VirtualFrame frame, String name, PHashObject self, Object length, PythonObjectLibrary lib) {
+            if (!self.isExtendableOutput()) {
+                throw raise(TypeError, ErrorMessages.TAKES_NO_POSITIONAL_ARGS, name);
+            }
+            int len = lib.asSizeWithFrame(length, OverflowError, frame);
+            if (len < 0 || len >= MAX_XOF_LENGTH) {
+                throw raise(ValueError, ErrorMessages.LENGTH_IS_TOO_LARGE);
+            }
+            return self.digest(len);
+        }
+    }
+
+    @Builtin(name = "digest", minNumOfPositionalArgs = 1, parameterNames = {"$self", "length"})
+    @GenerateNodeFactory
+    abstract static class DigestNode extends BaseDigestNode {
+        @Specialization
+        PBytes digestNoLength(PHashObject self, @SuppressWarnings("unused") PNone length) {
+            return factory().createBytes(digest("digest", self));
+        }
+
+        @Specialization(guards = "!isPNone(length)", limit = "1")
+        PBytes digestWithLength(VirtualFrame frame, PHashObject self, Object length,
+                        @CachedLibrary("length") PythonObjectLibrary lib) {
+            return factory().createBytes(digest(frame, "digest", self, length, lib));
+        }
+    }
+
+    @Builtin(name = "hexdigest", minNumOfPositionalArgs = 1, parameterNames = {"$self", "length"})
+    @GenerateNodeFactory
+    abstract static class HexDigestNode extends BaseDigestNode {
+        @Specialization
+        String hexdigestNoLength(PHashObject self, @SuppressWarnings("unused") PNone length) {
+            return toHex(digest("hexdigest", self));
+        }
+
+        @Specialization(guards = "!isPNone(length)", limit = "1")
+        String hexdigestWithLength(VirtualFrame frame, PHashObject self, Object length,
+                        @CachedLibrary("length") PythonObjectLibrary lib) {
+            return toHex(digest(frame, "hexdigest", self, length, lib));
+        }
+
+        @TruffleBoundary
+        private static String toHex(byte[] bytes) {
+            char[] hex = new char[bytes.length * 2];
+            for (int i = 0; i < bytes.length; i++) {
+                hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+            }
+            return new String(hex);
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization(limit = "1")
+        PHashObject copy(PHashObject self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            return factory().createHash(lib.getLazyPythonClass(self), self.getName(), self.getBlockSize(), self.copyDigest());
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String name(PHashObject self) {
+            return self.getName();
+        }
+    }
+
+    @Builtin(name = "digest_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DigestSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int digestSize(PHashObject self) {
+            return self.getDigestSize();
+        }
+    }
+
+    @Builtin(name = "block_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class BlockSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int blockSize(PHashObject self) {
+            return self.getBlockSize();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.array.PArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+public class HashlibNodes {
+
+    @TruffleBoundary
+    public static MessageDigest getMessageDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    /**
+     * Base class for the module level constructors, which create an object of the builtin
+     * {@code HASH} type and feed the optional initial data into it.
+     */
+    public abstract static class NewHashNode extends PythonUnaryBuiltinNode {
+        @Child private UpdateNode updateNode;
+
+        protected final PHashObject createHash(String name, int blockSize, MessageDigest digest, Object data) {
+            PHashObject hash = factory().createHash(PythonBuiltinClassType.PHash, name, blockSize, digest);
+            if (!(data instanceof PNone)) {
+                if (updateNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    updateNode = insert(HashlibNodesFactory.UpdateNodeGen.create());
+                }
+                updateNode.execute(hash, data);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Feeds an object supporting the buffer protocol into a hash object. Bytes, bytearrays,
+     * arrays, mmaps and contiguous memoryviews of those are hashed in place. Only other buffers
+     * are copied first.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class UpdateNode extends PNodeWithRaise {
+
+        public abstract void execute(PHashObject self, Object data);
+
+        @Specialization
+        static void doBytes(PHashObject self, PBytesLike data,
+                        @Shared("range") @Cached UpdateRangeNode updateRangeNode,
+                        @Cached SequenceStorageNodes.LenNode lenNode) {
+            updateRangeNode.execute(self, data, 0, lenNode.execute(data.getSequenceStorage()));
+        }
+
+        @Specialization
+        static void doArray(PHashObject self, PArray data,
+                        @Shared("range") @Cached UpdateRangeNode updateRangeNode) {
+            updateRangeNode.execute(self, data, 0, (long) data.getLength() * data.getFormat().bytesize);
+        }
+
+        @Specialization
+        static void doMMap(PHashObject self, PMMap data,
+                        @Shared("range") @Cached UpdateRangeNode updateRangeNode) {
+            updateRangeNode.execute(self, data, 0, data.getLength());
+        }
+
+        @Specialization(guards = "isInPlace(data)")
+        void doMemoryView(PHashObject self, PMemoryView data,
+                        @Shared("range") @Cached UpdateRangeNode updateRangeNode) {
+            data.checkReleased(this);
+            updateRangeNode.execute(self, data.getOwner(), data.getOffset(), data.getLength());
+        }
+
+        @Specialization(guards = {"!isString(data)", "!isInPlace(data)"}, limit = "3")
+        void doBuffer(PHashObject self, Object data,
+                        @CachedLibrary("data") PythonObjectLibrary bufferLib) {
+            if (!bufferLib.isBuffer(data)) {
+                throw raise(TypeError, ErrorMessages.OBJ_SUPPORTING_BUFFER_API_REQUIRED);
+            }
+            byte[] bytes;
+            try {
+                bytes = bufferLib.getBufferBytes(data);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+            self.update(bytes, 0, bytes.length);
+        }
+
+        @Specialization(guards = "isString(data)")
+        void doString(@SuppressWarnings("unused") PHashObject self, @SuppressWarnings("unused") Object data) {
+            throw raise(TypeError, ErrorMessages.UNICODE_OBJ_MUST_BE_ENCODED_BEFORE_HASHING);
+        }
+
+        static boolean isInPlace(Object data) {
+            if (data instanceof PBytesLike || data instanceof PArray || data instanceof PMMap) {
+                return true;
+            }
+            if (data instanceof PMemoryView) {
+                PMemoryView mv = (PMemoryView) data;
+                Object owner = mv.getOwner();
+                return mv.getBufferPointer() == null && mv.isCContiguous() && (owner instanceof PBytesLike || owner instanceof PArray || owner instanceof PMMap);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Hashes the bytes {@code [offset, offset + len)} of a managed buffer without copying them.
+     */
+    public abstract static class UpdateRangeNode extends PNodeWithRaise {
+
+        public abstract void execute(PHashObject self, Object buffer, long offset, long len);
+
+        @Specialization
+        static void doBytes(PHashObject self, PBytesLike buffer, long offset, long len,
+                        @Cached SequenceStorageNodes.GetInternalByteArrayNode getInternalByteArrayNode) {
+            self.update(getInternalByteArrayNode.execute(buffer.getSequenceStorage()), (int) offset, (int) len);
+        }
+
+        @Specialization
+        static void doArray(PHashObject self, PArray buffer, long offset, long len) {
+            self.update(buffer.getBuffer(), (int) offset, (int) len);
+        }
+
+        @Specialization
+        void doMMap(PHashObject self, PMMap buffer, long offset, long len) {
+            if (buffer.isClosed()) {
+                throw raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+            buffer.forEachReadOnlyView(offset, len, self::update);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Keccak sponge used for the SHA-3 and SHAKE functions (FIPS 202). Implemented here rather than
+ * through {@link MessageDigest#getInstance} because the JDK only ships SHA-3 from version 9 on and
+ * does not provide the extendable-output SHAKE variants at all.
+ */
+public final class KeccakDigest extends MessageDigest implements Cloneable {
+
+    private static final byte SHA3_SUFFIX = 0x06;
+    private static final byte SHAKE_SUFFIX = 0x1f;
+
+    private static final long[] ROUND_CONSTANTS = {
+                    0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+                    0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+                    0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+                    0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+                    0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+                    0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+    private static final int[] ROTATIONS = {1, 3, 6, 10, 15, 21, 28, 36, 45, 55, 2, 14, 27, 41, 56, 8, 25, 43, 62, 18, 39, 61, 20, 44};
+    private static final int[] PI_LANES = {10, 7, 11, 17, 18, 3, 5, 16, 8, 21, 24, 4, 15, 23, 19, 13, 12, 2, 20, 14, 22, 9, 6, 1};
+
+    private final int capacityBits;
+    private final int rateBytes;
+    private final int digestLength;
+    private final byte suffix;
+
+    private long[] state = new long[25];
+    private int position;
+
+    private KeccakDigest(String algorithm, int capacityBits, int digestLength, byte suffix) {
+        super(algorithm);
+        this.capacityBits = capacityBits;
+        this.rateBytes = (1600 - capacityBits) / 8;
+        this.digestLength = digestLength;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Creates a SHA-3 digest producing {@code bits} bits of output.
+     */
+    @TruffleBoundary
+    public static KeccakDigest sha3(int bits) {
+        return new KeccakDigest("SHA3-" + bits, 2 * bits, bits / 8, SHA3_SUFFIX);
+    }
+
+    /**
+     * Creates a SHAKE digest with a security strength of {@code bits} bits. The output length is
+     * chosen per call of {@link #squeeze(int)}.
+     */
+    @TruffleBoundary
+    public static KeccakDigest shake(int bits) {
+        return new KeccakDigest("SHAKE" + bits, 2 * bits, 0, SHAKE_SUFFIX);
+    }
+
+    public boolean isExtendableOutput() {
+        return suffix == SHAKE_SUFFIX;
+    }
+
+    public int getCapacityBits() {
+        return capacityBits;
+    }
+
+    public int getRateBits() {
+        return rateBytes * 8;
+    }
+
+    public int getSuffix() {
+        return suffix;
+    }
+
+    public int getBlockSize() {
+        return rateBytes;
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return digestLength;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        absorb(input);
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        int i = offset;
+        int end = offset + len;
+        while (i < end) {
+            if ((position & 7) == 0 && end - i >= 8) {
+                // absorb whole lanes at once when aligned
+                while (position < rateBytes && end - i >= 8) {
+                    state[position >>> 3] ^= getLongLE(input, i);
+                    position += 8;
+                    i += 8;
+                }
+                if (position == rateBytes) {
+                    permute(state);
+                    position = 0;
+                }
+            } else {
+                absorb(input[i++]);
+            }
+        }
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        byte[] result = squeeze(digestLength);
+        engineReset();
+        return result;
+    }
+
+    /**
+     * Pads the absorbed input and squeezes {@code length} bytes of output. The sponge is left in
+     * the squeezed state, so callers that want to continue updating must squeeze a {@link #clone()
+     * copy}.
+     */
+    public byte[] squeeze(int length) {
+        state[position >>> 3] ^= (suffix & 0xffL) << ((position & 7) << 3);
+        state[(rateBytes - 1) >>> 3] ^= 0x80L << (((rateBytes - 1) & 7) << 3);
+        permute(state);
+        byte[] out = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int n = Math.min(rateBytes, length - offset);
+            for (int i = 0; i < n; i++) {
+                out[offset + i] = (byte) (state[i >>> 3] >>> ((i & 7) << 3));
+            }
+            offset += n;
+            if (offset < length) {
+                permute(state);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    protected void engineReset() {
+        state = new long[25];
+        position = 0;
+    }
+
+    @Override
+    public KeccakDigest clone() throws CloneNotSupportedException {
+        KeccakDigest copy = (KeccakDigest) super.clone();
+        copy.state = state.clone();
+        return copy;
+    }
+
+    private void absorb(byte b) {
+        state[position >>> 3] ^= (b & 0xffL) << ((position & 7) << 3);
+        if (++position == rateBytes) {
+            permute(state);
+            position = 0;
+        }
+    }
+
+    private static long getLongLE(byte[] b, int offset) {
+        return (b[offset] & 0xffL) | (b[offset + 1] & 0xffL) << 8 | (b[offset + 2] & 0xffL) << 16 | (b[offset + 3] & 0xffL) << 24 |
+                        (b[offset + 4] & 0xffL) << 32 | (b[offset + 5] & 0xffL) << 40 | (b[offset + 6] & 0xffL) << 48 | (b[offset + 7] & 0xffL) << 56;
+    }
+
+    private static void permute(long[] st) {
+        long[] bc = new long[5];
+        for (int round = 0; round < 24; round++) {
+            // theta
+            for (int i = 0; i < 5; i++) {
+                bc[i] = st[i] ^ st[i + 5] ^ st[i + 10] ^ st[i + 15] ^ st[i + 20];
+            }
+            for (int i = 0; i < 5; i++) {
+                long t = bc[(i + 4) % 5] ^ Long.rotateLeft(bc[(i + 1) % 5], 1);
+                for (int j = 0; j < 25; j += 5) {
+                    st[j + i] ^= t;
+                }
+            }
+            // rho and pi
+            long t = st[1];
+            for (int i = 0; i < 24; i++) {
+                int j = PI_LANES[i];
+                long tmp = st[j];
+                st[j] = Long.rotateLeft(t, ROTATIONS[i]);
+                t = tmp;
+            }
+            // chi
+            for (int j = 0; j < 25; j += 5) {
+                for (int i = 0; i < 5; i++) {
+                    bc[i] = st[j + i];
+                }
+                for (int i = 0; i < 5; i++) {
+                    st[j + i] ^= ~bc[(i + 1) % 5] & bc[(i + 2) % 5];
+                }
+            }
+            // iota
+            st[0] ^= ROUND_CONSTANTS[round];
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A hash object as returned by the {@code _md5}, {@code _sha*} and {@code _blake2} modules. The
+ * state is kept in a {@link MessageDigest} that is only ever accessed while holding the object's
+ * monitor, so distinct hash objects can be updated from several threads in parallel.
+ */
+public final class PHashObject extends PythonBuiltinObject {
+
+    private final String name;
+    private final int blockSize;
+    private final MessageDigest digest;
+
+    public PHashObject(Object cls, Shape instanceShape, String name, int blockSize, MessageDigest digest) {
+        super(cls, instanceShape);
+        this.name = name;
+        this.blockSize = blockSize;
+        this.digest = digest;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @TruffleBoundary
+    public int getDigestSize() {
+        return digest.getDigestLength();
+    }
+
+    public boolean isExtendableOutput() {
+        return digest instanceof KeccakDigest && ((KeccakDigest) digest).isExtendableOutput();
+    }
+
+    public KeccakDigest getKeccakDigest() {
+        return digest instanceof KeccakDigest ? (KeccakDigest) digest : null;
+    }
+
+    @TruffleBoundary
+    public void update(byte[] data, int offset, int len) {
+        synchronized (this) {
+            digest.update(data, offset, len);
+        }
+    }
+
+    @TruffleBoundary
+    public void update(ByteBuffer data) {
+        synchronized (this) {
+            digest.update(data);
+        }
+    }
+
+    /**
+     * Finalizes a copy of the current state, so that the object can still be updated afterwards.
+     */
+    @TruffleBoundary
+    public byte[] digest() {
+        return copyDigest().digest();
+    }
+
+    /**
+     * Squeezes {@code length} bytes from a copy of an extendable-output (SHAKE) state.
+     */
+    @TruffleBoundary
+    public byte[] digest(int length) {
+        return ((KeccakDigest) copyDigest()).squeeze(length);
+    }
+
+    @TruffleBoundary
+    public MessageDigest copyDigest() {
+        synchronized (this) {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(defineModule = "_sha3")
+public class SHA3ModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SHA3ModuleBuiltinsFactory.getFactories();
+    }
+
+    abstract static class NewKeccakNode extends HashlibNodes.NewHashNode {
+        protected final PHashObject createKeccak(String name, KeccakDigest digest, Object data) {
+            return createHash(name, digest.getBlockSize(), digest, data);
+        }
+    }
+
+    @Builtin(name = "sha3_224", parameterNames = {"data"})
+    @GenerateNodeFactory
+    abstract static class SHA3_224Node extends NewKeccakNode {
+        @Specialization
+        PHashObject create(Object data) {
+            return createKeccak("sha3_224", KeccakDigest.sha3(224), data);
+        }
+    }
+
+    @Builtin(name = "sha3_256", parameterNames = {"data"})
+    @GenerateNodeFactory
+    abstract static class SHA3_256Node extends NewKeccakNode {
+        @Specialization
+        PHashObject create(Object data) {
+            return createKeccak("sha3_256", KeccakDigest.sha3(256), data);
+        }
+    }
+
+    @Builtin(name = "sha3_384", parameterNames = {"data"})
+    @GenerateNodeFactory
+    abstract static class SHA3_384Node extends NewKeccakNode {
+        @Specialization
+        PHashObject create(Object data) {
+            return createKeccak("sha3_384", KeccakDigest.sha3(384), data);
+        }
+    }
+
+    @Builtin(name = "sha3_512", parameterNames = {"data"})
+    @GenerateNodeFactory
+    abstract static class SHA3_512Node extends NewKeccakNode {
+        @Specialization
+        PHashObject create(Object data) {
+            return createKeccak("sha3_512", KeccakDigest.sha3(512), data);
+        }
+    }
+
+    @Builtin(name = "shake_128", parameterNames = {"data"})
+    @GenerateNodeFactory
+    abstract static class Shake128Node extends NewKeccakNode {
+        @Specialization
+        PHashObject create(Object data) {
+            return createKeccak("shake_128", KeccakDigest.shake(128), data);
+        }
+    }
+
+    @Builtin(name = "shake_256", parameterNames = {"data"})
+    @GenerateNodeFactory
+    abstract static class Shake256Node extends NewKeccakNode {
+        @Specialization
+        PHashObject create(Object data) {
+            return createKeccak("shake_256", KeccakDigest.shake(256), data);
+        }
+    }
+}
@@ -40,6 +40,7 @@
  */
 package com.oracle.graal.python.builtins.modules.io;
 
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PFileIO;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CUR;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_SET;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.append;
@@ -48,6 +49,7 @@ import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.rawOffs
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.readahead;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.safeDowncast;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.toByteArray;
+import static com.oracle.graal.python.nodes.ErrorMessages.BUF_SIZE_POS;
 import static com.oracle.graal.python.nodes.ErrorMessages.CANNOT_FIT_P_IN_OFFSET_SIZE;
 import static com.oracle.graal.python.nodes.ErrorMessages.IO_STREAM_INVALID_POS;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
@@ -57,16 +59,24 @@ import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
@@ -104,7 +114,7 @@ public class BufferedIONodes {
             return true;
         }
 
-        @Specialization(guards = {"self.getBuffer() == null", "!self.isFastClosedChecks()"}, limit = "2")
+        @Specialization(guards = {"self.getBuffer() != null", "!self.isFastClosedChecks()"}, limit = "2")
         boolean isClosedBuffered(VirtualFrame frame, PBuffered self,
                         @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
                         @CachedLibrary(limit = "2") PythonObjectLibrary isTrue) {
@@ -115,10 +125,7 @@ public class BufferedIONodes {
         @SuppressWarnings("unused")
         @Specialization(guards = {"self.getBuffer() != null", "self.isFastClosedChecks()"})
         boolean isClosedFileIO(VirtualFrame frame, PBuffered self) {
-            // XXX: self.fastClosedChecks is always `false`, i.e. disabled, until FileIO is
-            // implemented.
-            // TODO: check when FileIO is implemented
-            return true;
+            return ((PFileIO) self.getRaw()).isClosed();
         }
 
         @SuppressWarnings("unused")
@@ -144,7 +151,7 @@ public class BufferedIONodes {
                         @Cached PRaiseNode raiseNode,
                         @Cached IsSeekableNode isSeekableNode,
                         @Cached ConditionProfile isError) {
-            if (isError.profile(!isSeekableNode.execute(frame, self))) {
+            if (isError.profile(!isSeekableNode.isBufferSeekable(frame, self))) {
                 throw raiseNode.raise(PythonBuiltinClassType.ValueError, message);
             }
             return true;
@@ -153,14 +160,18 @@ public class BufferedIONodes {
 
     abstract static class IsSeekableNode extends PNodeWithContext {
 
-        public abstract boolean execute(VirtualFrame frame, PBuffered self);
+        public abstract boolean execute(VirtualFrame frame, Object raw);
+
+        public boolean isBufferSeekable(VirtualFrame frame, PBuffered self) {
+            assert self.isOK();
+            return execute(frame, self.getRaw());
+        }
 
         @Specialization(limit = "2")
-        boolean isSeekable(VirtualFrame frame, PBuffered self,
-                        @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
+        boolean isSeekable(VirtualFrame frame, Object raw,
+                        @CachedLibrary("raw") PythonObjectLibrary libRaw,
                         @CachedLibrary(limit = "1") PythonObjectLibrary isTrue) {
-            assert self.isOK();
-            Object res = libRaw.lookupAndCallRegularMethod(self.getRaw(), frame, "seekable");
+            Object res = libRaw.lookupAndCallRegularMethod(raw, frame, "seekable");
             return isTrue.isTrue(res, frame);
         }
     }
@@ -189,18 +200,131 @@ public class BufferedIONodes {
 
     abstract static class IsWritableNode extends PNodeWithContext {
 
-        public abstract boolean execute(VirtualFrame frame, PBuffered self);
+        public abstract boolean execute(VirtualFrame frame, Object raw);
+
+        public boolean isBufferWritable(VirtualFrame frame, PBuffered self) {
+            assert self.isOK();
+            return execute(frame, self.getRaw());
+        }
 
         @Specialization(limit = "2")
-        boolean isWritable(VirtualFrame frame, PBuffered self,
-                        @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
+        boolean isWritable(VirtualFrame frame, Object raw,
+                        @CachedLibrary("raw") PythonObjectLibrary libRaw,
                         @CachedLibrary(limit = "1") PythonObjectLibrary isTrue) {
-            assert self.isOK();
-            Object res = libRaw.lookupAndCallRegularMethod(self.getRaw(), frame, "writable");
+            Object res = libRaw.lookupAndCallRegularMethod(raw, frame, "writable");
             return isTrue.isTrue(res, frame);
         }
     }
 
+    /**
+     * implementation of cpython/Modules/_io/bufferedio.c:_buffered_init, together with the
+     * resetting of the read and write buffers that the initializers of BufferedReader,
+     * BufferedWriter and BufferedRandom do after it.
+     */
+    abstract static class BufferedInitNode extends PNodeWithContext {
+
+        public abstract void execute(VirtualFrame frame, PBuffered self, Object raw, int bufferSize);
+
+        @Specialization(guards = "bufferSize > 0", limit = "2")
+        static void bufferedInit(VirtualFrame frame, PBuffered self, Object raw, int bufferSize,
+                        @Cached PRaiseNode raise,
+                        @CachedLibrary("raw") PythonObjectLibrary libRaw,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary asSize,
+                        @Cached IsBuiltinClassProfile isBuiltinBuffered,
+                        @Cached IsBuiltinClassProfile isFileIO,
+                        @Cached ConditionProfile profile) {
+            self.setOK(false);
+            self.setDetached(false);
+            self.setRaw(raw);
+            self.initBuffer(bufferSize);
+            int n;
+            for (n = bufferSize - 1; (n & 1) != 0; n >>= 1) {
+            }
+            int mask = n == 0 ? bufferSize - 1 : 0;
+            self.setBufferMask(mask);
+            int absPos = getRawTell(frame, raw, libRaw, asSize);
+            if (profile.profile(absPos < 0)) {
+                throw raise.raise(OSError, IO_STREAM_INVALID_POS, absPos);
+            }
+            self.setAbsPos(absPos);
+            if (self.isReadable()) {
+                self.resetRead(); // _bufferedreader_reset_buf
+            }
+            if (self.isWritable()) {
+                self.resetWrite(); // _bufferedwriter_reset_buf
+                self.setPos(0);
+            }
+            self.setFastClosedChecks(isBuiltinBuffered.profileIsAnyBuiltinObject(self) && isFileIO.profileObject(raw, PFileIO));
+            self.setOK(true);
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "bufferSize <= 0")
+        static void bufferSizeError(VirtualFrame frame, PBuffered self, Object raw, int bufferSize,
+                        @Cached PRaiseNode raise) {
+            throw raise.raise(ValueError, BUF_SIZE_POS);
+        }
+
+        private static int getRawTell(VirtualFrame frame, Object raw,
+                        PythonObjectLibrary callTell,
+                        PythonObjectLibrary asSize) {
+            int n = 0;
+            Object res = null;
+            try {
+                res = callTell.lookupAndCallRegularMethod(raw, frame, "tell");
+            } catch (PException e) {
+                // pass through.
+                // (mq) 'tell' is not a reqirement if it is not supported for `raw` input.
+                // clear error?
+            }
+            if (res != null) {
+                n = asSize.asSize(res, ValueError);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Gets the contents of a bytes-like object that is about to be written. For {@code bytes},
+     * {@code bytearray} and {@code array.array} this is the backing array itself, so no copy is
+     * made, but the array may be longer than the object: the number of valid bytes has to be taken
+     * from {@link PythonObjectLibrary#getBufferLength}. Other buffers are copied.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class GetBufferBytesNode extends PNodeWithContext {
+
+        public abstract byte[] execute(Object buffer);
+
+        protected static boolean isByteSequenceStorage(PBytesLike bytes) {
+            return bytes.getSequenceStorage() instanceof ByteSequenceStorage;
+        }
+
+        protected static boolean isSimple(Object bytes) {
+            return bytes instanceof PBytesLike && isByteSequenceStorage((PBytesLike) bytes);
+        }
+
+        @Specialization(guards = "isByteSequenceStorage(bytes)")
+        static byte[] doBytes(PBytesLike bytes,
+                        @Cached SequenceStorageNodes.GetInternalArrayNode internalArray) {
+            return (byte[]) internalArray.execute(bytes.getSequenceStorage());
+        }
+
+        @Specialization
+        static byte[] doArray(PArray array) {
+            return array.getBuffer();
+        }
+
+        @Specialization(guards = {"!isSimple(buffer)", "!isArray(buffer)"}, limit = "2")
+        static byte[] doGeneric(Object buffer,
+                        @CachedLibrary("buffer") PythonObjectLibrary lib) {
+            try {
+                return lib.getBufferBytes(buffer);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
     @ImportStatic(PGuards.class)
     abstract static class AsOffNumberNode extends PNodeWithContext {
 
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedRWPair;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedReader;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedWriter;
+import static com.oracle.graal.python.builtins.modules.io.IOModuleBuiltins.raiseUnsupported;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_OR_STREAM_IS_NOT_READABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_OR_STREAM_IS_NOT_WRITABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_UNINIT;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * A BufferedRWPair is a BufferedReader and a BufferedWriter over two different raw streams. Like
+ * in CPython, the methods are forwarded to the two buffered objects by name.
+ */
+@CoreFunctions(extendClasses = PBufferedRWPair)
+public class BufferedRWPairBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BufferedRWPairBuiltinsFactory.getFactories();
+    }
+
+    protected static final int DEFAULT_BUFFER_SIZE = IOModuleBuiltins.DEFAULT_BUFFER_SIZE;
+
+    static PBuffered getReader(PythonBuiltinBaseNode node, PRWPair self) {
+        if (self.getReader() == null) {
+            throw node.raise(ValueError, IO_UNINIT);
+        }
+        return self.getReader();
+    }
+
+    static PBuffered getWriter(PythonBuiltinBaseNode node, PRWPair self) {
+        if (self.getWriter() == null) {
+            throw node.raise(ValueError, IO_UNINIT);
+        }
+        return self.getWriter();
+    }
+
+    static Object forward(VirtualFrame frame, PythonObjectLibrary lib, PBuffered target, String name, Object arg) {
+        if (arg == PNone.NO_VALUE) {
+            return lib.lookupAndCallRegularMethod(target, frame, name);
+        }
+        return lib.lookupAndCallRegularMethod(target, frame, name, arg);
+    }
+
+    // BufferedRWPair(reader, writer[, buffer_size=DEFAULT_BUFFER_SIZE])
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 3, parameterNames = {"$self", "$reader", "$writer", "buffer_size"})
+    @ArgumentClinic(name = "buffer_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedRWPairBuiltins.DEFAULT_BUFFER_SIZE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BufferedRWPairBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        public PNone doInit(VirtualFrame frame, PRWPair self, Object reader, Object writer, int bufferSize,
+                        @Cached BufferedIONodes.IsReadableNode isReadableNode,
+                        @Cached BufferedIONodes.IsWritableNode isWritableNode,
+                        @Cached BufferedIONodes.BufferedInitNode initReaderNode,
+                        @Cached BufferedIONodes.BufferedInitNode initWriterNode) {
+            if (!isReadableNode.execute(frame, reader)) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), FILE_OR_STREAM_IS_NOT_READABLE);
+            }
+            if (!isWritableNode.execute(frame, writer)) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), FILE_OR_STREAM_IS_NOT_WRITABLE);
+            }
+            PBuffered bufferedReader = factory().createBufferedReader(PBufferedReader);
+            initReaderNode.execute(frame, bufferedReader, reader, bufferSize);
+            PBuffered bufferedWriter = factory().createBufferWriter(PBufferedWriter);
+            initWriterNode.execute(frame, bufferedWriter, writer, bufferSize);
+            self.setReader(bufferedReader);
+            self.setWriter(bufferedWriter);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class ReadNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        Object forward(VirtualFrame frame, PRWPair self, Object arg,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            return BufferedRWPairBuiltins.forward(frame, lib, getReader(this, self), getMethodName(), arg);
+        }
+
+        protected String getMethodName() {
+            return "read";
+        }
+    }
+
+    @Builtin(name = "peek", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class PeekNode extends ReadNode {
+        @Override
+        protected String getMethodName() {
+            return "peek";
+        }
+    }
+
+    @Builtin(name = "read1", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class Read1Node extends ReadNode {
+        @Override
+        protected String getMethodName() {
+            return "read1";
+        }
+    }
+
+    @Builtin(name = "readinto", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReadIntoNode extends ReadNode {
+        @Override
+        protected String getMethodName() {
+            return "readinto";
+        }
+    }
+
+    @Builtin(name = "readinto1", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReadInto1Node extends ReadNode {
+        @Override
+        protected String getMethodName() {
+            return "readinto1";
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WriteNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object write(VirtualFrame frame, PRWPair self, Object b,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(getWriter(this, self), frame, "write", b);
+        }
+    }
+
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FlushNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object flush(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(getWriter(this, self), frame, "flush");
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object readable(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(getReader(this, self), frame, "readable");
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object writable(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(getWriter(this, self), frame, "writable");
+        }
+    }
+
+    @Builtin(name = "isatty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsAttyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object isatty(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary isTrue) {
+            Object res = lib.lookupAndCallRegularMethod(getWriter(this, self), frame, "isatty");
+            if (isTrue.isTrue(res, frame)) {
+                return res;
+            }
+            return lib.lookupAndCallRegularMethod(getReader(this, self), frame, "isatty");
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object close(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            PException writerError = null;
+            try {
+                lib.lookupAndCallRegularMethod(getWriter(this, self), frame, "close");
+            } catch (PException e) {
+                writerError = e;
+            }
+            // the reader is closed even if closing the writer failed
+            Object res = lib.lookupAndCallRegularMethod(getReader(this, self), frame, "close");
+            if (writerError != null) {
+                throw writerError;
+            }
+            return res;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object closed(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            return lib.lookupAttributeStrict(getWriter(this, self), frame, "closed");
+        }
+    }
+}
@@ -62,6 +62,7 @@ import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.attributes.LookupAttributeInMRONode;
 import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
@@ -80,8 +81,30 @@ public class BufferedReaderNodes {
 
         public abstract byte[] execute(VirtualFrame frame, PBuffered self, int len);
 
+        /*
+         * A BufferedReader directly over a FileIO reads the descriptor without going through
+         * FileIO.read and the resulting bytes object.
+         */
+        @Specialization(guards = "self.isFastClosedChecks()")
+        static byte[] fileIO(VirtualFrame frame, PBuffered self, int len,
+                        @Cached FileIONodes.ReadNode readNode) {
+            Buffer result = readNode.execute(frame, (PFileIO) self.getRaw(), len);
+            // a non-blocking descriptor without available data reads as empty
+            int n = result == null ? 0 : (int) result.length;
+            if (n > 0 && self.getAbsPos() != -1) {
+                self.incAbsPos(n);
+            }
+            if (n == 0) {
+                return PythonUtils.EMPTY_BYTE_ARRAY;
+            }
+            if (n < result.data.length) {
+                return Arrays.copyOf(result.data, n);
+            }
+            return result.data;
+        }
+
         // This might be more efficient
-        @Specialization(limit = "2")
+        @Specialization(guards = "!self.isFastClosedChecks()", limit = "2")
         static byte[] fastWay(VirtualFrame frame, PBuffered self, int len,
                         @Cached PRaiseNode raise,
                         @Cached BytesNodes.ToBytesNode toBytes,
@@ -399,6 +422,42 @@ public class BufferedReaderNodes {
 
     }
 
+    /**
+     * implementation of cpython/Modules/_io/bufferedio.c:_io__Buffered_read1_impl
+     */
+    abstract static class Read1Node extends PNodeWithContext {
+
+        public abstract byte[] execute(VirtualFrame frame, PBuffered self, int size);
+
+        @Specialization
+        static byte[] bufferedRead1(VirtualFrame frame, PBuffered self, int size,
+                        @Cached RawReadNode rawReadNode,
+                        @Cached BufferedIONodes.FlushAndRewindUnlockedNode flushAndRewindUnlockedNode) {
+            int n = size;
+            if (n < 0) {
+                n = self.getBufferSize();
+            }
+
+            if (n == 0) {
+                return PythonUtils.EMPTY_BYTE_ARRAY;
+            }
+            /*- Return up to n bytes.  If at least one byte is buffered, we
+               only return buffered bytes.  Otherwise, we do one raw read. */
+
+            int have = safeDowncast(self);
+            if (have > 0) {
+                n = have < n ? have : n;
+                return ReadNode.bufferedreaderReadFast(self, n);
+            }
+            /* Flush the write buffer if necessary */
+            if (self.isWritable()) {
+                flushAndRewindUnlockedNode.execute(frame, self);
+            }
+            self.resetRead(); // _bufferedreader_reset_buf
+            return rawReadNode.execute(frame, self, n);
+        }
+    }
+
     abstract static class ReadintoNode extends PNodeWithContext {
 
         public abstract int execute(VirtualFrame frame, PBuffered self, Object buf, int bufLen, boolean isReadInto1);
@@ -41,17 +41,19 @@
 package com.oracle.graal.python.builtins.modules.io;
 
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CUR;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.isValidReadBuffer;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.isValidWriteBuffer;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.rawOffset;
 import static com.oracle.graal.python.nodes.ErrorMessages.IO_S_INVALID_LENGTH;
+import static com.oracle.graal.python.nodes.ErrorMessages.WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
-import java.util.Arrays;
-
-import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
 import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -60,40 +62,63 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 public class BufferedWriterNodes {
 
     abstract static class RawWriteNode extends PNodeWithContext {
 
-        public abstract byte[] execute(VirtualFrame frame, PBuffered self, int len);
+        /**
+         * Writes {@code len} bytes of {@code buf} starting at {@code off} to the raw stream and
+         * returns the number of bytes written, or {@code -2} if the raw stream is non-blocking and
+         * could not accept any data.
+         */
+        public abstract int execute(VirtualFrame frame, PBuffered self, byte[] buf, int off, int len);
+
+        /*
+         * A builtin buffered object directly over a FileIO writes to the descriptor without
+         * wrapping the data in a bytes object and calling FileIO.write.
+         */
+        @Specialization(guards = "self.isFastClosedChecks()")
+        static int fileIO(VirtualFrame frame, PBuffered self, byte[] buf, int off, int len,
+                        @Cached FileIONodes.WriteNode writeNode) {
+            long n = writeNode.execute(frame, (PFileIO) self.getRaw(), buf, off, len);
+            if (n == -1) {
+                return -2;
+            }
+            if (n > 0 && self.getAbsPos() != -1) {
+                self.incAbsPos(n);
+            }
+            return (int) n;
+        }
 
         /**
          * implementation of cpython/Modules/_io/bufferedio.c:_bufferedwriter_raw_write
          */
-        @Specialization(limit = "2")
-        static byte[] bufferedwriterRawWrite(VirtualFrame frame, PBuffered self, int len,
+        @Specialization(guards = "!self.isFastClosedChecks()", limit = "2")
+        static int bufferedwriterRawWrite(VirtualFrame frame, PBuffered self, byte[] buf, int off, int len,
                         @Cached PythonObjectFactory factory,
                         @Cached PRaiseNode raise,
-                        @Cached BytesNodes.ToBytesNode toBytes,
                         @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
-                        @CachedLibrary(limit = "1") PythonObjectLibrary asSize) {
-            PBytes memobj = factory.createBytes(new byte[len]);
+                        @CachedLibrary(limit = "1") PythonObjectLibrary asSize,
+                        @Cached ConditionProfile osError) {
+            // (mq) CPython passes a memoryview of the buffer, we pass a bytes copy of the range
+            PBytes memobj = factory.createBytes(buf, off, len);
             Object res = libRaw.lookupAndCallRegularMethod(self.getRaw(), frame, "write", memobj);
+            if (res == PNone.NONE) {
+                /*
+                 * Non-blocking stream would have blocked. Special return code!
+                 */
+                return -2;
+            }
             int n = asSize.asSize(res, ValueError);
-            if (n < 0 || n > len) {
+            if (osError.profile(n < 0 || n > len)) {
                 throw raise.raise(OSError, IO_S_INVALID_LENGTH, "write()", n, len);
             }
             if (n > 0 && self.getAbsPos() != -1) {
                 self.incAbsPos(n);
             }
-            if (n == 0) {
-                return PythonUtils.EMPTY_BYTE_ARRAY;
-            }
-            byte[] bytes = toBytes.execute(memobj);
-            if (n < len) {
-                return Arrays.copyOf(bytes, n);
-            }
-            return bytes;
+            return n;
         }
     }
 
@@ -107,7 +132,8 @@ public class BufferedWriterNodes {
         @Specialization
         protected static void bufferedwriterFlushUnlocked(VirtualFrame frame, PBuffered self,
                         @Cached RawWriteNode rawWriteNode,
-                        @Cached BufferedIONodes.RawSeekNode rawSeekNode) {
+                        @Cached BufferedIONodes.RawSeekNode rawSeekNode,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode) {
             if (!isValidWriteBuffer(self) || self.getWritePos() == self.getWriteEnd()) {
                 self.resetWrite(); // _bufferedwriter_reset_buf
                 return;
@@ -119,10 +145,10 @@ public class BufferedWriterNodes {
                 self.incRawPos(-rewind);
             }
             while (self.getWritePos() < self.getWriteEnd()) {
-                int w = self.getWriteEnd() - self.getWritePos();
-                byte[] fill = rawWriteNode.execute(frame, self, w);
-                int n = fill.length;
-                PythonUtils.arraycopy(fill, 0, self.getBuffer(), self.getWritePos(), n);
+                int n = rawWriteNode.execute(frame, self, self.getBuffer(), self.getWritePos(), self.getWriteEnd() - self.getWritePos());
+                if (n == -2) {
+                    throw constructAndRaiseNode.raiseOSError(frame, OSErrorEnum.EAGAIN.getNumber(), WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING, null, null);
+                }
                 self.incWritePos(n);
                 self.setRawPos(self.getWritePos());
                 /*- Partial writes can return successfully when interrupted by a
@@ -152,4 +178,89 @@ public class BufferedWriterNodes {
         }
 
     }
+
+    abstract static class WriteNode extends PNodeWithContext {
+
+        /**
+         * Writes the first {@code len} bytes of {@code data}. Small writes are only copied into
+         * the buffer and reach the raw stream together with the next flush; writes larger than the
+         * buffer go to the raw stream directly from {@code data}.
+         */
+        public abstract int execute(VirtualFrame frame, PBuffered self, byte[] data, int len);
+
+        /**
+         * implementation of cpython/Modules/_io/bufferedio.c:_io_BufferedWriter_write_impl
+         */
+        @Specialization
+        static int bufferedwriterWrite(VirtualFrame frame, PBuffered self, byte[] data, int len,
+                        @Cached RawWriteNode rawWriteNode,
+                        @Cached FlushUnlockedNode flushUnlockedNode,
+                        @Cached BufferedIONodes.RawSeekNode rawSeekNode,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode,
+                        @Cached ConditionProfile fastPath) {
+            /* Fast path: the data to write can be fully buffered. */
+            if (!isValidReadBuffer(self) && !isValidWriteBuffer(self)) {
+                self.setPos(0);
+                self.setRawPos(0);
+            }
+            int avail = self.getBufferSize() - self.getPos();
+            if (fastPath.profile(len <= avail)) {
+                PythonUtils.arraycopy(data, 0, self.getBuffer(), self.getPos(), len);
+                if (!isValidWriteBuffer(self) || self.getWritePos() > self.getPos()) {
+                    self.setWritePos(self.getPos());
+                }
+                self.adjustPosition(self.getPos() + len);
+                if (self.getPos() > self.getWriteEnd()) {
+                    self.setWriteEnd(self.getPos());
+                }
+                return len;
+            }
+
+            /*
+             * First write the current buffer. (mq) CPython shifts the buffer and keeps as much of
+             * the data as fits if the raw stream is non-blocking; we let the BlockingIOError of
+             * the flush propagate instead.
+             */
+            flushUnlockedNode.execute(frame, self);
+
+            /*
+             * Adjust the raw stream position if it is away from the logical stream position. This
+             * happens if the read buffer has been filled but not modified (and therefore
+             * _bufferedwriter_flush_unlocked() didn't rewind the raw stream by itself).
+             */
+            long offset = rawOffset(self);
+            if (offset != 0) {
+                rawSeekNode.execute(frame, self, -offset, SEEK_CUR);
+                self.incRawPos(-offset);
+            }
+
+            /* Then write buf itself. At this point the buffer has been emptied. */
+            int remaining = len;
+            int written = 0;
+            while (remaining > self.getBufferSize()) {
+                int n = rawWriteNode.execute(frame, self, data, written, len - written);
+                if (n == -2) {
+                    /* Can't buffer everything, still buffer as much as possible */
+                    PythonUtils.arraycopy(data, written, self.getBuffer(), 0, self.getBufferSize());
+                    self.setRawPos(0);
+                    self.adjustPosition(self.getBufferSize());
+                    self.setWriteEnd(self.getBufferSize());
+                    throw constructAndRaiseNode.raiseOSError(frame, OSErrorEnum.EAGAIN.getNumber(), WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING, null, null);
+                }
+                written += n;
+                remaining -= n;
+            }
+            if (self.isReadable()) {
+                self.resetRead(); // _bufferedreader_reset_buf
+            }
+            if (remaining > 0) {
+                PythonUtils.arraycopy(data, written, self.getBuffer(), 0, remaining);
+            }
+            self.setWritePos(0);
+            self.setWriteEnd(remaining);
+            self.adjustPosition(remaining);
+            self.setRawPos(0);
+            return len;
+        }
+    }
 }
@@ -0,0 +1,603 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBytes;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBytesIO;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.append;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.asArray;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.createList;
+import static com.oracle.graal.python.nodes.ErrorMessages.BYTESLIKE_OBJ_REQUIRED;
+import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_WHENCE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_CLOSED;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SEEK_VALUE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SIZE_VALUE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEW_BUFFER_SIZE_TOO_LARGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEW_POSITION_TOO_LARGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.POSITION_VALUE_CANNOT_BE_NEGATIVE;
+import static com.oracle.graal.python.nodes.ErrorMessages.SETSTATE_ARGUMENT_SHOULD_BE_D_TUPLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.S_ITEM_OF_STATE_MUST_BE_AN_INTEGER;
+import static com.oracle.graal.python.nodes.ErrorMessages.S_ITEM_OF_STATE_SHOULD_BE_A_DICT;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETSTATE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETSTATE__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PBytesIO)
+public class BytesIOBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BytesIOBuiltinsFactory.getFactories();
+    }
+
+    static PException closedError(PRaiseNode raiseNode) {
+        throw raiseNode.raise(ValueError, IO_CLOSED);
+    }
+
+    abstract static class PythonUnaryWithClosedErrorBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(@SuppressWarnings("unused") PBytesIO self) {
+            throw BytesIOBuiltins.closedError(getRaiseNode());
+        }
+    }
+
+    abstract static class PythonBinaryWithClosedErrorBuiltinNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(@SuppressWarnings("unused") PBytesIO self, @SuppressWarnings("unused") Object o) {
+            throw BytesIOBuiltins.closedError(getRaiseNode());
+        }
+    }
+
+    abstract static class PythonBinaryWithClosedErrorClinicBuiltinNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(@SuppressWarnings("unused") PBytesIO self, @SuppressWarnings("unused") Object o) {
+            throw BytesIOBuiltins.closedError(getRaiseNode());
+        }
+    }
+
+    /**
+     * Writes {@code data[0:len]} at the current position, extending the stream (with zeros if the
+     * position is after the end) as needed.
+     */
+    static int writeBytes(PBytesIO self, byte[] data, int len, PRaiseNode raiseNode) {
+        if (len == 0) {
+            return 0;
+        }
+        int pos = self.getPos();
+        int endPos;
+        try {
+            endPos = PythonUtils.addExact(pos, len);
+        } catch (OverflowException e) {
+            throw raiseNode.raise(OverflowError, NEW_BUFFER_SIZE_TOO_LARGE);
+        }
+        byte[] bytes = self.prepareWrite(endPos);
+        PythonUtils.arraycopy(data, 0, bytes, pos, len);
+        self.setPos(endPos);
+        return len;
+    }
+
+    /**
+     * Reads up to {@code size} bytes (everything if negative) from the current position. Reading
+     * the whole stream shares its storage with the result instead of copying it.
+     */
+    static PBytes readBytes(PBytesIO self, int size, PythonObjectFactory factory) {
+        int n = self.getRemaining();
+        if (size >= 0 && size < n) {
+            n = size;
+        }
+        if (n == 0) {
+            return factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+        }
+        int pos = self.getPos();
+        self.setPos(pos + n);
+        if (pos == 0 && n == self.getStringSize()) {
+            ByteSequenceStorage shared = self.shareBuf();
+            if (shared != null) {
+                return factory.createBytes(shared);
+            }
+        }
+        return factory.createBytes((byte[]) self.getBuf().getInternalArrayObject(), pos, n);
+    }
+
+    /**
+     * Returns the length of the line starting at the current position, including the {@code '\n'}
+     * and limited to {@code limit} bytes if that is not negative.
+     */
+    static int scanEOL(PBytesIO self, int limit) {
+        int maxLen = self.getRemaining();
+        if (limit >= 0 && limit < maxLen) {
+            maxLen = limit;
+        }
+        byte[] bytes = (byte[]) self.getBuf().getInternalArrayObject();
+        int start = self.getPos();
+        for (int i = 0; i < maxLen; i++) {
+            if (bytes[start + i] == '\n') {
+                return i + 1;
+            }
+        }
+        return maxLen;
+    }
+
+    static PBytes readline(PBytesIO self, int limit, PythonObjectFactory factory) {
+        return readBytes(self, scanEOL(self, limit), factory);
+    }
+
+    // BytesIO(initial_bytes=b'')
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "initial_bytes"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isPNone(initialBytes)")
+        static PNone init(PBytesIO self, @SuppressWarnings("unused") Object initialBytes) {
+            self.reset();
+            return PNone.NONE;
+        }
+
+        /*
+         * An exact bytes object is immutable, so its storage is shared until the first
+         * modification.
+         */
+        @Specialization(guards = "isBytesWithByteStorage(initialBytes)")
+        PNone initShared(PBytesIO self, PBytes initialBytes,
+                        @Cached IsBuiltinClassProfile isBytes,
+                        @Cached BufferedIONodes.GetBufferBytesNode getBufferBytesNode) {
+            if (isBytes.profileObject(initialBytes, PBytes)) {
+                self.reset();
+                self.setSharedBuf((ByteSequenceStorage) initialBytes.getSequenceStorage());
+            } else {
+                self.reset();
+                writeBytes(self, getBufferBytesNode.execute(initialBytes), initialBytes.getSequenceStorage().length(), getRaiseNode());
+                self.setPos(0);
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = {"!isPNone(initialBytes)", "!isBytesWithByteStorage(initialBytes)"}, limit = "2")
+        PNone initGeneric(PBytesIO self, Object initialBytes,
+                        @CachedLibrary("initialBytes") PythonObjectLibrary bufferLib,
+                        @Cached BufferedIONodes.GetBufferBytesNode getBufferBytesNode) {
+            if (!bufferLib.isBuffer(initialBytes)) {
+                throw raise(TypeError, BYTESLIKE_OBJ_REQUIRED, initialBytes);
+            }
+            self.reset();
+            writeBytes(self, getBufferBytesNode.execute(initialBytes), getBufferLength(bufferLib, initialBytes), getRaiseNode());
+            self.setPos(0);
+            return PNone.NONE;
+        }
+
+        protected static boolean isBytesWithByteStorage(Object o) {
+            return o instanceof PBytes && ((PBytes) o).getSequenceStorage() instanceof ByteSequenceStorage;
+        }
+    }
+
+    static int getBufferLength(PythonObjectLibrary bufferLib, Object buffer) {
+        try {
+            return bufferLib.getBufferLength(buffer);
+        } catch (UnsupportedMessageException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @Builtin(name = "getvalue", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetValueNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        PBytes getvalue(PBytesIO self) {
+            ByteSequenceStorage shared = self.shareBuf();
+            if (shared != null) {
+                return factory().createBytes(shared);
+            }
+            return factory().createBytes((byte[]) self.getBuf().getInternalArrayObject(), 0, self.getStringSize());
+        }
+    }
+
+    @Builtin(name = "getbuffer", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetBufferNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        /*
+         * The view writes directly into the stream's storage through a bytearray that shares it.
+         */
+        @Specialization(guards = "!self.isClosed()")
+        PMemoryView getbuffer(PBytesIO self) {
+            self.prepareWrite(0);
+            PMemoryView view = factory().createMemoryViewForManagedObject(factory().createByteArray(self.getBuf()), 1, self.getStringSize(), false, "B");
+            self.addExport(view);
+            return view;
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadNode extends PythonBinaryWithClosedErrorClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.ReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        PBytes read(PBytesIO self, int size) {
+            return readBytes(self, size, factory());
+        }
+    }
+
+    @Builtin(name = "read1", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class Read1Node extends PythonBinaryWithClosedErrorClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.Read1NodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        PBytes read1(PBytesIO self, int size) {
+            return readBytes(self, size, factory());
+        }
+    }
+
+    @Builtin(name = "readline", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlineNode extends PythonBinaryWithClosedErrorClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.ReadlineNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        PBytes readline(PBytesIO self, int size) {
+            return BytesIOBuiltins.readline(self, size, factory());
+        }
+    }
+
+    @Builtin(name = "readlines", minNumOfPositionalArgs = 1, parameterNames = {"$self", "hint"})
+    @ArgumentClinic(name = "hint", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlinesNode extends PythonBinaryWithClosedErrorClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.ReadlinesNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        Object readlines(PBytesIO self, int hint) {
+            ArrayList<Object> lines = createList();
+            int total = 0;
+            int n;
+            while ((n = scanEOL(self, -1)) != 0) {
+                append(lines, readBytes(self, n, factory()));
+                total += n;
+                if (hint > 0 && total >= hint) {
+                    break;
+                }
+            }
+            return factory().createList(asArray(lines));
+        }
+    }
+
+    @Builtin(name = "readinto", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReadIntoNode extends PythonBinaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()", limit = "2")
+        int readinto(VirtualFrame frame, PBytesIO self, Object buffer,
+                        @CachedLibrary("buffer") PythonObjectLibrary bufferLib,
+                        @Cached SequenceStorageNodes.BytesMemcpyNode memcpyNode) {
+            int n = Math.min(bufferLib.lengthWithFrame(buffer, frame), self.getRemaining());
+            if (n > 0) {
+                memcpyNode.execute(frame, buffer, 0, (byte[]) self.getBuf().getInternalArrayObject(), self.getPos(), n);
+                self.setPos(self.getPos() + n);
+            }
+            return n;
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WriteNode extends PythonBinaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()", limit = "2")
+        int write(PBytesIO self, Object b,
+                        @CachedLibrary("b") PythonObjectLibrary bufferLib,
+                        @Cached BufferedIONodes.GetBufferBytesNode getBufferBytesNode) {
+            if (!bufferLib.isBuffer(b)) {
+                throw raise(TypeError, BYTESLIKE_OBJ_REQUIRED, b);
+            }
+            return writeBytes(self, getBufferBytesNode.execute(b), getBufferLength(bufferLib, b), getRaiseNode());
+        }
+    }
+
+    @Builtin(name = "tell", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TellNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static int tell(PBytesIO self) {
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfPositionalArgs = 2, parameterNames = {"$self", "pos", "whence"})
+    @ArgumentClinic(name = "pos", conversion = ArgumentClinic.ClinicConversion.Index)
+    @ArgumentClinic(name = "whence", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedIOUtil.SEEK_SET")
+    @GenerateNodeFactory
+    abstract static class SeekNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.SeekNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int seek(PBytesIO self, int pos, int whence) {
+            if (self.isClosed()) {
+                throw closedError(getRaiseNode());
+            }
+            if (whence < 0 || whence > 2) {
+                throw raise(ValueError, INVALID_WHENCE_D, whence);
+            }
+            if (pos < 0 && whence == BufferedIOUtil.SEEK_SET) {
+                throw raise(ValueError, NEGATIVE_SEEK_VALUE_D, pos);
+            }
+            /*
+             * whence = SEEK_SET: offset relative to beginning of the string. whence = SEEK_CUR:
+             * offset relative to current position. whence = SEEK_END: offset relative the end of
+             * the string.
+             */
+            long newPos = pos;
+            if (whence == BufferedIOUtil.SEEK_CUR) {
+                newPos += self.getPos();
+            } else if (whence == BufferedIOUtil.SEEK_END) {
+                newPos += self.getStringSize();
+            }
+            if (newPos > Integer.MAX_VALUE) {
+                throw raise(OverflowError, NEW_POSITION_TOO_LARGE);
+            }
+            self.setPos(Math.max(0, (int) newPos));
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "truncate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class TruncateNode extends PythonBinaryWithClosedErrorClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.TruncateNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        int truncate(PBytesIO self, @SuppressWarnings("unused") PNone size) {
+            return truncate(self, self.getPos());
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        int truncate(PBytesIO self, int size) {
+            if (size < 0) {
+                throw raise(ValueError, NEGATIVE_SIZE_VALUE_D, size);
+            }
+            if (size < self.getStringSize()) {
+                self.truncate(size);
+            }
+            return size;
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static boolean readable(@SuppressWarnings("unused") PBytesIO self) {
+            return true;
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "seekable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SeekableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "isatty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsAttyNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static boolean isatty(@SuppressWarnings("unused") PBytesIO self) {
+            return false;
+        }
+    }
+
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FlushNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static PNone flush(@SuppressWarnings("unused") PBytesIO self) {
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone close(PBytesIO self) {
+            self.close();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean closed(PBytesIO self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NextNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        PBytes next(PBytesIO self) {
+            int n = scanEOL(self, -1);
+            if (n == 0) {
+                throw raise(StopIteration);
+            }
+            return readBytes(self, n, factory());
+        }
+    }
+
+    @Builtin(name = __GETSTATE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetStateNode extends PythonUnaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()", limit = "1")
+        Object getstate(VirtualFrame frame, PBytesIO self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            Object dict = lib.lookupAttribute(self, frame, __DICT__);
+            if (dict == PNone.NO_VALUE) {
+                dict = PNone.NONE;
+            } else {
+                dict = lib.lookupAndCallRegularMethod(dict, frame, "copy");
+            }
+            PBytes value;
+            ByteSequenceStorage shared = self.shareBuf();
+            if (shared != null) {
+                value = factory().createBytes(shared);
+            } else {
+                value = factory().createBytes((byte[]) self.getBuf().getInternalArrayObject(), 0, self.getStringSize());
+            }
+            return factory().createTuple(new Object[]{value, self.getPos(), dict});
+        }
+    }
+
+    @Builtin(name = __SETSTATE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetStateNode extends PythonBinaryWithClosedErrorBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        Object setstate(VirtualFrame frame, PBytesIO self, Object state,
+                        @Cached SequenceNodes.GetObjectArrayNode getArray,
+                        @Cached BufferedIONodes.GetBufferBytesNode getBufferBytesNode,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            Object[] items = state instanceof PTuple ? getArray.execute(state) : null;
+            if (items == null || items.length < 3) {
+                throw raise(TypeError, SETSTATE_ARGUMENT_SHOULD_BE_D_TUPLE, self, 3, state);
+            }
+            /* Reset the object to its default state and set the value of the internal buffer. */
+            Object value = items[0];
+            if (!lib.isBuffer(value)) {
+                throw raise(TypeError, BYTESLIKE_OBJ_REQUIRED, value);
+            }
+            self.reset();
+            writeBytes(self, getBufferBytesNode.execute(value), getBufferLength(lib, value), getRaiseNode());
+            /* Set the position value. */
+            Object position = items[1];
+            if (!PGuards.isInteger(position) && !PGuards.isPInt(position)) {
+                throw raise(TypeError, S_ITEM_OF_STATE_MUST_BE_AN_INTEGER, "second", position);
+            }
+            int pos = lib.asSizeWithState(position, OverflowError, PArguments.getThreadState(frame));
+            if (pos < 0) {
+                throw raise(ValueError, POSITION_VALUE_CANNOT_BE_NEGATIVE);
+            }
+            self.setPos(pos);
+            /* Set the dictionary of the instance variables. */
+            Object dict = items[2];
+            if (dict != PNone.NONE) {
+                if (!(dict instanceof PDict)) {
+                    throw raise(TypeError, S_ITEM_OF_STATE_SHOULD_BE_A_DICT, "third", dict);
+                }
+                lib.lookupAndCallRegularMethod(lib.lookupAttributeStrict(self, frame, __DICT__), frame, "update", dict);
+            }
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,793 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PFileIO;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CUR;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_END;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.append;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.createStream;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.toByteArray;
+import static com.oracle.graal.python.builtins.modules.io.IOModuleBuiltins.DEFAULT_BUFFER_SIZE;
+import static com.oracle.graal.python.builtins.modules.io.IOModuleBuiltins.raiseUnsupported;
+import static com.oracle.graal.python.nodes.ErrorMessages.BAD_MODE;
+import static com.oracle.graal.python.nodes.ErrorMessages.BYTESLIKE_OBJ_REQUIRED;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANNOT_PICKLE_OBJECT_TYPE;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANNOT_USE_CLOSEFD;
+import static com.oracle.graal.python.nodes.ErrorMessages.EXPECTED_INT_FROM_OPENER;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_NOT_OPEN_FOR_READING;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_NOT_OPEN_FOR_WRITING;
+import static com.oracle.graal.python.nodes.ErrorMessages.INTEGER_EXPECTED_GOT_FLOAT;
+import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_MODE_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_CLOSED;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_FILE_DESCRIPTOR;
+import static com.oracle.graal.python.nodes.ErrorMessages.OBJ_P_HAS_NO_ATTR_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.OPENER_RETURNED_D;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETSTATE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.PathConversionNode;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.PosixPath;
+import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.BranchProfile;
+
+@CoreFunctions(extendClasses = PFileIO)
+public class FileIOBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return FileIOBuiltinsFactory.getFactories();
+    }
+
+    /* readall() doubles its read size after each chunk up to this limit */
+    private static final int MAX_READALL_CHUNK = 512 * 1024;
+
+    abstract static class FileIOUnaryBuiltinNode extends PythonUnaryBuiltinNode {
+
+        protected final void checkClosed(PFileIO self) {
+            if (self.isClosed()) {
+                throw raise(ValueError, IO_CLOSED);
+            }
+        }
+
+        protected final void checkReadable(PFileIO self) {
+            if (!self.isReadable()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), FILE_NOT_OPEN_FOR_READING);
+            }
+        }
+    }
+
+    // FileIO(file, mode='r', closefd=True, opener=None)
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file", "mode", "closefd", "opener"})
+    @ArgumentClinic(name = "mode", conversion = ArgumentClinic.ClinicConversion.String, defaultValue = "\"r\"")
+    @ArgumentClinic(name = "closefd", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FileIOBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        protected static PathConversionNode createPathConversion() {
+            return PathConversionNode.create("FileIO", "file", false, false);
+        }
+
+        @Specialization
+        PNone init(VirtualFrame frame, PFileIO self, Object nameobj, String mode, boolean closefd, Object opener,
+                        @Cached("createPathConversion()") PathConversionNode pathConversionNode,
+                        @Cached CallNode callOpenerNode,
+                        @Cached SysModuleBuiltins.AuditNode auditNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Cached BranchProfile errorProfile) {
+            if (!self.isClosed()) {
+                if (self.isCloseFD()) {
+                    /* Have to close the existing file first. */
+                    try {
+                        posixLib.close(getPosixSupport(), self.getFD());
+                    } catch (PosixException e) {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+                self.setFD(-1);
+            }
+            if (nameobj instanceof Double || nameobj instanceof PFloat) {
+                throw raise(TypeError, INTEGER_EXPECTED_GOT_FLOAT);
+            }
+            int fd = -1;
+            if (lib.canBeIndex(nameobj)) {
+                long value = lib.asJavaLong(nameobj, frame);
+                if (value < 0) {
+                    throw raise(ValueError, NEGATIVE_FILE_DESCRIPTOR);
+                }
+                if (value <= Integer.MAX_VALUE) {
+                    fd = (int) value;
+                }
+            }
+            int flags = decodeMode(self, mode);
+            auditNode.audit("open", nameobj, mode, flags);
+
+            boolean fdIsOwn = false;
+            try {
+                if (fd >= 0) {
+                    self.setFD(fd);
+                    self.setCloseFD(closefd);
+                } else {
+                    self.setCloseFD(true);
+                    if (!closefd) {
+                        throw raise(ValueError, CANNOT_USE_CLOSEFD);
+                    }
+                    if (PGuards.isPNone(opener)) {
+                        PosixPath path = (PosixPath) pathConversionNode.execute(frame, nameobj);
+                        self.setFD(openFile(frame, path, flags, posixLib, errorProfile));
+                    } else {
+                        Object fdobj = callOpenerNode.execute(frame, opener, nameobj, flags);
+                        if (!lib.canBeIndex(fdobj)) {
+                            throw raise(TypeError, EXPECTED_INT_FROM_OPENER);
+                        }
+                        long value = lib.asJavaLong(fdobj, frame);
+                        if (value < 0) {
+                            throw raise(ValueError, OPENER_RETURNED_D, value);
+                        }
+                        self.setFD((int) value);
+                    }
+                    fdIsOwn = true;
+                }
+                self.setBlksize(DEFAULT_BUFFER_SIZE);
+                /*
+                 * We do not check stdin/out/err, because it is not necessary and more importantly
+                 * it runs during context initialization and requires IO access, so otherwise we
+                 * would not be able to start without IO allowed.
+                 */
+                if (self.getFD() > 2) {
+                    checkNotDirectory(frame, self, nameobj, posixLib);
+                }
+                self.setName(nameobj);
+                if (self.isAppending()) {
+                    /*
+                     * For consistent behaviour, we explicitly seek to the end of file (otherwise,
+                     * it might be done only on the first write()).
+                     */
+                    try {
+                        posixLib.lseek(getPosixSupport(), self.getFD(), 0, SEEK_END);
+                    } catch (PosixException e) {
+                        if (e.getErrorCode() != OSErrorEnum.ESPIPE.getNumber()) {
+                            throw raiseOSErrorFromPosixException(frame, e);
+                        }
+                    }
+                }
+            } catch (PException e) {
+                errorProfile.enter();
+                if (fdIsOwn) {
+                    closeQuietly(self, posixLib);
+                }
+                self.setFD(-1);
+                throw e;
+            }
+            return PNone.NONE;
+        }
+
+        private int openFile(VirtualFrame frame, PosixPath path, int flags, PosixSupportLibrary posixLib, BranchProfile errorProfile) {
+            while (true) {
+                try {
+                    return posixLib.openat(getPosixSupport(), PosixSupportLibrary.DEFAULT_DIR_FD, path.value, flags | PosixSupportLibrary.O_CLOEXEC, 0666);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        getContext().triggerAsyncActions(frame);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e, path.originalObject);
+                    }
+                }
+            }
+        }
+
+        private void checkNotDirectory(VirtualFrame frame, PFileIO self, Object nameobj, PosixSupportLibrary posixLib) {
+            long[] status;
+            try {
+                status = posixLib.fstat(getPosixSupport(), self.getFD());
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            /* On Unix, open will succeed for directories. */
+            if ((status[0] & PosixSupportLibrary.S_IFMT) == PosixSupportLibrary.S_IFDIR) {
+                int error = OSErrorEnum.EISDIR.getNumber();
+                throw raiseOSErrorFromPosixException(frame, new PosixException(error, posixLib.strerror(getPosixSupport(), error)), nameobj);
+            }
+        }
+
+        private void closeQuietly(PFileIO self, PosixSupportLibrary posixLib) {
+            try {
+                posixLib.close(getPosixSupport(), self.getFD());
+            } catch (PosixException e) {
+                // the original exception is more relevant
+            }
+        }
+
+        private int decodeMode(PFileIO self, String mode) {
+            boolean rwa = false;
+            boolean plus = false;
+            boolean readable = false;
+            boolean writable = false;
+            boolean created = false;
+            boolean appending = false;
+            int flags = 0;
+            for (int i = 0; i < mode.length(); i++) {
+                switch (mode.charAt(i)) {
+                    case 'x':
+                        if (rwa) {
+                            throw raise(ValueError, BAD_MODE);
+                        }
+                        rwa = true;
+                        created = true;
+                        writable = true;
+                        flags |= PosixModuleBuiltins.EXCL | PosixModuleBuiltins.CREAT;
+                        break;
+                    case 'r':
+                        if (rwa) {
+                            throw raise(ValueError, BAD_MODE);
+                        }
+                        rwa = true;
+                        readable = true;
+                        break;
+                    case 'w':
+                        if (rwa) {
+                            throw raise(ValueError, BAD_MODE);
+                        }
+                        rwa = true;
+                        writable = true;
+                        flags |= PosixModuleBuiltins.CREAT | PosixModuleBuiltins.TRUNC;
+                        break;
+                    case 'a':
+                        if (rwa) {
+                            throw raise(ValueError, BAD_MODE);
+                        }
+                        rwa = true;
+                        writable = true;
+                        appending = true;
+                        flags |= PosixModuleBuiltins.APPEND | PosixModuleBuiltins.CREAT;
+                        break;
+                    case 'b':
+                        break;
+                    case '+':
+                        if (plus) {
+                            throw raise(ValueError, BAD_MODE);
+                        }
+                        readable = writable = true;
+                        plus = true;
+                        break;
+                    default:
+                        throw raise(ValueError, INVALID_MODE_S, mode);
+                }
+            }
+            if (!rwa) {
+                throw raise(ValueError, BAD_MODE);
+            }
+            if (readable && writable) {
+                flags |= PosixModuleBuiltins.RDWR;
+            } else if (readable) {
+                flags |= PosixModuleBuiltins.RDONLY;
+            } else {
+                flags |= PosixModuleBuiltins.WRONLY;
+            }
+            self.setMode(readable, writable, created, appending);
+            return flags;
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FileIOBuiltinsClinicProviders.ReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "size >= 0")
+        Object read(VirtualFrame frame, PFileIO self, int size,
+                        @Cached FileIONodes.ReadNode readNode) {
+            checkOpenForReading(self);
+            Buffer result = readNode.execute(frame, self, size);
+            if (result == null) {
+                return PNone.NONE;
+            }
+            return factory().createBytes(result.data, 0, (int) result.length);
+        }
+
+        @Specialization(guards = "size < 0")
+        Object readAll(VirtualFrame frame, PFileIO self, @SuppressWarnings("unused") int size,
+                        @Cached ReadAllNode readAllNode) {
+            return readAllNode.execute(frame, self);
+        }
+
+        private void checkOpenForReading(PFileIO self) {
+            if (self.isClosed()) {
+                throw raise(ValueError, IO_CLOSED);
+            }
+            if (!self.isReadable()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), FILE_NOT_OPEN_FOR_READING);
+            }
+        }
+    }
+
+    @Builtin(name = "readall", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadAllNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization
+        Object readAll(VirtualFrame frame, PFileIO self,
+                        @Cached FileIONodes.ReadNode readNode) {
+            checkClosed(self);
+            checkReadable(self);
+            int chunkSize = Math.max(self.getBlksize(), DEFAULT_BUFFER_SIZE);
+            Buffer first = null;
+            ByteArrayOutputStream chunks = null;
+            while (true) {
+                Buffer result = readNode.execute(frame, self, chunkSize);
+                if (result == null) {
+                    if (first == null) {
+                        /* nothing read and the file is non-blocking */
+                        return PNone.NONE;
+                    }
+                    break;
+                }
+                if (result.length == 0) {
+                    break;
+                }
+                if (first == null) {
+                    first = result;
+                } else {
+                    if (chunks == null) {
+                        chunks = createStream();
+                        append(chunks, first.data, (int) first.length);
+                    }
+                    append(chunks, result.data, (int) result.length);
+                }
+                if (chunkSize < MAX_READALL_CHUNK) {
+                    chunkSize <<= 1;
+                }
+            }
+            if (first == null) {
+                return factory().createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+            } else if (chunks == null) {
+                return factory().createBytes(first.data, 0, (int) first.length);
+            }
+            return factory().createBytes(toByteArray(chunks));
+        }
+    }
+
+    @Builtin(name = "readinto", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReadIntoNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(limit = "2")
+        Object readinto(VirtualFrame frame, PFileIO self, Object buffer,
+                        @CachedLibrary("buffer") PythonObjectLibrary bufferLib,
+                        @Cached FileIONodes.ReadNode readNode,
+                        @Cached SequenceStorageNodes.BytesMemcpyNode memcpyNode) {
+            if (self.isClosed()) {
+                throw raise(ValueError, IO_CLOSED);
+            }
+            if (!self.isReadable()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), FILE_NOT_OPEN_FOR_READING);
+            }
+            int len = bufferLib.lengthWithFrame(buffer, frame);
+            Buffer result = readNode.execute(frame, self, len);
+            if (result == null) {
+                return PNone.NONE;
+            }
+            int n = (int) result.length;
+            memcpyNode.execute(frame, buffer, 0, result.data, 0, n);
+            return n;
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WriteNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(limit = "2")
+        Object write(VirtualFrame frame, PFileIO self, Object b,
+                        @CachedLibrary("b") PythonObjectLibrary bufferLib,
+                        @Cached BufferedIONodes.GetBufferBytesNode getBufferBytesNode,
+                        @Cached FileIONodes.WriteNode writeNode) {
+            if (self.isClosed()) {
+                throw raise(ValueError, IO_CLOSED);
+            }
+            if (!self.isWritable()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), FILE_NOT_OPEN_FOR_WRITING);
+            }
+            if (!bufferLib.isBuffer(b)) {
+                throw raise(TypeError, BYTESLIKE_OBJ_REQUIRED, b);
+            }
+            int len;
+            try {
+                len = bufferLib.getBufferLength(b);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+            long n = writeNode.execute(frame, self, getBufferBytesNode.execute(b), 0, len);
+            if (n < 0) {
+                return PNone.NONE;
+            }
+            return n;
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfPositionalArgs = 2, parameterNames = {"$self", "pos", "whence"})
+    @ArgumentClinic(name = "pos", conversionClass = PosixModuleBuiltins.OffsetConversionNode.class)
+    @ArgumentClinic(name = "whence", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedIOUtil.SEEK_SET")
+    @GenerateNodeFactory
+    abstract static class SeekNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FileIOBuiltinsClinicProviders.SeekNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long seek(VirtualFrame frame, PFileIO self, long pos, int whence,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (self.isClosed()) {
+                throw raise(ValueError, IO_CLOSED);
+            }
+            try {
+                long res = posixLib.lseek(getPosixSupport(), self.getFD(), pos, whence);
+                if (self.getSeekable() < 0) {
+                    self.setSeekable(1);
+                }
+                return res;
+            } catch (PosixException e) {
+                if (self.getSeekable() < 0) {
+                    self.setSeekable(0);
+                }
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "tell", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TellNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization
+        long tell(VirtualFrame frame, PFileIO self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            checkClosed(self);
+            try {
+                return posixLib.lseek(getPosixSupport(), self.getFD(), 0, SEEK_CUR);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "truncate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class TruncateNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(limit = "2")
+        Object truncate(VirtualFrame frame, PFileIO self, Object sizeObj,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @CachedLibrary("sizeObj") PythonObjectLibrary lib,
+                        @Cached BranchProfile errorProfile) {
+            if (self.isClosed()) {
+                throw raise(ValueError, IO_CLOSED);
+            }
+            if (!self.isWritable()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), FILE_NOT_OPEN_FOR_WRITING);
+            }
+            try {
+                long size;
+                Object result;
+                if (PGuards.isPNone(sizeObj)) {
+                    size = posixLib.lseek(getPosixSupport(), self.getFD(), 0, SEEK_CUR);
+                    result = size;
+                } else {
+                    size = lib.asJavaLong(sizeObj, frame);
+                    result = sizeObj;
+                }
+                while (true) {
+                    try {
+                        posixLib.ftruncate(getPosixSupport(), self.getFD(), size);
+                        return result;
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() != OSErrorEnum.EINTR.getNumber()) {
+                            throw e;
+                        }
+                        getContext().triggerAsyncActions(frame);
+                    }
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization(limit = "1")
+        Object close(VirtualFrame frame, PFileIO self,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (self.isClosed()) {
+                return PNone.NONE;
+            }
+            PException flushError = null;
+            try {
+                libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+            } catch (PException e) {
+                flushError = e;
+            }
+            int fd = self.getFD();
+            self.setFD(-1);
+            if (self.isCloseFD()) {
+                try {
+                    posixLib.close(getPosixSupport(), fd);
+                } catch (PosixException e) {
+                    if (flushError == null) {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+            if (flushError != null) {
+                throw flushError;
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "seekable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SeekableNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization
+        boolean seekable(PFileIO self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            checkClosed(self);
+            if (self.getSeekable() < 0) {
+                try {
+                    posixLib.lseek(getPosixSupport(), self.getFD(), 0, SEEK_CUR);
+                    self.setSeekable(1);
+                } catch (PosixException e) {
+                    self.setSeekable(0);
+                }
+            }
+            return self.getSeekable() == 1;
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization
+        boolean readable(PFileIO self) {
+            checkClosed(self);
+            return self.isReadable();
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization
+        boolean writable(PFileIO self) {
+            checkClosed(self);
+            return self.isWritable();
+        }
+    }
+
+    @Builtin(name = "fileno", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FilenoNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization
+        int fileno(PFileIO self) {
+            checkClosed(self);
+            return self.getFD();
+        }
+    }
+
+    @Builtin(name = "isatty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsattyNode extends FileIOUnaryBuiltinNode {
+
+        @Specialization
+        boolean isatty(PFileIO self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            checkClosed(self);
+            return posixLib.isatty(getPosixSupport(), self.getFD());
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean closed(PFileIO self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = "closefd", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class CloseFDNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean closefd(PFileIO self) {
+            return self.isCloseFD();
+        }
+    }
+
+    @Builtin(name = "mode", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ModeNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static String mode(PFileIO self) {
+            return self.getModeString();
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class NameNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "isNoValue(none)")
+        Object get(PFileIO self, @SuppressWarnings("unused") PNone none) {
+            if (self.getName() == PNone.NO_VALUE) {
+                throw raise(AttributeError, OBJ_P_HAS_NO_ATTR_S, self, "name");
+            }
+            return self.getName();
+        }
+
+        @Specialization(guards = "isDeleteMarker(marker)")
+        static Object delete(PFileIO self, @SuppressWarnings("unused") Object marker) {
+            self.setName(PNone.NO_VALUE);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = {"!isNoValue(name)", "!isDeleteMarker(name)"})
+        static Object set(PFileIO self, Object name) {
+            self.setName(name);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_blksize", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class BlksizeNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int blksize(PFileIO self) {
+            return self.getBlksize();
+        }
+    }
+
+    @Builtin(name = "_finalizing", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FinalizingNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean finalizing(PFileIO self) {
+            return self.isFinalizing();
+        }
+    }
+
+    @Builtin(name = __GETSTATE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetStateNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        Object getState(PFileIO self) {
+            throw raise(TypeError, CANNOT_PICKLE_OBJECT_TYPE, self);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static String repr(VirtualFrame frame, PFileIO self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (self.isClosed()) {
+                return "<_io.FileIO [closed]>";
+            }
+            String closefd = self.isCloseFD() ? "True" : "False";
+            if (self.getName() == PNone.NO_VALUE) {
+                return PythonUtils.format("<_io.FileIO fd=%d mode='%s' closefd=%s>", self.getFD(), self.getModeString(), closefd);
+            }
+            String name = castToStringNode.execute(reprNode.executeObject(frame, self.getName()));
+            return PythonUtils.format("<_io.FileIO name=%s mode='%s' closefd=%s>", name, self.getModeString(), closefd);
+        }
+    }
+}
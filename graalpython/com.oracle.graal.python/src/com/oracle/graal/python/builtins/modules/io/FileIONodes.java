@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.BranchProfile;
+
+public class FileIONodes {
+
+    /**
+     * Reads up to {@code size} bytes from the file descriptor of a {@link PFileIO}, retrying when
+     * interrupted. Returns {@code null} if the descriptor is non-blocking and no data is available
+     * (i.e. {@code EAGAIN}), in which case {@code FileIO.read} returns {@code None}.
+     */
+    abstract static class ReadNode extends PNodeWithContext {
+
+        public abstract Buffer execute(VirtualFrame frame, PFileIO self, int size);
+
+        @Specialization
+        static Buffer read(VirtualFrame frame, PFileIO self, int size,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @CachedLibrary("context.getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode,
+                        @Cached BranchProfile errorProfile) {
+            while (true) {
+                try {
+                    return posixLib.read(context.getPosixSupport(), self.getFD(), size);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        context.triggerAsyncActions(frame);
+                    } else if (e.getErrorCode() == OSErrorEnum.EAGAIN.getNumber()) {
+                        return null;
+                    } else {
+                        throw constructAndRaiseNode.raiseOSError(frame, e.getErrorCode(), e.getMessage(), null, null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes of {@code data} starting at {@code off} to the file descriptor of a
+     * {@link PFileIO}, retrying when interrupted. Returns the number of bytes written or {@code -1}
+     * if the descriptor is non-blocking and the write would block. The posix buffer cannot start
+     * at an offset, so only writes from the beginning of {@code data} avoid a copy.
+     */
+    abstract static class WriteNode extends PNodeWithContext {
+
+        public abstract long execute(VirtualFrame frame, PFileIO self, byte[] data, int off, int len);
+
+        @Specialization
+        static long write(VirtualFrame frame, PFileIO self, byte[] data, int off, int len,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @CachedLibrary("context.getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode,
+                        @Cached BranchProfile errorProfile) {
+            Buffer buffer = new Buffer(off == 0 ? data : Arrays.copyOfRange(data, off, off + len), len);
+            while (true) {
+                try {
+                    return posixLib.write(context.getPosixSupport(), self.getFD(), buffer);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        context.triggerAsyncActions(frame);
+                    } else if (e.getErrorCode() == OSErrorEnum.EAGAIN.getNumber()) {
+                        return -1;
+                    } else {
+                        throw constructAndRaiseNode.raiseOSError(frame, e.getErrorCode(), e.getMessage(), null, null);
+                    }
+                }
+            }
+        }
+    }
+}
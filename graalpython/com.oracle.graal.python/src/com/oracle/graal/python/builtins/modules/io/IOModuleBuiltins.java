@@ -40,7 +40,14 @@
  */
 package com.oracle.graal.python.builtins.modules.io;
 
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedRWPair;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedRandom;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedReader;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedWriter;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBytesIO;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PFileIO;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PStringIO;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTextIOWrapper;
 
 import java.util.List;
 
@@ -49,9 +56,12 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.type.PythonAbstractClass;
+import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -71,12 +81,40 @@ public class IOModuleBuiltins extends PythonBuiltins {
         builtinConstants.put("DEFAULT_BUFFER_SIZE", DEFAULT_BUFFER_SIZE);
     }
 
+    @TruffleBoundary
+    static Object getUnsupportedOperation(PythonCore core) {
+        return core.lookupBuiltinModule("_io").getAttribute("UnsupportedOperation");
+    }
+
+    static PException raiseUnsupported(PRaiseNode raiseNode, PythonCore core, String message) {
+        throw raiseNode.raise(getUnsupportedOperation(core), message);
+    }
+
     @Override
     public void postInitialize(PythonCore core) {
         super.postInitialize(core);
         PythonModule ioModule = core.lookupBuiltinModule("_io");
         PythonAbstractClass bufferediobase = (PythonAbstractClass) ioModule.getAttribute("BufferedIOBase");
         core.lookupType(PBufferedReader).setSuperClass(bufferediobase);
+        core.lookupType(PBufferedWriter).setSuperClass(bufferediobase);
+        core.lookupType(PBufferedRandom).setSuperClass(bufferediobase);
+        core.lookupType(PBufferedRWPair).setSuperClass(bufferediobase);
+        core.lookupType(PBytesIO).setSuperClass(bufferediobase);
+        PythonAbstractClass textiobase = (PythonAbstractClass) ioModule.getAttribute("_TextIOBase");
+        core.lookupType(PTextIOWrapper).setSuperClass(textiobase);
+        core.lookupType(PStringIO).setSuperClass(textiobase);
+        PythonAbstractClass rawiobase = (PythonAbstractClass) ioModule.getAttribute("RawIOBase");
+        core.lookupType(PFileIO).setSuperClass(rawiobase);
+    }
+
+    @Builtin(name = "FileIO", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PFileIO)
+    @GenerateNodeFactory
+    public abstract static class FileIONode extends PythonBuiltinNode {
+        @Specialization
+        public PFileIO doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see FileIOBuiltins.InitNode
+            return factory().createFileIO(cls);
+        }
     }
 
     @Builtin(name = "BufferedReader", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedReader)
@@ -88,4 +126,64 @@ public class IOModuleBuiltins extends PythonBuiltins {
             return factory().createBufferedReader(cls);
         }
     }
+
+    @Builtin(name = "BufferedWriter", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedWriter)
+    @GenerateNodeFactory
+    public abstract static class BufferedWriterNode extends PythonBuiltinNode {
+        @Specialization
+        public PBuffered doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BufferedWriterBuiltins.InitNode
+            return factory().createBufferWriter(cls);
+        }
+    }
+
+    @Builtin(name = "BufferedRandom", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedRandom)
+    @GenerateNodeFactory
+    public abstract static class BufferedRandomNode extends PythonBuiltinNode {
+        @Specialization
+        public PBuffered doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BufferedRandomBuiltins.InitNode
+            return factory().createBufferRandom(cls);
+        }
+    }
+
+    @Builtin(name = "BufferedRWPair", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedRWPair)
+    @GenerateNodeFactory
+    public abstract static class BufferedRWPairNode extends PythonBuiltinNode {
+        @Specialization
+        public PRWPair doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BufferedRWPairBuiltins.InitNode
+            return factory().createRWPair(cls);
+        }
+    }
+
+    @Builtin(name = "TextIOWrapper", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PTextIOWrapper)
+    @GenerateNodeFactory
+    public abstract static class TextIOWrapperNode extends PythonBuiltinNode {
+        @Specialization
+        public PTextIO doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see TextIOWrapperBuiltins.InitNode
+            return factory().createTextIO(cls);
+        }
+    }
+
+    @Builtin(name = "BytesIO", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBytesIO)
+    @GenerateNodeFactory
+    public abstract static class BytesIONode extends PythonBuiltinNode {
+        @Specialization
+        public PBytesIO doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BytesIOBuiltins.InitNode
+            return factory().createBytesIO(cls);
+        }
+    }
+
+    @Builtin(name = "StringIO", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PStringIO)
+    @GenerateNodeFactory
+    public abstract static class StringIONode extends PythonBuiltinNode {
+        @Specialization
+        public PStringIO doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see StringIOBuiltins.InitNode
+            return factory().createStringIO(cls);
+        }
+    }
 }
@@ -54,7 +54,6 @@ public class PBuffered extends PythonBuiltinObject {
     private final boolean writable;
 
     /*-
-     * TODO: should be used once FileIO is implemented. 
      * True if this is a vanilla Buffered object
      * (rather than a user derived class) *and* the raw stream is a vanilla FileIO object.
      */
@@ -182,6 +181,16 @@ public class PBuffered extends PythonBuiltinObject {
         this.pos += n;
     }
 
+    /**
+     * implementation of cpython/Modules/_io/bufferedio.c:ADJUST_POSITION
+     */
+    public void adjustPosition(int newPos) {
+        this.pos = newPos;
+        if (readable && readEnd != -1 && readEnd < newPos) {
+            this.readEnd = newPos;
+        }
+    }
+
     public long getRawPos() {
         return rawPos;
     }
@@ -214,6 +223,10 @@ public class PBuffered extends PythonBuiltinObject {
         return writePos;
     }
 
+    public void setWritePos(int writePos) {
+        this.writePos = writePos;
+    }
+
     public void incWritePos(int n) {
         this.writePos += n;
     }
@@ -222,6 +235,10 @@ public class PBuffered extends PythonBuiltinObject {
         return writeEnd;
     }
 
+    public void setWriteEnd(int writeEnd) {
+        this.writeEnd = writeEnd;
+    }
+
     public void incWriteEnd(int n) {
         this.writeEnd += n;
     }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+public class PBytesIO extends PythonBuiltinObject {
+
+    /*
+     * The contents, buf.length() is the size of the stream. null once the stream is closed.
+     */
+    private ByteSequenceStorage buf;
+    private int pos;
+    /*
+     * Whether buf is also the storage of a bytes object, e.g. one returned by getvalue(). It has
+     * to be copied before the next modification.
+     */
+    private boolean shared;
+    /*
+     * Memoryviews returned by getbuffer() that write directly into buf. We cannot tell when they
+     * are released by the garbage collector, so they are only used to decide whether buf may be
+     * shared, never to forbid resizing.
+     */
+    private ArrayList<WeakReference<PMemoryView>> exports;
+
+    public PBytesIO(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+        this.buf = new ByteSequenceStorage(0);
+    }
+
+    public boolean isClosed() {
+        return buf == null;
+    }
+
+    public void close() {
+        buf = null;
+        shared = false;
+    }
+
+    public ByteSequenceStorage getBuf() {
+        return buf;
+    }
+
+    /**
+     * Replaces the contents with the storage of a bytes object, which is shared until the next
+     * modification.
+     */
+    public void setSharedBuf(ByteSequenceStorage buf) {
+        this.buf = buf;
+        this.shared = true;
+    }
+
+    public void reset() {
+        buf = new ByteSequenceStorage(0);
+        shared = false;
+        pos = 0;
+    }
+
+    public int getStringSize() {
+        return buf.length();
+    }
+
+    public int getPos() {
+        return pos;
+    }
+
+    public void setPos(int pos) {
+        this.pos = pos;
+    }
+
+    /**
+     * Number of bytes between the position and the end of the stream (0 if the position is after
+     * the end).
+     */
+    public int getRemaining() {
+        return Math.max(0, buf.length() - pos);
+    }
+
+    /**
+     * Returns buf so that it can be the storage of a new bytes object, or {@code null} if it must
+     * not be shared because a memoryview may still write to it.
+     */
+    public ByteSequenceStorage shareBuf() {
+        if (hasExports()) {
+            return null;
+        }
+        shared = true;
+        return buf;
+    }
+
+    /**
+     * Makes sure buf can be modified and holds at least {@code size} bytes. Bytes between the
+     * current end and {@code size} are zero.
+     */
+    @TruffleBoundary
+    public byte[] prepareWrite(int size) {
+        if (shared) {
+            buf = new ByteSequenceStorage(Arrays.copyOf((byte[]) buf.getInternalArrayObject(), Math.max(size, buf.length())), buf.length());
+            shared = false;
+        }
+        int oldSize = buf.length();
+        if (size > oldSize) {
+            buf.ensureCapacity(size);
+            byte[] bytes = (byte[]) buf.getInternalArrayObject();
+            Arrays.fill(bytes, oldSize, size, (byte) 0);
+            buf.setNewLength(size);
+        }
+        return (byte[]) buf.getInternalArrayObject();
+    }
+
+    @TruffleBoundary
+    public void truncate(int size) {
+        if (shared) {
+            buf = new ByteSequenceStorage(Arrays.copyOf((byte[]) buf.getInternalArrayObject(), size));
+            shared = false;
+        } else {
+            buf.setNewLength(size);
+        }
+    }
+
+    /**
+     * Registers a memoryview returned by getbuffer(). buf must not be shared at this point.
+     */
+    @TruffleBoundary
+    public void addExport(PMemoryView view) {
+        assert !shared;
+        if (exports == null) {
+            exports = new ArrayList<>();
+        }
+        exports.add(new WeakReference<>(view));
+    }
+
+    @TruffleBoundary
+    public boolean hasExports() {
+        if (exports == null) {
+            return false;
+        }
+        exports.removeIf(ref -> {
+            PMemoryView view = ref.get();
+            return view == null || view.isReleased();
+        });
+        return !exports.isEmpty();
+    }
+}
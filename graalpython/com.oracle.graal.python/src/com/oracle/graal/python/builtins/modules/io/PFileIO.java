@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+public class PFileIO extends PythonBuiltinObject {
+
+    private int fd;
+    private boolean created;
+    private boolean readable;
+    private boolean writable;
+    private boolean appending;
+    /* -1 means unknown */
+    private int seekable;
+    private boolean closefd;
+    private boolean finalizing;
+    private int blksize;
+    private Object name;
+
+    public PFileIO(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+        this.fd = -1;
+        this.seekable = -1;
+        this.closefd = true;
+        this.name = PNone.NO_VALUE;
+    }
+
+    public int getFD() {
+        return fd;
+    }
+
+    public void setFD(int fd) {
+        this.fd = fd;
+    }
+
+    public boolean isClosed() {
+        return fd < 0;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public boolean isReadable() {
+        return readable;
+    }
+
+    public boolean isWritable() {
+        return writable;
+    }
+
+    public boolean isAppending() {
+        return appending;
+    }
+
+    public void setMode(boolean readable, boolean writable, boolean created, boolean appending) {
+        this.readable = readable;
+        this.writable = writable;
+        this.created = created;
+        this.appending = appending;
+    }
+
+    public int getSeekable() {
+        return seekable;
+    }
+
+    public void setSeekable(int seekable) {
+        this.seekable = seekable;
+    }
+
+    public boolean isCloseFD() {
+        return closefd;
+    }
+
+    public void setCloseFD(boolean closefd) {
+        this.closefd = closefd;
+    }
+
+    public boolean isFinalizing() {
+        return finalizing;
+    }
+
+    public void setFinalizing(boolean finalizing) {
+        this.finalizing = finalizing;
+    }
+
+    public int getBlksize() {
+        return blksize;
+    }
+
+    public void setBlksize(int blksize) {
+        this.blksize = blksize;
+    }
+
+    public Object getName() {
+        return name;
+    }
+
+    public void setName(Object name) {
+        this.name = name;
+    }
+
+    /**
+     * The mode string as reported by {@code FileIO.mode}, see {@code mode_string} in CPython's
+     * {@code fileio.c}.
+     */
+    public String getModeString() {
+        if (created) {
+            return readable ? "xb+" : "xb";
+        }
+        if (appending) {
+            return readable ? "ab+" : "ab";
+        } else if (readable) {
+            return writable ? "rb+" : "rb";
+        } else {
+            return "wb";
+        }
+    }
+}
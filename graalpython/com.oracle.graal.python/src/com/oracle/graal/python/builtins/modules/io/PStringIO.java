@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+public class PStringIO extends PythonBuiltinObject {
+
+    private boolean ok; /* Initialized? */
+    private boolean closed;
+
+    /*
+     * The contents are kept in a StringBuilder once modified, otherwise only as an immutable
+     * snapshot. The snapshot is also what getvalue() returns and is kept until the next
+     * modification, so repeated getvalue() calls and reads of an unmodified stream do not copy.
+     */
+    private StringBuilder buf;
+    private String value = "";
+    private int pos;
+
+    /*-
+     * Newline handling, see StringIO.__init__ in _pyio:
+     * readuniversal: newline is None or '', lines end at '\n', '\r' or '\r\n'
+     * readtranslate: newline is None, line endings are translated to '\n' on write
+     * readnl: the newline argument, null if it was None
+     * writenl: '\n' is translated to it on write, null if no translation is needed
+     */
+    private boolean readuniversal;
+    private boolean readtranslate;
+    private String readnl;
+    private String writenl;
+    private int seenNewlines;
+
+    public PStringIO(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public boolean isOK() {
+        return ok;
+    }
+
+    public void setOK(boolean ok) {
+        this.ok = ok;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void close() {
+        closed = true;
+        buf = null;
+        value = "";
+    }
+
+    /**
+     * Sets up newline handling for a valid {@code newline} argument ({@code null} for None).
+     */
+    public void setNewline(String newline) {
+        readnl = newline;
+        readuniversal = newline == null || newline.isEmpty();
+        readtranslate = newline == null;
+        /*
+         * If newline == "", we don't translate anything. If newline == "\n" or newline == None,
+         * we translate to "\n", which is a no-op.
+         */
+        writenl = newline != null && !newline.isEmpty() && newline.charAt(0) == '\r' ? newline : null;
+        seenNewlines = 0;
+    }
+
+    public boolean isReadUniversal() {
+        return readuniversal;
+    }
+
+    public boolean isReadTranslate() {
+        return readtranslate;
+    }
+
+    public String getReadNewline() {
+        return readnl;
+    }
+
+    public String getWriteNewline() {
+        return writenl;
+    }
+
+    public int getSeenNewlines() {
+        return seenNewlines;
+    }
+
+    public void addSeenNewlines(int seen) {
+        seenNewlines |= seen;
+    }
+
+    public int getPos() {
+        return pos;
+    }
+
+    public void setPos(int pos) {
+        this.pos = pos;
+    }
+
+    /**
+     * Replaces the contents with {@code newValue}, which becomes the current snapshot.
+     */
+    public void setValue(String newValue) {
+        buf = null;
+        value = newValue;
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public int getStringSize() {
+        return value != null ? value.length() : buf.length();
+    }
+
+    /**
+     * Number of characters between the position and the end of the stream (0 if the position is
+     * after the end).
+     */
+    public int getRemaining() {
+        return Math.max(0, getStringSize() - pos);
+    }
+
+    @TruffleBoundary
+    public String getValue() {
+        if (value == null) {
+            value = buf.toString();
+        }
+        return value;
+    }
+
+    @TruffleBoundary
+    public String substring(int start, int end) {
+        if (value != null) {
+            return value.substring(start, end);
+        }
+        return buf.substring(start, end);
+    }
+
+    @TruffleBoundary
+    public char charAt(int index) {
+        return value != null ? value.charAt(index) : buf.charAt(index);
+    }
+
+    @TruffleBoundary
+    public int indexOf(String str, int from) {
+        return value != null ? value.indexOf(str, from) : buf.indexOf(str, from);
+    }
+
+    /**
+     * Writes {@code str} at the current position, overwriting existing characters and padding
+     * with {@code '\0'} if the position is after the end.
+     */
+    @TruffleBoundary
+    public void write(String str) {
+        int len = str.length();
+        if (len == 0) {
+            return;
+        }
+        if (buf == null) {
+            buf = new StringBuilder(Math.max(value.length(), pos + len));
+            buf.append(value);
+        }
+        value = null;
+        int size = buf.length();
+        if (pos > size) {
+            for (int i = size; i < pos; i++) {
+                buf.append('\0');
+            }
+            size = pos;
+        }
+        buf.replace(pos, Math.min(size, pos + len), str);
+        pos += len;
+    }
+
+    @TruffleBoundary
+    public void truncate(int size) {
+        if (buf != null) {
+            buf.setLength(size);
+            value = null;
+        } else {
+            value = value.substring(0, size);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+public class PTextIO extends PythonBuiltinObject {
+
+    /* Kinds of line endings seen so far, see IncrementalNewlineDecoder.newlines */
+    public static final int SEEN_LF = 1;
+    public static final int SEEN_CR = 2;
+    public static final int SEEN_CRLF = 4;
+
+    private Object buffer;
+    private boolean ok; /* Initialized? */
+    private boolean detached;
+
+    private String encoding;
+    private String errors;
+    /* Normalized encoding name, used in UnicodeDecodeError messages */
+    private String encodingName;
+    private Charset charset;
+    /* null if the stream is not readable */
+    private CharsetDecoder decoder;
+
+    /*-
+     * Newline handling, see TextIOWrapper.__init__ in _pyio:
+     * readuniversal: newline is None or '', lines end at '\n', '\r' or '\r\n'
+     * readtranslate: newline is None, line endings are translated to '\n' on input
+     * readnl: the line ending to look for if readuniversal is false
+     * writetranslate: newline is not '', '\n' is translated to writenl on output
+     */
+    private boolean readuniversal;
+    private boolean readtranslate;
+    private String readnl;
+    private boolean writetranslate;
+    private String writenl;
+    private int seenNewlines;
+
+    private boolean lineBuffering;
+    private boolean writeThrough;
+    private boolean hasRead1;
+    private boolean seekable;
+    private int chunkSize;
+
+    /*
+     * Decoded characters, untranslated. Only 'decodedChars[decodedCharsUsed:]' has not been
+     * returned to the user yet. Keeping the raw characters allows tell() to find the byte
+     * position by re-encoding them.
+     */
+    private String decodedChars = "";
+    private int decodedCharsUsed;
+    /* Trailing bytes of the last chunk that did not form a complete character yet */
+    private byte[] pendingBytes;
+
+    private Object mode = PNone.NO_VALUE;
+
+    public PTextIO(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public Object getBuffer() {
+        return buffer;
+    }
+
+    public void setBuffer(Object buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean isOK() {
+        return ok;
+    }
+
+    public void setOK(boolean ok) {
+        this.ok = ok;
+    }
+
+    public boolean isDetached() {
+        return detached;
+    }
+
+    public void setDetached(boolean detached) {
+        this.detached = detached;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getErrors() {
+        return errors;
+    }
+
+    public String getEncodingName() {
+        return encodingName;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public void setEncoding(String encoding, String encodingName, Charset charset) {
+        this.encoding = encoding;
+        this.encodingName = encodingName;
+        this.charset = charset;
+    }
+
+    public void setErrors(String errors) {
+        this.errors = errors;
+    }
+
+    public CharsetDecoder getDecoder() {
+        return decoder;
+    }
+
+    public void setDecoder(CharsetDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    public boolean isReadUniversal() {
+        return readuniversal;
+    }
+
+    public boolean isReadTranslate() {
+        return readtranslate;
+    }
+
+    public String getReadNewline() {
+        return readnl;
+    }
+
+    public String getWriteNewline() {
+        return writenl;
+    }
+
+    /**
+     * Whether {@code '\n'} has to be replaced by {@link #getWriteNewline()} on output.
+     */
+    public boolean isWriteTranslated() {
+        return writetranslate && !"\n".equals(writenl);
+    }
+
+    /**
+     * Configures newline handling from the {@code newline} argument, which has already been
+     * validated to be {@code null} (i.e. {@code None}), {@code ""}, {@code "\n"}, {@code "\r"} or
+     * {@code "\r\n"}.
+     */
+    public void setNewline(String newline, String osLineSeparator) {
+        this.readuniversal = newline == null || newline.isEmpty();
+        this.readtranslate = newline == null;
+        this.readnl = newline;
+        this.writetranslate = newline == null || !newline.isEmpty();
+        this.writenl = newline == null || newline.isEmpty() ? osLineSeparator : newline;
+    }
+
+    /**
+     * Whether a trailing {@code '\r'} may be the first half of a line ending and needs to be
+     * looked at together with the next chunk.
+     */
+    public boolean isCRLFAware() {
+        return readuniversal || "\r\n".equals(readnl);
+    }
+
+    public int getSeenNewlines() {
+        return seenNewlines;
+    }
+
+    public void addSeenNewlines(int kinds) {
+        this.seenNewlines |= kinds;
+    }
+
+    public boolean isLineBuffering() {
+        return lineBuffering;
+    }
+
+    public void setLineBuffering(boolean lineBuffering) {
+        this.lineBuffering = lineBuffering;
+    }
+
+    public boolean isWriteThrough() {
+        return writeThrough;
+    }
+
+    public void setWriteThrough(boolean writeThrough) {
+        this.writeThrough = writeThrough;
+    }
+
+    public boolean hasRead1() {
+        return hasRead1;
+    }
+
+    public void setHasRead1(boolean hasRead1) {
+        this.hasRead1 = hasRead1;
+    }
+
+    public boolean isSeekable() {
+        return seekable;
+    }
+
+    public void setSeekable(boolean seekable) {
+        this.seekable = seekable;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public String getDecodedChars() {
+        return decodedChars;
+    }
+
+    public int getDecodedCharsUsed() {
+        return decodedCharsUsed;
+    }
+
+    public void setDecodedCharsUsed(int decodedCharsUsed) {
+        this.decodedCharsUsed = decodedCharsUsed;
+    }
+
+    public int getDecodedCharsRemaining() {
+        return decodedChars.length() - decodedCharsUsed;
+    }
+
+    public boolean hasPendingState() {
+        return getDecodedCharsRemaining() > 0 || pendingBytes != null;
+    }
+
+    /**
+     * Appends freshly decoded characters to the ones not consumed yet.
+     */
+    @TruffleBoundary
+    public void appendDecodedChars(String chars) {
+        if (decodedCharsUsed >= decodedChars.length()) {
+            decodedChars = chars;
+        } else if (!chars.isEmpty()) {
+            decodedChars = decodedChars.substring(decodedCharsUsed) + chars;
+        } else {
+            return;
+        }
+        decodedCharsUsed = 0;
+    }
+
+    /**
+     * Puts characters that were taken out of the decoded buffer back in front of it.
+     */
+    @TruffleBoundary
+    public void unreadDecodedChars(String chars) {
+        decodedChars = chars + decodedChars.substring(decodedCharsUsed);
+        decodedCharsUsed = 0;
+    }
+
+    public byte[] getPendingBytes() {
+        return pendingBytes;
+    }
+
+    public void setPendingBytes(byte[] pendingBytes) {
+        this.pendingBytes = pendingBytes;
+    }
+
+    /**
+     * Drops all decoding state, e.g. after a seek or a write.
+     */
+    public void resetDecodingState() {
+        decodedChars = "";
+        decodedCharsUsed = 0;
+        pendingBytes = null;
+        resetDecoder();
+    }
+
+    /**
+     * Resets only the charset decoder, e.g. after it was fed the final input.
+     */
+    @TruffleBoundary
+    public void resetDecoder() {
+        if (decoder != null) {
+            decoder.reset();
+        }
+    }
+
+    public Object getMode() {
+        return mode;
+    }
+
+    public void setMode(Object mode) {
+        this.mode = mode;
+    }
+}
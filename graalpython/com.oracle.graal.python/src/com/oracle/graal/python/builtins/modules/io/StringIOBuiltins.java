@@ -0,0 +1,608 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PStringIO;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CUR;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_END;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_SET;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_DO_NONZERO_CUR_RELATIVE_SEEKS;
+import static com.oracle.graal.python.nodes.ErrorMessages.ILLEGAL_NEWLINE_VALUE_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.INITIAL_VALUE_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_WHENCE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_CLOSED;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_UNINIT;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SEEK_POSITION_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SIZE_VALUE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEWLINE_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.POSITION_VALUE_CANNOT_BE_NEGATIVE;
+import static com.oracle.graal.python.nodes.ErrorMessages.READLINE_SHOULD_HAVE_RETURNED_STR_NOT_P;
+import static com.oracle.graal.python.nodes.ErrorMessages.SETSTATE_ARGUMENT_SHOULD_BE_D_TUPLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRING_ARGUMENT_EXPECTED_GOT_P;
+import static com.oracle.graal.python.nodes.ErrorMessages.S_ITEM_OF_STATE_MUST_BE_AN_INTEGER;
+import static com.oracle.graal.python.nodes.ErrorMessages.S_ITEM_OF_STATE_SHOULD_BE_A_DICT;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETSTATE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETSTATE__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PStringIO)
+public class StringIOBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StringIOBuiltinsFactory.getFactories();
+    }
+
+    static PException initError(PRaiseNode raiseNode) {
+        throw raiseNode.raise(ValueError, IO_UNINIT);
+    }
+
+    static PException closedError(PRaiseNode raiseNode) {
+        throw raiseNode.raise(ValueError, IO_CLOSED);
+    }
+
+    abstract static class PythonUnaryWithCheckBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isOK()")
+        Object initError(@SuppressWarnings("unused") PStringIO self) {
+            throw StringIOBuiltins.initError(getRaiseNode());
+        }
+
+        @Specialization(guards = {"self.isOK()", "self.isClosed()"})
+        Object closedError(@SuppressWarnings("unused") PStringIO self) {
+            throw StringIOBuiltins.closedError(getRaiseNode());
+        }
+    }
+
+    abstract static class PythonBinaryWithCheckClinicBuiltinNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        @Specialization(guards = "!self.isOK()")
+        Object initError(@SuppressWarnings("unused") PStringIO self, @SuppressWarnings("unused") Object o) {
+            throw StringIOBuiltins.initError(getRaiseNode());
+        }
+
+        @Specialization(guards = {"self.isOK()", "self.isClosed()"})
+        Object closedError(@SuppressWarnings("unused") PStringIO self, @SuppressWarnings("unused") Object o) {
+            throw StringIOBuiltins.closedError(getRaiseNode());
+        }
+    }
+
+    /**
+     * Records and translates the line endings of {@code str} as configured by the newline
+     * argument, see {@code StringIO.write} in _pyio.
+     */
+    @TruffleBoundary
+    static String translateNewlines(PStringIO self, String str) {
+        String result = str;
+        if (self.isReadUniversal()) {
+            int seen = 0;
+            int len = str.length();
+            for (int i = 0; i < len; i++) {
+                char c = str.charAt(i);
+                if (c == '\n') {
+                    seen |= PTextIO.SEEN_LF;
+                } else if (c == '\r') {
+                    if (i + 1 < len && str.charAt(i + 1) == '\n') {
+                        seen |= PTextIO.SEEN_CRLF;
+                        i++;
+                    } else {
+                        seen |= PTextIO.SEEN_CR;
+                    }
+                }
+            }
+            self.addSeenNewlines(seen);
+            if (self.isReadTranslate() && (seen & (PTextIO.SEEN_CR | PTextIO.SEEN_CRLF)) != 0) {
+                result = result.replace("\r\n", "\n").replace('\r', '\n');
+            }
+        }
+        if (self.getWriteNewline() != null) {
+            result = result.replace("\n", self.getWriteNewline());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the length of the line starting at the current position, including its line
+     * ending and limited to {@code limit} characters if that is not negative.
+     */
+    @TruffleBoundary
+    static int findLineEnd(PStringIO self, int limit) {
+        int start = self.getPos();
+        int maxLen = self.getRemaining();
+        if (limit >= 0 && limit < maxLen) {
+            maxLen = limit;
+        }
+        int end = start + maxLen;
+        if (self.isReadTranslate()) {
+            /* Newlines are already translated, only search for \n */
+            for (int i = start; i < end; i++) {
+                if (self.charAt(i) == '\n') {
+                    return i + 1 - start;
+                }
+            }
+        } else if (self.isReadUniversal()) {
+            /* Universal newline search. Find any of \r, \r\n, \n */
+            for (int i = start; i < end; i++) {
+                char c = self.charAt(i);
+                if (c == '\n') {
+                    return i + 1 - start;
+                } else if (c == '\r') {
+                    return (i + 1 < end && self.charAt(i + 1) == '\n' ? i + 2 : i + 1) - start;
+                }
+            }
+        } else {
+            String nl = self.getReadNewline();
+            int idx = self.indexOf(nl, start);
+            if (idx >= 0 && idx + nl.length() <= end) {
+                return idx + nl.length() - start;
+            }
+        }
+        return maxLen;
+    }
+
+    /**
+     * Reads {@code n} characters from the current position, which must be available. Reading
+     * the whole stream returns the snapshot of its contents without copying.
+     */
+    static String readChars(PStringIO self, int n) {
+        if (n == 0) {
+            return "";
+        }
+        int pos = self.getPos();
+        self.setPos(pos + n);
+        if (pos == 0 && n == self.getStringSize()) {
+            return self.getValue();
+        }
+        return self.substring(pos, pos + n);
+    }
+
+    // StringIO(initial_value='', newline='\n')
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "initial_value", "newline"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        PNone init(PStringIO self, Object initialValue, Object newlineArg,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            String newline = castNewline(newlineArg, castToStringNode, getRaiseNode());
+            initialize(self, castInitialValue(initialValue, castToStringNode, getRaiseNode()), newline);
+            return PNone.NONE;
+        }
+    }
+
+    static String castNewline(Object newlineArg, CastToJavaStringNode castToStringNode, PRaiseNode raiseNode) {
+        if (newlineArg == PNone.NO_VALUE) {
+            return "\n";
+        } else if (newlineArg == PNone.NONE) {
+            return null;
+        }
+        String newline;
+        try {
+            newline = castToStringNode.execute(newlineArg);
+        } catch (CannotCastException e) {
+            throw raiseNode.raise(TypeError, NEWLINE_MUST_BE_STR_OR_NONE, newlineArg);
+        }
+        if (!TextIOWrapperBuiltins.isValidNewline(newline)) {
+            throw raiseNode.raise(ValueError, ILLEGAL_NEWLINE_VALUE_S, newline);
+        }
+        return newline;
+    }
+
+    static String castInitialValue(Object initialValue, CastToJavaStringNode castToStringNode, PRaiseNode raiseNode) {
+        if (initialValue == PNone.NO_VALUE || initialValue == PNone.NONE) {
+            return null;
+        }
+        try {
+            return castToStringNode.execute(initialValue);
+        } catch (CannotCastException e) {
+            throw raiseNode.raise(TypeError, INITIAL_VALUE_MUST_BE_STR_OR_NONE, initialValue);
+        }
+    }
+
+    static void initialize(PStringIO self, String value, String newline) {
+        self.setOK(false);
+        self.setNewline(newline);
+        self.setValue("");
+        self.setPos(0);
+        if (value != null) {
+            self.write(translateNewlines(self, value));
+            self.setPos(0);
+        }
+        self.setOK(true);
+    }
+
+    @Builtin(name = "getvalue", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetValueNode extends PythonUnaryWithCheckBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static String getvalue(PStringIO self) {
+            return self.getValue();
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadNode extends PythonBinaryWithCheckClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StringIOBuiltinsClinicProviders.ReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static String read(PStringIO self, int size) {
+            int n = self.getRemaining();
+            if (size >= 0 && size < n) {
+                n = size;
+            }
+            return readChars(self, n);
+        }
+    }
+
+    @Builtin(name = "readline", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlineNode extends PythonBinaryWithCheckClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StringIOBuiltinsClinicProviders.ReadlineNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static String readline(PStringIO self, int size) {
+            return readChars(self, findLineEnd(self, size));
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WriteNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        int write(PStringIO self, Object obj,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            if (!self.isOK()) {
+                throw initError(getRaiseNode());
+            }
+            String str;
+            try {
+                str = castToStringNode.execute(obj);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, STRING_ARGUMENT_EXPECTED_GOT_P, obj);
+            }
+            if (self.isClosed()) {
+                throw closedError(getRaiseNode());
+            }
+            int size = str.length();
+            if (size > 0) {
+                self.write(translateNewlines(self, str));
+            }
+            return size;
+        }
+    }
+
+    @Builtin(name = "tell", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TellNode extends PythonUnaryWithCheckBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static int tell(PStringIO self) {
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfPositionalArgs = 2, parameterNames = {"$self", "pos", "whence"})
+    @ArgumentClinic(name = "pos", conversion = ArgumentClinic.ClinicConversion.Index)
+    @ArgumentClinic(name = "whence", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedIOUtil.SEEK_SET")
+    @GenerateNodeFactory
+    abstract static class SeekNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StringIOBuiltinsClinicProviders.SeekNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int seek(PStringIO self, int pos, int whence) {
+            if (!self.isOK()) {
+                throw initError(getRaiseNode());
+            }
+            if (self.isClosed()) {
+                throw closedError(getRaiseNode());
+            }
+            if (whence != SEEK_SET && whence != SEEK_CUR && whence != SEEK_END) {
+                throw raise(ValueError, INVALID_WHENCE_D, whence);
+            } else if (pos < 0 && whence == SEEK_SET) {
+                throw raise(ValueError, NEGATIVE_SEEK_POSITION_D, pos);
+            } else if (whence != SEEK_SET && pos != 0) {
+                throw raise(OSError, CANT_DO_NONZERO_CUR_RELATIVE_SEEKS);
+            }
+            /*
+             * whence = SEEK_SET: offset relative to beginning of the string. whence = SEEK_CUR:
+             * no change of position. whence = SEEK_END: go to the end of the string.
+             */
+            if (whence == SEEK_END) {
+                self.setPos(self.getStringSize());
+            } else if (whence == SEEK_SET) {
+                self.setPos(pos);
+            }
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "truncate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "pos"})
+    @ArgumentClinic(name = "pos", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class TruncateNode extends PythonBinaryWithCheckClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StringIOBuiltinsClinicProviders.TruncateNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        int truncate(PStringIO self, @SuppressWarnings("unused") PNone pos) {
+            return truncate(self, self.getPos());
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        int truncate(PStringIO self, int size) {
+            if (size < 0) {
+                throw raise(ValueError, NEGATIVE_SIZE_VALUE_D, size);
+            }
+            if (size < self.getStringSize()) {
+                self.truncate(size);
+            }
+            return size;
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends PythonUnaryWithCheckBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static boolean readable(@SuppressWarnings("unused") PStringIO self) {
+            return true;
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "seekable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SeekableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "line_buffering", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LineBufferingNode extends PythonUnaryWithCheckBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static boolean lineBuffering(@SuppressWarnings("unused") PStringIO self) {
+            return false;
+        }
+    }
+
+    @Builtin(name = "newlines", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NewlinesNode extends PythonUnaryWithCheckBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        Object newlines(PStringIO self) {
+            if (!self.isReadUniversal()) {
+                return PNone.NONE;
+            }
+            switch (self.getSeenNewlines()) {
+                case PTextIO.SEEN_LF:
+                    return "\n";
+                case PTextIO.SEEN_CR:
+                    return "\r";
+                case PTextIO.SEEN_CR | PTextIO.SEEN_LF:
+                    return factory().createTuple(new Object[]{"\r", "\n"});
+                case PTextIO.SEEN_CRLF:
+                    return "\r\n";
+                case PTextIO.SEEN_LF | PTextIO.SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\n", "\r\n"});
+                case PTextIO.SEEN_CR | PTextIO.SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\r", "\r\n"});
+                case PTextIO.SEEN_CR | PTextIO.SEEN_LF | PTextIO.SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\r", "\n", "\r\n"});
+                default:
+                    return PNone.NONE;
+            }
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone close(PStringIO self) {
+            self.close();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean closed(PStringIO self) {
+            if (!self.isOK()) {
+                throw initError(getRaiseNode());
+            }
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NextNode extends PythonUnaryWithCheckBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"}, limit = "1")
+        String next(VirtualFrame frame, PStringIO self,
+                        @Cached IsBuiltinClassProfile isStringIO,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            String line;
+            if (isStringIO.profileObject(self, PStringIO)) {
+                /* Skip method call overhead for speed */
+                line = readChars(self, findLineEnd(self, -1));
+            } else {
+                /* XXX is subclassing StringIO really supported? */
+                Object res = lib.lookupAndCallRegularMethod(self, frame, "readline");
+                try {
+                    line = castToStringNode.execute(res);
+                } catch (CannotCastException e) {
+                    throw raise(OSError, READLINE_SHOULD_HAVE_RETURNED_STR_NOT_P, res);
+                }
+            }
+            if (line.isEmpty()) {
+                throw raise(StopIteration);
+            }
+            return line;
+        }
+    }
+
+    @Builtin(name = __GETSTATE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetStateNode extends PythonUnaryWithCheckBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"}, limit = "1")
+        Object getstate(VirtualFrame frame, PStringIO self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            Object dict = lib.lookupAttribute(self, frame, __DICT__);
+            if (dict == PNone.NO_VALUE) {
+                dict = PNone.NONE;
+            } else {
+                dict = lib.lookupAndCallRegularMethod(dict, frame, "copy");
+            }
+            Object readnl = self.getReadNewline() == null ? PNone.NONE : self.getReadNewline();
+            return factory().createTuple(new Object[]{self.getValue(), readnl, self.getPos(), dict});
+        }
+    }
+
+    @Builtin(name = __SETSTATE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetStateNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        Object setstate(VirtualFrame frame, PStringIO self, Object state,
+                        @Cached SequenceNodes.GetObjectArrayNode getArray,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            Object[] items = state instanceof PTuple ? getArray.execute(state) : null;
+            if (items == null || items.length < 4) {
+                throw raise(TypeError, SETSTATE_ARGUMENT_SHOULD_BE_D_TUPLE, self, 4, state);
+            }
+            String value = castInitialValue(items[0], castToStringNode, getRaiseNode());
+            initialize(self, null, castNewline(items[1], castToStringNode, getRaiseNode()));
+            /*
+             * Restore the buffer state. Unlike __init__, the value is not translated since its
+             * newlines already were when it was written.
+             */
+            if (value != null) {
+                self.setValue(value);
+            }
+            /* Set carefully the position value. */
+            Object position = items[2];
+            if (!PGuards.isInteger(position) && !PGuards.isPInt(position)) {
+                throw raise(TypeError, S_ITEM_OF_STATE_MUST_BE_AN_INTEGER, "third", position);
+            }
+            int pos = lib.asSizeWithState(position, OverflowError, PArguments.getThreadState(frame));
+            if (pos < 0) {
+                throw raise(ValueError, POSITION_VALUE_CANNOT_BE_NEGATIVE);
+            }
+            self.setPos(pos);
+            /* Set the dictionary of the instance variables. */
+            Object dict = items[3];
+            if (dict != PNone.NONE) {
+                if (!(dict instanceof PDict)) {
+                    throw raise(TypeError, S_ITEM_OF_STATE_SHOULD_BE_A_DICT, "fourth", dict);
+                }
+                lib.lookupAndCallRegularMethod(lib.lookupAttributeStrict(self, frame, __DICT__), frame, "update", dict);
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(@SuppressWarnings("unused") PStringIO self, @SuppressWarnings("unused") Object state) {
+            throw StringIOBuiltins.closedError(getRaiseNode());
+        }
+    }
+}
@@ -0,0 +1,765 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.LookupError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTextIOWrapper;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CUR;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_END;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_SET;
+import static com.oracle.graal.python.builtins.modules.io.IOModuleBuiltins.raiseUnsupported;
+import static com.oracle.graal.python.nodes.ErrorMessages.ARG_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_DO_NONZERO_CUR_RELATIVE_SEEKS;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_DO_NONZERO_END_RELATIVE_SEEKS;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_RECONFIGURE_AFTER_READ;
+import static com.oracle.graal.python.nodes.ErrorMessages.CHUNK_SIZE_POS;
+import static com.oracle.graal.python.nodes.ErrorMessages.ILLEGAL_NEWLINE_VALUE_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_UNINIT;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SEEK_POSITION_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NOT_READABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.OBJ_P_HAS_NO_ATTR_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNDERLYING_BUFFER_DETACHED;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNDERLYING_STREAM_NOT_SEEKABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNKNOWN_ENCODING;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNSUPPORTED_WHENCE;
+import static com.oracle.graal.python.nodes.ErrorMessages.WRITE_ARG_MUST_BE_STR;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.EncodeBaseNode;
+import com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.HandleEncodingErrorNode;
+import com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.TruffleEncoder;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.CharsetMapping;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PTextIOWrapper)
+public class TextIOWrapperBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TextIOWrapperBuiltinsFactory.getFactories();
+    }
+
+    protected static final int DEFAULT_CHUNK_SIZE = IOModuleBuiltins.DEFAULT_BUFFER_SIZE;
+
+    static boolean isValidNewline(String newline) {
+        return newline.isEmpty() || newline.equals("\n") || newline.equals("\r") || newline.equals("\r\n");
+    }
+
+    @TruffleBoundary
+    static CharsetDecoder createDecoder(Charset charset, String errors) {
+        CodingErrorAction action = EncodeBaseNode.convertCodingErrorAction(errors);
+        return charset.newDecoder().onMalformedInput(action).onUnmappableCharacter(action);
+    }
+
+    @TruffleBoundary
+    static String getDefaultEncoding() {
+        String name = CharsetMapping.getPythonEncodingNameFromJavaName(Charset.defaultCharset().name());
+        return name != null ? name : "utf-8";
+    }
+
+    @TruffleBoundary
+    static String getLineSeparator() {
+        return System.lineSeparator();
+    }
+
+    // TextIOWrapper(buffer, encoding=None, errors=None, newline=None, line_buffering=False,
+    // write_through=False)
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer", "encoding", "errors", "newline", "line_buffering", "write_through"})
+    @ArgumentClinic(name = "encoding", conversion = ArgumentClinic.ClinicConversion.String, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @ArgumentClinic(name = "errors", conversion = ArgumentClinic.ClinicConversion.String, defaultValue = "\"strict\"", useDefaultForNone = true)
+    @ArgumentClinic(name = "newline", conversion = ArgumentClinic.ClinicConversion.String, defaultValue = "PNone.NONE", useDefaultForNone = true)
+    @ArgumentClinic(name = "line_buffering", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "false")
+    @ArgumentClinic(name = "write_through", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "2")
+        PNone init(VirtualFrame frame, PTextIO self, Object buffer, Object encodingArg, String errors, Object newlineArg, boolean lineBuffering, boolean writeThrough,
+                        @CachedLibrary("buffer") PythonObjectLibrary libBuffer,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary isTrue) {
+            self.setOK(false);
+            self.setDetached(false);
+            String newline = newlineArg instanceof String ? (String) newlineArg : null;
+            if (newline != null && !isValidNewline(newline)) {
+                throw raise(ValueError, ILLEGAL_NEWLINE_VALUE_S, newline);
+            }
+            String encoding = encodingArg instanceof String ? (String) encodingArg : getDefaultEncoding();
+            Charset charset = CharsetMapping.getCharset(encoding);
+            if (charset == null) {
+                throw raise(LookupError, UNKNOWN_ENCODING, encoding);
+            }
+            self.setBuffer(buffer);
+            self.setEncoding(encoding, CharsetMapping.normalize(encoding), charset);
+            self.setErrors(errors);
+            self.setNewline(newline, getLineSeparator());
+            self.setLineBuffering(lineBuffering);
+            self.setWriteThrough(writeThrough);
+            self.setChunkSize(DEFAULT_CHUNK_SIZE);
+            boolean readable = isTrue.isTrue(libBuffer.lookupAndCallRegularMethod(buffer, frame, "readable"), frame);
+            self.setDecoder(readable ? createDecoder(charset, errors) : null);
+            self.resetDecodingState();
+            self.setSeekable(isTrue.isTrue(libBuffer.lookupAndCallRegularMethod(buffer, frame, "seekable"), frame));
+            self.setHasRead1(libBuffer.lookupAttribute(buffer, frame, "read1") != PNone.NO_VALUE);
+            self.setOK(true);
+            return PNone.NONE;
+        }
+    }
+
+    static PException initError(PRaiseNode raiseNode, PTextIO self) {
+        if (self.isDetached()) {
+            throw raiseNode.raise(ValueError, UNDERLYING_BUFFER_DETACHED);
+        } else {
+            throw raiseNode.raise(ValueError, IO_UNINIT);
+        }
+    }
+
+    abstract static class PythonUnaryWithInitErrorBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PTextIO self) {
+            throw TextIOWrapperBuiltins.initError(getRaiseNode(), self);
+        }
+    }
+
+    abstract static class PythonBinaryWithInitErrorBuiltinNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PTextIO self, @SuppressWarnings("unused") Object o) {
+            throw TextIOWrapperBuiltins.initError(getRaiseNode(), self);
+        }
+    }
+
+    abstract static class PythonBinaryWithInitErrorClinicBuiltinNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PTextIO self, @SuppressWarnings("unused") Object o) {
+            throw TextIOWrapperBuiltins.initError(getRaiseNode(), self);
+        }
+    }
+
+    @Builtin(name = "detach", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DetachNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "1")
+        static Object detach(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf) {
+            libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+            Object buffer = self.getBuffer();
+            self.setBuffer(null);
+            self.setDetached(true);
+            self.setOK(false);
+            return buffer;
+        }
+    }
+
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FlushNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object flush(VirtualFrame frame, PTextIO self,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            checkClosedNode.execute(frame, self);
+            return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "flush");
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object close(VirtualFrame frame, PTextIO self,
+                        @Cached TextIOWrapperNodes.IsClosedNode isClosedNode,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            if (isClosedNode.execute(frame, self)) {
+                return PNone.NONE;
+            }
+            PException flushError = null;
+            try {
+                libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+            } catch (PException e) {
+                flushError = e;
+            }
+            Object res = libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "close");
+            if (flushError != null) {
+                throw flushError;
+            }
+            return res;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static boolean closed(VirtualFrame frame, PTextIO self,
+                        @Cached TextIOWrapperNodes.IsClosedNode isClosedNode) {
+            return isClosedNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NameNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object name(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            return libBuffer.lookupAttribute(self.getBuffer(), frame, "name");
+        }
+    }
+
+    @Builtin(name = "mode", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class ModeNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(none)")
+        Object get(PTextIO self, @SuppressWarnings("unused") PNone none) {
+            if (self.getMode() == PNone.NO_VALUE) {
+                throw raise(AttributeError, OBJ_P_HAS_NO_ATTR_S, self, "mode");
+            }
+            return self.getMode();
+        }
+
+        @Specialization(guards = "!isNoValue(mode)")
+        static Object set(PTextIO self, Object mode) {
+            self.setMode(mode);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "encoding", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class EncodingNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static String encoding(PTextIO self) {
+            return self.getEncoding();
+        }
+    }
+
+    @Builtin(name = "errors", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ErrorsNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static String errors(PTextIO self) {
+            return self.getErrors();
+        }
+    }
+
+    @Builtin(name = "buffer", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class BufferNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static Object buffer(PTextIO self) {
+            return self.getBuffer();
+        }
+    }
+
+    @Builtin(name = "line_buffering", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LineBufferingNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static boolean lineBuffering(PTextIO self) {
+            return self.isLineBuffering();
+        }
+    }
+
+    @Builtin(name = "write_through", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class WriteThroughNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static boolean writeThrough(PTextIO self) {
+            return self.isWriteThrough();
+        }
+    }
+
+    @Builtin(name = "newlines", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NewlinesNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        Object newlines(PTextIO self) {
+            if (self.getDecoder() == null || !self.isReadUniversal()) {
+                return PNone.NONE;
+            }
+            switch (self.getSeenNewlines()) {
+                case PTextIO.SEEN_LF:
+                    return "\n";
+                case PTextIO.SEEN_CR:
+                    return "\r";
+                case PTextIO.SEEN_CR | PTextIO.SEEN_LF:
+                    return factory().createTuple(new Object[]{"\r", "\n"});
+                case PTextIO.SEEN_CRLF:
+                    return "\r\n";
+                case PTextIO.SEEN_LF | PTextIO.SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\n", "\r\n"});
+                case PTextIO.SEEN_CR | PTextIO.SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\r", "\r\n"});
+                case PTextIO.SEEN_CR | PTextIO.SEEN_LF | PTextIO.SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\r", "\n", "\r\n"});
+                default:
+                    return PNone.NONE;
+            }
+        }
+    }
+
+    @Builtin(name = "_CHUNK_SIZE", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class ChunkSizeNode extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "isNoValue(none)"})
+        static int get(PTextIO self, @SuppressWarnings("unused") PNone none) {
+            return self.getChunkSize();
+        }
+
+        @Specialization(guards = {"self.isOK()", "!isNoValue(value)"}, limit = "2")
+        Object set(VirtualFrame frame, PTextIO self, Object value,
+                        @CachedLibrary("value") PythonObjectLibrary lib) {
+            int size = lib.asSizeWithFrame(value, ValueError, frame);
+            if (size <= 0) {
+                throw raise(ValueError, CHUNK_SIZE_POS);
+            }
+            self.setChunkSize(size);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "fileno", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FileNoNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object fileno(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "fileno");
+        }
+    }
+
+    @Builtin(name = "seekable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SeekableNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object seekable(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "seekable");
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object readable(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "readable");
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object writable(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "writable");
+        }
+    }
+
+    @Builtin(name = "isatty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsAttyNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object isatty(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "isatty");
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadNode extends PythonBinaryWithInitErrorClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.ReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "self.isOK()")
+        Object read(VirtualFrame frame, PTextIO self, int size,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode,
+                        @Cached TextIOWrapperNodes.ReadNode readNode) {
+            checkClosedNode.execute(frame, self);
+            if (self.getDecoder() == null) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), NOT_READABLE);
+            }
+            return readNode.execute(frame, self, size);
+        }
+    }
+
+    @Builtin(name = "readline", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlineNode extends PythonBinaryWithInitErrorClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.ReadlineNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "self.isOK()")
+        Object readline(VirtualFrame frame, PTextIO self, int size,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode,
+                        @Cached TextIOWrapperNodes.ReadlineNode readlineNode) {
+            checkClosedNode.execute(frame, self);
+            if (self.getDecoder() == null) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), NOT_READABLE);
+            }
+            return readlineNode.execute(frame, self, size);
+        }
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IterNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static Object iter(VirtualFrame frame, PTextIO self,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode) {
+            checkClosedNode.execute(frame, self);
+            return self;
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NextNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        Object next(VirtualFrame frame, PTextIO self,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode,
+                        @Cached TextIOWrapperNodes.ReadlineNode readlineNode) {
+            checkClosedNode.execute(frame, self);
+            if (self.getDecoder() == null) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), NOT_READABLE);
+            }
+            String line = readlineNode.execute(frame, self, -1);
+            if (line.isEmpty()) {
+                throw raise(StopIteration);
+            }
+            return line;
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WriteNode extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        Object write(VirtualFrame frame, PTextIO self, Object text,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode,
+                        @Cached HandleEncodingErrorNode handleEncodingErrorNode,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            String str;
+            try {
+                str = castToStringNode.execute(text);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, WRITE_ARG_MUST_BE_STR, text);
+            }
+            checkClosedNode.execute(frame, self);
+            int length = codePointCount(str);
+            boolean hasLF = indexOf(str, '\n') >= 0;
+            if (hasLF && self.isWriteTranslated()) {
+                str = replaceNewlines(str, self.getWriteNewline());
+            }
+            boolean needFlush = self.isLineBuffering() && (hasLF || indexOf(str, '\r') >= 0);
+            TruffleEncoder encoder = new TruffleEncoder(self.getEncodingName(), self.getCharset(), str, EncodeBaseNode.convertCodingErrorAction(self.getErrors()));
+            while (!encoder.encodingStep()) {
+                handleEncodingErrorNode.execute(encoder, self.getErrors(), text);
+            }
+            libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "write", factory().createBytes(encoder.getBytes()));
+            if (needFlush) {
+                libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "flush");
+            }
+            if (self.hasPendingState()) {
+                self.resetDecodingState();
+            }
+            return length;
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static int codePointCount(String str) {
+            return str.codePointCount(0, str.length());
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static int indexOf(String str, char c) {
+            return str.indexOf(c);
+        }
+
+        @TruffleBoundary
+        private static String replaceNewlines(String str, String newline) {
+            return str.replace("\n", newline);
+        }
+    }
+
+    @Builtin(name = "tell", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TellNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        Object tell(VirtualFrame frame, PTextIO self,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary asLong) {
+            checkClosedNode.execute(frame, self);
+            if (!self.isSeekable()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), UNDERLYING_STREAM_NOT_SEEKABLE);
+            }
+            libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+            Object pos = libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "tell");
+            if (!self.hasPendingState()) {
+                return pos;
+            }
+            return TextIOWrapperNodes.adjustPosition(self, asLong.asJavaLong(pos, frame));
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfPositionalArgs = 2, parameterNames = {"$self", "cookie", "whence"})
+    @ArgumentClinic(name = "whence", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedIOUtil.SEEK_SET", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class SeekNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.SeekNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "self.isOK()", limit = "2")
+        Object seek(VirtualFrame frame, PTextIO self, Object cookieObj, int whence,
+                        @Cached TextIOWrapperNodes.CheckClosedNode checkClosedNode,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer,
+                        @CachedLibrary("cookieObj") PythonObjectLibrary libCookie) {
+            checkClosedNode.execute(frame, self);
+            if (!self.isSeekable()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), UNDERLYING_STREAM_NOT_SEEKABLE);
+            }
+            long cookie = libCookie.asJavaLong(cookieObj, frame);
+            switch (whence) {
+                case SEEK_CUR:
+                    if (cookie != 0) {
+                        throw raiseUnsupported(getRaiseNode(), getCore(), CANT_DO_NONZERO_CUR_RELATIVE_SEEKS);
+                    }
+                    return libSelf.lookupAndCallRegularMethod(self, frame, "tell");
+                case SEEK_END:
+                    if (cookie != 0) {
+                        throw raiseUnsupported(getRaiseNode(), getCore(), CANT_DO_NONZERO_END_RELATIVE_SEEKS);
+                    }
+                    libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+                    self.resetDecodingState();
+                    return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "seek", 0, SEEK_END);
+                case SEEK_SET:
+                    break;
+                default:
+                    throw raise(ValueError, UNSUPPORTED_WHENCE, whence);
+            }
+            if (cookie < 0) {
+                throw raise(ValueError, NEGATIVE_SEEK_POSITION_D, cookie);
+            }
+            libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+            libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "seek", cookie);
+            self.resetDecodingState();
+            return cookieObj;
+        }
+
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PTextIO self, @SuppressWarnings("unused") Object cookie, @SuppressWarnings("unused") int whence) {
+            throw TextIOWrapperBuiltins.initError(getRaiseNode(), self);
+        }
+    }
+
+    @Builtin(name = "truncate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "pos"})
+    @GenerateNodeFactory
+    abstract static class TruncateNode extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        static Object truncate(VirtualFrame frame, PTextIO self, Object pos,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer) {
+            libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+            return libBuffer.lookupAndCallRegularMethod(self.getBuffer(), frame, "truncate", pos == PNone.NO_VALUE ? PNone.NONE : pos);
+        }
+    }
+
+    @Builtin(name = "reconfigure", minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"encoding", "errors", "newline", "line_buffering", "write_through"})
+    @GenerateNodeFactory
+    abstract static class ReconfigureNode extends PythonBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "2")
+        Object reconfigure(VirtualFrame frame, PTextIO self, Object encodingObj, Object errorsObj, Object newlineObj, Object lineBufferingObj, Object writeThroughObj,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary isTrue) {
+            String encoding = castOptional(castToStringNode, encodingObj, "encoding");
+            String errors = castOptional(castToStringNode, errorsObj, "errors");
+            boolean changeNewline = newlineObj != PNone.NO_VALUE;
+            String newline = castOptional(castToStringNode, newlineObj, "newline");
+            if (newline != null && !isValidNewline(newline)) {
+                throw raise(ValueError, ILLEGAL_NEWLINE_VALUE_S, newline);
+            }
+            if ((encoding != null || changeNewline) && self.getDecoder() != null && self.hasPendingState()) {
+                throw raiseUnsupported(getRaiseNode(), getCore(), CANT_RECONFIGURE_AFTER_READ);
+            }
+            libSelf.lookupAndCallRegularMethod(self, frame, "flush");
+            if (encoding != null || errors != null) {
+                String newEncoding = encoding != null ? encoding : self.getEncoding();
+                String newErrors = errors != null ? errors : encoding != null ? "strict" : self.getErrors();
+                Charset charset = CharsetMapping.getCharset(newEncoding);
+                if (charset == null) {
+                    throw raise(LookupError, UNKNOWN_ENCODING, newEncoding);
+                }
+                self.setEncoding(newEncoding, CharsetMapping.normalize(newEncoding), charset);
+                self.setErrors(newErrors);
+                if (self.getDecoder() != null) {
+                    self.setDecoder(createDecoder(charset, newErrors));
+                }
+            }
+            if (changeNewline) {
+                self.setNewline(newline, getLineSeparator());
+            }
+            if (!PGuards.isPNone(lineBufferingObj)) {
+                self.setLineBuffering(isTrue.isTrue(lineBufferingObj, frame));
+            }
+            if (!PGuards.isPNone(writeThroughObj)) {
+                self.setWriteThrough(isTrue.isTrue(writeThroughObj, frame));
+            }
+            return PNone.NONE;
+        }
+
+        private String castOptional(CastToJavaStringNode castToStringNode, Object value, String argName) {
+            if (PGuards.isPNone(value)) {
+                return null;
+            }
+            try {
+                return castToStringNode.execute(value);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ARG_MUST_BE_STR_OR_NONE, "reconfigure", argName, value);
+            }
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PTextIO self, Object encoding, Object errors, Object newline, Object lineBuffering, Object writeThrough) {
+            throw TextIOWrapperBuiltins.initError(getRaiseNode(), self);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()", limit = "1")
+        static String repr(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self") PythonObjectLibrary libSelf,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode,
+                        @Cached CastToJavaStringNode castToStringNode,
+                        @Cached IsBuiltinClassProfile errorProfile) {
+            StringBuilder sb = PythonUtils.newStringBuilder("<_io.TextIOWrapper");
+            Object name;
+            try {
+                name = libSelf.lookupAttribute(self, frame, "name");
+            } catch (PException e) {
+                if (!errorProfile.profileException(e, AttributeError)) {
+                    e.expect(ValueError, errorProfile);
+                }
+                name = PNone.NO_VALUE;
+            }
+            if (name != PNone.NO_VALUE) {
+                PythonUtils.append(sb, " name=");
+                PythonUtils.append(sb, castToStringNode.execute(reprNode.executeObject(frame, name)));
+            }
+            if (self.getMode() != PNone.NO_VALUE) {
+                PythonUtils.append(sb, " mode=");
+                PythonUtils.append(sb, castToStringNode.execute(reprNode.executeObject(frame, self.getMode())));
+            }
+            PythonUtils.append(sb, " encoding='");
+            PythonUtils.append(sb, self.getEncoding());
+            PythonUtils.append(sb, "'>");
+            return PythonUtils.sbToString(sb);
+        }
+    }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedReader;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_CLOSED;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNDERLYING_S_SHOULD_HAVE_RETURNED_BYTES;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.HandleDecodingErrorNode;
+import com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.TruffleDecoder;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+public class TextIOWrapperNodes {
+
+    /* results of findLineEnd besides an index */
+    static final int NO_LINE_END = -1;
+    static final int NEED_MORE = -2;
+
+    abstract static class CheckClosedNode extends PNodeWithContext {
+
+        public abstract void execute(VirtualFrame frame, PTextIO self);
+
+        @Specialization
+        static void checkClosed(VirtualFrame frame, PTextIO self,
+                        @Cached IsClosedNode isClosedNode,
+                        @Cached PRaiseNode raiseNode,
+                        @Cached ConditionProfile isError) {
+            if (isError.profile(isClosedNode.execute(frame, self))) {
+                throw raiseNode.raise(ValueError, IO_CLOSED);
+            }
+        }
+    }
+
+    abstract static class IsClosedNode extends PNodeWithContext {
+
+        public abstract boolean execute(VirtualFrame frame, PTextIO self);
+
+        protected static boolean isBuffered(PTextIO self) {
+            return self.getBuffer() instanceof PBuffered;
+        }
+
+        @Specialization(guards = "isBuffered(self)")
+        static boolean isClosedBuffered(VirtualFrame frame, PTextIO self,
+                        @Cached BufferedIONodes.IsClosedNode isClosedNode) {
+            return isClosedNode.execute(frame, (PBuffered) self.getBuffer());
+        }
+
+        @Specialization(guards = "!isBuffered(self)", limit = "2")
+        static boolean isClosed(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary("self.getBuffer()") PythonObjectLibrary libBuffer,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary isTrue) {
+            Object res = libBuffer.lookupAttribute(self.getBuffer(), frame, "closed");
+            return isTrue.isTrue(res, frame);
+        }
+    }
+
+    /**
+     * Reads bytes from the underlying buffer: up to {@code size} bytes using {@code read1} (or
+     * {@code read} if the buffer has no {@code read1}) or everything until EOF if {@code size} is
+     * negative. A Java {@code BufferedReader} is read directly without going through Python calls.
+     */
+    abstract static class ReadBytesNode extends PNodeWithContext {
+
+        public abstract byte[] execute(VirtualFrame frame, PTextIO self, int size);
+
+        @Specialization
+        static byte[] read(VirtualFrame frame, PTextIO self, int size,
+                        @Cached IsBuiltinClassProfile isBufferedReader,
+                        @Cached BufferedReaderNodes.Read1Node read1Node,
+                        @Cached BufferedReaderNodes.ReadNode readNode,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary libBuffer,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary libResult,
+                        @Cached BytesNodes.ToBytesNode toBytes,
+                        @Cached PRaiseNode raiseNode) {
+            Object buffer = self.getBuffer();
+            if (buffer instanceof PBuffered && isFastReader((PBuffered) buffer) && isBufferedReader.profileObject(buffer, PBufferedReader)) {
+                PBuffered buffered = (PBuffered) buffer;
+                return size < 0 ? readNode.execute(frame, buffered, -1) : read1Node.execute(frame, buffered, size);
+            }
+            String method;
+            Object res;
+            if (size < 0) {
+                method = "read";
+                res = libBuffer.lookupAndCallRegularMethod(buffer, frame, method);
+            } else {
+                method = self.hasRead1() ? "read1" : "read";
+                res = libBuffer.lookupAndCallRegularMethod(buffer, frame, method, size);
+            }
+            if (!libResult.isBuffer(res)) {
+                throw raiseNode.raise(TypeError, UNDERLYING_S_SHOULD_HAVE_RETURNED_BYTES, method, res);
+            }
+            return toBytes.execute(res);
+        }
+
+        private static boolean isFastReader(PBuffered buffered) {
+            return buffered.isOK() && buffered.getBuffer() != null && !buffered.isWritable();
+        }
+    }
+
+    /**
+     * Decodes the next piece of input, prepending the bytes left over from the previous call. The
+     * decoder keeps its state between calls; incomplete characters at the end of {@code input}
+     * are kept for the next call unless {@code isFinal} is set.
+     */
+    abstract static class DecodeNode extends PNodeWithContext {
+
+        public abstract String execute(PTextIO self, byte[] input, boolean isFinal);
+
+        @Specialization
+        static String decode(PTextIO self, byte[] input, boolean isFinal,
+                        @Cached HandleDecodingErrorNode errorHandler,
+                        @Cached PythonObjectFactory factory) {
+            byte[] data = concat(self.getPendingBytes(), input);
+            TruffleDecoder decoder = new TruffleDecoder(self.getEncodingName(), self.getDecoder(), data, data.length);
+            while (!decoder.decodingStep(isFinal)) {
+                errorHandler.execute(decoder, self.getErrors(), factory.createBytes(data));
+            }
+            int consumed = decoder.getInputPosition();
+            self.setPendingBytes(consumed < data.length ? Arrays.copyOfRange(data, consumed, data.length) : null);
+            if (isFinal) {
+                self.resetDecoder();
+            }
+            return decoder.getString();
+        }
+
+        private static byte[] concat(byte[] pending, byte[] input) {
+            if (pending == null) {
+                return input;
+            }
+            byte[] data = new byte[pending.length + input.length];
+            PythonUtils.arraycopy(pending, 0, data, 0, pending.length);
+            PythonUtils.arraycopy(input, 0, data, pending.length, input.length);
+            return data;
+        }
+    }
+
+    /**
+     * Reads and decodes one chunk from the buffer and appends it to the decoded characters not
+     * consumed yet. Returns {@code false} at EOF.
+     */
+    abstract static class ReadChunkNode extends PNodeWithContext {
+
+        public abstract boolean execute(VirtualFrame frame, PTextIO self);
+
+        @Specialization
+        static boolean readChunk(VirtualFrame frame, PTextIO self,
+                        @Cached ReadBytesNode readBytesNode,
+                        @Cached DecodeNode decodeNode) {
+            byte[] input = readBytesNode.execute(frame, self, self.getChunkSize());
+            boolean eof = input.length == 0;
+            self.appendDecodedChars(decodeNode.execute(self, input, eof));
+            return !eof;
+        }
+    }
+
+    abstract static class ReadlineNode extends PNodeWithContext {
+
+        public abstract String execute(VirtualFrame frame, PTextIO self, int limit);
+
+        @Specialization
+        static String readline(VirtualFrame frame, PTextIO self, int limit,
+                        @Cached ReadChunkNode readChunkNode) {
+            StringBuilder line = null;
+            boolean eof = false;
+            while (true) {
+                String text = self.getDecodedChars();
+                int start = self.getDecodedCharsUsed();
+                int end = findLineEnd(self, text, start, eof);
+                if (end >= 0) {
+                    self.setDecodedCharsUsed(end);
+                    return finishLine(self, line, text, start, end, true, limit);
+                }
+                /* Everything up to a trailing '\r' that may start a '\r\n' belongs to the line. */
+                int consumed = end == NEED_MORE ? text.length() - 1 : text.length();
+                if (consumed > start) {
+                    line = appendRange(line, text, start, consumed);
+                    self.setDecodedCharsUsed(consumed);
+                }
+                if (eof || (limit >= 0 && line != null && length(line) >= limit)) {
+                    return finishLine(self, line, text, consumed, consumed, false, limit);
+                }
+                eof = !readChunkNode.execute(frame, self);
+            }
+        }
+    }
+
+    /**
+     * Reads up to {@code size} characters, or everything until EOF if {@code size} is negative.
+     */
+    abstract static class ReadNode extends PNodeWithContext {
+
+        public abstract String execute(VirtualFrame frame, PTextIO self, int size);
+
+        @Specialization(guards = "size < 0")
+        static String readAll(VirtualFrame frame, PTextIO self, @SuppressWarnings("unused") int size,
+                        @Cached ReadBytesNode readBytesNode,
+                        @Cached DecodeNode decodeNode) {
+            String rest = takeRemaining(self);
+            byte[] input = readBytesNode.execute(frame, self, -1);
+            String text = concat(rest, decodeNode.execute(self, input, true));
+            return translateAll(self, text);
+        }
+
+        @Specialization(guards = "size >= 0")
+        static String read(VirtualFrame frame, PTextIO self, int size,
+                        @Cached ReadChunkNode readChunkNode) {
+            StringBuilder out = PythonUtils.newStringBuilder();
+            boolean eof = false;
+            while (true) {
+                takeChars(self, out, size - length(out), eof);
+                if (length(out) >= size || eof) {
+                    return PythonUtils.sbToString(out);
+                }
+                eof = !readChunkNode.execute(frame, self);
+            }
+        }
+    }
+
+    /**
+     * Returns the byte position of the next character to be read from a readable stream, given
+     * the position of the underlying buffer. The characters that were decoded but not consumed
+     * yet are re-encoded to find out how many bytes they occupy.
+     */
+    @TruffleBoundary
+    static long adjustPosition(PTextIO self, long bufferPos) {
+        long pos = bufferPos;
+        if (self.getPendingBytes() != null) {
+            pos -= self.getPendingBytes().length;
+        }
+        if (self.getDecodedCharsRemaining() > 0) {
+            pos -= encodedLength(self.getCharset(), self.getDecodedChars().substring(self.getDecodedCharsUsed()));
+        }
+        return pos;
+    }
+
+    private static int encodedLength(Charset charset, String chars) {
+        try {
+            return charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE).encode(CharBuffer.wrap(chars)).remaining();
+        } catch (CharacterCodingException e) {
+            // cannot happen with REPLACE
+            return chars.length();
+        }
+    }
+
+    /**
+     * Finds the end of the first line in {@code text[start:]}. Returns the index just after the
+     * line ending, {@link #NO_LINE_END} if there is none or {@link #NEED_MORE} if the only
+     * candidate is a {@code '\r'} at the very end of {@code text} which might be followed by a
+     * {@code '\n'} in the next chunk.
+     */
+    @TruffleBoundary
+    static int findLineEnd(PTextIO self, String text, int start, boolean eof) {
+        int len = text.length();
+        if (self.isReadUniversal()) {
+            for (int i = start; i < len; i++) {
+                char c = text.charAt(i);
+                if (c == '\n') {
+                    return i + 1;
+                } else if (c == '\r') {
+                    if (i + 1 < len) {
+                        return text.charAt(i + 1) == '\n' ? i + 2 : i + 1;
+                    }
+                    return eof ? i + 1 : NEED_MORE;
+                }
+            }
+            return NO_LINE_END;
+        }
+        String nl = self.getReadNewline();
+        int idx = text.indexOf(nl, start);
+        if (idx >= 0) {
+            return idx + nl.length();
+        }
+        if (!eof && nl.length() > 1 && len > start && text.charAt(len - 1) == nl.charAt(0)) {
+            return NEED_MORE;
+        }
+        return NO_LINE_END;
+    }
+
+    /**
+     * Builds the line {@code prefix + text[start:end]}. If it is longer than {@code limit}, the
+     * excess is put back into the decoded buffer; a line ending can only be cut if it is not
+     * translated, since the translated ending is a single character. Otherwise the line ending is
+     * recorded and translated as needed.
+     */
+    @TruffleBoundary
+    static String finishLine(PTextIO self, StringBuilder prefix, String text, int start, int end, boolean hasEnding, int limit) {
+        String line;
+        if (prefix == null) {
+            line = text.substring(start, end);
+        } else {
+            prefix.append(text, start, end);
+            line = prefix.toString();
+        }
+        int endingLength = 0;
+        if (hasEnding) {
+            int len = line.length();
+            endingLength = line.charAt(len - 1) == '\n' && self.isCRLFAware() && len > 1 && line.charAt(len - 2) == '\r' ? 2 : 1;
+        }
+        int translatedEndingLength = self.isReadTranslate() && endingLength > 0 ? 1 : endingLength;
+        if (limit >= 0 && line.length() - endingLength + translatedEndingLength > limit) {
+            self.unreadDecodedChars(line.substring(limit));
+            return line.substring(0, limit);
+        }
+        if (hasEnding && self.isReadUniversal()) {
+            self.addSeenNewlines(endingLength == 2 ? PTextIO.SEEN_CRLF : line.charAt(line.length() - 1) == '\n' ? PTextIO.SEEN_LF : PTextIO.SEEN_CR);
+            if (self.isReadTranslate()) {
+                return line.substring(0, line.length() - endingLength) + '\n';
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Moves up to {@code n} characters from the decoded buffer to {@code out}, translating line
+     * endings if needed. Stops before a trailing {@code '\r'} unless at EOF, because a following
+     * {@code '\n'} would change its meaning.
+     */
+    @TruffleBoundary
+    static void takeChars(PTextIO self, StringBuilder out, int n, boolean eof) {
+        String text = self.getDecodedChars();
+        int i = self.getDecodedCharsUsed();
+        int len = text.length();
+        if (!self.isReadTranslate()) {
+            int end = Math.min(len, i + n);
+            if (self.isReadUniversal()) {
+                recordNewlines(self, text, i, end);
+            }
+            out.append(text, i, end);
+            self.setDecodedCharsUsed(end);
+            return;
+        }
+        int taken = 0;
+        int seen = 0;
+        while (i < len && taken < n) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < len) {
+                    if (text.charAt(i + 1) == '\n') {
+                        seen |= PTextIO.SEEN_CRLF;
+                        i++;
+                    } else {
+                        seen |= PTextIO.SEEN_CR;
+                    }
+                } else if (eof) {
+                    seen |= PTextIO.SEEN_CR;
+                } else {
+                    break;
+                }
+                c = '\n';
+            } else if (c == '\n') {
+                seen |= PTextIO.SEEN_LF;
+            }
+            out.append(c);
+            taken++;
+            i++;
+        }
+        self.addSeenNewlines(seen);
+        self.setDecodedCharsUsed(i);
+    }
+
+    /**
+     * Translates (or only records, if not translating) all line endings of {@code text}.
+     */
+    @TruffleBoundary
+    static String translateAll(PTextIO self, String text) {
+        if (!self.isReadUniversal()) {
+            return text;
+        }
+        recordNewlines(self, text, 0, text.length());
+        if (!self.isReadTranslate() || text.indexOf('\r') < 0) {
+            return text;
+        }
+        return text.replace("\r\n", "\n").replace('\r', '\n');
+    }
+
+    private static void recordNewlines(PTextIO self, String text, int start, int end) {
+        int seen = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                seen |= PTextIO.SEEN_LF;
+            } else if (c == '\r') {
+                if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    seen |= PTextIO.SEEN_CRLF;
+                    i++;
+                } else {
+                    seen |= PTextIO.SEEN_CR;
+                }
+            }
+        }
+        self.addSeenNewlines(seen);
+    }
+
+    @TruffleBoundary
+    private static String takeRemaining(PTextIO self) {
+        String rest = self.getDecodedChars().substring(self.getDecodedCharsUsed());
+        self.setDecodedCharsUsed(self.getDecodedChars().length());
+        return rest;
+    }
+
+    @TruffleBoundary
+    private static StringBuilder appendRange(StringBuilder sb, String text, int start, int end) {
+        StringBuilder result = sb == null ? new StringBuilder(end - start + 64) : sb;
+        return result.append(text, start, end);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static int length(StringBuilder sb) {
+        return sb.length();
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static String concat(String a, String b) {
+        return a.isEmpty() ? b : a.concat(b);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.json.PJsonEncoder.FastEncode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(defineModule = "_json")
+public class JsonModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return JsonModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(PythonCore core) {
+        // like in CPython, the factories are the types themselves
+        builtinConstants.put("make_scanner", core.lookupType(PythonBuiltinClassType.PJsonScanner));
+        builtinConstants.put("make_encoder", core.lookupType(PythonBuiltinClassType.PJsonEncoder));
+        super.initialize(core);
+    }
+
+    @Builtin(name = "scanstring", minNumOfPositionalArgs = 2, parameterNames = {"string", "end", "strict"})
+    @ArgumentClinic(name = "string", conversion = ClinicConversion.String)
+    @ArgumentClinic(name = "end", conversion = ClinicConversion.Index)
+    @ArgumentClinic(name = "strict", conversion = ClinicConversion.IntToBoolean, defaultValue = "true")
+    @GenerateNodeFactory
+    abstract static class ScanstringNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JsonModuleBuiltinsClinicProviders.ScanstringNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PTuple scanstring(VirtualFrame frame, String string, int end, boolean strict,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return factory().createTuple(JsonParser.scanString(this, context, string, end, strict));
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+    }
+
+    @Builtin(name = "encode_basestring_ascii", minNumOfPositionalArgs = 1, parameterNames = {"s"})
+    @ArgumentClinic(name = "s", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class EncodeBasestringAsciiNode extends PythonUnaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JsonModuleBuiltinsClinicProviders.EncodeBasestringAsciiNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @TruffleBoundary
+        static String encode(String s) {
+            StringBuilder sb = new StringBuilder(s.length() + 2);
+            JsonUtils.appendStringAscii(sb, s);
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = "encode_basestring", minNumOfPositionalArgs = 1, parameterNames = {"s"})
+    @ArgumentClinic(name = "s", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class EncodeBasestringNode extends PythonUnaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JsonModuleBuiltinsClinicProviders.EncodeBasestringNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @TruffleBoundary
+        static String encode(String s) {
+            StringBuilder sb = new StringBuilder(s.length() + 2);
+            JsonUtils.appendString(sb, s);
+            return sb.toString();
+        }
+    }
+
+    @Builtin(name = "make_scanner", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "context"}, constructsClass = PythonBuiltinClassType.PJsonScanner)
+    @GenerateNodeFactory
+    public abstract static class MakeScannerNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        PJsonScanner doNew(VirtualFrame frame, Object cls, Object context,
+                        @CachedLibrary("context") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary attrLib) {
+            boolean strict = attrLib.isTrue(lib.lookupAttributeStrict(context, frame, "strict"), frame);
+            Object objectHook = noneToNull(lib.lookupAttributeStrict(context, frame, "object_hook"));
+            Object objectPairsHook = noneToNull(lib.lookupAttributeStrict(context, frame, "object_pairs_hook"));
+            Object parseFloat = lib.lookupAttributeStrict(context, frame, "parse_float");
+            Object parseInt = lib.lookupAttributeStrict(context, frame, "parse_int");
+            Object parseConstant = lib.lookupAttributeStrict(context, frame, "parse_constant");
+            if (IsBuiltinClassProfile.profileClassSlowPath(parseFloat, PythonBuiltinClassType.PFloat)) {
+                parseFloat = null;
+            }
+            if (IsBuiltinClassProfile.profileClassSlowPath(parseInt, PythonBuiltinClassType.PInt)) {
+                parseInt = null;
+            }
+            return factory().createJsonScanner(cls, strict, objectHook, objectPairsHook, parseFloat, parseInt, parseConstant);
+        }
+
+        private static Object noneToNull(Object value) {
+            return value == PNone.NONE ? null : value;
+        }
+    }
+
+    @Builtin(name = "make_encoder", minNumOfPositionalArgs = 10, parameterNames = {"$cls", "markers", "default", "encoder", "indent", "key_separator", "item_separator", "sort_keys",
+                    "skipkeys", "allow_nan"}, constructsClass = PythonBuiltinClassType.PJsonEncoder)
+    @GenerateNodeFactory
+    public abstract static class MakeEncoderNode extends PythonBuiltinNode {
+        @Specialization
+        PJsonEncoder doNew(VirtualFrame frame, Object cls, Object markers, Object defaultFn, Object encoder, Object indent, Object keySeparator, Object itemSeparator, Object sortKeys,
+                        Object skipKeys, Object allowNan,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached CastToJavaStringNode castToString) {
+            if (markers != PNone.NONE && !(markers instanceof PDict)) {
+                throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.MAKE_ENCODER_ARG_1_MUST_BE_DICT_NOT_P, markers);
+            }
+            FastEncode fastEncode = FastEncode.None;
+            if (encoder instanceof PBuiltinFunction) {
+                Class<?> nodeClass = ((PBuiltinFunction) encoder).getNodeClass();
+                if (nodeClass == EncodeBasestringAsciiNode.class) {
+                    fastEncode = FastEncode.Ascii;
+                } else if (nodeClass == EncodeBasestringNode.class) {
+                    fastEncode = FastEncode.Unicode;
+                }
+            }
+            String indentString = null;
+            if (indent != PNone.NONE) {
+                try {
+                    indentString = castToString.execute(indent);
+                } catch (CannotCastException e) {
+                    if (!lib.canBeIndex(indent)) {
+                        throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.JSON_INDENT_MUST_BE_NONE_INT_OR_STR_NOT_P, indent);
+                    }
+                    indentString = spaces(lib.asSizeWithFrame(indent, PythonBuiltinClassType.OverflowError, frame));
+                }
+            }
+            return factory().createJsonEncoder(cls, markers != PNone.NONE, defaultFn, encoder, fastEncode, indentString, castSeparator(castToString, keySeparator),
+                            castSeparator(castToString, itemSeparator), lib.isTrue(sortKeys, frame), lib.isTrue(skipKeys, frame), lib.isTrue(allowNan, frame));
+        }
+
+        private String castSeparator(CastToJavaStringNode castToString, Object separator) {
+            try {
+                return castToString.execute(separator);
+            } catch (CannotCastException e) {
+                throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.ARG_MUST_BE_S_NOT_P, "make_encoder()", "str", separator);
+            }
+        }
+
+        @TruffleBoundary
+        private static String spaces(int n) {
+            StringBuilder sb = new StringBuilder(Math.max(n, 0));
+            for (int i = 0; i < n; i++) {
+                sb.append(' ');
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,625 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Recursive descent JSON parser working directly on the characters of the document. It mirrors
+ * the behavior (including error positions) of {@code json.scanner.py_make_scanner} and the
+ * {@code JSONObject}/{@code JSONArray} functions of {@code json.decoder}.
+ */
+final class JsonParser {
+    private static final int MAX_DEPTH = 2000;
+
+    private static final int NUMBER_NONE = 0;
+    private static final int NUMBER_INT = 1;
+    private static final int NUMBER_LONG = 2;
+    private static final int NUMBER_BIG = 3;
+    private static final int NUMBER_DOUBLE = 4;
+
+    private final PNodeWithRaise node;
+    private final PythonContext context;
+    private final PJsonScanner scanner;
+    private final String s;
+    private final int len;
+    private final PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+    private final HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+    private final PythonObjectFactory factory = PythonObjectFactory.getUncached();
+    /** Interns the keys of objects, like the {@code memo} of the Python scanner. */
+    private final HashMap<String, String> memo = new HashMap<>();
+
+    /** The position after the last scanned value. */
+    private int pos;
+    private int depth;
+
+    // the result of the last call to scanNumber
+    private int numberKind;
+    private int intValue;
+    private long longValue;
+    private double doubleValue;
+    private int numberStart;
+
+    JsonParser(PNodeWithRaise node, PythonContext context, PJsonScanner scanner, String s) {
+        this.node = node;
+        this.context = context;
+        this.scanner = scanner;
+        this.s = s;
+        this.len = s.length();
+    }
+
+    /** Scans one value at {@code idx} and returns it together with the end index. */
+    Object[] scanOnce(int idx) {
+        if (idx < 0) {
+            throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.IDX_CANNOT_BE_NEGATIVE);
+        }
+        Object value = scan(idx, false);
+        return new Object[]{value, pos};
+    }
+
+    /** Implements {@code scanstring}: {@code end} is the index after the opening quote. */
+    @TruffleBoundary
+    static Object[] scanString(PNodeWithRaise node, PythonContext context, String s, int end, boolean strict) {
+        if (end < 0 || end > s.length()) {
+            throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.END_IS_OUT_OF_BOUNDS);
+        }
+        JsonParser parser = new JsonParser(node, context, null, s);
+        String result = parser.parseString(end, strict);
+        return new Object[]{result, parser.pos};
+    }
+
+    private PException decodeError(String msg, int errorPos) {
+        Object top = AbstractImportNode.importModule("json.decoder");
+        Object module = context.getSysModules().getItem("json.decoder");
+        Object errorType = lib.lookupAttributeStrict(module != null ? module : top, null, "JSONDecodeError");
+        Object exception = lib.callObject(errorType, null, msg, s, errorPos);
+        throw PRaiseNode.raise(node, (PBaseException) exception, PythonOptions.isPExceptionWithJavaStacktrace(PythonLanguage.getCurrent()));
+    }
+
+    private int skipWhitespace(int idx) {
+        int i = idx;
+        while (i < len) {
+            char c = s.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private boolean startsWith(int idx, String word) {
+        return s.startsWith(word, idx);
+    }
+
+    /**
+     * Scans a value at {@code idx} and sets {@link #pos} to the index after it. If there is no
+     * value, raises {@code StopIteration(idx)} for the top-level value and "Expecting value" for
+     * nested ones, which is what the decoder makes of the {@code StopIteration}.
+     */
+    private Object scan(int idx, boolean nested) {
+        if (idx >= len) {
+            throw noValue(idx, nested);
+        }
+        char c = s.charAt(idx);
+        switch (c) {
+            case '"':
+                return parseString(idx + 1, scanner.strict);
+            case '{':
+                return parseObject(idx + 1);
+            case '[':
+                return parseArray(idx + 1);
+            case 'n':
+                if (startsWith(idx, "null")) {
+                    pos = idx + 4;
+                    return PNone.NONE;
+                }
+                break;
+            case 't':
+                if (startsWith(idx, "true")) {
+                    pos = idx + 4;
+                    return true;
+                }
+                break;
+            case 'f':
+                if (startsWith(idx, "false")) {
+                    pos = idx + 5;
+                    return false;
+                }
+                break;
+        }
+        if (scanNumber(idx)) {
+            return boxNumber();
+        }
+        if (c == 'N' && startsWith(idx, "NaN")) {
+            pos = idx + 3;
+            return parseConstant("NaN");
+        } else if (c == 'I' && startsWith(idx, "Infinity")) {
+            pos = idx + 8;
+            return parseConstant("Infinity");
+        } else if (c == '-' && startsWith(idx, "-Infinity")) {
+            pos = idx + 9;
+            return parseConstant("-Infinity");
+        }
+        throw noValue(idx, nested);
+    }
+
+    private PException noValue(int idx, boolean nested) {
+        if (nested) {
+            throw decodeError("Expecting value", idx);
+        }
+        throw node.raise(PythonBuiltinClassType.StopIteration, new Object[]{idx});
+    }
+
+    private Object parseConstant(String name) {
+        return lib.callObject(scanner.parseConstant, null, name);
+    }
+
+    // numbers
+
+    /**
+     * Matches {@code -?(0|[1-9]\d*)(\.\d+)?([eE][-+]?\d+)?} at {@code idx}. If the number can be
+     * represented without calling a user-provided {@code parse_int}/{@code parse_float}, its
+     * primitive value is stored in the number fields.
+     */
+    private boolean scanNumber(int idx) {
+        int i = idx;
+        if (i < len && s.charAt(i) == '-') {
+            i++;
+        }
+        if (i >= len) {
+            return false;
+        }
+        char c = s.charAt(i);
+        if (c == '0') {
+            i++;
+        } else if (c >= '1' && c <= '9') {
+            i++;
+            while (i < len && isDigit(s.charAt(i))) {
+                i++;
+            }
+        } else {
+            return false;
+        }
+        boolean isFloat = false;
+        if (i + 1 < len && s.charAt(i) == '.' && isDigit(s.charAt(i + 1))) {
+            isFloat = true;
+            i += 2;
+            while (i < len && isDigit(s.charAt(i))) {
+                i++;
+            }
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            int e = i + 1;
+            if (e < len && (s.charAt(e) == '-' || s.charAt(e) == '+')) {
+                e++;
+            }
+            if (e < len && isDigit(s.charAt(e))) {
+                isFloat = true;
+                i = e + 1;
+                while (i < len && isDigit(s.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+        numberStart = idx;
+        pos = i;
+        if (isFloat) {
+            if (scanner.parseFloat != null) {
+                numberKind = NUMBER_NONE;
+            } else {
+                numberKind = NUMBER_DOUBLE;
+                doubleValue = Double.parseDouble(s.substring(idx, i));
+            }
+        } else if (scanner.parseInt != null) {
+            numberKind = NUMBER_NONE;
+        } else {
+            boolean negative = s.charAt(idx) == '-';
+            int firstDigit = negative ? idx + 1 : idx;
+            if (i - firstDigit <= 18) {
+                // at most 18 digits always fit into a long
+                long value = 0;
+                for (int j = firstDigit; j < i; j++) {
+                    value = value * 10 + (s.charAt(j) - '0');
+                }
+                longValue = negative ? -value : value;
+                if (longValue == (int) longValue) {
+                    numberKind = NUMBER_INT;
+                    intValue = (int) longValue;
+                } else {
+                    numberKind = NUMBER_LONG;
+                }
+            } else {
+                numberKind = NUMBER_BIG;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private Object boxNumber() {
+        switch (numberKind) {
+            case NUMBER_INT:
+                return intValue;
+            case NUMBER_LONG:
+                return longValue;
+            case NUMBER_DOUBLE:
+                return doubleValue;
+            case NUMBER_BIG: {
+                BigInteger value = new BigInteger(s.substring(numberStart, pos));
+                if (value.bitLength() < 64) {
+                    return value.longValue();
+                }
+                return factory.createInt(value);
+            }
+            default: {
+                String text = s.substring(numberStart, pos);
+                boolean isFloat = text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0;
+                return lib.callObject(isFloat ? scanner.parseFloat : scanner.parseInt, null, text);
+            }
+        }
+    }
+
+    // strings
+
+    private String parseString(int end, boolean strict) {
+        int begin = end - 1;
+        // fast path: no escapes and no control characters
+        for (int i = end; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                pos = i + 1;
+                return s.substring(end, i);
+            } else if (c == '\\' || (c < 0x20 && strict)) {
+                return parseStringSlow(begin, end, i, strict);
+            }
+        }
+        throw decodeError("Unterminated string starting at", begin);
+    }
+
+    private String parseStringSlow(int begin, int start, int firstSpecial, boolean strict) {
+        StringBuilder sb = new StringBuilder(firstSpecial - start + 16);
+        sb.append(s, start, firstSpecial);
+        int i = firstSpecial;
+        while (true) {
+            if (i >= len) {
+                throw decodeError("Unterminated string starting at", begin);
+            }
+            char c = s.charAt(i);
+            if (c == '"') {
+                pos = i + 1;
+                return sb.toString();
+            } else if (c == '\\') {
+                i++;
+                if (i >= len) {
+                    throw decodeError("Unterminated string starting at", begin);
+                }
+                char esc = s.charAt(i);
+                switch (esc) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append(esc);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u': {
+                        int uni = decodeHex4(i);
+                        i += 4;
+                        if (uni >= 0xd800 && uni <= 0xdbff && i + 7 < len && s.charAt(i + 1) == '\\' && s.charAt(i + 2) == 'u') {
+                            int uni2 = decodeHex4(i + 2);
+                            if (uni2 >= 0xdc00 && uni2 <= 0xdfff) {
+                                sb.append((char) uni);
+                                uni = uni2;
+                                i += 6;
+                            }
+                        }
+                        sb.append((char) uni);
+                        break;
+                    }
+                    default:
+                        throw decodeError("Invalid \\escape", i - 1);
+                }
+                i++;
+            } else if (c < 0x20 && strict) {
+                throw decodeError("Invalid control character at", i);
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Decodes the four hex digits after the {@code u} at {@code idx}. Like CPython, this requires
+     * at least one more character (the closing quote) after the digits.
+     */
+    private int decodeHex4(int idx) {
+        if (idx + 5 < len) {
+            int value = 0;
+            for (int i = idx + 1; i <= idx + 4; i++) {
+                int digit = Character.digit(s.charAt(i), 16);
+                if (digit < 0) {
+                    value = -1;
+                    break;
+                }
+                value = (value << 4) | digit;
+            }
+            if (value >= 0) {
+                return value;
+            }
+        }
+        throw decodeError("Invalid \\uXXXX escape", idx);
+    }
+
+    // containers
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw node.raise(PythonBuiltinClassType.RecursionError, ErrorMessages.MAXIMUM_RECURSION_DEPTH_EXCEEDED_WHILE_DECODING_JSON);
+        }
+    }
+
+    private Object parseObject(int start) {
+        enter();
+        int end = start;
+        PDict dict = scanner.objectPairsHook == null ? factory.createDict() : null;
+        HashingStorage storage = dict != null ? dict.getDictStorage() : null;
+        ObjectSequenceStorage pairs = dict == null ? new ObjectSequenceStorage(4) : null;
+        char next = end < len ? s.charAt(end) : 0;
+        if (next != '"') {
+            end = skipWhitespace(end);
+            next = end < len ? s.charAt(end) : 0;
+            if (next == '}') {
+                depth--;
+                pos = end + 1;
+                return finishObject(dict, storage, pairs);
+            } else if (next != '"') {
+                throw decodeError("Expecting property name enclosed in double quotes", end);
+            }
+        }
+        end++;
+        while (true) {
+            String key = parseString(end, scanner.strict);
+            String interned = memo.putIfAbsent(key, key);
+            if (interned != null) {
+                key = interned;
+            }
+            end = pos;
+            if (end >= len || s.charAt(end) != ':') {
+                end = skipWhitespace(end);
+                if (end >= len || s.charAt(end) != ':') {
+                    throw decodeError("Expecting ':' delimiter", end);
+                }
+            }
+            end = skipWhitespace(end + 1);
+            Object value = scan(end, true);
+            if (storage != null) {
+                storage = hlib.setItem(storage, key, value);
+            } else {
+                pairs.insertItem(pairs.length(), factory.createTuple(new Object[]{key, value}));
+            }
+            end = skipWhitespace(pos);
+            next = end < len ? s.charAt(end) : 0;
+            end++;
+            if (next == '}') {
+                break;
+            } else if (next != ',') {
+                throw decodeError("Expecting ',' delimiter", end - 1);
+            }
+            end = skipWhitespace(end);
+            next = end < len ? s.charAt(end) : 0;
+            end++;
+            if (next != '"') {
+                throw decodeError("Expecting property name enclosed in double quotes", end - 1);
+            }
+        }
+        depth--;
+        pos = end;
+        return finishObject(dict, storage, pairs);
+    }
+
+    private Object finishObject(PDict dict, HashingStorage storage, ObjectSequenceStorage pairs) {
+        if (dict == null) {
+            return lib.callObject(scanner.objectPairsHook, null, factory.createList(pairs));
+        }
+        dict.setDictStorage(storage);
+        if (scanner.objectHook != null) {
+            return lib.callObject(scanner.objectHook, null, dict);
+        }
+        return dict;
+    }
+
+    private Object parseArray(int start) {
+        enter();
+        int end = skipWhitespace(start);
+        if (end < len && s.charAt(end) == ']') {
+            depth--;
+            pos = end + 1;
+            return factory.createList();
+        }
+        ListBuilder builder = new ListBuilder();
+        while (true) {
+            char c = end < len ? s.charAt(end) : 0;
+            if ((c == '-' || isDigit(c)) && scanNumber(end)) {
+                switch (numberKind) {
+                    case NUMBER_INT:
+                        builder.addInt(intValue);
+                        break;
+                    case NUMBER_DOUBLE:
+                        builder.addDouble(doubleValue);
+                        break;
+                    default:
+                        builder.add(boxNumber());
+                        break;
+                }
+            } else {
+                builder.add(scan(end, true));
+            }
+            end = skipWhitespace(pos);
+            char next = end < len ? s.charAt(end) : 0;
+            end++;
+            if (next == ']') {
+                break;
+            } else if (next != ',') {
+                throw decodeError("Expecting ',' delimiter", end - 1);
+            }
+            end = skipWhitespace(end);
+        }
+        depth--;
+        pos = end;
+        return factory.createList(builder.build());
+    }
+
+    /**
+     * Collects the items of an array into the most specific storage: arrays of only ints or only
+     * floats end up in unboxed storages.
+     */
+    private static final class ListBuilder {
+        private int[] ints;
+        private double[] doubles;
+        private Object[] objects;
+        private int size;
+
+        void addInt(int value) {
+            if (size == 0 && objects == null && doubles == null) {
+                ints = new int[8];
+            }
+            if (ints != null) {
+                if (size == ints.length) {
+                    ints = Arrays.copyOf(ints, size * 2);
+                }
+                ints[size++] = value;
+            } else {
+                add(value);
+            }
+        }
+
+        void addDouble(double value) {
+            if (size == 0 && objects == null && ints == null) {
+                doubles = new double[8];
+            }
+            if (doubles != null) {
+                if (size == doubles.length) {
+                    doubles = Arrays.copyOf(doubles, size * 2);
+                }
+                doubles[size++] = value;
+            } else {
+                add(value);
+            }
+        }
+
+        void add(Object value) {
+            if (objects == null) {
+                generalize();
+            }
+            if (size == objects.length) {
+                objects = PythonUtils.arrayCopyOf(objects, size * 2);
+            }
+            objects[size++] = value;
+        }
+
+        private void generalize() {
+            objects = new Object[Math.max(8, size * 2)];
+            if (ints != null) {
+                for (int i = 0; i < size; i++) {
+                    objects[i] = ints[i];
+                }
+                ints = null;
+            } else if (doubles != null) {
+                for (int i = 0; i < size; i++) {
+                    objects[i] = doubles[i];
+                }
+                doubles = null;
+            }
+        }
+
+        SequenceStorage build() {
+            if (ints != null) {
+                return new IntSequenceStorage(ints, size);
+            } else if (doubles != null) {
+                return new DoubleSequenceStorage(doubles, size);
+            }
+            return new ObjectSequenceStorage(objects, size);
+        }
+    }
+}
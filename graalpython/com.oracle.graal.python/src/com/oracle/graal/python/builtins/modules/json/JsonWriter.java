@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import java.util.IdentityHashMap;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.formatting.FloatFormatter;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+
+/**
+ * Serializes an object graph into a single {@link StringBuilder}. The output is the same as the
+ * one of {@code json.encoder._make_iterencode}, but produced in one piece instead of a chunk per
+ * token.
+ */
+final class JsonWriter {
+    private static final Spec FLOAT_REPR_SPEC = new Spec(' ', '>', Spec.NONE, false, Spec.UNSPECIFIED, Spec.NONE, 0, 'r');
+
+    private final PNodeWithRaise node;
+    private final PJsonEncoder encoder;
+    private final StringBuilder sb = new StringBuilder(256);
+    private final PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+    private final HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+    private final PythonObjectFactory factory = PythonObjectFactory.getUncached();
+    /** The containers that are currently being serialized, if circular references are checked. */
+    private final IdentityHashMap<Object, Object> markers;
+
+    JsonWriter(PNodeWithRaise node, PJsonEncoder encoder) {
+        this.node = node;
+        this.encoder = encoder;
+        this.markers = encoder.checkCircular ? new IdentityHashMap<>() : null;
+    }
+
+    String encode(Object obj, int indentLevel) {
+        encodeValue(obj, indentLevel);
+        return sb.toString();
+    }
+
+    private void encodeValue(Object obj, int indentLevel) {
+        if (obj == PNone.NONE) {
+            sb.append("null");
+        } else if (obj == Boolean.TRUE) {
+            sb.append("true");
+        } else if (obj == Boolean.FALSE) {
+            sb.append("false");
+        } else if (obj instanceof String) {
+            appendString((String) obj);
+        } else if (obj instanceof PString) {
+            appendString(((PString) obj).getValue());
+        } else if (obj instanceof Integer || obj instanceof Long) {
+            sb.append(obj);
+        } else if (obj instanceof PInt) {
+            sb.append(((PInt) obj).getValue());
+        } else if (obj instanceof Double) {
+            appendFloat((double) obj);
+        } else if (obj instanceof PFloat) {
+            appendFloat(((PFloat) obj).getValue());
+        } else if (obj instanceof PList || obj instanceof PTuple) {
+            SequenceStorage storage = obj instanceof PList ? ((PList) obj).getSequenceStorage() : ((PTuple) obj).getSequenceStorage();
+            encodeSequence(obj, storage, indentLevel);
+        } else if (obj instanceof PDict) {
+            encodeDict((PDict) obj, indentLevel);
+        } else {
+            enter(obj);
+            Object newObj = lib.callObject(encoder.defaultFn, null, obj);
+            encodeValue(newObj, indentLevel);
+            exit(obj);
+        }
+    }
+
+    private void enter(Object obj) {
+        if (markers != null && markers.put(obj, obj) != null) {
+            throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.CIRCULAR_REFERENCE_DETECTED);
+        }
+    }
+
+    private void exit(Object obj) {
+        if (markers != null) {
+            markers.remove(obj);
+        }
+    }
+
+    private void appendString(String s) {
+        switch (encoder.fastEncode) {
+            case Ascii:
+                JsonUtils.appendStringAscii(sb, s);
+                break;
+            case Unicode:
+                JsonUtils.appendString(sb, s);
+                break;
+            default:
+                Object encoded = lib.callObject(encoder.encoder, null, s);
+                try {
+                    sb.append(CastToJavaStringNode.getUncached().execute(encoded));
+                } catch (CannotCastException e) {
+                    throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.ENCODER_RETURNED_P_NOT_STR, encoded);
+                }
+                break;
+        }
+    }
+
+    private void appendFloat(double d) {
+        if (Double.isFinite(d)) {
+            FloatFormatter f = new FloatFormatter(PRaiseNode.getUncached(), FLOAT_REPR_SPEC);
+            f.setMinFracDigits(1);
+            sb.append(f.format(d).getResult());
+        } else if (!encoder.allowNan) {
+            FloatFormatter f = new FloatFormatter(PRaiseNode.getUncached(), FLOAT_REPR_SPEC);
+            throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.OUT_OF_RANGE_FLOAT_NOT_JSON_COMPLIANT, f.format(d).getResult());
+        } else if (d > 0) {
+            sb.append("Infinity");
+        } else if (d < 0) {
+            sb.append("-Infinity");
+        } else {
+            sb.append("NaN");
+        }
+    }
+
+    private void newlineIndent(int indentLevel) {
+        sb.append('\n');
+        for (int i = 0; i < indentLevel; i++) {
+            sb.append(encoder.indent);
+        }
+    }
+
+    private void encodeSequence(Object seq, SequenceStorage storage, int indentLevel) {
+        int len = storage.length();
+        if (len == 0) {
+            sb.append("[]");
+            return;
+        }
+        enter(seq);
+        sb.append('[');
+        int level = indentLevel;
+        if (encoder.indent != null) {
+            level++;
+            newlineIndent(level);
+        }
+        for (int i = 0; i < storage.length(); i++) {
+            if (i > 0) {
+                sb.append(encoder.itemSeparator);
+                if (encoder.indent != null) {
+                    newlineIndent(level);
+                }
+            }
+            encodeValue(storage.getItemNormalized(i), level);
+        }
+        if (encoder.indent != null) {
+            newlineIndent(level - 1);
+        }
+        sb.append(']');
+        exit(seq);
+    }
+
+    private void encodeDict(PDict dict, int indentLevel) {
+        if (hlib.length(dict.getDictStorage()) == 0) {
+            sb.append("{}");
+            return;
+        }
+        enter(dict);
+        sb.append('{');
+        int level = indentLevel;
+        if (encoder.indent != null) {
+            level++;
+            newlineIndent(level);
+        }
+        boolean first = true;
+        if (encoder.sortKeys) {
+            SequenceStorage items = sortedItems(dict);
+            for (int i = 0; i < items.length(); i++) {
+                SequenceStorage item = ((PTuple) items.getItemNormalized(i)).getSequenceStorage();
+                first = encodeItem(item.getItemNormalized(0), item.getItemNormalized(1), first, level);
+            }
+        } else {
+            for (DictEntry entry : hlib.entries(dict.getDictStorage())) {
+                first = encodeItem(entry.key, entry.value, first, level);
+            }
+        }
+        if (encoder.indent != null) {
+            newlineIndent(level - 1);
+        }
+        sb.append('}');
+        exit(dict);
+    }
+
+    private SequenceStorage sortedItems(PDict dict) {
+        ObjectSequenceStorage items = new ObjectSequenceStorage(hlib.length(dict.getDictStorage()));
+        for (DictEntry entry : hlib.entries(dict.getDictStorage())) {
+            items.insertItem(items.length(), factory.createTuple(new Object[]{entry.key, entry.value}));
+        }
+        PList list = factory.createList(items);
+        lib.lookupAndCallRegularMethod(list, null, "sort");
+        return list.getSequenceStorage();
+    }
+
+    /** Encodes one key-value pair and returns whether nothing has been written yet. */
+    private boolean encodeItem(Object key, Object value, boolean first, int level) {
+        String keyString = convertKey(key);
+        if (keyString == null) {
+            return first;
+        }
+        if (!first) {
+            sb.append(encoder.itemSeparator);
+            if (encoder.indent != null) {
+                newlineIndent(level);
+            }
+        }
+        appendString(keyString);
+        sb.append(encoder.keySeparator);
+        encodeValue(value, level);
+        return false;
+    }
+
+    /** Returns the string for a dict key or {@code null} if the key is skipped. */
+    private String convertKey(Object key) {
+        if (key instanceof String) {
+            return (String) key;
+        } else if (key instanceof PString) {
+            return ((PString) key).getValue();
+        } else if (key instanceof Double || key instanceof PFloat) {
+            int start = sb.length();
+            appendFloat(key instanceof Double ? (double) key : ((PFloat) key).getValue());
+            String result = sb.substring(start);
+            sb.setLength(start);
+            return result;
+        } else if (key == Boolean.TRUE) {
+            return "true";
+        } else if (key == Boolean.FALSE) {
+            return "false";
+        } else if (key == PNone.NONE) {
+            return "null";
+        } else if (key instanceof Integer || key instanceof Long) {
+            return key.toString();
+        } else if (key instanceof PInt) {
+            return ((PInt) key).getValue().toString();
+        } else if (encoder.skipKeys) {
+            return null;
+        }
+        throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.KEYS_MUST_BE_STR_INT_NOT_P, key);
+    }
+}
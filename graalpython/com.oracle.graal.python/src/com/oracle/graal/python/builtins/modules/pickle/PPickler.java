@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+public final class PPickler extends PythonBuiltinObject {
+
+    private boolean initialized;
+    private int protocol;
+    private boolean fixImports;
+    /** The bound {@code write} method of the file or {@code null} when pickling to bytes. */
+    private Object write;
+    private Object bufferCallback;
+
+    /** Maps pickled objects (by identity) to their memo index. */
+    private IdentityHashMap<Object, Integer> memo;
+
+    private byte[] output = PythonUtils.EMPTY_BYTE_ARRAY;
+    private int outputLen;
+    private int frameStart = -1;
+
+    public PPickler(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    @TruffleBoundary
+    public void init(int proto, boolean fix, Object writeMethod, Object callback) {
+        this.protocol = proto;
+        this.fixImports = fix;
+        this.write = writeMethod;
+        this.bufferCallback = callback;
+        this.memo = new IdentityHashMap<>();
+        this.initialized = true;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public int getProtocol() {
+        return protocol;
+    }
+
+    public boolean isBin() {
+        return protocol > 0;
+    }
+
+    public boolean isFixImports() {
+        return fixImports;
+    }
+
+    public Object getWrite() {
+        return write;
+    }
+
+    public Object getBufferCallback() {
+        return bufferCallback;
+    }
+
+    @TruffleBoundary
+    public void clearMemo() {
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
+    @TruffleBoundary
+    int memoGet(Object obj) {
+        Integer idx = memo.get(obj);
+        return idx == null ? -1 : idx;
+    }
+
+    @TruffleBoundary
+    int memoPut(Object obj) {
+        int idx = memo.size();
+        memo.put(obj, idx);
+        return idx;
+    }
+
+    // output buffer
+
+    void resetOutput() {
+        output = new byte[256];
+        outputLen = 0;
+        frameStart = -1;
+    }
+
+    void releaseOutput() {
+        output = PythonUtils.EMPTY_BYTE_ARRAY;
+        outputLen = 0;
+        frameStart = -1;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = outputLen + additional;
+        if (required < 0) {
+            throw new OutOfMemoryError();
+        }
+        if (required > output.length) {
+            int newCapacity = Math.max(required, output.length * 2);
+            if (newCapacity < 0) {
+                newCapacity = Integer.MAX_VALUE - 8;
+            }
+            output = Arrays.copyOf(output, newCapacity);
+        }
+    }
+
+    void write(byte b) {
+        ensureCapacity(1);
+        output[outputLen++] = b;
+    }
+
+    void write(byte b0, byte b1) {
+        ensureCapacity(2);
+        output[outputLen++] = b0;
+        output[outputLen++] = b1;
+    }
+
+    void write(byte[] data, int offset, int len) {
+        ensureCapacity(len);
+        PythonUtils.arraycopy(data, offset, output, outputLen, len);
+        outputLen += len;
+    }
+
+    void write(byte[] data) {
+        write(data, 0, data.length);
+    }
+
+    void writeIntLE(int value) {
+        ensureCapacity(4);
+        output[outputLen++] = (byte) value;
+        output[outputLen++] = (byte) (value >> 8);
+        output[outputLen++] = (byte) (value >> 16);
+        output[outputLen++] = (byte) (value >> 24);
+    }
+
+    void writeLongLE(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            output[outputLen++] = (byte) (value >> (8 * i));
+        }
+    }
+
+    void writeLongBE(long value) {
+        ensureCapacity(8);
+        for (int i = 7; i >= 0; i--) {
+            output[outputLen++] = (byte) (value >> (8 * i));
+        }
+    }
+
+    /** Writes an opcode followed by the length of the payload in the given number of bytes. */
+    void writeSized(byte opcode, long size, int sizeBytes) {
+        write(opcode);
+        if (sizeBytes == 1) {
+            write((byte) size);
+        } else if (sizeBytes == 4) {
+            writeIntLE((int) size);
+        } else {
+            writeLongLE(size);
+        }
+    }
+
+    // framing (protocol 4+)
+
+    void startFrame() {
+        if (protocol >= 4 && frameStart == -1) {
+            frameStart = outputLen;
+            ensureCapacity(PickleUtils.FRAME_HEADER_SIZE);
+            outputLen += PickleUtils.FRAME_HEADER_SIZE;
+        }
+    }
+
+    void commitFrame() {
+        if (frameStart == -1) {
+            return;
+        }
+        int frameLen = outputLen - frameStart - PickleUtils.FRAME_HEADER_SIZE;
+        if (frameLen >= PickleUtils.FRAME_SIZE_MIN) {
+            output[frameStart] = PickleUtils.FRAME;
+            long len = frameLen;
+            for (int i = 0; i < 8; i++) {
+                output[frameStart + 1 + i] = (byte) (len >> (8 * i));
+            }
+        } else {
+            PythonUtils.arraycopy(output, frameStart + PickleUtils.FRAME_HEADER_SIZE, output, frameStart, frameLen);
+            outputLen -= PickleUtils.FRAME_HEADER_SIZE;
+        }
+        frameStart = -1;
+    }
+
+    boolean isFrameFull() {
+        return frameStart != -1 && outputLen - frameStart >= PickleUtils.FRAME_SIZE_TARGET;
+    }
+
+    int getOutputLength() {
+        return outputLen;
+    }
+
+    byte[] getOutputBytes() {
+        return Arrays.copyOf(output, outputLen);
+    }
+
+    void discardOutput() {
+        outputLen = 0;
+    }
+}
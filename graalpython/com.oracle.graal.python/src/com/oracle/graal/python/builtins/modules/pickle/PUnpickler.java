@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.object.Shape;
+
+public final class PUnpickler extends PythonBuiltinObject {
+
+    private boolean initialized;
+    private boolean fixImports;
+    private String encoding;
+    private String errors;
+    /** An iterator over the out-of-band buffers or {@code null}. */
+    private Object buffers;
+
+    /** The bound {@code read} and {@code readline} methods of the file. */
+    private Object read;
+    private Object readline;
+
+    /** Data that has already been read and is consumed by the opcodes. */
+    private byte[] input = PythonUtils.EMPTY_BYTE_ARRAY;
+    private int inputPos;
+    private int inputLen;
+    /** End of the current frame within {@link #input} or -1 outside of frames. */
+    private int frameEnd = -1;
+
+    private Object[] stack = new Object[16];
+    private int stackSize;
+    private int[] marks = new int[8];
+    private int marksSize;
+    private Object[] memo = new Object[32];
+    private int memoCount;
+
+    private int proto;
+
+    public PUnpickler(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public void init(Object readMethod, Object readlineMethod, boolean fix, String enc, String err, Object buffersIterator) {
+        this.read = readMethod;
+        this.readline = readlineMethod;
+        this.fixImports = fix;
+        this.encoding = enc;
+        this.errors = err;
+        this.buffers = buffersIterator;
+        this.initialized = true;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public boolean isFixImports() {
+        return fixImports;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getErrors() {
+        return errors;
+    }
+
+    public Object getBuffers() {
+        return buffers;
+    }
+
+    public Object getRead() {
+        return read;
+    }
+
+    public Object getReadline() {
+        return readline;
+    }
+
+    public int getProto() {
+        return proto;
+    }
+
+    void setProto(int proto) {
+        this.proto = proto;
+    }
+
+    // input
+
+    void setInput(byte[] data, int len) {
+        input = data;
+        inputPos = 0;
+        inputLen = len;
+        frameEnd = -1;
+    }
+
+    byte[] getInput() {
+        return input;
+    }
+
+    int getInputPos() {
+        return inputPos;
+    }
+
+    void setInputPos(int pos) {
+        inputPos = pos;
+    }
+
+    int available() {
+        return inputLen - inputPos;
+    }
+
+    int getFrameEnd() {
+        return frameEnd;
+    }
+
+    void setFrameEnd(int frameEnd) {
+        this.frameEnd = frameEnd;
+    }
+
+    /** Appends data that was read from the file, dropping what has already been consumed. */
+    void appendInput(byte[] data, int len) {
+        int remaining = inputLen - inputPos;
+        byte[] newInput = new byte[remaining + len];
+        PythonUtils.arraycopy(input, inputPos, newInput, 0, remaining);
+        PythonUtils.arraycopy(data, 0, newInput, remaining, len);
+        if (frameEnd != -1) {
+            frameEnd -= inputPos;
+        }
+        input = newInput;
+        inputPos = 0;
+        inputLen = newInput.length;
+    }
+
+    void releaseInput() {
+        input = PythonUtils.EMPTY_BYTE_ARRAY;
+        inputPos = 0;
+        inputLen = 0;
+        frameEnd = -1;
+    }
+
+    // stack and marks
+
+    void push(Object value) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = value;
+    }
+
+    Object pop() {
+        Object value = stack[--stackSize];
+        stack[stackSize] = null;
+        return value;
+    }
+
+    Object peek() {
+        return stack[stackSize - 1];
+    }
+
+    void replaceTop(Object value) {
+        stack[stackSize - 1] = value;
+    }
+
+    Object get(int idx) {
+        return stack[idx];
+    }
+
+    int getStackSize() {
+        return stackSize;
+    }
+
+    /** Removes and returns the items from {@code start} to the top of the stack. */
+    Object[] popFrom(int start) {
+        Object[] items = Arrays.copyOfRange(stack, start, stackSize);
+        Arrays.fill(stack, start, stackSize, null);
+        stackSize = start;
+        return items;
+    }
+
+    void clearStack() {
+        Arrays.fill(stack, 0, stackSize, null);
+        stackSize = 0;
+        marksSize = 0;
+    }
+
+    void pushMark() {
+        if (marksSize == marks.length) {
+            marks = Arrays.copyOf(marks, marksSize * 2);
+        }
+        marks[marksSize++] = stackSize;
+    }
+
+    boolean hasMark() {
+        return marksSize > 0;
+    }
+
+    int popMark() {
+        return marks[--marksSize];
+    }
+
+    /** The stack size at the last mark, i.e., the lowest stack index the current opcode may use. */
+    int getStackBase() {
+        return marksSize > 0 ? marks[marksSize - 1] : 0;
+    }
+
+    // memo
+
+    Object memoGet(long idx) {
+        if (idx < 0 || idx >= memo.length) {
+            return null;
+        }
+        return memo[(int) idx];
+    }
+
+    void memoPut(int idx, Object value) {
+        if (idx >= memo.length) {
+            memo = Arrays.copyOf(memo, Math.max(idx + 1, memo.length * 2));
+        }
+        if (memo[idx] == null) {
+            memoCount++;
+        }
+        memo[idx] = value;
+    }
+
+    /** The number of memo entries, which is also the index used by {@code MEMOIZE}. */
+    int memoSize() {
+        return memoCount;
+    }
+}
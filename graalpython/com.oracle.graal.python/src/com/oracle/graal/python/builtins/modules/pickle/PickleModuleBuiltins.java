@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.BuiltinConstructors.MemoryViewNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(defineModule = "_pickle")
+public class PickleModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PickleModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(PythonCore core) {
+        super.initialize(core);
+        builtinConstants.put("HIGHEST_PROTOCOL", PickleUtils.HIGHEST_PROTOCOL);
+        builtinConstants.put("DEFAULT_PROTOCOL", PickleUtils.DEFAULT_PROTOCOL);
+    }
+
+    @Builtin(name = "Pickler", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PPickler)
+    @GenerateNodeFactory
+    public abstract static class PicklerNode extends PythonBuiltinNode {
+        @Specialization
+        PPickler doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see PicklerBuiltins.InitNode
+            return factory().createPickler(cls);
+        }
+    }
+
+    @Builtin(name = "Unpickler", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PUnpickler)
+    @GenerateNodeFactory
+    public abstract static class UnpicklerNode extends PythonBuiltinNode {
+        @Specialization
+        PUnpickler doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see UnpicklerBuiltins.InitNode
+            return factory().createUnpickler(cls);
+        }
+    }
+
+    @Builtin(name = "PickleBuffer", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "buffer"}, constructsClass = PythonBuiltinClassType.PPickleBuffer)
+    @GenerateNodeFactory
+    public abstract static class PickleBufferNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PPickleBuffer doNew(VirtualFrame frame, Object cls, Object buffer,
+                        @Cached MemoryViewNode memoryViewNode) {
+            return factory().createPickleBuffer(cls, memoryViewNode.execute(frame, buffer));
+        }
+    }
+
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2, parameterNames = {"obj", "file", "protocol"}, keywordOnlyNames = {"fix_imports", "buffer_callback"})
+    @GenerateNodeFactory
+    public abstract static class DumpNode extends PythonBuiltinNode {
+        @Specialization
+        PNone dump(VirtualFrame frame, Object obj, Object file, Object protocol, Object fixImports, Object bufferCallback,
+                        @Cached PicklerNodes.DumpNode dumpNode) {
+            PPickler pickler = factory().createPickler(PythonBuiltinClassType.PPickler);
+            PicklerBuiltins.initPickler(this, pickler, file, protocol, fixImports, bufferCallback);
+            dumpNode.execute(frame, pickler, obj);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dumps", minNumOfPositionalArgs = 1, parameterNames = {"obj", "protocol"}, keywordOnlyNames = {"fix_imports", "buffer_callback"})
+    @GenerateNodeFactory
+    public abstract static class DumpsNode extends PythonBuiltinNode {
+        @Specialization
+        PBytes dumps(VirtualFrame frame, Object obj, Object protocol, Object fixImports, Object bufferCallback,
+                        @Cached PicklerNodes.DumpNode dumpNode) {
+            PPickler pickler = factory().createPickler(PythonBuiltinClassType.PPickler);
+            PicklerBuiltins.initPickler(this, pickler, null, protocol, fixImports, bufferCallback);
+            dumpNode.execute(frame, pickler, obj);
+            return factory().createBytes(pickler.getOutputBytes());
+        }
+    }
+
+    @Builtin(name = "load", minNumOfPositionalArgs = 1, parameterNames = {"file"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @GenerateNodeFactory
+    public abstract static class LoadNode extends PythonBuiltinNode {
+        @Specialization
+        Object load(VirtualFrame frame, Object file, Object fixImports, Object encoding, Object errors, Object buffers,
+                        @Cached UnpicklerNodes.LoadNode loadNode) {
+            PUnpickler unpickler = factory().createUnpickler(PythonBuiltinClassType.PUnpickler);
+            UnpicklerBuiltins.initUnpickler(this, unpickler, file, fixImports, encoding, errors, buffers);
+            return loadNode.execute(frame, unpickler);
+        }
+    }
+
+    @Builtin(name = "loads", minNumOfPositionalArgs = 1, parameterNames = {"data"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @GenerateNodeFactory
+    public abstract static class LoadsNode extends PythonBuiltinNode {
+        @Specialization(limit = "3")
+        Object loads(VirtualFrame frame, Object data, Object fixImports, Object encoding, Object errors, Object buffers,
+                        @CachedLibrary("data") PythonObjectLibrary lib,
+                        @Cached UnpicklerNodes.LoadNode loadNode) {
+            if (!lib.isBuffer(data)) {
+                throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
+            }
+            byte[] bytes;
+            int len;
+            try {
+                bytes = lib.getBufferBytes(data);
+                len = lib.getBufferLength(data);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+            PUnpickler unpickler = factory().createUnpickler(PythonBuiltinClassType.PUnpickler);
+            UnpicklerBuiltins.initUnpickler(this, unpickler, null, fixImports, encoding, errors, buffers);
+            unpickler.setInput(bytes, len);
+            return loadNode.execute(frame, unpickler);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.nio.charset.StandardCharsets;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Opcodes and byte-level helpers shared by the pickler and the unpickler. The opcode names follow
+ * {@code Lib/pickle.py}.
+ */
+public final class PickleUtils {
+
+    public static final int HIGHEST_PROTOCOL = 5;
+    public static final int DEFAULT_PROTOCOL = 4;
+
+    /** Frames are committed (and written to the file) once they reach this size. */
+    static final int FRAME_SIZE_TARGET = 64 * 1024;
+    /** Frames smaller than this are not worth the 9 byte header. */
+    static final int FRAME_SIZE_MIN = 4;
+    static final int FRAME_HEADER_SIZE = 9;
+    /** Number of items written between two MARK ... APPENDS/SETITEMS/ADDITEMS groups. */
+    static final int BATCHSIZE = 1000;
+
+    static final byte MARK = '(';
+    static final byte STOP = '.';
+    static final byte POP = '0';
+    static final byte POP_MARK = '1';
+    static final byte DUP = '2';
+    static final byte FLOAT = 'F';
+    static final byte INT = 'I';
+    static final byte BININT = 'J';
+    static final byte BININT1 = 'K';
+    static final byte LONG = 'L';
+    static final byte BININT2 = 'M';
+    static final byte NONE = 'N';
+    static final byte PERSID = 'P';
+    static final byte BINPERSID = 'Q';
+    static final byte REDUCE = 'R';
+    static final byte STRING = 'S';
+    static final byte BINSTRING = 'T';
+    static final byte SHORT_BINSTRING = 'U';
+    static final byte UNICODE = 'V';
+    static final byte BINUNICODE = 'X';
+    static final byte APPEND = 'a';
+    static final byte BUILD = 'b';
+    static final byte GLOBAL = 'c';
+    static final byte DICT = 'd';
+    static final byte EMPTY_DICT = '}';
+    static final byte APPENDS = 'e';
+    static final byte GET = 'g';
+    static final byte BINGET = 'h';
+    static final byte INST = 'i';
+    static final byte LONG_BINGET = 'j';
+    static final byte LIST = 'l';
+    static final byte EMPTY_LIST = ']';
+    static final byte OBJ = 'o';
+    static final byte PUT = 'p';
+    static final byte BINPUT = 'q';
+    static final byte LONG_BINPUT = 'r';
+    static final byte SETITEM = 's';
+    static final byte TUPLE = 't';
+    static final byte EMPTY_TUPLE = ')';
+    static final byte SETITEMS = 'u';
+    static final byte BINFLOAT = 'G';
+
+    // protocol 2
+    static final byte PROTO = (byte) 0x80;
+    static final byte NEWOBJ = (byte) 0x81;
+    static final byte EXT1 = (byte) 0x82;
+    static final byte EXT2 = (byte) 0x83;
+    static final byte EXT4 = (byte) 0x84;
+    static final byte TUPLE1 = (byte) 0x85;
+    static final byte TUPLE2 = (byte) 0x86;
+    static final byte TUPLE3 = (byte) 0x87;
+    static final byte NEWTRUE = (byte) 0x88;
+    static final byte NEWFALSE = (byte) 0x89;
+    static final byte LONG1 = (byte) 0x8a;
+    static final byte LONG4 = (byte) 0x8b;
+
+    // protocol 3
+    static final byte BINBYTES = 'B';
+    static final byte SHORT_BINBYTES = 'C';
+
+    // protocol 4
+    static final byte SHORT_BINUNICODE = (byte) 0x8c;
+    static final byte BINUNICODE8 = (byte) 0x8d;
+    static final byte BINBYTES8 = (byte) 0x8e;
+    static final byte EMPTY_SET = (byte) 0x8f;
+    static final byte ADDITEMS = (byte) 0x90;
+    static final byte FROZENSET = (byte) 0x91;
+    static final byte NEWOBJ_EX = (byte) 0x92;
+    static final byte STACK_GLOBAL = (byte) 0x93;
+    static final byte MEMOIZE = (byte) 0x94;
+    static final byte FRAME = (byte) 0x95;
+
+    // protocol 5
+    static final byte BYTEARRAY8 = (byte) 0x96;
+    static final byte NEXT_BUFFER = (byte) 0x97;
+    static final byte READONLY_BUFFER = (byte) 0x98;
+
+    private PickleUtils() {
+    }
+
+    /**
+     * Encodes a string as UTF-8 using the {@code surrogatepass} error handler, i.e., lone
+     * surrogates are encoded like any other code point in the BMP.
+     */
+    @TruffleBoundary
+    static byte[] encodeUTF8(String s) {
+        int n = s.length();
+        boolean ascii = true;
+        for (int i = 0; i < n; i++) {
+            if (s.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return s.getBytes(StandardCharsets.ISO_8859_1);
+        }
+        byte[] out = new byte[n * 3];
+        int j = 0;
+        for (int i = 0; i < n;) {
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            if (cp < 0x80) {
+                out[j++] = (byte) cp;
+            } else if (cp < 0x800) {
+                out[j++] = (byte) (0xc0 | (cp >> 6));
+                out[j++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (cp < 0x10000) {
+                out[j++] = (byte) (0xe0 | (cp >> 12));
+                out[j++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                out[j++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                out[j++] = (byte) (0xf0 | (cp >> 18));
+                out[j++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                out[j++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                out[j++] = (byte) (0x80 | (cp & 0x3f));
+            }
+        }
+        byte[] result = new byte[j];
+        System.arraycopy(out, 0, result, 0, j);
+        return result;
+    }
+
+    /**
+     * Decodes UTF-8 with the {@code surrogatepass} error handler. Returns {@code null} if the data
+     * is malformed.
+     */
+    @TruffleBoundary
+    static String decodeUTF8(byte[] data, int offset, int length) {
+        int end = offset + length;
+        boolean ascii = true;
+        for (int i = offset; i < end; i++) {
+            if (data[i] < 0) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+        }
+        StringBuilder sb = new StringBuilder(length);
+        int i = offset;
+        while (i < end) {
+            int b = data[i] & 0xff;
+            int cp;
+            int extra;
+            if (b < 0x80) {
+                sb.append((char) b);
+                i++;
+                continue;
+            } else if (b >= 0xc2 && b < 0xe0) {
+                cp = b & 0x1f;
+                extra = 1;
+            } else if (b >= 0xe0 && b < 0xf0) {
+                cp = b & 0x0f;
+                extra = 2;
+            } else if (b >= 0xf0 && b < 0xf5) {
+                cp = b & 0x07;
+                extra = 3;
+            } else {
+                return null;
+            }
+            if (i + extra >= end) {
+                return null;
+            }
+            for (int k = 1; k <= extra; k++) {
+                int c = data[i + k] & 0xff;
+                if ((c & 0xc0) != 0x80) {
+                    return null;
+                }
+                cp = (cp << 6) | (c & 0x3f);
+            }
+            if ((extra == 2 && cp < 0x800) || (extra == 3 && (cp < 0x10000 || cp > 0x10ffff))) {
+                return null;
+            }
+            sb.appendCodePoint(cp);
+            i += extra + 1;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Encodes a string with {@code raw-unicode-escape}, additionally escaping the characters that
+     * would break the line-based UNICODE opcode, like {@code pickle.py} does for protocol 0.
+     */
+    @TruffleBoundary
+    static byte[] encodeRawUnicodeEscape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length();) {
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            if (cp == '\\' || cp == 0 || cp == '\n' || cp == '\r' || cp == 0x1a || (cp >= 0x100 && cp < 0x10000)) {
+                sb.append(String.format("\\u%04x", cp));
+            } else if (cp >= 0x10000) {
+                sb.append(String.format("\\U%08x", cp));
+            } else {
+                sb.append((char) cp);
+            }
+        }
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Decodes {@code raw-unicode-escape} data as written by {@link #encodeRawUnicodeEscape}.
+     * Returns {@code null} if an escape sequence is truncated.
+     */
+    @TruffleBoundary
+    static String decodeRawUnicodeEscape(byte[] data, int offset, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            int b = data[i] & 0xff;
+            if (b == '\\' && i + 1 < end && (data[i + 1] == 'u' || data[i + 1] == 'U')) {
+                int digits = data[i + 1] == 'u' ? 4 : 8;
+                if (i + 2 + digits > end) {
+                    return null;
+                }
+                int cp = 0;
+                for (int k = 0; k < digits; k++) {
+                    int d = Character.digit(data[i + 2 + k], 16);
+                    if (d < 0) {
+                        return null;
+                    }
+                    cp = (cp << 4) | d;
+                }
+                if (cp < 0 || cp > 0x10ffff) {
+                    return null;
+                }
+                sb.appendCodePoint(cp);
+                i += 2 + digits;
+            } else {
+                sb.append((char) b);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+}
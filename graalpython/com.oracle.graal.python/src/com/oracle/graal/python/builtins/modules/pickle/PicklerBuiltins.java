@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PPickler;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PicklingError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PPickler)
+public class PicklerBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PicklerBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Validates the arguments shared by {@code Pickler.__init__}, {@code dump} and {@code dumps}
+     * and initializes the pickler. {@code file} may be {@code null} when pickling to bytes.
+     */
+    @TruffleBoundary
+    static void initPickler(PNodeWithRaise node, PPickler self, Object file, Object protocolObj, Object fixImportsObj, Object bufferCallbackObj) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        int protocol = PickleUtils.DEFAULT_PROTOCOL;
+        if (!PGuards.isPNone(protocolObj)) {
+            long value = lib.asJavaLong(protocolObj);
+            if (value < 0) {
+                protocol = PickleUtils.HIGHEST_PROTOCOL;
+            } else if (value > PickleUtils.HIGHEST_PROTOCOL) {
+                throw node.raise(ValueError, ErrorMessages.PICKLE_PROTOCOL_MUST_BE_LE_D, PickleUtils.HIGHEST_PROTOCOL);
+            } else {
+                protocol = (int) value;
+            }
+        }
+        boolean fixImports = fixImportsObj == PNone.NO_VALUE || lib.isTrue(fixImportsObj);
+        Object write = null;
+        if (file != null) {
+            write = lib.lookupAttribute(file, null, "write");
+            if (write == PNone.NO_VALUE) {
+                throw node.raise(TypeError, ErrorMessages.FILE_MUST_HAVE_A_WRITE_ATTRIBUTE);
+            }
+        }
+        Object bufferCallback = PGuards.isPNone(bufferCallbackObj) ? null : bufferCallbackObj;
+        if (bufferCallback != null && protocol < 5) {
+            throw node.raise(ValueError, ErrorMessages.BUFFER_CALLBACK_NEEDS_PROTOCOL_5);
+        }
+        self.init(protocol, fixImports, write, bufferCallback);
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file", "protocol", "fix_imports", "buffer_callback"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonBuiltinNode {
+        @Specialization
+        PNone init(PPickler self, Object file, Object protocol, Object fixImports, Object bufferCallback) {
+            initPickler(this, self, file, protocol, fixImports, bufferCallback);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2, parameterNames = {"$self", "obj"})
+    @GenerateNodeFactory
+    public abstract static class DumpNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone dump(VirtualFrame frame, PPickler self, Object obj,
+                        @Cached PicklerNodes.DumpNode dumpNode) {
+            if (!self.isInitialized()) {
+                throw raise(PicklingError, ErrorMessages.PICKLER_INIT_NOT_CALLED_BY_P_INIT, self);
+            }
+            dumpNode.execute(frame, self, obj);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_memo", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ClearMemoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone clear(PPickler self) {
+            self.clearMemo();
+            return PNone.NONE;
+        }
+    }
+}
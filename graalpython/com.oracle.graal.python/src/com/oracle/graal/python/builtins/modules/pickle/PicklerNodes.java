@@ -0,0 +1,1204 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PicklingError;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.*;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__CLASS__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__MODULE__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__NAME__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__QUALNAME__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.ellipsis.PEllipsis;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.set.PBaseSet;
+import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.IndirectCallNode;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNodeFactory.GetNextWithoutFrameNodeGen;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+
+public final class PicklerNodes {
+
+    private static final int MAX_DEPTH = 2000;
+
+    private PicklerNodes() {
+    }
+
+    /**
+     * Writes the pickle of an object, either to the file of the pickler or to its internal buffer
+     * (see {@link PPickler#getOutputBytes()}) if the pickler has no file.
+     */
+    public abstract static class DumpNode extends PNodeWithRaise implements IndirectCallNode {
+        private final Assumption dontNeedExceptionState = Truffle.getRuntime().createAssumption();
+        private final Assumption dontNeedCallerFrame = Truffle.getRuntime().createAssumption();
+
+        @Override
+        public Assumption needNotPassFrameAssumption() {
+            return dontNeedCallerFrame;
+        }
+
+        @Override
+        public Assumption needNotPassExceptionAssumption() {
+            return dontNeedExceptionState;
+        }
+
+        public abstract void execute(VirtualFrame frame, PPickler pickler, Object obj);
+
+        @Specialization
+        void dump(VirtualFrame frame, PPickler pickler, Object obj,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                doDump(context, pickler, obj);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+
+        @TruffleBoundary
+        private void doDump(PythonContext context, PPickler pickler, Object obj) {
+            new Saver(this, context, pickler).dump(obj);
+        }
+
+        public static DumpNode create() {
+            return PicklerNodesFactory.DumpNodeGen.create();
+        }
+    }
+
+    /**
+     * The actual pickler. It runs behind a {@link TruffleBoundary} with uncached libraries, like
+     * the unmarshaller, but dispatches on the exact builtin types first so that the common data
+     * structures never go through {@code __reduce_ex__}.
+     */
+    private static final class Saver {
+        private final PNodeWithRaise node;
+        private final PythonContext context;
+        private final PPickler pickler;
+        private final int proto;
+        private final boolean bin;
+        private final PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        private final HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+        private final PythonObjectFactory factory = PythonObjectFactory.getUncached();
+
+        private final Object persistentId;
+        private final Object reducerOverride;
+        private final Object dispatchTable;
+        private Object copyregDispatchTable;
+        private int depth;
+
+        Saver(PNodeWithRaise node, PythonContext context, PPickler pickler) {
+            this.node = node;
+            this.context = context;
+            this.pickler = pickler;
+            this.proto = pickler.getProtocol();
+            this.bin = pickler.isBin();
+            this.persistentId = lookupOptional(pickler, "persistent_id");
+            this.reducerOverride = lookupOptional(pickler, "reducer_override");
+            this.dispatchTable = lookupOptional(pickler, "dispatch_table");
+        }
+
+        private Object lookupOptional(Object obj, String name) {
+            Object value = lib.lookupAttribute(obj, null, name);
+            return value == PNone.NO_VALUE || value == PNone.NONE ? null : value;
+        }
+
+        void dump(Object obj) {
+            pickler.resetOutput();
+            try {
+                if (proto >= 2) {
+                    pickler.write(PROTO, (byte) proto);
+                }
+                pickler.startFrame();
+                save(obj, false);
+                pickler.write(STOP);
+                pickler.commitFrame();
+                flushToFile();
+            } finally {
+                if (pickler.getWrite() != null) {
+                    pickler.releaseOutput();
+                }
+            }
+        }
+
+        private void flushToFile() {
+            Object write = pickler.getWrite();
+            if (write != null && pickler.getOutputLength() > 0) {
+                PBytes data = factory.createBytes(pickler.getOutputBytes());
+                pickler.discardOutput();
+                lib.callObject(write, null, data);
+            }
+        }
+
+        private void opcodeBoundary() {
+            if (pickler.isFrameFull()) {
+                pickler.commitFrame();
+                flushToFile();
+                pickler.startFrame();
+            }
+        }
+
+        private boolean isExactType(Object type, PythonBuiltinClassType expected) {
+            return IsBuiltinClassProfile.profileClassSlowPath(type, expected);
+        }
+
+        private Object normalizeClass(Object obj) {
+            if (obj instanceof PythonBuiltinClassType) {
+                return context.getCore().lookupType((PythonBuiltinClassType) obj);
+            }
+            return obj;
+        }
+
+        private String repr(Object obj) {
+            try {
+                return CastToJavaStringNode.getUncached().execute(lib.lookupAndCallSpecialMethod(obj, null, __REPR__));
+            } catch (CannotCastException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+        }
+
+        private static String asString(Object obj) {
+            try {
+                return CastToJavaStringNode.getUncached().execute(obj);
+            } catch (CannotCastException e) {
+                return null;
+            }
+        }
+
+        private static Object[] getItems(SequenceStorage storage) {
+            int len = storage.length();
+            Object[] items = new Object[len];
+            for (int i = 0; i < len; i++) {
+                items[i] = storage.getItemNormalized(i);
+            }
+            return items;
+        }
+
+        private void save(Object obj, boolean persSave) {
+            if (depth >= MAX_DEPTH) {
+                throw node.raise(PythonBuiltinClassType.RecursionError, ErrorMessages.MAXIMUM_RECURSION_DEPTH_EXCEEDED_WHILE_PICKLING);
+            }
+            depth++;
+            try {
+                doSave(normalizeClass(obj), persSave);
+            } finally {
+                depth--;
+            }
+            opcodeBoundary();
+        }
+
+        private void doSave(Object obj, boolean persSave) {
+            if (!persSave && persistentId != null) {
+                Object pid = lib.callObject(persistentId, null, obj);
+                if (pid != PNone.NONE) {
+                    savePers(pid);
+                    return;
+                }
+            }
+
+            // atomic types, these are never memoized
+            if (obj == PNone.NONE) {
+                pickler.write(NONE);
+                return;
+            } else if (obj instanceof Boolean) {
+                saveBool((boolean) obj);
+                return;
+            } else if (obj instanceof Integer) {
+                saveLong((int) obj);
+                return;
+            } else if (obj instanceof Long) {
+                saveLong((long) obj);
+                return;
+            } else if (obj instanceof Double) {
+                saveFloat((double) obj);
+                return;
+            }
+            Object type = lib.getLazyPythonClass(obj);
+            if (obj instanceof PInt) {
+                if (isExactType(type, PythonBuiltinClassType.Boolean)) {
+                    saveBool(((PInt) obj).isOne());
+                    return;
+                } else if (isExactType(type, PythonBuiltinClassType.PInt)) {
+                    saveBigInteger(((PInt) obj).getValue());
+                    return;
+                }
+            } else if (obj instanceof PFloat && isExactType(type, PythonBuiltinClassType.PFloat)) {
+                saveFloat(((PFloat) obj).getValue());
+                return;
+            }
+
+            int memoIdx = pickler.memoGet(obj);
+            if (memoIdx >= 0) {
+                writeGet(memoIdx);
+                return;
+            }
+
+            if (obj instanceof String) {
+                saveStr(obj, (String) obj);
+                return;
+            } else if (obj instanceof PString && isExactType(type, PythonBuiltinClassType.PString)) {
+                saveStr(obj, asString(obj));
+                return;
+            } else if (obj instanceof PBytes && isExactType(type, PythonBuiltinClassType.PBytes)) {
+                SequenceStorage storage = ((PBytes) obj).getSequenceStorage();
+                saveBytes(obj, SequenceStorageNodes.GetInternalByteArrayNode.getUncached().execute(storage), storage.length());
+                return;
+            } else if (obj instanceof PDict && isExactType(type, PythonBuiltinClassType.PDict)) {
+                saveDict((PDict) obj);
+                return;
+            } else if (obj instanceof PSet && isExactType(type, PythonBuiltinClassType.PSet)) {
+                saveSet((PSet) obj);
+                return;
+            } else if (obj instanceof PFrozenSet && isExactType(type, PythonBuiltinClassType.PFrozenSet)) {
+                saveFrozenSet((PFrozenSet) obj);
+                return;
+            } else if (obj instanceof PList && isExactType(type, PythonBuiltinClassType.PList)) {
+                saveList((PList) obj);
+                return;
+            } else if (obj instanceof PTuple && isExactType(type, PythonBuiltinClassType.PTuple)) {
+                saveTuple((PTuple) obj);
+                return;
+            } else if (obj instanceof PByteArray && proto >= 5 && isExactType(type, PythonBuiltinClassType.PByteArray)) {
+                SequenceStorage storage = ((PByteArray) obj).getSequenceStorage();
+                saveByteArray(obj, SequenceStorageNodes.GetInternalByteArrayNode.getUncached().execute(storage), storage.length());
+                return;
+            } else if (obj instanceof PPickleBuffer) {
+                savePickleBuffer((PPickleBuffer) obj);
+                return;
+            }
+
+            Object reduceValue = null;
+            if (reducerOverride != null) {
+                reduceValue = lib.callObject(reducerOverride, null, obj);
+                if (reduceValue == PNotImplemented.NOT_IMPLEMENTED) {
+                    reduceValue = null;
+                }
+            }
+            if (reduceValue == null) {
+                if (PGuards.isPythonClass(obj)) {
+                    saveType(obj);
+                    return;
+                } else if (obj instanceof PFunction) {
+                    saveGlobal(obj, null);
+                    return;
+                }
+                reduceValue = getReduceValue(obj, normalizeClass(type));
+            }
+
+            String name = asString(reduceValue);
+            if (name != null) {
+                saveGlobal(obj, name);
+                return;
+            }
+            if (!(reduceValue instanceof PTuple)) {
+                throw node.raise(PicklingError, ErrorMessages.S_MUST_RETURN_STRING_OR_TUPLE, __REDUCE__);
+            }
+            Object[] items = getItems(((PTuple) reduceValue).getSequenceStorage());
+            if (items.length < 2 || items.length > 6) {
+                throw node.raise(PicklingError, ErrorMessages.TUPLE_RETURNED_BY_S_MUST_CONTAIN_2_THROUGH_6_ELEMENTS, __REDUCE__);
+            }
+            saveReduce(items, obj);
+        }
+
+        private Object getReduceValue(Object obj, Object type) {
+            Object reduceFunc;
+            if (dispatchTable != null) {
+                reduceFunc = getItemOrNull(dispatchTable, type);
+            } else {
+                if (copyregDispatchTable == null) {
+                    copyregDispatchTable = lib.lookupAttributeStrict(importModule("copyreg"), null, "dispatch_table");
+                }
+                reduceFunc = getItemOrNull(copyregDispatchTable, type);
+            }
+            if (reduceFunc != null) {
+                return lib.callObject(reduceFunc, null, obj);
+            }
+            Object reduceEx = lib.lookupAttribute(obj, null, __REDUCE_EX__);
+            if (reduceEx != PNone.NO_VALUE) {
+                return lib.callObject(reduceEx, null, proto);
+            }
+            Object reduce = lib.lookupAttribute(obj, null, __REDUCE__);
+            if (reduce != PNone.NO_VALUE) {
+                return lib.callObject(reduce, null);
+            }
+            throw node.raise(PicklingError, ErrorMessages.CANNOT_PICKLE_OBJECT_TYPE, obj);
+        }
+
+        private Object getItemOrNull(Object mapping, Object key) {
+            if (mapping instanceof PDict) {
+                return ((PDict) mapping).getItem(key);
+            }
+            try {
+                return lib.lookupAndCallSpecialMethod(mapping, null, "__getitem__", key);
+            } catch (PException e) {
+                e.expect(PythonBuiltinClassType.KeyError, IsBuiltinClassProfile.getUncached());
+                return null;
+            }
+        }
+
+        // atomic values
+
+        private void saveBool(boolean value) {
+            if (proto >= 2) {
+                pickler.write(value ? NEWTRUE : NEWFALSE);
+            } else {
+                writeAscii(value ? "I01\n" : "I00\n");
+            }
+        }
+
+        private void saveLong(long value) {
+            if (bin && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                if (value >= 0 && value <= 0xff) {
+                    pickler.write(BININT1, (byte) value);
+                } else if (value >= 0 && value <= 0xffff) {
+                    pickler.write(BININT2);
+                    pickler.write((byte) value, (byte) (value >> 8));
+                } else {
+                    pickler.write(BININT);
+                    pickler.writeIntLE((int) value);
+                }
+            } else if (proto >= 2) {
+                saveBigInteger(BigInteger.valueOf(value));
+            } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                writeAscii("I" + value + "\n");
+            } else {
+                writeAscii("L" + value + "L\n");
+            }
+        }
+
+        private void saveBigInteger(BigInteger value) {
+            if (value.bitLength() < 32 && bin) {
+                saveLong(value.intValue());
+            } else if (proto >= 2) {
+                byte[] bigEndian = value.signum() == 0 ? new byte[0] : value.toByteArray();
+                int n = bigEndian.length;
+                byte[] littleEndian = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    littleEndian[i] = bigEndian[n - 1 - i];
+                }
+                if (n < 256) {
+                    pickler.write(LONG1, (byte) n);
+                } else {
+                    pickler.write(LONG4);
+                    pickler.writeIntLE(n);
+                }
+                pickler.write(littleEndian);
+            } else if (value.bitLength() < 32) {
+                writeAscii("I" + value + "\n");
+            } else {
+                writeAscii("L" + value + "L\n");
+            }
+        }
+
+        private void saveFloat(double value) {
+            if (bin) {
+                pickler.write(BINFLOAT);
+                pickler.writeLongBE(Double.doubleToRawLongBits(value));
+            } else {
+                writeAscii("F" + repr(value) + "\n");
+            }
+        }
+
+        private void writeAscii(String s) {
+            pickler.write(s.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        // memo
+
+        private void memoize(Object obj) {
+            int idx = pickler.memoPut(obj);
+            if (proto >= 4) {
+                pickler.write(MEMOIZE);
+            } else if (bin) {
+                if (idx < 256) {
+                    pickler.write(BINPUT, (byte) idx);
+                } else {
+                    pickler.write(LONG_BINPUT);
+                    pickler.writeIntLE(idx);
+                }
+            } else {
+                writeAscii("p" + idx + "\n");
+            }
+        }
+
+        private void writeGet(int idx) {
+            if (bin) {
+                if (idx < 256) {
+                    pickler.write(BINGET, (byte) idx);
+                } else {
+                    pickler.write(LONG_BINGET);
+                    pickler.writeIntLE(idx);
+                }
+            } else {
+                writeAscii("g" + idx + "\n");
+            }
+        }
+
+        // strings and bytes
+
+        private void saveStr(Object obj, String s) {
+            if (bin) {
+                byte[] encoded = encodeUTF8(s);
+                int n = encoded.length;
+                if (n < 256 && proto >= 4) {
+                    pickler.write(SHORT_BINUNICODE, (byte) n);
+                } else {
+                    pickler.writeSized(BINUNICODE, n, 4);
+                }
+                pickler.write(encoded);
+            } else {
+                pickler.write(UNICODE);
+                pickler.write(encodeRawUnicodeEscape(s));
+                pickler.write((byte) '\n');
+            }
+            memoize(obj);
+        }
+
+        private void saveBytes(Object obj, byte[] data, int len) {
+            if (proto < 3) {
+                // bytes did not exist in Python 2, pickle them as a call that rebuilds them
+                if (len == 0) {
+                    saveReduce(new Object[]{context.getCore().lookupType(PythonBuiltinClassType.PBytes), factory.createTuple(new Object[0])}, obj);
+                } else {
+                    Object encode = lib.lookupAttributeStrict(importModule("codecs"), null, "encode");
+                    String latin1 = new String(data, 0, len, StandardCharsets.ISO_8859_1);
+                    saveReduce(new Object[]{encode, factory.createTuple(new Object[]{latin1, "latin1"})}, obj);
+                }
+                return;
+            }
+            if (len < 256) {
+                pickler.write(SHORT_BINBYTES, (byte) len);
+            } else {
+                pickler.writeSized(BINBYTES, len, 4);
+            }
+            pickler.write(data, 0, len);
+            memoize(obj);
+        }
+
+        private void saveByteArray(Object obj, byte[] data, int len) {
+            pickler.writeSized(BYTEARRAY8, len, 8);
+            pickler.write(data, 0, len);
+            memoize(obj);
+        }
+
+        private void savePickleBuffer(PPickleBuffer obj) {
+            if (proto < 5) {
+                throw node.raise(PicklingError, ErrorMessages.PICKLEBUFFER_CAN_ONLY_BE_PICKLED_WITH_PROTOCOL_5);
+            }
+            PMemoryView view = obj.getView();
+            if (view == null) {
+                throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.PICKLEBUFFER_RELEASED);
+            }
+            if (!view.isCContiguous() && !view.isFortranContiguous()) {
+                throw node.raise(PythonBuiltinClassType.BufferError, ErrorMessages.PICKLEBUFFER_NOT_CONTIGUOUS);
+            }
+            boolean inBand = true;
+            Object callback = pickler.getBufferCallback();
+            if (callback != null) {
+                inBand = lib.isTrue(lib.callObject(callback, null, obj));
+            }
+            if (inBand) {
+                byte[] data;
+                try {
+                    data = lib.getBufferBytes(view);
+                } catch (UnsupportedMessageException e) {
+                    throw CompilerDirectives.shouldNotReachHere();
+                }
+                if (view.isReadOnly()) {
+                    saveBytes(obj, data, data.length);
+                } else {
+                    saveByteArray(obj, data, data.length);
+                }
+            } else {
+                pickler.write(NEXT_BUFFER);
+                if (view.isReadOnly()) {
+                    pickler.write(READONLY_BUFFER);
+                }
+            }
+        }
+
+        // containers
+
+        private void saveTuple(PTuple tuple) {
+            SequenceStorage storage = tuple.getSequenceStorage();
+            int n = storage.length();
+            if (n == 0) {
+                if (bin) {
+                    pickler.write(EMPTY_TUPLE);
+                } else {
+                    pickler.write(MARK, TUPLE);
+                }
+                return;
+            }
+            if (n <= 3 && proto >= 2) {
+                saveItems(storage, 0, n);
+                int memoIdx = pickler.memoGet(tuple);
+                if (memoIdx >= 0) {
+                    // the tuple was pickled recursively by one of its items
+                    for (int i = 0; i < n; i++) {
+                        pickler.write(POP);
+                    }
+                    writeGet(memoIdx);
+                    return;
+                }
+                pickler.write(n == 1 ? TUPLE1 : n == 2 ? TUPLE2 : TUPLE3);
+                memoize(tuple);
+                return;
+            }
+            pickler.write(MARK);
+            saveItems(storage, 0, n);
+            int memoIdx = pickler.memoGet(tuple);
+            if (memoIdx >= 0) {
+                if (bin) {
+                    pickler.write(POP_MARK);
+                } else {
+                    for (int i = 0; i <= n; i++) {
+                        pickler.write(POP);
+                    }
+                }
+                writeGet(memoIdx);
+                return;
+            }
+            pickler.write(TUPLE);
+            memoize(tuple);
+        }
+
+        private void saveList(PList list) {
+            if (bin) {
+                pickler.write(EMPTY_LIST);
+            } else {
+                pickler.write(MARK, LIST);
+            }
+            memoize(list);
+            if (!bin) {
+                for (int i = 0; i < list.getSequenceStorage().length(); i++) {
+                    save(list.getSequenceStorage().getItemNormalized(i), false);
+                    pickler.write(APPEND);
+                }
+                return;
+            }
+            int i = 0;
+            int len;
+            // the storage is re-read for each batch since items may mutate the list
+            while (i < (len = list.getSequenceStorage().length())) {
+                int n = Math.min(BATCHSIZE, len - i);
+                if (n == 1) {
+                    save(list.getSequenceStorage().getItemNormalized(i), false);
+                    pickler.write(APPEND);
+                } else {
+                    pickler.write(MARK);
+                    saveItems(list.getSequenceStorage(), i, n);
+                    pickler.write(APPENDS);
+                }
+                i += n;
+            }
+        }
+
+        /**
+         * Saves {@code n} items of a sequence storage starting at {@code start}. Homogeneous
+         * storages of primitives are written directly.
+         */
+        private void saveItems(SequenceStorage storage, int start, int n) {
+            int end = Math.min(start + n, storage.length());
+            if (storage instanceof IntSequenceStorage) {
+                int[] values = ((IntSequenceStorage) storage).getInternalIntArray();
+                for (int i = start; i < end; i++) {
+                    saveLong(values[i]);
+                }
+                opcodeBoundary();
+            } else if (storage instanceof LongSequenceStorage) {
+                long[] values = ((LongSequenceStorage) storage).getInternalLongArray();
+                for (int i = start; i < end; i++) {
+                    saveLong(values[i]);
+                }
+                opcodeBoundary();
+            } else if (storage instanceof DoubleSequenceStorage) {
+                double[] values = ((DoubleSequenceStorage) storage).getInternalDoubleArray();
+                for (int i = start; i < end; i++) {
+                    saveFloat(values[i]);
+                }
+                opcodeBoundary();
+            } else if (storage instanceof BoolSequenceStorage) {
+                boolean[] values = ((BoolSequenceStorage) storage).getInternalBoolArray();
+                for (int i = start; i < end; i++) {
+                    saveBool(values[i]);
+                }
+                opcodeBoundary();
+            } else {
+                for (int i = start; i < end && i < storage.length(); i++) {
+                    save(storage.getItemNormalized(i), false);
+                }
+            }
+        }
+
+        private void saveDict(PDict dict) {
+            if (bin) {
+                pickler.write(EMPTY_DICT);
+            } else {
+                pickler.write(MARK, DICT);
+            }
+            memoize(dict);
+            HashingStorage storage = dict.getDictStorage();
+            int len = hlib.length(storage);
+            if (len == 0) {
+                return;
+            }
+            // copy the entries, pickling the values may run arbitrary code
+            Object[] keys = new Object[len];
+            Object[] values = new Object[len];
+            int n = 0;
+            for (DictEntry entry : hlib.entries(storage)) {
+                if (n == len) {
+                    break;
+                }
+                keys[n] = entry.getKey();
+                values[n] = entry.getValue();
+                n++;
+            }
+            batchSetItems(keys, values, n);
+        }
+
+        private void batchSetItems(Object[] keys, Object[] values, int len) {
+            if (!bin) {
+                for (int i = 0; i < len; i++) {
+                    save(keys[i], false);
+                    save(values[i], false);
+                    pickler.write(SETITEM);
+                }
+                return;
+            }
+            for (int i = 0; i < len; i += BATCHSIZE) {
+                int n = Math.min(BATCHSIZE, len - i);
+                if (n == 1) {
+                    save(keys[i], false);
+                    save(values[i], false);
+                    pickler.write(SETITEM);
+                } else {
+                    pickler.write(MARK);
+                    for (int j = i; j < i + n; j++) {
+                        save(keys[j], false);
+                        save(values[j], false);
+                    }
+                    pickler.write(SETITEMS);
+                }
+            }
+        }
+
+        private Object[] setItems(PBaseSet set) {
+            HashingStorage storage = set.getDictStorage();
+            Object[] items = new Object[hlib.length(storage)];
+            int n = 0;
+            for (Object key : hlib.keys(storage)) {
+                if (n == items.length) {
+                    break;
+                }
+                items[n++] = key;
+            }
+            return items;
+        }
+
+        private void saveSet(PSet set) {
+            Object[] items = setItems(set);
+            if (proto < 4) {
+                Object setType = context.getCore().lookupType(PythonBuiltinClassType.PSet);
+                saveReduce(new Object[]{setType, factory.createTuple(new Object[]{factory.createList(items)})}, set);
+                return;
+            }
+            pickler.write(EMPTY_SET);
+            memoize(set);
+            for (int i = 0; i < items.length; i += BATCHSIZE) {
+                int n = Math.min(BATCHSIZE, items.length - i);
+                pickler.write(MARK);
+                for (int j = i; j < i + n; j++) {
+                    save(items[j], false);
+                }
+                pickler.write(ADDITEMS);
+            }
+        }
+
+        private void saveFrozenSet(PFrozenSet set) {
+            Object[] items = setItems(set);
+            if (proto < 4) {
+                Object setType = context.getCore().lookupType(PythonBuiltinClassType.PFrozenSet);
+                saveReduce(new Object[]{setType, factory.createTuple(new Object[]{factory.createList(items)})}, set);
+                return;
+            }
+            pickler.write(MARK);
+            for (Object item : items) {
+                save(item, false);
+            }
+            int memoIdx = pickler.memoGet(set);
+            if (memoIdx >= 0) {
+                pickler.write(POP_MARK);
+                writeGet(memoIdx);
+                return;
+            }
+            pickler.write(FROZENSET);
+            memoize(set);
+        }
+
+        // reduce protocol
+
+        private void saveReduce(Object[] items, Object obj) {
+            Object callable = items[0];
+            Object args = items[1];
+            Object state = items.length > 2 ? items[2] : PNone.NONE;
+            Object listItems = items.length > 3 ? items[3] : PNone.NONE;
+            Object dictItems = items.length > 4 ? items[4] : PNone.NONE;
+            Object stateSetter = items.length > 5 ? items[5] : PNone.NONE;
+
+            if (!(args instanceof PTuple)) {
+                throw node.raise(PicklingError, ErrorMessages.SECOND_ITEM_OF_REDUCE_MUST_BE_TUPLE);
+            }
+            if (!lib.isCallable(callable)) {
+                throw node.raise(PicklingError, ErrorMessages.FIRST_ITEM_OF_REDUCE_MUST_BE_CALLABLE);
+            }
+            Object[] argItems = getItems(((PTuple) args).getSequenceStorage());
+            String funcName = null;
+            if (proto >= 2) {
+                Object nameObj = lib.lookupAttribute(callable, null, __NAME__);
+                if (nameObj != PNone.NO_VALUE) {
+                    funcName = asString(nameObj);
+                }
+            }
+            if ("__newobj_ex__".equals(funcName)) {
+                if (argItems.length != 3) {
+                    throw node.raise(PicklingError, ErrorMessages.LENGTH_OF_NEWOBJ_EX_ARGS_MUST_BE_3, argItems.length);
+                }
+                Object cls = normalizeClass(argItems[0]);
+                if (!PGuards.isPythonClass(cls)) {
+                    throw node.raise(PicklingError, ErrorMessages.FIRST_ITEM_OF_NEWOBJ_EX_MUST_BE_CLASS, cls);
+                }
+                if (!(argItems[1] instanceof PTuple)) {
+                    throw node.raise(PicklingError, ErrorMessages.SECOND_ITEM_OF_NEWOBJ_EX_MUST_BE_TUPLE, argItems[1]);
+                }
+                if (!(argItems[2] instanceof PDict)) {
+                    throw node.raise(PicklingError, ErrorMessages.THIRD_ITEM_OF_NEWOBJ_EX_MUST_BE_DICT, argItems[2]);
+                }
+                if (proto >= 4) {
+                    save(cls, false);
+                    save(argItems[1], false);
+                    save(argItems[2], false);
+                    pickler.write(NEWOBJ_EX);
+                } else {
+                    // partial(cls.__new__, cls, *args, **kwargs)
+                    Object[] clsArgs = getItems(((PTuple) argItems[1]).getSequenceStorage());
+                    Object[] partialArgs = new Object[clsArgs.length + 2];
+                    partialArgs[0] = lib.lookupAttributeStrict(cls, null, __NEW__);
+                    partialArgs[1] = cls;
+                    System.arraycopy(clsArgs, 0, partialArgs, 2, clsArgs.length);
+                    Object partial = lib.lookupAttributeStrict(importModule("functools"), null, "partial");
+                    Object newFunc = CallNode.getUncached().execute(partial, partialArgs, toKeywords((PDict) argItems[2]));
+                    save(newFunc, false);
+                    save(factory.createTuple(new Object[0]), false);
+                    pickler.write(REDUCE);
+                }
+            } else if ("__newobj__".equals(funcName)) {
+                if (argItems.length == 0) {
+                    throw node.raise(PicklingError, ErrorMessages.NEWOBJ_ARGLIST_IS_EMPTY);
+                }
+                Object cls = normalizeClass(argItems[0]);
+                if (!PGuards.isPythonClass(cls)) {
+                    throw node.raise(PicklingError, ErrorMessages.ARGS0_FROM_NEWOBJ_ARGS_IS_NOT_A_TYPE);
+                }
+                if (obj != null && normalizeClass(lib.lookupAttributeStrict(obj, null, __CLASS__)) != cls) {
+                    throw node.raise(PicklingError, ErrorMessages.ARGS0_FROM_NEWOBJ_ARGS_HAS_WRONG_CLASS);
+                }
+                Object[] newArgs = new Object[argItems.length - 1];
+                System.arraycopy(argItems, 1, newArgs, 0, newArgs.length);
+                save(cls, false);
+                save(factory.createTuple(newArgs), false);
+                pickler.write(NEWOBJ);
+            } else {
+                save(callable, false);
+                save(args, false);
+                pickler.write(REDUCE);
+            }
+
+            if (obj != null) {
+                int memoIdx = pickler.memoGet(obj);
+                if (memoIdx >= 0) {
+                    // the object was pickled recursively by its arguments
+                    pickler.write(POP);
+                    writeGet(memoIdx);
+                } else {
+                    memoize(obj);
+                }
+            }
+            if (listItems != PNone.NONE) {
+                batchAppends(lib.getIterator(listItems));
+            }
+            if (dictItems != PNone.NONE) {
+                saveDictItems(lib.getIterator(dictItems));
+            }
+            if (state != PNone.NONE) {
+                if (stateSetter == PNone.NONE) {
+                    save(state, false);
+                    pickler.write(BUILD);
+                } else {
+                    save(stateSetter, false);
+                    save(obj, false);
+                    save(state, false);
+                    pickler.write(TUPLE2);
+                    pickler.write(REDUCE);
+                    pickler.write(POP);
+                }
+            }
+        }
+
+        private PKeyword[] toKeywords(PDict kwargs) {
+            HashingStorage storage = kwargs.getDictStorage();
+            ArrayList<PKeyword> keywords = new ArrayList<>();
+            for (DictEntry entry : hlib.entries(storage)) {
+                String key = asString(entry.getKey());
+                if (key == null) {
+                    throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.KEYWORDS_MUST_BE_STRINGS, "partial");
+                }
+                keywords.add(new PKeyword(key, entry.getValue()));
+            }
+            return keywords.toArray(new PKeyword[keywords.size()]);
+        }
+
+        private Object next(Object iterator) {
+            try {
+                return GetNextWithoutFrameNodeGen.getUncached().executeWithGlobalState(iterator);
+            } catch (PException e) {
+                e.expectStopIteration(IsBuiltinClassProfile.getUncached());
+                return null;
+            }
+        }
+
+        private void batchAppends(Object iterator) {
+            if (!bin) {
+                Object item;
+                while ((item = next(iterator)) != null) {
+                    save(item, false);
+                    pickler.write(APPEND);
+                }
+                return;
+            }
+            ArrayList<Object> batch = new ArrayList<>();
+            boolean done = false;
+            while (!done) {
+                batch.clear();
+                Object item = null;
+                while (batch.size() < BATCHSIZE && (item = next(iterator)) != null) {
+                    batch.add(item);
+                }
+                done = item == null;
+                if (batch.size() == 1) {
+                    save(batch.get(0), false);
+                    pickler.write(APPEND);
+                } else if (batch.size() > 1) {
+                    pickler.write(MARK);
+                    for (Object o : batch) {
+                        save(o, false);
+                    }
+                    pickler.write(APPENDS);
+                }
+            }
+        }
+
+        private void saveDictItems(Object iterator) {
+            ArrayList<Object> keys = new ArrayList<>();
+            ArrayList<Object> values = new ArrayList<>();
+            Object item;
+            while ((item = next(iterator)) != null) {
+                if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                    throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.DICT_ITEMS_ITERATOR_MUST_RETURN_2_TUPLES);
+                }
+                SequenceStorage pair = ((PTuple) item).getSequenceStorage();
+                keys.add(pair.getItemNormalized(0));
+                values.add(pair.getItemNormalized(1));
+            }
+            batchSetItems(keys.toArray(), values.toArray(), keys.size());
+        }
+
+        private void savePers(Object pid) {
+            if (bin) {
+                save(pid, true);
+                pickler.write(BINPERSID);
+            } else {
+                String s = asString(lib.asPString(pid));
+                if (s == null || !isAscii(s)) {
+                    throw node.raise(PicklingError, ErrorMessages.PERSISTENT_IDS_IN_PROTOCOL_0_MUST_BE_ASCII);
+                }
+                pickler.write(PERSID);
+                writeAscii(s);
+                pickler.write((byte) '\n');
+            }
+        }
+
+        private static boolean isAscii(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // globals
+
+        private void saveType(Object cls) {
+            PythonBuiltinClassType singletonType = null;
+            Object singleton = null;
+            if (cls == context.getCore().lookupType(PythonBuiltinClassType.PNone)) {
+                singletonType = PythonBuiltinClassType.PNone;
+                singleton = PNone.NONE;
+            } else if (cls == context.getCore().lookupType(PythonBuiltinClassType.PNotImplemented)) {
+                singletonType = PythonBuiltinClassType.PNotImplemented;
+                singleton = PNotImplemented.NOT_IMPLEMENTED;
+            } else if (cls == context.getCore().lookupType(PythonBuiltinClassType.PEllipsis)) {
+                singletonType = PythonBuiltinClassType.PEllipsis;
+                singleton = PEllipsis.INSTANCE;
+            }
+            if (singletonType != null) {
+                Object typeType = context.getCore().lookupType(PythonBuiltinClassType.PythonClass);
+                saveReduce(new Object[]{typeType, factory.createTuple(new Object[]{singleton})}, cls);
+                return;
+            }
+            saveGlobal(cls, null);
+        }
+
+        private Object importModule(String name) {
+            Object top = AbstractImportNode.importModule(name);
+            Object module = context.getSysModules().getItem(name);
+            return module != null ? module : top;
+        }
+
+        private String whichModule(Object obj, String name) {
+            Object moduleName = lib.lookupAttribute(obj, null, __MODULE__);
+            if (moduleName != PNone.NO_VALUE && moduleName != PNone.NONE) {
+                String s = asString(moduleName);
+                if (s != null) {
+                    return s;
+                }
+            }
+            // copy the entries, looking up attributes may import further modules
+            ArrayList<Object> keys = new ArrayList<>();
+            ArrayList<Object> modules = new ArrayList<>();
+            for (DictEntry entry : hlib.entries(context.getSysModules().getDictStorage())) {
+                keys.add(entry.getKey());
+                modules.add(entry.getValue());
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                String key = asString(keys.get(i));
+                Object module = modules.get(i);
+                if (key == null || key.equals("__main__") || key.equals("__mp_main__") || !(module instanceof PythonModule)) {
+                    continue;
+                }
+                try {
+                    Object[] found = getAttribute(module, name.split("\\."));
+                    if (found != null && found[0] == obj) {
+                        return key;
+                    }
+                } catch (PException e) {
+                    // not found in this module
+                }
+            }
+            return "__main__";
+        }
+
+        /**
+         * Resolves a dotted name, returning the object and its parent, or {@code null} if an
+         * attribute is missing.
+         */
+        private Object[] getAttribute(Object module, String[] path) {
+            Object parent = null;
+            Object obj = module;
+            for (String part : path) {
+                if (part.equals("<locals>")) {
+                    return null;
+                }
+                parent = obj;
+                obj = lib.lookupAttribute(obj, null, part);
+                if (obj == PNone.NO_VALUE) {
+                    return null;
+                }
+            }
+            return new Object[]{normalizeClass(obj), parent};
+        }
+
+        private void saveGlobal(Object obj, String nameArg) {
+            String name = nameArg;
+            if (name == null) {
+                Object qualname = lib.lookupAttribute(obj, null, __QUALNAME__);
+                if (qualname == PNone.NO_VALUE) {
+                    qualname = lib.lookupAttributeStrict(obj, null, __NAME__);
+                }
+                name = asString(qualname);
+                if (name == null) {
+                    throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.ATTR_NAME_MUST_BE_STRING, qualname);
+                }
+            }
+            String moduleName = whichModule(obj, name);
+            Object module;
+            try {
+                module = importModule(moduleName);
+            } catch (PException e) {
+                throw node.raise(PicklingError, ErrorMessages.CANT_PICKLE_S_IMPORT_OF_MODULE_S_FAILED, repr(obj), moduleName);
+            }
+            String[] path = name.split("\\.");
+            Object[] found = getAttribute(module, path);
+            if (found == null) {
+                throw node.raise(PicklingError, ErrorMessages.CANT_PICKLE_S_NOT_FOUND_AS_S_S, repr(obj), moduleName, name);
+            }
+            if (found[0] != obj) {
+                throw node.raise(PicklingError, ErrorMessages.CANT_PICKLE_S_NOT_SAME_OBJECT_AS_S_S, repr(obj), moduleName, name);
+            }
+            Object parent = found[1];
+
+            if (proto >= 2) {
+                Object registry = lib.lookupAttributeStrict(importModule("copyreg"), null, "_extension_registry");
+                Object code = getItemOrNull(registry, factory.createTuple(new Object[]{moduleName, name}));
+                if (code != null) {
+                    long c = lib.asJavaLong(code);
+                    if (c <= 0xff) {
+                        pickler.write(EXT1, (byte) c);
+                    } else if (c <= 0xffff) {
+                        pickler.write(EXT2);
+                        pickler.write((byte) c, (byte) (c >> 8));
+                    } else {
+                        pickler.write(EXT4);
+                        pickler.writeIntLE((int) c);
+                    }
+                    return;
+                }
+            }
+
+            String lastName = path[path.length - 1];
+            if (parent == module) {
+                name = lastName;
+            }
+            if (proto >= 4) {
+                save(moduleName, false);
+                save(name, false);
+                pickler.write(STACK_GLOBAL);
+            } else if (parent != module) {
+                Object getattr = lib.lookupAttributeStrict(context.getCore().getBuiltins(), null, "getattr");
+                saveReduce(new Object[]{getattr, factory.createTuple(new Object[]{parent, lastName})}, null);
+            } else if (proto >= 3) {
+                pickler.write(GLOBAL);
+                pickler.write(encodeUTF8(moduleName));
+                pickler.write((byte) '\n');
+                pickler.write(encodeUTF8(name));
+                pickler.write((byte) '\n');
+            } else {
+                if (pickler.isFixImports()) {
+                    Object compat = importModule("_compat_pickle");
+                    Object mapped = getItemOrNull(lib.lookupAttributeStrict(compat, null, "REVERSE_NAME_MAPPING"), factory.createTuple(new Object[]{moduleName, name}));
+                    if (mapped != null) {
+                        Object[] pair = getItems(((PTuple) mapped).getSequenceStorage());
+                        moduleName = asString(pair[0]);
+                        name = asString(pair[1]);
+                    } else {
+                        Object mappedModule = getItemOrNull(lib.lookupAttributeStrict(compat, null, "REVERSE_IMPORT_MAPPING"), moduleName);
+                        if (mappedModule != null) {
+                            moduleName = asString(mappedModule);
+                        }
+                    }
+                }
+                if (moduleName == null || name == null || !isAscii(moduleName) || !isAscii(name)) {
+                    throw node.raise(PicklingError, ErrorMessages.CANT_PICKLE_GLOBAL_IDENTIFIER_S_S_USING_PROTOCOL_D, moduleName, name, proto);
+                }
+                pickler.write(GLOBAL);
+                writeAscii(moduleName);
+                pickler.write((byte) '\n');
+                writeAscii(name);
+                pickler.write((byte) '\n');
+            }
+            memoize(obj);
+        }
+    }
+}
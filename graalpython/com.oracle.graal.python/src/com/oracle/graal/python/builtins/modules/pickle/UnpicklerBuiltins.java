@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PUnpickler;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.UnpicklingError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PUnpickler)
+public class UnpicklerBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return UnpicklerBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Validates the arguments shared by {@code Unpickler.__init__}, {@code load} and
+     * {@code loads} and initializes the unpickler. {@code file} may be {@code null} when
+     * unpickling from bytes.
+     */
+    @TruffleBoundary
+    static void initUnpickler(PNodeWithRaise node, PUnpickler self, Object file, Object fixImportsObj, Object encodingObj, Object errorsObj, Object buffersObj) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        Object read = null;
+        Object readline = null;
+        if (file != null) {
+            read = lib.lookupAttribute(file, null, "read");
+            readline = lib.lookupAttribute(file, null, "readline");
+            if (read == PNone.NO_VALUE || readline == PNone.NO_VALUE) {
+                throw node.raise(TypeError, ErrorMessages.FILE_MUST_HAVE_READ_AND_READLINE_ATTRIBUTES);
+            }
+        }
+        boolean fixImports = fixImportsObj == PNone.NO_VALUE || lib.isTrue(fixImportsObj);
+        String encoding = toString(node, encodingObj, "encoding", "ASCII");
+        String errors = toString(node, errorsObj, "errors", "strict");
+        Object buffers = PGuards.isPNone(buffersObj) ? null : lib.getIterator(buffersObj);
+        self.init(read, readline, fixImports, encoding, errors, buffers);
+    }
+
+    private static String toString(PNodeWithRaise node, Object obj, String argName, String defaultValue) {
+        if (obj == PNone.NO_VALUE) {
+            return defaultValue;
+        }
+        try {
+            return CastToJavaStringNode.getUncached().execute(obj);
+        } catch (CannotCastException e) {
+            throw node.raise(TypeError, ErrorMessages.ARG_MUST_BE_S_NOT_P, argName, "str", obj);
+        }
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonBuiltinNode {
+        @Specialization
+        PNone init(PUnpickler self, Object file, Object fixImports, Object encoding, Object errors, Object buffers) {
+            initUnpickler(this, self, file, fixImports, encoding, errors, buffers);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "load", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class LoadNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object load(VirtualFrame frame, PUnpickler self,
+                        @Cached UnpicklerNodes.LoadNode loadNode) {
+            if (!self.isInitialized()) {
+                throw raise(UnpicklingError, ErrorMessages.UNPICKLER_INIT_NOT_CALLED_BY_P_INIT, self);
+            }
+            return loadNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = "find_class", minNumOfPositionalArgs = 3, parameterNames = {"$self", "module_name", "global_name"})
+    @GenerateNodeFactory
+    public abstract static class FindClassNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object findClass(PUnpickler self, Object moduleName, Object globalName,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached CastToJavaStringNode castToString) {
+            String module;
+            String name;
+            try {
+                module = castToString.execute(moduleName);
+                name = castToString.execute(globalName);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.ATTR_NAME_MUST_BE_STRING, globalName);
+            }
+            return UnpicklerNodes.findClass(this, context, self, module, name);
+        }
+    }
+}
@@ -0,0 +1,1098 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.UnpicklingError;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.*;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETATTR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETSTATE__;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.IndirectCallNode;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNodeFactory.GetNextWithoutFrameNodeGen;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+
+public final class UnpicklerNodes {
+
+    private UnpicklerNodes() {
+    }
+
+    /**
+     * Reads one pickle from the input of the unpickler, which is either the data that was set with
+     * {@link PUnpickler#setInput} or the file of the unpickler.
+     */
+    public abstract static class LoadNode extends PNodeWithRaise implements IndirectCallNode {
+        private final Assumption dontNeedExceptionState = Truffle.getRuntime().createAssumption();
+        private final Assumption dontNeedCallerFrame = Truffle.getRuntime().createAssumption();
+
+        @Override
+        public Assumption needNotPassFrameAssumption() {
+            return dontNeedCallerFrame;
+        }
+
+        @Override
+        public Assumption needNotPassExceptionAssumption() {
+            return dontNeedExceptionState;
+        }
+
+        public abstract Object execute(VirtualFrame frame, PUnpickler unpickler);
+
+        @Specialization
+        Object load(VirtualFrame frame, PUnpickler unpickler,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return doLoad(context, unpickler);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+
+        @TruffleBoundary
+        private Object doLoad(PythonContext context, PUnpickler unpickler) {
+            return new Loader(this, context, unpickler).load();
+        }
+
+        public static LoadNode create() {
+            return UnpicklerNodesFactory.LoadNodeGen.create();
+        }
+    }
+
+    /**
+     * Implements {@code Unpickler.find_class}: maps Python 2 names if requested and looks up the
+     * (possibly dotted) name in the imported module.
+     */
+    @TruffleBoundary
+    static Object findClass(PNodeWithRaise node, PythonContext context, PUnpickler unpickler, String moduleNameArg, String nameArg) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        PythonObjectFactory factory = PythonObjectFactory.getUncached();
+        String moduleName = moduleNameArg;
+        String name = nameArg;
+        if (unpickler.getProto() < 3 && unpickler.isFixImports()) {
+            Object compat = importModule(context, "_compat_pickle");
+            Object nameMapping = lib.lookupAttributeStrict(compat, null, "NAME_MAPPING");
+            Object mapped = nameMapping instanceof PDict ? ((PDict) nameMapping).getItem(factory.createTuple(new Object[]{moduleName, name})) : null;
+            if (mapped instanceof PTuple && ((PTuple) mapped).getSequenceStorage().length() == 2) {
+                SequenceStorage pair = ((PTuple) mapped).getSequenceStorage();
+                moduleName = castToString(pair.getItemNormalized(0));
+                name = castToString(pair.getItemNormalized(1));
+            } else {
+                Object importMapping = lib.lookupAttributeStrict(compat, null, "IMPORT_MAPPING");
+                Object mappedModule = importMapping instanceof PDict ? ((PDict) importMapping).getItem(moduleName) : null;
+                if (mappedModule != null) {
+                    moduleName = castToString(mappedModule);
+                }
+            }
+        }
+        Object module = importModule(context, moduleName);
+        if (unpickler.getProto() >= 4) {
+            Object obj = module;
+            for (String part : name.split("\\.")) {
+                if (part.equals("<locals>")) {
+                    throw node.raise(PythonBuiltinClassType.AttributeError, ErrorMessages.CANT_GET_LOCAL_ATTRIBUTE_S_ON_S, name, moduleName);
+                }
+                obj = lib.lookupAttribute(obj, null, part);
+                if (obj == PNone.NO_VALUE) {
+                    throw node.raise(PythonBuiltinClassType.AttributeError, ErrorMessages.CANT_GET_ATTRIBUTE_S_ON_S, name, moduleName);
+                }
+            }
+            return obj;
+        }
+        return lib.lookupAttributeStrict(module, null, name);
+    }
+
+    private static Object importModule(PythonContext context, String name) {
+        Object top = AbstractImportNode.importModule(name);
+        Object module = context.getSysModules().getItem(name);
+        return module != null ? module : top;
+    }
+
+    private static String castToString(Object obj) {
+        try {
+            return CastToJavaStringNode.getUncached().execute(obj);
+        } catch (CannotCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The actual unpickler. Like the pickler, it runs behind a {@link TruffleBoundary} with
+     * uncached libraries and builds the builtin containers directly on their storages.
+     */
+    private static final class Loader {
+        private final PNodeWithRaise node;
+        private final PythonContext context;
+        private final PUnpickler u;
+        private final PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        private final HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+        private final PythonObjectFactory factory = PythonObjectFactory.getUncached();
+
+        Loader(PNodeWithRaise node, PythonContext context, PUnpickler unpickler) {
+            this.node = node;
+            this.context = context;
+            this.u = unpickler;
+        }
+
+        Object load() {
+            u.clearStack();
+            u.setProto(0);
+            try {
+                return doLoad();
+            } finally {
+                u.clearStack();
+                if (u.getRead() != null) {
+                    u.releaseInput();
+                }
+            }
+        }
+
+        // reading
+
+        private PException truncated() {
+            return node.raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+        }
+
+        /** Makes sure {@code n} bytes are available and returns their offset in the input. */
+        private int read(int n) {
+            if (u.getFrameEnd() != -1) {
+                if (u.getInputPos() == u.getFrameEnd()) {
+                    u.setFrameEnd(-1);
+                } else if (u.getInputPos() + n > u.getFrameEnd()) {
+                    throw node.raise(UnpicklingError, ErrorMessages.PICKLE_EXHAUSTED_BEFORE_END_OF_FRAME);
+                }
+            }
+            if (u.available() < n) {
+                fill(n - u.available());
+                if (u.available() < n) {
+                    throw truncated();
+                }
+            }
+            int pos = u.getInputPos();
+            u.setInputPos(pos + n);
+            return pos;
+        }
+
+        private void fill(int n) {
+            Object read = u.getRead();
+            if (read == null) {
+                return;
+            }
+            Object data = lib.callObject(read, null, n);
+            byte[] bytes = toBytes(data);
+            u.appendInput(bytes, bytes.length);
+        }
+
+        private byte[] toBytes(Object data) {
+            if (!lib.isBuffer(data)) {
+                throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
+            }
+            try {
+                return lib.getBufferBytes(data);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+        }
+
+        private byte readOpcode() {
+            if (u.getFrameEnd() == u.getInputPos()) {
+                u.setFrameEnd(-1);
+            }
+            if (u.available() == 0 && u.getFrameEnd() == -1) {
+                fill(1);
+                if (u.available() == 0) {
+                    throw node.raise(PythonBuiltinClassType.EOFError, ErrorMessages.RAN_OUT_OF_INPUT);
+                }
+            }
+            return u.getInput()[read(1)];
+        }
+
+        private int readUnsignedByte() {
+            return u.getInput()[read(1)] & 0xff;
+        }
+
+        private long readLE(int n) {
+            int pos = read(n);
+            byte[] input = u.getInput();
+            long value = 0;
+            for (int i = n - 1; i >= 0; i--) {
+                value = (value << 8) | (input[pos + i] & 0xff);
+            }
+            return value;
+        }
+
+        private int readSize(int n, String opcodeName) {
+            long size = readLE(n);
+            if (n == 4 && opcodeName.equals("BINSTRING")) {
+                size = (int) size;
+            }
+            if (size < 0 || size > Integer.MAX_VALUE - 8) {
+                if (size < 0) {
+                    throw node.raise(UnpicklingError, ErrorMessages.S_PICKLE_HAS_NEGATIVE_BYTE_COUNT, opcodeName);
+                }
+                throw node.raise(PythonBuiltinClassType.OverflowError, ErrorMessages.S_EXCEEDS_MAXIMUM_SIZE, opcodeName);
+            }
+            return (int) size;
+        }
+
+        /** Reads a line without the trailing newline and returns it as latin-1 string. */
+        private String readLine() {
+            byte[] input = u.getInput();
+            int pos = u.getInputPos();
+            int limit = u.getFrameEnd() != -1 ? u.getFrameEnd() : pos + u.available();
+            for (int i = pos; i < limit; i++) {
+                if (input[i] == '\n') {
+                    u.setInputPos(i + 1);
+                    return new String(input, pos, i - pos, StandardCharsets.ISO_8859_1);
+                }
+            }
+            if (u.getFrameEnd() != -1) {
+                throw node.raise(UnpicklingError, ErrorMessages.PICKLE_EXHAUSTED_BEFORE_END_OF_FRAME);
+            }
+            Object readline = u.getReadline();
+            if (readline == null) {
+                throw truncated();
+            }
+            byte[] line = toBytes(lib.callObject(readline, null));
+            if (line.length == 0 || line[line.length - 1] != '\n') {
+                throw truncated();
+            }
+            u.appendInput(line, line.length);
+            return readLine();
+        }
+
+        // stack
+
+        private PException underflow() {
+            return node.raise(UnpicklingError, ErrorMessages.UNPICKLING_STACK_UNDERFLOW);
+        }
+
+        private Object pop() {
+            if (u.getStackSize() <= u.getStackBase()) {
+                throw underflow();
+            }
+            return u.pop();
+        }
+
+        private Object peek() {
+            if (u.getStackSize() <= u.getStackBase()) {
+                throw underflow();
+            }
+            return u.peek();
+        }
+
+        private int marker() {
+            if (!u.hasMark()) {
+                throw node.raise(UnpicklingError, ErrorMessages.COULD_NOT_FIND_MARK);
+            }
+            return u.popMark();
+        }
+
+        private Object[] popMark() {
+            return u.popFrom(marker());
+        }
+
+        /** Returns the object below the items of the last mark, which the items are added to. */
+        private Object[] popMarkAndPeek(Object[] target) {
+            Object[] items = popMark();
+            target[0] = peek();
+            return items;
+        }
+
+        private Object[] getItems(SequenceStorage storage) {
+            int len = storage.length();
+            Object[] items = new Object[len];
+            for (int i = 0; i < len; i++) {
+                items[i] = storage.getItemNormalized(i);
+            }
+            return items;
+        }
+
+        // values
+
+        private static Object toPythonInt(BigInteger value, PythonObjectFactory factory) {
+            if (value.bitLength() < 32) {
+                return value.intValue();
+            } else if (value.bitLength() < 64) {
+                return value.longValue();
+            }
+            return factory.createInt(value);
+        }
+
+        private Object parseInt(String line, boolean allowBool) {
+            if (allowBool) {
+                if (line.equals("00")) {
+                    return false;
+                } else if (line.equals("01")) {
+                    return true;
+                }
+            }
+            String s = line.trim();
+            if (s.endsWith("L")) {
+                s = s.substring(0, s.length() - 1);
+            }
+            if (s.startsWith("+")) {
+                s = s.substring(1);
+            }
+            try {
+                return toPythonInt(new BigInteger(s), factory);
+            } catch (NumberFormatException e) {
+                throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.INVALID_LITERAL_FOR_INT_WITH_BASE, 10, line);
+            }
+        }
+
+        private double parseFloat(String line) {
+            String s = line.trim().toLowerCase();
+            switch (s) {
+                case "inf":
+                case "+inf":
+                    return Double.POSITIVE_INFINITY;
+                case "-inf":
+                    return Double.NEGATIVE_INFINITY;
+                case "nan":
+                case "+nan":
+                case "-nan":
+                    return Double.NaN;
+            }
+            try {
+                return Double.parseDouble(s);
+            } catch (NumberFormatException e) {
+                throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_FLOAT, line);
+            }
+        }
+
+        private Object decodeLong(int n) {
+            if (n == 0) {
+                return 0;
+            }
+            int pos = read(n);
+            byte[] input = u.getInput();
+            byte[] bigEndian = new byte[n];
+            for (int i = 0; i < n; i++) {
+                bigEndian[i] = input[pos + n - 1 - i];
+            }
+            return toPythonInt(new BigInteger(bigEndian), factory);
+        }
+
+        private String decodeUnicode(int pos, int len) {
+            String s = decodeUTF8(u.getInput(), pos, len);
+            if (s == null) {
+                throw node.raise(PythonBuiltinClassType.UnicodeDecodeError, ErrorMessages.CANT_DECODE_BYTES_AS_UTF8);
+            }
+            return s;
+        }
+
+        /** Decodes a Python 2 {@code str} with the encoding given to the unpickler. */
+        private Object decodeString(byte[] data) {
+            String encoding = u.getEncoding();
+            if ("bytes".equals(encoding)) {
+                return factory.createBytes(data);
+            }
+            if ("ASCII".equalsIgnoreCase(encoding) && "strict".equals(u.getErrors())) {
+                boolean ascii = true;
+                for (byte b : data) {
+                    if (b < 0) {
+                        ascii = false;
+                        break;
+                    }
+                }
+                if (ascii) {
+                    return new String(data, StandardCharsets.ISO_8859_1);
+                }
+            }
+            return lib.lookupAndCallRegularMethod(factory.createBytes(data), null, "decode", encoding, u.getErrors());
+        }
+
+        private byte[] copyInput(int pos, int len) {
+            byte[] data = new byte[len];
+            System.arraycopy(u.getInput(), pos, data, 0, len);
+            return data;
+        }
+
+        // object construction
+
+        private Object callClass(Object cls, Object[] args) {
+            return CallNode.getUncached().execute(cls, args, PKeyword.EMPTY_KEYWORDS);
+        }
+
+        private Object newObject(Object cls, Object[] args, PKeyword[] kwargs) {
+            Object newMethod = lib.lookupAttributeStrict(cls, null, __NEW__);
+            Object[] newArgs = new Object[args.length + 1];
+            newArgs[0] = cls;
+            System.arraycopy(args, 0, newArgs, 1, args.length);
+            return CallNode.getUncached().execute(newMethod, newArgs, kwargs);
+        }
+
+        private Object instantiate(Object cls, Object[] args) {
+            if (args.length > 0 || !PGuards.isPythonClass(cls) || lib.lookupAttribute(cls, null, "__getinitargs__") != PNone.NO_VALUE) {
+                return callClass(cls, args);
+            }
+            return newObject(cls, args, PKeyword.EMPTY_KEYWORDS);
+        }
+
+        private Object findClass(Object module, Object name) {
+            return lib.lookupAndCallRegularMethod(u, null, "find_class", module, name);
+        }
+
+        private Object getExtension(long code) {
+            Object copyreg = importModule(context, "copyreg");
+            Object cache = lib.lookupAttributeStrict(copyreg, null, "_extension_cache");
+            Object obj = cache instanceof PDict ? ((PDict) cache).getItem(code) : null;
+            if (obj != null) {
+                return obj;
+            }
+            Object inverted = lib.lookupAttributeStrict(copyreg, null, "_inverted_registry");
+            Object key = inverted instanceof PDict ? ((PDict) inverted).getItem(code) : null;
+            if (!(key instanceof PTuple) || ((PTuple) key).getSequenceStorage().length() != 2) {
+                if (code <= 0) {
+                    throw node.raise(UnpicklingError, ErrorMessages.EXT_SPECIFIES_CODE_LE_0);
+                }
+                throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNREGISTERED_EXTENSION_CODE_D, code);
+            }
+            SequenceStorage pair = ((PTuple) key).getSequenceStorage();
+            obj = findClass(pair.getItemNormalized(0), pair.getItemNormalized(1));
+            if (cache instanceof PDict) {
+                ((PDict) cache).setItem(code, obj);
+            }
+            return obj;
+        }
+
+        private Object persistentLoad(Object pid) {
+            Object persistentLoad = lib.lookupAttribute(u, null, "persistent_load");
+            if (persistentLoad == PNone.NO_VALUE) {
+                throw node.raise(UnpicklingError, ErrorMessages.PERSISTENT_LOAD_NOT_SPECIFIED);
+            }
+            return lib.callObject(persistentLoad, null, pid);
+        }
+
+        private Object next(Object iterator) {
+            try {
+                return GetNextWithoutFrameNodeGen.getUncached().executeWithGlobalState(iterator);
+            } catch (PException e) {
+                e.expectStopIteration(IsBuiltinClassProfile.getUncached());
+                return null;
+            }
+        }
+
+        private boolean isExact(Object obj, PythonBuiltinClassType type) {
+            return IsBuiltinClassProfile.profileClassSlowPath(lib.getLazyPythonClass(obj), type);
+        }
+
+        private void appendItems(Object list, Object[] items) {
+            if (list instanceof PList && isExact(list, PythonBuiltinClassType.PList)) {
+                PList pList = (PList) list;
+                SequenceStorage storage = pList.getSequenceStorage();
+                SequenceStorageNodes.AppendNode appendNode = SequenceStorageNodes.AppendNode.getUncached();
+                for (Object item : items) {
+                    storage = appendNode.execute(storage, item, ListGeneralizationNode.SUPPLIER);
+                }
+                pList.setSequenceStorage(storage);
+                return;
+            }
+            Object extend = lib.lookupAttribute(list, null, "extend");
+            if (extend != PNone.NO_VALUE && items.length > 1) {
+                lib.callObject(extend, null, factory.createList(items));
+                return;
+            }
+            Object append = lib.lookupAttributeStrict(list, null, "append");
+            for (Object item : items) {
+                lib.callObject(append, null, item);
+            }
+        }
+
+        private void setItems(Object dict, Object[] items) {
+            if (items.length % 2 != 0) {
+                throw node.raise(UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR_SETITEMS);
+            }
+            if (dict instanceof PDict && isExact(dict, PythonBuiltinClassType.PDict)) {
+                PDict pDict = (PDict) dict;
+                HashingStorage storage = pDict.getDictStorage();
+                for (int i = 0; i < items.length; i += 2) {
+                    storage = hlib.setItem(storage, items[i], items[i + 1]);
+                }
+                pDict.setDictStorage(storage);
+                return;
+            }
+            for (int i = 0; i < items.length; i += 2) {
+                lib.lookupAndCallSpecialMethod(dict, null, __SETITEM__, items[i], items[i + 1]);
+            }
+        }
+
+        private void addItems(Object set, Object[] items) {
+            if (set instanceof PSet && isExact(set, PythonBuiltinClassType.PSet)) {
+                PSet pSet = (PSet) set;
+                HashingStorage storage = pSet.getDictStorage();
+                for (Object item : items) {
+                    storage = hlib.setItem(storage, item, PNone.NONE);
+                }
+                pSet.setDictStorage(storage);
+                return;
+            }
+            Object add = lib.lookupAttributeStrict(set, null, "add");
+            for (Object item : items) {
+                lib.callObject(add, null, item);
+            }
+        }
+
+        private void build() {
+            Object state = pop();
+            Object inst = peek();
+            Object setstate = lib.lookupAttribute(inst, null, __SETSTATE__);
+            if (setstate != PNone.NO_VALUE) {
+                lib.callObject(setstate, null, state);
+                return;
+            }
+            Object slotstate = PNone.NONE;
+            if (state instanceof PTuple && ((PTuple) state).getSequenceStorage().length() == 2) {
+                SequenceStorage pair = ((PTuple) state).getSequenceStorage();
+                state = pair.getItemNormalized(0);
+                slotstate = pair.getItemNormalized(1);
+            }
+            if (state != PNone.NONE) {
+                if (!(state instanceof PDict)) {
+                    throw node.raise(UnpicklingError, ErrorMessages.STATE_IS_NOT_A_DICTIONARY);
+                }
+                Object instDict = lib.lookupAttributeStrict(inst, null, __DICT__);
+                for (DictEntry entry : entries((PDict) state)) {
+                    lib.lookupAndCallSpecialMethod(instDict, null, __SETITEM__, entry.getKey(), entry.getValue());
+                }
+            }
+            if (slotstate != PNone.NONE) {
+                if (!(slotstate instanceof PDict)) {
+                    throw node.raise(UnpicklingError, ErrorMessages.SLOT_STATE_IS_NOT_A_DICTIONARY);
+                }
+                for (DictEntry entry : entries((PDict) slotstate)) {
+                    lib.lookupAndCallSpecialMethod(inst, null, __SETATTR__, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        private ArrayList<DictEntry> entries(PDict dict) {
+            ArrayList<DictEntry> result = new ArrayList<>();
+            for (DictEntry entry : hlib.entries(dict.getDictStorage())) {
+                result.add(entry);
+            }
+            return result;
+        }
+
+        private PKeyword[] toKeywords(Object kwargs) {
+            if (!(kwargs instanceof PDict)) {
+                throw node.raise(UnpicklingError, ErrorMessages.NEWOBJ_EX_KWARGS_MUST_BE_DICT, kwargs);
+            }
+            ArrayList<PKeyword> keywords = new ArrayList<>();
+            for (DictEntry entry : entries((PDict) kwargs)) {
+                String key = castToString(entry.getKey());
+                if (key == null) {
+                    throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.KEYWORDS_MUST_BE_STRINGS, "__new__");
+                }
+                keywords.add(new PKeyword(key, entry.getValue()));
+            }
+            return keywords.toArray(new PKeyword[keywords.size()]);
+        }
+
+        private Object[] tupleItems(Object args, String errorMessage) {
+            if (!(args instanceof PTuple)) {
+                throw node.raise(UnpicklingError, errorMessage);
+            }
+            return getItems(((PTuple) args).getSequenceStorage());
+        }
+
+        private Object memoGet(long idx) {
+            Object value = u.memoGet(idx);
+            if (value == null) {
+                throw node.raise(UnpicklingError, ErrorMessages.MEMO_VALUE_NOT_FOUND_AT_INDEX_D, idx);
+            }
+            return value;
+        }
+
+        private void memoPut(long idx) {
+            if (idx < 0) {
+                throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.NEGATIVE_PUT_ARGUMENT);
+            }
+            if (idx > Integer.MAX_VALUE - 8) {
+                throw node.raise(PythonBuiltinClassType.MemoryError);
+            }
+            u.memoPut((int) idx, peek());
+        }
+
+        private PException invalidLoadKey(byte opcode) {
+            int b = opcode & 0xff;
+            String key = b >= 0x20 && b < 0x7f ? String.valueOf((char) b) : String.format("\\x%02x", b);
+            return node.raise(UnpicklingError, ErrorMessages.INVALID_LOAD_KEY_S, key);
+        }
+
+        // the main loop
+
+        private Object doLoad() {
+            while (true) {
+                byte opcode = readOpcode();
+                switch (opcode) {
+                    case MARK:
+                        u.pushMark();
+                        break;
+                    case STOP:
+                        return pop();
+                    case POP:
+                        if (u.hasMark() && u.getStackBase() == u.getStackSize()) {
+                            u.popMark();
+                        } else {
+                            pop();
+                        }
+                        break;
+                    case POP_MARK:
+                        popMark();
+                        break;
+                    case DUP:
+                        u.push(peek());
+                        break;
+                    case PROTO: {
+                        int proto = readUnsignedByte();
+                        if (proto > HIGHEST_PROTOCOL) {
+                            throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNSUPPORTED_PICKLE_PROTOCOL_D, proto);
+                        }
+                        u.setProto(proto);
+                        break;
+                    }
+                    case FRAME: {
+                        long frameLen = readLE(8);
+                        if (frameLen < 0 || frameLen > Integer.MAX_VALUE - 8) {
+                            throw node.raise(PythonBuiltinClassType.OverflowError, ErrorMessages.S_EXCEEDS_MAXIMUM_SIZE, "FRAME");
+                        }
+                        if (u.getFrameEnd() != -1 && u.getInputPos() != u.getFrameEnd()) {
+                            throw node.raise(UnpicklingError, ErrorMessages.BEGINNING_OF_NEW_FRAME_BEFORE_END_OF_CURRENT_FRAME);
+                        }
+                        u.setFrameEnd(-1);
+                        int start = read((int) frameLen);
+                        u.setInputPos(start);
+                        u.setFrameEnd(start + (int) frameLen);
+                        break;
+                    }
+                    case NONE:
+                        u.push(PNone.NONE);
+                        break;
+                    case NEWTRUE:
+                        u.push(true);
+                        break;
+                    case NEWFALSE:
+                        u.push(false);
+                        break;
+                    case INT:
+                        u.push(parseInt(readLine(), true));
+                        break;
+                    case BININT:
+                        u.push((int) readLE(4));
+                        break;
+                    case BININT1:
+                        u.push(readUnsignedByte());
+                        break;
+                    case BININT2:
+                        u.push((int) readLE(2));
+                        break;
+                    case LONG:
+                        u.push(parseInt(readLine(), false));
+                        break;
+                    case LONG1:
+                        u.push(decodeLong(readUnsignedByte()));
+                        break;
+                    case LONG4: {
+                        int n = (int) readLE(4);
+                        if (n < 0) {
+                            throw node.raise(UnpicklingError, ErrorMessages.S_PICKLE_HAS_NEGATIVE_BYTE_COUNT, "LONG");
+                        }
+                        u.push(decodeLong(n));
+                        break;
+                    }
+                    case FLOAT:
+                        u.push(parseFloat(readLine()));
+                        break;
+                    case BINFLOAT: {
+                        int pos = read(8);
+                        byte[] input = u.getInput();
+                        long bits = 0;
+                        for (int i = 0; i < 8; i++) {
+                            bits = (bits << 8) | (input[pos + i] & 0xff);
+                        }
+                        u.push(Double.longBitsToDouble(bits));
+                        break;
+                    }
+                    case STRING: {
+                        String line = readLine();
+                        int len = line.length();
+                        if (len < 2 || line.charAt(0) != line.charAt(len - 1) || (line.charAt(0) != '\'' && line.charAt(0) != '"')) {
+                            throw node.raise(UnpicklingError, ErrorMessages.STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED);
+                        }
+                        byte[] quoted = line.substring(1, len - 1).getBytes(StandardCharsets.ISO_8859_1);
+                        Object codecs = importModule(context, "_codecs");
+                        Object decoded = lib.lookupAndCallRegularMethod(codecs, null, "escape_decode", factory.createBytes(quoted));
+                        Object data = getItems(((PTuple) decoded).getSequenceStorage())[0];
+                        u.push(decodeString(toBytes(data)));
+                        break;
+                    }
+                    case BINSTRING: {
+                        int len = readSize(4, "BINSTRING");
+                        u.push(decodeString(copyInput(read(len), len)));
+                        break;
+                    }
+                    case SHORT_BINSTRING: {
+                        int len = readUnsignedByte();
+                        u.push(decodeString(copyInput(read(len), len)));
+                        break;
+                    }
+                    case BINBYTES: {
+                        int len = readSize(4, "BINBYTES");
+                        u.push(factory.createBytes(copyInput(read(len), len)));
+                        break;
+                    }
+                    case SHORT_BINBYTES: {
+                        int len = readUnsignedByte();
+                        u.push(factory.createBytes(copyInput(read(len), len)));
+                        break;
+                    }
+                    case BINBYTES8: {
+                        int len = readSize(8, "BINBYTES8");
+                        u.push(factory.createBytes(copyInput(read(len), len)));
+                        break;
+                    }
+                    case BYTEARRAY8: {
+                        int len = readSize(8, "BYTEARRAY8");
+                        u.push(factory.createByteArray(copyInput(read(len), len)));
+                        break;
+                    }
+                    case NEXT_BUFFER: {
+                        Object buffers = u.getBuffers();
+                        if (buffers == null) {
+                            throw node.raise(UnpicklingError, ErrorMessages.PICKLE_STREAM_REFERS_TO_OUT_OF_BAND_DATA);
+                        }
+                        Object buffer = next(buffers);
+                        if (buffer == null) {
+                            throw node.raise(UnpicklingError, ErrorMessages.NOT_ENOUGH_OUT_OF_BAND_BUFFERS);
+                        }
+                        u.push(buffer);
+                        break;
+                    }
+                    case READONLY_BUFFER: {
+                        Object buffer = peek();
+                        Object memoryviewType = context.getCore().lookupType(PythonBuiltinClassType.PMemoryView);
+                        Object view = lib.callObject(memoryviewType, null, buffer);
+                        if (view instanceof PMemoryView && !((PMemoryView) view).isReadOnly()) {
+                            u.replaceTop(lib.lookupAndCallRegularMethod(view, null, "toreadonly"));
+                        }
+                        break;
+                    }
+                    case UNICODE: {
+                        byte[] line = readLine().getBytes(StandardCharsets.ISO_8859_1);
+                        String s = decodeRawUnicodeEscape(line, 0, line.length);
+                        if (s == null) {
+                            throw node.raise(PythonBuiltinClassType.UnicodeDecodeError, ErrorMessages.CANT_DECODE_BYTES_AS_RAW_UNICODE_ESCAPE);
+                        }
+                        u.push(s);
+                        break;
+                    }
+                    case BINUNICODE: {
+                        int len = readSize(4, "BINUNICODE");
+                        u.push(decodeUnicode(read(len), len));
+                        break;
+                    }
+                    case BINUNICODE8: {
+                        int len = readSize(8, "BINUNICODE8");
+                        u.push(decodeUnicode(read(len), len));
+                        break;
+                    }
+                    case SHORT_BINUNICODE: {
+                        int len = readUnsignedByte();
+                        u.push(decodeUnicode(read(len), len));
+                        break;
+                    }
+                    case TUPLE:
+                        u.push(factory.createTuple(popMark()));
+                        break;
+                    case EMPTY_TUPLE:
+                        u.push(factory.createTuple(new Object[0]));
+                        break;
+                    case TUPLE1:
+                    case TUPLE2:
+                    case TUPLE3: {
+                        int n = opcode - TUPLE1 + 1;
+                        if (u.getStackSize() - u.getStackBase() < n) {
+                            throw underflow();
+                        }
+                        u.push(factory.createTuple(u.popFrom(u.getStackSize() - n)));
+                        break;
+                    }
+                    case EMPTY_LIST:
+                        u.push(factory.createList());
+                        break;
+                    case LIST:
+                        u.push(factory.createList(popMark()));
+                        break;
+                    case EMPTY_DICT:
+                        u.push(factory.createDict());
+                        break;
+                    case DICT: {
+                        Object[] items = popMark();
+                        if (items.length % 2 != 0) {
+                            throw node.raise(UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR_DICT);
+                        }
+                        HashingStorage storage = EconomicMapStorage.create(items.length / 2);
+                        for (int i = 0; i < items.length; i += 2) {
+                            storage = hlib.setItem(storage, items[i], items[i + 1]);
+                        }
+                        u.push(factory.createDict(storage));
+                        break;
+                    }
+                    case EMPTY_SET:
+                        u.push(factory.createSet(PythonBuiltinClassType.PSet));
+                        break;
+                    case FROZENSET: {
+                        Object[] items = popMark();
+                        HashingStorage storage = EconomicMapStorage.create(items.length);
+                        for (Object item : items) {
+                            storage = hlib.setItem(storage, item, PNone.NONE);
+                        }
+                        u.push(factory.createFrozenSet(storage));
+                        break;
+                    }
+                    case APPEND: {
+                        Object value = pop();
+                        appendItems(peek(), new Object[]{value});
+                        break;
+                    }
+                    case APPENDS: {
+                        Object[] target = new Object[1];
+                        Object[] items = popMarkAndPeek(target);
+                        appendItems(target[0], items);
+                        break;
+                    }
+                    case SETITEM: {
+                        Object value = pop();
+                        Object key = pop();
+                        setItems(peek(), new Object[]{key, value});
+                        break;
+                    }
+                    case SETITEMS: {
+                        Object[] target = new Object[1];
+                        Object[] items = popMarkAndPeek(target);
+                        setItems(target[0], items);
+                        break;
+                    }
+                    case ADDITEMS: {
+                        Object[] target = new Object[1];
+                        Object[] items = popMarkAndPeek(target);
+                        addItems(target[0], items);
+                        break;
+                    }
+                    case BUILD:
+                        build();
+                        break;
+                    case GLOBAL: {
+                        String module = decodeLineUTF8(readLine());
+                        String name = decodeLineUTF8(readLine());
+                        u.push(findClass(module, name));
+                        break;
+                    }
+                    case STACK_GLOBAL: {
+                        Object name = pop();
+                        Object module = pop();
+                        if (!PGuards.isString(name) || !PGuards.isString(module)) {
+                            throw node.raise(UnpicklingError, ErrorMessages.STACK_GLOBAL_REQUIRES_STR);
+                        }
+                        u.push(findClass(module, name));
+                        break;
+                    }
+                    case INST: {
+                        String module = readLine();
+                        String name = readLine();
+                        Object cls = findClass(module, name);
+                        u.push(instantiate(cls, popMark()));
+                        break;
+                    }
+                    case OBJ: {
+                        Object[] args = popMark();
+                        if (args.length == 0) {
+                            throw underflow();
+                        }
+                        Object[] clsArgs = new Object[args.length - 1];
+                        System.arraycopy(args, 1, clsArgs, 0, clsArgs.length);
+                        u.push(instantiate(args[0], clsArgs));
+                        break;
+                    }
+                    case NEWOBJ: {
+                        Object[] args = tupleItems(pop(), ErrorMessages.NEWOBJ_EXPECTED_AN_ARG_TUPLE);
+                        Object cls = pop();
+                        if (!PGuards.isPythonClass(cls)) {
+                            throw node.raise(UnpicklingError, ErrorMessages.S_CLASS_ARGUMENT_ISNT_A_TYPE_OBJECT, "NEWOBJ");
+                        }
+                        u.push(newObject(cls, args, PKeyword.EMPTY_KEYWORDS));
+                        break;
+                    }
+                    case NEWOBJ_EX: {
+                        Object kwargs = pop();
+                        Object[] args = tupleItems(pop(), ErrorMessages.NEWOBJ_EX_ARGS_MUST_BE_TUPLE);
+                        Object cls = pop();
+                        if (!PGuards.isPythonClass(cls)) {
+                            throw node.raise(UnpicklingError, ErrorMessages.S_CLASS_ARGUMENT_ISNT_A_TYPE_OBJECT, "NEWOBJ_EX");
+                        }
+                        u.push(newObject(cls, args, toKeywords(kwargs)));
+                        break;
+                    }
+                    case REDUCE: {
+                        Object args = pop();
+                        Object func = peek();
+                        if (!(args instanceof PTuple)) {
+                            throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.ARGUMENT_LIST_MUST_BE_A_TUPLE);
+                        }
+                        u.replaceTop(callClass(func, getItems(((PTuple) args).getSequenceStorage())));
+                        break;
+                    }
+                    case EXT1:
+                        u.push(getExtension(readUnsignedByte()));
+                        break;
+                    case EXT2:
+                        u.push(getExtension(readLE(2)));
+                        break;
+                    case EXT4:
+                        u.push(getExtension((int) readLE(4)));
+                        break;
+                    case PERSID: {
+                        String pid = readLine();
+                        for (int i = 0; i < pid.length(); i++) {
+                            if (pid.charAt(i) >= 0x80) {
+                                throw node.raise(UnpicklingError, ErrorMessages.PERSISTENT_IDS_IN_PROTOCOL_0_MUST_BE_ASCII);
+                            }
+                        }
+                        u.push(persistentLoad(pid));
+                        break;
+                    }
+                    case BINPERSID:
+                        u.push(persistentLoad(pop()));
+                        break;
+                    case GET:
+                        u.push(memoGet(parseLong(readLine())));
+                        break;
+                    case BINGET:
+                        u.push(memoGet(readUnsignedByte()));
+                        break;
+                    case LONG_BINGET:
+                        u.push(memoGet(readLE(4)));
+                        break;
+                    case PUT:
+                        memoPut(parseLong(readLine()));
+                        break;
+                    case BINPUT:
+                        memoPut(readUnsignedByte());
+                        break;
+                    case LONG_BINPUT:
+                        memoPut(readLE(4));
+                        break;
+                    case MEMOIZE:
+                        memoPut(u.memoSize());
+                        break;
+                    default:
+                        throw invalidLoadKey(opcode);
+                }
+            }
+        }
+
+        private long parseLong(String line) {
+            Object value = parseInt(line, false);
+            if (value instanceof Integer) {
+                return (int) value;
+            } else if (value instanceof Long) {
+                return (long) value;
+            }
+            throw node.raise(PythonBuiltinClassType.OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "C ssize_t");
+        }
+
+        private String decodeLineUTF8(String latin1Line) {
+            byte[] bytes = latin1Line.getBytes(StandardCharsets.ISO_8859_1);
+            return decodeUnicodeBytes(bytes);
+        }
+
+        private String decodeUnicodeBytes(byte[] bytes) {
+            String s = decodeUTF8(bytes, 0, bytes.length);
+            if (s == null) {
+                throw node.raise(PythonBuiltinClassType.UnicodeDecodeError, ErrorMessages.CANT_DECODE_BYTES_AS_UTF8);
+            }
+            return s;
+        }
+    }
+}
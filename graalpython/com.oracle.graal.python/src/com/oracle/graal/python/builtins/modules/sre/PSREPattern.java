@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A compiled regular expression ({@code re.Pattern}). The TRegex regex is compiled eagerly for
+ * {@code search}, while the variants for {@code match} and {@code fullmatch} are compiled on first
+ * use. Only the {@code exec} methods of the compiled regexes are kept.
+ */
+public final class PSREPattern extends PythonBuiltinObject {
+    static final int SEARCH = 0;
+    static final int MATCH = 1;
+    static final int FULLMATCH = 2;
+
+    /** The original pattern, a {@code str} or {@code bytes} object. */
+    final Object pattern;
+    /** The pattern as Java string; bytes patterns are decoded as Latin-1. */
+    final String patternString;
+    final boolean binary;
+    final int flags;
+    /** The flags in the form expected by TRegex. */
+    final String flagsString;
+    /** The number of capturing groups, not counting group 0. */
+    final int groups;
+    /** Maps group names to group numbers. */
+    final PDict groupindex;
+    final Object[] execs = new Object[3];
+
+    public PSREPattern(Object cls, Shape instanceShape, Object pattern, String patternString, boolean binary, int flags, String flagsString, int groups, PDict groupindex, Object exec) {
+        super(cls, instanceShape);
+        this.pattern = pattern;
+        this.patternString = patternString;
+        this.binary = binary;
+        this.flags = flags;
+        this.flagsString = flagsString;
+        this.groups = groups;
+        this.groupindex = groupindex;
+        this.execs[SEARCH] = exec;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The string a pattern is applied to, with the {@code pos} and {@code endpos} arguments clamped
+ * to its length like in CPython. Bytes-like objects are copied once and then handled as Latin-1
+ * strings, so that all slicing works on Java strings.
+ */
+public final class SREInput {
+    /** The original object, returned by {@code Match.string}. */
+    final Object string;
+    final boolean binary;
+    final int pos;
+    final int endpos;
+    /** The input for TRegex; it is cut off at {@code endpos}. */
+    final Object execInput;
+    private final String text;
+
+    SREInput(Object string, boolean binary, String text, int pos, int endpos, Object execInput) {
+        this.string = string;
+        this.binary = binary;
+        this.text = text;
+        this.pos = pos;
+        this.endpos = endpos;
+        this.execInput = execInput;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    int length() {
+        return text.length();
+    }
+
+    String substring(int start, int end) {
+        return text.substring(start, end);
+    }
+
+    /** The index after the character at {@code index}, which is never inside a surrogate pair. */
+    int next(int index) {
+        if (!binary && index + 1 < text.length() && Character.isHighSurrogate(text.charAt(index)) && Character.isLowSurrogate(text.charAt(index + 1))) {
+            return index + 2;
+        }
+        return index + 1;
+    }
+
+    static String decode(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    static byte[] encode(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
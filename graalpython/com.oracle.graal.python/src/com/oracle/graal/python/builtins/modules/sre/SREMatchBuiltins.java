@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSREMatch)
+public class SREMatchBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SREMatchBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "group", minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    abstract static class GroupNode extends PythonBuiltinNode {
+        @Specialization(guards = "args.length == 0")
+        static Object group0(PSREMatch self, @SuppressWarnings("unused") Object[] args) {
+            return SREUtils.getGroup(self, 0, PNone.NONE);
+        }
+
+        @Specialization(guards = "args.length == 1")
+        Object group1(PSREMatch self, Object[] args) {
+            return SREUtils.getGroup(self, SREUtils.getGroupIndex(this, self, args[0]), PNone.NONE);
+        }
+
+        @Specialization(guards = "args.length > 1")
+        PTuple groupN(PSREMatch self, Object[] args) {
+            Object[] result = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                result[i] = SREUtils.getGroup(self, SREUtils.getGroupIndex(this, self, args[i]), PNone.NONE);
+            }
+            return factory().createTuple(result);
+        }
+    }
+
+    @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object getItem(PSREMatch self, Object group) {
+            return SREUtils.getGroup(self, SREUtils.getGroupIndex(this, self, group), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "groups", minNumOfPositionalArgs = 1, parameterNames = {"$self", "default"})
+    @GenerateNodeFactory
+    abstract static class GroupsNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTuple groups(PSREMatch self, Object defaultValue) {
+            return factory().createTuple(SREUtils.getGroups(self, defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue));
+        }
+    }
+
+    @Builtin(name = "groupdict", minNumOfPositionalArgs = 1, parameterNames = {"$self", "default"})
+    @GenerateNodeFactory
+    abstract static class GroupDictNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PDict groupdict(PSREMatch self, Object defaultValue) {
+            return SREUtils.getGroupDict(self, defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue);
+        }
+    }
+
+    @Builtin(name = "start", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class StartNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        int start(PSREMatch self, Object group) {
+            return self.getStart(group == PNone.NO_VALUE ? 0 : SREUtils.getGroupIndex(this, self, group));
+        }
+    }
+
+    @Builtin(name = "end", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class EndNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        int end(PSREMatch self, Object group) {
+            return self.getEnd(group == PNone.NO_VALUE ? 0 : SREUtils.getGroupIndex(this, self, group));
+        }
+    }
+
+    @Builtin(name = "span", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class SpanNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTuple span(PSREMatch self, Object group) {
+            int index = group == PNone.NO_VALUE ? 0 : SREUtils.getGroupIndex(this, self, group);
+            return factory().createTuple(new Object[]{self.getStart(index), self.getEnd(index)});
+        }
+    }
+
+    @Builtin(name = "expand", minNumOfPositionalArgs = 2, parameterNames = {"$self", "template"})
+    @GenerateNodeFactory
+    abstract static class ExpandNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object expand(VirtualFrame frame, PSREMatch self, Object template,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return SREUtils.expand(this, context, self, template);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+    }
+
+    @Builtin(name = "regs", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class RegsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple regs(PSREMatch self) {
+            Object[] regs = new Object[self.pattern.groups + 1];
+            for (int i = 0; i < regs.length; i++) {
+                regs[i] = factory().createTuple(new Object[]{self.getStart(i), self.getEnd(i)});
+            }
+            return factory().createTuple(regs);
+        }
+    }
+
+    @Builtin(name = "string", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class StringNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object string(PSREMatch self) {
+            return self.input.string;
+        }
+    }
+
+    @Builtin(name = "re", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ReNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PSREPattern re(PSREMatch self) {
+            return self.pattern;
+        }
+    }
+
+    @Builtin(name = "pos", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class PosNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int pos(PSREMatch self) {
+            return self.input.pos;
+        }
+    }
+
+    @Builtin(name = "endpos", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class EndPosNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int endpos(PSREMatch self) {
+            return self.input.endpos;
+        }
+    }
+
+    @Builtin(name = "lastindex", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LastIndexNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object lastindex(PSREMatch self) {
+            int lastIndex = SREUtils.getLastIndex(self);
+            return lastIndex >= 0 ? lastIndex : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "lastgroup", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LastGroupNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object lastgroup(PSREMatch self) {
+            return SREUtils.getLastGroup(self);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(PSREMatch self) {
+            return SREUtils.repr(self);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSREPattern)
+public class SREPatternBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SREPatternBuiltinsFactory.getFactories();
+    }
+
+    abstract static class SearchBaseNode extends PythonQuaternaryClinicBuiltinNode {
+        private final int kind;
+
+        SearchBaseNode(int kind) {
+            this.kind = kind;
+        }
+
+        @Specialization
+        Object search(VirtualFrame frame, PSREPattern self, Object string, int pos, int endpos,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return SREUtils.search(this, context, self, kind, string, pos, endpos);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+    }
+
+    @Builtin(name = "search", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.Index, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class SearchNode extends SearchBaseNode {
+        SearchNode() {
+            super(PSREPattern.SEARCH);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SearchNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "match", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.Index, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class MatchNode extends SearchBaseNode {
+        MatchNode() {
+            super(PSREPattern.MATCH);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.MatchNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "fullmatch", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.Index, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class FullMatchNode extends SearchBaseNode {
+        FullMatchNode() {
+            super(PSREPattern.FULLMATCH);
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.FullMatchNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "findall", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.Index, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class FindAllNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.FindAllNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PList findall(VirtualFrame frame, PSREPattern self, Object string, int pos, int endpos,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return SREUtils.findall(this, self, string, pos, endpos);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+    }
+
+    @Builtin(name = "scanner", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.Index, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class ScannerNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.ScannerNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PSREScanner scanner(PSREPattern self, Object string, int pos, int endpos) {
+            return factory().createSREScanner(self, SREUtils.createInput(this, self, string, pos, endpos));
+        }
+    }
+
+    @Builtin(name = "finditer", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "pos", "endpos"})
+    @ArgumentClinic(name = "pos", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "endpos", conversion = ClinicConversion.Index, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class FindIterNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.FindIterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object finditer(VirtualFrame frame, PSREPattern self, Object string, int pos, int endpos,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            PSREScanner scanner = factory().createSREScanner(self, SREUtils.createInput(this, self, string, pos, endpos));
+            // like CPython: iter(scanner.search, None)
+            return factory().createSentinelIterator(lib.lookupAttributeStrict(scanner, frame, "search"), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "sub", minNumOfPositionalArgs = 3, parameterNames = {"$self", "repl", "string", "count"})
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    public abstract static class SubNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SubNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object sub(VirtualFrame frame, PSREPattern self, Object repl, Object string, int count,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return SREUtils.sub(this, context, self, repl, string, count, false);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+    }
+
+    @Builtin(name = "subn", minNumOfPositionalArgs = 3, parameterNames = {"$self", "repl", "string", "count"})
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    public abstract static class SubnNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SubnNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object subn(VirtualFrame frame, PSREPattern self, Object repl, Object string, int count,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return SREUtils.sub(this, context, self, repl, string, count, true);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+    }
+
+    @Builtin(name = "split", minNumOfPositionalArgs = 2, parameterNames = {"$self", "string", "maxsplit"})
+    @ArgumentClinic(name = "maxsplit", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    public abstract static class SplitNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SREPatternBuiltinsClinicProviders.SplitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PList split(VirtualFrame frame, PSREPattern self, Object string, int maxsplit,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object state = IndirectCallContext.enter(frame, context, this);
+            try {
+                return SREUtils.split(this, self, string, maxsplit);
+            } finally {
+                IndirectCallContext.exit(frame, context, state);
+            }
+        }
+    }
+
+    @Builtin(name = "pattern", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class PatternNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object pattern(PSREPattern self) {
+            return self.pattern;
+        }
+    }
+
+    @Builtin(name = "flags", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FlagsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int flags(PSREPattern self) {
+            return self.flags;
+        }
+    }
+
+    @Builtin(name = "groups", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class GroupsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int groups(PSREPattern self) {
+            return self.groups;
+        }
+    }
+
+    @Builtin(name = "groupindex", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class GroupIndexNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object groupindex(PSREPattern self) {
+            PDict groupindex = self.groupindex;
+            return factory().createMappingproxy(groupindex);
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(PSREPattern self) {
+            return SREUtils.repr(self);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+
+import java.util.ArrayList;
+
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.PythonUtils;
+
+/**
+ * A replacement template of {@code re.sub}, parsed like {@code sre_parse.parse_template}. The
+ * items are literal strings and group numbers ({@link Integer}); groups that did not match are
+ * replaced by the empty string.
+ */
+final class SRETemplate {
+    private final Object[] items;
+    private final boolean hasGroups;
+
+    private SRETemplate(Object[] items, boolean hasGroups) {
+        this.items = items;
+        this.hasGroups = hasGroups;
+    }
+
+    boolean hasGroups() {
+        return hasGroups;
+    }
+
+    void expand(StringBuilder sb, String text, int[] spans) {
+        for (Object item : items) {
+            if (item instanceof String) {
+                sb.append((String) item);
+            } else {
+                int group = (int) item;
+                int start = spans[group * 2];
+                if (start >= 0) {
+                    sb.append(text, start, spans[group * 2 + 1]);
+                }
+            }
+        }
+    }
+
+    static SRETemplate create(PNodeWithRaise node, PythonContext context, PSREPattern pattern, String repl) {
+        if (repl.indexOf('\\') < 0) {
+            // a literal replacement
+            return new SRETemplate(new Object[]{repl}, false);
+        }
+        ArrayList<Object> items = new ArrayList<>();
+        boolean hasGroups = false;
+        StringBuilder literal = new StringBuilder();
+        int length = repl.length();
+        int i = 0;
+        while (i < length) {
+            char c = repl.charAt(i++);
+            if (c != '\\') {
+                literal.append(c);
+                continue;
+            }
+            int escapeStart = i - 1;
+            if (i == length) {
+                throw error(node, context, pattern, repl, ErrorMessages.BAD_ESCAPE_END_OF_PATTERN, escapeStart);
+            }
+            c = repl.charAt(i++);
+            int group;
+            switch (c) {
+                case 'g':
+                    if (i == length || repl.charAt(i) != '<') {
+                        throw error(node, context, pattern, repl, ErrorMessages.MISSING_LT, i);
+                    }
+                    int nameStart = ++i;
+                    int nameEnd = repl.indexOf('>', nameStart);
+                    if (nameEnd < 0) {
+                        if (nameStart == length) {
+                            throw error(node, context, pattern, repl, ErrorMessages.MISSING_GROUP_NAME, nameStart);
+                        }
+                        throw error(node, context, pattern, repl, ErrorMessages.MISSING_GT_UNTERMINATED_NAME, nameStart);
+                    } else if (nameEnd == nameStart) {
+                        throw error(node, context, pattern, repl, ErrorMessages.MISSING_GROUP_NAME, nameStart);
+                    }
+                    String name = repl.substring(nameStart, nameEnd);
+                    i = nameEnd + 1;
+                    if (context.getCore().getParser().isIdentifier(context.getCore(), name)) {
+                        Object index = pattern.groupindex.getItem(name);
+                        if (index == null) {
+                            throw node.raise(IndexError, ErrorMessages.UNKNOWN_GROUP_NAME, name);
+                        }
+                        group = PythonObjectLibrary.getUncached().asSize(index);
+                    } else {
+                        group = 0;
+                        for (int j = 0; j < name.length(); j++) {
+                            char digit = name.charAt(j);
+                            if (digit < '0' || digit > '9') {
+                                throw error(node, context, pattern, repl, PythonUtils.format(ErrorMessages.BAD_CHARACTER_IN_GROUP_NAME, name), nameStart);
+                            }
+                            // saturate, anything this large is an invalid reference anyway
+                            group = Math.min(group * 10 + digit - '0', Integer.MAX_VALUE / 10);
+                        }
+                    }
+                    break;
+                case '0':
+                    int value = 0;
+                    for (int j = 0; j < 2 && i < length && isOctalDigit(repl.charAt(i)); j++) {
+                        value = value * 8 + repl.charAt(i++) - '0';
+                    }
+                    literal.append((char) value);
+                    continue;
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7':
+                case '8':
+                case '9':
+                    group = c - '0';
+                    if (i < length && isDigit(repl.charAt(i))) {
+                        char c2 = repl.charAt(i++);
+                        if (isOctalDigit(c) && isOctalDigit(c2) && i < length && isOctalDigit(repl.charAt(i))) {
+                            value = (c - '0') * 64 + (c2 - '0') * 8 + repl.charAt(i++) - '0';
+                            if (value > 0377) {
+                                throw error(node, context, pattern, repl, PythonUtils.format(ErrorMessages.OCTAL_ESCAPE_OUTSIDE_OF_RANGE, repl.substring(escapeStart, i)), escapeStart);
+                            }
+                            literal.append((char) value);
+                            continue;
+                        }
+                        group = group * 10 + c2 - '0';
+                    }
+                    break;
+                default:
+                    char escaped = unescape(c);
+                    if (escaped != 0) {
+                        literal.append(escaped);
+                    } else if (c < 128 && Character.isLetter(c)) {
+                        throw error(node, context, pattern, repl, PythonUtils.format(ErrorMessages.BAD_ESCAPE_S, repl.substring(escapeStart, i)), escapeStart);
+                    } else {
+                        literal.append('\\').append(c);
+                    }
+                    continue;
+            }
+            if (group > pattern.groups) {
+                throw error(node, context, pattern, repl, PythonUtils.format(ErrorMessages.INVALID_GROUP_REFERENCE_D, group), escapeStart);
+            }
+            if (literal.length() > 0) {
+                items.add(literal.toString());
+                literal.setLength(0);
+            }
+            items.add(group);
+            hasGroups = true;
+        }
+        if (literal.length() > 0) {
+            items.add(literal.toString());
+        }
+        return new SRETemplate(items.toArray(), hasGroups);
+    }
+
+    /** The escapes of {@code sre_parse.ESCAPES} that are allowed in templates. */
+    private static char unescape(char c) {
+        switch (c) {
+            case 'a':
+                return '\007';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'v':
+                return '\013';
+            case '\\':
+                return '\\';
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isOctalDigit(char c) {
+        return c >= '0' && c <= '7';
+    }
+
+    private static PException error(PNodeWithRaise node, PythonContext context, PSREPattern pattern, String repl, String message, int position) {
+        throw SREUtils.raiseError(node, context, message, SREUtils.toPython(repl, pattern.binary), position);
+    }
+}
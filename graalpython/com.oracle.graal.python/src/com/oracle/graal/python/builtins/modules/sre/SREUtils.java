@@ -0,0 +1,585 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sre;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.ArrayList;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.ArityException;
+import com.oracle.truffle.api.interop.ExceptionType;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * The implementation of the pattern and match methods. The regexes are compiled and executed by
+ * TRegex; if TRegex does not support a pattern, the {@code fallback_compiler} of {@code _sre.py}
+ * provides Python objects with the same interface. Everything here runs behind a
+ * {@link TruffleBoundary}.
+ */
+final class SREUtils {
+    private static final String MODULE_NAME = "_sre";
+    private static final String ERROR = "error";
+    private static final String FALLBACK_COMPILER = "fallback_compiler";
+    private static final String AT_POSITION = " at position ";
+
+    // the letters and values of sre_parse.FLAGS
+    private static final char[] FLAG_LETTERS = {'i', 'L', 'm', 's', 'x', 'a', 't', 'u'};
+    private static final int[] FLAG_VALUES = {2, 4, 8, 16, 64, 256, 1, 32};
+    private static final String[] FLAG_NAMES = {"re.TEMPLATE", "re.IGNORECASE", "re.LOCALE", "re.MULTILINE", "re.DOTALL", "re.UNICODE", "re.VERBOSE", "re.DEBUG", "re.ASCII"};
+
+    private SREUtils() {
+        // no instances
+    }
+
+    @TruffleBoundary
+    static PSREPattern createPattern(PNodeWithRaise node, PythonContext context, Object cls, Object pattern, int flags) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        String patternString;
+        boolean binary;
+        if (PGuards.isString(pattern)) {
+            patternString = CastToJavaStringNode.getUncached().execute(pattern);
+            binary = false;
+        } else if (lib.isBuffer(pattern)) {
+            patternString = SREInput.decode(getBytes(lib, pattern));
+            binary = true;
+        } else {
+            throw node.raise(TypeError, ErrorMessages.EXPECTED_STR_OR_BYTESLIKE_OBJ);
+        }
+        StringBuilder flagsString = new StringBuilder();
+        for (int i = 0; i < FLAG_LETTERS.length; i++) {
+            if ((flags & FLAG_VALUES[i]) != 0) {
+                flagsString.append(FLAG_LETTERS[i]);
+            }
+        }
+        Object compiled = compile(node, context, patternString, binary, flagsString.toString());
+        InteropLibrary interop = InteropLibrary.getUncached();
+        int groups;
+        PDict groupindex = PythonObjectFactory.getUncached().createDict();
+        try {
+            groups = interop.asInt(interop.readMember(compiled, "groupCount")) - 1;
+            Object names = interop.readMember(compiled, "groups");
+            if (names instanceof PDict) {
+                // from the fallback compiler
+                groupindex.setDictStorage(HashingStorageLibrary.getUncached().copy(((PDict) names).getDictStorage()));
+            } else if (!interop.isNull(names)) {
+                Object members = interop.getMembers(names);
+                long size = interop.getArraySize(members);
+                for (long i = 0; i < size; i++) {
+                    String name = interop.asString(interop.readArrayElement(members, i));
+                    groupindex.setItem(name, interop.asInt(interop.readMember(names, name)));
+                }
+            }
+        } catch (InteropException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+        Object exec = readExec(compiled);
+        return PythonObjectFactory.getUncached().createSREPattern(cls, pattern, patternString, binary, flags, flagsString.toString(), groups, groupindex, exec);
+    }
+
+    /** Returns the {@code exec} method for {@code search}, {@code match} or {@code fullmatch}. */
+    static Object getExec(PNodeWithRaise node, PythonContext context, PSREPattern self, int kind) {
+        Object exec = self.execs[kind];
+        if (exec == null) {
+            String pattern = self.patternString;
+            if (kind == PSREPattern.FULLMATCH && !pattern.endsWith("\\Z")) {
+                pattern += "\\Z";
+            }
+            // the sticky flag 'y' anchors the regex at the start position
+            exec = readExec(compile(node, context, pattern, self.binary, self.flagsString + "y"));
+            self.execs[kind] = exec;
+        }
+        return exec;
+    }
+
+    private static Object compile(PNodeWithRaise node, PythonContext context, String pattern, boolean binary, String flags) {
+        String options = binary ? "Flavor=PythonBytes,Encoding=BYTES" : "Flavor=PythonStr,Encoding=UTF-16";
+        Source source = Source.newBuilder("regex", options + "/" + pattern + "/" + flags, "re").mimeType("application/tregex").internal(true).build();
+        Object compiledRegex;
+        try {
+            compiledRegex = context.getEnv().parseInternal(source).call();
+        } catch (RuntimeException e) {
+            InteropLibrary exceptionLib = InteropLibrary.getUncached(e);
+            try {
+                if (exceptionLib.isException(e) && exceptionLib.getExceptionType(e) == ExceptionType.PARSE_ERROR) {
+                    String message = e.getMessage();
+                    int boundary = message.lastIndexOf(AT_POSITION);
+                    if (boundary >= 0) {
+                        try {
+                            int position = Integer.parseInt(message.substring(boundary + AT_POSITION.length()));
+                            throw raiseError(node, context, message.substring(0, boundary), toPython(pattern, binary), position);
+                        } catch (NumberFormatException nfe) {
+                            // use the whole message
+                        }
+                    }
+                    throw raiseError(node, context, message, toPython(pattern, binary), -1);
+                }
+            } catch (UnsupportedMessageException e1) {
+                throw CompilerDirectives.shouldNotReachHere(e1);
+            }
+            throw e;
+        }
+        if (InteropLibrary.getUncached().isNull(compiledRegex)) {
+            if (context.getLanguage().getEngineOption(PythonOptions.TRegexUsesSREFallback)) {
+                Object fallbackCompiler = context.getCore().lookupBuiltinModule(MODULE_NAME).getAttribute(FALLBACK_COMPILER);
+                return PythonObjectLibrary.getUncached().callObject(fallbackCompiler, null, toPython(pattern, binary), flags);
+            }
+            throw node.raise(ValueError, ErrorMessages.REGEX_NOT_SUPPORTED_NO_FALLBACK);
+        }
+        return compiledRegex;
+    }
+
+    private static Object readExec(Object compiled) {
+        try {
+            return InteropLibrary.getUncached().readMember(compiled, "exec");
+        } catch (InteropException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    static Object toPython(String pattern, boolean binary) {
+        return binary ? PythonObjectFactory.getUncached().createBytes(SREInput.encode(pattern)) : pattern;
+    }
+
+    /** Raises {@code re.error}; a negative position is not passed on. */
+    static PException raiseError(PNodeWithRaise node, PythonContext context, String message, Object pattern, int position) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        Object errorType = context.getCore().lookupBuiltinModule(MODULE_NAME).getAttribute(ERROR);
+        if (errorType == PNone.NO_VALUE) {
+            // _sre.setup has not been called
+            throw node.raise(ValueError, message);
+        }
+        Object exception;
+        if (position >= 0) {
+            exception = lib.callObject(errorType, null, message, pattern, position);
+        } else {
+            exception = lib.callObject(errorType, null, message, pattern);
+        }
+        throw PRaiseNode.raise(node, (PBaseException) exception, PythonOptions.isPExceptionWithJavaStacktrace(PythonLanguage.getCurrent()));
+    }
+
+    private static byte[] getBytes(PythonObjectLibrary lib, Object buffer) {
+        try {
+            return lib.getBufferBytes(buffer);
+        } catch (UnsupportedMessageException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @TruffleBoundary
+    static SREInput createInput(PNodeWithRaise node, PSREPattern self, Object string, int pos, int endpos) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        String text;
+        byte[] bytes = null;
+        if (PGuards.isString(string)) {
+            if (self.binary) {
+                throw node.raise(TypeError, ErrorMessages.CANNOT_USE_BYTES_PATTERN_ON_STR);
+            }
+            text = CastToJavaStringNode.getUncached().execute(string);
+        } else if (lib.isBuffer(string)) {
+            if (!self.binary) {
+                throw node.raise(TypeError, ErrorMessages.CANNOT_USE_STR_PATTERN_ON_BYTES);
+            }
+            bytes = getBytes(lib, string);
+            text = SREInput.decode(bytes);
+        } else {
+            throw node.raise(TypeError, ErrorMessages.EXPECTED_STR_OR_BYTESLIKE_OBJ);
+        }
+        int length = text.length();
+        int start = Math.max(0, Math.min(pos, length));
+        int end = Math.max(0, Math.min(endpos, length));
+        Object execInput;
+        if (bytes != null) {
+            execInput = PythonObjectFactory.getUncached().createBytes(bytes, 0, end);
+        } else {
+            execInput = end < length ? text.substring(0, end) : text;
+        }
+        return new SREInput(string, self.binary, text, start, end, execInput);
+    }
+
+    /** Runs the regex and returns the TRegex result, or {@code null} if there is no match. */
+    private static Object exec(PNodeWithRaise node, Object exec, SREInput input, int from) {
+        InteropLibrary lib = InteropLibrary.getUncached();
+        try {
+            Object result = lib.execute(exec, input.execInput, from);
+            return lib.asBoolean(lib.readMember(result, "isMatch")) ? result : null;
+        } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException e) {
+            throw node.raise(TypeError, "%s", e);
+        } catch (InteropException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @TruffleBoundary
+    static int[] readSpans(Object result, int groupCount) {
+        InteropLibrary lib = InteropLibrary.getUncached();
+        int[] spans = new int[groupCount * 2];
+        try {
+            for (int i = 0; i < groupCount; i++) {
+                spans[i * 2] = lib.asInt(lib.invokeMember(result, "getStart", i));
+                spans[i * 2 + 1] = lib.asInt(lib.invokeMember(result, "getEnd", i));
+            }
+        } catch (InteropException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+        return spans;
+    }
+
+    /** Implements {@code search}, {@code match} and {@code fullmatch}. */
+    @TruffleBoundary
+    static Object search(PNodeWithRaise node, PythonContext context, PSREPattern self, int kind, Object string, int pos, int endpos) {
+        SREInput input = createInput(node, self, string, pos, endpos);
+        if (input.pos > input.endpos) {
+            return PNone.NONE;
+        }
+        Object result = exec(node, getExec(node, context, self, kind), input, input.pos);
+        return result == null ? PNone.NONE : PythonObjectFactory.getUncached().createSREMatch(self, input, result);
+    }
+
+    /** Implements {@code Scanner.search} and {@code Scanner.match}. */
+    @TruffleBoundary
+    static Object scan(PNodeWithRaise node, PythonContext context, PSREScanner scanner, int kind) {
+        SREInput input = scanner.input;
+        if (scanner.pos > input.endpos) {
+            return PNone.NONE;
+        }
+        Object result = exec(node, getExec(node, context, scanner.pattern, kind), input, scanner.pos);
+        if (result == null) {
+            scanner.pos = input.endpos + 1;
+            return PNone.NONE;
+        }
+        PSREMatch match = PythonObjectFactory.getUncached().createSREMatch(scanner.pattern, input, result);
+        int start = match.getStart(0);
+        int end = match.getEnd(0);
+        scanner.pos = start == end ? input.next(end) : end;
+        return match;
+    }
+
+    @TruffleBoundary
+    static PList findall(PNodeWithRaise node, PSREPattern self, Object string, int pos, int endpos) {
+        SREInput input = createInput(node, self, string, pos, endpos);
+        PythonObjectFactory factory = PythonObjectFactory.getUncached();
+        Object exec = self.execs[PSREPattern.SEARCH];
+        ArrayList<Object> list = new ArrayList<>();
+        int searchPos = input.pos;
+        while (searchPos <= input.endpos) {
+            Object result = exec(node, exec, input, searchPos);
+            if (result == null) {
+                break;
+            }
+            int[] spans = readSpans(result, self.groups + 1);
+            if (self.groups == 0) {
+                list.add(slice(input, spans[0], spans[1]));
+            } else if (self.groups == 1) {
+                list.add(groupOrEmpty(input, spans, 1));
+            } else {
+                Object[] items = new Object[self.groups];
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = groupOrEmpty(input, spans, i + 1);
+                }
+                list.add(factory.createTuple(items));
+            }
+            searchPos = spans[0] == spans[1] ? input.next(spans[1]) : spans[1];
+        }
+        return factory.createList(list.toArray());
+    }
+
+    @TruffleBoundary
+    static PList split(PNodeWithRaise node, PSREPattern self, Object string, int maxsplit) {
+        SREInput input = createInput(node, self, string, 0, Integer.MAX_VALUE);
+        Object exec = self.execs[PSREPattern.SEARCH];
+        ArrayList<Object> list = new ArrayList<>();
+        int length = input.length();
+        int n = 0;
+        int last = 0;
+        int searchPos = 0;
+        while ((maxsplit == 0 || n < maxsplit) && searchPos <= length) {
+            Object result = exec(node, exec, input, searchPos);
+            if (result == null) {
+                break;
+            }
+            n++;
+            int[] spans = readSpans(result, self.groups + 1);
+            list.add(slice(input, last, spans[0]));
+            for (int i = 1; i <= self.groups; i++) {
+                int start = spans[i * 2];
+                list.add(start >= 0 ? slice(input, start, spans[i * 2 + 1]) : PNone.NONE);
+            }
+            last = spans[1];
+            searchPos = spans[0] == spans[1] ? input.next(spans[1]) : spans[1];
+        }
+        list.add(slice(input, last, length));
+        return PythonObjectFactory.getUncached().createList(list.toArray());
+    }
+
+    /**
+     * Implements {@code sub} and {@code subn}. The result is built in a single
+     * {@link StringBuilder}; if the replacement is a template without group references, no match
+     * groups are read at all.
+     */
+    @TruffleBoundary
+    static Object sub(PNodeWithRaise node, PythonContext context, PSREPattern self, Object repl, Object string, int count, boolean withCount) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        PythonObjectFactory factory = PythonObjectFactory.getUncached();
+        SRETemplate template = null;
+        if (!lib.isCallable(repl)) {
+            template = SRETemplate.create(node, context, self, toReplacementString(node, self, repl, false));
+        }
+        SREInput input = createInput(node, self, string, 0, Integer.MAX_VALUE);
+        Object exec = self.execs[PSREPattern.SEARCH];
+        String text = input.getText();
+        int length = text.length();
+        StringBuilder sb = new StringBuilder(length);
+        int n = 0;
+        int last = 0;
+        int searchPos = 0;
+        while ((count == 0 || n < count) && searchPos <= length) {
+            Object result = exec(node, exec, input, searchPos);
+            if (result == null) {
+                break;
+            }
+            n++;
+            int[] spans = readSpans(result, template == null || template.hasGroups() ? self.groups + 1 : 1);
+            int start = spans[0];
+            int end = spans[1];
+            sb.append(text, last, start);
+            if (template != null) {
+                template.expand(sb, text, spans);
+            } else {
+                Object item = lib.callObject(repl, null, factory.createSREMatch(self, input, result));
+                if (item != PNone.NONE) {
+                    sb.append(toReplacementString(node, self, item, true));
+                }
+            }
+            last = end;
+            searchPos = end;
+            if (start == end) {
+                // copy one character to make progress after an empty match
+                if (end < length) {
+                    last = input.next(end);
+                    sb.append(text, end, last);
+                    searchPos = last;
+                } else {
+                    searchPos = end + 1;
+                }
+            }
+        }
+        if (last < length) {
+            sb.append(text, last, length);
+        }
+        Object result = self.binary ? factory.createBytes(SREInput.encode(sb.toString())) : sb.toString();
+        return withCount ? factory.createTuple(new Object[]{result, n}) : result;
+    }
+
+    private static String toReplacementString(PNodeWithRaise node, PSREPattern self, Object repl, boolean fromCallable) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        if (!self.binary && PGuards.isString(repl)) {
+            return CastToJavaStringNode.getUncached().execute(repl);
+        } else if (self.binary && lib.isBuffer(repl)) {
+            return SREInput.decode(getBytes(lib, repl));
+        } else if (fromCallable) {
+            throw node.raise(TypeError, self.binary ? ErrorMessages.EXPECTED_BYTESLIKE_GOT_P : ErrorMessages.EXPECTED_STR_INSTANCE_P_FOUND, repl);
+        } else if (PGuards.isString(repl)) {
+            throw node.raise(TypeError, ErrorMessages.CANNOT_USE_BYTES_PATTERN_ON_STR);
+        } else if (lib.isBuffer(repl)) {
+            throw node.raise(TypeError, ErrorMessages.CANNOT_USE_STR_PATTERN_ON_BYTES);
+        }
+        throw node.raise(TypeError, ErrorMessages.EXPECTED_STR_OR_BYTESLIKE_OBJ);
+    }
+
+    /** Implements {@code Match.expand}. */
+    @TruffleBoundary
+    static Object expand(PNodeWithRaise node, PythonContext context, PSREMatch match, Object template) {
+        PSREPattern pattern = match.pattern;
+        StringBuilder sb = new StringBuilder();
+        SRETemplate.create(node, context, pattern, toReplacementString(node, pattern, template, false)).expand(sb, match.input.getText(), match.getSpans());
+        return pattern.binary ? PythonObjectFactory.getUncached().createBytes(SREInput.encode(sb.toString())) : sb.toString();
+    }
+
+    static Object slice(SREInput input, int start, int end) {
+        String s = input.substring(start, end);
+        return input.binary ? PythonObjectFactory.getUncached().createBytes(SREInput.encode(s)) : s;
+    }
+
+    private static Object groupOrEmpty(SREInput input, int[] spans, int group) {
+        int start = spans[group * 2];
+        return start >= 0 ? slice(input, start, spans[group * 2 + 1]) : slice(input, 0, 0);
+    }
+
+    @TruffleBoundary
+    static Object getGroup(PSREMatch match, int group, Object defaultValue) {
+        int start = match.getStart(group);
+        return start >= 0 ? slice(match.input, start, match.getEnd(group)) : defaultValue;
+    }
+
+    /** Converts a group number or name to a group number, like {@code match_getindex}. */
+    @TruffleBoundary
+    static int getGroupIndex(PNodeWithRaise node, PSREMatch match, Object group) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        int index = -1;
+        if (lib.canBeIndex(group)) {
+            index = lib.asSize(group);
+        } else if (PGuards.isString(group)) {
+            Object value = match.pattern.groupindex.getItem(CastToJavaStringNode.getUncached().execute(group));
+            if (value != null) {
+                index = lib.asSize(value);
+            }
+        }
+        if (index < 0 || index > match.pattern.groups) {
+            throw node.raise(IndexError, ErrorMessages.NO_SUCH_GROUP);
+        }
+        return index;
+    }
+
+    /** All groups except group 0, with {@code defaultValue} for the groups that did not match. */
+    @TruffleBoundary
+    static Object[] getGroups(PSREMatch match, Object defaultValue) {
+        Object[] groups = new Object[match.pattern.groups];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = getGroup(match, i + 1, defaultValue);
+        }
+        return groups;
+    }
+
+    @TruffleBoundary
+    static PDict getGroupDict(PSREMatch match, Object defaultValue) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        PDict groupindex = match.pattern.groupindex;
+        PDict result = PythonObjectFactory.getUncached().createDict();
+        for (Object name : groupindex.keys()) {
+            result.setItem(name, getGroup(match, lib.asSize(groupindex.getItem(name)), defaultValue));
+        }
+        return result;
+    }
+
+    /**
+     * The last group that matched. TRegex does not record the order in which groups were closed,
+     * so this is approximated by the group that ends last, preferring the outer one of nested
+     * groups.
+     */
+    @TruffleBoundary
+    static int getLastIndex(PSREMatch match) {
+        int lastIndex = -1;
+        int lastEnd = -1;
+        for (int i = 1; i <= match.pattern.groups; i++) {
+            if (match.getStart(i) >= 0 && match.getEnd(i) > lastEnd) {
+                lastIndex = i;
+                lastEnd = match.getEnd(i);
+            }
+        }
+        return lastIndex;
+    }
+
+    @TruffleBoundary
+    static Object getLastGroup(PSREMatch match) {
+        int lastIndex = getLastIndex(match);
+        if (lastIndex >= 0) {
+            PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+            PDict groupindex = match.pattern.groupindex;
+            for (Object name : groupindex.keys()) {
+                if (lib.asSize(groupindex.getItem(name)) == lastIndex) {
+                    return name;
+                }
+            }
+        }
+        return PNone.NONE;
+    }
+
+    @TruffleBoundary
+    static String repr(PSREPattern self) {
+        String patternRepr = repr(self.pattern);
+        if (patternRepr.length() > 200) {
+            patternRepr = patternRepr.substring(0, 200);
+        }
+        StringBuilder sb = new StringBuilder("re.compile(").append(patternRepr);
+        int flags = self.flags;
+        boolean first = true;
+        for (int i = 0; i < FLAG_NAMES.length; i++) {
+            if ((flags & (1 << i)) != 0) {
+                flags &= ~(1 << i);
+                sb.append(first ? ", " : "|").append(FLAG_NAMES[i]);
+                first = false;
+            }
+        }
+        if (flags != 0) {
+            sb.append(first ? ", " : "|").append("0x").append(Integer.toHexString(flags));
+        }
+        return sb.append(')').toString();
+    }
+
+    @TruffleBoundary
+    static String repr(PSREMatch match) {
+        String groupRepr = repr(getGroup(match, 0, PNone.NONE));
+        if (groupRepr.length() > 50) {
+            groupRepr = groupRepr.substring(0, 50);
+        }
+        return "<" + PythonBuiltinClassType.PSREMatch.getPrintName() + " object; span=(" + match.getStart(0) + ", " + match.getEnd(0) + "), match=" + groupRepr + ">";
+    }
+
+    private static String repr(Object object) {
+        return CastToJavaStringNode.getUncached().execute(PythonObjectLibrary.getUncached().lookupAndCallSpecialMethod(object, null, __REPR__));
+    }
+}
@@ -71,6 +71,7 @@ import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
@@ -84,6 +85,7 @@ import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
@@ -140,6 +142,8 @@ import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.Assumption;
@@ -181,7 +185,10 @@ import com.oracle.truffle.api.utilities.TriState;
 @ExportLibrary(PythonObjectLibrary.class)
 public abstract class PythonAbstractObject extends DynamicObject implements TruffleObject, Comparable<Object> {
     private static final String PRIVATE_PREFIX = "__";
+    private static final AtomicLongFieldUpdater<PythonAbstractObject> OBJECT_ID_UPDATER = AtomicLongFieldUpdater.newUpdater(PythonAbstractObject.class, "objectId");
     private DynamicObjectNativeWrapper nativeWrapper;
+    /* The value of 'id(self)', assigned on first use; 0 means not assigned yet. */
+    private volatile long objectId;
 
     public static final Assumption singleContextAssumption() {
         return PythonLanguage.getCurrent().singleContextAssumption;
@@ -210,6 +217,23 @@ public abstract class PythonAbstractObject extends DynamicObject implements Truf
         this.nativeWrapper = nativeWrapper;
     }
 
+    public final long getObjectId() {
+        return objectId;
+    }
+
+    /**
+     * Sets the object id unless another thread has already done so and returns the id that was
+     * set.
+     */
+    @TruffleBoundary
+    public final long initializeObjectId(long id) {
+        assert id != 0;
+        if (OBJECT_ID_UPDATER.compareAndSet(this, 0, id)) {
+            return id;
+        }
+        return objectId;
+    }
+
     public final void clearNativeWrapper(ConditionProfile hasHandleValidAssumptionProfile) {
         // The null check is important because it might be that we actually never got a to-native
         // message but still modified the reference count.
@@ -1606,12 +1630,35 @@ public abstract class PythonAbstractObject extends DynamicObject implements Truf
 
         public abstract Object execute(Object primary, Object index);
 
+        /*
+         * Host code iterating over a list or tuple reads one element per message, so builtin lists
+         * and tuples read directly from their storage instead of calling '__getitem__'.
+         */
+        @Specialization(guards = "index >= 0")
+        static Object doBuiltinSequence(PSequence primary, long index,
+                        @Cached IsBuiltinClassProfile isListProfile,
+                        @Cached IsBuiltinClassProfile isTupleProfile,
+                        @Cached SequenceNodes.GetSequenceStorageNode getStorageNode,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Shared("lookupGetItem") @Cached LookupInheritedAttributeNode.Dynamic lookupGetItemNode,
+                        @Shared("callGetItem") @Cached CallBinaryMethodNode callGetItemNode,
+                        @Shared("raiseNode") @Cached PRaiseNode raiseNode,
+                        @Shared("getItemProfile") @Cached ConditionProfile profile) {
+            if (isListProfile.profileObject(primary, PythonBuiltinClassType.PList) || isTupleProfile.profileObject(primary, PythonBuiltinClassType.PTuple)) {
+                SequenceStorage storage = getStorageNode.execute(primary);
+                if (index < storage.length()) {
+                    return getItemNode.execute(storage, (int) index);
+                }
+            }
+            return doSpecialObject(primary, index, lookupGetItemNode, callGetItemNode, raiseNode, profile);
+        }
+
         @Specialization
-        Object doSpecialObject(Object primary, Object index,
-                        @Cached LookupInheritedAttributeNode.Dynamic lookupGetItemNode,
-                        @Cached CallBinaryMethodNode callGetItemNode,
-                        @Cached PRaiseNode raiseNode,
-                        @Cached ConditionProfile profile) {
+        static Object doSpecialObject(Object primary, Object index,
+                        @Shared("lookupGetItem") @Cached LookupInheritedAttributeNode.Dynamic lookupGetItemNode,
+                        @Shared("callGetItem") @Cached CallBinaryMethodNode callGetItemNode,
+                        @Shared("raiseNode") @Cached PRaiseNode raiseNode,
+                        @Shared("getItemProfile") @Cached ConditionProfile profile) {
             Object attrGetItem = lookupGetItemNode.execute(primary, __GETITEM__);
             if (profile.profile(attrGetItem == PNone.NO_VALUE)) {
                 throw raiseNode.raise(PythonBuiltinClassType.TypeError, ErrorMessages.OBJ_NOT_SUBSCRIPTABLE, primary);
@@ -1638,9 +1685,15 @@ public abstract class PythonAbstractObject extends DynamicObject implements Truf
         Object doVarargsBuiltinMethod(Object receiver, Object[] arguments,
                         @Exclusive @Cached PTypeToForeignNode toForeign,
                         @Cached CallVarargsMethodNode callVarargsMethodNode,
-                        @Exclusive @Cached ArgumentsFromForeignNode convertArgsNode) {
+                        @Exclusive @Cached ArgumentsFromForeignNode convertArgsNode,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
             Object[] convertedArgs = convertArgsNode.execute(arguments);
-            return toForeign.executeConvert(callVarargsMethodNode.execute(null, receiver, convertedArgs, PKeyword.EMPTY_KEYWORDS));
+            boolean locked = enterUpcall(context, this);
+            try {
+                return toForeign.executeConvert(callVarargsMethodNode.execute(null, receiver, convertedArgs, PKeyword.EMPTY_KEYWORDS));
+            } finally {
+                exitUpcall(context, locked);
+            }
         }
 
         @Specialization(limit = "1", replaces = "doVarargsBuiltinMethod")
@@ -1648,12 +1701,38 @@ public abstract class PythonAbstractObject extends DynamicObject implements Truf
                         @Exclusive @Cached PTypeToForeignNode toForeign,
                         @CachedLibrary("receiver") PythonObjectLibrary dataModelLibrary,
                         @Exclusive @Cached CallNode callNode,
-                        @Exclusive @Cached ArgumentsFromForeignNode convertArgsNode) throws UnsupportedMessageException {
+                        @Exclusive @Cached ArgumentsFromForeignNode convertArgsNode,
+                        @CachedContext(PythonLanguage.class) PythonContext context) throws UnsupportedMessageException {
             if (!dataModelLibrary.isCallable(receiver)) {
                 throw UnsupportedMessageException.create();
             }
             Object[] convertedArgs = convertArgsNode.execute(arguments);
-            return toForeign.executeConvert(callNode.execute(null, receiver, convertedArgs, PKeyword.EMPTY_KEYWORDS));
+            boolean locked = enterUpcall(context, this);
+            try {
+                return toForeign.executeConvert(callNode.execute(null, receiver, convertedArgs, PKeyword.EMPTY_KEYWORDS));
+            } finally {
+                exitUpcall(context, locked);
+            }
+        }
+
+        /**
+         * C functions declared with {@code METH_TRUFFLE_THREADSAFE} run without the interop lock,
+         * but the C API they call back into (handle tables, native wrappers, the emulated thread
+         * state) is not thread-safe. So calls from such a function into Python take the lock
+         * again. Returns whether the lock was taken.
+         */
+        private static boolean enterUpcall(PythonContext context, Node location) {
+            if (!context.getSingleThreadedAssumption().isValid() && context.isInThreadSafeNativeCall()) {
+                context.acquireInteropLock(location);
+                return true;
+            }
+            return false;
+        }
+
+        private static void exitUpcall(PythonContext context, boolean locked) {
+            if (locked) {
+                context.releaseInteropLock();
+            }
         }
 
         static boolean isBuiltinFunctionOrMethod(Object object) {
@@ -35,6 +35,7 @@ import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.sequence.storage.BasicSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.OverflowException;
@@ -96,6 +97,9 @@ public final class PByteArray extends PBytesLike {
     }
 
     public final void reverse() {
+        if (store instanceof BasicSequenceStorage) {
+            ((BasicSequenceStorage) store).detachSharedArray();
+        }
         store.reverse();
     }
 
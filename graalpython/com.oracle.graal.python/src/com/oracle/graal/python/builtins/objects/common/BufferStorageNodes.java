@@ -50,6 +50,7 @@ import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.str.StringNodes;
@@ -331,6 +332,16 @@ public abstract class BufferStorageNodes {
         static int doArray(PArray array) {
             return array.getLength() * array.getFormat().bytesize;
         }
+
+        @Specialization
+        static int doMMap(PMMap mmap,
+                        @Cached PRaiseNode raiseNode) {
+            long length = mmap.getLength();
+            if (length > Integer.MAX_VALUE) {
+                throw raiseNode.raise(OverflowError, ErrorMessages.MMAP_REGION_TOO_LARGE, length);
+            }
+            return (int) length;
+        }
     }
 
     @GenerateUncached
@@ -355,6 +366,15 @@ public abstract class BufferStorageNodes {
                 throw raiseNode.raise(IndexError, ErrorMessages.INVALID_BUFFER_ACCESS);
             }
         }
+
+        @Specialization
+        static void doMMap(PMMap src, int srcPos, byte[] dest, int destPos, int length,
+                        @Cached PRaiseNode raiseNode) {
+            if (src.isClosed()) {
+                throw raiseNode.raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+            src.readBytes(srcPos, dest, destPos, length);
+        }
     }
 
     @GenerateUncached
@@ -379,5 +399,14 @@ public abstract class BufferStorageNodes {
                 throw raiseNode.raise(IndexError, ErrorMessages.INVALID_BUFFER_ACCESS);
             }
         }
+
+        @Specialization
+        static void doMMap(byte[] src, int srcPos, PMMap dest, int destPos, int length,
+                        @Cached PRaiseNode raiseNode) {
+            if (dest.isClosed()) {
+                throw raiseNode.raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+            dest.writeBytes(destPos, src, srcPos, length);
+        }
     }
 }
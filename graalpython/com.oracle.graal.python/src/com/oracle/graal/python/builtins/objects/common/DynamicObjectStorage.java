@@ -109,6 +109,13 @@ public final class DynamicObjectStorage extends HashingStorage {
         this.mro = mro;
     }
 
+    /**
+     * Whether this storage wraps the {@code __dict__} of an object rather than a private store.
+     */
+    public boolean isObjectDict() {
+        return !(store instanceof Store);
+    }
+
     protected static Object[] keyArray(DynamicObjectStorage self) {
         return DynamicObjectStorage.keyArray(self.store.getShape());
     }
@@ -296,9 +303,8 @@ public final class DynamicObjectStorage extends HashingStorage {
         protected static boolean shouldTransition(DynamicObjectStorage self) {
             // For now we do not use SIZE_THRESHOLD condition to transition storages that wrap
             // dictionaries retrieved via object's __dict__
-            boolean notDunderDict = self.store instanceof Store;
             int propertyCount = self.store.getShape().getPropertyCount();
-            return notDunderDict && propertyCount > SIZE_THRESHOLD;
+            return !self.isObjectDict() && propertyCount > SIZE_THRESHOLD;
         }
 
         @Specialization(guards = "!shouldTransition(self)")
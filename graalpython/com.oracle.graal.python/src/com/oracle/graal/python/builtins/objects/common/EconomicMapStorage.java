@@ -49,6 +49,7 @@ import java.util.Iterator;
 import org.graalvm.collections.EconomicMap;
 import org.graalvm.collections.MapCursor;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
@@ -61,6 +62,7 @@ import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
 import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -114,9 +116,18 @@ public class EconomicMapStorage extends HashingStorage {
         this(4, false);
     }
 
-    private EconomicMapStorage(EconomicMapStorage original) {
-        this(original.map.size(), original.map.hasSideEffect());
-        this.map.putAll(original.map);
+    private EconomicMapStorage(PEMap map) {
+        this.map = map;
+    }
+
+    @TruffleBoundary
+    private static EconomicMapStorage copyOf(EconomicMapStorage original) {
+        if (PythonLanguage.isSingleThreaded()) {
+            EconomicMapStorage copy = new EconomicMapStorage(original.map.size(), original.map.hasSideEffect());
+            copy.map.putAll(original.map);
+            return copy;
+        }
+        return new EconomicMapStorage(original.map.copyConcurrent());
     }
 
     @TruffleBoundary
@@ -151,6 +162,112 @@ public class EconomicMapStorage extends HashingStorage {
         return profiled.toString();
     }
 
+    static Assumption singleThreadedAssumption() {
+        return PythonLanguage.getCurrent().singleThreadedAssumption;
+    }
+
+    /*
+     * Once more than one thread is running, the map is read without locking and only updates take
+     * its lock, see PEMap#beginRead. Keys are compared, possibly calling __eq__, before the lock is
+     * taken, and the lookup is repeated if the map was updated in the meantime.
+     */
+    static Object get(EconomicMapStorage self, DictKey key, PythonObjectLibrary lib, PythonObjectLibrary otherlib, ConditionProfile findProfile, ConditionProfile gotState, ThreadState state,
+                    Assumption singleThreaded) {
+        if (singleThreaded.isValid()) {
+            return self.map.get(key, lib, otherlib, findProfile, gotState, state);
+        }
+        PEMap map = self.map;
+        while (true) {
+            long stamp = map.beginRead();
+            int index = map.findConcurrent(key, lib, otherlib, gotState, state);
+            Object value = index == -1 ? null : map.getValueConcurrent(index);
+            if (map.validateRead(stamp)) {
+                return value;
+            }
+        }
+    }
+
+    static void put(EconomicMapStorage self, DictKey key, Object value, PythonObjectLibrary lib, PythonObjectLibrary otherlib, ConditionProfile findProfile, ConditionProfile gotState,
+                    ThreadState state, Assumption singleThreaded) {
+        if (singleThreaded.isValid()) {
+            self.map.put(key, value, lib, otherlib, findProfile, gotState, state);
+            return;
+        }
+        PEMap map = self.map;
+        while (true) {
+            long stamp = map.beginRead();
+            int index = map.findConcurrent(key, lib, otherlib, gotState, state);
+            long writeStamp = map.tryWrite(stamp);
+            if (writeStamp != 0) {
+                try {
+                    map.putAt(index, key, value);
+                } finally {
+                    map.unlockWrite(writeStamp);
+                }
+                return;
+            }
+        }
+    }
+
+    static Object removeKey(EconomicMapStorage self, DictKey key, PythonObjectLibrary lib, PythonObjectLibrary otherlib, ConditionProfile gotState, ThreadState state, Assumption singleThreaded) {
+        if (singleThreaded.isValid()) {
+            return self.map.removeKey(key, lib, otherlib, gotState, state);
+        }
+        PEMap map = self.map;
+        while (true) {
+            long stamp = map.beginRead();
+            int index = map.findConcurrent(key, lib, otherlib, gotState, state);
+            if (index == -1) {
+                if (map.validateRead(stamp)) {
+                    return null;
+                }
+                continue;
+            }
+            long writeStamp = map.tryWrite(stamp);
+            if (writeStamp != 0) {
+                try {
+                    return map.removeAt(index);
+                } finally {
+                    map.unlockWrite(writeStamp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the most recently added entry and returns its key and value, or returns {@code null}
+     * if the map is empty. Selecting and removing the entry is a single update, so threads popping
+     * concurrently never get the same entry.
+     */
+    public Object[] popLastConcurrent() {
+        Entry entry = map.popLastConcurrent();
+        return entry == null ? null : new Object[]{entry.key.value, entry.value};
+    }
+
+    /**
+     * Returns a cursor over the entries of the map. Once more than one thread is running, the cursor
+     * does not copy the map and may return a key twice if another thread removes it and adds it
+     * again.
+     */
+    @TruffleBoundary
+    private static MapCursor<DictKey, Object> getEntries(PEMap map) {
+        if (PythonLanguage.isSingleThreaded()) {
+            return map.getEntries();
+        }
+        return map.getEntriesConcurrent();
+    }
+
+    /**
+     * Adds an entry read with {@link #getEntries(PEMap)} to a new map.
+     */
+    private static void putFound(EconomicMapStorage result, DictKey key, Object value, PythonObjectLibrary lib, ConditionProfile findProfile, ConditionProfile gotState, ThreadState state) {
+        if (PythonLanguage.isSingleThreaded()) {
+            result.map.put(key, value);
+        } else {
+            result.map.put(key, value, lib, lib, findProfile, gotState, state);
+        }
+    }
+
     @ExportMessage
     @ImportStatic(PGuards.class)
     static class GetItemWithState {
@@ -159,9 +276,10 @@ public class EconomicMapStorage extends HashingStorage {
         static Object getItemString(EconomicMapStorage self, String key, @SuppressWarnings("unused") ThreadState state,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @CachedLibrary(limit = "2") PythonObjectLibrary lib,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             DictKey newKey = new DictKey(key, key.hashCode());
-            return self.map.get(newKey, lib, lib, findProfile, gotState, state);
+            return get(self, newKey, lib, lib, findProfile, gotState, state, singleThreaded);
         }
 
         @SuppressWarnings("unused")
@@ -171,9 +289,10 @@ public class EconomicMapStorage extends HashingStorage {
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
                         @Exclusive @Cached("createClassProfile()") ValueProfile profile,
                         @Exclusive @Cached IsBuiltinClassProfile isBuiltinClassProfile,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             final String k = EconomicMapStorage.toString(key, profile);
-            return getItemString(self, k, state, findProfile, lib, gotState);
+            return getItemString(self, k, state, findProfile, lib, gotState, singleThreaded);
         }
 
         @Specialization(replaces = "getItemString", limit = "3")
@@ -181,10 +300,11 @@ public class EconomicMapStorage extends HashingStorage {
                         @CachedLibrary("key") PythonObjectLibrary lib,
                         @CachedLibrary(limit = "2") PythonObjectLibrary otherlib,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             final long h = getHashWithState(key, lib, state, gotState);
             DictKey newKey = new DictKey(key, h);
-            return self.map.get(newKey, lib, otherlib, findProfile, gotState, state);
+            return get(self, newKey, lib, otherlib, findProfile, gotState, state, singleThreaded);
         }
     }
 
@@ -218,9 +338,10 @@ public class EconomicMapStorage extends HashingStorage {
         static HashingStorage setItemString(EconomicMapStorage self, String key, Object value, ThreadState state,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @CachedLibrary(limit = "2") PythonObjectLibrary lib,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             DictKey newKey = new DictKey(key, key.hashCode());
-            self.map.put(newKey, value, lib, lib, findProfile, gotState, state);
+            put(self, newKey, value, lib, lib, findProfile, gotState, state, singleThreaded);
             return self;
         }
 
@@ -230,9 +351,10 @@ public class EconomicMapStorage extends HashingStorage {
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
                         @Exclusive @Cached IsBuiltinClassProfile isBuiltinClassProfile,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             final String k = EconomicMapStorage.toString(key, profile);
-            return setItemString(self, k, value, state, findProfile, lib, gotState);
+            return setItemString(self, k, value, state, findProfile, lib, gotState, singleThreaded);
         }
 
         @Specialization(guards = {"!hasSideEffect(self)", "!isBuiltin(key,builtinProfile) || !isBuiltin(value,builtinProfile)", "maySideEffect(key, lookup) || maySideEffect(value, lookup)"})
@@ -242,9 +364,10 @@ public class EconomicMapStorage extends HashingStorage {
                         @Exclusive @Cached LookupInheritedAttributeNode.Dynamic lookup,
                         @Exclusive @Cached IsBuiltinClassProfile builtinProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             convertToSideEffectMap(self);
-            return setItemGeneric(self, key, value, state, lib, otherlib, findProfile, gotState);
+            return setItemGeneric(self, key, value, state, lib, otherlib, findProfile, gotState, singleThreaded);
         }
 
         @Specialization(guards = {"!hasSideEffect(self)", "!isBuiltin(key,builtinProfile)", "maySideEffect(key, lookup)"})
@@ -254,9 +377,10 @@ public class EconomicMapStorage extends HashingStorage {
                         @Exclusive @Cached LookupInheritedAttributeNode.Dynamic lookup,
                         @Exclusive @Cached IsBuiltinClassProfile builtinProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             convertToSideEffectMap(self);
-            return setItemGeneric(self, key, value, state, lib, otherlib, findProfile, gotState);
+            return setItemGeneric(self, key, value, state, lib, otherlib, findProfile, gotState, singleThreaded);
         }
 
         @Specialization(guards = {"!hasSideEffect(self)", "!isBuiltin(value,builtinProfile)", "maySideEffect(value, lookup)"})
@@ -266,9 +390,10 @@ public class EconomicMapStorage extends HashingStorage {
                         @Exclusive @Cached LookupInheritedAttributeNode.Dynamic lookup,
                         @Exclusive @Cached IsBuiltinClassProfile builtinProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             convertToSideEffectMap(self);
-            return setItemGeneric(self, key, value, state, lib, otherlib, findProfile, gotState);
+            return setItemGeneric(self, key, value, state, lib, otherlib, findProfile, gotState, singleThreaded);
         }
 
         @Specialization(replaces = "setItemString", limit = "3")
@@ -276,9 +401,10 @@ public class EconomicMapStorage extends HashingStorage {
                         @CachedLibrary("key") PythonObjectLibrary lib,
                         @CachedLibrary(limit = "2") PythonObjectLibrary otherlib,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             DictKey newKey = new DictKey(key, getHashWithState(key, lib, state, gotState));
-            self.map.put(newKey, value, lib, otherlib, findProfile, gotState, state);
+            put(self, newKey, value, lib, otherlib, findProfile, gotState, state, singleThreaded);
             return self;
         }
     }
@@ -306,7 +432,7 @@ public class EconomicMapStorage extends HashingStorage {
     @ExportMessage
     Object forEachUntyped(ForEachNode<Object> node, Object arg) {
         Object result = arg;
-        MapCursor<DictKey, Object> cursor = map.getEntries();
+        MapCursor<DictKey, Object> cursor = getEntries(map);
         while (advance(cursor)) {
             result = node.execute(getKey(cursor), result);
         }
@@ -325,26 +451,41 @@ public class EconomicMapStorage extends HashingStorage {
         static HashingStorage toSameTypeSideEffect(EconomicMapStorage self, EconomicMapStorage other,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             convertToSideEffectMap(other);
-            return toSameType(self, other, findProfile, gotState, lib);
+            return toSameType(self, other, findProfile, gotState, lib, singleThreaded);
         }
 
         @Specialization
         static HashingStorage toSameType(EconomicMapStorage self, EconomicMapStorage other,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
-            other.map.putAll(self.map, lib, findProfile, gotState);
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
+            if (singleThreaded.isValid()) {
+                other.map.putAll(self.map, lib, findProfile, gotState);
+            } else {
+                putAllConcurrent(self, other, lib, findProfile, gotState, singleThreaded);
+            }
             return other;
         }
 
+        @TruffleBoundary
+        private static void putAllConcurrent(EconomicMapStorage self, EconomicMapStorage other, PythonObjectLibrary lib, ConditionProfile findProfile, ConditionProfile gotState,
+                        Assumption singleThreaded) {
+            MapCursor<DictKey, Object> cursor = self.map.getEntriesConcurrent();
+            while (cursor.advance()) {
+                put(other, cursor.getKey(), cursor.getValue(), lib, lib, findProfile, gotState, null, singleThreaded);
+            }
+        }
+
         @TruffleBoundary
         @Specialization
         static HashingStorage generic(EconomicMapStorage self, HashingStorage other,
                         @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
             HashingStorage result = other;
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
                 result = lib.setItem(result, getKey(cursor), getValue(cursor));
             }
@@ -363,9 +504,10 @@ public class EconomicMapStorage extends HashingStorage {
         static HashingStorage delItemWithState(EconomicMapStorage self, Object key, ThreadState state,
                         @CachedLibrary("key") PythonObjectLibrary lib,
                         @CachedLibrary(limit = "2") PythonObjectLibrary otherlib,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             DictKey newKey = new DictKey(key, getHashWithState(key, lib, state, gotState));
-            self.map.removeKey(newKey, lib, otherlib, gotState, state);
+            removeKey(self, newKey, lib, otherlib, gotState, state, singleThreaded);
             return self;
         }
 
@@ -375,9 +517,10 @@ public class EconomicMapStorage extends HashingStorage {
                         @CachedLibrary(limit = "2") PythonObjectLibrary otherlib,
                         @Exclusive @Cached LookupInheritedAttributeNode.Dynamic lookup,
                         @Exclusive @Cached CallUnaryMethodNode callNode,
-                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             DictKey newKey = new DictKey(key, getHashWithState(key, lib, state, gotState));
-            Object value = self.map.removeKey(newKey, lib, otherlib, gotState, state);
+            Object value = removeKey(self, newKey, lib, otherlib, gotState, state, singleThreaded);
             if (hasDELSideEffect(key, lookup)) {
                 callNode.executeObject(lookup.execute(key, __DEL__), key);
             }
@@ -392,20 +535,33 @@ public class EconomicMapStorage extends HashingStorage {
     static class Clear {
 
         @Specialization(guards = "!hasSideEffect(self)")
-        static HashingStorage clear(EconomicMapStorage self) {
-            self.map.clear();
+        static HashingStorage clear(EconomicMapStorage self,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
+            if (singleThreaded.isValid()) {
+                self.map.clear();
+            } else {
+                self.map.clearConcurrent();
+            }
             return self;
         }
 
         @Specialization
         static HashingStorage clearWithSideEffect(EconomicMapStorage self,
                         @Exclusive @Cached LookupInheritedAttributeNode.Dynamic lookup,
-                        @Exclusive @Cached CallUnaryMethodNode callNode) {
-            if (self.map.size() == 0) {
+                        @Exclusive @Cached CallUnaryMethodNode callNode,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
+            PEMap cleared;
+            if (singleThreaded.isValid()) {
+                cleared = self.map;
+            } else {
+                // the entries are moved out in one update, __del__ is called afterwards
+                cleared = self.map.takeAllConcurrent();
+            }
+            if (cleared.size() == 0) {
                 return self;
             }
-            Object[] entries = new Object[self.map.size() * 2];
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            Object[] entries = new Object[cleared.size() * 2];
+            MapCursor<DictKey, Object> cursor = cleared.getEntries();
             int i = 0;
             while (advance(cursor)) {
                 Object key = getKey(cursor);
@@ -413,7 +569,7 @@ public class EconomicMapStorage extends HashingStorage {
                 entries[i++] = hasDELSideEffect(key, lookup) ? key : null;
                 entries[i++] = hasDELSideEffect(value, lookup) ? value : null;
             }
-            self.map.clear();
+            cleared.clear();
             for (Object o : entries) {
                 if (o != null) {
                     callNode.executeObject(lookup.execute(o, __DEL__), o);
@@ -427,7 +583,7 @@ public class EconomicMapStorage extends HashingStorage {
     @Override
     @ExportMessage
     public HashingStorage copy() {
-        return new EconomicMapStorage(this);
+        return copyOf(this);
     }
 
     @ExportMessage
@@ -438,13 +594,14 @@ public class EconomicMapStorage extends HashingStorage {
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
                         @CachedLibrary(limit = "2") PythonObjectLibrary compareLib1,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary compareLib2) {
+                        @CachedLibrary(limit = "2") PythonObjectLibrary compareLib2,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             if (self.map.size() != other.map.size()) {
                 return false;
             }
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
-                Object otherValue = other.map.get(getDictKey(cursor), compareLib1, compareLib2, findProfile, gotState, state);
+                Object otherValue = get(other, getDictKey(cursor), compareLib1, compareLib2, findProfile, gotState, state, singleThreaded);
                 if (otherValue != null && !compareLib1.equalsWithState(otherValue, getValue(cursor), compareLib2, state)) {
                     return false;
                 }
@@ -462,7 +619,7 @@ public class EconomicMapStorage extends HashingStorage {
             if (self.map.size() != otherlib.lengthWithState(other, state)) {
                 return false;
             }
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
                 Object otherValue = selflib.getItemWithState(self, getKey(cursor), state);
                 if (otherValue != null && !compareLib1.equalsWithState(otherValue, getValue(cursor), compareLib2, state)) {
@@ -480,15 +637,16 @@ public class EconomicMapStorage extends HashingStorage {
         static int compareSameType(EconomicMapStorage self, EconomicMapStorage other, ThreadState state,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             int size = self.map.size();
             int size2 = other.map.size();
             if (size > size2) {
                 return 1;
             }
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
-                if (!other.map.containsKey(getDictKey(cursor), lib, lib, findProfile, gotState, state)) {
+                if (get(other, getDictKey(cursor), lib, lib, findProfile, gotState, state, singleThreaded) == null) {
                     return 1;
                 }
             }
@@ -508,7 +666,7 @@ public class EconomicMapStorage extends HashingStorage {
             if (size > length) {
                 return 1;
             }
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
                 if (!lib.hasKeyWithState(other, getKey(cursor), state)) {
                     return 1;
@@ -529,12 +687,13 @@ public class EconomicMapStorage extends HashingStorage {
         static HashingStorage intersectSameType(EconomicMapStorage self, EconomicMapStorage other, ThreadState state,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             EconomicMapStorage result = EconomicMapStorage.create();
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
-                if (other.map.containsKey(getDictKey(cursor), lib, lib, findProfile, gotState, state)) {
-                    result.map.put(getDictKey(cursor), getValue(cursor));
+                if (get(other, getDictKey(cursor), lib, lib, findProfile, gotState, state, singleThreaded) != null) {
+                    putFound(result, getDictKey(cursor), getValue(cursor), lib, findProfile, gotState, state);
                 }
             }
             return result;
@@ -542,13 +701,13 @@ public class EconomicMapStorage extends HashingStorage {
 
         @TruffleBoundary
         @Specialization(limit = "4")
-        static HashingStorage intersectGeneric(EconomicMapStorage self, HashingStorage other, @SuppressWarnings("unused") ThreadState state,
+        static HashingStorage intersectGeneric(EconomicMapStorage self, HashingStorage other, ThreadState state,
                         @CachedLibrary("other") HashingStorageLibrary hlib) {
             EconomicMapStorage result = EconomicMapStorage.create();
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
                 if (hlib.hasKey(other, getKey(cursor))) {
-                    result.map.put(getDictKey(cursor), getValue(cursor));
+                    putFound(result, getDictKey(cursor), getValue(cursor), PythonObjectLibrary.getUncached(), ConditionProfile.getUncached(), ConditionProfile.getUncached(), state);
                 }
             }
             return result;
@@ -562,12 +721,13 @@ public class EconomicMapStorage extends HashingStorage {
         static HashingStorage diffSameType(EconomicMapStorage self, EconomicMapStorage other, ThreadState state,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
                         @Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
-                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             EconomicMapStorage result = EconomicMapStorage.create();
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
-                if (!other.map.containsKey(getDictKey(cursor), lib, lib, findProfile, gotState, state)) {
-                    result.map.put(getDictKey(cursor), getValue(cursor));
+                if (get(other, getDictKey(cursor), lib, lib, findProfile, gotState, state, singleThreaded) == null) {
+                    putFound(result, getDictKey(cursor), getValue(cursor), lib, findProfile, gotState, state);
                 }
             }
             return result;
@@ -575,13 +735,13 @@ public class EconomicMapStorage extends HashingStorage {
 
         @TruffleBoundary
         @Specialization(limit = "4")
-        static HashingStorage diffGeneric(EconomicMapStorage self, HashingStorage other, @SuppressWarnings("unused") ThreadState state,
+        static HashingStorage diffGeneric(EconomicMapStorage self, HashingStorage other, ThreadState state,
                         @CachedLibrary("other") HashingStorageLibrary hlib) {
             EconomicMapStorage result = EconomicMapStorage.create();
-            MapCursor<DictKey, Object> cursor = self.map.getEntries();
+            MapCursor<DictKey, Object> cursor = getEntries(self.map);
             while (advance(cursor)) {
                 if (!hlib.hasKey(other, getKey(cursor))) {
-                    result.map.put(getDictKey(cursor), getValue(cursor));
+                    putFound(result, getDictKey(cursor), getValue(cursor), PythonObjectLibrary.getUncached(), ConditionProfile.getUncached(), ConditionProfile.getUncached(), state);
                 }
             }
             return result;
@@ -600,13 +760,32 @@ public class EconomicMapStorage extends HashingStorage {
     @Override
     @ExportMessage
     public HashingStorageIterable<Object> keys() {
-        return new HashingStorageIterable<>(new KeysIterator(map.getKeys().iterator()));
+        return new HashingStorageIterable<>(new KeysIterator(keyIterator(map)));
     }
 
     @Override
     @ExportMessage
     public HashingStorageIterable<Object> reverseKeys() {
-        return new HashingStorageIterable<>(new KeysIterator(map.reverseKeyIterator()));
+        return new HashingStorageIterable<>(new KeysIterator(reverseKeyIterator(map)));
+    }
+
+    /**
+     * Like {@link #getEntries(PEMap)}, for the keys of the map.
+     */
+    @TruffleBoundary
+    private static Iterator<DictKey> keyIterator(PEMap map) {
+        if (PythonLanguage.isSingleThreaded()) {
+            return map.getKeys().iterator();
+        }
+        return map.keyIteratorConcurrent();
+    }
+
+    @TruffleBoundary
+    private static Iterator<DictKey> reverseKeyIterator(PEMap map) {
+        if (PythonLanguage.isSingleThreaded()) {
+            return map.reverseKeyIterator();
+        }
+        return map.reverseKeyIteratorConcurrent();
     }
 
     static final class KeysIterator implements Iterator<Object> {
@@ -631,12 +810,12 @@ public class EconomicMapStorage extends HashingStorage {
         }
     }
 
-    protected void setValue(DictKey key, Object value, PythonObjectLibrary lib, ConditionProfile findProfile, ConditionProfile gotState, ThreadState state) {
-        this.map.put(key, value, lib, lib, findProfile, gotState, state);
+    protected void setValue(DictKey key, Object value, PythonObjectLibrary lib, ConditionProfile findProfile, ConditionProfile gotState, ThreadState state, Assumption singleThreaded) {
+        put(this, key, value, lib, lib, findProfile, gotState, state, singleThreaded);
     }
 
     protected HashingStorageIterable<DictKey> dictKeys() {
-        return new HashingStorageIterable<>(new DictKeysIterator(map.getKeys().iterator()));
+        return new HashingStorageIterable<>(new DictKeysIterator(keyIterator(map)));
     }
 
     static final class DictKeysIterator implements Iterator<DictKey> {
@@ -669,7 +848,7 @@ public class EconomicMapStorage extends HashingStorage {
         StringBuilder builder = new StringBuilder();
         builder.append("map(size=").append(length()).append(", {");
         String sep = "";
-        MapCursor<DictKey, Object> cursor = map.getEntries();
+        MapCursor<DictKey, Object> cursor = getEntries(map);
         while (advance(cursor)) {
             builder.append(sep);
             builder.append("(").append(getKey(cursor)).append(",").append(getValue(cursor)).append(")");
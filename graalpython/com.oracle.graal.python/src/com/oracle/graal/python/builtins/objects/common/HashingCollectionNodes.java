@@ -43,6 +43,7 @@ package com.oracle.graal.python.builtins.objects.common;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodesFactory.GetDictStorageForUpdateNodeGen;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodesFactory.GetDictStorageNodeGen;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodesFactory.LenNodeGen;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodesFactory.SetDictStorageNodeGen;
@@ -62,7 +63,9 @@ import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateUncached;
@@ -95,7 +98,7 @@ public abstract class HashingCollectionNodes {
     public abstract static class SetItemNode extends PNodeWithContext {
         public abstract void execute(VirtualFrame frame, PHashingCollection c, Object key, Object value);
 
-        @Specialization(limit = "4")
+        @Specialization(limit = "4", assumptions = "singleThreadedAssumption()")
         static void doSetItem(VirtualFrame frame, PHashingCollection c, Object key, Object value,
                         @Cached("createBinaryProfile()") ConditionProfile hasFrame,
                         @Cached GetDictStorageNode getStorage,
@@ -106,6 +109,17 @@ public abstract class HashingCollectionNodes {
             setStorage.execute(c, storage);
         }
 
+        @Specialization(replaces = "doSetItem")
+        static void doSetItemConcurrent(VirtualFrame frame, PHashingCollection c, Object key, Object value,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame,
+                        @Cached SetDictStorageNode setStorage,
+                        @Cached GetDictStorageForUpdateNode getStorageForUpdate,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+            HashingStorage storage = getStorageForUpdate.execute(c);
+            storage = lib.setItemWithFrame(storage, key, value, hasFrame, frame);
+            setStorage.execute(c, storage);
+        }
+
         public static SetItemNode create() {
             return SetItemNodeGen.create();
         }
@@ -136,6 +150,64 @@ public abstract class HashingCollectionNodes {
         }
     }
 
+    /**
+     * Returns the storage of a dict or set that is about to be updated. While more than one thread
+     * is running, storages that may return a new storage from an update are first replaced by an
+     * {@link EconomicMapStorage} with the same items. That storage is always updated in place and
+     * synchronizes itself, so writing it back cannot lose an update made by another thread. The
+     * replacement is published with {@link PHashingCollection#compareAndSetDictStorage}, so no lock
+     * is held while the items are copied (which may call {@code __hash__}).
+     */
+    @GenerateUncached
+    public abstract static class GetDictStorageForUpdateNode extends PNodeWithContext {
+
+        public abstract HashingStorage execute(PHashingCollection c);
+
+        @Specialization(assumptions = "singleThreadedAssumption()")
+        static HashingStorage get(PHashingCollection c,
+                        @Cached GetDictStorageNode getStorage) {
+            return getStorage.execute(c);
+        }
+
+        @Specialization(replaces = "get")
+        static HashingStorage getConcurrent(PHashingCollection c,
+                        @Cached GetDictStorageNode getStorage,
+                        @Cached("createBinaryProfile()") ConditionProfile updatedInPlaceProfile) {
+            HashingStorage storage = getStorage.execute(c);
+            if (updatedInPlaceProfile.profile(isUpdatedInPlace(storage))) {
+                return storage;
+            }
+            return replaceStorage(c, storage);
+        }
+
+        @TruffleBoundary
+        private static HashingStorage replaceStorage(PHashingCollection c, HashingStorage initial) {
+            HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+            HashingStorage storage = initial;
+            while (!isUpdatedInPlace(storage)) {
+                HashingStorage replacement = lib.addAllToOther(storage, EconomicMapStorage.create(lib.length(storage)));
+                if (c.compareAndSetDictStorage(storage, replacement)) {
+                    return replacement;
+                }
+                storage = c.getDictStorage();
+            }
+            return storage;
+        }
+
+        private static boolean isUpdatedInPlace(HashingStorage storage) {
+            // the __dict__ of an object is shared with the object's shape and is left as it is
+            return storage instanceof EconomicMapStorage || storage instanceof DynamicObjectStorage && ((DynamicObjectStorage) storage).isObjectDict();
+        }
+
+        public static GetDictStorageForUpdateNode create() {
+            return GetDictStorageForUpdateNodeGen.create();
+        }
+
+        public static GetDictStorageForUpdateNode getUncached() {
+            return GetDictStorageForUpdateNodeGen.getUncached();
+        }
+    }
+
     @ImportStatic({PGuards.class})
     @GenerateUncached
     public abstract static class SetDictStorageNode extends PNodeWithContext {
@@ -169,12 +241,13 @@ public abstract class HashingCollectionNodes {
         static void doEconomicStorage(VirtualFrame frame, EconomicMapStorage map, Object value,
                         @CachedLibrary(limit = "1") PythonObjectLibrary lib,
                         @Cached.Exclusive @Cached("createBinaryProfile()") ConditionProfile findProfile,
-                        @Cached.Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState) {
+                        @Cached.Exclusive @Cached("createBinaryProfile()") ConditionProfile gotState,
+                        @Cached.Exclusive @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
             PArguments.ThreadState state = frame == null ? null : PArguments.getThreadState(frame);
             // We want to avoid calling __hash__() during map.put
             HashingStorageLibrary.HashingStorageIterable<EconomicMapStorage.DictKey> iter = map.dictKeys();
             for (EconomicMapStorage.DictKey key : iter) {
-                map.setValue(key, value, lib, findProfile, gotState, state);
+                map.setValue(key, value, lib, findProfile, gotState, state, singleThreaded);
             }
         }
 
@@ -40,7 +40,10 @@
  */
 package com.oracle.graal.python.builtins.objects.common;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
 
 import org.graalvm.collections.MapCursor;
 
@@ -127,6 +130,12 @@ final class PEMap implements Iterable<DictKey> {
 
     @CompilationFinal private boolean hasSideEffect;
 
+    /**
+     * Orders updates once more than one thread is running, see {@link #beginRead()}. Created when
+     * it is first needed, so that single-threaded maps do not pay for it.
+     */
+    private volatile StampedLock lock;
+
     /**
      * Intercept method for debugging purposes.
      */
@@ -637,6 +646,436 @@ final class PEMap implements Iterable<DictKey> {
         return result;
     }
 
+    /*
+     * Once more than one thread is running, the map is read without locking and updated while
+     * holding the write lock. A lookup reads the arrays once, checks every index it derives from
+     * them, and is repeated if an update happened in the meantime, see #beginRead and
+     * #validateRead. Updates first look up the key the same way, since comparing keys may call
+     * __eq__, and then convert their read stamp to the write lock. If no update happened in the
+     * meantime, the index found is still valid and the update uses it without comparing keys, so
+     * no Python code runs while the lock is held. Otherwise the update starts over.
+     */
+
+    private StampedLock getLock() {
+        StampedLock l = lock;
+        if (l == null) {
+            return createLock();
+        }
+        return l;
+    }
+
+    private synchronized StampedLock createLock() {
+        if (lock == null) {
+            lock = new StampedLock();
+        }
+        return lock;
+    }
+
+    /**
+     * Returns a stamp for an optimistic read, waiting for a running update to finish first.
+     */
+    @TruffleBoundary
+    long beginRead() {
+        StampedLock l = getLock();
+        long stamp = l.tryOptimisticRead();
+        while (stamp == 0) {
+            l.unlockRead(l.readLock());
+            stamp = l.tryOptimisticRead();
+        }
+        return stamp;
+    }
+
+    @TruffleBoundary
+    boolean validateRead(long stamp) {
+        return getLock().validate(stamp);
+    }
+
+    /**
+     * Returns a write stamp if the map was not updated since {@code stamp} was taken, and 0
+     * otherwise.
+     */
+    @TruffleBoundary
+    long tryWrite(long stamp) {
+        return getLock().tryConvertToWriteLock(stamp);
+    }
+
+    @TruffleBoundary
+    long writeLock() {
+        return getLock().writeLock();
+    }
+
+    @TruffleBoundary
+    void unlockWrite(long stamp) {
+        getLock().unlockWrite(stamp);
+    }
+
+    /**
+     * Like {@link #find}, but may run concurrently with an update. The result is only meaningful if
+     * {@link #validateRead} succeeds afterwards.
+     */
+    int findConcurrent(DictKey key, PythonObjectLibrary keylib, PythonObjectLibrary otherlib, ConditionProfile gotState, ThreadState state) {
+        Object[] a = entries;
+        byte[] h = hashArray;
+        if (a == null) {
+            return -1;
+        }
+        int capacity = a.length >> 1;
+        if (h == null) {
+            int count = Math.min(totalEntries, capacity);
+            for (int i = 0; i < count; i++) {
+                Object entryKey = a[i << 1];
+                if (entryKey instanceof DictKey && compareKeys(key, (DictKey) entryKey, keylib, otherlib, gotState, state)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int index = readHashArray(a, h, key) - 1;
+        // a collision chain read during an update may contain a cycle
+        for (int steps = 0; index >= 0 && index < capacity && steps < capacity; steps++) {
+            Object entryKey = a[index << 1];
+            if (entryKey instanceof DictKey && compareKeys(key, (DictKey) entryKey, keylib, otherlib, gotState, state)) {
+                return index;
+            }
+            Object value = a[(index << 1) + 1];
+            if (!(value instanceof CollisionLink)) {
+                return -1;
+            }
+            index = ((CollisionLink) value).next;
+        }
+        return -1;
+    }
+
+    /**
+     * Like {@link #getHashArray}, for arrays that may have been read during an update.
+     */
+    private static int readHashArray(Object[] a, byte[] h, DictKey key) {
+        int width;
+        if (a.length < LARGE_HASH_THRESHOLD) {
+            width = 1;
+        } else if (a.length < VERY_LARGE_HASH_THRESHOLD) {
+            width = 2;
+        } else {
+            width = 4;
+        }
+        int tableSize = h.length / width;
+        if (tableSize == 0) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash = hash ^ (hash >>> 16);
+        int adjustedIndex = (hash & (tableSize - 1)) * width;
+        int result = 0;
+        for (int i = 0; i < width; i++) {
+            result |= (h[adjustedIndex + i] & 0xFF) << (i << 3);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #getValue}, but may run concurrently with an update.
+     */
+    Object getValueConcurrent(int index) {
+        Object[] a = entries;
+        if (a == null || (index << 1) + 1 >= a.length) {
+            return null;
+        }
+        Object value = a[(index << 1) + 1];
+        if (value instanceof CollisionLink) {
+            return ((CollisionLink) value).value;
+        }
+        return value;
+    }
+
+    /**
+     * Stores {@code value} for the entry at {@code index} as returned by {@link #findConcurrent},
+     * or adds a new entry if it is -1. Must hold the write lock.
+     */
+    void putAt(int index, DictKey key, Object value) {
+        if (index != -1) {
+            setValue(index, value);
+        } else {
+            put(key, value);
+        }
+    }
+
+    /**
+     * Removes the entry at {@code index} as returned by {@link #findConcurrent} and returns its
+     * value. Must hold the write lock.
+     */
+    Object removeAt(int index) {
+        Object value = getValue(index);
+        if (hasHashArray()) {
+            unlinkHash(index);
+        }
+        remove(index);
+        return value;
+    }
+
+    /**
+     * Removes the entry at {@code index} from its collision chain, like {@link #findAndRemoveHash}
+     * but without comparing keys.
+     */
+    private void unlinkHash(int index) {
+        int hashIndex = getHashIndex(getKey(index));
+        int current = getHashArray(hashIndex) - 1;
+        Object value = getRawValue(index);
+        int next = value instanceof CollisionLink ? ((CollisionLink) value).next : -1;
+        if (current == index) {
+            setHashArray(hashIndex, next + 1);
+            return;
+        }
+        while (current != -1) {
+            Object currentValue = getRawValue(current);
+            if (!(currentValue instanceof CollisionLink)) {
+                break;
+            }
+            CollisionLink link = (CollisionLink) currentValue;
+            if (link.next == index) {
+                setRawValue(current, next == -1 ? link.value : new CollisionLink(link.value, next));
+                return;
+            }
+            current = link.next;
+        }
+        assert false : "entry is not in its collision chain";
+    }
+
+    /**
+     * Removes the most recently added entry in a single update and returns it, or returns
+     * {@code null} if the map is empty.
+     */
+    @TruffleBoundary
+    Entry popLastConcurrent() {
+        long stamp = writeLock();
+        try {
+            if (size() == 0) {
+                return null;
+            }
+            // the last entry is never a deleted one
+            int index = totalEntries - 1;
+            DictKey key = getKey(index);
+            return new Entry(index, key, removeAt(index));
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes all entries in a single update and returns them in a new map, which is no longer
+     * visible to other threads.
+     */
+    @TruffleBoundary
+    PEMap takeAllConcurrent() {
+        long stamp = writeLock();
+        try {
+            PEMap taken = new PEMap(isSet, hasSideEffect);
+            taken.entries = entries;
+            taken.hashArray = hashArray;
+            taken.totalEntries = totalEntries;
+            taken.deletedEntries = deletedEntries;
+            clear();
+            return taken;
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns a copy of this map. The arrays are copied without locking and the copy is repeated if
+     * an update happened in the meantime. Collision links are immutable, so they can be shared.
+     */
+    @TruffleBoundary
+    PEMap copyConcurrent() {
+        while (true) {
+            long stamp = beginRead();
+            Object[] a = entries;
+            byte[] h = hashArray;
+            PEMap copy = new PEMap(isSet, hasSideEffect);
+            copy.entries = a == null ? null : Arrays.copyOf(a, a.length);
+            copy.hashArray = h == null ? null : Arrays.copyOf(h, h.length);
+            copy.totalEntries = totalEntries;
+            copy.deletedEntries = deletedEntries;
+            if (validateRead(stamp)) {
+                return copy;
+            }
+        }
+    }
+
+    @TruffleBoundary
+    void clearConcurrent() {
+        long stamp = writeLock();
+        try {
+            clear();
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Iterates over the entries while other threads may update the map, without copying it. The
+     * iteration uses the entries array it started with, so it sees updates that are made in place
+     * but not ones that replace the array.
+     */
+    private abstract class ConcurrentSparseMapIterator<E> extends AbstractSparseMapIterator<E> {
+        private final Object[] array;
+        private DictKey nextKey;
+        private int stateBeforeNextKey;
+
+        ConcurrentSparseMapIterator(Object[] array, int current) {
+            super(current);
+            this.array = array;
+        }
+
+        int limit() {
+            return array == null ? 0 : Math.min(totalEntries, array.length >> 1);
+        }
+
+        /**
+         * Returns the key at the next position, skipping deleted entries, or {@code null} at the
+         * end.
+         */
+        abstract DictKey advance();
+
+        DictKey keyAt(int index) {
+            return index < limit() ? (DictKey) array[index << 1] : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextKey == null) {
+                stateBeforeNextKey = current;
+                nextKey = advance();
+            }
+            return nextKey != null;
+        }
+
+        DictKey nextKey() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DictKey result = nextKey;
+            nextKey = null;
+            return result;
+        }
+
+        @Override
+        public int getState() {
+            // a key that hasNext found but next did not return yet is returned again
+            return nextKey == null ? current : stateBeforeNextKey;
+        }
+
+        @Override
+        public void setState(int state) {
+            current = state;
+            nextKey = null;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class ConcurrentKeyIterator extends ConcurrentSparseMapIterator<DictKey> {
+        ConcurrentKeyIterator(Object[] array) {
+            super(array, 0);
+        }
+
+        @Override
+        DictKey advance() {
+            while (current < limit()) {
+                DictKey key = keyAt(current++);
+                if (key != null) {
+                    return key;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public DictKey next() {
+            return nextKey();
+        }
+    }
+
+    private final class ReverseConcurrentKeyIterator extends ConcurrentSparseMapIterator<DictKey> {
+        ReverseConcurrentKeyIterator(Object[] array) {
+            super(array, array == null ? 0 : Math.min(totalEntries, array.length >> 1));
+        }
+
+        @Override
+        DictKey advance() {
+            while (current > 0) {
+                DictKey key = keyAt(--current);
+                if (key != null) {
+                    return key;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public DictKey next() {
+            return nextKey();
+        }
+    }
+
+    @TruffleBoundary
+    public Iterator<DictKey> keyIteratorConcurrent() {
+        return new ConcurrentKeyIterator(entries);
+    }
+
+    @TruffleBoundary
+    public Iterator<DictKey> reverseKeyIteratorConcurrent() {
+        return new ReverseConcurrentKeyIterator(entries);
+    }
+
+    /**
+     * Like {@link #getEntries()}, but may run while other threads update the map, see
+     * {@link ConcurrentSparseMapIterator}. Entries removed while they are visited are skipped.
+     */
+    @TruffleBoundary
+    public MapCursor<DictKey, Object> getEntriesConcurrent() {
+        final Object[] array = entries;
+        return new MapCursor<DictKey, Object>() {
+            int current = -1;
+            DictKey cachedKey = null;
+            Object cachedValue = null;
+
+            @Override
+            public boolean advance() {
+                int limit = array == null ? 0 : Math.min(totalEntries, array.length >> 1);
+                while (++current < limit) {
+                    cachedKey = (DictKey) array[current << 1];
+                    Object value = array[(current << 1) + 1];
+                    if (value instanceof CollisionLink) {
+                        value = ((CollisionLink) value).value;
+                    }
+                    cachedValue = value;
+                    if (cachedKey != null && cachedValue != null) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public DictKey getKey() {
+                return cachedKey;
+            }
+
+            @Override
+            public Object getValue() {
+                return cachedValue;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
     abstract class AbstractSparseMapIterator<E> implements Iterator<E> {
 
         protected int current;
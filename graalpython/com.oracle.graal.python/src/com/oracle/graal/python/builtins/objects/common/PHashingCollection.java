@@ -55,6 +55,18 @@ public abstract class PHashingCollection extends PythonBuiltinObject {
 
     public abstract void setDictStorage(HashingStorage newStorage);
 
+    /**
+     * Replaces the storage only if it is still {@code expected}. This is how storages are swapped
+     * once more than one thread runs; updates of the storage itself are not covered by this lock.
+     */
+    public final synchronized boolean compareAndSetDictStorage(HashingStorage expected, HashingStorage newStorage) {
+        if (getDictStorage() != expected) {
+            return false;
+        }
+        setDictStorage(newStorage);
+        return true;
+    }
+
     public HashingStorageIterable<Object> items() {
         return HashingStorageLibrary.getUncached().values(getDictStorage());
     }
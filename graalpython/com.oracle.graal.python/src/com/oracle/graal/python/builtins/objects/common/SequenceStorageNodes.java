@@ -1371,7 +1371,9 @@ public abstract class SequenceStorageNodes {
         @Specialization(limit = "MAX_ARRAY_STORAGES", guards = {"length > 0", "storage.getClass() == cachedClass"})
         protected static void doMove(BasicSequenceStorage storage, int distPos, int srcPos, int length,
                         @Cached("storage.getClass()") Class<? extends BasicSequenceStorage> cachedClass) {
-            Object array = cachedClass.cast(storage).getInternalArrayObject();
+            BasicSequenceStorage profiled = cachedClass.cast(storage);
+            profiled.detachSharedArray();
+            Object array = profiled.getInternalArrayObject();
             PythonUtils.arraycopy(array, srcPos, array, distPos, length);
         }
 
@@ -3770,6 +3772,9 @@ public abstract class SequenceStorageNodes {
                         @Cached("s.getClass()") Class<? extends SequenceStorage> cachedClass) {
             SequenceStorage profiled = cachedClass.cast(s);
             int len = profiled.length();
+            if (profiled instanceof BasicSequenceStorage) {
+                ((BasicSequenceStorage) profiled).detachSharedArray();
+            }
 
             for (int i = idx; i < len - 1; i++) {
                 setItemNode.execute(profiled, i, getItemNode.execute(profiled, i + 1));
@@ -0,0 +1,834 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.deque;
+
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CONTAINS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DELITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__IADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__IMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REVERSED__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDeque)
+public class DequeBuiltins extends PythonBuiltins {
+
+    @Override
+    public void initialize(PythonCore core) {
+        super.initialize(core);
+        builtinConstants.put(__HASH__, PNone.NONE);
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DequeBuiltinsFactory.getFactories();
+    }
+
+    static boolean isDeque(Object object) {
+        return object instanceof PDeque;
+    }
+
+    // deque.__init__(iterable, maxlen)
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "iterable", "maxlen"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonTernaryBuiltinNode {
+        @Specialization(limit = "1")
+        PNone init(VirtualFrame frame, PDeque self, Object iterable, Object maxlen,
+                        @CachedLibrary("maxlen") PythonObjectLibrary lib,
+                        @Cached ExtendNode extendNode) {
+            if (maxlen == PNone.NO_VALUE || maxlen == PNone.NONE) {
+                self.setMaxLength(-1);
+            } else {
+                int maxLength = lib.asSizeWithFrame(maxlen, OverflowError, frame);
+                if (maxLength < 0) {
+                    throw raise(ValueError, ErrorMessages.MAXLEN_MUST_BE_NONNEGATIVE);
+                }
+                self.setMaxLength(maxLength);
+            }
+            if (self.getSize() > 0) {
+                self.clear();
+            }
+            if (iterable != PNone.NO_VALUE) {
+                extendNode.execute(frame, self, iterable);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "append", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class AppendNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone append(PDeque self, Object value) {
+            self.append(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "appendleft", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class AppendLeftNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone appendLeft(PDeque self, Object value) {
+            self.appendLeft(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "pop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class PopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object pop(PDeque self) {
+            Object value = self.pop();
+            if (value == null) {
+                throw raise(IndexError, ErrorMessages.POP_FROM_EMPTY_DEQUE);
+            }
+            return value;
+        }
+    }
+
+    @Builtin(name = "popleft", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class PopLeftNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object popLeft(PDeque self) {
+            Object value = self.popLeft();
+            if (value == null) {
+                throw raise(IndexError, ErrorMessages.POP_FROM_EMPTY_DEQUE);
+            }
+            return value;
+        }
+    }
+
+    @Builtin(name = "extend", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class ExtendNode extends PythonBinaryBuiltinNode {
+
+        public abstract PNone execute(VirtualFrame frame, PDeque self, Object iterable);
+
+        @Specialization
+        static PNone extendDeque(PDeque self, PDeque other) {
+            // also handles 'd.extend(d)'
+            for (Object item : other.toArray()) {
+                self.append(item);
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isDeque(iterable)", limit = "getCallSiteInlineCacheMaxDepth()")
+        static PNone extend(VirtualFrame frame, PDeque self, Object iterable,
+                        @CachedLibrary("iterable") PythonObjectLibrary lib,
+                        @Cached GetNextNode nextNode,
+                        @Cached IsBuiltinClassProfile errorProfile) {
+            Object iterator = lib.getIteratorWithFrame(iterable, frame);
+            while (true) {
+                Object item;
+                try {
+                    item = nextNode.execute(frame, iterator);
+                } catch (PException e) {
+                    e.expectStopIteration(errorProfile);
+                    return PNone.NONE;
+                }
+                self.append(item);
+            }
+        }
+
+        public static ExtendNode create() {
+            return DequeBuiltinsFactory.ExtendNodeFactory.create();
+        }
+    }
+
+    @Builtin(name = "extendleft", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class ExtendLeftNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static PNone extendDeque(PDeque self, PDeque other) {
+            for (Object item : other.toArray()) {
+                self.appendLeft(item);
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isDeque(iterable)", limit = "getCallSiteInlineCacheMaxDepth()")
+        static PNone extendLeft(VirtualFrame frame, PDeque self, Object iterable,
+                        @CachedLibrary("iterable") PythonObjectLibrary lib,
+                        @Cached GetNextNode nextNode,
+                        @Cached IsBuiltinClassProfile errorProfile) {
+            Object iterator = lib.getIteratorWithFrame(iterable, frame);
+            while (true) {
+                Object item;
+                try {
+                    item = nextNode.execute(frame, iterator);
+                } catch (PException e) {
+                    e.expectStopIteration(errorProfile);
+                    return PNone.NONE;
+                }
+                self.appendLeft(item);
+            }
+        }
+    }
+
+    @Builtin(name = __IADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class IAddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PDeque iadd(VirtualFrame frame, PDeque self, Object other,
+                        @Cached ExtendNode extendNode) {
+            extendNode.execute(frame, self, other);
+            return self;
+        }
+    }
+
+    @Builtin(name = "clear", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone clear(PDeque self) {
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonUnaryBuiltinNode {
+
+        public abstract Object execute(VirtualFrame frame, PDeque self);
+
+        @Specialization(guards = "isBuiltinDeque(lib, self)", limit = "1")
+        PDeque copyDeque(PDeque self,
+                        @CachedLibrary("self") @SuppressWarnings("unused") PythonObjectLibrary lib) {
+            PDeque copy = factory().createDeque(PythonBuiltinClassType.PDeque);
+            copy.setMaxLength(self.getMaxLength());
+            for (Object item : self.toArray()) {
+                copy.append(item);
+            }
+            return copy;
+        }
+
+        @Specialization(guards = "!isBuiltinDeque(lib, self)", limit = "1")
+        static Object copySubclass(VirtualFrame frame, PDeque self,
+                        @CachedLibrary("self") PythonObjectLibrary lib,
+                        @Cached CallNode callNode) {
+            // like CPython, create instances of subclasses through the type
+            Object cls = lib.getLazyPythonClass(self);
+            if (self.getMaxLength() < 0) {
+                return callNode.execute(frame, cls, self);
+            }
+            return callNode.execute(frame, cls, self, self.getMaxLength());
+        }
+
+        static boolean isBuiltinDeque(PythonObjectLibrary lib, PDeque self) {
+            return lib.getLazyPythonClass(self) == PythonBuiltinClassType.PDeque;
+        }
+
+        public static CopyNode create() {
+            return DequeBuiltinsFactory.CopyNodeFactory.create();
+        }
+    }
+
+    @Builtin(name = "__copy__", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DunderCopyNode extends CopyNode {
+    }
+
+    @Builtin(name = "count", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class CountNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        int count(VirtualFrame frame, PDeque self, Object value,
+                        @CachedLibrary("value") PythonObjectLibrary valueLib,
+                        @CachedLibrary(limit = "16") PythonObjectLibrary otherLib) {
+            int state = self.getState();
+            int count = 0;
+            for (int i = 0; i < self.getSize(); i++) {
+                Object item = self.getItem(i);
+                boolean equal = item != null && valueLib.equalsWithFrame(value, item, otherLib, frame);
+                if (self.getState() != state) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+                if (equal) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    @Builtin(name = __CONTAINS__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class ContainsNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        boolean contains(VirtualFrame frame, PDeque self, Object value,
+                        @CachedLibrary("value") PythonObjectLibrary valueLib,
+                        @CachedLibrary(limit = "16") PythonObjectLibrary otherLib) {
+            int state = self.getState();
+            for (int i = 0; i < self.getSize(); i++) {
+                Object item = self.getItem(i);
+                boolean equal = item != null && valueLib.equalsWithFrame(value, item, otherLib, frame);
+                if (self.getState() != state) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+                if (equal) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // deque.index(value, start=0, stop=sys.maxsize)
+    @Builtin(name = "index", minNumOfPositionalArgs = 2, parameterNames = {"$self", "value", "start", "stop"})
+    @ArgumentClinic(name = "start", conversion = ClinicConversion.SliceIndex, defaultValue = "0")
+    @ArgumentClinic(name = "stop", conversion = ClinicConversion.SliceIndex, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class IndexNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.IndexNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        int index(VirtualFrame frame, PDeque self, Object value, int startIn, int stopIn,
+                        @CachedLibrary("value") PythonObjectLibrary valueLib,
+                        @CachedLibrary(limit = "16") PythonObjectLibrary otherLib,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode) {
+            int size = self.getSize();
+            int start = startIn;
+            if (start < 0) {
+                start = Math.max(start + size, 0);
+            }
+            int stop = stopIn;
+            if (stop < 0) {
+                stop = Math.max(stop + size, 0);
+            }
+            stop = Math.min(stop, size);
+            int state = self.getState();
+            for (int i = start; i < stop; i++) {
+                Object item = self.getItem(i);
+                boolean equal = item != null && valueLib.equalsWithFrame(value, item, otherLib, frame);
+                if (self.getState() != state) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+                if (equal) {
+                    return i;
+                }
+            }
+            throw raise(ValueError, ErrorMessages.S_IS_NOT_IN_DEQUE, reprNode.executeObject(frame, value));
+        }
+    }
+
+    // deque.insert(index, value)
+    @Builtin(name = "insert", minNumOfPositionalArgs = 3, parameterNames = {"$self", "index", "value"})
+    @ArgumentClinic(name = "index", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class InsertNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.InsertNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone insert(PDeque self, int indexIn, Object value) {
+            int size = self.getSize();
+            if (self.getMaxLength() >= 0 && size >= self.getMaxLength()) {
+                throw raise(IndexError, ErrorMessages.DEQUE_ALREADY_AT_MAX_SIZE);
+            }
+            int index = indexIn;
+            if (index < 0) {
+                index = Math.max(index + size, 0);
+            }
+            self.insert(Math.min(index, size), value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "remove", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class RemoveNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        PNone remove(VirtualFrame frame, PDeque self, Object value,
+                        @CachedLibrary("value") PythonObjectLibrary valueLib,
+                        @CachedLibrary(limit = "16") PythonObjectLibrary otherLib) {
+            int state = self.getState();
+            for (int i = 0; i < self.getSize(); i++) {
+                Object item = self.getItem(i);
+                boolean equal = item != null && valueLib.equalsWithFrame(value, item, otherLib, frame);
+                if (self.getState() != state) {
+                    throw raise(IndexError, ErrorMessages.DEQUE_MUTATED_DURING_REMOVE);
+                }
+                if (equal) {
+                    self.remove(i);
+                    return PNone.NONE;
+                }
+            }
+            throw raise(ValueError, ErrorMessages.DEQUE_REMOVE_X_NOT_IN_DEQUE);
+        }
+    }
+
+    @Builtin(name = "reverse", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReverseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone reverse(PDeque self) {
+            self.reverse();
+            return PNone.NONE;
+        }
+    }
+
+    // deque.rotate(n=1)
+    @Builtin(name = "rotate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "n"})
+    @ArgumentClinic(name = "n", conversion = ClinicConversion.Index, defaultValue = "1")
+    @GenerateNodeFactory
+    public abstract static class RotateNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.RotateNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PNone rotate(PDeque self, int n) {
+            self.rotate(n);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __LEN__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class LenNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int len(PDeque self) {
+            return self.getSize();
+        }
+    }
+
+    @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "index"})
+    @ArgumentClinic(name = "index", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class GetItemNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.GetItemNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object getItem(PDeque self, int index) {
+            Object item = self.getItem(index < 0 ? index + self.getSize() : index);
+            if (item == null) {
+                throw raise(IndexError, ErrorMessages.DEQUE_INDEX_OUT_OF_RANGE);
+            }
+            return item;
+        }
+    }
+
+    @Builtin(name = __SETITEM__, minNumOfPositionalArgs = 3, parameterNames = {"$self", "index", "value"})
+    @ArgumentClinic(name = "index", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class SetItemNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.SetItemNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone setItem(PDeque self, int index, Object value) {
+            if (!self.setItem(index < 0 ? index + self.getSize() : index, value)) {
+                throw raise(IndexError, ErrorMessages.DEQUE_INDEX_OUT_OF_RANGE);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __DELITEM__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "index"})
+    @ArgumentClinic(name = "index", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class DelItemNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.DelItemNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone delItem(PDeque self, int indexIn) {
+            synchronized (self) {
+                int size = self.getSize();
+                int index = indexIn < 0 ? indexIn + size : indexIn;
+                if (index < 0 || index >= size) {
+                    throw raise(IndexError, ErrorMessages.DEQUE_INDEX_OUT_OF_RANGE);
+                }
+                self.remove(index);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDequeIter iter(PDeque self) {
+            return factory().createDequeIter(self);
+        }
+    }
+
+    @Builtin(name = __REVERSED__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReversedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDequeIter reversed(PDeque self) {
+            return factory().createDequeRevIter(self);
+        }
+    }
+
+    @Builtin(name = "maxlen", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class MaxLenNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object maxlen(PDeque self) {
+            int maxLength = self.getMaxLength();
+            return maxLength < 0 ? PNone.NONE : maxLength;
+        }
+    }
+
+    @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object add(VirtualFrame frame, PDeque self, PDeque other,
+                        @Cached CopyNode copyNode,
+                        @Cached ExtendNode extendNode) {
+            Object result = copyNode.execute(frame, self);
+            if (result instanceof PDeque) {
+                extendNode.execute(frame, (PDeque) result, other);
+            }
+            return result;
+        }
+
+        @Fallback
+        Object add(@SuppressWarnings("unused") Object self, Object other) {
+            throw raise(TypeError, ErrorMessages.CAN_ONLY_CONCAT_DEQUE_NOT_P_TO_DEQUE, other);
+        }
+    }
+
+    @Builtin(name = __IMUL__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "n"})
+    @ArgumentClinic(name = "n", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class IMulNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.IMulNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PDeque imul(PDeque self, int n) {
+            repeat(self, n);
+            return self;
+        }
+    }
+
+    @Builtin(name = __MUL__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "n"})
+    @ArgumentClinic(name = "n", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class MulNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.MulNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object mul(VirtualFrame frame, PDeque self, int n,
+                        @Cached CopyNode copyNode) {
+            Object result = copyNode.execute(frame, self);
+            if (result instanceof PDeque) {
+                repeat((PDeque) result, n);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = __RMUL__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "n"})
+    @ArgumentClinic(name = "n", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class RMulNode extends MulNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeBuiltinsClinicProviders.RMulNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    /** Repeats the contents of {@code self} {@code n} times in place. */
+    static void repeat(PDeque self, int n) {
+        if (n <= 0) {
+            self.clear();
+            return;
+        }
+        Object[] items = self.toArray();
+        int maxLength = self.getMaxLength();
+        for (int i = 1; i < n; i++) {
+            if (maxLength >= 0 && (long) items.length * i >= maxLength) {
+                // the remaining repetitions would be trimmed again anyway
+                break;
+            }
+            for (Object item : items) {
+                self.append(item);
+            }
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization(limit = "1")
+        Object repr(VirtualFrame frame, PDeque self,
+                        @CachedContext(PythonLanguage.class) PythonContext ctxt,
+                        @CachedLibrary("self") PythonObjectLibrary lib,
+                        @Cached TypeNodes.GetNameNode getNameNode,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode) {
+            String name = getNameNode.execute(lib.getLazyPythonClass(self));
+            if (!ctxt.reprEnter(self)) {
+                return name + "([...])";
+            }
+            try {
+                Object listRepr = reprNode.executeObject(frame, factory().createList(self.toArray()));
+                int maxLength = self.getMaxLength();
+                if (maxLength < 0) {
+                    return format(name, listRepr);
+                }
+                return format(name, listRepr, maxLength);
+            } finally {
+                ctxt.reprLeave(self);
+            }
+        }
+
+        @TruffleBoundary
+        private static String format(String name, Object listRepr) {
+            return name + "(" + listRepr + ")";
+        }
+
+        @TruffleBoundary
+        private static String format(String name, Object listRepr, int maxLength) {
+            return name + "(" + listRepr + ", maxlen=" + maxLength + ")";
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization(limit = "1")
+        Object reduce(VirtualFrame frame, PDeque self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            Object dict = lib.lookupAttribute(self, frame, __DICT__);
+            if (dict == PNone.NO_VALUE) {
+                dict = PNone.NONE;
+            }
+            Object args;
+            if (self.getMaxLength() < 0) {
+                args = factory().createEmptyTuple();
+            } else {
+                args = factory().createTuple(new Object[]{factory().createEmptyTuple(), self.getMaxLength()});
+            }
+            Object iterator = factory().createDequeIter(self);
+            return factory().createTuple(new Object[]{lib.getLazyPythonClass(self), args, dict, iterator});
+        }
+    }
+
+    /**
+     * Base class of the rich comparisons, which compare snapshots of both deques like sequences.
+     */
+    abstract static class DequeCompareNode extends PythonBinaryBuiltinNode {
+        @Child private SequenceStorageNodes.CmpNode cmpNode;
+
+        abstract SequenceStorageNodes.CmpNode createCmpNode();
+
+        boolean isNegated() {
+            return false;
+        }
+
+        @Specialization
+        boolean compare(VirtualFrame frame, PDeque self, PDeque other) {
+            if (cmpNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                cmpNode = insert(createCmpNode());
+            }
+            boolean result = cmpNode.execute(frame, new ObjectSequenceStorage(self.toArray()), new ObjectSequenceStorage(other.toArray()));
+            return isNegated() != result;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class EqNode extends DequeCompareNode {
+        @Override
+        SequenceStorageNodes.CmpNode createCmpNode() {
+            return SequenceStorageNodes.CmpNode.createEq();
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class NeNode extends DequeCompareNode {
+        @Override
+        SequenceStorageNodes.CmpNode createCmpNode() {
+            return SequenceStorageNodes.CmpNode.createEq();
+        }
+
+        @Override
+        boolean isNegated() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class LtNode extends DequeCompareNode {
+        @Override
+        SequenceStorageNodes.CmpNode createCmpNode() {
+            return SequenceStorageNodes.CmpNode.createLt();
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class LeNode extends DequeCompareNode {
+        @Override
+        SequenceStorageNodes.CmpNode createCmpNode() {
+            return SequenceStorageNodes.CmpNode.createLe();
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class GtNode extends DequeCompareNode {
+        @Override
+        SequenceStorageNodes.CmpNode createCmpNode() {
+            return SequenceStorageNodes.CmpNode.createGt();
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class GeNode extends DequeCompareNode {
+        @Override
+        SequenceStorageNodes.CmpNode createCmpNode() {
+            return SequenceStorageNodes.CmpNode.createGe();
+        }
+    }
+}
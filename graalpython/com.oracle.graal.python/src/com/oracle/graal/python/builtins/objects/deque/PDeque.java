@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.deque;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage.ListStorageType;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code collections.deque} backed by a ring buffer. Like the sequence storages, the buffer
+ * starts out specialized for {@code int}, {@code long} or {@code double} elements, which are
+ * kept unboxed in a {@code long[]}, and is generalized to an {@code Object[]} once an element of
+ * another type is added.
+ *
+ * All accessors are {@code synchronized}, so {@code append}, {@code popleft} and friends are
+ * atomic with respect to each other and can be used from several threads without a Python lock.
+ */
+public final class PDeque extends PythonBuiltinObject {
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** The elements of {@code Int}, {@code Long} and {@code Double} deques as raw bits. */
+    private long[] primitives;
+    /** The elements of {@code Generic} deques. */
+    private Object[] objects;
+    private ListStorageType elementType = ListStorageType.Empty;
+    private int head;
+    private int size;
+    /** The maximum length, or {@code -1} if the deque is unbounded. */
+    private int maxLength = -1;
+    /** Incremented on every structural modification; used to detect mutation during iteration. */
+    private int state;
+
+    public PDeque(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public synchronized int getState() {
+        return state;
+    }
+
+    public ListStorageType getElementType() {
+        return elementType;
+    }
+
+    public synchronized void append(Object value) {
+        if (maxLength == 0) {
+            return;
+        }
+        prepareFor(value);
+        if (size == maxLength) {
+            removeFirstUnchecked();
+        }
+        ensureCapacity(size + 1);
+        write(physical(size), value);
+        size++;
+        state++;
+    }
+
+    public synchronized void appendLeft(Object value) {
+        if (maxLength == 0) {
+            return;
+        }
+        prepareFor(value);
+        if (size == maxLength) {
+            clearSlot(physical(size - 1));
+            size--;
+        }
+        ensureCapacity(size + 1);
+        head = physical(-1);
+        write(head, value);
+        size++;
+        state++;
+    }
+
+    /** Removes and returns the rightmost element, or returns {@code null} if the deque is empty. */
+    public synchronized Object pop() {
+        if (size == 0) {
+            return null;
+        }
+        int index = physical(size - 1);
+        Object value = read(index);
+        clearSlot(index);
+        size--;
+        state++;
+        return value;
+    }
+
+    /** Removes and returns the leftmost element, or returns {@code null} if the deque is empty. */
+    public synchronized Object popLeft() {
+        if (size == 0) {
+            return null;
+        }
+        Object value = read(head);
+        removeFirstUnchecked();
+        state++;
+        return value;
+    }
+
+    /**
+     * Returns the element at {@code index}, or {@code null} if the index is out of bounds, which
+     * can only happen if the deque was modified concurrently.
+     */
+    public synchronized Object getItem(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return read(physical(index));
+    }
+
+    public synchronized boolean setItem(int index, Object value) {
+        if (index < 0 || index >= size) {
+            return false;
+        }
+        prepareFor(value);
+        write(physical(index), value);
+        return true;
+    }
+
+    public synchronized void clear() {
+        primitives = null;
+        objects = null;
+        elementType = ListStorageType.Empty;
+        head = 0;
+        size = 0;
+        state++;
+    }
+
+    @TruffleBoundary
+    public synchronized Object[] toArray() {
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = read(physical(i));
+        }
+        return result;
+    }
+
+    /** Rotates the deque {@code n} steps to the right, or to the left if {@code n} is negative. */
+    @TruffleBoundary
+    public synchronized void rotate(long n) {
+        if (size <= 1) {
+            return;
+        }
+        int steps = (int) Math.floorMod(n, (long) size);
+        if (steps == 0) {
+            return;
+        }
+        if (steps <= size / 2) {
+            // move the last 'steps' elements to the front
+            for (int i = 0; i < steps; i++) {
+                int last = physical(size - 1);
+                head = physical(-1);
+                move(last, head);
+            }
+        } else {
+            // move the first 'size - steps' elements to the back
+            for (int i = steps; i < size; i++) {
+                move(head, physical(size));
+                head = physical(1);
+            }
+        }
+        state++;
+    }
+
+    @TruffleBoundary
+    public synchronized void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            int left = physical(i);
+            int right = physical(j);
+            if (elementType == ListStorageType.Generic) {
+                Object tmp = objects[left];
+                objects[left] = objects[right];
+                objects[right] = tmp;
+            } else {
+                long tmp = primitives[left];
+                primitives[left] = primitives[right];
+                primitives[right] = tmp;
+            }
+        }
+        state++;
+    }
+
+    /** Removes the element at {@code index}, shifting the shorter side of the deque. */
+    @TruffleBoundary
+    public synchronized void remove(int index) {
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {
+                move(physical(i - 1), physical(i));
+            }
+            removeFirstUnchecked();
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                move(physical(i + 1), physical(i));
+            }
+            clearSlot(physical(size - 1));
+            size--;
+        }
+        state++;
+    }
+
+    /** Inserts {@code value} before {@code index}; the caller checks against the maximum length. */
+    @TruffleBoundary
+    public synchronized void insert(int index, Object value) {
+        prepareFor(value);
+        ensureCapacity(size + 1);
+        for (int i = size; i > index; i--) {
+            move(physical(i - 1), physical(i));
+        }
+        write(physical(index), value);
+        size++;
+        state++;
+    }
+
+    private int physical(int index) {
+        return (head + index) & (capacity() - 1);
+    }
+
+    private int capacity() {
+        return elementType == ListStorageType.Generic ? objects.length : primitives.length;
+    }
+
+    private void removeFirstUnchecked() {
+        clearSlot(head);
+        head = physical(1);
+        size--;
+    }
+
+    /** Makes sure the buffer can hold {@code value}, generalizing the element type if needed. */
+    private void prepareFor(Object value) {
+        switch (elementType) {
+            case Empty:
+                elementType = typeOf(value);
+                if (elementType == ListStorageType.Generic) {
+                    objects = new Object[INITIAL_CAPACITY];
+                } else {
+                    primitives = new long[INITIAL_CAPACITY];
+                }
+                head = 0;
+                return;
+            case Int:
+                if (value instanceof Integer) {
+                    return;
+                } else if (value instanceof Long) {
+                    elementType = ListStorageType.Long;
+                    return;
+                }
+                break;
+            case Long:
+                if (value instanceof Integer || value instanceof Long) {
+                    return;
+                }
+                break;
+            case Double:
+                if (value instanceof Double) {
+                    return;
+                }
+                break;
+            default:
+                return;
+        }
+        generalize();
+    }
+
+    private static ListStorageType typeOf(Object value) {
+        if (value instanceof Integer) {
+            return ListStorageType.Int;
+        } else if (value instanceof Long) {
+            return ListStorageType.Long;
+        } else if (value instanceof Double) {
+            return ListStorageType.Double;
+        }
+        return ListStorageType.Generic;
+    }
+
+    @TruffleBoundary
+    private void generalize() {
+        Object[] newObjects = new Object[primitives.length];
+        for (int i = 0; i < size; i++) {
+            int index = physical(i);
+            newObjects[index] = box(primitives[index]);
+        }
+        objects = newObjects;
+        primitives = null;
+        elementType = ListStorageType.Generic;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > capacity()) {
+            grow();
+        }
+    }
+
+    /** Doubles the capacity and moves the elements to the start of the new buffer. */
+    @TruffleBoundary
+    private void grow() {
+        int capacity = capacity();
+        if (capacity >= 1 << 30) {
+            throw new OutOfMemoryError();
+        }
+        int first = Math.min(size, capacity - head);
+        if (elementType == ListStorageType.Generic) {
+            Object[] newObjects = new Object[capacity * 2];
+            System.arraycopy(objects, head, newObjects, 0, first);
+            System.arraycopy(objects, 0, newObjects, first, size - first);
+            objects = newObjects;
+        } else {
+            long[] newPrimitives = new long[capacity * 2];
+            System.arraycopy(primitives, head, newPrimitives, 0, first);
+            System.arraycopy(primitives, 0, newPrimitives, first, size - first);
+            primitives = newPrimitives;
+        }
+        head = 0;
+    }
+
+    private Object read(int index) {
+        if (elementType == ListStorageType.Generic) {
+            return objects[index];
+        }
+        return box(primitives[index]);
+    }
+
+    private Object box(long bits) {
+        switch (elementType) {
+            case Int:
+                return (int) bits;
+            case Long:
+                return bits;
+            default:
+                return Double.longBitsToDouble(bits);
+        }
+    }
+
+    private void write(int index, Object value) {
+        switch (elementType) {
+            case Int:
+            case Long:
+                primitives[index] = value instanceof Integer ? (int) value : (long) value;
+                break;
+            case Double:
+                primitives[index] = Double.doubleToRawLongBits((double) value);
+                break;
+            default:
+                objects[index] = value;
+        }
+    }
+
+    private void move(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        if (elementType == ListStorageType.Generic) {
+            objects[to] = objects[from];
+            objects[from] = null;
+        } else {
+            primitives[to] = primitives[from];
+        }
+    }
+
+    private void clearSlot(int index) {
+        if (elementType == ListStorageType.Generic) {
+            // do not keep removed elements alive
+            objects[index] = null;
+        }
+    }
+}
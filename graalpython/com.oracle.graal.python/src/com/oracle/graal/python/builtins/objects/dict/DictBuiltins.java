@@ -56,6 +56,7 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes;
+import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes.GetDictStorageForUpdateNode;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes.GetDictStorageNode;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes.SetDictStorageNode;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
@@ -227,15 +228,15 @@ public final class DictBuiltins extends PythonBuiltins {
             }
         }
 
-        @Specialization(limit = "3")
+        @Specialization
         public Object popDefault(VirtualFrame frame, PDict dict, Object key, Object defaultValue,
                         @Cached BranchProfile updatedStorage,
                         @Cached ConditionProfile hasKey,
                         @Cached ConditionProfile hasDefault,
                         @Cached ConditionProfile hasFrame,
-                        @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorage,
                         @Cached SetDictStorageNode setStorage,
-                        @CachedLibrary("getStorage.execute(dict)") HashingStorageLibrary lib) {
+                        @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
             HashingStorage dictStorage = getStorage.execute(dict);
             Object retVal = lib.getItemWithFrame(dictStorage, key, hasFrame, frame);
             if (hasKey.profile(retVal != null)) {
@@ -254,10 +255,10 @@ public final class DictBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class PopItemNode extends PythonUnaryBuiltinNode {
 
-        @Specialization(limit = "3")
+        @Specialization(assumptions = "singleThreadedAssumption()")
         public Object popItem(PDict dict,
-                        @Cached GetDictStorageNode getStorage,
-                        @CachedLibrary("getStorage.execute(dict)") HashingStorageLibrary lib) {
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
             HashingStorage storage = getStorage.execute(dict);
             for (DictEntry entry : lib.reverseEntries(storage)) {
                 PTuple result = factory().createTuple(new Object[]{entry.getKey(), entry.getValue()});
@@ -266,6 +267,22 @@ public final class DictBuiltins extends PythonBuiltins {
             }
             throw raise(KeyError, ErrorMessages.IS_EMPTY, "popitem(): dictionary");
         }
+
+        @Specialization(replaces = "popItem")
+        public Object popItemConcurrent(PDict dict,
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
+            HashingStorage storage = getStorage.execute(dict);
+            if (storage instanceof EconomicMapStorage) {
+                // another thread must not pop the same item between selecting and removing it
+                Object[] entry = ((EconomicMapStorage) storage).popLastConcurrent();
+                if (entry == null) {
+                    throw raise(KeyError, ErrorMessages.IS_EMPTY, "popitem(): dictionary");
+                }
+                return factory().createTuple(entry);
+            }
+            return popItem(dict, getStorage, lib);
+        }
     }
 
     // keys()
@@ -383,7 +400,7 @@ public final class DictBuiltins extends PythonBuiltins {
         Object run(VirtualFrame frame, PDict self, Object key,
                         @Cached BranchProfile updatedStorage,
                         @Cached SetDictStorageNode setStorage,
-                        @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorage,
                         @Cached("createBinaryProfile()") ConditionProfile hasFrame,
                         @CachedLibrary(limit = "3") HashingStorageLibrary lib) {
             HashingStorage storage = getStorage.execute(self);
@@ -503,10 +520,10 @@ public final class DictBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class ClearNode extends PythonUnaryBuiltinNode {
 
-        @Specialization(limit = "3")
+        @Specialization
         public static PDict clear(PDict dict,
-                        @Cached GetDictStorageNode getStorage,
-                        @CachedLibrary("getStorage.execute(dict)") HashingStorageLibrary lib,
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary lib,
                         @Cached SetDictStorageNode setStorage) {
             HashingStorage newStorage = lib.clear(getStorage.execute(dict));
             setStorage.execute(dict, newStorage);
@@ -546,7 +563,7 @@ public final class DictBuiltins extends PythonBuiltins {
         public static Object update(VirtualFrame frame, PDict self, @SuppressWarnings("unused") Object[] args, PKeyword[] kwargs,
                         @Cached HashingStorage.InitNode initNode,
                         @CachedLibrary(limit = "3") HashingStorageLibrary lib,
-                        @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorage,
                         @Cached SetDictStorageNode setStorage) {
             HashingStorage storage = getStorage.execute(self);
             storage = lib.addAllToOther(initNode.execute(frame, PNone.NO_VALUE, kwargs), storage);
@@ -558,8 +575,9 @@ public final class DictBuiltins extends PythonBuiltins {
         public static Object updateDict(PDict self, Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs,
                         @CachedLibrary(limit = "1") HashingStorageLibrary lib,
                         @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorageForUpdate,
                         @Cached SetDictStorageNode setStorage) {
-            HashingStorage storage = lib.addAllToOther(getStorage.execute((PDict) args[0]), getStorage.execute(self));
+            HashingStorage storage = lib.addAllToOther(getStorage.execute((PDict) args[0]), getStorageForUpdate.execute(self));
             setStorage.execute(self, storage);
             return PNone.NONE;
         }
@@ -569,8 +587,9 @@ public final class DictBuiltins extends PythonBuiltins {
                         @CachedLibrary(limit = "1") HashingStorageLibrary lib,
                         @Cached HashingStorage.InitNode initNode,
                         @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorageForUpdate,
                         @Cached SetDictStorageNode setStorage) {
-            HashingStorage storage = lib.addAllToOther(getStorage.execute((PDict) args[0]), getStorage.execute(self));
+            HashingStorage storage = lib.addAllToOther(getStorage.execute((PDict) args[0]), getStorageForUpdate.execute(self));
             storage = lib.addAllToOther(initNode.execute(frame, PNone.NO_VALUE, kwargs), storage);
             setStorage.execute(self, storage);
             return PNone.NONE;
@@ -579,10 +598,11 @@ public final class DictBuiltins extends PythonBuiltins {
         @Specialization(guards = {"isDictEconomicMap(args, getStorage)", "kwargs.length == 0"}, limit = "1")
         public Object updateDict(PDict self, Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs,
                         @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorageForUpdate,
                         @Cached SetDictStorageNode setStorage,
                         @CachedLibrary(limit = "2") HashingStorageLibrary libSelf,
                         @CachedLibrary(limit = "1") HashingStorageLibrary libOther) {
-            HashingStorage newStorage = addAll(self, (PDict) args[0], getStorage, libSelf, libOther);
+            HashingStorage newStorage = addAll(self, (PDict) args[0], getStorage, getStorageForUpdate, libSelf, libOther);
             setStorage.execute(self, newStorage);
             return PNone.NONE;
         }
@@ -590,18 +610,20 @@ public final class DictBuiltins extends PythonBuiltins {
         @Specialization(guards = {"isDictEconomicMap(args, getStorage)", "kwargs.length > 0"}, limit = "1")
         public Object updateDict(VirtualFrame frame, PDict self, Object[] args, PKeyword[] kwargs,
                         @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorageForUpdate,
                         @Cached SetDictStorageNode setStorage,
                         @CachedLibrary(limit = "2") HashingStorageLibrary libSelf,
                         @CachedLibrary(limit = "1") HashingStorageLibrary libOther,
                         @Cached HashingStorage.InitNode initNode) {
-            HashingStorage newStorage = addAll(self, (PDict) args[0], getStorage, libSelf, libOther);
+            HashingStorage newStorage = addAll(self, (PDict) args[0], getStorage, getStorageForUpdate, libSelf, libOther);
             newStorage = libOther.addAllToOther(initNode.execute(frame, PNone.NO_VALUE, kwargs), newStorage);
             setStorage.execute(self, newStorage);
             return PNone.NONE;
         }
 
-        private HashingStorage addAll(PDict self, PDict other, GetDictStorageNode getStorage, HashingStorageLibrary libSelf, HashingStorageLibrary libOther) throws PException {
-            HashingStorage selfStorage = getStorage.execute(self);
+        private HashingStorage addAll(PDict self, PDict other, GetDictStorageNode getStorage, GetDictStorageForUpdateNode getStorageForUpdate, HashingStorageLibrary libSelf,
+                        HashingStorageLibrary libOther) throws PException {
+            HashingStorage selfStorage = getStorageForUpdate.execute(self);
             HashingStorage otherStorage = getStorage.execute(other);
             HashingStorageIterator<DictEntry> itOther = libOther.entries(otherStorage).iterator();
             int initialSize = libOther.length(otherStorage);
@@ -625,7 +647,7 @@ public final class DictBuiltins extends PythonBuiltins {
                         @Cached("create(__GETITEM__)") LookupAndCallBinaryNode callGetItemNode,
                         @Cached GetNextNode nextNode,
                         @Cached IsBuiltinClassProfile errorProfile,
-                        @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorage,
                         @Cached SetDictStorageNode setStorage) {
             HashingStorage storage = HashingStorage.copyToStorage(frame, args[0], kwargs, getStorage.execute(self),
                             callKeysNode, callGetItemNode, keysLib, nextNode, errorProfile, lib);
@@ -646,7 +668,7 @@ public final class DictBuiltins extends PythonBuiltins {
                         @Cached("createBinaryProfile()") ConditionProfile lengthTwoProfile,
                         @Cached IsBuiltinClassProfile errorProfile,
                         @Cached IsBuiltinClassProfile isTypeErrorProfile,
-                        @Cached GetDictStorageNode getStorage,
+                        @Cached GetDictStorageForUpdateNode getStorage,
                         @Cached SetDictStorageNode setStorage) {
             StorageSupplier storageSupplier = (boolean isStringKey, int length) -> getStorage.execute(self);
             HashingStorage storage = HashingStorage.addSequenceToStorage(frame, args[0], kwargs, storageSupplier,
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The storage of {@code functools.lru_cache}. The entries are kept in buckets by their Python hash,
+ * which the caller computes. The cache itself never compares keys: the caller looks the bucket up
+ * with {@link #getBucket} and compares the keys itself, so that {@code __eq__} runs outside of any
+ * map operation or lock and may even call the cached function again. Lookups go to a
+ * {@link ConcurrentHashMap} and do not lock. Insertions, evictions and the recency list of a
+ * bounded cache are guarded by the cache's monitor, and a bounded cache evicts from the least
+ * recently used end.
+ */
+public final class LruCache {
+    /**
+     * Separates the positional from the keyword arguments in the key of an {@link Entry}.
+     */
+    static final Object KEYWORD_MARK = new Object();
+
+    private static final Entry[] EMPTY_BUCKET = new Entry[0];
+
+    static final class Entry {
+        final long hash;
+        final Object[] key;
+        final Object value;
+        Entry prev;
+        Entry next;
+
+        Entry(long hash, Object[] key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean isLinked() {
+            return next != null;
+        }
+    }
+
+    // buckets are never modified, they are replaced while holding the monitor
+    private final ConcurrentHashMap<Long, Entry[]> buckets = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private volatile int size;
+    // the sentinel of the recency list, root.next is the least recently used entry
+    private final Entry root = new Entry(0, null, null);
+
+    /**
+     * @param maxSize the maximal number of entries, or a negative number for an unbounded cache
+     */
+    LruCache(int maxSize) {
+        this.maxSize = maxSize;
+        root.prev = root;
+        root.next = root;
+    }
+
+    private boolean isBounded() {
+        return maxSize >= 0;
+    }
+
+    /**
+     * Returns the entries whose key has the given hash. The returned array must not be modified.
+     */
+    @TruffleBoundary
+    Entry[] getBucket(long hash) {
+        Entry[] bucket = buckets.get(hash);
+        return bucket == null ? EMPTY_BUCKET : bucket;
+    }
+
+    /**
+     * Marks an entry found by the caller as the most recently used one.
+     */
+    @TruffleBoundary
+    void touch(Entry entry) {
+        if (isBounded()) {
+            synchronized (this) {
+                // the entry may have been evicted concurrently
+                if (entry.isLinked()) {
+                    unlink(entry);
+                    linkLast(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an entry to the bucket that the caller looked up and searched for the key. Returns
+     * {@code false} without adding anything if the bucket has changed in the meantime, in which
+     * case the caller has to search it again.
+     */
+    @TruffleBoundary
+    synchronized boolean add(Entry[] expectedBucket, Entry entry) {
+        if (getBucket(entry.hash) != expectedBucket) {
+            return false;
+        }
+        Entry[] bucket = PythonUtils.arrayCopyOf(expectedBucket, expectedBucket.length + 1);
+        bucket[expectedBucket.length] = entry;
+        buckets.put(entry.hash, bucket);
+        size++;
+        if (isBounded()) {
+            linkLast(entry);
+            while (size > maxSize && root.next != root) {
+                Entry eldest = root.next;
+                unlink(eldest);
+                remove(eldest);
+            }
+        }
+        return true;
+    }
+
+    // compares by identity, the entry is known to be in its bucket
+    private void remove(Entry entry) {
+        Entry[] bucket = getBucket(entry.hash);
+        if (bucket.length == 1) {
+            buckets.remove(entry.hash);
+        } else {
+            Entry[] newBucket = new Entry[bucket.length - 1];
+            int j = 0;
+            for (Entry e : bucket) {
+                if (e != entry) {
+                    newBucket[j++] = e;
+                }
+            }
+            buckets.put(entry.hash, newBucket);
+        }
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @TruffleBoundary
+    synchronized void clear() {
+        buckets.clear();
+        size = 0;
+        Entry entry = root.next;
+        while (entry != root) {
+            Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            entry = next;
+        }
+        root.prev = root;
+        root.next = root;
+    }
+
+    private void unlink(Entry entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private void linkLast(Entry entry) {
+        entry.prev = root.prev;
+        entry.next = root;
+        root.prev.next = entry;
+        root.prev = entry;
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__QUALNAME__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GET__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PLruCacheWrapper)
+public class LruCacheWrapperBuiltins extends PythonBuiltins {
+
+    // an arbitrary odd constant, the same one as in tuple hashes
+    private static final long HASH_MULTIPLIER = 1000003L;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return LruCacheWrapperBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __CALL__, minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    public abstract static class LruCacheCallNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        Object call(VirtualFrame frame, PLruCacheWrapper self, Object[] arguments, PKeyword[] keywords,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary eqLib,
+                        @Cached CallNode callNode,
+                        @Cached("createBinaryProfile()") ConditionProfile noCacheProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile hitProfile) {
+            LruCache cache = self.cache;
+            if (noCacheProfile.profile(cache == null)) {
+                self.misses.incrementAndGet();
+                return callNode.execute(frame, self.function, arguments, keywords);
+            }
+            Object[] key = createKey(arguments, keywords, self.typed, lib);
+            long hash = hashKey(frame, key, keywords.length, lib);
+            LruCache.Entry[] bucket = cache.getBucket(hash);
+            LruCache.Entry entry = find(frame, bucket, key, eqLib);
+            if (hitProfile.profile(entry != null)) {
+                self.hits.incrementAndGet();
+                cache.touch(entry);
+                return entry.value;
+            }
+            self.misses.incrementAndGet();
+            Object result = callNode.execute(frame, self.function, arguments, keywords);
+            LruCache.Entry newEntry = new LruCache.Entry(hash, key, result);
+            while (!cache.add(bucket, newEntry)) {
+                // the bucket changed, the call itself or another thread may have cached the key
+                bucket = cache.getBucket(hash);
+                if (find(frame, bucket, key, eqLib) != null) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * The key consists of the positional arguments, followed by a mark and the names and values
+         * of the keyword arguments, followed by the types of all argument values if the cache is
+         * typed.
+         */
+        private static Object[] createKey(Object[] arguments, PKeyword[] keywords, boolean typed, PythonObjectLibrary lib) {
+            int valueCount = arguments.length + keywords.length;
+            int length = arguments.length + (keywords.length > 0 ? 1 + 2 * keywords.length : 0) + (typed ? valueCount : 0);
+            Object[] key = new Object[length];
+            PythonUtils.arraycopy(arguments, 0, key, 0, arguments.length);
+            int index = arguments.length;
+            if (keywords.length > 0) {
+                key[index++] = LruCache.KEYWORD_MARK;
+                for (PKeyword keyword : keywords) {
+                    key[index++] = keyword.getName();
+                    key[index++] = keyword.getValue();
+                }
+            }
+            if (typed) {
+                for (Object argument : arguments) {
+                    key[index++] = lib.getLazyPythonClass(argument);
+                }
+                for (PKeyword keyword : keywords) {
+                    key[index++] = lib.getLazyPythonClass(keyword.getValue());
+                }
+            }
+            return key;
+        }
+
+        private static long hashKey(VirtualFrame frame, Object[] key, int keywordCount, PythonObjectLibrary lib) {
+            long hash = key.length;
+            for (Object item : key) {
+                // the mark stands for the number of keyword arguments in the hash
+                long itemHash = item == LruCache.KEYWORD_MARK ? keywordCount : lib.hashWithFrame(item, frame);
+                hash = hash * HASH_MULTIPLIER ^ itemHash;
+            }
+            return hash;
+        }
+
+        /**
+         * Searches a bucket of the cache for the key. The items are compared with Python semantics
+         * here in the calling node, outside of the cache, so {@code __eq__} may use the cache too.
+         */
+        private static LruCache.Entry find(VirtualFrame frame, LruCache.Entry[] bucket, Object[] key, PythonObjectLibrary lib) {
+            for (LruCache.Entry entry : bucket) {
+                if (keyEquals(frame, entry.key, key, lib)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        private static boolean keyEquals(VirtualFrame frame, Object[] a, Object[] b, PythonObjectLibrary lib) {
+            if (a.length != b.length) {
+                return false;
+            }
+            for (int i = 0; i < a.length; i++) {
+                Object x = a[i];
+                Object y = b[i];
+                if (x == y) {
+                    continue;
+                }
+                if (x == LruCache.KEYWORD_MARK || y == LruCache.KEYWORD_MARK || !lib.equalsWithFrame(x, y, lib, frame)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Object varArgExecute(VirtualFrame frame, @SuppressWarnings("unused") Object self, Object[] arguments, PKeyword[] keywords) throws VarargsBuiltinDirectInvocationNotSupported {
+            Object[] argsWithoutSelf = new Object[arguments.length - 1];
+            PythonUtils.arraycopy(arguments, 1, argsWithoutSelf, 0, argsWithoutSelf.length);
+            return execute(frame, arguments[0], argsWithoutSelf, keywords);
+        }
+    }
+
+    @Builtin(name = "cache_info", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class CacheInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object cacheInfo(VirtualFrame frame, PLruCacheWrapper self,
+                        @Cached CallNode callNode) {
+            int currentSize = self.cache == null ? 0 : self.cache.size();
+            return callNode.execute(frame, self.cacheInfoType, self.hits.get(), self.misses.get(), self.maxSize, currentSize);
+        }
+    }
+
+    @Builtin(name = "cache_clear", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class CacheClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object cacheClear(PLruCacheWrapper self) {
+            self.hits.set(0);
+            self.misses.set(0);
+            if (self.cache != null) {
+                self.cache.clear();
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __GET__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "instance", "owner"})
+    @GenerateNodeFactory
+    public abstract static class GetNode extends PythonTernaryBuiltinNode {
+        @Specialization(guards = "isNoValue(instance) || isNone(instance)")
+        static Object getUnbound(PLruCacheWrapper self, @SuppressWarnings("unused") Object instance, @SuppressWarnings("unused") Object owner) {
+            return self;
+        }
+
+        @Specialization(guards = {"!isNoValue(instance)", "!isNone(instance)"})
+        Object getBound(PLruCacheWrapper self, Object instance, @SuppressWarnings("unused") Object owner) {
+            return factory().createMethod(instance, self);
+        }
+    }
+
+    @Builtin(name = __DICT__, minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class DictNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "1")
+        static PNone dict(PLruCacheWrapper self, PDict mapping,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            try {
+                lib.setDict(self, mapping);
+            } catch (UnsupportedMessageException e) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                throw new IllegalStateException(e);
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isNoValue(mapping)", limit = "1")
+        Object dict(PLruCacheWrapper self, @SuppressWarnings("unused") PNone mapping,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            PDict dict = lib.getDict(self);
+            if (dict == null) {
+                dict = factory().createDictFixedStorage(self);
+                try {
+                    lib.setDict(self, dict);
+                } catch (UnsupportedMessageException e) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    throw new IllegalStateException(e);
+                }
+            }
+            return dict;
+        }
+
+        @Specialization(guards = {"!isNoValue(mapping)", "!isDict(mapping)"})
+        PNone dict(@SuppressWarnings("unused") PLruCacheWrapper self, Object mapping) {
+            throw raise(TypeError, ErrorMessages.DICT_MUST_BE_SET_TO_DICT, mapping);
+        }
+    }
+
+    // the wrapper is pickled by its qualified name, like a function
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization(limit = "1")
+        static Object reduce(VirtualFrame frame, PLruCacheWrapper self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            return lib.lookupAttribute(self, frame, __QUALNAME__);
+        }
+    }
+
+    @Builtin(name = "__copy__", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object copy(PLruCacheWrapper self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object deepcopy(PLruCacheWrapper self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+}
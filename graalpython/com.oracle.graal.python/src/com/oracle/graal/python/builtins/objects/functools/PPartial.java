@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code functools.partial} object. Calls of exact instances are unwrapped by
+ * {@link com.oracle.graal.python.nodes.call.CallNode}, so that the call site can cache the wrapped
+ * function.
+ */
+public final class PPartial extends PythonBuiltinObject {
+    private Object function;
+    private Object[] args;
+    private PDict keywords;
+
+    public PPartial(Object cls, Shape instanceShape, Object function, Object[] args, PDict keywords) {
+        super(cls, instanceShape);
+        this.function = function;
+        this.args = args;
+        this.keywords = keywords;
+    }
+
+    public Object getFunction() {
+        return function;
+    }
+
+    public Object[] getArgs() {
+        return args;
+    }
+
+    public PDict getKeywords() {
+        return keywords;
+    }
+
+    void setState(Object newFunction, Object[] newArgs, PDict newKeywords) {
+        this.function = newFunction;
+        this.args = newArgs;
+        this.keywords = newKeywords;
+    }
+
+    /**
+     * The stored positional arguments followed by the given ones.
+     */
+    public Object[] prependArgs(Object[] arguments) {
+        if (arguments.length == 0) {
+            return args;
+        } else if (args.length == 0) {
+            return arguments;
+        }
+        Object[] result = new Object[args.length + arguments.length];
+        PythonUtils.arraycopy(args, 0, result, 0, args.length);
+        PythonUtils.arraycopy(arguments, 0, result, args.length, arguments.length);
+        return result;
+    }
+
+    /**
+     * The stored keywords updated with the given ones, like {@code {**self.keywords, **kwargs}}.
+     */
+    public static PKeyword[] mergeKeywords(PKeyword[] stored, PKeyword[] keywords) {
+        if (keywords.length == 0) {
+            return stored;
+        } else if (stored.length == 0) {
+            return keywords;
+        }
+        return mergeKeywordsBoundary(stored, keywords);
+    }
+
+    @TruffleBoundary
+    private static PKeyword[] mergeKeywordsBoundary(PKeyword[] stored, PKeyword[] keywords) {
+        PKeyword[] result = PythonUtils.arrayCopyOf(stored, stored.length + keywords.length);
+        int size = stored.length;
+        outer: for (PKeyword keyword : keywords) {
+            for (int i = 0; i < stored.length; i++) {
+                if (result[i].getName().equals(keyword.getName())) {
+                    result[i] = keyword;
+                    continue outer;
+                }
+            }
+            result[size++] = keyword;
+        }
+        return size == result.length ? result : PythonUtils.arrayCopyOf(result, size);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LENGTH_HINT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.iterator.IteratorNodes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PChain)
+public class ChainBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return ChainBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PChain iter(PChain self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class NextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object next(VirtualFrame frame, PChain self,
+                        @Cached GetNextNode getNextNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached IsBuiltinClassProfile stopIterationProfile) {
+            while (true) {
+                if (self.active == null) {
+                    Object iterable;
+                    if (self.iterables != null) {
+                        if (self.nextIterable >= self.iterables.length) {
+                            throw raise(StopIteration);
+                        }
+                        iterable = self.iterables[self.nextIterable];
+                        // drop the reference, the iterable is only needed once
+                        self.iterables[self.nextIterable++] = null;
+                    } else {
+                        if (self.source == null) {
+                            throw raise(StopIteration);
+                        }
+                        try {
+                            iterable = getNextNode.execute(frame, self.source);
+                        } catch (PException e) {
+                            self.source = null;
+                            throw e;
+                        }
+                    }
+                    try {
+                        self.active = lib.getIteratorWithFrame(iterable, frame);
+                    } catch (PException e) {
+                        self.source = null;
+                        if (self.iterables != null) {
+                            self.nextIterable = self.iterables.length;
+                        }
+                        throw e;
+                    }
+                }
+                try {
+                    return getNextNode.execute(frame, self.active);
+                } catch (PException e) {
+                    e.expectStopIteration(stopIterationProfile);
+                    self.active = null;
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "from_iterable", minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    public abstract static class FromIterableNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        PChain fromIterable(VirtualFrame frame, Object cls, Object iterable,
+                        @CachedLibrary("iterable") PythonObjectLibrary lib) {
+            return factory().createChain(cls, null, lib.getIteratorWithFrame(iterable, frame));
+        }
+    }
+
+    /**
+     * The sum of the length hints of the current iterator and the remaining iterables, so that
+     * {@code list(chain(a, b))} can presize its storage. It is unknown as long as
+     * {@code chain.from_iterable} has iterables left.
+     */
+    @Builtin(name = __LENGTH_HINT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class LengthHintNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object lengthHint(VirtualFrame frame, PChain self,
+                        @Cached IteratorNodes.GetLength lenNode) {
+            if (self.source != null) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            long total = 0;
+            if (self.active != null) {
+                int len = lenNode.execute(frame, self.active);
+                if (len < 0) {
+                    return PNotImplemented.NOT_IMPLEMENTED;
+                }
+                total = len;
+            }
+            if (self.iterables != null) {
+                for (int i = self.nextIterable; i < self.iterables.length; i++) {
+                    int len = lenNode.execute(frame, self.iterables[i]);
+                    if (len < 0) {
+                        return PNotImplemented.NOT_IMPLEMENTED;
+                    }
+                    total += len;
+                }
+            }
+            return (int) Math.min(total, Integer.MAX_VALUE);
+        }
+    }
+}
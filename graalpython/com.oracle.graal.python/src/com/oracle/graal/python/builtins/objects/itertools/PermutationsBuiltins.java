@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETSTATE__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PPermutations)
+public class PermutationsBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PermutationsBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PPermutations iter(PPermutations self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class NextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object next(PPermutations self) {
+            if (self.stopped) {
+                throw raise(StopIteration);
+            }
+            Object[] pool = self.pool;
+            int[] indices = self.indices;
+            int[] cycles = self.cycles;
+            int n = pool.length;
+            int r = self.r;
+            if (self.result == null) {
+                Object[] result = new Object[r];
+                for (int i = 0; i < r; i++) {
+                    result[i] = pool[indices[i]];
+                }
+                self.result = result;
+            } else {
+                Object[] result = self.result;
+                int i = r - 1;
+                while (i >= 0) {
+                    cycles[i]--;
+                    if (cycles[i] == 0) {
+                        // rotate indices[i:] one to the left
+                        int index = indices[i];
+                        PythonUtils.arraycopy(indices, i + 1, indices, i, n - i - 1);
+                        indices[n - 1] = index;
+                        cycles[i] = n - i;
+                        i--;
+                    } else {
+                        int j = cycles[i];
+                        int index = indices[i];
+                        indices[i] = indices[n - j];
+                        indices[n - j] = index;
+                        for (int k = i; k < r; k++) {
+                            result[k] = pool[indices[k]];
+                        }
+                        break;
+                    }
+                }
+                if (i < 0) {
+                    self.stopped = true;
+                    throw raise(StopIteration);
+                }
+            }
+            return factory().createTuple(PythonUtils.arrayCopyOf(self.result, r));
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization(limit = "1")
+        Object reduce(PPermutations self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            Object type = lib.getLazyPythonClass(self);
+            if (self.result == null) {
+                return factory().createTuple(new Object[]{type, factory().createTuple(new Object[]{factory().createTuple(self.pool), self.r})});
+            }
+            if (self.stopped) {
+                return factory().createTuple(new Object[]{type, factory().createTuple(new Object[]{factory().createEmptyTuple(), self.r})});
+            }
+            Object[] indices = new Object[self.indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = self.indices[i];
+            }
+            Object[] cycles = new Object[self.cycles.length];
+            for (int i = 0; i < cycles.length; i++) {
+                cycles[i] = self.cycles[i];
+            }
+            Object args = factory().createTuple(new Object[]{factory().createTuple(self.pool), self.r});
+            Object state = factory().createTuple(new Object[]{factory().createTuple(indices), factory().createTuple(cycles)});
+            return factory().createTuple(new Object[]{type, args, state});
+        }
+    }
+
+    @Builtin(name = __SETSTATE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class SetStateNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object setState(VirtualFrame frame, PPermutations self, PTuple state,
+                        @Cached SequenceNodes.GetObjectArrayNode getArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object[] items = getArrayNode.execute(state);
+            if (items.length != 2 || !(items[0] instanceof PTuple) || !(items[1] instanceof PTuple)) {
+                throw raise(ValueError, ErrorMessages.INVALID_ARGUMENTS);
+            }
+            Object[] indices = getArrayNode.execute(items[0]);
+            Object[] cycles = getArrayNode.execute(items[1]);
+            int n = self.pool.length;
+            int r = self.r;
+            if (indices.length != n || cycles.length != r) {
+                throw raise(ValueError, ErrorMessages.INVALID_ARGUMENTS);
+            }
+            for (int i = 0; i < n; i++) {
+                int index = lib.asSizeWithFrame(indices[i], null, frame);
+                self.indices[i] = Math.max(0, Math.min(index, n - 1));
+            }
+            for (int i = 0; i < r; i++) {
+                int index = lib.asSizeWithFrame(cycles[i], null, frame);
+                self.cycles[i] = Math.max(1, Math.min(index, n - i));
+            }
+            Object[] result = new Object[r];
+            for (int i = 0; i < r; i++) {
+                result[i] = self.pool[self.indices[i]];
+            }
+            self.result = result;
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isPTuple(state)")
+        Object setState(@SuppressWarnings("unused") PPermutations self, @SuppressWarnings("unused") Object state) {
+            throw raise(ValueError, ErrorMessages.INVALID_ARGUMENTS);
+        }
+    }
+}
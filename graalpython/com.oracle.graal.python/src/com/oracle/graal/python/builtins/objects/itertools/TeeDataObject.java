@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * A block of the buffer shared by {@code tee} iterators, like CPython's {@code teedataobject}. The
+ * blocks form a linked list, so the items that all iterators have consumed can be collected.
+ */
+public final class TeeDataObject {
+    static final int LINKCELLS = 57;
+
+    private final Object iterator;
+    private final Object[] values = new Object[LINKCELLS];
+    private int numRead;
+    private boolean running;
+    private TeeDataObject nextLink;
+
+    public TeeDataObject(Object iterator) {
+        this.iterator = iterator;
+    }
+
+    TeeDataObject jumpLink() {
+        if (nextLink == null) {
+            nextLink = new TeeDataObject(iterator);
+        }
+        return nextLink;
+    }
+
+    Object getItem(VirtualFrame frame, int i, GetNextNode getNextNode, PNodeWithRaise node) {
+        if (i < numRead) {
+            return values[i];
+        }
+        assert i == numRead;
+        if (running) {
+            throw node.raise(RuntimeError, ErrorMessages.CANNOT_REENTER_THE_TEE_ITERATOR);
+        }
+        running = true;
+        Object value;
+        try {
+            value = getNextNode.execute(frame, iterator);
+        } finally {
+            running = false;
+        }
+        values[numRead++] = value;
+        return value;
+    }
+}
@@ -79,16 +79,15 @@ import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltinsFactory.ListReverseNodeFactory;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.range.PIntRange;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PGuards;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DOC__;
-import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
 import com.oracle.graal.python.nodes.builtins.ListNodes;
 import com.oracle.graal.python.nodes.builtins.ListNodes.AppendNode;
 import com.oracle.graal.python.nodes.builtins.ListNodes.IndexNode;
-import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -114,6 +113,7 @@ import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -299,13 +299,24 @@ public class ListBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class DelItemNode extends PythonBinaryBuiltinNode {
 
-        @Specialization
-        protected Object doGeneric(VirtualFrame frame, PList self, Object key,
-                        @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode) {
+        @Specialization(assumptions = "singleThreadedAssumption()")
+        protected Object doList(VirtualFrame frame, PList self, Object key,
+                        @Shared("deleteNode") @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode) {
             deleteNode.execute(frame, self.getSequenceStorage(), key);
             return PNone.NONE;
         }
 
+        @Specialization(replaces = "doList")
+        protected Object doConcurrent(VirtualFrame frame, PList self, Object key,
+                        @Cached ListNodes.ToIndexOrSliceNode toIndexNode,
+                        @Shared("deleteNode") @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode) {
+            Object index = toIndexNode.execute(frame, key);
+            synchronized (self) {
+                deleteNode.execute(frame, self.getSequenceStorage(), index);
+            }
+            return PNone.NONE;
+        }
+
         @Fallback
         protected Object doGeneric(Object self, @SuppressWarnings("unused") Object objectIdx) {
             throw raise(TypeError, ErrorMessages.DESCRIPTOR_REQUIRES_OBJ, "__delitem__", "list", self);
@@ -352,14 +363,44 @@ public class ListBuiltins extends PythonBuiltins {
 
         private final ConditionProfile generalizedProfile = ConditionProfile.createBinaryProfile();
 
-        @Specialization(guards = "lib.canBeIndex(key) || isPSlice(key)")
-        public Object doGeneric(VirtualFrame frame, PList primary, Object key, Object value,
+        @Specialization(guards = "lib.canBeIndex(key) || isPSlice(key)", assumptions = "singleThreadedAssumption()")
+        public Object doList(VirtualFrame frame, PList primary, Object key, Object value,
                         @SuppressWarnings("unused") @CachedLibrary(limit = "3") PythonObjectLibrary lib,
-                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode) {
+                        @Shared("setItemNode") @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode) {
             updateStorage(primary, setItemNode.execute(frame, primary.getSequenceStorage(), key, value));
             return PNone.NONE;
         }
 
+        @Specialization(guards = "lib.canBeIndex(key) || isPSlice(key)", replaces = "doList")
+        public Object doConcurrent(VirtualFrame frame, PList primary, Object key, Object value,
+                        @SuppressWarnings("unused") @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Shared("setItemNode") @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode,
+                        @Cached ListNodes.ToIndexOrSliceNode toIndexNode,
+                        @Cached SequenceStorageNodes.CopyNode copyNode,
+                        @Cached ListNodes.ConstructListNode constructListNode) {
+            Object index = toIndexNode.execute(frame, key);
+            if (index instanceof PSlice) {
+                // read the assigned items before locking, like the storage node would
+                Object items = value;
+                if (value instanceof PList) {
+                    items = factory().createList(copyNode.execute(((PList) value).getSequenceStorage()));
+                } else if (!(value instanceof PSequence)) {
+                    items = constructListNode.execute(value);
+                }
+                synchronized (primary) {
+                    // a slice assignment may change the length before the items are in place, so
+                    // it is done on a copy that readers cannot see yet
+                    SequenceStorage copy = copyNode.execute(primary.getSequenceStorage());
+                    primary.setSequenceStorage(setItemNode.execute(frame, copy, index, items));
+                }
+            } else {
+                synchronized (primary) {
+                    updateStorage(primary, setItemNode.execute(frame, primary.getSequenceStorage(), index, value));
+                }
+            }
+            return PNone.NONE;
+        }
+
         @SuppressWarnings("unused")
         @Specialization(guards = {"!lib.canBeIndex(key)", "!isPSlice(key)"})
         public Object doListError(VirtualFrame frame, PList primary, Object key, Object value,
@@ -408,15 +449,29 @@ public class ListBuiltins extends PythonBuiltins {
 
         public abstract PNone execute(VirtualFrame frame, PList list, Object source);
 
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
         PNone extendSequence(VirtualFrame frame, PList list, Object iterable,
-                        @Cached IteratorNodes.GetLength lenNode,
-                        @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
+                        @Shared("lenNode") @Cached IteratorNodes.GetLength lenNode,
+                        @Shared("extendNode") @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
             int len = lenNode.execute(frame, iterable);
             updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), iterable, len));
             return PNone.NONE;
         }
 
+        @Specialization(replaces = "extendSequence")
+        PNone extendConcurrent(VirtualFrame frame, PList list, Object iterable,
+                        @Shared("lenNode") @Cached IteratorNodes.GetLength lenNode,
+                        @Cached ListNodes.MaterializeIterableNode materializeNode,
+                        @Shared("extendNode") @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
+            // iterate the argument before locking, the lock is never held while Python code runs
+            PSequence items = materializeNode.execute(iterable);
+            int len = lenNode.execute(frame, items);
+            synchronized (list) {
+                updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), items, len));
+            }
+            return PNone.NONE;
+        }
+
         private static void updateSequenceStorage(PList list, SequenceStorage s) {
             if (list.getSequenceStorage() != s) {
                 list.setSequenceStorage(s);
@@ -456,42 +511,55 @@ public class ListBuiltins extends PythonBuiltins {
 
         public abstract PNone execute(VirtualFrame frame, PList list, Object index, Object value);
 
-        @Specialization(guards = "isIntStorage(list)")
+        @Specialization(guards = "isIntStorage(list)", assumptions = "singleThreadedAssumption()")
         PNone insertIntInt(PList list, int index, int value) {
             IntSequenceStorage target = (IntSequenceStorage) list.getSequenceStorage();
             target.insertIntItem(normalizeIndex(index, target.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isLongStorage(list)")
+        @Specialization(guards = "isLongStorage(list)", assumptions = "singleThreadedAssumption()")
         PNone insertLongLong(PList list, int index, int value) {
             LongSequenceStorage target = (LongSequenceStorage) list.getSequenceStorage();
             target.insertLongItem(normalizeIndex(index, target.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isLongStorage(list)")
+        @Specialization(guards = "isLongStorage(list)", assumptions = "singleThreadedAssumption()")
         PNone insertLongLong(PList list, int index, long value) {
             LongSequenceStorage target = (LongSequenceStorage) list.getSequenceStorage();
             target.insertLongItem(normalizeIndex(index, target.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isDoubleStorage(list)")
+        @Specialization(guards = "isDoubleStorage(list)", assumptions = "singleThreadedAssumption()")
         PNone insertDoubleDouble(PList list, int index, double value) {
             DoubleSequenceStorage target = (DoubleSequenceStorage) list.getSequenceStorage();
             target.insertDoubleItem(normalizeIndex(index, target.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isNotSpecialCase(list, value)")
+        @Specialization(guards = "isNotSpecialCase(list, value)", assumptions = "singleThreadedAssumption()")
         PNone insert(PList list, int index, Object value,
-                        @Cached SequenceStorageNodes.InsertItemNode insertItem) {
-            SequenceStorage store = list.getSequenceStorage();
-            list.setSequenceStorage(insertItem.execute(store, normalizeIndex(index, getLength(store)), value));
+                        @Shared("insertItem") @Cached SequenceStorageNodes.InsertItemNode insertItem) {
+            doInsert(list, index, value, insertItem, getLength(list.getSequenceStorage()));
             return PNone.NONE;
         }
 
+        @Specialization(replaces = {"insertIntInt", "insertLongLong", "insertDoubleDouble", "insert"})
+        PNone insertConcurrent(PList list, int index, Object value,
+                        @Shared("insertItem") @Cached SequenceStorageNodes.InsertItemNode insertItem) {
+            synchronized (list) {
+                doInsert(list, index, value, insertItem, getLength(list.getSequenceStorage()));
+            }
+            return PNone.NONE;
+        }
+
+        private static void doInsert(PList list, int index, Object value, SequenceStorageNodes.InsertItemNode insertItem, int len) {
+            SequenceStorage store = list.getSequenceStorage();
+            list.setSequenceStorage(insertItem.execute(store, normalizeIndex(index, len), value));
+        }
+
         @Specialization
         PNone insertLongIndex(VirtualFrame frame, PList list, long index, Object value,
                         @Cached("createListInsertNode()") ListInsertNode insertNode) {
@@ -574,14 +642,44 @@ public class ListBuiltins extends PythonBuiltins {
 
         private static final String NOT_IN_LIST_MESSAGE = "list.index(x): x not in list";
 
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
         PNone remove(VirtualFrame frame, PList list, Object value,
-                        @Cached("createBinaryProfile()") ConditionProfile hasFrame,
-                        @Cached("createNotNormalized()") SequenceStorageNodes.GetItemNode getItemNode,
-                        @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode,
-                        @Cached("create()") SequenceStorageNodes.LenNode lenNode,
-                        @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
+                        @Shared("hasFrame") @Cached("createBinaryProfile()") ConditionProfile hasFrame,
+                        @Shared("getItemNode") @Cached("createNotNormalized()") SequenceStorageNodes.GetItemNode getItemNode,
+                        @Shared("deleteNode") @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode,
+                        @Shared("lenNode") @Cached("create()") SequenceStorageNodes.LenNode lenNode,
+                        @Shared("lib") @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
             SequenceStorage listStore = list.getSequenceStorage();
+            int i = find(frame, listStore, value, hasFrame, getItemNode, lenNode, lib);
+            deleteNode.execute(frame, listStore, i);
+            return PNone.NONE;
+        }
+
+        @Specialization(replaces = "remove")
+        PNone removeConcurrent(VirtualFrame frame, PList list, Object value,
+                        @Shared("hasFrame") @Cached("createBinaryProfile()") ConditionProfile hasFrame,
+                        @Shared("getItemNode") @Cached("createNotNormalized()") SequenceStorageNodes.GetItemNode getItemNode,
+                        @Shared("deleteNode") @Cached("create()") SequenceStorageNodes.DeleteNode deleteNode,
+                        @Shared("lenNode") @Cached("create()") SequenceStorageNodes.LenNode lenNode,
+                        @Shared("lib") @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
+            while (true) {
+                // __eq__ may run arbitrary code, so the items are compared without holding the
+                // monitor and the item is only removed if it is still at the same position
+                SequenceStorage searched = list.getSequenceStorage();
+                int i = find(frame, searched, value, hasFrame, getItemNode, lenNode, lib);
+                Object item = getItemNode.execute(frame, searched, i);
+                synchronized (list) {
+                    SequenceStorage listStore = list.getSequenceStorage();
+                    if (i < lenNode.execute(listStore) && isSameItem(getItemNode.execute(frame, listStore, i), item)) {
+                        deleteNode.execute(frame, listStore, i);
+                        return PNone.NONE;
+                    }
+                }
+            }
+        }
+
+        private int find(VirtualFrame frame, SequenceStorage listStore, Object value, ConditionProfile hasFrame, SequenceStorageNodes.GetItemNode getItemNode, SequenceStorageNodes.LenNode lenNode,
+                        PythonObjectLibrary lib) {
             int len = lenNode.execute(listStore);
             ThreadState threadState = null;
             if (hasFrame.profile(frame != null)) {
@@ -596,12 +694,19 @@ public class ListBuiltins extends PythonBuiltins {
                     hasItem = lib.equals(object, value, lib);
                 }
                 if (hasItem) {
-                    deleteNode.execute(frame, listStore, i);
-                    return PNone.NONE;
+                    return i;
                 }
             }
             throw raise(PythonErrorType.ValueError, NOT_IN_LIST_MESSAGE);
         }
+
+        /**
+         * Items of primitive storages are boxed again on every read, so they are compared by
+         * value.
+         */
+        private static boolean isSameItem(Object current, Object found) {
+            return current == found || (current instanceof Number || current instanceof Boolean) && current.equals(found);
+        }
     }
 
     // list.pop([i])
@@ -613,18 +718,29 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Child private SequenceStorageNodes.GetItemNode getItemNode;
 
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
         public Object popLast(VirtualFrame frame, PList list, @SuppressWarnings("unused") PNone none,
-                        @Cached("createDelete()") SequenceStorageNodes.DeleteNode deleteNode) {
-            SequenceStorage store = list.getSequenceStorage();
-            Object ret = getGetItemNode().execute(frame, store, -1);
-            deleteNode.execute(frame, store, -1);
-            return ret;
+                        @Shared("deleteNode") @Cached("createDelete()") SequenceStorageNodes.DeleteNode deleteNode) {
+            return pop(frame, list, -1, deleteNode);
         }
 
-        @Specialization(guards = {"!isNoValue(idx)", "!isPSlice(idx)"})
+        @Specialization(guards = {"!isNoValue(idx)", "!isPSlice(idx)"}, assumptions = "singleThreadedAssumption()")
         public Object doIndex(VirtualFrame frame, PList list, Object idx,
-                        @Cached("createDelete()") SequenceStorageNodes.DeleteNode deleteNode) {
+                        @Shared("deleteNode") @Cached("createDelete()") SequenceStorageNodes.DeleteNode deleteNode) {
+            return pop(frame, list, idx, deleteNode);
+        }
+
+        @Specialization(guards = "!isPSlice(idx)", replaces = {"popLast", "doIndex"})
+        public Object doConcurrent(VirtualFrame frame, PList list, Object idx,
+                        @Shared("deleteNode") @Cached("createDelete()") SequenceStorageNodes.DeleteNode deleteNode,
+                        @Cached ListNodes.ToIndexOrSliceNode toIndexNode) {
+            Object index = idx instanceof PNone ? -1 : toIndexNode.execute(frame, idx);
+            synchronized (list) {
+                return pop(frame, list, index, deleteNode);
+            }
+        }
+
+        private Object pop(VirtualFrame frame, PList list, Object idx, SequenceStorageNodes.DeleteNode deleteNode) {
             SequenceStorage store = list.getSequenceStorage();
             Object ret = getGetItemNode().execute(frame, store, idx);
             deleteNode.execute(frame, store, idx);
@@ -829,12 +945,20 @@ public class ListBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class ListClearNode extends PythonBuiltinNode {
 
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
         public PNone clear(PList list) {
             list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
             return PNone.NONE;
         }
 
+        @Specialization(replaces = "clear")
+        public PNone clearConcurrent(PList list) {
+            synchronized (list) {
+                list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+            }
+            return PNone.NONE;
+        }
+
     }
 
     // list.reverse()
@@ -842,12 +966,20 @@ public class ListBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class ListReverseNode extends PythonUnaryBuiltinNode {
 
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
         PList reverse(PList list) {
             list.reverse();
             return list;
         }
 
+        @Specialization(replaces = "reverse")
+        PList reverseConcurrent(PList list) {
+            synchronized (list) {
+                list.reverse();
+            }
+            return list;
+        }
+
         public static ListReverseNode create() {
             return ListReverseNodeFactory.create();
         }
@@ -858,27 +990,8 @@ public class ListBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class ListSortNode extends PythonVarargsBuiltinNode {
 
-        protected static final String SORT = "_sort";
         protected static final String KEY = "key";
-
-        protected static boolean isSortable(PList list, SequenceStorageNodes.LenNode lenNode) {
-            return lenNode.execute(list.getSequenceStorage()) > 1;
-        }
-
-        protected static boolean maySideEffect(PList list, PKeyword[] keywords) {
-            if (PGuards.isObjectStorage(list)) {
-                return true;
-            }
-            if (keywords.length > 0) {
-                if (keywords[0].getName().equals(KEY)) {
-                    return true;
-                }
-                if (keywords.length > 1 && keywords[1].getName().equals(KEY)) {
-                    return true;
-                }
-            }
-            return false;
-        }
+        protected static final String REVERSE = "reverse";
 
         public final Object sort(VirtualFrame frame, PList list) {
             return this.execute(frame, list, PythonUtils.EMPTY_OBJECT_ARRAY, PKeyword.EMPTY_KEYWORDS);
@@ -886,34 +999,25 @@ public class ListBuiltins extends PythonBuiltins {
 
         public abstract Object execute(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords);
 
-        @Specialization(guards = "!isSortable(list, lenNode)")
-        @SuppressWarnings("unused")
-        Object none(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords,
-                        @Cached SequenceStorageNodes.LenNode lenNode) {
-            return PNone.NONE;
-        }
-
-        @Specialization(guards = {"isSortable(list, lenNode)", "maySideEffect(list, keywords)"})
-        Object withKey(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords,
-                        @Cached("create(SORT)") GetAttributeNode sort,
-                        @Cached CallNode callSort,
-                        @SuppressWarnings("unused") @Cached SequenceStorageNodes.LenNode lenNode) {
-            list.getSequenceStorage().setLock();
-            try {
-                defaultSort(frame, list, arguments, keywords, sort, callSort, lenNode);
-            } finally {
-                list.getSequenceStorage().releaseLock();
+        @Specialization
+        Object sort(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords,
+                        @Cached ListNodes.SortNode sortNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            if (arguments.length != 0) {
+                throw raise(TypeError, ErrorMessages.TAKES_NO_POSITIONAL_ARGS, SORT);
             }
-            return PNone.NONE;
-        }
-
-        @Specialization(guards = {"isSortable(list, lenNode)", "!maySideEffect(list, keywords)"})
-        Object defaultSort(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords,
-                        @Cached("create(SORT)") GetAttributeNode sort,
-                        @Cached CallNode callSort,
-                        @SuppressWarnings("unused") @Cached SequenceStorageNodes.LenNode lenNode) {
-            Object sortMethod = sort.executeObject(frame, list);
-            callSort.execute(sortMethod, arguments, keywords);
+            Object key = PNone.NONE;
+            boolean reverse = false;
+            for (PKeyword keyword : keywords) {
+                if (KEY.equals(keyword.getName())) {
+                    key = keyword.getValue();
+                } else if (REVERSE.equals(keyword.getName())) {
+                    reverse = lib.isTrue(keyword.getValue(), frame);
+                } else {
+                    throw raise(TypeError, ErrorMessages.GOT_UNEXPECTED_KEYWORD_ARG, SORT, keyword.getName());
+                }
+            }
+            sortNode.execute(frame, list, key, reverse);
             return PNone.NONE;
         }
 
@@ -957,15 +1061,28 @@ public class ListBuiltins extends PythonBuiltins {
     @Builtin(name = __IADD__, minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     abstract static class IAddNode extends PythonBinaryBuiltinNode {
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
         PList extendSequence(VirtualFrame frame, PList list, Object iterable,
-                        @Cached IteratorNodes.GetLength lenNode,
-                        @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
+                        @Shared("lenNode") @Cached IteratorNodes.GetLength lenNode,
+                        @Shared("extendNode") @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
             int len = lenNode.execute(frame, iterable);
             updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), iterable, len));
             return list;
         }
 
+        @Specialization(replaces = "extendSequence")
+        PList extendConcurrent(VirtualFrame frame, PList list, Object iterable,
+                        @Shared("lenNode") @Cached IteratorNodes.GetLength lenNode,
+                        @Cached ListNodes.MaterializeIterableNode materializeNode,
+                        @Shared("extendNode") @Cached("createExtend()") SequenceStorageNodes.ExtendNode extendNode) {
+            PSequence items = materializeNode.execute(iterable);
+            int len = lenNode.execute(frame, items);
+            synchronized (list) {
+                updateSequenceStorage(list, extendNode.execute(frame, list.getSequenceStorage(), items, len));
+            }
+            return list;
+        }
+
         private static void updateSequenceStorage(PList list, SequenceStorage s) {
             if (list.getSequenceStorage() != s) {
                 list.setSequenceStorage(s);
@@ -1006,17 +1123,33 @@ public class ListBuiltins extends PythonBuiltins {
 
         public abstract PList execute(VirtualFrame frame, PList list, Object value);
 
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
         Object doGeneric(VirtualFrame frame, PList list, Object right,
-                        @Cached("createBinaryProfile()") ConditionProfile updatedProfile,
-                        @Cached("create()") SequenceStorageNodes.RepeatNode repeatNode) {
+                        @Shared("updatedProfile") @Cached("createBinaryProfile()") ConditionProfile updatedProfile,
+                        @Shared("repeatNode") @Cached("create()") SequenceStorageNodes.RepeatNode repeatNode) {
+            repeat(frame, list, right, updatedProfile, repeatNode);
+            return list;
+        }
+
+        @Specialization(replaces = "doGeneric")
+        Object doConcurrent(VirtualFrame frame, PList list, Object right,
+                        @Shared("updatedProfile") @Cached("createBinaryProfile()") ConditionProfile updatedProfile,
+                        @Shared("repeatNode") @Cached("create()") SequenceStorageNodes.RepeatNode repeatNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            // call __index__ before locking, the repeat count is then an int
+            Object times = lib.canBeIndex(right) ? lib.asSizeWithState(right, PArguments.getThreadState(frame)) : right;
+            synchronized (list) {
+                repeat(frame, list, times, updatedProfile, repeatNode);
+            }
+            return list;
+        }
 
+        private static void repeat(VirtualFrame frame, PList list, Object right, ConditionProfile updatedProfile, SequenceStorageNodes.RepeatNode repeatNode) {
             SequenceStorage store = list.getSequenceStorage();
             SequenceStorage updated = repeatNode.execute(frame, store, right);
             if (updatedProfile.profile(store != updated)) {
                 list.setSequenceStorage(updated);
             }
-            return list;
         }
 
         protected IMulNode createIMulNode() {
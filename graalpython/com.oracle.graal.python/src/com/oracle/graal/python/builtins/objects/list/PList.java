@@ -33,6 +33,7 @@ import com.oracle.graal.python.nodes.interop.PForeignToPTypeNode;
 import com.oracle.graal.python.nodes.literal.ListLiteralNode;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.BasicSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -51,6 +52,13 @@ import com.oracle.truffle.api.source.SourceSection;
 @ExportLibrary(InteropLibrary.class)
 public final class PList extends PSequence {
     private final ListLiteralNode origin;
+    /**
+     * Once multiple threads run, the storage is only updated while holding the monitor of this
+     * list, but it is read without locking. Readers read it once per operation, so an update never
+     * replaces the internal array of a storage by a shorter one or makes the length cover items
+     * that are not yet in place. Updates that would do so, such as slice assignments, work on a
+     * copy that then replaces the storage.
+     */
     private SequenceStorage store;
 
     public PList(Object cls, Shape instanceShape, SequenceStorage store) {
@@ -94,6 +102,9 @@ public final class PList extends PSequence {
     }
 
     public final void reverse() {
+        if (store instanceof BasicSequenceStorage) {
+            ((BasicSequenceStorage) store).detachSharedArray();
+        }
         store.reverse();
     }
 
@@ -0,0 +1,578 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.list;
+
+/**
+ * The merge sort used by {@code list.sort}, ported from CPython's {@code listobject.c} (see
+ * {@code listsort.txt} in lib-graalpython for a description of the algorithm). Subclasses only
+ * provide the comparison, which has the semantics of Python's {@code <}.
+ *
+ * The array of keys is sorted and all moves are mirrored in the (optional) array of values, so
+ * that a key function is called only once per element. If a comparison throws, the arrays are
+ * left as a permutation of their original contents, just like in CPython.
+ */
+public abstract class TimSort {
+    private static final int MIN_GALLOP = 7;
+    private static final int MIN_MERGE = 64;
+    private static final int MAX_MERGE_PENDING = 85;
+
+    private Object[] keys;
+    private Object[] values;
+    private Object[] tmpKeys;
+    private Object[] tmpValues;
+    private int minGallop;
+
+    private final int[] runBase = new int[MAX_MERGE_PENDING];
+    private final int[] runLen = new int[MAX_MERGE_PENDING];
+    private int stackSize;
+
+    protected abstract boolean lessThan(Object a, Object b);
+
+    /**
+     * Sorts the first {@code length} elements of {@code keysArray} and applies the same
+     * permutation to {@code valuesArray} if it is not {@code null}.
+     */
+    public final void sort(Object[] keysArray, Object[] valuesArray, int length) {
+        keys = keysArray;
+        values = valuesArray;
+        minGallop = MIN_GALLOP;
+        stackSize = 0;
+        try {
+            sort(length);
+        } finally {
+            keys = null;
+            values = null;
+            tmpKeys = null;
+            tmpValues = null;
+        }
+    }
+
+    private void sort(int length) {
+        if (length < 2) {
+            return;
+        }
+        if (length < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(0, length);
+            binarySort(0, length, initRunLen);
+            return;
+        }
+        int minRun = minRunLength(length);
+        int lo = 0;
+        int remaining = length;
+        do {
+            int n = countRunAndMakeAscending(lo, length);
+            if (n < minRun) {
+                int force = remaining <= minRun ? remaining : minRun;
+                binarySort(lo, lo + force, lo + n);
+                n = force;
+            }
+            runBase[stackSize] = lo;
+            runLen[stackSize] = n;
+            stackSize++;
+            mergeCollapse();
+            lo += n;
+            remaining -= n;
+        } while (remaining != 0);
+        mergeForceCollapse();
+    }
+
+    private static int minRunLength(int length) {
+        int n = length;
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        if (values != null) {
+            values[to] = values[from];
+        }
+    }
+
+    private void copy(Object[] srcKeys, Object[] srcValues, int from, Object[] dstKeys, Object[] dstValues, int to, int n) {
+        System.arraycopy(srcKeys, from, dstKeys, to, n);
+        if (values != null) {
+            System.arraycopy(srcValues, from, dstValues, to, n);
+        }
+    }
+
+    private void reverseRange(int lo, int hi) {
+        for (int i = lo, j = hi - 1; i < j; i++, j--) {
+            Object t = keys[i];
+            keys[i] = keys[j];
+            keys[j] = t;
+            if (values != null) {
+                t = values[i];
+                values[i] = values[j];
+                values[j] = t;
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the run starting at {@code lo}. A strictly descending run is
+     * reversed, so the run is ascending afterwards.
+     */
+    private int countRunAndMakeAscending(int lo, int hi) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+        if (lessThan(keys[runHi++], keys[lo])) {
+            while (runHi < hi && lessThan(keys[runHi], keys[runHi - 1])) {
+                runHi++;
+            }
+            reverseRange(lo, runHi);
+        } else {
+            while (runHi < hi && !lessThan(keys[runHi], keys[runHi - 1])) {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    /** Sorts {@code [lo, hi)} by binary insertion, where {@code [lo, start)} is already sorted. */
+    private void binarySort(int lo, int hi, int start) {
+        for (int i = start == lo ? start + 1 : start; i < hi; i++) {
+            Object pivot = keys[i];
+            Object pivotValue = values != null ? values[i] : null;
+            int left = lo;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (lessThan(pivot, keys[mid])) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            int n = i - left;
+            copy(keys, values, left, keys, values, left + 1, n);
+            keys[left] = pivot;
+            if (values != null) {
+                values[left] = pivotValue;
+            }
+        }
+    }
+
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1] || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                if (runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                n--;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeAt(int i) {
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i + 1];
+        int len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // elements of run 1 that are not greater than the first of run 2 are already in place
+        int k = gallopRight(keys[base2], keys, base1, len1, 0);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) {
+            return;
+        }
+        // elements of run 2 that are not less than the last of run 1 are already in place
+        len2 = gallopLeft(keys[base1 + len1 - 1], keys, base2, len2, len2 - 1);
+        if (len2 == 0) {
+            return;
+        }
+        if (len1 <= len2) {
+            mergeLo(base1, len1, base2, len2);
+        } else {
+            mergeHi(base1, len1, base2, len2);
+        }
+    }
+
+    /**
+     * Returns the leftmost index in the sorted range {@code a[base, base + len)} at which
+     * {@code key} could be inserted, starting the search at {@code base + hint}.
+     */
+    private int gallopLeft(Object key, Object[] a, int base, int len, int hint) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (lessThan(a[base + hint], key)) {
+            // gallop right until a[base + hint + lastOfs] < key <= a[base + hint + ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && lessThan(a[base + hint + ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            // gallop left until a[base + hint - ofs] < key <= a[base + hint - lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !lessThan(a[base + hint - ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int tmp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - tmp;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (lessThan(a[base + m], key)) {
+                lastOfs = m + 1;
+            } else {
+                ofs = m;
+            }
+        }
+        return ofs;
+    }
+
+    /**
+     * Like {@link #gallopLeft}, but returns the rightmost index, i.e., the position after all
+     * elements equal to {@code key}.
+     */
+    private int gallopRight(Object key, Object[] a, int base, int len, int hint) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (lessThan(key, a[base + hint])) {
+            // gallop left until a[base + hint - ofs] <= key < a[base + hint - lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && lessThan(key, a[base + hint - ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int tmp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - tmp;
+        } else {
+            // gallop right until a[base + hint + lastOfs] <= key < a[base + hint + ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !lessThan(key, a[base + hint + ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (lessThan(key, a[base + m])) {
+                ofs = m;
+            } else {
+                lastOfs = m + 1;
+            }
+        }
+        return ofs;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (tmpKeys == null || tmpKeys.length < minCapacity) {
+            tmpKeys = new Object[minCapacity];
+            tmpValues = values != null ? new Object[minCapacity] : null;
+        }
+    }
+
+    /**
+     * Merges two adjacent runs in place, where {@code len1 <= len2}. The first run is copied to
+     * the temporary arrays and the merge proceeds from left to right.
+     */
+    private void mergeLo(int base1, int initialLen1, int base2, int initialLen2) {
+        int len1 = initialLen1;
+        int len2 = initialLen2;
+        Object[] a = keys;
+        ensureCapacity(len1);
+        Object[] tmp = tmpKeys;
+        copy(a, values, base1, tmp, tmpValues, 0, len1);
+
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+        move(cursor2++, dest++);
+        if (--len2 == 0) {
+            copy(tmp, tmpValues, cursor1, a, values, dest, len1);
+            return;
+        }
+        int gallop = minGallop;
+        // the remaining elements of the first run are always tmp[cursor1, cursor1 + len1) and
+        // the hole for them is a[dest, dest + len1), so the arrays can be restored on failure
+        try {
+            outer: while (len1 > 1) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (lessThan(a[cursor2], tmp[cursor1])) {
+                        move(cursor2++, dest++);
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest] = tmp[cursor1];
+                        if (values != null) {
+                            values[dest] = tmpValues[cursor1];
+                        }
+                        dest++;
+                        cursor1++;
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        copy(tmp, tmpValues, cursor1, a, values, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    move(cursor2++, dest++);
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        copy(a, values, cursor2, a, values, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest] = tmp[cursor1];
+                    if (values != null) {
+                        values[dest] = tmpValues[cursor1];
+                    }
+                    dest++;
+                    cursor1++;
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (gallop < 0) {
+                    gallop = 0;
+                }
+                gallop += 2;
+            }
+            minGallop = gallop < 1 ? 1 : gallop;
+        } finally {
+            if (len1 == 1 && len2 > 0) {
+                // the last element of the first run belongs at the end
+                copy(a, values, cursor2, a, values, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+                if (values != null) {
+                    values[dest + len2] = tmpValues[cursor1];
+                }
+            } else {
+                copy(tmp, tmpValues, cursor1, a, values, dest, len1);
+            }
+        }
+    }
+
+    /**
+     * Merges two adjacent runs in place, where {@code len1 >= len2}. The second run is copied to
+     * the temporary arrays and the merge proceeds from right to left.
+     */
+    private void mergeHi(int base1, int initialLen1, int base2, int initialLen2) {
+        int len1 = initialLen1;
+        int len2 = initialLen2;
+        Object[] a = keys;
+        ensureCapacity(len2);
+        Object[] tmp = tmpKeys;
+        copy(a, values, base2, tmp, tmpValues, 0, len2);
+
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = len2 - 1;
+        int dest = base2 + len2 - 1;
+        move(cursor1--, dest--);
+        if (--len1 == 0) {
+            copy(tmp, tmpValues, 0, a, values, dest - (len2 - 1), len2);
+            return;
+        }
+        int gallop = minGallop;
+        // the remaining elements of the second run are always tmp[0, len2) and the hole for
+        // them is a(dest - len2, dest], so the arrays can be restored on failure
+        try {
+            outer: while (len2 > 1) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (lessThan(tmp[cursor2], a[cursor1])) {
+                        move(cursor1--, dest--);
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest] = tmp[cursor2];
+                        if (values != null) {
+                            values[dest] = tmpValues[cursor2];
+                        }
+                        dest--;
+                        cursor2--;
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        copy(a, values, cursor1 + 1, a, values, dest + 1, count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest] = tmp[cursor2];
+                    if (values != null) {
+                        values[dest] = tmpValues[cursor2];
+                    }
+                    dest--;
+                    cursor2--;
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        copy(tmp, tmpValues, cursor2 + 1, a, values, dest + 1, count2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    move(cursor1--, dest--);
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (gallop < 0) {
+                    gallop = 0;
+                }
+                gallop += 2;
+            }
+            minGallop = gallop < 1 ? 1 : gallop;
+        } finally {
+            if (len2 == 1 && len1 > 0) {
+                // the first element of the second run belongs at the start
+                dest -= len1;
+                cursor1 -= len1;
+                copy(a, values, cursor1 + 1, a, values, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+                if (values != null) {
+                    values[dest] = tmpValues[cursor2];
+                }
+            } else {
+                copy(tmp, tmpValues, 0, a, values, dest - (len2 - 1), len2);
+            }
+        }
+    }
+}
@@ -58,8 +58,7 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.SeekableByteChannel;
+import java.math.BigInteger;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
@@ -67,18 +66,17 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
-import com.oracle.graal.python.builtins.objects.bytes.BytesBuiltins.BytesLikeNoGeneralizationNode;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
-import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
-import com.oracle.graal.python.builtins.objects.range.RangeNodes.LenOfRangeNode;
+import com.oracle.graal.python.builtins.objects.slice.PIntSlice;
+import com.oracle.graal.python.builtins.objects.slice.PObjectSlice;
 import com.oracle.graal.python.builtins.objects.slice.PSlice;
-import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
@@ -87,21 +85,12 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
-import com.oracle.graal.python.nodes.subscript.SliceLiteralNode.CoerceToIntSlice;
-import com.oracle.graal.python.nodes.subscript.SliceLiteralNode.ComputeIndices;
+import com.oracle.graal.python.nodes.subscript.SliceLiteralNode.SliceCastToToBigInt;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToByteNode;
 import com.oracle.graal.python.nodes.util.CastToJavaLongLossyNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes;
-import com.oracle.graal.python.nodes.util.ChannelNodes.ReadByteFromChannelNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.ReadFromChannelNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.WriteByteToChannelNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.WriteToChannelNode;
-import com.oracle.graal.python.runtime.exception.PythonErrorType;
-import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
-import com.oracle.graal.python.util.OverflowException;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -119,60 +108,110 @@ import com.oracle.truffle.api.profiles.ConditionProfile;
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PMMap)
 public class MMapBuiltins extends PythonBuiltins {
 
-    protected interface MMapBaseNode {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return MMapBuiltinsFactory.getFactories();
     }
 
-    protected interface ByteReadingNode extends MMapBaseNode {
-
-        default ReadByteFromChannelNode createValueError(PRaiseNode raise) {
-            return ReadByteFromChannelNode.create(() -> new ChannelNodes.ReadByteErrorHandler() {
-
-                @Override
-                public int execute(Object channel) {
-                    throw raise.raise(PythonBuiltinClassType.ValueError, ErrorMessages.READ_BYTE_OUT_OF_RANGE);
-                }
-            });
+    static void checkValid(PythonBuiltinBaseNode node, PMMap self) {
+        if (self.isClosed()) {
+            throw node.raise(PythonBuiltinClassType.ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
         }
+    }
 
-        default ReadByteFromChannelNode createIndexError(PRaiseNode raise) {
-            return ReadByteFromChannelNode.create(() -> new ChannelNodes.ReadByteErrorHandler() {
-
-                @Override
-                public int execute(Object channel) {
-                    throw raise.raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
-                }
-            });
+    static void checkWritable(PythonBuiltinBaseNode node, PMMap self) {
+        checkValid(node, self);
+        if (self.isReadonly()) {
+            throw node.raise(PythonBuiltinClassType.TypeError, ErrorMessages.MMAP_CANT_MODIFY_READONLY);
+        }
+    }
 
+    /**
+     * The indices of a slice of a map. Maps may be larger than 2GB, so unlike {@link PSlice.SliceInfo},
+     * these are {@code long}s.
+     */
+    static final class MMapSlice {
+        final long start;
+        final long step;
+        final long length;
+
+        MMapSlice(long start, long step, long length) {
+            this.start = start;
+            this.step = step;
+            this.length = length;
         }
     }
 
-    protected interface ByteWritingNode extends MMapBaseNode {
+    /**
+     * Computes the indices of a slice like {@code PySlice_GetIndicesEx} but in {@code long}
+     * arithmetic.
+     */
+    abstract static class ComputeMMapSliceNode extends PNodeWithContext {
+        /* slice components beyond this are clamped, which keeps 'component + length' exact */
+        private static final long COMPONENT_LIMIT = 1L << 62;
 
-        default WriteByteToChannelNode createValueError(PRaiseNode raise) {
-            return WriteByteToChannelNode.create(() -> new ChannelNodes.WriteByteErrorHandler() {
+        abstract MMapSlice execute(PSlice slice, long length);
 
-                @Override
-                public void execute(Object channel, byte b) {
-                    throw raise.raise(PythonBuiltinClassType.ValueError, ErrorMessages.WRITE_BYTE_OUT_OF_RANGE);
-                }
-            });
+        @Specialization
+        static MMapSlice doInt(PIntSlice slice, long length,
+                        @Shared("raise") @Cached PRaiseNode raiseNode) {
+            return compute(slice.getStart(), slice.getStop(), slice.getStep(), length, raiseNode);
         }
 
-        default WriteByteToChannelNode createIndexError(PRaiseNode raise) {
-            return WriteByteToChannelNode.create(() -> new ChannelNodes.WriteByteErrorHandler() {
+        @Specialization
+        static MMapSlice doObject(PObjectSlice slice, long length,
+                        @Cached SliceCastToToBigInt castStart,
+                        @Cached SliceCastToToBigInt castStop,
+                        @Cached SliceCastToToBigInt castStep,
+                        @Shared("raise") @Cached PRaiseNode raiseNode) {
+            return compute(castStart.execute(slice.getStart()), castStop.execute(slice.getStop()), castStep.execute(slice.getStep()), length, raiseNode);
+        }
 
-                @Override
-                public void execute(Object channel, byte b) {
-                    throw raise.raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
-                }
-            });
+        private static MMapSlice compute(Object startObj, Object stopObj, Object stepObj, long length, PRaiseNode raiseNode) {
+            long step = stepObj == PNone.NONE ? 1 : toLong(stepObj);
+            if (step == 0) {
+                throw raiseNode.raise(PythonBuiltinClassType.ValueError, ErrorMessages.SLICE_STEP_CANNOT_BE_ZERO);
+            }
+            long lower = step < 0 ? -1 : 0;
+            long upper = step < 0 ? length - 1 : length;
+            long start = step < 0 ? upper : lower;
+            if (startObj != PNone.NONE) {
+                start = clamp(toLong(startObj), length, lower, upper);
+            }
+            long stop = step < 0 ? lower : upper;
+            if (stopObj != PNone.NONE) {
+                stop = clamp(toLong(stopObj), length, lower, upper);
+            }
+            long sliceLength;
+            if (step > 0) {
+                sliceLength = start < stop ? (stop - start - 1) / step + 1 : 0;
+            } else {
+                sliceLength = stop < start ? (start - stop - 1) / -step + 1 : 0;
+            }
+            return new MMapSlice(start, step, sliceLength);
+        }
 
+        private static long clamp(long idx, long length, long lower, long upper) {
+            if (idx < 0) {
+                return Math.max(idx + length, lower);
+            }
+            return Math.min(idx, upper);
         }
-    }
 
-    @Override
-    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return MMapBuiltinsFactory.getFactories();
+        private static long toLong(Object obj) {
+            if (obj instanceof Integer) {
+                return (int) obj;
+            }
+            return toLongClamped((BigInteger) obj);
+        }
+
+        @TruffleBoundary
+        private static long toLongClamped(BigInteger value) {
+            if (value.bitLength() >= 63) {
+                return value.signum() < 0 ? -COMPONENT_LIMIT : COMPONENT_LIMIT;
+            }
+            return Math.max(-COMPONENT_LIMIT, Math.min(COMPONENT_LIMIT, value.longValue()));
+        }
     }
 
     @Builtin(name = __ADD__, minNumOfPositionalArgs = 2)
@@ -233,7 +272,7 @@ public class MMapBuiltins extends PythonBuiltins {
 
     @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
-    public abstract static class GetItemNode extends PythonBinaryBuiltinNode implements ByteReadingNode {
+    public abstract static class GetItemNode extends PythonBinaryBuiltinNode {
 
         public abstract Object executeObject(PMMap self, Object idxObj);
 
@@ -243,132 +282,87 @@ public class MMapBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "!isPSlice(idxObj)", limit = "1")
         int doSingle(PMMap self, Object idxObj,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createIndexError(raise)") ReadByteFromChannelNode readByteNode,
-                        @CachedLibrary("idxObj") PythonObjectLibrary libIdx) {
-
-            try {
-                long i = libIdx.asJavaLong(idxObj);
-                long len = self.getLength();
-                SeekableByteChannel channel = self.getChannel();
-                long idx = i < 0 ? i + len : i;
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, idx);
-                int res = readByteNode.execute(channel) & 0xFF;
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
-                return res;
-
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
+                        @CachedLibrary("idxObj") PythonObjectLibrary libIdx,
+                        @Cached("createBinaryProfile()") ConditionProfile outOfRangeProfile) {
+            checkValid(this, self);
+            long i = libIdx.asJavaLong(idxObj);
+            long len = self.getLength();
+            long idx = i < 0 ? i + len : i;
+            if (outOfRangeProfile.profile(idx < 0 || idx >= len)) {
+                throw raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
             }
+            return self.getByte(idx) & 0xFF;
         }
 
         @Specialization
         Object doSlice(PMMap self, PSlice idx,
-                        @Cached("create()") ReadFromChannelNode readNode,
-                        @Cached CoerceToIntSlice sliceCast,
-                        @Cached ComputeIndices compute,
-                        @Cached LenOfRangeNode sliceLen) {
-            try {
-                long len = self.getLength();
-                SliceInfo info = compute.execute(sliceCast.execute(idx), PInt.intValueExact(len));
-                SeekableByteChannel channel = self.getChannel();
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, info.start);
-                ByteSequenceStorage s = readNode.execute(channel, sliceLen.len(info));
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
-                return factory().createBytes(s);
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
-            } catch (OverflowException e) {
-                throw raise(PythonBuiltinClassType.OverflowError, e);
+                        @Cached ComputeMMapSliceNode compute,
+                        @Cached("createBinaryProfile()") ConditionProfile stepOneProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile tooLargeProfile) {
+            checkValid(this, self);
+            MMapSlice info = compute.execute(idx, self.getLength());
+            if (tooLargeProfile.profile(info.length > Integer.MAX_VALUE)) {
+                // the result is a bytes object, which is backed by a single Java array
+                throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.MMAP_REGION_TOO_LARGE, info.length);
             }
+            int len = (int) info.length;
+            byte[] result = new byte[len];
+            if (stepOneProfile.profile(info.step == 1)) {
+                self.readBytes(info.start, result, 0, len);
+            } else {
+                long j = info.start;
+                for (int i = 0; i < len; i++, j += info.step) {
+                    result[i] = self.getByte(j);
+                }
+            }
+            return factory().createBytes(result);
         }
     }
 
     @Builtin(name = SpecialMethodNames.__SETITEM__, minNumOfPositionalArgs = 3)
     @GenerateNodeFactory
-    abstract static class SetItemNode extends PythonTernaryBuiltinNode implements ByteWritingNode {
+    abstract static class SetItemNode extends PythonTernaryBuiltinNode {
 
         @Specialization(guards = "!isPSlice(idxObj)", limit = "1")
         PNone doSingle(PMMap self, Object idxObj, Object val,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createIndexError(raise)") WriteByteToChannelNode writeByteNode,
                         @CachedLibrary("idxObj") PythonObjectLibrary libIdx,
                         @Cached("createCoerce()") CastToByteNode castToByteNode,
                         @Cached("createBinaryProfile()") ConditionProfile outOfRangeProfile) {
+            checkWritable(this, self);
+            long i = libIdx.asJavaLong(idxObj);
+            long len = self.getLength();
+            long idx = i < 0 ? i + len : i;
 
-            try {
-                long i = libIdx.asJavaLong(idxObj);
-                long len = self.getLength();
-                SeekableByteChannel channel = self.getChannel();
-                long idx = i < 0 ? i + len : i;
-
-                if (outOfRangeProfile.profile(idx < 0 || idx >= len)) {
-                    throw raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
-                }
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, idx);
-                writeByteNode.execute(channel, castToByteNode.execute(null, val));
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
-                return PNone.NONE;
-
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
+            if (outOfRangeProfile.profile(idx < 0 || idx >= len)) {
+                throw raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
             }
+            self.setByte(idx, castToByteNode.execute(null, val));
+            return PNone.NONE;
         }
 
         @Specialization
         PNone doSlice(PMMap self, PSlice idx, PBytesLike val,
-                        @Cached("create()") WriteToChannelNode writeNode,
-                        @Cached("createBinaryProfile()") ConditionProfile invalidStepProfile,
-                        @Cached CoerceToIntSlice sliceCast,
-                        @Cached ComputeIndices compute,
-                        @Cached LenOfRangeNode sliceLen) {
-
-            try {
-                long len = self.getLength();
-                SliceInfo info = compute.execute(sliceCast.execute(idx), PInt.intValueExact(len));
-                SeekableByteChannel channel = self.getChannel();
-
-                if (invalidStepProfile.profile(info.step != 1)) {
-                    throw raise(PythonBuiltinClassType.SystemError, ErrorMessages.STEP_1_NOT_SUPPORTED);
+                        @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytes,
+                        @Cached SequenceStorageNodes.LenNode lenNode,
+                        @Cached("createBinaryProfile()") ConditionProfile stepOneProfile,
+                        @Cached ComputeMMapSliceNode compute) {
+            checkWritable(this, self);
+            MMapSlice info = compute.execute(idx, self.getLength());
+            SequenceStorage storage = val.getSequenceStorage();
+            int len = lenNode.execute(storage);
+            if (info.length != len) {
+                throw raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_SLICE_ASSIGNMENT_WRONG_SIZE);
+            }
+            byte[] data = getBytes.execute(storage);
+            if (stepOneProfile.profile(info.step == 1)) {
+                self.writeBytes(info.start, data, 0, len);
+            } else {
+                long j = info.start;
+                for (int i = 0; i < len; i++, j += info.step) {
+                    self.setByte(j, data[i]);
                 }
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, info.start);
-                writeNode.execute(channel, val.getSequenceStorage(), sliceLen.len(info));
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
-                return PNone.NONE;
-
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
-            } catch (OverflowException e) {
-                throw raise(PythonBuiltinClassType.OverflowError, e);
             }
+            return PNone.NONE;
         }
 
         protected static CastToByteNode createCoerce() {
@@ -411,20 +405,15 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class CloseNode extends PythonUnaryBuiltinNode {
 
         @Specialization
-        static PNone doClose(PMMap self,
-                        @Cached PRaiseNode raiseNode) {
+        PNone doClose(VirtualFrame frame, PMMap self) {
             try {
-                close(self);
+                self.close();
             } catch (IOException e) {
-                throw raiseNode.raise(PythonErrorType.BufferError, ErrorMessages.CANNOT_CLOSE_EXPORTED_PTRS_EXIST);
+                // flushing the changes or closing the file failed
+                throw raiseOSError(frame, OSErrorEnum.EIO, e);
             }
             return PNone.NONE;
         }
-
-        @TruffleBoundary
-        private static void close(PMMap self) throws IOException {
-            self.getChannel().close();
-        }
     }
 
     @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
@@ -432,9 +421,8 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class ClosedNode extends PythonUnaryBuiltinNode {
 
         @Specialization
-        @TruffleBoundary
         static boolean close(PMMap self) {
-            return !self.getChannel().isOpen();
+            return self.isClosed();
         }
     }
 
@@ -450,28 +438,29 @@ public class MMapBuiltins extends PythonBuiltins {
 
     @Builtin(name = "tell", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
-    abstract static class TellNode extends PythonBuiltinNode implements ByteReadingNode {
+    abstract static class TellNode extends PythonBuiltinNode {
         @Specialization
-        long readline(VirtualFrame frame, PMMap self) {
-            try {
-                SeekableByteChannel channel = self.getChannel();
-                return PMMap.position(channel) - self.getOffset();
-            } catch (IOException e) {
-                throw raiseOSError(frame, OSErrorEnum.EIO, e);
-            }
+        long tell(PMMap self) {
+            checkValid(this, self);
+            return self.getPos();
         }
     }
 
     @Builtin(name = "read_byte", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    abstract static class ReadByteNode extends PythonUnaryBuiltinNode implements ByteReadingNode {
+    abstract static class ReadByteNode extends PythonUnaryBuiltinNode {
 
         @Specialization
-        static int readByte(PMMap self,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createValueError(raise)") ReadByteFromChannelNode readByteNode) {
-            return readByteNode.execute(self.getChannel());
+        int readByte(PMMap self,
+                        @Cached("createBinaryProfile()") ConditionProfile outOfRangeProfile) {
+            checkValid(this, self);
+            long pos = self.getPos();
+            if (outOfRangeProfile.profile(pos >= self.getLength())) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.READ_BYTE_OUT_OF_RANGE);
+            }
+            self.setPos(pos + 1);
+            return self.getByte(pos) & 0xFF;
         }
     }
 
@@ -481,63 +470,51 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class ReadNode extends PythonBuiltinNode {
 
         @Specialization
-        PBytes readUnlimited(PMMap self, @SuppressWarnings("unused") PNone n,
-                        @Cached("create()") ReadFromChannelNode readChannelNode) {
+        PBytes readUnlimited(PMMap self, @SuppressWarnings("unused") PNone n) {
             // intentionally accept NO_VALUE and NONE; both mean that we read unlimited amount of
             // bytes
-            ByteSequenceStorage res = readChannelNode.execute(self.getChannel(), ReadFromChannelNode.MAX_READ);
-            return factory().createBytes(res);
+            return doRead(self, Long.MAX_VALUE);
         }
 
         @Specialization(guards = "!isNoValue(n)", limit = "getCallSiteInlineCacheMaxDepth()")
         PBytes read(VirtualFrame frame, PMMap self, Object n,
-                        @Cached("create()") ReadFromChannelNode readChannelNode,
                         @CachedLibrary("n") PythonObjectLibrary lib,
                         @Cached("createBinaryProfile()") ConditionProfile negativeProfile) {
             int nread = lib.asSizeWithState(n, PArguments.getThreadState(frame));
             if (negativeProfile.profile(nread < 0)) {
-                return readUnlimited(self, PNone.NO_VALUE, readChannelNode);
+                return readUnlimited(self, PNone.NO_VALUE);
             }
-            ByteSequenceStorage res = readChannelNode.execute(self.getChannel(), nread);
-            return factory().createBytes(res);
+            return doRead(self, nread);
         }
 
+        private PBytes doRead(PMMap self, long n) {
+            checkValid(this, self);
+            long pos = self.getPos();
+            int nread = (int) Math.min(n, Math.min(self.getLength() - pos, Integer.MAX_VALUE));
+            byte[] result = new byte[nread];
+            self.readBytes(pos, result, 0, nread);
+            self.setPos(pos + nread);
+            return factory().createBytes(result);
+        }
     }
 
     @Builtin(name = "readline", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
-    abstract static class ReadlineNode extends PythonUnaryBuiltinNode implements ByteReadingNode {
+    abstract static class ReadlineNode extends PythonUnaryBuiltinNode {
 
         @Specialization
         Object readline(PMMap self) {
-            try {
-                return factory().createBytes(doReadline(self.getChannel()));
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
-            }
-        }
-
-        @TruffleBoundary
-        static ByteSequenceStorage doReadline(SeekableByteChannel channel) throws IOException {
-            ByteBuffer buf = ByteBuffer.allocate(4096);
-            ByteSequenceStorage res = new ByteSequenceStorage(16);
-            // search for newline char
-            outer: while (channel.read(buf) > 0) {
-                buf.flip();
-                while (buf.hasRemaining()) {
-                    byte b = buf.get();
-                    // CPython really tests for '\n' only
-                    if (b != (byte) '\n') {
-                        SequenceStorageNodes.AppendNode.getUncached().execute(res, b, BytesLikeNoGeneralizationNode.SUPPLIER);
-                    } else {
-                        // recover correct position (i.e. number of remaining bytes in buffer)
-                        PMMap.position(channel, PMMap.position(channel) - buf.remaining() - 1);
-                        break outer;
-                    }
-                }
-                buf.clear();
-            }
-            return res;
+            checkValid(this, self);
+            long pos = self.getPos();
+            long len = self.getLength();
+            long eol = self.find((byte) '\n', pos, len);
+            // CPython really tests for '\n' only and includes it in the result
+            long end = eol < 0 ? len : eol + 1;
+            int nread = (int) Math.min(end - pos, Integer.MAX_VALUE);
+            byte[] result = new byte[nread];
+            self.readBytes(pos, result, 0, nread);
+            self.setPos(pos + nread);
+            return factory().createBytes(result);
         }
     }
 
@@ -546,30 +523,39 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class WriteNode extends PythonBinaryBuiltinNode {
 
         @Specialization
-        static int writeBytesLike(PMMap self, PBytesLike bytesLike,
-                        @Cached("create()") WriteToChannelNode writeNode) {
-            SeekableByteChannel channel = self.getChannel();
-            return writeNode.execute(channel, bytesLike.getSequenceStorage(), Integer.MAX_VALUE);
+        int writeBytesLike(PMMap self, PBytesLike bytesLike,
+                        @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytes,
+                        @Cached SequenceStorageNodes.LenNode lenNode) {
+            SequenceStorage storage = bytesLike.getSequenceStorage();
+            return doWrite(self, getBytes.execute(storage), lenNode.execute(storage));
         }
 
         @Specialization(guards = "bufferLib.isBuffer(buffer)", limit = "3")
-        static int writeBuffer(PMMap self, Object buffer,
-                        @CachedLibrary("buffer") PythonObjectLibrary bufferLib,
-                        @Cached("create()") WriteToChannelNode writeNode) {
-            byte[] data;
+        int writeBuffer(PMMap self, Object buffer,
+                        @CachedLibrary("buffer") PythonObjectLibrary bufferLib) {
             try {
-                data = bufferLib.getBufferBytes(buffer);
+                return doWrite(self, bufferLib.getBufferBytes(buffer), bufferLib.getBufferLength(buffer));
             } catch (UnsupportedMessageException e) {
                 throw CompilerDirectives.shouldNotReachHere();
             }
-            return writeNode.execute(self.getChannel(), new ByteSequenceStorage(data), Integer.MAX_VALUE);
+        }
+
+        private int doWrite(PMMap self, byte[] data, int len) {
+            checkWritable(this, self);
+            long pos = self.getPos();
+            if (pos > self.getLength() - len) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.DATA_OUT_OF_RANGE);
+            }
+            self.writeBytes(pos, data, 0, len);
+            self.setPos(pos + len);
+            return len;
         }
     }
 
     @Builtin(name = "seek", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    abstract static class SeekNode extends PythonBuiltinNode implements MMapBaseNode {
+    abstract static class SeekNode extends PythonBuiltinNode {
         @Specialization(guards = "isNoValue(how)")
         Object seek(VirtualFrame frame, PMMap self, long dist, @SuppressWarnings("unused") PNone how,
                         @Shared("errorProfile") @Cached BranchProfile errorProfile,
@@ -581,122 +567,68 @@ public class MMapBuiltins extends PythonBuiltins {
         Object seek(VirtualFrame frame, PMMap self, long dist, Object how,
                         @Shared("errorProfile") @Cached BranchProfile errorProfile,
                         @Shared("library") @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
-            try {
-                SeekableByteChannel channel = self.getChannel();
-                long size;
-                if (self.getLength() == 0) {
-                    size = PMMap.size(channel) - self.getOffset();
-                } else {
-                    size = self.getLength();
-                }
-                long where;
-                int ihow = lib.asSizeWithState(how, PArguments.getThreadState(frame));
-                switch (ihow) {
-                    case 0: /* relative to start */
-                        where = dist;
-                        break;
-                    case 1: /* relative to current position */
-                        where = PMMap.position(channel) + dist;
-                        break;
-                    case 2: /* relative to end */
-                        where = size + dist;
-                        break;
-                    default:
-                        errorProfile.enter();
-                        throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNKNOWN_S_TYPE, "seek");
-                }
-                if (where > size || where < 0) {
+            checkValid(this, self);
+            long size = self.getLength();
+            long where;
+            int ihow = lib.asSizeWithState(how, PArguments.getThreadState(frame));
+            switch (ihow) {
+                case 0: /* relative to start */
+                    where = dist;
+                    break;
+                case 1: /* relative to current position */
+                    where = self.getPos() + dist;
+                    break;
+                case 2: /* relative to end */
+                    where = size + dist;
+                    break;
+                default:
                     errorProfile.enter();
-                    throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.SEEK_OUT_OF_RANGE);
-                }
-                PMMap.position(channel, where);
-                return PNone.NONE;
-            } catch (IOException e) {
+                    throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNKNOWN_S_TYPE, "seek");
+            }
+            if (where > size || where < 0) {
                 errorProfile.enter();
-                throw raiseOSError(frame, OSErrorEnum.EIO, e);
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.SEEK_OUT_OF_RANGE);
             }
+            self.setPos(where);
+            return PNone.NONE;
         }
     }
 
     @Builtin(name = "find", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 4)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    public abstract static class FindNode extends PythonBuiltinNode implements ByteReadingNode {
-
-        @Child private SequenceStorageNodes.GetItemNode getRightItemNode;
+    public abstract static class FindNode extends PythonBuiltinNode {
 
         public abstract long execute(VirtualFrame frame, PMMap bytes, Object sub, Object starting, Object ending);
 
         @Specialization
-        long find(VirtualFrame frame, PMMap primary, PBytesLike sub, Object starting, Object ending,
+        long find(PMMap primary, PBytesLike sub, Object starting, Object ending,
                         @Shared("castLong") @Cached CastToJavaLongLossyNode castLong,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createValueError(raise)") ReadByteFromChannelNode readByteNode) {
-            try {
-                SeekableByteChannel channel = primary.getChannel();
-                long len1 = PMMap.size(channel);
-
-                SequenceStorage needle = sub.getSequenceStorage();
-                int len2 = needle.length();
-
-                long s = castToLong(castLong, starting, 0);
-                long e = castToLong(castLong, ending, len1);
-
-                long start = s < 0 ? s + len1 : s;
-                long end = e < 0 ? e + len1 : e;
-
-                if (start >= len1 || len1 < len2) {
-                    return -1;
-                } else if (end > len1) {
-                    end = len1;
-                }
-
-                // TODO implement a more efficient algorithm
-                outer: for (long i = start; i < end; i++) {
-                    // TODO(fa) don't seek but use circular buffer
-                    PMMap.position(channel, i);
-                    for (int j = 0; j < len2; j++) {
-                        int hb = readByteNode.execute(channel);
-                        int nb = getGetRightItemNode().executeInt(frame, needle, j);
-                        if (nb != hb || i + j >= end) {
-                            continue outer;
-                        }
-                    }
-                    return i;
-                }
-                return -1;
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
-            }
+                        @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytes,
+                        @Cached SequenceStorageNodes.LenNode lenNode) {
+            checkValid(this, primary);
+            long len1 = primary.getLength();
+            SequenceStorage needle = sub.getSequenceStorage();
+            long start = normalize(castToLong(castLong, starting, primary.getPos()), len1);
+            long end = normalize(castToLong(castLong, ending, len1), len1);
+            return primary.find(getBytes.execute(needle), lenNode.execute(needle), start, end);
         }
 
         @Specialization
-        long find(PMMap primary, int sub, Object starting, @SuppressWarnings("unused") Object ending,
-                        @Shared("castLong") @Cached CastToJavaLongLossyNode castLong,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createValueError(raise)") ReadByteFromChannelNode readByteNode) {
-            try {
-                SeekableByteChannel channel = primary.getChannel();
-                long len1 = PMMap.size(channel);
-
-                long s = castToLong(castLong, starting, 0);
-                long e = castToLong(castLong, ending, len1);
-
-                long start = s < 0 ? s + len1 : s;
-                long end = Math.max(e < 0 ? e + len1 : e, len1);
-
-                PMMap.position(channel, start);
+        long find(PMMap primary, int sub, Object starting, Object ending,
+                        @Shared("castLong") @Cached CastToJavaLongLossyNode castLong) {
+            checkValid(this, primary);
+            long len1 = primary.getLength();
+            long start = normalize(castToLong(castLong, starting, primary.getPos()), len1);
+            long end = normalize(castToLong(castLong, ending, len1), len1);
+            return primary.find((byte) sub, start, end);
+        }
 
-                for (long i = start; i < end; i++) {
-                    int hb = readByteNode.execute(channel);
-                    if (hb == sub) {
-                        return i;
-                    }
-                }
-                return -1;
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
+        private static long normalize(long idx, long len) {
+            if (idx < 0) {
+                return Math.max(idx + len, 0);
             }
+            return Math.min(idx, len);
         }
 
         private static long castToLong(CastToJavaLongLossyNode castLong, Object obj, long defaultVal) {
@@ -706,22 +638,20 @@ public class MMapBuiltins extends PythonBuiltins {
                 return defaultVal;
             }
         }
-
-        private SequenceStorageNodes.GetItemNode getGetRightItemNode() {
-            if (getRightItemNode == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                getRightItemNode = insert(SequenceStorageNodes.GetItemNode.create());
-            }
-            return getRightItemNode;
-        }
     }
 
-    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 3)
     @GenerateNodeFactory
-    abstract static class FlushNode extends PythonUnaryBuiltinNode {
+    abstract static class FlushNode extends PythonBuiltinNode {
 
         @Specialization
-        static Object seek(@SuppressWarnings("unused") PMMap self) {
+        Object flush(VirtualFrame frame, PMMap self, @SuppressWarnings("unused") Object offset, @SuppressWarnings("unused") Object size) {
+            checkValid(this, self);
+            try {
+                self.flush();
+            } catch (IOException e) {
+                throw raiseOSError(frame, OSErrorEnum.EIO, e);
+            }
             return PNone.NONE;
         }
 
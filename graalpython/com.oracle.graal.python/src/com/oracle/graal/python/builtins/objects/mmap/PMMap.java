@@ -41,38 +41,122 @@
 package com.oracle.graal.python.builtins.objects.mmap;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.SeekableByteChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PRaiseNode;
-import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.ReadFromChannelNode;
-import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.object.Shape;
-import com.oracle.truffle.api.profiles.BranchProfile;
 
+/**
+ * A memory mapped region. The contents are held in one or more {@link ByteBuffer segments} such
+ * that all accesses (indexing, slicing, searching, the buffer protocol) operate directly on the
+ * mapped memory. For regular files, the segments are {@link MappedByteBuffer}s created with
+ * {@link FileChannel#map}. Anonymous maps use heap buffers and if the file system does not provide
+ * a {@link FileChannel}, the region is read into heap buffers and written back on {@link #flush()}.
+ *
+ * Every access to the segments raises a {@code ValueError} once the map is closed. Closing unmaps
+ * the mapped segments right away instead of leaving that to the garbage collector, but only after
+ * the accesses that other threads have started on the segments are finished, so no thread ever
+ * touches unmapped memory.
+ */
 @ExportLibrary(PythonObjectLibrary.class)
 public final class PMMap extends PythonObject {
 
-    private final SeekableByteChannel mappedByteBuffer;
+    /* FileChannel.map is limited to 2GB, so larger regions are split into 1GB segments. */
+    private static final int SEGMENT_SHIFT = 30;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /* The bit of 'state' that marks the map as closed, the other bits count ongoing accesses. */
+    private static final int CLOSED = 1 << 31;
+
+    private final SeekableByteChannel channel;
     private final long length;
     private final long offset;
+    private final boolean readonly;
+    private final boolean writeBack;
 
-    public PMMap(Object pythonClass, Shape instanceShape, SeekableByteChannel mappedByteBuffer, long length, long offset) {
+    private final ByteBuffer[] segments;
+    private final AtomicInteger state = new AtomicInteger();
+    private long pos;
+
+    public PMMap(Object pythonClass, Shape instanceShape, SeekableByteChannel channel, ByteBuffer[] segments, long length, long offset, boolean readonly, boolean writeBack) {
         super(pythonClass, instanceShape);
-        this.mappedByteBuffer = mappedByteBuffer;
+        this.channel = channel;
+        this.segments = segments;
         this.length = length;
         this.offset = offset;
+        this.readonly = readonly;
+        this.writeBack = writeBack;
+    }
+
+    /**
+     * Allocates zero-initialized heap segments for a region of the given length.
+     */
+    @TruffleBoundary
+    public static ByteBuffer[] allocateSegments(long length) {
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(length)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocate((int) Math.min(SEGMENT_SIZE, length - ((long) i << SEGMENT_SHIFT)));
+        }
+        return segments;
+    }
+
+    /**
+     * Maps region {@code [offset, offset + length)} of the file behind {@code channel}. If the
+     * channel is not a {@link FileChannel} (e.g. on a virtual file system), the region is read into
+     * heap segments instead.
+     */
+    @TruffleBoundary
+    public static ByteBuffer[] mapSegments(SeekableByteChannel channel, MapMode mode, long length, long offset) throws IOException {
+        if (channel instanceof FileChannel) {
+            FileChannel fileChannel = (FileChannel) channel;
+            ByteBuffer[] segments = new ByteBuffer[segmentCount(length)];
+            for (int i = 0; i < segments.length; i++) {
+                long segmentStart = (long) i << SEGMENT_SHIFT;
+                segments[i] = fileChannel.map(mode, offset + segmentStart, Math.min(SEGMENT_SIZE, length - segmentStart));
+            }
+            return segments;
+        }
+        ByteBuffer[] segments = allocateSegments(length);
+        channel.position(offset);
+        for (ByteBuffer segment : segments) {
+            while (segment.hasRemaining() && channel.read(segment) > 0) {
+                // keep reading until the segment is full or EOF is reached
+            }
+            segment.clear();
+        }
+        return segments;
+    }
+
+    public static boolean isMappable(SeekableByteChannel channel) {
+        return channel instanceof FileChannel;
+    }
+
+    private static int segmentCount(long length) {
+        return (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
     }
 
     public SeekableByteChannel getChannel() {
-        return mappedByteBuffer;
+        return channel;
     }
 
     public long getLength() {
@@ -83,49 +167,300 @@ public final class PMMap extends PythonObject {
         return offset;
     }
 
-    @ExportMessage
-    @SuppressWarnings("static-method")
-    static boolean isBuffer(@SuppressWarnings("unused") PMMap self) {
-        return true;
+    public boolean isReadonly() {
+        return readonly;
     }
 
-    @ExportMessage
-    int getBufferLength(
-                    @Shared("castToIntNode") @Cached CastToJavaIntExactNode castToIntNode) {
-        return castToIntNode.execute(length);
+    public boolean isClosed() {
+        return (state.get() & CLOSED) != 0;
     }
 
-    @ExportMessage
-    byte[] getBufferBytes(
-                    @Shared("castToIntNode") @Cached CastToJavaIntExactNode castToIntNode,
-                    @Cached BranchProfile gotException,
-                    @Cached PRaiseNode raiseNode) {
+    /**
+     * Registers an access to the segments, which must be ended with {@link #release()}, and raises
+     * a {@code ValueError} if the map is closed.
+     */
+    private void acquire() {
+        int s;
+        do {
+            s = state.get();
+            if ((s & CLOSED) != 0) {
+                CompilerDirectives.transferToInterpreter();
+                throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+        } while (!state.compareAndSet(s, s + 1));
+    }
+
+    private void release() {
+        if (state.decrementAndGet() == CLOSED) {
+            // the map was closed while this access was ongoing and it was the last one
+            unmap();
+        }
+    }
 
+    /**
+     * The current file pointer as used by {@code read}, {@code write}, {@code seek} etc.
+     */
+    public long getPos() {
+        return pos;
+    }
+
+    public void setPos(long pos) {
+        assert 0 <= pos && pos <= length;
+        this.pos = pos;
+    }
+
+    /**
+     * Reads the byte at {@code idx}, raising a {@code ValueError} if the map is closed.
+     */
+    public byte getByte(long idx) {
+        acquire();
         try {
-            int len = castToIntNode.execute(length);
+            return getByteUnchecked(idx);
+        } finally {
+            release();
+        }
+    }
 
-            // save current position
-            // TODO: restore in case of failure
-            @SuppressWarnings("unused")
-            long oldPos = PMMap.position(mappedByteBuffer);
+    private byte getByteUnchecked(long idx) {
+        assert 0 <= idx && idx < length;
+        return segments[(int) (idx >>> SEGMENT_SHIFT)].get((int) (idx & SEGMENT_MASK));
+    }
 
-            PMMap.position(mappedByteBuffer, 0);
-            ByteSequenceStorage s = ReadFromChannelNode.read(mappedByteBuffer, len, gotException, raiseNode);
-            return s.getInternalByteArray();
-        } catch (IOException e) {
-            // TODO(fa) how to handle?
-            return null;
+    /**
+     * Writes the byte at {@code idx}, raising a {@code ValueError} if the map is closed.
+     */
+    public void setByte(long idx, byte b) {
+        assert 0 <= idx && idx < length;
+        acquire();
+        try {
+            segments[(int) (idx >>> SEGMENT_SHIFT)].put((int) (idx & SEGMENT_MASK), b);
+        } finally {
+            release();
         }
     }
 
+    /**
+     * Copies {@code len} bytes starting at {@code idx} into {@code dest}.
+     */
     @TruffleBoundary
-    static long position(SeekableByteChannel ch) throws IOException {
-        return ch.position();
+    public void readBytes(long idx, byte[] dest, int destPos, int len) {
+        assert 0 <= idx && idx + len <= length;
+        acquire();
+        try {
+            readBytesUnchecked(idx, dest, destPos, len);
+        } finally {
+            release();
+        }
+    }
+
+    private void readBytesUnchecked(long idx, byte[] dest, int destPos, int len) {
+        long cur = idx;
+        int done = 0;
+        while (done < len) {
+            ByteBuffer segment = segments[(int) (cur >>> SEGMENT_SHIFT)].duplicate();
+            int segmentPos = (int) (cur & SEGMENT_MASK);
+            int n = Math.min(len - done, segment.capacity() - segmentPos);
+            segment.position(segmentPos);
+            segment.get(dest, destPos + done, n);
+            done += n;
+            cur += n;
+        }
+    }
+
+    /**
+     * Copies {@code len} bytes from {@code src} into the map starting at {@code idx}.
+     */
+    @TruffleBoundary
+    public void writeBytes(long idx, byte[] src, int srcPos, int len) {
+        assert 0 <= idx && idx + len <= length;
+        acquire();
+        try {
+            long cur = idx;
+            int done = 0;
+            while (done < len) {
+                ByteBuffer segment = segments[(int) (cur >>> SEGMENT_SHIFT)].duplicate();
+                int segmentPos = (int) (cur & SEGMENT_MASK);
+                int n = Math.min(len - done, segment.capacity() - segmentPos);
+                segment.position(segmentPos);
+                segment.put(src, srcPos + done, n);
+                done += n;
+                cur += n;
+            }
+        } finally {
+            release();
+        }
     }
 
+    /**
+     * Passes read-only views of region {@code [idx, idx + len)}, one for each segment it spans, to
+     * {@code consumer}, such that the mapped memory can be consumed without copying it to the heap.
+     * The views must not be used after the consumer returns, since the map may be unmapped then.
+     */
     @TruffleBoundary
-    static void position(SeekableByteChannel ch, long offset) throws IOException {
-        ch.position(offset);
+    public void forEachReadOnlyView(long idx, long len, Consumer<ByteBuffer> consumer) {
+        assert 0 <= idx && idx + len <= length;
+        acquire();
+        try {
+            long cur = idx;
+            while (cur < idx + len) {
+                ByteBuffer view = segments[(int) (cur >>> SEGMENT_SHIFT)].asReadOnlyBuffer();
+                int segmentPos = (int) (cur & SEGMENT_MASK);
+                int n = (int) Math.min(idx + len - cur, view.capacity() - segmentPos);
+                view.limit(segmentPos + n);
+                view.position(segmentPos);
+                consumer.accept(view);
+                cur += n;
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of {@code needle} in {@code [start, end)} or
+     * {@code -1}.
+     */
+    @TruffleBoundary
+    public long find(byte[] needle, int needleLen, long start, long end) {
+        if (needleLen == 0) {
+            return start <= end ? start : -1;
+        }
+        byte first = needle[0];
+        long last = end - needleLen;
+        acquire();
+        try {
+            outer: for (long i = start; i <= last; i++) {
+                if (getByteUnchecked(i) != first) {
+                    continue;
+                }
+                for (int j = 1; j < needleLen; j++) {
+                    if (getByteUnchecked(i + j) != needle[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of {@code b} in {@code [start, end)} or {@code -1}.
+     */
+    @TruffleBoundary
+    public long find(byte b, long start, long end) {
+        acquire();
+        try {
+            for (long i = start; i < end; i++) {
+                if (getByteUnchecked(i) == b) {
+                    return i;
+                }
+            }
+            return -1;
+        } finally {
+            release();
+        }
+    }
+
+    @TruffleBoundary
+    public void flush() throws IOException {
+        acquire();
+        try {
+            flushUnchecked();
+        } finally {
+            release();
+        }
+    }
+
+    private void flushUnchecked() throws IOException {
+        if (writeBack) {
+            channel.position(offset);
+            for (ByteBuffer segment : segments) {
+                ByteBuffer src = segment.duplicate();
+                src.clear();
+                while (src.hasRemaining()) {
+                    channel.write(src);
+                }
+            }
+        } else {
+            for (ByteBuffer segment : segments) {
+                if (segment instanceof MappedByteBuffer) {
+                    ((MappedByteBuffer) segment).force();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the changes back and closes the map. Closing an already closed map does nothing. The
+     * segments are unmapped as soon as no other thread accesses them anymore.
+     */
+    @TruffleBoundary
+    public void close() throws IOException {
+        int s;
+        do {
+            s = state.get();
+            if ((s & CLOSED) != 0) {
+                return;
+            }
+        } while (!state.compareAndSet(s, s + 1));
+        // like acquire(), so that no other thread can close the map while we flush
+        try {
+            flushUnchecked();
+        } finally {
+            int before;
+            int after;
+            do {
+                before = state.get();
+                after = (before | CLOSED) - 1;
+            } while (!state.compareAndSet(before, after));
+            if (after == CLOSED) {
+                // no other thread accesses the segments
+                unmap();
+            }
+            if ((before & CLOSED) == 0 && channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private void unmap() {
+        for (ByteBuffer segment : segments) {
+            if (segment instanceof MappedByteBuffer) {
+                Unmapper.unmap(segment);
+            }
+        }
+    }
+
+    /**
+     * Frees mapped memory through {@code sun.misc.Unsafe.invokeCleaner}, which only exists on JDK 9
+     * and later. On older JDKs, the memory is released once the buffers become unreachable.
+     */
+    private static final class Unmapper {
+        private static final MethodHandle INVOKE_CLEANER = lookupInvokeCleaner();
+
+        private static MethodHandle lookupInvokeCleaner() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return MethodHandles.lookup().unreflect(unsafeClass.getMethod("invokeCleaner", ByteBuffer.class)).bindTo(theUnsafe.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        static void unmap(ByteBuffer buffer) {
+            if (INVOKE_CLEANER != null) {
+                try {
+                    INVOKE_CLEANER.invokeExact(buffer);
+                } catch (Throwable e) {
+                    // the buffer stays mapped until it is collected
+                }
+            }
+        }
     }
 
     @TruffleBoundary
@@ -133,4 +468,44 @@ public final class PMMap extends PythonObject {
         return ch.size();
     }
 
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    static boolean isBuffer(@SuppressWarnings("unused") PMMap self) {
+        return true;
+    }
+
+    @ExportMessage
+    int getBufferLength(
+                    @Shared("raiseNode") @Cached PRaiseNode raiseNode) {
+        return getIntLength(raiseNode);
+    }
+
+    /**
+     * The buffer protocol of {@link PythonObjectLibrary} hands out a heap array of the whole buffer.
+     * An anonymous map that fits into one segment already is such an array, which is returned
+     * without copying, like {@code bytes} return their storage. Mapped files have to be copied;
+     * code that only needs part of a map should use {@link #readBytes}, a {@code memoryview} slice
+     * or {@link #forEachReadOnlyView} instead.
+     */
+    @ExportMessage
+    byte[] getBufferBytes(
+                    @Shared("raiseNode") @Cached PRaiseNode raiseNode) {
+        if (isClosed()) {
+            throw raiseNode.raise(PythonBuiltinClassType.ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+        }
+        int len = getIntLength(raiseNode);
+        if (segments.length == 1 && segments[0].hasArray() && segments[0].arrayOffset() == 0 && segments[0].array().length == len) {
+            return segments[0].array();
+        }
+        byte[] bytes = new byte[len];
+        readBytes(0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private int getIntLength(PRaiseNode raiseNode) {
+        if (length > Integer.MAX_VALUE) {
+            throw raiseNode.raise(PythonBuiltinClassType.OverflowError, ErrorMessages.MMAP_REGION_TOO_LARGE, length);
+        }
+        return (int) length;
+    }
 }
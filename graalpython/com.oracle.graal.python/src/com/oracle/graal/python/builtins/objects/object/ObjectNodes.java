@@ -77,6 +77,7 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.BuiltinFunctions;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.PythonAbstractObject;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.cext.PythonAbstractNativeObject;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
@@ -102,8 +103,6 @@ import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PNodeWithState;
 import com.oracle.graal.python.nodes.SpecialAttributeNames;
 import com.oracle.graal.python.nodes.attributes.GetAttributeNode.GetFixedAttributeNode;
-import com.oracle.graal.python.nodes.attributes.ReadAttributeFromDynamicObjectNode;
-import com.oracle.graal.python.nodes.attributes.WriteAttributeToDynamicObjectNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.statement.ImportNode;
@@ -115,7 +114,6 @@ import com.oracle.graal.python.runtime.object.IDUtils;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.PythonUtils;
-import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
@@ -124,56 +122,28 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.Node;
-import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
 public abstract class ObjectNodes {
 
     @GenerateUncached
     abstract static class GetObjectIdNode extends Node {
-        private static final HiddenKey OBJECT_ID = new HiddenKey("_id");
 
         public abstract long execute(Object self);
 
-        protected static Assumption getSingleThreadedAssumption() {
-            return PythonLanguage.getCurrent().singleThreadedAssumption;
-        }
-
         protected static boolean isIDableObject(Object object) {
             return object instanceof PythonObject || object instanceof PythonAbstractNativeObject;
         }
 
-        @Specialization(guards = "isIDableObject(self)", assumptions = "getSingleThreadedAssumption()")
-        static long singleThreadedObject(Object self,
-                        @Cached ReadAttributeFromDynamicObjectNode readNode,
-                        @Cached WriteAttributeToDynamicObjectNode writeNode,
-                        @CachedContext(PythonLanguage.class) PythonContext context) {
-            Object objectId = readNode.execute(self, OBJECT_ID);
-            if (objectId == PNone.NO_VALUE) {
-                objectId = context.getNextObjectId();
-                writeNode.execute(self, OBJECT_ID, objectId);
-            }
-            assert objectId instanceof Long : "internal object id hidden key must be a long at this point";
-            return (long) objectId;
-        }
-
-        @Specialization(guards = "isIDableObject(self)", replaces = "singleThreadedObject")
-        static long multiThreadedObject(Object self,
-                        @Cached ReadAttributeFromDynamicObjectNode readNode,
-                        @Cached WriteAttributeToDynamicObjectNode writeNode,
+        @Specialization(guards = "isIDableObject(self)")
+        static long doObject(PythonAbstractObject self,
+                        @Cached ConditionProfile hasIdProfile,
                         @CachedContext(PythonLanguage.class) PythonContext context) {
-            Object objectId = readNode.execute(self, OBJECT_ID);
-            if (objectId == PNone.NO_VALUE) {
-                synchronized (self) {
-                    objectId = readNode.execute(self, OBJECT_ID);
-                    if (objectId == PNone.NO_VALUE) {
-                        objectId = context.getNextObjectId();
-                        writeNode.execute(self, OBJECT_ID, objectId);
-                    }
-                }
+            long objectId = self.getObjectId();
+            if (hasIdProfile.profile(objectId != 0)) {
+                return objectId;
             }
-            assert objectId instanceof Long : "internal object id hidden key must be a long at this point";
-            return (long) objectId;
+            return self.initializeObjectId(context.getNextObjectId());
         }
     }
 
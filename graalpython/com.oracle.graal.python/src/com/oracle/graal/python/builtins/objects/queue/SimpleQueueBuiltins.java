@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.queue;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSimpleQueue)
+public class SimpleQueueBuiltins extends PythonBuiltins {
+    /**
+     * A blocked {@code get} wakes up at least this often to run pending async actions, such as
+     * signal handlers and weakref callbacks.
+     */
+    private static final long WAIT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    /** Keeps the deadline computed from {@link System#nanoTime()} from overflowing. */
+    private static final double MAX_TIMEOUT_SECONDS = Long.MAX_VALUE / 2 / 1000000000.0;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SimpleQueueBuiltinsFactory.getFactories();
+    }
+
+    @TruffleBoundary
+    private static Object getEmptyError(PythonCore core) {
+        // '_queue.Empty' is defined in the Python part of the module
+        PythonModule queueModule = core.lookupBuiltinModule("_queue");
+        return queueModule.getAttribute("Empty");
+    }
+
+    @Builtin(name = "empty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EmptyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean empty(PSimpleQueue self) {
+            return self.isEmpty();
+        }
+    }
+
+    @Builtin(name = "qsize", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class QSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int qsize(PSimpleQueue self) {
+            return self.size();
+        }
+    }
+
+    // SimpleQueue.put(item, block=True, timeout=None)
+    @Builtin(name = "put", minNumOfPositionalArgs = 2, parameterNames = {"$self", "item", "block", "timeout"})
+    @ArgumentClinic(name = "block", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    abstract static class PutNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SimpleQueueBuiltinsClinicProviders.PutNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PNone put(PSimpleQueue self, Object item, @SuppressWarnings("unused") boolean block, @SuppressWarnings("unused") Object timeout) {
+            // the queue is unbounded, so 'block' and 'timeout' are only accepted for compatibility
+            self.put(item);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "put_nowait", minNumOfPositionalArgs = 2, parameterNames = {"$self", "item"})
+    @GenerateNodeFactory
+    abstract static class PutNoWaitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone putNoWait(PSimpleQueue self, Object item) {
+            self.put(item);
+            return PNone.NONE;
+        }
+    }
+
+    // SimpleQueue.get(block=True, timeout=None)
+    @Builtin(name = "get", minNumOfPositionalArgs = 1, parameterNames = {"$self", "block", "timeout"})
+    @ArgumentClinic(name = "block", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    abstract static class GetNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SimpleQueueBuiltinsClinicProviders.GetNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!block")
+        Object getNonBlocking(PSimpleQueue self, @SuppressWarnings("unused") boolean block, @SuppressWarnings("unused") Object timeout) {
+            Object item = self.poll();
+            if (item == null) {
+                throw raiseEmpty();
+            }
+            return item;
+        }
+
+        @Specialization(guards = {"block", "isNoValue(timeout) || isNone(timeout)"})
+        Object getBlocking(VirtualFrame frame, PSimpleQueue self, @SuppressWarnings("unused") boolean block, @SuppressWarnings("unused") Object timeout) {
+            Object item = self.poll();
+            while (item == null) {
+                getContext().triggerAsyncActions(frame);
+                item = self.poll(WAIT_INTERVAL_NANOS);
+            }
+            return item;
+        }
+
+        @Specialization(guards = {"block", "!isNoValue(timeout)", "!isNone(timeout)"}, limit = "1")
+        Object getTimeout(VirtualFrame frame, PSimpleQueue self, @SuppressWarnings("unused") boolean block, Object timeout,
+                        @CachedLibrary("timeout") PythonObjectLibrary lib) {
+            double timeoutSeconds = lib.asJavaDouble(timeout);
+            if (!(timeoutSeconds >= 0)) {
+                throw raise(ValueError, ErrorMessages.TIMEOUT_MUST_BE_NON_NEGATIVE_NUMBER);
+            } else if (timeoutSeconds > MAX_TIMEOUT_SECONDS) {
+                throw raise(OverflowError, ErrorMessages.TIMEOUT_VALUE_TOO_LARGE);
+            }
+            Object item = self.poll();
+            if (item != null) {
+                return item;
+            }
+            long remaining = (long) (timeoutSeconds * 1000000000.0);
+            long deadline = nanoTime() + remaining;
+            while (remaining > 0) {
+                item = self.poll(Math.min(remaining, WAIT_INTERVAL_NANOS));
+                if (item != null) {
+                    return item;
+                }
+                getContext().triggerAsyncActions(frame);
+                remaining = deadline - nanoTime();
+            }
+            throw raiseEmpty();
+        }
+
+        private PException raiseEmpty() {
+            throw raise(getEmptyError(getCore()));
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static long nanoTime() {
+            return System.nanoTime();
+        }
+    }
+
+    @Builtin(name = "get_nowait", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetNoWaitNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object getNoWait(PSimpleQueue self) {
+            Object item = self.poll();
+            if (item == null) {
+                throw raise(getEmptyError(getCore()));
+            }
+            return item;
+        }
+    }
+}
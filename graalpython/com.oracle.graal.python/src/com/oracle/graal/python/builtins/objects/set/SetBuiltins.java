@@ -40,7 +40,9 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes;
+import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes.GetDictStorageForUpdateNode;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes.GetHashingStorageNode;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
@@ -120,10 +122,11 @@ public final class SetBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class ClearNode extends PythonUnaryBuiltinNode {
 
-        @Specialization(limit = "1")
+        @Specialization
         public static Object clear(PSet self,
-                        @CachedLibrary("self.getDictStorage()") HashingStorageLibrary lib) {
-            HashingStorage newStorage = lib.clear(self.getDictStorage());
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+            HashingStorage newStorage = lib.clear(getStorage.execute(self));
             self.setDictStorage(newStorage);
             return PNone.NONE;
         }
@@ -535,13 +538,14 @@ public final class SetBuiltins extends PythonBuiltins {
     @Builtin(name = "remove", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     abstract static class RemoveNode extends PythonBinaryBuiltinNode {
-        @Specialization(limit = "1")
+        @Specialization
         Object remove(VirtualFrame frame, PSet self, Object key,
                         @Cached BranchProfile updatedStorage,
                         @Cached BaseSetBuiltins.ConvertKeyNode conv,
                         @Cached("createBinaryProfile()") ConditionProfile hasFrame,
-                        @CachedLibrary("self.getDictStorage()") HashingStorageLibrary lib) {
-            HashingStorage storage = self.getDictStorage();
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+            HashingStorage storage = getStorage.execute(self);
             HashingStorage newStore = null;
             // TODO: FIXME: this might call __hash__ twice
             Object checkedKey = conv.execute(key, factory());
@@ -565,13 +569,14 @@ public final class SetBuiltins extends PythonBuiltins {
     @Builtin(name = "discard", minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     abstract static class DiscardNode extends PythonBinaryBuiltinNode {
-        @Specialization(limit = "1")
+        @Specialization
         Object discard(VirtualFrame frame, PSet self, Object key,
                         @Cached BranchProfile updatedStorage,
                         @Cached BaseSetBuiltins.ConvertKeyNode conv,
                         @Cached("createBinaryProfile()") ConditionProfile hasFrame,
-                        @CachedLibrary("self.getDictStorage()") HashingStorageLibrary lib) {
-            HashingStorage storage = self.getDictStorage();
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+            HashingStorage storage = getStorage.execute(self);
             HashingStorage newStore = null;
             // TODO: FIXME: this might call __hash__ twice
             Object checkedKey = conv.execute(key, factory());
@@ -594,9 +599,8 @@ public final class SetBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class PopNode extends PythonUnaryBuiltinNode {
 
-        protected static void removeItem(VirtualFrame frame, PSet self, Object key,
+        protected static void removeItem(VirtualFrame frame, PSet self, Object key, HashingStorage storage,
                         HashingStorageLibrary lib, ConditionProfile hasFrame, BranchProfile updatedStorage) {
-            HashingStorage storage = self.getDictStorage();
             HashingStorage newStore = null;
             // TODO: FIXME: this might call __hash__ twice
             boolean hasKey = lib.hasKeyWithFrame(storage, key, hasFrame, frame);
@@ -612,17 +616,37 @@ public final class SetBuiltins extends PythonBuiltins {
             }
         }
 
-        @Specialization(limit = "1")
+        @Specialization(assumptions = "singleThreadedAssumption()")
         Object remove(VirtualFrame frame, PSet self,
                         @Cached BranchProfile updatedStorage,
                         @Cached("createBinaryProfile()") ConditionProfile hasFrame,
-                        @CachedLibrary("self.getDictStorage()") HashingStorageLibrary lib) {
-            for (Object next : lib.keys(self.getDictStorage())) {
-                removeItem(frame, self, next, lib, hasFrame, updatedStorage);
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+            HashingStorage storage = getStorage.execute(self);
+            for (Object next : lib.keys(storage)) {
+                removeItem(frame, self, next, storage, lib, hasFrame, updatedStorage);
                 return next;
             }
             throw raise(PythonErrorType.KeyError, ErrorMessages.POP_FROM_EMPTY_SET);
         }
+
+        @Specialization(replaces = "remove")
+        Object removeConcurrent(VirtualFrame frame, PSet self,
+                        @Cached BranchProfile updatedStorage,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame,
+                        @Cached GetDictStorageForUpdateNode getStorage,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib) {
+            HashingStorage storage = getStorage.execute(self);
+            if (storage instanceof EconomicMapStorage) {
+                // another thread must not pop the same item between selecting and removing it
+                Object[] entry = ((EconomicMapStorage) storage).popLastConcurrent();
+                if (entry == null) {
+                    throw raise(PythonErrorType.KeyError, ErrorMessages.POP_FROM_EMPTY_SET);
+                }
+                return entry[0];
+            }
+            return remove(frame, self, updatedStorage, hasFrame, getStorage, lib);
+        }
     }
 
 }
@@ -1609,11 +1609,64 @@ public abstract class TypeNodes {
                 case PDirEntry:
                 case BZ2Compressor:
                 case BZ2Decompressor:
+                case PPickler:
+                case PUnpickler:
+                case PPickleBuffer:
+                case PJsonScanner:
+                case PJsonEncoder:
+                case PSREPattern:
+                case PSREMatch:
+                case PSREScanner:
+                case PDeque:
+                case PDequeIter:
+                case PDequeRevIter:
+                case PSimpleQueue:
+                case PHash:
+                case PBlake2b:
+                case PBlake2s:
                 case PLZMACompressor:
                 case PLZMADecompressor:
                 case ZlibCompress:
                 case ZlibDecompress:
                 case PBufferedReader:
+                case PBufferedWriter:
+                case PBufferedRandom:
+                case PBufferedRWPair:
+                case PTextIOWrapper:
+                case PFileIO:
+                case PBytesIO:
+                case PStringIO:
+                case PTimeDelta:
+                case PDate:
+                case PDateTime:
+                case PTime:
+                case PTzInfo:
+                case PTimeZone:
+                case CSVDialect:
+                case CSVReader:
+                case CSVWriter:
+                case PAccumulate:
+                case PChain:
+                case PCombinations:
+                case PCombinationsWithReplacement:
+                case PCompress:
+                case PCount:
+                case PCycle:
+                case PDropwhile:
+                case PFilterfalse:
+                case PGroupBy:
+                case PGrouper:
+                case PIslice:
+                case PPermutations:
+                case PProduct:
+                case PRepeat:
+                case PStarmap:
+                case PTakewhile:
+                case PTee:
+                case PZipLongest:
+                case PPartial:
+                case PKeyWrapper:
+                case PLruCacheWrapper:
                 case LsprofProfiler:
                 case PStruct:
                 case PBaseException:
@@ -1659,9 +1712,13 @@ public abstract class TypeNodes {
                 case ZLibError:
                 case LZMAError:
                 case StructError:
+                case PickleError:
+                case PicklingError:
+                case UnpicklingError:
                 case SocketGAIError:
                 case SocketHError:
                 case SocketTimeout:
+                case CSVError:
                 case ReferenceError:
                 case RuntimeError:
                 case NotImplementedError:
@@ -203,6 +203,7 @@ public abstract class ErrorMessages {
     public static final String COUNT_FUNC_MATH = "count function in Math";
     public static final String COVERAGE_TRACKER_NOT_RUNNING = "coverage tracker not running";
     public static final String CREATING_SOCKETS_NOT_ALLOWED = "creating sockets not allowed";
+    public static final String DATA_OUT_OF_RANGE = "data out of range";
     public static final String DEFAULT_EXCEPT_MUST_BE_LAST = "default 'except:' must be last";
     public static final String DESC_S_FOR_S_DOESNT_APPLY_TO_S = "descriptor '%s' for '%s' objects doesn't apply to '%s' object";
     public static final String DESCRIPTOR_REQUIRES_OBJ = "descriptor '%s' requires a '%s' object but received a '%p'";
@@ -369,6 +370,7 @@ public abstract class ErrorMessages {
     public static final String LIST_ASSIGMENT_INDEX_OUT_OF_RANGE = "list assignment index out of range";
     public static final String LIST_INDEX_OUT_OF_RANGE = "list index out of range";
     public static final String LIST_LENGTH_OUT_OF_RANGE = "list length out of range";
+    public static final String LIST_MODIFIED_DURING_SORT = "list modified during sort";
     public static final String LOCAL_VAR_REFERENCED_BEFORE_ASSIGMENT = "local variable '%s' referenced before assignment";
     public static final String LOCALS_MUST_BE_MAPPING = "%s() locals must be a mapping or None, not %p";
     public static final String LOST_SYSBREAKPOINTHOOK = "lost sys.breakpointhook";
@@ -401,7 +403,14 @@ public abstract class ErrorMessages {
     public static final String METHOD_NAME_MUST_BE = "method name must be string, not %p";
     public static final String MISSING_D_REQUIRED_S_ARGUMENT_S_POS = "%s() missing required argument '%s' (pos %d)";
     public static final String MISSING_D_REQUIRED_S_ARGUMENT_S_S = "%s() missing %d required %s argument%s: '%s'";
+    public static final String MMAP_CANT_MODIFY_READONLY = "mmap can't modify a readonly memory map.";
+    public static final String MMAP_CLOSED_OR_INVALID = "mmap closed or invalid";
     public static final String MMAP_INDEX_OUT_OF_RANGE = "mmap index out of range";
+    public static final String MMAP_INVALID_ACCESS_PARAMETER = "mmap invalid access parameter.";
+    public static final String MMAP_LENGTH_GREATER_THAN_FILE_SIZE = "mmap length is greater than file size";
+    public static final String MMAP_OFFSET_GREATER_THAN_FILE_SIZE = "mmap offset is greater than file size";
+    public static final String MMAP_REGION_TOO_LARGE = "mmap region of %d bytes is too large for a bytes-like object";
+    public static final String MMAP_SLICE_ASSIGNMENT_WRONG_SIZE = "mmap slice assignment is wrong size";
     public static final String MODULE_HAS_NO_ATTR_S = "module has no attribute '%s'";
     public static final String MODULE_PARTIALLY_INITIALIZED_S_HAS_NO_ATTR_S = "partially initialized module '%s' has no attribute '%s' (most likely due to a circular import)";
     public static final String MODULE_S_HAS_NO_ATTR_S = "module '%s' has no attribute '%s'";
@@ -451,6 +460,7 @@ public abstract class ErrorMessages {
     public static final String NONLOCAL_AND_GLOBAL = "name '%s' is nonlocal and global";
     public static final String NONLOCAL_AT_MODULE_LEVEL = "nonlocal declaration not allowed at module level";
     public static final String NON_HEX_DIGIT_FOUND = "Non-hexadecimal digit found";
+    public static final String NOT_A_JAVA_PRIMITIVE_ARRAY = "expected a Java int[], long[], double[], boolean[] or byte[], not '%p'";
     public static final String NOT_A_ZIP_FILE = "not a Zip file: '%s'";
     public static final String NOT_ALL_ARGS_CONVERTED_DURING_FORMATTING = "not all arguments converted during %s formatting";
     public static final String NOT_ENOUGH_ARGS_FOR_FORMAT_STRING = "not enough arguments for format string";
@@ -467,11 +477,13 @@ public abstract class ErrorMessages {
     public static final String OBJ_ISNT_CALLABLE = "'%p' object is not callable";
     public static final String OBJ_ISNT_ITERATOR = "'%p' object is not an iterator";
     public static final String OBJ_ISNT_REVERSIBLE = "'%p' object is not reversible";
+    public static final String OBJ_NOT_BACKED_BY_PRIMITIVE_ARRAY = "'%p' object is not backed by an array of a Java primitive type";
     public static final String OBJ_NOT_ITERABLE = "'%p' object is not iterable";
     public static final String OBJ_NOT_SUBSCRIPTABLE = "'%p' object is not subscriptable";
     public static final String OBJ_OR_KLASS_ARGS_IS_NOT_HOST_OBJ = "the object '%p' or klass '%p' arguments is not a host object";
     public static final String OBJ_P_HAS_NO_ATTR_S = "'%p' object has no attribute '%s'";
     public static final String OBJ_S_HAS_NO_ATTR_S = "'%s' object has no attribute '%s'";
+    public static final String OBJECT_IDS_EXHAUSTED = "no more object ids available";
     public static final String ODD_LENGTH_STRING = "Odd-length string";
     public static final String ONLY_ACCEPTS_INTEGRAL_VALUES = "%s only accepts integral values";
     public static final String ONLY_DEFLATED_ALLOWED_AS_METHOD = "only DEFLATED (%d) allowed as method, got %d";
@@ -548,7 +560,6 @@ public abstract class ErrorMessages {
     public static final String STARRED_ASSIGMENT_MUST_BE_IN_LIST_OR_TUPLE = "starred assignment target must be in a list or tuple";
     public static final String STATE_VECTOR_INVALID = "state vector invalid.";
     public static final String STATE_VECTOR_MUST_BE_A_TUPLE = "state vector must be a tuple";
-    public static final String STEP_1_NOT_SUPPORTED = "step != 1 not supported";
     public static final String STRING_ARG_WO_ENCODING = "string argument without an encoding";
     public static final String ENCODING_ARG_WO_STRING = "encoding without a string argument";
     public static final String ENCODING_ERROR_WITH_CODE = "decoding error; unknown error handling code: %s";
@@ -568,6 +579,7 @@ public abstract class ErrorMessages {
     public static final String TAKES_FROM_D_TO_D_POS_ARG_S_BUT_D_S_GIVEN_S = "%s() takes from %d to %d positional argument%s but %d %s given%s";
     public static final String TAKES_EXACTLY_D_ARGUMENTS_D_GIVEN = "%s() takes exactly %d arguments (%d given)";
     public static final String TAKES_NO_KEYWORD_ARGS = "%s takes no keyword arguments";
+    public static final String TAKES_NO_POSITIONAL_ARGS = "%s() takes no positional arguments";
     public static final String THROW_THIRD_ARG_MUST_BE_TRACEBACK = "throw() third argument must be a traceback object";
     public static final String TIMEOUT_VALUE_MUST_BE_POSITIVE = "timeout value must be positive";
     public static final String TIMEOUT_VALUE_TOO_LARGE = "timeout value is too large";
@@ -699,10 +711,237 @@ public abstract class ErrorMessages {
     public static final String IO_CLOSED = "I/O operation on closed file.";
     public static final String MUST_BE_NON_NEG_OR_NEG_1 = "read length must be non-negative or -1";
     public static final String BUF_SIZE_POS = "buffer size must be strictly positive";
+    public static final String CHUNK_SIZE_POS = "a strictly positive integer is required";
+    public static final String UNDERLYING_BUFFER_DETACHED = "underlying buffer has been detached";
+    public static final String ILLEGAL_NEWLINE_VALUE_S = "illegal newline value: %s";
+    public static final String UNDERLYING_S_SHOULD_HAVE_RETURNED_BYTES = "underlying %s() should have returned a bytes-like object, not '%p'";
+    public static final String WRITE_ARG_MUST_BE_STR = "write() argument must be str, not %p";
+    public static final String ARG_MUST_BE_STR_OR_NONE = "%s() argument '%s' must be str or None, not %p";
+    public static final String NOT_READABLE = "not readable";
+    public static final String UNDERLYING_STREAM_NOT_SEEKABLE = "underlying stream is not seekable";
+    public static final String CANT_DO_NONZERO_CUR_RELATIVE_SEEKS = "can't do nonzero cur-relative seeks";
+    public static final String CANT_DO_NONZERO_END_RELATIVE_SEEKS = "can't do nonzero end-relative seeks";
+    public static final String NEGATIVE_SEEK_POSITION_D = "negative seek position %d";
+    public static final String CANT_RECONFIGURE_AFTER_READ = "It is not possible to set the encoding or newline of stream after the first read";
+    public static final String FILE_NOT_OPEN_FOR_READING = "File not open for reading";
+    public static final String FILE_NOT_OPEN_FOR_WRITING = "File not open for writing";
+    public static final String BAD_MODE = "Must have exactly one of create/read/write/append mode and at most one plus";
+    public static final String INVALID_MODE_S = "invalid mode: %s";
+    public static final String NEGATIVE_FILE_DESCRIPTOR = "negative file descriptor";
+    public static final String CANNOT_USE_CLOSEFD = "Cannot use closefd=False with file name";
+    public static final String EXPECTED_INT_FROM_OPENER = "expected integer from opener";
+    public static final String OPENER_RETURNED_D = "opener returned %d";
+    public static final String FILE_OR_STREAM_IS_NOT_READABLE = "File or stream is not readable.";
+    public static final String FILE_OR_STREAM_IS_NOT_WRITABLE = "File or stream is not writable.";
+    public static final String FILE_OR_STREAM_IS_NOT_SEEKABLE = "File or stream is not seekable.";
+    public static final String WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING = "write could not complete without blocking";
+    public static final String NEGATIVE_SEEK_VALUE_D = "negative seek value %d";
+    public static final String INVALID_WHENCE_D = "invalid whence (%d, should be 0, 1 or 2)";
+    public static final String NEGATIVE_SIZE_VALUE_D = "negative size value %d";
+    public static final String STRING_ARGUMENT_EXPECTED_GOT_P = "string argument expected, got '%p'";
+    public static final String INITIAL_VALUE_MUST_BE_STR_OR_NONE = "initial_value must be str or None, not %p";
+    public static final String NEWLINE_MUST_BE_STR_OR_NONE = "newline must be str or None, not %p";
+    public static final String SETSTATE_ARGUMENT_SHOULD_BE_D_TUPLE = "%p.__setstate__ argument should be %d-tuple, got %p";
+    public static final String S_ITEM_OF_STATE_MUST_BE_AN_INTEGER = "%s item of state must be an integer, not %p";
+    public static final String S_ITEM_OF_STATE_SHOULD_BE_A_DICT = "%s item of state should be a dict, got a %p";
+    public static final String POSITION_VALUE_CANNOT_BE_NEGATIVE = "position value cannot be negative";
+    public static final String NEW_POSITION_TOO_LARGE = "new position too large";
+    public static final String NEW_BUFFER_SIZE_TOO_LARGE = "new buffer size too large";
+    public static final String READLINE_SHOULD_HAVE_RETURNED_STR_NOT_P = "readline() should have returned a str object, not '%p'";
 
     // pickle errors
     public static final String CANNOT_PICKLE_OBJECT = "cannot pickle '%s' object";
     public static final String CANNOT_PICKLE_OBJECT_TYPE = "cannot pickle '%p' object";
+    public static final String ARGS0_FROM_NEWOBJ_ARGS_HAS_WRONG_CLASS = "args[0] from __newobj__ args has the wrong class";
+    public static final String ARGS0_FROM_NEWOBJ_ARGS_IS_NOT_A_TYPE = "args[0] from __newobj__ args is not a type";
+    public static final String ARGUMENT_LIST_MUST_BE_A_TUPLE = "argument list must be a tuple";
+    public static final String BEGINNING_OF_NEW_FRAME_BEFORE_END_OF_CURRENT_FRAME = "beginning of a new frame before end of current frame";
+    public static final String BUFFER_CALLBACK_NEEDS_PROTOCOL_5 = "buffer_callback needs protocol >= 5";
+    public static final String CANT_DECODE_BYTES_AS_RAW_UNICODE_ESCAPE = "'rawunicodeescape' codec can't decode bytes";
+    public static final String CANT_DECODE_BYTES_AS_UTF8 = "'utf-8' codec can't decode bytes";
+    public static final String CANT_GET_ATTRIBUTE_S_ON_S = "Can't get attribute '%s' on <module '%s'>";
+    public static final String CANT_GET_LOCAL_ATTRIBUTE_S_ON_S = "Can't get local attribute '%s' on <module '%s'>";
+    public static final String CANT_PICKLE_GLOBAL_IDENTIFIER_S_S_USING_PROTOCOL_D = "can't pickle global identifier '%s.%s' using pickle protocol %d";
+    public static final String CANT_PICKLE_S_IMPORT_OF_MODULE_S_FAILED = "Can't pickle %s: import of module '%s' failed";
+    public static final String CANT_PICKLE_S_NOT_FOUND_AS_S_S = "Can't pickle %s: it's not found as %s.%s";
+    public static final String CANT_PICKLE_S_NOT_SAME_OBJECT_AS_S_S = "Can't pickle %s: it's not the same object as %s.%s";
+    public static final String COULD_NOT_FIND_MARK = "could not find MARK";
+    public static final String DICT_ITEMS_ITERATOR_MUST_RETURN_2_TUPLES = "dict items iterator must return 2-tuples";
+    public static final String EXT_SPECIFIES_CODE_LE_0 = "EXT specifies code <= 0";
+    public static final String FILE_MUST_HAVE_A_WRITE_ATTRIBUTE = "file must have a 'write' attribute";
+    public static final String FILE_MUST_HAVE_READ_AND_READLINE_ATTRIBUTES = "file must have 'read' and 'readline' attributes";
+    public static final String FIRST_ITEM_OF_NEWOBJ_EX_MUST_BE_CLASS = "first item from NEWOBJ_EX argument tuple must be a class, not %p";
+    public static final String FIRST_ITEM_OF_REDUCE_MUST_BE_CALLABLE = "first item of the tuple returned by __reduce__ must be callable";
+    public static final String INVALID_LOAD_KEY_S = "invalid load key, '%s'.";
+    public static final String LENGTH_OF_NEWOBJ_EX_ARGS_MUST_BE_3 = "length of the NEWOBJ_EX argument tuple must be exactly 3, not %d";
+    public static final String MAXIMUM_RECURSION_DEPTH_EXCEEDED_WHILE_PICKLING = "maximum recursion depth exceeded while pickling an object";
+    public static final String MEMO_VALUE_NOT_FOUND_AT_INDEX_D = "Memo value not found at index %d";
+    public static final String NEGATIVE_PUT_ARGUMENT = "negative PUT argument";
+    public static final String NEWOBJ_ARGLIST_IS_EMPTY = "__newobj__ arglist is empty";
+    public static final String NEWOBJ_EXPECTED_AN_ARG_TUPLE = "NEWOBJ expected an arg tuple.";
+    public static final String NEWOBJ_EX_ARGS_MUST_BE_TUPLE = "NEWOBJ_EX args argument must be a tuple";
+    public static final String NEWOBJ_EX_KWARGS_MUST_BE_DICT = "NEWOBJ_EX kwargs argument must be a dict, not %p";
+    public static final String NOT_ENOUGH_OUT_OF_BAND_BUFFERS = "not enough out-of-band buffers";
+    public static final String ODD_NUMBER_OF_ITEMS_FOR_DICT = "odd number of items for DICT";
+    public static final String ODD_NUMBER_OF_ITEMS_FOR_SETITEMS = "odd number of items for SETITEMS";
+    public static final String PERSISTENT_IDS_IN_PROTOCOL_0_MUST_BE_ASCII = "persistent IDs in protocol 0 must be ASCII strings";
+    public static final String PERSISTENT_LOAD_NOT_SPECIFIED = "A load persistent id instruction was encountered, but no persistent_load function was specified.";
+    public static final String PICKLEBUFFER_CAN_ONLY_BE_PICKLED_WITH_PROTOCOL_5 = "PickleBuffer can only pickled with protocol >= 5";
+    public static final String PICKLEBUFFER_NOT_CONTIGUOUS = "PickleBuffer can not be pickled when pointing to a non-contiguous buffer";
+    public static final String PICKLEBUFFER_RELEASED = "operation forbidden on released PickleBuffer object";
+    public static final String PICKLER_INIT_NOT_CALLED_BY_P_INIT = "Pickler.__init__() was not called by %p.__init__()";
+    public static final String PICKLE_DATA_WAS_TRUNCATED = "pickle data was truncated";
+    public static final String PICKLE_EXHAUSTED_BEFORE_END_OF_FRAME = "pickle exhausted before end of frame";
+    public static final String PICKLE_PROTOCOL_MUST_BE_LE_D = "pickle protocol must be <= %d";
+    public static final String PICKLE_STREAM_REFERS_TO_OUT_OF_BAND_DATA = "pickle stream refers to out-of-band data but no *buffers* argument was given";
+    public static final String RAN_OUT_OF_INPUT = "Ran out of input";
+    public static final String SECOND_ITEM_OF_NEWOBJ_EX_MUST_BE_TUPLE = "second item from NEWOBJ_EX argument tuple must be a tuple, not %p";
+    public static final String SECOND_ITEM_OF_REDUCE_MUST_BE_TUPLE = "second item of the tuple returned by __reduce__ must be a tuple";
+    public static final String SLOT_STATE_IS_NOT_A_DICTIONARY = "slot state is not a dictionary";
+    public static final String STACK_GLOBAL_REQUIRES_STR = "STACK_GLOBAL requires str";
+    public static final String STATE_IS_NOT_A_DICTIONARY = "state is not a dictionary";
+    public static final String STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED = "the STRING opcode argument must be quoted";
+    public static final String S_CLASS_ARGUMENT_ISNT_A_TYPE_OBJECT = "%s class argument isn't a type object";
+    public static final String S_EXCEEDS_MAXIMUM_SIZE = "%s exceeds the maximum supported size";
+    public static final String S_MUST_RETURN_STRING_OR_TUPLE = "%s must return string or tuple";
+    public static final String S_PICKLE_HAS_NEGATIVE_BYTE_COUNT = "%s pickle has negative byte count";
+    public static final String THIRD_ITEM_OF_NEWOBJ_EX_MUST_BE_DICT = "third item from NEWOBJ_EX argument tuple must be a dict, not %p";
+    public static final String TUPLE_RETURNED_BY_S_MUST_CONTAIN_2_THROUGH_6_ELEMENTS = "tuple returned by %s must contain 2 through 6 elements";
+    public static final String UNPICKLER_INIT_NOT_CALLED_BY_P_INIT = "Unpickler.__init__() was not called by %p.__init__()";
+    public static final String UNPICKLING_STACK_UNDERFLOW = "unpickling stack underflow";
+    public static final String UNREGISTERED_EXTENSION_CODE_D = "unregistered extension code %d";
+    public static final String UNSUPPORTED_PICKLE_PROTOCOL_D = "unsupported pickle protocol: %d";
+
+    // json errors
+    public static final String CIRCULAR_REFERENCE_DETECTED = "Circular reference detected";
+    public static final String ENCODER_RETURNED_P_NOT_STR = "encoder() must return a string, not %p";
+    public static final String END_IS_OUT_OF_BOUNDS = "end is out of bounds";
+    public static final String IDX_CANNOT_BE_NEGATIVE = "idx cannot be negative";
+    public static final String JSON_INDENT_MUST_BE_NONE_INT_OR_STR_NOT_P = "indent must be None, an int or a str, not %p";
+    public static final String KEYS_MUST_BE_STR_INT_NOT_P = "keys must be str, int, float, bool or None, not %p";
+    public static final String MAKE_ENCODER_ARG_1_MUST_BE_DICT_NOT_P = "make_encoder() argument 1 must be dict or None, not %p";
+    public static final String MAXIMUM_RECURSION_DEPTH_EXCEEDED_WHILE_DECODING_JSON = "maximum recursion depth exceeded while decoding a JSON document";
+    public static final String OUT_OF_RANGE_FLOAT_NOT_JSON_COMPLIANT = "Out of range float values are not JSON compliant: %s";
+
+    // deque errors
+    public static final String CAN_ONLY_CONCAT_DEQUE_NOT_P_TO_DEQUE = "can only concatenate deque (not \"%p\") to deque";
+    public static final String DEQUE_ALREADY_AT_MAX_SIZE = "deque already at its maximum size";
+    public static final String DEQUE_INDEX_OUT_OF_RANGE = "deque index out of range";
+    public static final String DEQUE_MUTATED_DURING_ITERATION = "deque mutated during iteration";
+    public static final String DEQUE_MUTATED_DURING_REMOVE = "deque mutated during remove().";
+    public static final String DEQUE_REMOVE_X_NOT_IN_DEQUE = "deque.remove(x): x not in deque";
+    public static final String MAXLEN_MUST_BE_NONNEGATIVE = "maxlen must be non-negative";
+    public static final String POP_FROM_EMPTY_DEQUE = "pop from an empty deque";
+    public static final String S_IS_NOT_IN_DEQUE = "%s is not in deque";
+
+    // hashlib errors
+    public static final String DEPTH_MUST_BE_BETWEEN_1_AND_255 = "depth must be between 1 and 255";
+    public static final String DIGEST_SIZE_MUST_BE_BETWEEN_1_AND_D_BYTES = "digest_size must be between 1 and %d bytes";
+    public static final String FANOUT_MUST_BE_BETWEEN_0_AND_255 = "fanout must be between 0 and 255";
+    public static final String INNER_SIZE_MUST_BE_BETWEEN_0_AND_D = "inner_size must be between 0 and is %d";
+    public static final String LEAF_SIZE_IS_TOO_LARGE = "leaf_size is too large";
+    public static final String LENGTH_IS_TOO_LARGE = "length is too large";
+    public static final String MAXIMUM_KEY_LENGTH_IS_D_BYTES = "maximum key length is %d bytes";
+    public static final String MAXIMUM_PERSON_LENGTH_IS_D_BYTES = "maximum person length is %d bytes";
+    public static final String MAXIMUM_SALT_LENGTH_IS_D_BYTES = "maximum salt length is %d bytes";
+    public static final String NODE_DEPTH_MUST_BE_BETWEEN_0_AND_255 = "node_depth must be between 0 and 255";
+    public static final String NODE_OFFSET_IS_TOO_LARGE = "node_offset is too large";
+    public static final String OBJ_SUPPORTING_BUFFER_API_REQUIRED = "object supporting the buffer API required";
+    public static final String UNICODE_OBJ_MUST_BE_ENCODED_BEFORE_HASHING = "Unicode-objects must be encoded before hashing";
+
+    // queue errors
+    public static final String TIMEOUT_MUST_BE_NON_NEGATIVE_NUMBER = "'timeout' must be a non-negative number";
+
+    // heapq errors
+    public static final String HEAP_ARGUMENT_MUST_BE_A_LIST = "heap argument must be a list";
+
+    // datetime errors
+    public static final String CANT_COMPARE_OFFSET_NAIVE_AND_AWARE_S = "can't compare offset-naive and offset-aware %s";
+    public static final String CANT_COMPARE_P_TO_P = "can't compare %p to %p";
+    public static final String CANT_SUBTRACT_OFFSET_NAIVE_AND_AWARE_DATETIMES = "can't subtract offset-naive and offset-aware datetimes";
+    public static final String DATE_VALUE_OUT_OF_RANGE = "date value out of range";
+    public static final String DAYS_S_MUST_HAVE_MAGNITUDE_LE_D = "days=%s; must have magnitude <= %d";
+    public static final String DAY_IS_OUT_OF_RANGE_FOR_MONTH = "day is out of range for month";
+    public static final String FOLD_MUST_BE_EITHER_0_OR_1 = "fold must be either 0 or 1";
+    public static final String FROMISOFORMAT_ARGUMENT_MUST_BE_STR = "fromisoformat: argument must be str";
+    public static final String FROMUTC_ARGUMENT_MUST_BE_A_DATETIME = "fromutc: argument must be a datetime";
+    public static final String FROMUTC_DT_TZINFO_IS_NOT_SELF = "fromutc: dt.tzinfo is not self";
+    public static final String HOUR_MUST_BE_IN_0_23 = "hour must be in 0..23";
+    public static final String INVALID_ISOFORMAT_STRING_S = "Invalid isoformat string: '%s'";
+    public static final String MICROSECOND_MUST_BE_IN_0_999999 = "microsecond must be in 0..999999";
+    public static final String MINUTE_MUST_BE_IN_0_59 = "minute must be in 0..59";
+    public static final String MONTH_MUST_BE_IN_1_12 = "month must be in 1..12";
+    public static final String OFFSET_MUST_BE_A_TIMEDELTA_STRICTLY_BETWEEN = "offset must be a timedelta strictly between -timedelta(hours=24) and timedelta(hours=24).";
+    public static final String ORDINAL_MUST_BE_GE_1 = "ordinal must be >= 1";
+    public static final String SECOND_MUST_BE_IN_0_59 = "second must be in 0..59";
+    public static final String S_DT_ARGUMENT_MUST_BE_A_DATETIME_INSTANCE_OR_NONE_NOT_P = "%s(dt) argument must be a datetime instance or None, not %p";
+    public static final String TZINFO_ARGUMENT_MUST_BE_NONE_OR_TZINFO_NOT_P = "tzinfo argument must be None or of a tzinfo subclass, not type '%p'";
+    public static final String TZINFO_S_MUST_RETURN_NONE_OR_TIMEDELTA_NOT_P = "tzinfo.%s() must return None or timedelta, not '%p'";
+    public static final String TZINFO_TZNAME_MUST_RETURN_NONE_OR_STRING_NOT_P = "tzinfo.tzname() must return None or a string, not '%p'";
+    public static final String UNKNOWN_TIMESPEC_VALUE = "Unknown timespec value";
+    public static final String UNSUPPORTED_TYPE_FOR_TIMEDELTA_S_COMPONENT_P = "unsupported type for timedelta %s component: %p";
+    public static final String YEAR_D_IS_OUT_OF_RANGE = "year %d is out of range";
+
+    // csv errors
+    public static final String ARGUMENT_1_MUST_HAVE_A_WRITE_METHOD = "argument 1 must have a \"write\" method";
+    public static final String BAD_QUOTING_VALUE = "bad \"quoting\" value";
+    public static final String DIALECT_NAME_MUST_BE_A_STRING = "dialect name must be a string";
+    public static final String FIELD_LARGER_THAN_FIELD_LIMIT_D = "field larger than field limit (%d)";
+    public static final String INTEGER_OUT_OF_RANGE_FOR_S = "integer out of range for \"%s\"";
+    public static final String ITERABLE_EXPECTED_NOT_P = "iterable expected, not %p";
+    public static final String ITERATOR_SHOULD_RETURN_STRINGS_NOT_P = "iterator should return strings, not %p (did you open the file in text mode?)";
+    public static final String LIMIT_MUST_BE_AN_INTEGER = "limit must be an integer";
+    public static final String LINETERMINATOR_MUST_BE_SET = "lineterminator must be set";
+    public static final String LINE_CONTAINS_NUL = "line contains NUL";
+    public static final String NEED_TO_ESCAPE_BUT_NO_ESCAPECHAR_SET = "need to escape, but no escapechar set";
+    public static final String NEW_LINE_CHARACTER_SEEN_IN_UNQUOTED_FIELD = "new-line character seen in unquoted field - do you need to open the file in universal-newline mode?";
+    public static final String QUOTECHAR_MUST_BE_SET_IF_QUOTING_ENABLED = "quotechar must be set if quoting enabled";
+    public static final String SINGLE_EMPTY_FIELD_RECORD_MUST_BE_QUOTED = "single empty field record must be quoted";
+    public static final String S_EXPECTED_AFTER_S = "'%s' expected after '%s'";
+    public static final String S_MUST_BE_AN_INTEGER = "\"%s\" must be an integer";
+    public static final String S_MUST_BE_A_1_CHARACTER_STRING = "\"%s\" must be a 1-character string";
+    public static final String S_MUST_BE_A_STRING = "\"%s\" must be a string";
+    public static final String S_MUST_BE_STRING_NOT_P = "\"%s\" must be string, not %p";
+    public static final String UNEXPECTED_END_OF_DATA = "unexpected end of data";
+    public static final String UNKNOWN_DIALECT = "unknown dialect";
+
+    // functools errors
+    public static final String ARGUMENT_TO_SETSTATE_MUST_BE_TUPLE = "argument to __setstate__ must be a tuple";
+    public static final String EXPECTED_4_ITEMS_IN_STATE_GOT_D = "expected 4 items in state, got %d";
+    public static final String INVALID_PARTIAL_STATE = "invalid partial state";
+    public static final String MAXSIZE_SHOULD_BE_INTEGER_OR_NONE = "maxsize should be integer or None";
+    public static final String OTHER_ARGUMENT_MUST_BE_K_INSTANCE = "other argument must be K instance";
+    public static final String REDUCE_OF_EMPTY_SEQUENCE = "reduce() of empty sequence with no initial value";
+    public static final String THE_FIRST_ARGUMENT_MUST_BE_CALLABLE = "the first argument must be callable";
+
+    // itertools errors
+    public static final String A_NUMBER_IS_REQUIRED = "a number is required";
+    public static final String CANNOT_REENTER_THE_TEE_ITERATOR = "cannot re-enter the tee iterator";
+    public static final String EXPECTED_INT_AS_R = "Expected int as r";
+    public static final String INDICES_FOR_ISLICE_MUST_BE_NONE_OR_INT = "Indices for islice() must be None or an integer: 0 <= x <= sys.maxsize.";
+    public static final String INVALID_ARGUMENTS = "invalid arguments";
+    public static final String LEN_OF_UNSIZED_OBJECT = "len() of unsized object";
+    public static final String N_MUST_BE_GE_0 = "n must be >= 0";
+    public static final String REPEAT_ARGUMENT_CANNOT_BE_NEGATIVE = "repeat argument cannot be negative";
+    public static final String STEP_FOR_ISLICE_MUST_BE_POSITIVE_INT_OR_NONE = "Step for islice() must be a positive integer or None.";
+    public static final String STOP_FOR_ISLICE_MUST_BE_NONE_OR_INT = "Stop argument for islice() must be None or an integer: 0 <= x <= sys.maxsize.";
+
+    // sre errors
+    public static final String BAD_CHARACTER_IN_GROUP_NAME = "bad character in group name '%s'";
+    public static final String BAD_ESCAPE_END_OF_PATTERN = "bad escape (end of pattern)";
+    public static final String BAD_ESCAPE_S = "bad escape %s";
+    public static final String CANNOT_USE_BYTES_PATTERN_ON_STR = "cannot use a bytes pattern on a string-like object";
+    public static final String CANNOT_USE_STR_PATTERN_ON_BYTES = "cannot use a string pattern on a bytes-like object";
+    public static final String EXPECTED_STR_INSTANCE_P_FOUND = "expected str instance, %p found";
+    public static final String EXPECTED_STR_OR_BYTESLIKE_OBJ = "expected string or bytes-like object";
+    public static final String INVALID_GROUP_REFERENCE_D = "invalid group reference %d";
+    public static final String MISSING_GROUP_NAME = "missing group name";
+    public static final String MISSING_GT_UNTERMINATED_NAME = "missing >, unterminated name";
+    public static final String MISSING_LT = "missing <";
+    public static final String NO_SUCH_GROUP = "no such group";
+    public static final String OCTAL_ESCAPE_OUTSIDE_OF_RANGE = "octal escape value %s outside of range 0-0o377";
+    public static final String REGEX_NOT_SUPPORTED_NO_FALLBACK = "regular expression not supported, no fallback engine present";
+    public static final String UNKNOWN_GROUP_NAME = "unknown group name '%s'";
 
     public static final String P_RETURNED_NON_P = "%p.%s returned non-%s (type %p). " +
                     "The ability to return an instance of a strict subclass of %s " +
@@ -55,6 +55,14 @@ public abstract class PNodeWithContext extends Node {
         return language.singleContextAssumption;
     }
 
+    /**
+     * Valid until a second thread is started. Specializations of mutable builtin containers that
+     * do not synchronize are guarded by it, see {@link PythonLanguage#isSingleThreaded()}.
+     */
+    protected static Assumption singleThreadedAssumption() {
+        return PythonLanguage.getCurrent().singleThreadedAssumption;
+    }
+
     /**
      * @return {@code true} if this node can be shared statically.
      */
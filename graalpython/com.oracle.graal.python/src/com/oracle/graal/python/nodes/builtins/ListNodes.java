@@ -40,39 +40,68 @@
  */
 package com.oracle.graal.python.nodes.builtins;
 
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__INDEX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 
+import java.util.Arrays;
+
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.MathGuards;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.CreateStorageFromIteratorInteropNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.list.TimSort;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.slice.PSlice;
 import com.oracle.graal.python.builtins.objects.str.StringUtils;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.IndirectCallNode;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.builtins.ListNodesFactory.AppendNodeGen;
 import com.oracle.graal.python.nodes.builtins.ListNodesFactory.ConstructListNodeGen;
 import com.oracle.graal.python.nodes.builtins.ListNodesFactory.FastConstructListNodeGen;
 import com.oracle.graal.python.nodes.builtins.ListNodesFactory.IndexNodeGen;
+import com.oracle.graal.python.nodes.builtins.ListNodesFactory.MaterializeIterableNodeGen;
+import com.oracle.graal.python.nodes.builtins.ListNodesFactory.SortNodeGen;
+import com.oracle.graal.python.nodes.builtins.ListNodesFactory.ToIndexOrSliceNodeGen;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
+import com.oracle.graal.python.nodes.expression.CoerceToBooleanNode;
 import com.oracle.graal.python.nodes.literal.ListLiteralNode;
+import com.oracle.graal.python.nodes.subscript.SliceLiteralNode.CoerceToIntSlice;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.BasicSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.EmptySequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.NativeSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
@@ -81,6 +110,7 @@ import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 public abstract class ListNodes {
 
@@ -279,10 +309,24 @@ public abstract class ListNodes {
             return DISABLED;
         }
 
-        @Specialization
+        @Specialization(assumptions = "singleThreadedAssumption()")
+        public void appendSingleThreaded(PList list, Object value,
+                        @Shared("appendNode") @Cached SequenceStorageNodes.AppendNode appendNode,
+                        @Shared("updateStoreProfile") @Cached(value = "getUpdateStoreProfile()", uncached = "getUpdateStoreProfileUncached()", dimensions = 1) BranchProfile[] updateStoreProfile) {
+            append(list, value, appendNode, updateStoreProfile);
+        }
+
+        @Specialization(replaces = "appendSingleThreaded")
         public void appendObjectGeneric(PList list, Object value,
-                        @Cached SequenceStorageNodes.AppendNode appendNode,
-                        @Cached(value = "getUpdateStoreProfile()", uncached = "getUpdateStoreProfileUncached()", dimensions = 1) BranchProfile[] updateStoreProfile) {
+                        @Shared("appendNode") @Cached SequenceStorageNodes.AppendNode appendNode,
+                        @Shared("updateStoreProfile") @Cached(value = "getUpdateStoreProfile()", uncached = "getUpdateStoreProfileUncached()", dimensions = 1) BranchProfile[] updateStoreProfile) {
+            // growing the storage is not atomic, concurrent appends would lose items
+            synchronized (list) {
+                append(list, value, appendNode, updateStoreProfile);
+            }
+        }
+
+        private static void append(PList list, Object value, SequenceStorageNodes.AppendNode appendNode, BranchProfile[] updateStoreProfile) {
             if (updateStoreProfile[0] == null) {
                 // Executed for the first time. We don't pollute the AppendNode specializations,
                 // yet, in case we're transitioning exactly once, because we'll pontentially pass
@@ -314,4 +358,375 @@ public abstract class ListNodes {
             return AppendNodeGen.getUncached();
         }
     }
+
+    /**
+     * Converts the index argument of a list item operation with {@code __index__}, and the bounds
+     * of a slice argument with {@code __index__} as well, so that the storage nodes do not call back
+     * into Python when the result is applied while holding the monitor of the list.
+     */
+    @ImportStatic({PGuards.class, PythonOptions.class})
+    public abstract static class ToIndexOrSliceNode extends PNodeWithContext {
+
+        public abstract Object execute(VirtualFrame frame, Object indexOrSlice);
+
+        @Specialization
+        static int doInt(int index) {
+            return index;
+        }
+
+        @Specialization
+        static PSlice doSlice(PSlice slice,
+                        @Cached CoerceToIntSlice castSlice) {
+            return castSlice.execute(slice);
+        }
+
+        @Specialization(guards = {"!isInteger(index)", "!isPSlice(index)"}, limit = "getCallSiteInlineCacheMaxDepth()")
+        static int doGeneric(VirtualFrame frame, Object index,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame,
+                        @CachedLibrary("index") PythonObjectLibrary lib) {
+            if (hasFrame.profile(frame != null)) {
+                return lib.asSizeWithState(index, PythonBuiltinClassType.IndexError, PArguments.getThreadState(frame));
+            }
+            return lib.asSize(index, PythonBuiltinClassType.IndexError);
+        }
+
+        public static ToIndexOrSliceNode create() {
+            return ToIndexOrSliceNodeGen.create();
+        }
+    }
+
+    /**
+     * Collects the argument of {@code list.extend} or {@code +=} into a sequence whose storage can
+     * be read without calling back into Python, so that the updated list does not stay locked while
+     * {@code __iter__} and {@code __next__} of the argument run. Lists are copied, so that their
+     * length cannot change while the items are added, and tuples are used as they are, unless
+     * their type may override {@code __iter__}. Anything else is iterated into a new list.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class MaterializeIterableNode extends PNodeWithContext {
+
+        public abstract PSequence execute(Object iterable);
+
+        @Specialization(guards = "cannotBeOverridden(lib.getLazyPythonClass(list))", limit = "2")
+        static PSequence doList(PList list,
+                        @SuppressWarnings("unused") @CachedLibrary("list") PythonObjectLibrary lib,
+                        @Cached SequenceStorageNodes.CopyNode copyNode,
+                        @Cached PythonObjectFactory factory) {
+            return factory.createList(copyNode.execute(list.getSequenceStorage()));
+        }
+
+        @Specialization(guards = "cannotBeOverridden(lib.getLazyPythonClass(tuple))", limit = "2")
+        static PSequence doTuple(PTuple tuple,
+                        @SuppressWarnings("unused") @CachedLibrary("tuple") PythonObjectLibrary lib) {
+            return tuple;
+        }
+
+        @Fallback
+        static PSequence doGeneric(Object iterable,
+                        @Cached ConstructListNode constructListNode) {
+            return constructListNode.execute(iterable);
+        }
+
+        public static MaterializeIterableNode create() {
+            return MaterializeIterableNodeGen.create();
+        }
+    }
+
+    /**
+     * Sorts a list in place like CPython's {@code list.sort}. Lists of ints or doubles without a
+     * key function are sorted directly in their storage. Otherwise, the key function is called
+     * once per item and the keys are sorted together with the items by {@link TimSort}, using
+     * plain Java comparisons if all keys are strings, ints or floats. While Python code may run,
+     * the list is empty, so that modifications during the sort can be detected. Once other threads
+     * exist, the items are taken out of the list and put back while holding its monitor, but the
+     * monitor is not held during the comparisons.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class SortNode extends PNodeWithRaise implements IndirectCallNode {
+        private final Assumption dontNeedExceptionState = Truffle.getRuntime().createAssumption();
+        private final Assumption dontNeedCallerFrame = Truffle.getRuntime().createAssumption();
+
+        @Override
+        public Assumption needNotPassFrameAssumption() {
+            return dontNeedCallerFrame;
+        }
+
+        @Override
+        public Assumption needNotPassExceptionAssumption() {
+            return dontNeedExceptionState;
+        }
+
+        public abstract void execute(VirtualFrame frame, PList list, Object key, boolean reverse);
+
+        @Specialization(guards = {"isNone(key)", "isIntStorage(list)"}, assumptions = "singleThreadedAssumption()")
+        static void sortInts(PList list, @SuppressWarnings("unused") PNone key, boolean reverse) {
+            IntSequenceStorage storage = (IntSequenceStorage) list.getSequenceStorage();
+            storage.detachSharedArray();
+            sortInts(storage.getInternalIntArray(), storage.length(), reverse);
+        }
+
+        @Specialization(guards = {"isNone(key)", "isLongStorage(list)"}, assumptions = "singleThreadedAssumption()")
+        static void sortLongs(PList list, @SuppressWarnings("unused") PNone key, boolean reverse) {
+            LongSequenceStorage storage = (LongSequenceStorage) list.getSequenceStorage();
+            storage.detachSharedArray();
+            sortLongs(storage.getInternalLongArray(), storage.length(), reverse);
+        }
+
+        @Specialization(guards = {"isNone(key)", "isDoubleStorage(list)"}, assumptions = "singleThreadedAssumption()")
+        void sortDoubles(VirtualFrame frame, PList list, PNone key, boolean reverse,
+                        @Shared("copy") @Cached SequenceStorageNodes.CopyInternalArrayNode copyNode,
+                        @Shared("callKey") @Cached CallNode callKey,
+                        @Shared("lt") @Cached("createLessThan()") BinaryComparisonNode ltNode,
+                        @Shared("castToBoolean") @Cached("createIfTrue()") CoerceToBooleanNode castToBooleanNode,
+                        @Shared("context") @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Shared("singleThreaded") @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) list.getSequenceStorage();
+            storage.detachSharedArray();
+            if (!sortDoubles(storage.getInternalDoubleArray(), storage.length(), reverse)) {
+                sortObjects(frame, list, key, reverse, copyNode, callKey, ltNode, castToBooleanNode, context, singleThreaded);
+            }
+        }
+
+        @Specialization
+        void sortObjects(VirtualFrame frame, PList list, Object key, boolean reverse,
+                        @Shared("copy") @Cached SequenceStorageNodes.CopyInternalArrayNode copyNode,
+                        @Shared("callKey") @Cached CallNode callKey,
+                        @Shared("lt") @Cached("createLessThan()") BinaryComparisonNode ltNode,
+                        @Shared("castToBoolean") @Cached("createIfTrue()") CoerceToBooleanNode castToBooleanNode,
+                        @Shared("context") @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Shared("singleThreaded") @Cached("singleThreadedAssumption()") Assumption singleThreaded) {
+            SequenceStorage storage;
+            Object[] values;
+            if (singleThreaded.isValid()) {
+                storage = list.getSequenceStorage();
+                if (storage.length() < 2 && key == PNone.NONE) {
+                    return;
+                }
+                values = copyNode.execute(storage);
+                list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+            } else {
+                synchronized (list) {
+                    storage = list.getSequenceStorage();
+                    if (key == PNone.NONE && (storage.length() < 2 || sortPrimitives(storage, reverse))) {
+                        return;
+                    }
+                    values = copyNode.execute(storage);
+                    list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+                }
+            }
+            int len = storage.length();
+            boolean modified;
+            try {
+                Object[] keys = null;
+                if (key != PNone.NONE) {
+                    keys = new Object[len];
+                    for (int i = 0; i < len; i++) {
+                        keys[i] = callKey.execute(frame, key, values[i]);
+                    }
+                }
+                Object state = IndirectCallContext.enter(frame, context, this);
+                try {
+                    sort(keys, values, len, reverse, ltNode, castToBooleanNode);
+                } finally {
+                    IndirectCallContext.exit(frame, context, state);
+                }
+            } finally {
+                if (singleThreaded.isValid()) {
+                    modified = writeBack(list, storage, values);
+                } else {
+                    synchronized (list) {
+                        modified = writeBack(list, storage, values);
+                    }
+                }
+            }
+            if (modified) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.LIST_MODIFIED_DURING_SORT);
+            }
+        }
+
+        /**
+         * Sorts an int, long or float storage without a key function in place. Returns
+         * {@code false} if the storage has another type or the floats cannot be ordered by
+         * {@link Arrays#sort(double[])}.
+         */
+        private static boolean sortPrimitives(SequenceStorage storage, boolean reverse) {
+            if (storage instanceof IntSequenceStorage) {
+                IntSequenceStorage intStorage = (IntSequenceStorage) storage;
+                intStorage.detachSharedArray();
+                sortInts(intStorage.getInternalIntArray(), intStorage.length(), reverse);
+                return true;
+            } else if (storage instanceof LongSequenceStorage) {
+                LongSequenceStorage longStorage = (LongSequenceStorage) storage;
+                longStorage.detachSharedArray();
+                sortLongs(longStorage.getInternalLongArray(), longStorage.length(), reverse);
+                return true;
+            } else if (storage instanceof DoubleSequenceStorage) {
+                DoubleSequenceStorage doubleStorage = (DoubleSequenceStorage) storage;
+                doubleStorage.detachSharedArray();
+                return sortDoubles(doubleStorage.getInternalDoubleArray(), doubleStorage.length(), reverse);
+            }
+            return false;
+        }
+
+        @TruffleBoundary
+        private static void sortInts(int[] array, int len, boolean reverse) {
+            Arrays.sort(array, 0, len);
+            if (reverse) {
+                for (int i = 0, j = len - 1; i < j; i++, j--) {
+                    int t = array[i];
+                    array[i] = array[j];
+                    array[j] = t;
+                }
+            }
+        }
+
+        @TruffleBoundary
+        private static void sortLongs(long[] array, int len, boolean reverse) {
+            Arrays.sort(array, 0, len);
+            if (reverse) {
+                for (int i = 0, j = len - 1; i < j; i++, j--) {
+                    long t = array[i];
+                    array[i] = array[j];
+                    array[j] = t;
+                }
+            }
+        }
+
+        /**
+         * {@link Arrays#sort(double[])} orders NaNs and {@code -0.0 < 0.0}, unlike Python's
+         * {@code <}, so it is only used if that cannot make a difference.
+         */
+        @TruffleBoundary
+        private static boolean sortDoubles(double[] array, int len, boolean reverse) {
+            boolean negativeZero = false;
+            boolean positiveZero = false;
+            for (int i = 0; i < len; i++) {
+                double d = array[i];
+                if (Double.isNaN(d)) {
+                    return false;
+                } else if (d == 0) {
+                    if (Double.doubleToRawLongBits(d) == 0) {
+                        positiveZero = true;
+                    } else {
+                        negativeZero = true;
+                    }
+                }
+            }
+            if (negativeZero && positiveZero) {
+                return false;
+            }
+            Arrays.sort(array, 0, len);
+            if (reverse) {
+                for (int i = 0, j = len - 1; i < j; i++, j--) {
+                    double t = array[i];
+                    array[i] = array[j];
+                    array[j] = t;
+                }
+            }
+            return true;
+        }
+
+        @TruffleBoundary
+        private static void sort(Object[] keys, Object[] values, int len, boolean reverse, BinaryComparisonNode ltNode, CoerceToBooleanNode castToBooleanNode) {
+            // sort the items themselves if there is no key function
+            Object[] sortKeys = keys != null ? keys : values;
+            Object[] sortValues = keys != null ? values : null;
+            if (reverse) {
+                // reversing before and after the sort keeps it stable
+                reverse(sortKeys, sortValues, len);
+            }
+            try {
+                createTimSort(sortKeys, len, ltNode, castToBooleanNode).sort(sortKeys, sortValues, len);
+            } finally {
+                if (reverse) {
+                    reverse(sortKeys, sortValues, len);
+                }
+            }
+        }
+
+        private static void reverse(Object[] keys, Object[] values, int len) {
+            for (int i = 0, j = len - 1; i < j; i++, j--) {
+                Object t = keys[i];
+                keys[i] = keys[j];
+                keys[j] = t;
+                if (values != null) {
+                    t = values[i];
+                    values[i] = values[j];
+                    values[j] = t;
+                }
+            }
+        }
+
+        /** Like CPython, uses a specialized comparison if all keys have the same simple type. */
+        private static TimSort createTimSort(Object[] keys, int len, BinaryComparisonNode ltNode, CoerceToBooleanNode castToBooleanNode) {
+            boolean allStrings = true;
+            boolean allLongs = true;
+            boolean allDoubles = true;
+            for (int i = 0; i < len && (allStrings || allLongs || allDoubles); i++) {
+                Object k = keys[i];
+                allStrings &= k instanceof String;
+                allLongs &= k instanceof Integer || k instanceof Long;
+                allDoubles &= k instanceof Double;
+            }
+            if (allStrings) {
+                return new TimSort() {
+                    @Override
+                    protected boolean lessThan(Object a, Object b) {
+                        return StringUtils.compareToUnicodeAware((String) a, (String) b) < 0;
+                    }
+                };
+            } else if (allLongs) {
+                return new TimSort() {
+                    @Override
+                    protected boolean lessThan(Object a, Object b) {
+                        return ((Number) a).longValue() < ((Number) b).longValue();
+                    }
+                };
+            } else if (allDoubles) {
+                return new TimSort() {
+                    @Override
+                    protected boolean lessThan(Object a, Object b) {
+                        return (double) a < (double) b;
+                    }
+                };
+            }
+            return new TimSort() {
+                @Override
+                protected boolean lessThan(Object a, Object b) {
+                    return castToBooleanNode.executeBoolean(null, ltNode.executeWith(null, a, b));
+                }
+            };
+        }
+
+        /**
+         * Puts the sorted items back into the list and returns whether it was modified during the
+         * sort.
+         */
+        @TruffleBoundary
+        private static boolean writeBack(PList list, SequenceStorage storage, Object[] values) {
+            boolean modified = list.getSequenceStorage() != EmptySequenceStorage.INSTANCE;
+            if (storage instanceof NativeSequenceStorage) {
+                SequenceStorageNodes.SetItemScalarNode setItem = SequenceStorageNodes.SetItemScalarNode.getUncached();
+                for (int i = 0; i < values.length; i++) {
+                    setItem.execute(storage, i, values[i]);
+                }
+                list.setSequenceStorage(storage);
+            } else {
+                list.setSequenceStorage(SequenceStorageFactory.createStorage(values));
+            }
+            return modified;
+        }
+
+        static BinaryComparisonNode createLessThan() {
+            return BinaryComparisonNode.create(__LT__, __GT__, "<");
+        }
+
+        static CoerceToBooleanNode createIfTrue() {
+            return CoerceToBooleanNode.createIfTrueNode();
+        }
+
+        public static SortNode create() {
+            return SortNodeGen.create();
+        }
+    }
 }
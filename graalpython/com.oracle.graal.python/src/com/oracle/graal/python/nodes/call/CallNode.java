@@ -45,6 +45,7 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.nodes.ErrorMessages;
@@ -53,9 +54,11 @@ import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.argument.CreateArgumentsNode;
+import com.oracle.graal.python.nodes.argument.keywords.ExpandKeywordStarargsNode;
 import com.oracle.graal.python.nodes.argument.positional.PositionalArgumentsNode;
 import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
 import com.oracle.graal.python.nodes.call.special.CallVarargsMethodNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.truffle.PythonTypes;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
@@ -110,6 +113,23 @@ public abstract class CallNode extends PNodeWithContext {
         return executeInternal(frame, callableObject, arguments, PKeyword.EMPTY_KEYWORDS);
     }
 
+    /**
+     * Calls of exact {@code functools.partial} objects go to the wrapped function directly, so that
+     * the nested call node can cache it like any other call target.
+     */
+    @Specialization(guards = "isExactPartial(callable, isPartialProfile)")
+    protected Object partialCall(VirtualFrame frame, PPartial callable, Object[] arguments, PKeyword[] keywords,
+                    @SuppressWarnings("unused") @Cached IsBuiltinClassProfile isPartialProfile,
+                    @Cached ExpandKeywordStarargsNode expandKeywordsNode,
+                    @Cached CallNode callNode) {
+        PKeyword[] stored = expandKeywordsNode.execute(callable.getKeywords());
+        return callNode.execute(frame, callable.getFunction(), callable.prependArgs(arguments), PPartial.mergeKeywords(stored, keywords));
+    }
+
+    protected static boolean isExactPartial(PPartial callable, IsBuiltinClassProfile isPartialProfile) {
+        return isPartialProfile.profileObject(callable, PythonBuiltinClassType.PPartial);
+    }
+
     @Specialization(guards = "!isCallable(callableObject) || isClass(callableObject, iLib)", limit = "3")
     protected Object doObjectAndType(VirtualFrame frame, Object callableObject, Object[] arguments, PKeyword[] keywords,
                     @Cached PRaiseNode raise,
@@ -192,7 +212,7 @@ public abstract class CallNode extends PNodeWithContext {
         return dispatch.executeCall(frame, callable, createArgs.execute(callable, arguments, keywords));
     }
 
-    @Specialization(replaces = {"doObjectAndType", "methodCallBuiltinDirect", "methodCallDirect", "builtinMethodCallBuiltinDirectCached",
+    @Specialization(replaces = {"partialCall", "doObjectAndType", "methodCallBuiltinDirect", "methodCallDirect", "builtinMethodCallBuiltinDirectCached",
                     "builtinMethodCallBuiltinDirect", "methodCall", "builtinMethodCall", "functionCall", "builtinFunctionCall"})
     protected Object doGeneric(VirtualFrame frame, Object callableObject, Object[] arguments, PKeyword[] keywords,
                     @Shared("dispatchNode") @Cached CallDispatchNode dispatch,
@@ -59,6 +59,7 @@ import com.oracle.graal.python.parser.sst.SSTSerializerVisitor;
 import com.oracle.graal.python.parser.sst.SerializationUtils;
 import com.oracle.graal.python.parser.sst.StringUtils;
 import com.oracle.graal.python.runtime.PythonCodeSerializer;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.PythonParser;
@@ -378,13 +379,38 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
 
     @TruffleBoundary
     public Node parseN(ParserMode mode, int optimizeLevel, ParserErrorCallback errors, Source source, Frame currentFrame, String[] argumentNames) {
+        PythonContext context = null;
+        if (mode == ParserMode.File && !IN_IMAGE_BUILD_TIME && SSTFileCache.isCacheable(source)) {
+            context = PythonLanguage.getContext();
+            if (!context.getOption(PythonOptions.SSTCache)) {
+                context = null;
+            } else {
+                byte[] cachedSST = SSTFileCache.load(context, source, optimizeLevel);
+                if (cachedSST != null) {
+                    try {
+                        return deserialize(source, cachedSST);
+                    } catch (PException e) {
+                        // the cache entry is unusable, parse the source instead
+                    }
+                }
+            }
+        }
         PythonSSTNodeFactory sstFactory = new PythonSSTNodeFactory(errors, source, this);
         CacheItem parserSSTResult = parseWithANTLR(mode, optimizeLevel, errors, sstFactory, source, currentFrame, argumentNames);
+        Node result;
         try {
-            return sstFactory.createParserResult(parserSSTResult.antlrResult, mode, currentFrame);
+            result = sstFactory.createParserResult(parserSSTResult.antlrResult, mode, currentFrame);
         } catch (Exception e) {
             throw handleParserError(errors, source, e);
         }
+        if (context != null) {
+            try {
+                SSTFileCache.store(context, source, optimizeLevel, serialize(parserSSTResult.antlrResult, parserSSTResult.globalScope, true));
+            } catch (PException e) {
+                // the SST cannot be serialized, so it won't be cached
+            }
+        }
+        return result;
     }
 
     @Override
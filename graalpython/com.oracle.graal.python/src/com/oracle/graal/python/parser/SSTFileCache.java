@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.parser.sst.SerializationUtils;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLogger;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * A persistent cache of parsed modules, our equivalent of {@code .pyc} files. For a source file
+ * {@code dir/name.py}, the serialized SST and {@link ScopeInfo} produced by
+ * {@link PythonParserImpl#serialize(com.oracle.graal.python.parser.sst.SSTNode, ScopeInfo, boolean)}
+ * are stored in {@code dir/__pycache__/name.graalpython-38.sst}, or in a mirror of the source tree
+ * under {@link PythonOptions#PyCachePrefix} if that is set.
+ *
+ * Each entry starts with a header containing a magic number derived from
+ * {@link SerializationUtils#VERSION}, the modification time and size of the source file, and a
+ * hash of the source text. With {@link PythonOptions#CheckHashPycsMode} {@code never}, an entry is
+ * considered valid if the modification time and size match, otherwise the hash of the source text
+ * must match as well. Failures to read or write the cache are never reported to the program, they
+ * just make us fall back to parsing.
+ */
+final class SSTFileCache {
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(SSTFileCache.class);
+
+    private static final String CACHE_DIRECTORY = "__pycache__";
+    private static final String CACHE_SUFFIX = ".sst";
+    private static final String CACHE_TAG = "graalpython-" + PythonLanguage.MAJOR + PythonLanguage.MINOR;
+    // "SST" followed by the serialization version
+    private static final int MAGIC = 0x53535400 | SerializationUtils.VERSION;
+    private static final int HEADER_SIZE = Integer.BYTES + 3 * Long.BYTES;
+
+    private SSTFileCache() {
+        // no instances
+    }
+
+    static boolean isCacheable(Source source) {
+        return source.getPath() != null && !source.isInteractive() && source.hasCharacters();
+    }
+
+    /**
+     * Returns the serialized SST of the given source, or {@code null} if there is no valid cache
+     * entry for it.
+     */
+    static byte[] load(PythonContext context, Source source, int optimizeLevel) {
+        try {
+            TruffleFile sourceFile = context.getPublicTruffleFileRelaxed(source.getPath(), PythonLanguage.DEFAULT_PYTHON_EXTENSIONS);
+            TruffleFile cacheFile = getCacheFile(context, sourceFile, optimizeLevel);
+            if (cacheFile == null || !cacheFile.isRegularFile()) {
+                return null;
+            }
+            byte[] data = cacheFile.readAllBytes();
+            if (data.length <= HEADER_SIZE) {
+                return null;
+            }
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(data, 0, HEADER_SIZE));
+            if (header.readInt() != MAGIC) {
+                return null;
+            }
+            long mtime = header.readLong();
+            long size = header.readLong();
+            long hash = header.readLong();
+            if (mtime != getModificationTime(sourceFile) || size != sourceFile.size()) {
+                return null;
+            }
+            if (!"never".equals(context.getOption(PythonOptions.CheckHashPycsMode)) && hash != hashSource(source.getCharacters())) {
+                return null;
+            }
+            LOGGER.log(Level.FINE, () -> "Loading cached SST for " + source.getPath() + " from " + cacheFile);
+            return Arrays.copyOfRange(data, HEADER_SIZE, data.length);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            LOGGER.log(Level.FINE, e, () -> "Cannot load cached SST for " + source.getPath());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the serialized SST of the given source. The entry is written to a temporary file
+     * first and then moved into place, so that concurrent readers never see partial entries.
+     */
+    static void store(PythonContext context, Source source, int optimizeLevel, byte[] serializedSST) {
+        TruffleFile tempFile = null;
+        try {
+            TruffleFile sourceFile = context.getPublicTruffleFileRelaxed(source.getPath(), PythonLanguage.DEFAULT_PYTHON_EXTENSIONS);
+            TruffleFile cacheFile = getCacheFile(context, sourceFile, optimizeLevel);
+            if (cacheFile == null) {
+                return;
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(HEADER_SIZE + serializedSST.length);
+            DataOutputStream dos = new DataOutputStream(baos);
+            dos.writeInt(MAGIC);
+            dos.writeLong(getModificationTime(sourceFile));
+            dos.writeLong(sourceFile.size());
+            dos.writeLong(hashSource(source.getCharacters()));
+            dos.write(serializedSST);
+            dos.close();
+
+            cacheFile.getParent().createDirectories();
+            tempFile = cacheFile.getParent().resolve(cacheFile.getName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+            tempFile.write(baos.toByteArray());
+            tempFile.move(cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempFile = null;
+            LOGGER.log(Level.FINE, () -> "Stored SST for " + source.getPath() + " in " + cacheFile);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            LOGGER.log(Level.FINE, e, () -> "Cannot store SST for " + source.getPath());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    tempFile.delete();
+                } catch (IOException | SecurityException e) {
+                    // nothing we can do
+                }
+            }
+        }
+    }
+
+    private static TruffleFile getCacheFile(PythonContext context, TruffleFile sourceFile, int optimizeLevel) {
+        TruffleFile directory = sourceFile.getParent();
+        if (directory == null) {
+            return null;
+        }
+        String name = sourceFile.getName();
+        int dot = name.lastIndexOf('.');
+        StringBuilder cacheName = new StringBuilder(dot > 0 ? name.substring(0, dot) : name).append('.').append(CACHE_TAG);
+        if (optimizeLevel > 0) {
+            cacheName.append(".opt-").append(optimizeLevel);
+        }
+        cacheName.append(CACHE_SUFFIX);
+
+        String prefix = context.getOption(PythonOptions.PyCachePrefix);
+        TruffleFile cacheDirectory;
+        if (prefix.isEmpty()) {
+            cacheDirectory = directory.resolve(CACHE_DIRECTORY);
+        } else {
+            // mirror the absolute source directory below the prefix, like CPython does
+            String relativeDirectory = directory.getAbsoluteFile().getPath();
+            String separator = context.getEnv().getFileNameSeparator();
+            while (relativeDirectory.startsWith(separator)) {
+                relativeDirectory = relativeDirectory.substring(separator.length());
+            }
+            cacheDirectory = context.getEnv().getPublicTruffleFile(prefix).resolve(relativeDirectory);
+        }
+        return context.getPublicTruffleFileRelaxed(cacheDirectory.resolve(cacheName.toString()).getPath(), CACHE_SUFFIX);
+    }
+
+    private static long getModificationTime(TruffleFile file) throws IOException {
+        return file.getLastModifiedTime().toMillis();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the source text. Hashing is a small fraction of the cost of parsing.
+     */
+    private static long hashSource(CharSequence text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ text.length();
+    }
+}
@@ -426,7 +426,8 @@ public abstract class ExecutionContext {
          * {@link IndirectCallContext#enter} to transfer the state to the context. In addition, this
          * will acquire the interop lock from the {@link PythonContext} to ensure exclusive
          * execution to prevent unsynchronized global state modification (which is in particular a
-         * problem when calling native code).
+         * problem when calling native code). Time spent waiting for the lock is attributed to the
+         * root node of this call site (see {@link InteropLock}).
          *
          * <pre>
          * public abstract class SomeNode extends Node {
@@ -456,7 +457,7 @@ public abstract class ExecutionContext {
                 return null;
             }
             if (execute(context)) {
-                context.acquireInteropLock();
+                context.acquireInteropLock(this);
             }
             return IndirectCallContext.enter(frame, context, callNode);
         }
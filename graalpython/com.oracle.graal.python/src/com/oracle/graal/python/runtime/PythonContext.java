@@ -101,6 +101,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.ExceptionType;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.utilities.CyclicAssumption;
 
@@ -133,6 +134,9 @@ public final class PythonContext {
         /* set to emulate Py_ReprEnter/Leave */
         HashSet<Object> reprObjectSet;
 
+        /* set while a C function declared with METH_TRUFFLE_THREADSAFE runs without the lock */
+        boolean inThreadSafeNativeCall;
+
         PythonThreadState() {
             owners = new LinkedList<>();
         }
@@ -213,6 +217,7 @@ public final class PythonContext {
     private final List<AtExitHook> atExitHooks = new ArrayList<>();
     private final HashMap<PythonNativeClass, CyclicAssumption> nativeClassStableAssumptions = new HashMap<>();
     private final ThreadGroup threadGroup = new ThreadGroup(GRAALPYTHON_THREADS);
+    private final PythonThreads threads = new PythonThreads();
     private final IDUtils idUtils = new IDUtils();
 
     @CompilationFinal private PosixSupport posixSupport;
@@ -250,7 +255,7 @@ public final class PythonContext {
     private static final Assumption singleNativeContext = Truffle.getRuntime().createAssumption("single native context assumption");
 
     /* A lock for interop calls when this context is used by multiple threads. */
-    private ReentrantLock interopLock;
+    private InteropLock interopLock;
 
     /** The thread-local state object. */
     private ThreadLocal<PThreadState> customThreadState;
@@ -288,6 +293,10 @@ public final class PythonContext {
         return threadGroup;
     }
 
+    public PythonThreads getThreads() {
+        return threads;
+    }
+
     @TruffleBoundary(allowInlining = true)
     public long getPythonThreadStackSize() {
         return pythonThreadStackSize.get();
@@ -419,6 +428,19 @@ public final class PythonContext {
         return getThreadState().caughtException;
     }
 
+    /**
+     * Whether the current thread runs a C function declared with {@code METH_TRUFFLE_THREADSAFE}
+     * that was called without the interop lock. Upcalls from such a function into the C API take
+     * the lock again (see {@link PythonAbstractObject.PExecuteNode}).
+     */
+    public boolean isInThreadSafeNativeCall() {
+        return getThreadState().inThreadSafeNativeCall;
+    }
+
+    public void setInThreadSafeNativeCall(boolean value) {
+        getThreadState().inThreadSafeNativeCall = value;
+    }
+
     public void setTopFrameInfo(PFrame.Reference topframeref) {
         getThreadState().topframeref = topframeref;
     }
@@ -954,16 +976,28 @@ public final class PythonContext {
         return null;
     }
 
-    @TruffleBoundary
     public void acquireInteropLock() {
-        interopLock.lock();
+        interopLock.lock(null);
+    }
+
+    /**
+     * Like {@link #acquireInteropLock()} but attributes any time spent waiting for the lock to the
+     * root node of {@code location}.
+     */
+    public void acquireInteropLock(Node location) {
+        interopLock.lock(location);
     }
 
-    @TruffleBoundary
     public void releaseInteropLock() {
-        if (interopLock.isLocked()) {
-            interopLock.unlock();
-        }
+        interopLock.unlock();
+    }
+
+    /**
+     * Returns the interop lock or {@code null} if this context was never used by multiple
+     * threads.
+     */
+    public InteropLock getInteropLock() {
+        return interopLock;
     }
 
     /**
@@ -1084,7 +1118,7 @@ public final class PythonContext {
 
     @TruffleBoundary
     public void initializeMultiThreading() {
-        interopLock = new ReentrantLock();
+        interopLock = new InteropLock();
         singleThreaded.invalidate();
         threadState = new ThreadLocal<>();
         synchronized (this) {
@@ -152,12 +152,19 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.INTERNAL, help = "Enable catching all Exceptions in generic try-catch statements.") //
     public static final OptionKey<Boolean> CatchAllExceptions = new OptionKey<>(false);
 
+    @EngineOption @Option(category = OptionCategory.INTERNAL, help = "Read the @Builtin annotations of each builtins class once per engine instead of once per context.") //
+    public static final OptionKey<Boolean> CacheBuiltinAnnotations = new OptionKey<>(true);
+
     @Option(category = OptionCategory.EXPERT, help = "Prints path to parsed files") //
     public static final OptionKey<Boolean> ParserLogFiles = new OptionKey<>(false);
 
     @Option(category = OptionCategory.EXPERT, help = "Prints parser time statistics after number of parsed files, set by this option. 0 or <0 means no statistics are printed.") //
     public static final OptionKey<Integer> ParserStatistics = new OptionKey<>(0);
 
+    @Option(category = OptionCategory.EXPERT, help = "Store the parsed SST of source files in __pycache__ directories (or under PyCachePrefix) and load it on subsequent runs instead of parsing the files again. " +
+                    "Cache entries are validated according to CheckHashPycsMode.") //
+    public static final OptionKey<Boolean> SSTCache = new OptionKey<>(false);
+
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "") //
     public static final OptionKey<Integer> AttributeAccessInlineCacheMaxDepth = new OptionKey<>(5);
 
@@ -185,6 +192,11 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "This option control builtin _thread module support") //
     public static final OptionKey<Boolean> WithThread = new OptionKey<>(false);
 
+    @Option(category = OptionCategory.EXPERT, help = "Run threads started from Python on JDK virtual threads if the JVM supports them, falling back to platform threads otherwise. " +
+                    "Virtual threads are not created through the Truffle environment and are not part of the context's thread group, so closing the context is not safe until they have finished. " +
+                    "Waits in select, sockets and other native calls may block the carrier thread.", stability = OptionStability.EXPERIMENTAL) //
+    public static final OptionKey<Boolean> VirtualThreads = new OptionKey<>(false);
+
     // disabling TRegex has an effect on the _sre Python functions that are
     // dynamically created, so we cannot change that option again.
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "Use the optimized TRegex engine. Default true") //
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleContext;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
+/**
+ * Creates the threads started by {@code _thread.start_new_thread} and counts them. When
+ * {@link PythonOptions#VirtualThreads} is set and the JVM provides {@code Thread.ofVirtual()},
+ * Python threads are virtual threads that enter the context themselves. Otherwise, and whenever
+ * creating a virtual thread fails, platform threads are created through {@link Env#createThread}.
+ * <p>
+ * Only waits that block in Java code release the carrier thread of a virtual thread, i.e. Python
+ * locks (which are {@code java.util.concurrent} locks) and {@code time.sleep}. {@code select},
+ * socket operations and anything else that goes through the POSIX support layer may block in
+ * native code and then occupy the carrier thread for as long as they wait.
+ * <p>
+ * Virtual threads are not safe for closing the context. They bypass {@link Env#createThread}:
+ * Truffle does not see them until they enter the context, and they are not in
+ * {@link PythonContext#getThreadGroup()}. Closing the context neither waits for nor interrupts a
+ * virtual thread that has not entered yet, and it fails while one is still running Python code.
+ * Embedders that enable the option must make sure all Python threads have finished before they
+ * close the context. This is why the option is experimental. Platform and virtual threads are
+ * counted separately.
+ */
+public final class PythonThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method unstarted = null;
+        try {
+            // looked up reflectively since we still compile against JDKs without virtual threads
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+            unstarted = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        UNSTARTED = unstarted;
+    }
+
+    public static final class Counters {
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger peakRunning = new AtomicInteger();
+
+        private Runnable count(Runnable action) {
+            return () -> {
+                int now = running.incrementAndGet();
+                peakRunning.accumulateAndGet(now, Math::max);
+                try {
+                    action.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            };
+        }
+
+        public long getCreated() {
+            return created.get();
+        }
+
+        public int getRunning() {
+            return running.get();
+        }
+
+        public int getPeakRunning() {
+            return peakRunning.get();
+        }
+    }
+
+    private final Counters platform = new Counters();
+    private final Counters virtual = new Counters();
+
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    @TruffleBoundary
+    public Thread createThread(PythonContext context, Runnable action) {
+        Env env = context.getEnv();
+        if (context.getOption(PythonOptions.VirtualThreads) && isVirtualThreadSupported()) {
+            TruffleContext truffleContext = env.getContext();
+            Runnable counted = virtual.count(action);
+            Thread thread = createVirtualThread(() -> {
+                Object prev = truffleContext.enter();
+                try {
+                    counted.run();
+                } finally {
+                    truffleContext.leave(prev);
+                }
+            });
+            if (thread != null) {
+                virtual.created.incrementAndGet();
+                return thread;
+            }
+        }
+        Thread thread = env.createThread(platform.count(action), env.getContext(), context.getThreadGroup());
+        platform.created.incrementAndGet();
+        return thread;
+    }
+
+    private static Thread createVirtualThread(Runnable runnable) {
+        try {
+            return (Thread) UNSTARTED.invoke(OF_VIRTUAL.invoke(null), runnable);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // e.g. virtual threads are a preview feature on this JVM and not enabled
+            return null;
+        }
+    }
+
+    public Counters getPlatform() {
+        return platform;
+    }
+
+    public Counters getVirtual() {
+        return virtual;
+    }
+}
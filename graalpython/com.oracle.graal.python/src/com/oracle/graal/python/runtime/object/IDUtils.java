@@ -41,15 +41,22 @@
 package com.oracle.graal.python.runtime.object;
 
 import java.math.BigInteger;
-import java.util.Collections;
-import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.util.StripedWeakMap;
 import com.oracle.graal.python.util.WeakIdentityHashMap;
 import com.oracle.truffle.api.CompilerDirectives;
 
+/**
+ * Hands out the values of {@code id()}. Python and native objects store their id in
+ * {@link com.oracle.graal.python.builtins.objects.PythonAbstractObject} and assign it without
+ * locking. Strings and foreign objects have no such field, their ids live in weak maps split into
+ * stripes, and assigning or looking up such an id takes the monitor of one stripe.
+ */
 public final class IDUtils {
     private static final long MAX_OBJECT_ID = (1L << 62) - 1;
     private static final long MAX_DOUBLE_ID = (1L << 63) - 1;
@@ -84,9 +91,9 @@ public final class IDUtils {
     public static final long ID_EMPTY_TUPLE = getId(ReservedID.emptyTuple);
     public static final long ID_EMPTY_FROZENSET = getId(ReservedID.emptyFrozenSet);
 
-    private final Map<Object, Long> weakIdMap = Collections.synchronizedMap(new WeakIdentityHashMap<>());
+    private final StripedWeakMap<Object, Long> weakIdMap = new StripedWeakMap<>(WeakIdentityHashMap::new, true);
     // for Python interned strings and java strings
-    private final Map<String, Long> weakStringIdMap = Collections.synchronizedMap(new WeakHashMap<>());
+    private final StripedWeakMap<String, Long> weakStringIdMap = new StripedWeakMap<>(WeakHashMap::new, false);
     private final AtomicLong globalId = new AtomicLong(ID_OFFSET);
 
     private static long asMaskedReservedObjectId(long id) {
@@ -96,7 +103,6 @@ public final class IDUtils {
 
     public static long asMaskedObjectId(long id) {
         assert Long.compareUnsigned(ID_OFFSET, id) <= 0 && Long.compareUnsigned(id, MAX_OBJECT_ID) <= 0;
-        // TODO: handle overflow (bucketed counter interval with free bucket monitor thread)
         return (id << 2) | ID_MASK_OBJECT;
     }
 
@@ -135,7 +141,14 @@ public final class IDUtils {
 
     @CompilerDirectives.TruffleBoundary(allowInlining = true)
     private long getNextId() {
-        return globalId.incrementAndGet();
+        long id = globalId.incrementAndGet();
+        if (id > MAX_OBJECT_ID) {
+            // ids are never reused, so handing out more than 2^62 of them would wrap around into
+            // ids of live objects (or of the other id kinds) once shifted and masked
+            globalId.set(MAX_OBJECT_ID);
+            throw PRaiseNode.getUncached().raise(PythonBuiltinClassType.OverflowError, ErrorMessages.OBJECT_IDS_EXHAUSTED);
+        }
+        return id;
     }
 
     public long getNextObjectId() {
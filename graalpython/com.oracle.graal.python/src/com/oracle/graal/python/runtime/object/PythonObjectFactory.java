@@ -28,7 +28,9 @@ package com.oracle.graal.python.runtime.object;
 import java.io.ByteArrayOutputStream;
 import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
+import java.security.MessageDigest;
 import java.util.concurrent.Semaphore;
 
 import org.graalvm.collections.EconomicMap;
@@ -38,7 +40,32 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.PosixFileHandle;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2Object;
+import com.oracle.graal.python.builtins.modules.csv.CSVDialect;
+import com.oracle.graal.python.builtins.modules.csv.CSVModuleBuiltins.CSVModuleState;
+import com.oracle.graal.python.builtins.modules.csv.CSVReader;
+import com.oracle.graal.python.builtins.modules.csv.CSVWriter;
+import com.oracle.graal.python.builtins.modules.datetime.PDate;
+import com.oracle.graal.python.builtins.modules.datetime.PDateTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeDelta;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeZone;
+import com.oracle.graal.python.builtins.modules.hashlib.PHashObject;
 import com.oracle.graal.python.builtins.modules.io.PBuffered;
+import com.oracle.graal.python.builtins.modules.io.PBytesIO;
+import com.oracle.graal.python.builtins.modules.io.PFileIO;
+import com.oracle.graal.python.builtins.modules.io.PRWPair;
+import com.oracle.graal.python.builtins.modules.io.PStringIO;
+import com.oracle.graal.python.builtins.modules.io.PTextIO;
+import com.oracle.graal.python.builtins.modules.json.PJsonEncoder;
+import com.oracle.graal.python.builtins.modules.json.PJsonEncoder.FastEncode;
+import com.oracle.graal.python.builtins.modules.json.PJsonScanner;
+import com.oracle.graal.python.builtins.modules.pickle.PPickleBuffer;
+import com.oracle.graal.python.builtins.modules.pickle.PPickler;
+import com.oracle.graal.python.builtins.modules.pickle.PUnpickler;
+import com.oracle.graal.python.builtins.modules.sre.PSREMatch;
+import com.oracle.graal.python.builtins.modules.sre.PSREPattern;
+import com.oracle.graal.python.builtins.modules.sre.PSREScanner;
+import com.oracle.graal.python.builtins.modules.sre.SREInput;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibCompObject;
 import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
@@ -54,6 +81,8 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.Has
 import com.oracle.graal.python.builtins.objects.common.LocalsStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
 import com.oracle.graal.python.builtins.objects.complex.PComplex;
+import com.oracle.graal.python.builtins.objects.deque.PDeque;
+import com.oracle.graal.python.builtins.objects.deque.PDequeIter;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.dict.PDictView;
 import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictItemIterator;
@@ -70,6 +99,9 @@ import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.Signature;
+import com.oracle.graal.python.builtins.objects.functools.PKeyWrapper;
+import com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.GetSetDescriptor;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.HiddenKeyDescriptor;
@@ -87,6 +119,25 @@ import com.oracle.graal.python.builtins.objects.iterator.PSentinelIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PStringIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PZip;
+import com.oracle.graal.python.builtins.objects.itertools.PAccumulate;
+import com.oracle.graal.python.builtins.objects.itertools.PChain;
+import com.oracle.graal.python.builtins.objects.itertools.PCombinations;
+import com.oracle.graal.python.builtins.objects.itertools.PCompress;
+import com.oracle.graal.python.builtins.objects.itertools.PCount;
+import com.oracle.graal.python.builtins.objects.itertools.PCycle;
+import com.oracle.graal.python.builtins.objects.itertools.PDropwhile;
+import com.oracle.graal.python.builtins.objects.itertools.PFilterfalse;
+import com.oracle.graal.python.builtins.objects.itertools.PGroupBy;
+import com.oracle.graal.python.builtins.objects.itertools.PGrouper;
+import com.oracle.graal.python.builtins.objects.itertools.PIslice;
+import com.oracle.graal.python.builtins.objects.itertools.PPermutations;
+import com.oracle.graal.python.builtins.objects.itertools.PProduct;
+import com.oracle.graal.python.builtins.objects.itertools.PRepeat;
+import com.oracle.graal.python.builtins.objects.itertools.PStarmap;
+import com.oracle.graal.python.builtins.objects.itertools.PTakewhile;
+import com.oracle.graal.python.builtins.objects.itertools.PTee;
+import com.oracle.graal.python.builtins.objects.itertools.PZipLongest;
+import com.oracle.graal.python.builtins.objects.itertools.TeeDataObject;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.lzma.PLZMACompressor;
 import com.oracle.graal.python.builtins.objects.lzma.PLZMADecompressor;
@@ -103,6 +154,7 @@ import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.posix.PDirEntry;
 import com.oracle.graal.python.builtins.objects.posix.PScandirIterator;
+import com.oracle.graal.python.builtins.objects.queue.PSimpleQueue;
 import com.oracle.graal.python.builtins.objects.random.PRandom;
 import com.oracle.graal.python.builtins.objects.range.PBigRange;
 import com.oracle.graal.python.builtins.objects.range.PIntRange;
@@ -938,12 +990,12 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PDirEntry(PythonBuiltinClassType.PDirEntry, PythonBuiltinClassType.PDirEntry.getInstanceShape(getLanguage()), dirEntryData, path));
     }
 
-    public PMMap createMMap(SeekableByteChannel channel, long length, long offset) {
-        return trace(new PMMap(PythonBuiltinClassType.PMMap, PythonBuiltinClassType.PMMap.getInstanceShape(getLanguage()), channel, length, offset));
+    public PMMap createMMap(Object clazz, ByteBuffer[] segments, long length) {
+        return trace(new PMMap(clazz, getShape(clazz), null, segments, length, 0, false, false));
     }
 
-    public PMMap createMMap(Object clazz, SeekableByteChannel channel, long length, long offset) {
-        return trace(new PMMap(clazz, getShape(clazz), channel, length, offset));
+    public PMMap createMMap(Object clazz, SeekableByteChannel channel, ByteBuffer[] segments, long length, long offset, boolean readonly, boolean writeBack) {
+        return trace(new PMMap(clazz, getShape(clazz), channel, segments, length, offset, readonly, writeBack));
     }
 
     public BZ2Object.BZ2Compressor createBZ2Compressor(Object clazz) {
@@ -954,6 +1006,59 @@ public abstract class PythonObjectFactory extends Node {
         return trace(BZ2Object.createDecompressor(clazz, getShape(clazz)));
     }
 
+    public PPickler createPickler(Object clazz) {
+        return trace(new PPickler(clazz, getShape(clazz)));
+    }
+
+    public PUnpickler createUnpickler(Object clazz) {
+        return trace(new PUnpickler(clazz, getShape(clazz)));
+    }
+
+    public PPickleBuffer createPickleBuffer(Object clazz, PMemoryView view) {
+        return trace(new PPickleBuffer(clazz, getShape(clazz), view));
+    }
+
+    public PJsonScanner createJsonScanner(Object clazz, boolean strict, Object objectHook, Object objectPairsHook, Object parseFloat, Object parseInt, Object parseConstant) {
+        return trace(new PJsonScanner(clazz, getShape(clazz), strict, objectHook, objectPairsHook, parseFloat, parseInt, parseConstant));
+    }
+
+    public PJsonEncoder createJsonEncoder(Object clazz, boolean checkCircular, Object defaultFn, Object encoder, FastEncode fastEncode, String indent, String keySeparator, String itemSeparator,
+                    boolean sortKeys, boolean skipKeys, boolean allowNan) {
+        return trace(new PJsonEncoder(clazz, getShape(clazz), checkCircular, defaultFn, encoder, fastEncode, indent, keySeparator, itemSeparator, sortKeys, skipKeys, allowNan));
+    }
+
+    public PSREPattern createSREPattern(Object clazz, Object pattern, String patternString, boolean binary, int flags, String flagsString, int groups, PDict groupindex, Object exec) {
+        return trace(new PSREPattern(clazz, getShape(clazz), pattern, patternString, binary, flags, flagsString, groups, groupindex, exec));
+    }
+
+    public PSREMatch createSREMatch(PSREPattern pattern, SREInput input, Object result) {
+        return trace(new PSREMatch(PythonBuiltinClassType.PSREMatch, PythonBuiltinClassType.PSREMatch.getInstanceShape(getLanguage()), pattern, input, result));
+    }
+
+    public PSREScanner createSREScanner(PSREPattern pattern, SREInput input) {
+        return trace(new PSREScanner(PythonBuiltinClassType.PSREScanner, PythonBuiltinClassType.PSREScanner.getInstanceShape(getLanguage()), pattern, input));
+    }
+
+    public PDeque createDeque(Object cls) {
+        return trace(new PDeque(cls, getShape(cls)));
+    }
+
+    public PDequeIter createDequeIter(PDeque deque) {
+        return trace(new PDequeIter(PythonBuiltinClassType.PDequeIter, PythonBuiltinClassType.PDequeIter.getInstanceShape(getLanguage()), deque, false));
+    }
+
+    public PDequeIter createDequeRevIter(PDeque deque) {
+        return trace(new PDequeIter(PythonBuiltinClassType.PDequeRevIter, PythonBuiltinClassType.PDequeRevIter.getInstanceShape(getLanguage()), deque, true));
+    }
+
+    public PSimpleQueue createSimpleQueue(Object cls) {
+        return trace(new PSimpleQueue(cls, getShape(cls)));
+    }
+
+    public PHashObject createHash(Object cls, String name, int blockSize, MessageDigest digest) {
+        return trace(new PHashObject(cls, getShape(cls), name, blockSize, digest));
+    }
+
     public ZLibCompObject createJavaZLibCompObject(Object clazz, Object stream, int level, int wbits, int strategy, byte[] zdict) {
         return trace(ZLibCompObject.createJava(clazz, getShape(clazz), stream, level, wbits, strategy, zdict));
     }
@@ -985,4 +1090,141 @@ public abstract class PythonObjectFactory extends Node {
     public PBuffered createBufferRandom(Object clazz) {
         return trace(PBuffered.createBufferedRandom(clazz, getShape(clazz)));
     }
+
+    public PRWPair createRWPair(Object clazz) {
+        return trace(new PRWPair(clazz, getShape(clazz)));
+    }
+
+    public PBytesIO createBytesIO(Object clazz) {
+        return trace(new PBytesIO(clazz, getShape(clazz)));
+    }
+
+    public PStringIO createStringIO(Object clazz) {
+        return trace(new PStringIO(clazz, getShape(clazz)));
+    }
+
+    public PTimeDelta createTimeDelta(Object clazz, int days, int seconds, int microseconds) {
+        return trace(new PTimeDelta(clazz, getShape(clazz), days, seconds, microseconds));
+    }
+
+    public PDate createDate(Object clazz, int year, int month, int day) {
+        return trace(new PDate(clazz, getShape(clazz), year, month, day));
+    }
+
+    public PTime createTime(Object clazz, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PTime(clazz, getShape(clazz), hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public PDateTime createDateTime(Object clazz, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PDateTime(clazz, getShape(clazz), year, month, day, hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public PTimeZone createTimeZone(Object clazz, PTimeDelta offset, String name) {
+        return trace(new PTimeZone(clazz, getShape(clazz), offset, name));
+    }
+
+    public CSVDialect createCSVDialect(Object clazz, int delimiter, boolean doubleQuote, int escapeChar, String lineTerminator, int quoteChar, int quoting, boolean skipInitialSpace,
+                    boolean strict) {
+        return trace(new CSVDialect(clazz, getShape(clazz), delimiter, doubleQuote, escapeChar, lineTerminator, quoteChar, quoting, skipInitialSpace, strict));
+    }
+
+    public CSVReader createCSVReader(Object clazz, Object inputIter, CSVDialect dialect, CSVModuleState moduleState) {
+        return trace(new CSVReader(clazz, getShape(clazz), inputIter, dialect, moduleState));
+    }
+
+    public CSVWriter createCSVWriter(Object clazz, Object write, CSVDialect dialect) {
+        return trace(new CSVWriter(clazz, getShape(clazz), write, dialect));
+    }
+
+    public PAccumulate createAccumulate(Object cls, Object iterator, Object func, Object initial) {
+        return trace(new PAccumulate(cls, getShape(cls), iterator, func, initial));
+    }
+
+    public PChain createChain(Object cls, Object[] iterables, Object source) {
+        return trace(new PChain(cls, getShape(cls), iterables, source));
+    }
+
+    public PCombinations createCombinations(Object cls, Object[] pool, int r, boolean withReplacement) {
+        return trace(new PCombinations(cls, getShape(cls), pool, r, withReplacement));
+    }
+
+    public PCompress createCompress(Object cls, Object data, Object selectors) {
+        return trace(new PCompress(cls, getShape(cls), data, selectors));
+    }
+
+    public PCount createCount(Object cls, Object count, Object step) {
+        return trace(new PCount(cls, getShape(cls), count, step));
+    }
+
+    public PCycle createCycle(Object cls, Object iterator) {
+        return trace(new PCycle(cls, getShape(cls), iterator));
+    }
+
+    public PDropwhile createDropwhile(Object cls, Object predicate, Object iterator) {
+        return trace(new PDropwhile(cls, getShape(cls), predicate, iterator));
+    }
+
+    public PFilterfalse createFilterfalse(Object cls, Object func, Object iterator) {
+        return trace(new PFilterfalse(cls, getShape(cls), func, iterator));
+    }
+
+    public PGroupBy createGroupBy(Object cls, Object iterator, Object keyFunc) {
+        return trace(new PGroupBy(cls, getShape(cls), iterator, keyFunc));
+    }
+
+    public PGrouper createGrouper(PGroupBy parent, Object targetKey) {
+        return trace(new PGrouper(PythonBuiltinClassType.PGrouper, PythonBuiltinClassType.PGrouper.getInstanceShape(getLanguage()), parent, targetKey));
+    }
+
+    public PIslice createIslice(Object cls, Object iterator, long start, long stop, long step) {
+        return trace(new PIslice(cls, getShape(cls), iterator, start, stop, step));
+    }
+
+    public PPermutations createPermutations(Object cls, Object[] pool, int r) {
+        return trace(new PPermutations(cls, getShape(cls), pool, r));
+    }
+
+    public PProduct createProduct(Object cls, Object[][] pools) {
+        return trace(new PProduct(cls, getShape(cls), pools));
+    }
+
+    public PRepeat createRepeat(Object cls, Object element, int count) {
+        return trace(new PRepeat(cls, getShape(cls), element, count));
+    }
+
+    public PStarmap createStarmap(Object cls, Object func, Object iterator) {
+        return trace(new PStarmap(cls, getShape(cls), func, iterator));
+    }
+
+    public PTakewhile createTakewhile(Object cls, Object predicate, Object iterator) {
+        return trace(new PTakewhile(cls, getShape(cls), predicate, iterator));
+    }
+
+    public PTee createTee(TeeDataObject dataObject, int index) {
+        return trace(new PTee(PythonBuiltinClassType.PTee, PythonBuiltinClassType.PTee.getInstanceShape(getLanguage()), dataObject, index));
+    }
+
+    public PZipLongest createZipLongest(Object cls, Object[] iterators, Object fillValue) {
+        return trace(new PZipLongest(cls, getShape(cls), iterators, fillValue));
+    }
+
+    public PPartial createPartial(Object cls, Object function, Object[] args, PDict keywords) {
+        return trace(new PPartial(cls, getShape(cls), function, args, keywords));
+    }
+
+    public PKeyWrapper createKeyWrapper(Object cmp, Object object) {
+        return trace(new PKeyWrapper(PythonBuiltinClassType.PKeyWrapper, PythonBuiltinClassType.PKeyWrapper.getInstanceShape(getLanguage()), cmp, object));
+    }
+
+    public PLruCacheWrapper createLruCacheWrapper(Object cls, Object function, Object maxSize, int maxEntries, boolean typed, Object cacheInfoType) {
+        return trace(new PLruCacheWrapper(cls, getShape(cls), function, maxSize, maxEntries, typed, cacheInfoType));
+    }
+
+    public PTextIO createTextIO(Object clazz) {
+        return trace(new PTextIO(clazz, getShape(clazz)));
+    }
+
+    public PFileIO createFileIO(Object clazz) {
+        return trace(new PFileIO(clazz, getShape(clazz)));
+    }
 }
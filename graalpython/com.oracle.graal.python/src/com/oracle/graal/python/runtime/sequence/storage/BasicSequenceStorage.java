@@ -25,6 +25,9 @@
  */
 package com.oracle.graal.python.runtime.sequence.storage;
 
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.Truffle;
+
 public abstract class BasicSequenceStorage extends SequenceStorage {
 
     // nominated storage length
@@ -33,6 +36,10 @@ public abstract class BasicSequenceStorage extends SequenceStorage {
     // physical storage length
     protected int capacity;
 
+    // Internal array is shared with the host
+    private boolean sharedWithHost;
+    private static final Assumption arrayNeverSharedAssumption = Truffle.getRuntime().createAssumption("Seq storage array sharing");
+
     @Override
     public final int length() {
         return length;
@@ -41,6 +48,9 @@ public abstract class BasicSequenceStorage extends SequenceStorage {
     @Override
     public void setNewLength(int length) {
         checkLock();
+        if (length < this.length) {
+            detachSharedArray();
+        }
         this.length = length;
     }
 
@@ -51,6 +61,7 @@ public abstract class BasicSequenceStorage extends SequenceStorage {
 
     protected final void decLength() {
         checkLock();
+        detachSharedArray();
         this.length--;
     }
 
@@ -77,6 +88,7 @@ public abstract class BasicSequenceStorage extends SequenceStorage {
     public void ensureCapacity(int newCapacity) throws ArithmeticException {
         if (newCapacity > capacity) {
             increaseCapacityExactWithCopy(capacityFor(newCapacity));
+            sharedWithHost = false;
         }
     }
 
@@ -88,4 +100,37 @@ public abstract class BasicSequenceStorage extends SequenceStorage {
         capacity = length;
     }
 
+    /**
+     * Returns the internal array after shrinking it to the length of this storage, so that it can
+     * be handed out to the host without exposing unused capacity. Item assignments on either side
+     * stay visible to the other until an operation removes or reorders items, or the storage
+     * grows: this storage then continues on a copy (see {@link #detachSharedArray()}) and the
+     * shared array keeps the items it had at that point.
+     */
+    public final Object shareInternalArrayObject() {
+        if (capacity != length) {
+            setInternalArrayObject(getCopyOfInternalArrayObject());
+            minimizeCapacity();
+        }
+        arrayNeverSharedAssumption.invalidate();
+        sharedWithHost = true;
+        return getInternalArrayObject();
+    }
+
+    /**
+     * Must be called before items are moved within the internal array or the length shrinks, so
+     * that an array shared with {@link #shareInternalArrayObject()} is not changed by it. The copy
+     * keeps the capacity, because threads reading a list without locking may still use a length
+     * that was valid for the shared array.
+     */
+    public final void detachSharedArray() {
+        if (arrayNeverSharedAssumption.isValid()) {
+            return;
+        }
+        if (sharedWithHost) {
+            increaseCapacityExactWithCopy(capacity);
+            sharedWithHost = false;
+        }
+    }
+
 }
@@ -0,0 +1,515 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+__doc__ = "Fast implementation of the datetime type."
+
+_DAYNAMES = (None, "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun")
+_MONTHNAMES = (None, "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec")
+
+
+def _is_leap(year):
+    return year % 4 == 0 and (year % 100 != 0 or year % 400 == 0)
+
+
+def _ymd2ord(year, month, day):
+    # unlike date.toordinal, this also accepts year MAXYEAR + 1, which the ISO calendar needs
+    y = year - 1
+    days_before_month = (0, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334)[month]
+    if month > 2 and _is_leap(year):
+        days_before_month += 1
+    return y * 365 + y // 4 - y // 100 + y // 400 + days_before_month + day
+
+
+def _isoweek1monday(year):
+    # the first ISO week of a year is the one that contains its first Thursday
+    firstday = _ymd2ord(year, 1, 1)
+    firstweekday = (firstday + 6) % 7
+    week1monday = firstday - firstweekday
+    if firstweekday > 3:
+        week1monday += 7
+    return week1monday
+
+
+def _build_struct_time(y, m, d, hh, mm, ss, dstflag):
+    import time
+    ordinal = _ymd2ord(y, m, d)
+    wday = (ordinal + 6) % 7
+    dnum = ordinal - _ymd2ord(y, 1, 1) + 1
+    return time.struct_time((y, m, d, hh, mm, ss, wday, dnum, dstflag))
+
+
+def _wrap_strftime(obj, format, timetuple):
+    # handles the directives %f, %z and %Z, which time.strftime does not know about
+    import time
+    freplace = None
+    zreplace = None
+    Zreplace = None
+    newformat = []
+    push = newformat.append
+    i, n = 0, len(format)
+    while i < n:
+        ch = format[i]
+        i += 1
+        if ch == '%':
+            if i < n:
+                ch = format[i]
+                i += 1
+                if ch == 'f':
+                    if freplace is None:
+                        freplace = '%06d' % getattr(obj, 'microsecond', 0)
+                    push(freplace)
+                elif ch == 'z':
+                    if zreplace is None:
+                        zreplace = ""
+                        if hasattr(obj, "utcoffset"):
+                            offset = obj.utcoffset()
+                            if offset is not None:
+                                sign = '+'
+                                if offset.days < 0:
+                                    offset = -offset
+                                    sign = '-'
+                                h, rest = divmod(offset, timedelta(hours=1))
+                                m, rest = divmod(rest, timedelta(minutes=1))
+                                s = rest.seconds
+                                u = offset.microseconds
+                                if u:
+                                    zreplace = '%c%02d%02d%02d.%06d' % (sign, h, m, s, u)
+                                elif s:
+                                    zreplace = '%c%02d%02d%02d' % (sign, h, m, s)
+                                else:
+                                    zreplace = '%c%02d%02d' % (sign, h, m)
+                    push(zreplace)
+                elif ch == 'Z':
+                    if Zreplace is None:
+                        Zreplace = ""
+                        if hasattr(obj, "tzname"):
+                            s = obj.tzname()
+                            if s is not None:
+                                Zreplace = s.replace('%', '%%')
+                    push(Zreplace)
+                else:
+                    push('%')
+                    push(ch)
+            else:
+                push('%')
+        else:
+            push(ch)
+    return time.strftime("".join(newformat), timetuple)
+
+
+def _type_name(obj):
+    cls = type(obj)
+    return "%s.%s" % (cls.__module__, cls.__qualname__)
+
+
+def _format(self, fmt):
+    if not isinstance(fmt, str):
+        raise TypeError("must be str, not %s" % type(fmt).__name__)
+    if len(fmt) != 0:
+        return self.strftime(fmt)
+    return str(self)
+
+
+def _repr_tzinfo_and_fold(self, s):
+    if self.tzinfo is not None:
+        s = s[:-1] + ", tzinfo=%r)" % self.tzinfo
+    if self.fold:
+        s = s[:-1] + ", fold=1)"
+    return s
+
+
+# timedelta
+
+def __repr__(self):
+    args = []
+    if self.days:
+        args.append("days=%d" % self.days)
+    if self.seconds:
+        args.append("seconds=%d" % self.seconds)
+    if self.microseconds:
+        args.append("microseconds=%d" % self.microseconds)
+    if not args:
+        args.append('0')
+    return "%s(%s)" % (_type_name(self), ', '.join(args))
+
+
+def __reduce__(self):
+    return type(self), (self.days, self.seconds, self.microseconds)
+
+
+timedelta.__repr__ = __graalpython__.builtin_method(__repr__)
+timedelta.__reduce__ = __graalpython__.builtin_method(__reduce__)
+
+
+# date
+
+def __repr__(self):
+    return "%s(%d, %d, %d)" % (_type_name(self), self.year, self.month, self.day)
+
+
+def replace(self, year=None, month=None, day=None):
+    """Return date with new specified fields."""
+    if year is None:
+        year = self.year
+    if month is None:
+        month = self.month
+    if day is None:
+        day = self.day
+    return type(self)(year, month, day)
+
+
+def ctime(self):
+    """Return ctime() style string."""
+    weekday = self.toordinal() % 7 or 7
+    return "%s %s %2d 00:00:00 %04d" % (_DAYNAMES[weekday], _MONTHNAMES[self.month], self.day, self.year)
+
+
+def strftime(self, fmt):
+    """format -> strftime() style string."""
+    return _wrap_strftime(self, fmt, self.timetuple())
+
+
+def timetuple(self):
+    """Return local time tuple compatible with time.localtime()."""
+    return _build_struct_time(self.year, self.month, self.day, 0, 0, 0, -1)
+
+
+def isocalendar(self):
+    """Return a 3-tuple containing ISO year, week number, and weekday."""
+    year = self.year
+    week1monday = _isoweek1monday(year)
+    today = _ymd2ord(year, self.month, self.day)
+    week, day = divmod(today - week1monday, 7)
+    if week < 0:
+        year -= 1
+        week1monday = _isoweek1monday(year)
+        week, day = divmod(today - week1monday, 7)
+    elif week >= 52:
+        if today >= _isoweek1monday(year + 1):
+            year += 1
+            week = 0
+    return year, week + 1, day + 1
+
+
+def __reduce__(self):
+    year_hi, year_lo = divmod(self.year, 256)
+    return type(self), (bytes([year_hi, year_lo, self.month, self.day]),)
+
+
+def today(cls):
+    """Current date or datetime:  same as self.__class__.fromtimestamp(time.time())."""
+    import time
+    return cls.fromtimestamp(time.time())
+
+
+def fromisocalendar(cls, year, week, day):
+    """Construct a date from the ISO year, week number and weekday.
+
+    This is the inverse of the date.isocalendar() function"""
+    if not MINYEAR <= year <= MAXYEAR:
+        raise ValueError("Year is out of range: %d" % year)
+    if not 0 < week < 53:
+        out_of_range = True
+        if week == 53:
+            # ISO years have 53 weeks in them on years starting with a Thursday and on leap years
+            # starting on a Wednesday
+            first_weekday = _ymd2ord(year, 1, 1) % 7
+            if first_weekday == 4 or (first_weekday == 3 and _is_leap(year)):
+                out_of_range = False
+        if out_of_range:
+            raise ValueError("Invalid week: %d" % week)
+    if not 0 < day < 8:
+        raise ValueError("Invalid weekday: %d (range is [1, 7])" % day)
+    return cls.fromordinal(_isoweek1monday(year) + (week - 1) * 7 + (day - 1))
+
+
+date.__repr__ = __graalpython__.builtin_method(__repr__)
+date.__format__ = __graalpython__.builtin_method(_format)
+date.__reduce__ = __graalpython__.builtin_method(__reduce__)
+date.replace = __graalpython__.builtin_method(replace)
+date.ctime = __graalpython__.builtin_method(ctime)
+date.strftime = __graalpython__.builtin_method(strftime)
+date.timetuple = __graalpython__.builtin_method(timetuple)
+date.isocalendar = __graalpython__.builtin_method(isocalendar)
+date.today = classmethod(today)
+date.fromisocalendar = classmethod(fromisocalendar)
+
+
+# time
+
+def __repr__(self):
+    if self.microsecond != 0:
+        s = ", %d, %d" % (self.second, self.microsecond)
+    elif self.second != 0:
+        s = ", %d" % self.second
+    else:
+        s = ""
+    return _repr_tzinfo_and_fold(self, "%s(%d, %d%s)" % (_type_name(self), self.hour, self.minute, s))
+
+
+def replace(self, hour=None, minute=None, second=None, microsecond=None, tzinfo=True, *, fold=None):
+    """Return a new time with new values for the specified fields."""
+    if hour is None:
+        hour = self.hour
+    if minute is None:
+        minute = self.minute
+    if second is None:
+        second = self.second
+    if microsecond is None:
+        microsecond = self.microsecond
+    if tzinfo is True:
+        tzinfo = self.tzinfo
+    if fold is None:
+        fold = self.fold
+    return type(self)(hour, minute, second, microsecond, tzinfo, fold=fold)
+
+
+def strftime(self, fmt):
+    """Format using strftime().  The date part of the timestamp passed
+    to underlying strftime should not be used.
+    """
+    # the year must be >= 1000 else Python's strftime implementation can raise a bogus exception
+    timetuple = (1900, 1, 1, self.hour, self.minute, self.second, 0, 1, -1)
+    return _wrap_strftime(self, fmt, timetuple)
+
+
+def __reduce_ex__(self, protocol):
+    us2, us3 = divmod(self.microsecond, 256)
+    us1, us2 = divmod(us2, 256)
+    h = self.hour
+    if self.fold and protocol > 3:
+        h += 128
+    basestate = bytes([h, self.minute, self.second, us1, us2, us3])
+    if self.tzinfo is None:
+        return type(self), (basestate,)
+    return type(self), (basestate, self.tzinfo)
+
+
+def __reduce__(self):
+    return self.__reduce_ex__(2)
+
+
+time.__repr__ = __graalpython__.builtin_method(__repr__)
+time.__format__ = __graalpython__.builtin_method(_format)
+time.__reduce_ex__ = __graalpython__.builtin_method(__reduce_ex__)
+time.__reduce__ = __graalpython__.builtin_method(__reduce__)
+time.replace = __graalpython__.builtin_method(replace)
+time.strftime = __graalpython__.builtin_method(strftime)
+
+
+# datetime
+
+def __repr__(self):
+    fields = [self.year, self.month, self.day, self.hour, self.minute, self.second, self.microsecond]
+    if fields[-1] == 0:
+        del fields[-1]
+    if fields[-1] == 0:
+        del fields[-1]
+    return _repr_tzinfo_and_fold(self, "%s(%s)" % (_type_name(self), ", ".join(map(str, fields))))
+
+
+def replace(self, year=None, month=None, day=None, hour=None, minute=None, second=None, microsecond=None, tzinfo=True, *, fold=None):
+    """Return a new datetime with new values for the specified fields."""
+    if year is None:
+        year = self.year
+    if month is None:
+        month = self.month
+    if day is None:
+        day = self.day
+    if hour is None:
+        hour = self.hour
+    if minute is None:
+        minute = self.minute
+    if second is None:
+        second = self.second
+    if microsecond is None:
+        microsecond = self.microsecond
+    if tzinfo is True:
+        tzinfo = self.tzinfo
+    if fold is None:
+        fold = self.fold
+    return type(self)(year, month, day, hour, minute, second, microsecond, tzinfo, fold=fold)
+
+
+def ctime(self):
+    """Return ctime() style string."""
+    weekday = self.toordinal() % 7 or 7
+    return "%s %s %2d %02d:%02d:%02d %04d" % (_DAYNAMES[weekday], _MONTHNAMES[self.month], self.day, self.hour, self.minute, self.second,
+                                              self.year)
+
+
+def timetuple(self):
+    """Return local time tuple compatible with time.localtime()."""
+    dst = self.dst()
+    if dst is None:
+        dst = -1
+    elif dst:
+        dst = 1
+    else:
+        dst = 0
+    return _build_struct_time(self.year, self.month, self.day, self.hour, self.minute, self.second, dst)
+
+
+def utctimetuple(self):
+    """Return UTC time tuple compatible with time.gmtime()."""
+    offset = self.utcoffset()
+    if offset:
+        self -= offset
+    return _build_struct_time(self.year, self.month, self.day, self.hour, self.minute, self.second, 0)
+
+
+def __reduce_ex__(self, protocol):
+    year_hi, year_lo = divmod(self.year, 256)
+    us2, us3 = divmod(self.microsecond, 256)
+    us1, us2 = divmod(us2, 256)
+    m = self.month
+    if self.fold and protocol > 3:
+        m += 128
+    basestate = bytes([year_hi, year_lo, m, self.day, self.hour, self.minute, self.second, us1, us2, us3])
+    if self.tzinfo is None:
+        return type(self), (basestate,)
+    return type(self), (basestate, self.tzinfo)
+
+
+def __reduce__(self):
+    return self.__reduce_ex__(2)
+
+
+def combine(cls, date, time, tzinfo=True):
+    """Construct a datetime from a given date and a given time."""
+    if not isinstance(date, _date):
+        raise TypeError("date argument must be a date instance")
+    if not isinstance(time, _time):
+        raise TypeError("time argument must be a time instance")
+    if tzinfo is True:
+        tzinfo = time.tzinfo
+    return cls(date.year, date.month, date.day, time.hour, time.minute, time.second, time.microsecond, tzinfo, fold=time.fold)
+
+
+def strptime(cls, date_string, format):
+    """string, format -> new datetime parsed from a string (like time.strptime())."""
+    import _strptime
+    return _strptime._strptime_datetime(cls, date_string, format)
+
+
+_date = date
+_time = time
+datetime.__repr__ = __graalpython__.builtin_method(__repr__)
+datetime.__reduce_ex__ = __graalpython__.builtin_method(__reduce_ex__)
+datetime.__reduce__ = __graalpython__.builtin_method(__reduce__)
+datetime.replace = __graalpython__.builtin_method(replace)
+datetime.ctime = __graalpython__.builtin_method(ctime)
+datetime.timetuple = __graalpython__.builtin_method(timetuple)
+datetime.utctimetuple = __graalpython__.builtin_method(utctimetuple)
+datetime.combine = classmethod(combine)
+datetime.strptime = classmethod(strptime)
+
+
+# tzinfo
+
+def tzname(self, dt):
+    """datetime -> string name of time zone."""
+    raise NotImplementedError("tzinfo subclass must override tzname()")
+
+
+def utcoffset(self, dt):
+    """datetime -> timedelta, positive for east of UTC, negative for west of UTC"""
+    raise NotImplementedError("tzinfo subclass must override utcoffset()")
+
+
+def dst(self, dt):
+    """datetime -> DST offset as timedelta, positive for east of UTC."""
+    raise NotImplementedError("tzinfo subclass must override dst()")
+
+
+def fromutc(self, dt):
+    """datetime in UTC -> datetime in local time."""
+    if not isinstance(dt, datetime):
+        raise TypeError("fromutc() requires a datetime argument")
+    if dt.tzinfo is not self:
+        raise ValueError("dt.tzinfo is not self")
+    dtoff = dt.utcoffset()
+    if dtoff is None:
+        raise ValueError("fromutc() requires a non-None utcoffset() result")
+    dtdst = dt.dst()
+    if dtdst is None:
+        raise ValueError("fromutc() requires a non-None dst() result")
+    delta = dtoff - dtdst
+    if delta:
+        dt += delta
+        dtdst = dt.dst()
+        if dtdst is None:
+            raise ValueError("fromutc(): dt.dst gave inconsistent results; cannot convert")
+    return dt + dtdst
+
+
+def __reduce__(self):
+    getinitargs = getattr(self, "__getinitargs__", None)
+    if getinitargs:
+        args = getinitargs()
+    else:
+        args = ()
+    getstate = getattr(self, "__getstate__", None)
+    if getstate:
+        state = getstate()
+    else:
+        state = getattr(self, "__dict__", None) or None
+    return type(self), args, state
+
+
+tzinfo.tzname = __graalpython__.builtin_method(tzname)
+tzinfo.utcoffset = __graalpython__.builtin_method(utcoffset)
+tzinfo.dst = __graalpython__.builtin_method(dst)
+tzinfo.fromutc = __graalpython__.builtin_method(fromutc)
+tzinfo.__reduce__ = __graalpython__.builtin_method(__reduce__)
+
+
+# timezone
+
+def __repr__(self):
+    if self is timezone.utc:
+        return "datetime.timezone.utc"
+    return "%s(%s)" % (_type_name(self), ", ".join(map(repr, self.__getinitargs__())))
+
+
+timezone.__repr__ = __graalpython__.builtin_method(__repr__)
+
+# keep 'from _datetime import *' from exporting the helpers
+del __repr__, __reduce__, __reduce_ex__, replace, ctime, strftime, timetuple, utctimetuple, isocalendar, today, fromisocalendar, \
+    combine, strptime, tzname, utcoffset, dst, fromutc
@@ -42,5 +42,3 @@ class Empty(Exception):
     'Exception raised by Queue.get(block=0)/get_nowait().'
     pass
 
-
-SimpleQueue = None
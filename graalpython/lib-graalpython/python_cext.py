@@ -1464,7 +1464,7 @@ def initialize_datetime_capi():
 
         @staticmethod
         def DateTime_FromDateAndTimeAndFold(y, mon, d, h, m, s, usec, tz, fold, typ):
-            return typ(y, month=mon, day=d, hour=h, minute=m, second=s, microseconds=usec, tzinfo=tz, fold=fold)
+            return typ(y, month=mon, day=d, hour=h, minute=m, second=s, microsecond=usec, tzinfo=tz, fold=fold)
 
         @staticmethod
         def Time_FromTimeAndFold(h, m, s, us, tz, fold, typ):
@@ -243,8 +243,11 @@ class JSONEncoder(object):
             return text
 
 
-        if (_one_shot and c_make_encoder is not None
-                and self.indent is None):
+        # BEGIN TRUFFLE PATCH: our _json encoder also supports indent
+        # if (_one_shot and c_make_encoder is not None
+        #         and self.indent is None):
+        if _one_shot and c_make_encoder is not None:
+        # END TRUFFLE PATCH
             _iterencode = c_make_encoder(
                 markers, self.default, _encoder, self.indent,
                 self.key_separator, self.item_separator, self.sort_keys,
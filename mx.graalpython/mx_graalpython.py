@@ -1262,12 +1262,7 @@ def import_python_sources(args):
         "_struct.c": "_cpython_struct.c",
         "_testcapimodule.c": "_testcapi.c",
     }
-    extra_pypy_files = [
-        "graalpython/lib-python/3/_md5.py",
-        "graalpython/lib-python/3/_sha1.py",
-        "graalpython/lib-python/3/_sha256.py",
-        "graalpython/lib-python/3/_sha512.py",
-    ]
+    extra_pypy_files = []
 
     parser = ArgumentParser(prog='mx python-src-import')
     parser.add_argument('--cpython', action='store', help='Path to CPython sources', required=True)
@@ -78,6 +78,8 @@ MICRO_BENCHMARKS = {
     'list-iterating-explicit': ITER_10 + ['1000000'],
     'list-iterating': ITER_10 + ['1000000'],
     'list-iterating-obj-sized': ITER_10 + ['100_000_000'],
+    'list-sort-key-sized': ITER_10 + ['1_000_000'],
+    'deque-append-popleft-sized': ITER_10 + ['1_000_000'],
     'list-constructions-sized': ITER_10 + ['10_000'],
     'dict-getitem-sized': ITER_10 + ['50_000_000'],
     'math-sqrt': ITER_10 + ['500000000'],
@@ -92,6 +94,7 @@ MICRO_BENCHMARKS = {
     'call-classmethod-sized': ITER_10 + ['500_000_000'],
     'mmap-anonymous-sized': ITER_10 + ['20_000'],
     'mmap-file': ITER_10 + ['1000'],
+    'hashlib-update-sized': ITER_10 + ['16384'],
     'generate-functions-sized': ITER_15 + ['500_000_000'],
     'try-except-simple': ITER_10 + ['500_000_000'],
     'try-except-store-simple': ITER_10 + ['500_000_000'],
@@ -170,6 +173,7 @@ MESO_BENCHMARKS = {
     'raytrace-simple': ITER_10 + [],
     'lud': ITER_10 + ['512'],
     'mm': ITER_10 + ['10'],
+    'json-roundtrip': ITER_10 + ['20000'],
     # Rodinia
     'backprop_rodinia': ITER_10 + ['1048576'],
     'lavaMD_rodinia': ITER_10 + ['32'],
@@ -205,6 +209,10 @@ INTEROP_JAVA_BENCHMARKS = {
     'euler11': [_INTEROP_JAVA_PACKAGE + 'PyEuler11'] + MESO_BENCHMARKS['euler11'],
     'nbody3': [_INTEROP_JAVA_PACKAGE + 'PyNbody'] + MESO_BENCHMARKS['nbody3'],
     'fannkuchredux3': [_INTEROP_JAVA_PACKAGE + 'PyFannkuchredux'] + MESO_BENCHMARKS['fannkuchredux3'],
+    'context-creation': [_INTEROP_JAVA_PACKAGE + 'ContextCreation'] + ITER_10 + ['20', 'cached'],
+    'context-creation-uncached': [_INTEROP_JAVA_PACKAGE + 'ContextCreation'] + ITER_10 + ['20', 'uncached'],
+    'container-access': [_INTEROP_JAVA_PACKAGE + 'ContainerAccess'] + ITER_10 + ['1000000', 'single'],
+    'container-access-multi-threaded': [_INTEROP_JAVA_PACKAGE + 'ContainerAccess'] + ITER_10 + ['1000000', 'multi'],
 }
 
 # -------------------------------------------------------